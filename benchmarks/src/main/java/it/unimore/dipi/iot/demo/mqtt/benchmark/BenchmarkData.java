@@ -0,0 +1,97 @@
+package it.unimore.dipi.iot.demo.mqtt.benchmark;
+
+import it.unimore.dipi.iot.demo.mqtt.smartobject.TemperatureSensor;
+import it.unimore.dipi.iot.wldt.worker.mqtt.MqttPipelineData;
+import it.unimore.dipi.iot.wldt.worker.mqtt.MqttTopicDescriptor;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+
+/**
+ * Test data shared by the benchmarks. Topics and descriptors follow the configuration
+ * of WldtMqttProcess and the generated messages are created once in the setup phase,
+ * so the measured code is only the processing one.
+ *
+ * @created: 18/10/2026
+ * @project: WLDT - MQTT Example
+ */
+public class BenchmarkData {
+
+    public static final int MESSAGES_PER_TOPIC = 16;
+
+    private static final String TELEMETRY_TOPIC_FORMAT = "telemetry/com:iot:dummy:dummyMqttDevice%06d/resource/temperature";
+
+    private static final String COMMAND_TOPIC_FORMAT = "command/com:iot:dummy:dummyMqttDevice%06d";
+
+    public static final MqttTopicDescriptor TELEMETRY_DESCRIPTOR = new MqttTopicDescriptor("temperature_topic",
+            "temperature",
+            "telemetry/{{device_id}}/resource/{{resource_id}}",
+            MqttTopicDescriptor.MQTT_TOPIC_TYPE_DEVICE_OUTGOING);
+
+    private static final MqttTopicDescriptor COMMAND_DESCRIPTOR = new MqttTopicDescriptor("command_topic",
+            "default_command_channel",
+            "command/{{device_id}}",
+            MqttTopicDescriptor.MQTT_TOPIC_TYPE_DEVICE_INCOMING);
+
+    private BenchmarkData() {
+    }
+
+    /**
+     * Numeric telemetry messages (E.g. "23.418") for topicCardinality devices starting from firstDevice.
+     * Messages of different topics are interleaved as they would be received by the Digital Twin.
+     */
+    public static MqttPipelineData[] telemetryMessages(int topicCardinality, int firstDevice, long seed) {
+
+        Random random = new Random(seed);
+        MqttPipelineData[] messages = new MqttPipelineData[topicCardinality * MESSAGES_PER_TOPIC];
+
+        for(int i = 0; i < messages.length; i++) {
+            String topic = String.format(TELEMETRY_TOPIC_FORMAT, firstDevice + (i % topicCardinality));
+            double value = 20.0 + random.nextDouble() * 10.0;
+            messages[i] = new MqttPipelineData(topic, TELEMETRY_DESCRIPTOR, Double.toString(value).getBytes(StandardCharsets.UTF_8), false);
+        }
+
+        return messages;
+    }
+
+    /**
+     * Samples of the TemperatureSensor stream published by DemoMqttDevice
+     */
+    public static double[] temperatureSamples(int count, long seed) {
+
+        TemperatureSensor temperatureSensor = new TemperatureSensor(seed);
+        double[] samples = new double[count];
+
+        for(int i = 0; i < count; i++)
+            samples[i] = temperatureSensor.getTemperatureValue();
+
+        return samples;
+    }
+
+    /**
+     * Command messages with a textual payload of payloadSize bytes for topicCardinality devices starting from firstDevice.
+     */
+    public static MqttPipelineData[] commandMessages(int topicCardinality, int firstDevice, int payloadSize, long seed) {
+
+        Random random = new Random(seed);
+        MqttPipelineData[] messages = new MqttPipelineData[topicCardinality * MESSAGES_PER_TOPIC];
+
+        for(int i = 0; i < messages.length; i++) {
+            String topic = String.format(COMMAND_TOPIC_FORMAT, firstDevice + (i % topicCardinality));
+            messages[i] = new MqttPipelineData(topic, COMMAND_DESCRIPTOR, textPayload(payloadSize, random), false);
+        }
+
+        return messages;
+    }
+
+    private static byte[] textPayload(int payloadSize, Random random) {
+
+        byte[] payload = new byte[payloadSize];
+
+        for(int i = 0; i < payloadSize; i++)
+            payload[i] = (byte) ('a' + random.nextInt(26));
+
+        return payload;
+    }
+
+}
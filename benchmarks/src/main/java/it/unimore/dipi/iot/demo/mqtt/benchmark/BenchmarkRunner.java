@@ -0,0 +1,52 @@
+package it.unimore.dipi.iot.demo.mqtt.benchmark;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs the selected benchmarks first with a single thread and then with one thread for each available core,
+ * always with the GC profiler enabled in order to report the allocation rate (gc.alloc.rate.norm = bytes per operation).
+ * Results are saved as JSON files (jmh-result-<threads>t.json) that can be compared across builds.
+ *
+ * Usage: java -jar target/benchmarks.jar [benchmark regexp]
+ *
+ * The standard JMH command line is still available through: java -cp target/benchmarks.jar org.openjdk.jmh.Main
+ *
+ * @created: 18/10/2026
+ * @project: WLDT - MQTT Example
+ */
+public class BenchmarkRunner {
+
+    public static final String LOGBACK_CONFIGURATION_ARG = "-Dlogback.configurationFile=logback-benchmark.xml";
+
+    private static final String DEFAULT_INCLUDE = "it\\.unimore\\.dipi\\.iot\\.demo\\.mqtt\\.benchmark\\..*";
+
+    public static void main(String[] args) throws RunnerException {
+
+        String include = args.length > 0 ? args[0] : DEFAULT_INCLUDE;
+
+        int[] threadCounts = new int[]{ 1, Runtime.getRuntime().availableProcessors() };
+
+        for(int i = 0; i < threadCounts.length; i++) {
+
+            //Single core machine
+            if(i > 0 && threadCounts[i] == threadCounts[i - 1])
+                continue;
+
+            Options options = new OptionsBuilder()
+                    .include(include)
+                    .threads(threadCounts[i])
+                    .addProfiler(GCProfiler.class)
+                    .resultFormat(ResultFormatType.JSON)
+                    .result(String.format("jmh-result-%dt.json", threadCounts[i]))
+                    .build();
+
+            new Runner(options).run();
+        }
+    }
+
+}
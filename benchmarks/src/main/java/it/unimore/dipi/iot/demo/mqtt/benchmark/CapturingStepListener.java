@@ -0,0 +1,66 @@
+package it.unimore.dipi.iot.demo.mqtt.benchmark;
+
+import it.unimore.dipi.iot.wldt.processing.PipelineData;
+import it.unimore.dipi.iot.wldt.processing.ProcessingPipelineListener;
+import it.unimore.dipi.iot.wldt.processing.ProcessingStep;
+import it.unimore.dipi.iot.wldt.processing.ProcessingStepListener;
+
+import java.util.Optional;
+
+/**
+ * Step and Pipeline listener keeping a reference to the last result, so it can be
+ * returned by the benchmark method and consumed by JMH avoiding dead code elimination.
+ * Each benchmark thread has its own instance.
+ *
+ * @created: 18/10/2026
+ * @project: WLDT - MQTT Example
+ */
+public class CapturingStepListener implements ProcessingStepListener, ProcessingPipelineListener {
+
+    private Object lastResult;
+
+    private long errorCount = 0;
+
+    @Override
+    public void onStepDone(ProcessingStep step, Optional<PipelineData> result) {
+        this.lastResult = result;
+    }
+
+    @Override
+    public void onStepError(ProcessingStep step, PipelineData data, String errorMessage) {
+        this.errorCount++;
+        this.lastResult = errorMessage;
+    }
+
+    @Override
+    public void onStepSkip(ProcessingStep step, PipelineData data) {
+        this.lastResult = data;
+    }
+
+    @Override
+    public void onPipelineDone(Optional<PipelineData> result) {
+        this.lastResult = result;
+    }
+
+    @Override
+    public void onPipelineError() {
+        this.errorCount++;
+        this.lastResult = null;
+    }
+
+    public Object getLastResult() {
+        return lastResult;
+    }
+
+    /**
+     * @return the data produced by the last completed step, null if it failed or produced no data
+     */
+    @SuppressWarnings("unchecked")
+    public PipelineData getLastData() {
+        return lastResult instanceof Optional ? ((Optional<PipelineData>) lastResult).orElse(null) : null;
+    }
+
+    public long getErrorCount() {
+        return errorCount;
+    }
+}
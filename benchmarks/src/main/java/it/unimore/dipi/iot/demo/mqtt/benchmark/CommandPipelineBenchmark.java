@@ -0,0 +1,56 @@
+package it.unimore.dipi.iot.demo.mqtt.benchmark;
+
+import it.unimore.dipi.iot.demo.mqtt.wldt.MqttCommandTopicChangeStep;
+import it.unimore.dipi.iot.demo.mqtt.wldt.MqttPayloadChangeStep;
+import it.unimore.dipi.iot.wldt.exception.ProcessingPipelineException;
+import it.unimore.dipi.iot.wldt.processing.ProcessingPipeline;
+import it.unimore.dipi.iot.wldt.processing.step.IdentityProcessingStep;
+import it.unimore.dipi.iot.wldt.worker.mqtt.MqttPipelineData;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.ThreadParams;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * End to end cost of the command pipeline of WldtMqttProcess executed through the core ProcessingPipeline:
+ * IdentityProcessingStep -> MqttPayloadChangeStep -> MqttCommandTopicChangeStep
+ *
+ * @created: 18/10/2026
+ * @project: WLDT - MQTT Example
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = BenchmarkRunner.LOGBACK_CONFIGURATION_ARG)
+@State(Scope.Thread)
+public class CommandPipelineBenchmark {
+
+    @Param({"16", "256", "4096"})
+    public int payloadSize;
+
+    @Param({"1", "100"})
+    public int topicCardinality;
+
+    private final CapturingStepListener listener = new CapturingStepListener();
+
+    private ProcessingPipeline commandPipeline;
+
+    private MqttPipelineData[] messages;
+
+    private int index = 0;
+
+    @Setup(Level.Trial)
+    public void setup(ThreadParams threadParams) {
+        this.commandPipeline = new ProcessingPipeline(new IdentityProcessingStep(), new MqttPayloadChangeStep(), new MqttCommandTopicChangeStep());
+        this.messages = BenchmarkData.commandMessages(topicCardinality, threadParams.getThreadIndex() * topicCardinality, payloadSize, threadParams.getThreadIndex());
+    }
+
+    @Benchmark
+    public Object commandPipeline() throws ProcessingPipelineException {
+        commandPipeline.start(messages[index], listener);
+        index = (index + 1) % messages.length;
+        return listener.getLastResult();
+    }
+
+}
@@ -0,0 +1,136 @@
+package it.unimore.dipi.iot.demo.mqtt.benchmark;
+
+import it.unimore.dipi.iot.demo.mqtt.wldt.MqttCommandControlStep;
+import it.unimore.dipi.iot.demo.mqtt.wldt.MqttCommandResponseStep;
+import it.unimore.dipi.iot.demo.mqtt.wldt.MqttCommandTopicChangeStep;
+import it.unimore.dipi.iot.demo.mqtt.wldt.MqttPayloadChangeStep;
+import it.unimore.dipi.iot.demo.mqtt.wldt.control.CommandControlConfiguration;
+import it.unimore.dipi.iot.demo.mqtt.wldt.control.CommandController;
+import it.unimore.dipi.iot.demo.mqtt.wldt.correlation.CommandCorrelationConfiguration;
+import it.unimore.dipi.iot.demo.mqtt.wldt.correlation.CommandCorrelationTracker;
+import it.unimore.dipi.iot.wldt.processing.cache.PipelineCache;
+import it.unimore.dipi.iot.wldt.worker.mqtt.MqttPipelineData;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.ThreadParams;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of each single step of the command pipeline (JSON encoding and topic change) for different payload sizes.
+ * The JSON encoding is measured both with the precompiled CommandDataStructureEncoder and with the Jackson ObjectMapper.
+ * The command control step receives a flood of commands, so it measures mostly the deduplication and rate limit rejections.
+ * The correlated round trip encodes a tracked command and matches it immediately (the encoded command carries the
+ * correlation id like the response of the device), so the table of the outstanding commands stays small.
+ *
+ * @created: 18/10/2026
+ * @project: WLDT - MQTT Example
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = BenchmarkRunner.LOGBACK_CONFIGURATION_ARG)
+@State(Scope.Benchmark)
+public class CommandStepBenchmark {
+
+    @Param({"16", "256", "4096"})
+    public int payloadSize;
+
+    @Param({"1", "100"})
+    public int topicCardinality;
+
+    private MqttPayloadChangeStep payloadChangeStep;
+
+    private MqttPayloadChangeStep jacksonPayloadChangeStep;
+
+    private MqttCommandTopicChangeStep commandTopicChangeStep;
+
+    private CommandController commandController;
+
+    private MqttCommandControlStep commandControlStep;
+
+    private CommandCorrelationTracker correlationTracker;
+
+    private MqttPayloadChangeStep correlatedPayloadChangeStep;
+
+    private MqttCommandResponseStep commandResponseStep;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        this.payloadChangeStep = new MqttPayloadChangeStep();
+        this.jacksonPayloadChangeStep = new MqttPayloadChangeStep(false);
+        this.commandTopicChangeStep = new MqttCommandTopicChangeStep();
+
+        //Rate limited commands are rejected instead of waiting for the timer of the controller
+        CommandControlConfiguration commandControlConfiguration = new CommandControlConfiguration();
+        commandControlConfiguration.setCoalescingEnabled(false);
+        this.commandController = new CommandController(commandControlConfiguration);
+        this.commandControlStep = new MqttCommandControlStep(commandController);
+
+        this.correlationTracker = new CommandCorrelationTracker(new CommandCorrelationConfiguration());
+        this.correlatedPayloadChangeStep = new MqttPayloadChangeStep(correlationTracker);
+        this.commandResponseStep = new MqttCommandResponseStep(correlationTracker);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        this.commandController.close();
+        this.correlationTracker.close();
+    }
+
+    @State(Scope.Thread)
+    public static class ThreadState {
+
+        private final PipelineCache pipelineCache = new PipelineCache();
+
+        private final CapturingStepListener listener = new CapturingStepListener();
+
+        private MqttPipelineData[] messages;
+
+        private int index = 0;
+
+        @Setup(Level.Trial)
+        public void setup(CommandStepBenchmark benchmark, ThreadParams threadParams) {
+            int cardinality = benchmark.topicCardinality;
+            this.messages = BenchmarkData.commandMessages(cardinality, threadParams.getThreadIndex() * cardinality, benchmark.payloadSize, threadParams.getThreadIndex());
+        }
+
+        MqttPipelineData next() {
+            MqttPipelineData data = messages[index];
+            index = (index + 1) % messages.length;
+            return data;
+        }
+    }
+
+    @Benchmark
+    public Object payloadChangeStep(ThreadState state) {
+        payloadChangeStep.execute(state.pipelineCache, state.next(), state.listener);
+        return state.listener.getLastResult();
+    }
+
+    @Benchmark
+    public Object jacksonPayloadChangeStep(ThreadState state) {
+        jacksonPayloadChangeStep.execute(state.pipelineCache, state.next(), state.listener);
+        return state.listener.getLastResult();
+    }
+
+    @Benchmark
+    public Object commandTopicChangeStep(ThreadState state) {
+        commandTopicChangeStep.execute(state.pipelineCache, state.next(), state.listener);
+        return state.listener.getLastResult();
+    }
+
+    @Benchmark
+    public Object commandControlStep(ThreadState state) {
+        commandControlStep.execute(state.pipelineCache, state.next(), state.listener);
+        return state.listener.getLastResult();
+    }
+
+    @Benchmark
+    public Object correlatedCommandRoundTrip(ThreadState state) {
+        correlatedPayloadChangeStep.execute(state.pipelineCache, state.next(), state.listener);
+        commandResponseStep.execute(state.pipelineCache, state.listener.getLastData(), state.listener);
+        return state.listener.getLastResult();
+    }
+
+}
@@ -0,0 +1,123 @@
+package it.unimore.dipi.iot.demo.mqtt.benchmark;
+
+import it.unimore.dipi.iot.demo.mqtt.wldt.MqttStreamingAverageStep;
+import it.unimore.dipi.iot.demo.mqtt.wldt.MqttTopicChangeStep;
+import it.unimore.dipi.iot.demo.mqtt.wldt.metrics.MetricsRegistry;
+import it.unimore.dipi.iot.demo.mqtt.wldt.pipeline.ConcurrentProcessingPipeline;
+import it.unimore.dipi.iot.demo.mqtt.wldt.pipeline.PartitionedExecutor;
+import it.unimore.dipi.iot.wldt.exception.ProcessingPipelineException;
+import it.unimore.dipi.iot.wldt.processing.PipelineData;
+import it.unimore.dipi.iot.wldt.processing.ProcessingPipelineListener;
+import it.unimore.dipi.iot.wldt.processing.step.IdentityProcessingStep;
+import it.unimore.dipi.iot.wldt.worker.mqtt.MqttPipelineData;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of the telemetry pipeline executed through the ConcurrentProcessingPipeline.
+ * Each invocation submits a batch of messages (as the MQTT callback thread does) and waits until all of them
+ * have been processed by the partitions of the PartitionedExecutor. With multiple benchmark threads each thread
+ * acts as a different producer (E.g. a different broker connection) sharing the same pipeline.
+ * The metricsEnabled parameter measures the overhead of the topic, pipeline and step metrics.
+ *
+ * @created: 18/10/2026
+ * @project: WLDT - MQTT Example
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = BenchmarkRunner.LOGBACK_CONFIGURATION_ARG)
+@OperationsPerInvocation(ConcurrentPipelineBenchmark.BATCH_SIZE)
+@State(Scope.Benchmark)
+public class ConcurrentPipelineBenchmark {
+
+    public static final int BATCH_SIZE = 1024;
+
+    @Param({"1", "100", "10000"})
+    public int topicCardinality;
+
+    @Param({"1", "4", "8"})
+    public int partitionCount;
+
+    @Param({"false", "true"})
+    public boolean metricsEnabled;
+
+    private PartitionedExecutor executor;
+
+    private MqttStreamingAverageStep streamingAverageStep;
+
+    private ConcurrentProcessingPipeline pipeline;
+
+    private MqttPipelineData[] messages;
+
+    @Setup(Level.Trial)
+    public void setup() {
+
+        this.executor = new PartitionedExecutor("benchmark", partitionCount, PartitionedExecutor.DEFAULT_QUEUE_CAPACITY, PartitionedExecutor.OverflowPolicy.BLOCK, false);
+        this.streamingAverageStep = new MqttStreamingAverageStep(10);
+
+        this.pipeline = new ConcurrentProcessingPipeline(executor,
+                new IdentityProcessingStep(),
+                streamingAverageStep,
+                new MqttTopicChangeStep());
+
+        if(metricsEnabled)
+            this.pipeline.enableMetrics(new MetricsRegistry(), "benchmark");
+
+        this.messages = BenchmarkData.telemetryMessages(topicCardinality, 0, 0);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws InterruptedException {
+        this.executor.shutdown();
+        this.executor.awaitTermination(10, TimeUnit.SECONDS);
+        this.streamingAverageStep.close();
+    }
+
+    @State(Scope.Thread)
+    public static class ProducerState {
+
+        private int index = 0;
+    }
+
+    @Benchmark
+    public void telemetryPipeline(ProducerState producerState) throws ProcessingPipelineException, InterruptedException {
+
+        BatchCompletionListener listener = new BatchCompletionListener(BATCH_SIZE);
+
+        for(int i = 0; i < BATCH_SIZE; i++) {
+            pipeline.start(messages[producerState.index], listener);
+            producerState.index = (producerState.index + 1) % messages.length;
+        }
+
+        listener.await();
+    }
+
+    private static class BatchCompletionListener implements ProcessingPipelineListener {
+
+        private final CountDownLatch latch;
+
+        BatchCompletionListener(int batchSize) {
+            this.latch = new CountDownLatch(batchSize);
+        }
+
+        @Override
+        public void onPipelineDone(Optional<PipelineData> result) {
+            latch.countDown();
+        }
+
+        @Override
+        public void onPipelineError() {
+            latch.countDown();
+        }
+
+        void await() throws InterruptedException {
+            latch.await();
+        }
+    }
+
+}
@@ -0,0 +1,122 @@
+package it.unimore.dipi.iot.demo.mqtt.benchmark;
+
+import it.unimore.dipi.iot.demo.mqtt.wldt.history.HistoryBucket;
+import it.unimore.dipi.iot.demo.mqtt.wldt.history.HistoryStore;
+import it.unimore.dipi.iot.demo.mqtt.wldt.history.HistoryStoreConfiguration;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of the HistoryStore operations for a fleet of seriesCount temperature series sampled every second,
+ * each one filled with one hour of points:
+ *
+ * - record: append of a point to the next series
+ * - rangeLastHour: decode of the last hour (3600 points) of a series
+ * - downsampleLastHour: aggregation of the last hour of a series in one minute buckets
+ *
+ * The heap and off-heap bytes for each point are printed at the end of the trial.
+ *
+ * @created: 18/10/2026
+ * @project: WLDT - MQTT Example
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = BenchmarkRunner.LOGBACK_CONFIGURATION_ARG)
+@State(Scope.Thread)
+public class HistoryStoreBenchmark {
+
+    private static final int POINTS_PER_SERIES = 3600;
+
+    private static final long SAMPLING_INTERVAL_MS = 1000;
+
+    private static final long BUCKET_MS = 60000;
+
+    @Param({"100", "1000"})
+    public int seriesCount;
+
+    private HistoryStore historyStore;
+
+    private String[] seriesKeys;
+
+    private long[] lastTimestamps;
+
+    private double[] lastValues;
+
+    private final Random random = new Random(42);
+
+    private int index = 0;
+
+    @Setup(Level.Trial)
+    public void setup() {
+
+        //One hour of each series fits in 16 blocks of 1 KB
+        this.historyStore = new HistoryStore(new HistoryStoreConfiguration(1024, seriesCount * 16, 16, seriesCount));
+        this.seriesKeys = new String[seriesCount];
+        this.lastTimestamps = new long[seriesCount];
+        this.lastValues = new double[seriesCount];
+
+        long start = System.currentTimeMillis() - POINTS_PER_SERIES * SAMPLING_INTERVAL_MS;
+
+        for(int i = 0; i < seriesCount; i++){
+
+            seriesKeys[i] = String.format("telemetry/com:iot:dummy:dummyMqttDevice%06d/resource/temperature", i);
+            lastTimestamps[i] = start;
+            lastValues[i] = 20.0;
+
+            for(int point = 0; point < POINTS_PER_SERIES; point++)
+                nextPoint(i);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void printFootprint() {
+        System.out.printf("%nHistoryStore: %d series, %d points, %.2f compressed bytes/point, %d off-heap bytes%n",
+                historyStore.getSeriesCount(),
+                historyStore.getPointCount(),
+                (double) historyStore.getUsedBytes() / historyStore.getPointCount(),
+                historyStore.getCapacityBytes());
+    }
+
+    private boolean nextPoint(int series) {
+        //Random walk with one decimal digit as published by the demo sensors
+        lastTimestamps[series] += SAMPLING_INTERVAL_MS;
+        lastValues[series] = Math.round((lastValues[series] + (random.nextDouble() - 0.5) * 0.2) * 10.0) / 10.0;
+        return historyStore.record(seriesKeys[series], lastTimestamps[series], lastValues[series]);
+    }
+
+    private int nextSeries() {
+        index = (index + 1) % seriesCount;
+        return index;
+    }
+
+    @Benchmark
+    public boolean record() {
+        return nextPoint(nextSeries());
+    }
+
+    @Benchmark
+    public double rangeLastHour() {
+
+        int series = nextSeries();
+        double[] sum = new double[1];
+
+        historyStore.range(seriesKeys[series], lastTimestamps[series] - POINTS_PER_SERIES * SAMPLING_INTERVAL_MS, lastTimestamps[series], (timestamp, value) -> {
+            sum[0] += value;
+            return true;
+        });
+
+        return sum[0];
+    }
+
+    @Benchmark
+    public List<HistoryBucket> downsampleLastHour() {
+        int series = nextSeries();
+        return historyStore.downsample(seriesKeys[series], lastTimestamps[series] - POINTS_PER_SERIES * SAMPLING_INTERVAL_MS, lastTimestamps[series], BUCKET_MS);
+    }
+
+}
@@ -0,0 +1,122 @@
+package it.unimore.dipi.iot.demo.mqtt.benchmark;
+
+import ch.qos.logback.classic.LoggerContext;
+import it.unimore.dipi.iot.demo.mqtt.utils.LogSampler;
+import it.unimore.dipi.iot.demo.mqtt.wldt.MqttAverageProcessingStep;
+import it.unimore.dipi.iot.demo.mqtt.wldt.MqttTopicChangeStep;
+import it.unimore.dipi.iot.wldt.exception.ProcessingPipelineException;
+import it.unimore.dipi.iot.wldt.processing.ProcessingPipeline;
+import it.unimore.dipi.iot.wldt.processing.step.IdentityProcessingStep;
+import it.unimore.dipi.iot.wldt.worker.mqtt.MqttPipelineData;
+import org.openjdk.jmh.annotations.*;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Forwarding throughput with the logging enabled and disabled, using the asynchronous appender of the
+ * process configuration writing to target/benchmark-logging.log:
+ *
+ * - telemetryPipeline: IdentityProcessingStep -> MqttAverageProcessingStep -> MqttTopicChangeStep
+ * - telemetryPipelineLogged: the same pipeline logging each received message (decoded payload)
+ * - telemetryPipelineSampled: the same pipeline logging the received messages through a LogSampler (max 10 messages/s)
+ *
+ * The root level is set through the logback LoggerContext (OFF, INFO and DEBUG). Run with multiple threads (E.g. -t 4)
+ * to measure the contention on the appender.
+ *
+ * @created: 18/10/2026
+ * @project: WLDT - MQTT Example
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Dlogback.configurationFile=logback-benchmark-logging.xml")
+@State(Scope.Thread)
+public class LoggingBenchmark {
+
+    private static final Logger logger = LoggerFactory.getLogger(LoggingBenchmark.class);
+
+    @State(Scope.Benchmark)
+    public static class LoggingLevel {
+
+        @Param({"OFF", "INFO", "DEBUG"})
+        public String rootLevel;
+
+        @Setup(Level.Trial)
+        public void setup() {
+            LoggerContext loggerContext = (LoggerContext) LoggerFactory.getILoggerFactory();
+            loggerContext.getLogger(Logger.ROOT_LOGGER_NAME).setLevel(ch.qos.logback.classic.Level.toLevel(rootLevel));
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() {
+            ((LoggerContext) LoggerFactory.getILoggerFactory()).stop();
+        }
+    }
+
+    private final CapturingStepListener listener = new CapturingStepListener();
+
+    private final LogSampler logSampler = LogSampler.perSecond(10);
+
+    private MqttAverageProcessingStep averageProcessingStep;
+
+    private ProcessingPipeline telemetryPipeline;
+
+    private MqttPipelineData[] messages;
+
+    private int index = 0;
+
+    @Setup(Level.Trial)
+    public void setup(LoggingLevel loggingLevel) {
+        this.averageProcessingStep = new MqttAverageProcessingStep();
+        this.telemetryPipeline = new ProcessingPipeline(new IdentityProcessingStep(), averageProcessingStep, new MqttTopicChangeStep());
+        this.messages = BenchmarkData.telemetryMessages(100, 0, 0);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        this.averageProcessingStep.close();
+    }
+
+    @Benchmark
+    public Object telemetryPipeline() throws ProcessingPipelineException {
+        return forward(messages[next()]);
+    }
+
+    @Benchmark
+    public Object telemetryPipelineLogged() throws ProcessingPipelineException {
+
+        MqttPipelineData data = messages[next()];
+
+        if(logger.isInfoEnabled())
+            logger.info("Message Received ({}): {}", data.getTopic(), new String(data.getPayload(), StandardCharsets.UTF_8));
+
+        return forward(data);
+    }
+
+    @Benchmark
+    public Object telemetryPipelineSampled() throws ProcessingPipelineException {
+
+        MqttPipelineData data = messages[next()];
+
+        if(logger.isInfoEnabled() && logSampler.sample())
+            logger.info("Message Received ({}): {} Suppressed: {}", data.getTopic(), new String(data.getPayload(), StandardCharsets.UTF_8), logSampler.drainSuppressedCount());
+
+        return forward(data);
+    }
+
+    private Object forward(MqttPipelineData data) throws ProcessingPipelineException {
+        telemetryPipeline.start(data, listener);
+        return listener.getLastResult();
+    }
+
+    private int next() {
+        int current = index;
+        index = (index + 1) % messages.length;
+        return current;
+    }
+
+}
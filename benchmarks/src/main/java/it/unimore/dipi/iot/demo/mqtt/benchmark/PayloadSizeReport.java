@@ -0,0 +1,41 @@
+package it.unimore.dipi.iot.demo.mqtt.benchmark;
+
+import it.unimore.dipi.iot.demo.mqtt.wldt.codec.TelemetryCodec;
+
+/**
+ * Prints the average number of bytes on the wire of the TemperatureSensor stream for each TelemetryCodec format
+ * (payload only, MQTT fixed header and topic excluded), to be read together with the TelemetryCodecBenchmark results.
+ *
+ * Usage: java -cp target/benchmarks.jar it.unimore.dipi.iot.demo.mqtt.benchmark.PayloadSizeReport
+ *
+ * @created: 18/10/2026
+ * @project: WLDT - MQTT Example
+ */
+public class PayloadSizeReport {
+
+    private static final int SAMPLE_COUNT = 100000;
+
+    public static void main(String[] args) {
+
+        double[] samples = BenchmarkData.temperatureSamples(SAMPLE_COUNT, 1);
+        double textBytes = 0.0;
+
+        System.out.println(String.format("%-12s %12s %10s", "Format", "Avg Bytes", "vs TEXT"));
+
+        for(TelemetryCodec codec : TelemetryCodec.values()) {
+
+            long totalBytes = 0;
+
+            for(double sample : samples)
+                totalBytes += codec.encode(sample, "temperature").length;
+
+            double averageBytes = totalBytes / (double) SAMPLE_COUNT;
+
+            if(codec == TelemetryCodec.TEXT)
+                textBytes = averageBytes;
+
+            System.out.println(String.format("%-12s %12.2f %9.0f%%", codec, averageBytes, averageBytes * 100.0 / textBytes));
+        }
+    }
+
+}
@@ -0,0 +1,91 @@
+package it.unimore.dipi.iot.demo.mqtt.benchmark;
+
+import it.unimore.dipi.iot.demo.mqtt.wldt.MqttAverageProcessingStep;
+import it.unimore.dipi.iot.demo.mqtt.wldt.MqttTopicChangeStep;
+import it.unimore.dipi.iot.demo.mqtt.wldt.pipeline.LazyMqttPipelineData;
+import it.unimore.dipi.iot.demo.mqtt.wldt.pipeline.PipelineDataPool;
+import it.unimore.dipi.iot.demo.mqtt.wldt.pipeline.PipelineExecution;
+import it.unimore.dipi.iot.wldt.processing.ProcessingStep;
+import it.unimore.dipi.iot.wldt.processing.cache.PipelineCache;
+import it.unimore.dipi.iot.wldt.worker.mqtt.MqttPipelineData;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.ThreadParams;
+
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Allocation rate (gc.alloc.rate.norm) and latency distribution (p99 of the sample time mode) of the
+ * MqttAverageProcessingStep -> MqttTopicChangeStep chain executed by a PipelineExecution, with and without
+ * the PipelineDataPool. The last step releases the data like an OutgoingPublisher after an immediate delivery.
+ *
+ * @created: 18/10/2026
+ * @project: WLDT - MQTT Example
+ */
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = BenchmarkRunner.LOGBACK_CONFIGURATION_ARG)
+@State(Scope.Benchmark)
+public class PooledPipelineBenchmark {
+
+    @Param({"false", "true"})
+    public boolean pooled;
+
+    @Param({"1", "100"})
+    public int topicCardinality;
+
+    private MqttAverageProcessingStep averageProcessingStep;
+
+    private ProcessingStep[] steps;
+
+    private PipelineDataPool pipelineDataPool;
+
+    @Setup(Level.Trial)
+    public void setup() {
+
+        this.averageProcessingStep = new MqttAverageProcessingStep();
+
+        ProcessingStep publishStep = (pipelineCache, data, listener) -> {
+            LazyMqttPipelineData.release(data);
+            listener.onStepDone(null, Optional.empty());
+        };
+
+        this.steps = new ProcessingStep[]{ averageProcessingStep, new MqttTopicChangeStep(), publishStep };
+        this.pipelineDataPool = pooled ? new PipelineDataPool() : null;
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        this.averageProcessingStep.close();
+    }
+
+    @State(Scope.Thread)
+    public static class ThreadState {
+
+        private final PipelineCache pipelineCache = new PipelineCache();
+
+        private MqttPipelineData[] messages;
+
+        private int index = 0;
+
+        @Setup(Level.Trial)
+        public void setup(PooledPipelineBenchmark benchmark, ThreadParams threadParams) {
+            int cardinality = benchmark.topicCardinality;
+            this.messages = BenchmarkData.telemetryMessages(cardinality, threadParams.getThreadIndex() * cardinality, threadParams.getThreadIndex());
+        }
+
+        MqttPipelineData next() {
+            MqttPipelineData data = messages[index];
+            index = (index + 1) % messages.length;
+            return data;
+        }
+    }
+
+    @Benchmark
+    public void averageAndTopicChange(ThreadState state) {
+        new PipelineExecution(steps, state.pipelineCache, state.next(), null, null, null, pipelineDataPool).run();
+    }
+
+}
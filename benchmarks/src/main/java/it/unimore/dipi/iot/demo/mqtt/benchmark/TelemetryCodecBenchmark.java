@@ -0,0 +1,88 @@
+package it.unimore.dipi.iot.demo.mqtt.benchmark;
+
+import it.unimore.dipi.iot.demo.mqtt.wldt.MqttPayloadCodecStep;
+import it.unimore.dipi.iot.demo.mqtt.wldt.codec.TelemetryCodec;
+import it.unimore.dipi.iot.wldt.processing.cache.PipelineCache;
+import it.unimore.dipi.iot.wldt.worker.mqtt.MqttPipelineData;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Encoding and decoding cost of the TemperatureSensor stream for each TelemetryCodec format and
+ * cost of the MqttPayloadCodecStep transcoding the plain text published by the devices.
+ * The encoded size of each format is printed by PayloadSizeReport.
+ *
+ * @created: 18/10/2026
+ * @project: WLDT - MQTT Example
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = BenchmarkRunner.LOGBACK_CONFIGURATION_ARG)
+@State(Scope.Thread)
+public class TelemetryCodecBenchmark {
+
+    private static final int SAMPLE_COUNT = 1024;
+
+    private static final String RECORD_NAME = "temperature";
+
+    @Param({"TEXT", "JSON", "CBOR", "MESSAGEPACK", "SENML_CBOR"})
+    public TelemetryCodec codec;
+
+    private final PipelineCache pipelineCache = new PipelineCache();
+
+    private final CapturingStepListener listener = new CapturingStepListener();
+
+    private double[] samples;
+
+    private byte[][] encodedSamples;
+
+    private MqttPipelineData[] textMessages;
+
+    private MqttPayloadCodecStep codecStep;
+
+    private int index = 0;
+
+    @Setup(Level.Trial)
+    public void setup() {
+
+        this.samples = BenchmarkData.temperatureSamples(SAMPLE_COUNT, 1);
+        this.encodedSamples = new byte[SAMPLE_COUNT][];
+        this.textMessages = new MqttPipelineData[SAMPLE_COUNT];
+
+        for(int i = 0; i < SAMPLE_COUNT; i++) {
+            encodedSamples[i] = codec.encode(samples[i], RECORD_NAME);
+            textMessages[i] = new MqttPipelineData("telemetry/com:iot:dummy:dummyMqttDevice000001/resource/temperature",
+                    BenchmarkData.TELEMETRY_DESCRIPTOR,
+                    TelemetryCodec.TEXT.encode(samples[i], RECORD_NAME),
+                    false);
+        }
+
+        this.codecStep = new MqttPayloadCodecStep(TelemetryCodec.TEXT, codec);
+    }
+
+    private int nextIndex() {
+        int current = index;
+        index = (index + 1) & (SAMPLE_COUNT - 1);
+        return current;
+    }
+
+    @Benchmark
+    public byte[] encode() {
+        return codec.encode(samples[nextIndex()], RECORD_NAME);
+    }
+
+    @Benchmark
+    public double decode() {
+        return codec.decode(encodedSamples[nextIndex()]);
+    }
+
+    @Benchmark
+    public Object transcodeStep() {
+        codecStep.execute(pipelineCache, textMessages[nextIndex()], listener);
+        return listener.getLastResult();
+    }
+
+}
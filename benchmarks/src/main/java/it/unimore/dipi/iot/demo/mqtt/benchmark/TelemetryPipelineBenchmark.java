@@ -0,0 +1,83 @@
+package it.unimore.dipi.iot.demo.mqtt.benchmark;
+
+import it.unimore.dipi.iot.demo.mqtt.wldt.MqttAverageProcessingStep;
+import it.unimore.dipi.iot.demo.mqtt.wldt.MqttStreamingAverageStep;
+import it.unimore.dipi.iot.demo.mqtt.wldt.MqttTopicChangeStep;
+import it.unimore.dipi.iot.wldt.exception.ProcessingPipelineException;
+import it.unimore.dipi.iot.wldt.processing.ProcessingPipeline;
+import it.unimore.dipi.iot.wldt.processing.step.IdentityProcessingStep;
+import it.unimore.dipi.iot.wldt.worker.mqtt.MqttPipelineData;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.ThreadParams;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * End to end cost of the telemetry pipeline of WldtMqttProcess executed through the core ProcessingPipeline:
+ *
+ * - telemetryPipeline: IdentityProcessingStep -> MqttAverageProcessingStep -> MqttTopicChangeStep
+ * - streamingTelemetryPipeline: IdentityProcessingStep -> MqttStreamingAverageStep -> MqttTopicChangeStep
+ *
+ * The core ProcessingPipeline keeps the traversal state in the pipeline itself, so each benchmark thread has its own pipelines.
+ *
+ * @created: 18/10/2026
+ * @project: WLDT - MQTT Example
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = BenchmarkRunner.LOGBACK_CONFIGURATION_ARG)
+@State(Scope.Thread)
+public class TelemetryPipelineBenchmark {
+
+    @Param({"1", "100", "10000"})
+    public int topicCardinality;
+
+    private final CapturingStepListener listener = new CapturingStepListener();
+
+    private MqttAverageProcessingStep averageProcessingStep;
+
+    private MqttStreamingAverageStep streamingAverageStep;
+
+    private ProcessingPipeline telemetryPipeline;
+
+    private ProcessingPipeline streamingTelemetryPipeline;
+
+    private MqttPipelineData[] messages;
+
+    private int index = 0;
+
+    @Setup(Level.Trial)
+    public void setup(ThreadParams threadParams) {
+
+        this.averageProcessingStep = new MqttAverageProcessingStep();
+        this.streamingAverageStep = new MqttStreamingAverageStep(10);
+
+        this.telemetryPipeline = new ProcessingPipeline(new IdentityProcessingStep(), averageProcessingStep, new MqttTopicChangeStep());
+        this.streamingTelemetryPipeline = new ProcessingPipeline(new IdentityProcessingStep(), streamingAverageStep, new MqttTopicChangeStep());
+
+        this.messages = BenchmarkData.telemetryMessages(topicCardinality, threadParams.getThreadIndex() * topicCardinality, threadParams.getThreadIndex());
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        this.averageProcessingStep.close();
+        this.streamingAverageStep.close();
+    }
+
+    @Benchmark
+    public Object telemetryPipeline() throws ProcessingPipelineException {
+        telemetryPipeline.start(messages[index], listener);
+        index = (index + 1) % messages.length;
+        return listener.getLastResult();
+    }
+
+    @Benchmark
+    public Object streamingTelemetryPipeline() throws ProcessingPipelineException {
+        streamingTelemetryPipeline.start(messages[index], listener);
+        index = (index + 1) % messages.length;
+        return listener.getLastResult();
+    }
+
+}
@@ -0,0 +1,129 @@
+package it.unimore.dipi.iot.demo.mqtt.benchmark;
+
+import it.unimore.dipi.iot.demo.mqtt.wldt.MqttAverageProcessingStep;
+import it.unimore.dipi.iot.demo.mqtt.wldt.MqttDeadbandFilterStep;
+import it.unimore.dipi.iot.demo.mqtt.wldt.MqttStreamingAverageStep;
+import it.unimore.dipi.iot.demo.mqtt.wldt.MqttTopicChangeStep;
+import it.unimore.dipi.iot.demo.mqtt.wldt.MqttWindowAggregationStep;
+import it.unimore.dipi.iot.demo.mqtt.wldt.shadow.DeadbandConfiguration;
+import it.unimore.dipi.iot.demo.mqtt.wldt.shadow.ShadowStateCache;
+import it.unimore.dipi.iot.demo.mqtt.wldt.window.WindowConfiguration;
+import it.unimore.dipi.iot.demo.mqtt.wldt.window.WindowStatistic;
+import it.unimore.dipi.iot.wldt.processing.cache.PipelineCache;
+import it.unimore.dipi.iot.wldt.processing.step.IdentityProcessingStep;
+import it.unimore.dipi.iot.wldt.worker.mqtt.MqttPipelineData;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.ThreadParams;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of each single step of the telemetry pipeline on numeric payloads.
+ *
+ * Steps are shared by all the benchmark threads (as they are shared by the partitions of a ConcurrentProcessingPipeline)
+ * while each thread works on its own set of topicCardinality topics.
+ *
+ * @created: 18/10/2026
+ * @project: WLDT - MQTT Example
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = BenchmarkRunner.LOGBACK_CONFIGURATION_ARG)
+@State(Scope.Benchmark)
+public class TelemetryStepBenchmark {
+
+    @Param({"1", "100", "10000"})
+    public int topicCardinality;
+
+    private IdentityProcessingStep identityProcessingStep;
+
+    private MqttAverageProcessingStep averageProcessingStep;
+
+    private MqttStreamingAverageStep streamingAverageStep;
+
+    private MqttWindowAggregationStep windowAggregationStep;
+
+    private MqttTopicChangeStep topicChangeStep;
+
+    private MqttDeadbandFilterStep deadbandFilterStep;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        this.identityProcessingStep = new IdentityProcessingStep();
+        this.averageProcessingStep = new MqttAverageProcessingStep();
+        this.streamingAverageStep = new MqttStreamingAverageStep(10);
+        this.windowAggregationStep = new MqttWindowAggregationStep(WindowConfiguration.tumbling(1000).addStatistic(WindowStatistic.AVERAGE, "average"));
+        this.topicChangeStep = new MqttTopicChangeStep();
+        this.deadbandFilterStep = new MqttDeadbandFilterStep(new ShadowStateCache(), DeadbandConfiguration.absolute(0.1));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        this.averageProcessingStep.close();
+        this.streamingAverageStep.close();
+        this.windowAggregationStep.close();
+    }
+
+    @State(Scope.Thread)
+    public static class ThreadState {
+
+        private final PipelineCache pipelineCache = new PipelineCache();
+
+        private final CapturingStepListener listener = new CapturingStepListener();
+
+        private MqttPipelineData[] messages;
+
+        private int index = 0;
+
+        @Setup(Level.Trial)
+        public void setup(TelemetryStepBenchmark benchmark, ThreadParams threadParams) {
+            int cardinality = benchmark.topicCardinality;
+            this.messages = BenchmarkData.telemetryMessages(cardinality, threadParams.getThreadIndex() * cardinality, threadParams.getThreadIndex());
+        }
+
+        MqttPipelineData next() {
+            MqttPipelineData data = messages[index];
+            index = (index + 1) % messages.length;
+            return data;
+        }
+    }
+
+    @Benchmark
+    public Object identityStep(ThreadState state) {
+        identityProcessingStep.execute(state.pipelineCache, state.next(), state.listener);
+        return state.listener.getLastResult();
+    }
+
+    @Benchmark
+    public Object averageStep(ThreadState state) {
+        averageProcessingStep.execute(state.pipelineCache, state.next(), state.listener);
+        return state.listener.getLastResult();
+    }
+
+    @Benchmark
+    public Object streamingAverageStep(ThreadState state) {
+        streamingAverageStep.execute(state.pipelineCache, state.next(), state.listener);
+        return state.listener.getLastResult();
+    }
+
+    @Benchmark
+    public Object windowAggregationStep(ThreadState state) {
+        windowAggregationStep.execute(state.pipelineCache, state.next(), state.listener);
+        return state.listener.getLastResult();
+    }
+
+    @Benchmark
+    public Object topicChangeStep(ThreadState state) {
+        topicChangeStep.execute(state.pipelineCache, state.next(), state.listener);
+        return state.listener.getLastResult();
+    }
+
+    @Benchmark
+    public Object deadbandFilterStep(ThreadState state) {
+        deadbandFilterStep.execute(state.pipelineCache, state.next(), state.listener);
+        return state.listener.getLastResult();
+    }
+
+}
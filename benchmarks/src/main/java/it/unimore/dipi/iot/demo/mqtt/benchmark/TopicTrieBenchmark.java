@@ -0,0 +1,124 @@
+package it.unimore.dipi.iot.demo.mqtt.benchmark;
+
+import it.unimore.dipi.iot.demo.mqtt.wldt.host.TwinTopicDispatcher;
+import it.unimore.dipi.iot.demo.mqtt.wldt.topic.TopicMatch;
+import it.unimore.dipi.iot.demo.mqtt.wldt.topic.TopicTrie;
+import it.unimore.dipi.iot.wldt.worker.mqtt.MqttTopicDescriptor;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Lookup cost of the pipelines matching a received topic with routeCount per-device routes
+ * (telemetry/<device>/resource/{{resource_id}}) and one wildcard route (telemetry/+/resource/#):
+ *
+ * - trieMatch: TopicTrie lookup collecting the matching entries into a reusable TopicMatch
+ * - trieMatchWithVariable: TopicTrie lookup and extraction of the resource_id variable
+ * - linearMatch: baseline checking every route filter against the topic
+ * - twinDispatcher: TwinTopicDispatcher lookup of the topic descriptor and of the device id
+ *
+ * @created: 18/10/2026
+ * @project: WLDT - MQTT Example
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = BenchmarkRunner.LOGBACK_CONFIGURATION_ARG)
+@State(Scope.Thread)
+public class TopicTrieBenchmark {
+
+    private static final int TOPIC_COUNT = 1024;
+
+    private static final String DEVICE_ID_FORMAT = "com:iot:dummy:dummyMqttDevice%06d";
+
+    @Param({"10", "1000", "10000"})
+    public int routeCount;
+
+    private final TopicTrie<Integer> topicTrie = new TopicTrie<>();
+
+    private final TopicMatch<Integer> topicMatch = new TopicMatch<>();
+
+    private String[][] routeFilters;
+
+    private TwinTopicDispatcher twinDispatcher;
+
+    private String[] topics;
+
+    private int index = 0;
+
+    @Setup(Level.Trial)
+    public void setup() {
+
+        this.routeFilters = new String[routeCount + 1][];
+
+        for(int i = 0; i < routeCount; i++){
+            String pattern = String.format("telemetry/" + DEVICE_ID_FORMAT + "/resource/{{resource_id}}", i);
+            topicTrie.add(pattern, i);
+            routeFilters[i] = pattern.replace("{{resource_id}}", "+").split("/");
+        }
+
+        topicTrie.add("telemetry/+/resource/#", -1);
+        routeFilters[routeCount] = "telemetry/+/resource/#".split("/");
+
+        this.twinDispatcher = new TwinTopicDispatcher(Arrays.asList(BenchmarkData.TELEMETRY_DESCRIPTOR,
+                new MqttTopicDescriptor("command_topic", "default_command_channel", "command/{{device_id}}", MqttTopicDescriptor.MQTT_TOPIC_TYPE_DEVICE_INCOMING)));
+
+        this.topics = new String[TOPIC_COUNT];
+
+        for(int i = 0; i < TOPIC_COUNT; i++)
+            topics[i] = String.format("telemetry/" + DEVICE_ID_FORMAT + "/resource/temperature", (i * 7919) % routeCount);
+    }
+
+    @Benchmark
+    public int trieMatch() {
+        return topicTrie.match(nextTopic(), topicMatch);
+    }
+
+    @Benchmark
+    public String trieMatchWithVariable() {
+        return topicTrie.match(nextTopic(), topicMatch) > 0 ? topicMatch.getVariable(0, "resource_id") : null;
+    }
+
+    @Benchmark
+    public int linearMatch() {
+
+        String[] levels = nextTopic().split("/");
+        int count = 0;
+
+        for(String[] filter : routeFilters)
+            if(matches(filter, levels))
+                count++;
+
+        return count;
+    }
+
+    @Benchmark
+    public String twinDispatcher() {
+        String topic = nextTopic();
+        int topicIndex = twinDispatcher.match(topic);
+        return topicIndex != TwinTopicDispatcher.NO_MATCH ? twinDispatcher.extractDeviceId(topic, topicIndex) : null;
+    }
+
+    private static boolean matches(String[] filter, String[] levels) {
+
+        for(int i = 0; i < filter.length; i++){
+
+            if(filter[i].equals("#"))
+                return true;
+
+            if(i >= levels.length || (!filter[i].equals("+") && !filter[i].equals(levels[i])))
+                return false;
+        }
+
+        return filter.length == levels.length;
+    }
+
+    private String nextTopic() {
+        String topic = topics[index];
+        index = (index + 1) % TOPIC_COUNT;
+        return topic;
+    }
+
+}
@@ -0,0 +1,62 @@
+package it.unimore.dipi.iot.demo.mqtt.benchmark;
+
+import it.unimore.dipi.iot.demo.mqtt.wldt.host.TwinHost;
+import it.unimore.dipi.iot.demo.mqtt.wldt.host.TwinHostConfiguration;
+import it.unimore.dipi.iot.demo.mqtt.wldt.host.TwinPipelineFactory;
+import it.unimore.dipi.iot.demo.mqtt.wldt.host.TwinRegistry;
+
+/**
+ * Prints the heap retained by the TwinHost for each mirrored device (registry entry, DeviceTwin and per-device pipelines
+ * of the default TwinPipelineFactory), measured as the difference of the used heap after a full GC. The host is not started.
+ *
+ * Usage: java -cp target/benchmarks.jar it.unimore.dipi.iot.demo.mqtt.benchmark.TwinHostFootprintReport [deviceCount]
+ *
+ * @created: 18/10/2026
+ * @project: WLDT - MQTT Example
+ */
+public class TwinHostFootprintReport {
+
+    private static final int DEFAULT_DEVICE_COUNT = 100000;
+
+    public static void main(String[] args) throws Exception {
+
+        int deviceCount = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_DEVICE_COUNT;
+
+        TwinHostConfiguration configuration = new TwinHostConfiguration();
+        configuration.setMetricsEnabled(false);
+
+        TwinPipelineFactory pipelineFactory = TwinHost.defaultPipelineFactory(configuration);
+
+        //Shared objects (steps, publishers, executor) are created before the measure
+        new TwinHost(configuration, new TwinRegistry(), pipelineFactory);
+
+        long usedBefore = usedHeap();
+
+        TwinRegistry.DeviceRange range = new TwinRegistry.DeviceRange();
+        range.setIdFormat("com:iot:dummy:loadGenDevice%06d");
+        range.setCount(deviceCount);
+
+        TwinRegistry registry = new TwinRegistry();
+        registry.addRange(range);
+
+        TwinHost twinHost = new TwinHost(configuration, registry, pipelineFactory);
+
+        long usedAfter = usedHeap();
+
+        System.out.println(String.format("Devices: %d Topics: %d", twinHost.getDeviceCount(), configuration.getTopicList().size()));
+        System.out.println(String.format("Retained Heap: %.1f MB (%.0f bytes/device)", (usedAfter - usedBefore) / (1024.0 * 1024.0), (usedAfter - usedBefore) / (double) deviceCount));
+    }
+
+    private static long usedHeap() throws InterruptedException {
+
+        Runtime runtime = Runtime.getRuntime();
+
+        for(int i = 0; i < 5; i++){
+            System.gc();
+            Thread.sleep(100);
+        }
+
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+}
@@ -0,0 +1,73 @@
+package it.unimore.dipi.iot.demo.mqtt.benchmark;
+
+import it.unimore.dipi.iot.wldt.processing.PipelineData;
+import it.unimore.dipi.iot.wldt.worker.mqtt.MqttPipelineData;
+import org.junit.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Optional;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @created: 18/10/2026
+ * @project: WLDT - MQTT Example
+ */
+public class BenchmarkDataTest {
+
+    @Test
+    public void telemetryMessagesInterleaveTheTopics() {
+
+        MqttPipelineData[] messages = BenchmarkData.telemetryMessages(3, 10, 42);
+
+        assertEquals(3 * BenchmarkData.MESSAGES_PER_TOPIC, messages.length);
+        assertEquals("telemetry/com:iot:dummy:dummyMqttDevice000010/resource/temperature", messages[0].getTopic());
+        assertEquals("telemetry/com:iot:dummy:dummyMqttDevice000011/resource/temperature", messages[1].getTopic());
+        assertEquals("telemetry/com:iot:dummy:dummyMqttDevice000010/resource/temperature", messages[3].getTopic());
+
+        for(MqttPipelineData message : messages){
+            double value = Double.parseDouble(new String(message.getPayload(), StandardCharsets.UTF_8));
+            assertTrue(value >= 20.0 && value < 30.0);
+        }
+    }
+
+    @Test
+    public void messagesAreReproducibleBySeed() {
+
+        MqttPipelineData[] first = BenchmarkData.commandMessages(2, 0, 64, 7);
+        MqttPipelineData[] second = BenchmarkData.commandMessages(2, 0, 64, 7);
+
+        assertEquals("command/com:iot:dummy:dummyMqttDevice000000", first[0].getTopic());
+
+        for(int i = 0; i < first.length; i++){
+            assertEquals(64, first[i].getPayload().length);
+            assertArrayEquals(first[i].getPayload(), second[i].getPayload());
+        }
+
+        assertArrayEquals(BenchmarkData.temperatureSamples(100, 7), BenchmarkData.temperatureSamples(100, 7), 0.0);
+    }
+
+    @Test
+    public void listenerCapturesTheLastResult() {
+
+        CapturingStepListener listener = new CapturingStepListener();
+        MqttPipelineData data = BenchmarkData.telemetryMessages(1, 0, 1)[0];
+
+        listener.onStepDone(null, Optional.of(data));
+        assertSame(data, listener.getLastData());
+
+        listener.onStepError(null, data, "failure");
+        assertNull(listener.getLastData());
+        assertEquals("failure", listener.getLastResult());
+
+        listener.onPipelineDone(Optional.<PipelineData>empty());
+        assertNull(listener.getLastData());
+
+        listener.onPipelineError();
+        assertEquals(2, listener.getErrorCount());
+    }
+}
@@ -0,0 +1,82 @@
+package it.unimore.dipi.iot.demo.mqtt.loadtest;
+
+import io.moquette.BrokerConstants;
+import io.moquette.broker.Server;
+import io.moquette.broker.config.MemoryConfig;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.util.Properties;
+
+/**
+ * In-process MQTT broker (Moquette) listening on the loopback interface
+ * with in-memory persistence, anonymous access and without websocket endpoint
+ *
+ * @created: 18/10/2026
+ * @project: WLDT - MQTT Example
+ */
+public class EmbeddedMqttBroker {
+
+    private static final Logger logger = LoggerFactory.getLogger(EmbeddedMqttBroker.class);
+
+    private static final String LOOPBACK_ADDRESS = "127.0.0.1";
+
+    private final String name;
+
+    private final int port;
+
+    private Server server;
+
+    public EmbeddedMqttBroker(String name, int port) {
+        this.name = name;
+        this.port = port;
+    }
+
+    public synchronized void start() throws IOException {
+
+        if(server != null)
+            return;
+
+        Properties properties = new Properties();
+        properties.setProperty(BrokerConstants.HOST_PROPERTY_NAME, LOOPBACK_ADDRESS);
+        properties.setProperty(BrokerConstants.PORT_PROPERTY_NAME, Integer.toString(port));
+        properties.setProperty(BrokerConstants.WEB_SOCKET_PORT_PROPERTY_NAME, BrokerConstants.DISABLED_PORT_BIND);
+        properties.setProperty(BrokerConstants.ALLOW_ANONYMOUS_PROPERTY_NAME, Boolean.TRUE.toString());
+        //Empty store path = in memory persistence
+        properties.setProperty(BrokerConstants.PERSISTENT_STORE_PROPERTY_NAME, "");
+
+        Server newServer = new Server();
+        newServer.startServer(new MemoryConfig(properties));
+        this.server = newServer;
+
+        logger.info("Embedded MQTT Broker {} started on {}:{}", name, LOOPBACK_ADDRESS, port);
+    }
+
+    public synchronized void stop() {
+
+        if(server == null)
+            return;
+
+        server.stopServer();
+        server = null;
+
+        logger.info("Embedded MQTT Broker {} stopped", name);
+    }
+
+    public String getAddress() {
+        return LOOPBACK_ADDRESS;
+    }
+
+    public int getPort() {
+        return port;
+    }
+
+    public String getBrokerUrl() {
+        return String.format("tcp://%s:%d", LOOPBACK_ADDRESS, port);
+    }
+
+    public String getName() {
+        return name;
+    }
+}
@@ -0,0 +1,102 @@
+package it.unimore.dipi.iot.demo.mqtt.loadtest;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Thread safe latency histogram (HdrHistogram, microseconds resolution) and message counters of a single flow
+ * (E.g. device -> twin -> consumer).
+ *
+ * @created: 18/10/2026
+ * @project: WLDT - MQTT Example
+ */
+public class LatencyRecorder {
+
+    private static final long HIGHEST_TRACKABLE_LATENCY_US = TimeUnit.MINUTES.toMicros(1);
+
+    private static final int SIGNIFICANT_DIGITS = 3;
+
+    private final String name;
+
+    private final Recorder recorder = new Recorder(HIGHEST_TRACKABLE_LATENCY_US, SIGNIFICANT_DIGITS);
+
+    private final LongAdder sentCount = new LongAdder();
+
+    private final LongAdder receivedCount = new LongAdder();
+
+    private final LongAdder unmatchedCount = new LongAdder();
+
+    private final LongAdder errorCount = new LongAdder();
+
+    public LatencyRecorder(String name) {
+        this.name = name;
+    }
+
+    public void onSent() {
+        sentCount.increment();
+    }
+
+    public void onError() {
+        errorCount.increment();
+    }
+
+    /**
+     * Received message that can not be associated to a sent one
+     */
+    public void onUnmatched() {
+        unmatchedCount.increment();
+    }
+
+    public void onReceived(long latencyNanos) {
+        receivedCount.increment();
+        recorder.recordValue(Math.min(Math.max(TimeUnit.NANOSECONDS.toMicros(latencyNanos), 0), HIGHEST_TRACKABLE_LATENCY_US));
+    }
+
+    /**
+     * Discard the values recorded so far (E.g. at the end of the warmup)
+     */
+    public void reset() {
+        recorder.reset();
+        sentCount.reset();
+        receivedCount.reset();
+        unmatchedCount.reset();
+        errorCount.reset();
+    }
+
+    /**
+     * @param measurementMs duration of the measurement used to compute the throughput
+     */
+    public LatencyStatistics getStatistics(long measurementMs) {
+
+        Histogram histogram = recorder.getIntervalHistogram();
+        double seconds = Math.max(measurementMs, 1) / 1000.0;
+
+        LatencyStatistics statistics = new LatencyStatistics();
+        statistics.setName(name);
+        statistics.setSentCount(sentCount.sum());
+        statistics.setReceivedCount(receivedCount.sum());
+        statistics.setUnmatchedCount(unmatchedCount.sum());
+        statistics.setErrorCount(errorCount.sum());
+        statistics.setSentPerSecond(sentCount.sum() / seconds);
+        statistics.setReceivedPerSecond(receivedCount.sum() / seconds);
+
+        if(histogram.getTotalCount() > 0) {
+            statistics.setMinUs(histogram.getMinValue());
+            statistics.setMeanUs(histogram.getMean());
+            statistics.setP50Us(histogram.getValueAtPercentile(50.0));
+            statistics.setP90Us(histogram.getValueAtPercentile(90.0));
+            statistics.setP99Us(histogram.getValueAtPercentile(99.0));
+            statistics.setP999Us(histogram.getValueAtPercentile(99.9));
+            statistics.setMaxUs(histogram.getMaxValue());
+        }
+
+        return statistics;
+    }
+
+    public String getName() {
+        return name;
+    }
+}
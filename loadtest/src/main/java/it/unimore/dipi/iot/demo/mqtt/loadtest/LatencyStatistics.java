@@ -0,0 +1,160 @@
+package it.unimore.dipi.iot.demo.mqtt.loadtest;
+
+/**
+ * Throughput and latency percentiles (microseconds) of a single flow included in the load test report
+ *
+ * @created: 18/10/2026
+ * @project: WLDT - MQTT Example
+ */
+public class LatencyStatistics {
+    private String name;
+    private long sentCount;
+    private long receivedCount;
+    private long unmatchedCount;
+    private long errorCount;
+    private double sentPerSecond;
+    private double receivedPerSecond;
+    private long minUs;
+    private double meanUs;
+    private long p50Us;
+    private long p90Us;
+    private long p99Us;
+    private long p999Us;
+    private long maxUs;
+
+    public LatencyStatistics() {
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public long getSentCount() {
+        return sentCount;
+    }
+
+    public void setSentCount(long sentCount) {
+        this.sentCount = sentCount;
+    }
+
+    public long getReceivedCount() {
+        return receivedCount;
+    }
+
+    public void setReceivedCount(long receivedCount) {
+        this.receivedCount = receivedCount;
+    }
+
+    public long getUnmatchedCount() {
+        return unmatchedCount;
+    }
+
+    public void setUnmatchedCount(long unmatchedCount) {
+        this.unmatchedCount = unmatchedCount;
+    }
+
+    public long getErrorCount() {
+        return errorCount;
+    }
+
+    public void setErrorCount(long errorCount) {
+        this.errorCount = errorCount;
+    }
+
+    public double getSentPerSecond() {
+        return sentPerSecond;
+    }
+
+    public void setSentPerSecond(double sentPerSecond) {
+        this.sentPerSecond = sentPerSecond;
+    }
+
+    public double getReceivedPerSecond() {
+        return receivedPerSecond;
+    }
+
+    public void setReceivedPerSecond(double receivedPerSecond) {
+        this.receivedPerSecond = receivedPerSecond;
+    }
+
+    public long getMinUs() {
+        return minUs;
+    }
+
+    public void setMinUs(long minUs) {
+        this.minUs = minUs;
+    }
+
+    public double getMeanUs() {
+        return meanUs;
+    }
+
+    public void setMeanUs(double meanUs) {
+        this.meanUs = meanUs;
+    }
+
+    public long getP50Us() {
+        return p50Us;
+    }
+
+    public void setP50Us(long p50Us) {
+        this.p50Us = p50Us;
+    }
+
+    public long getP90Us() {
+        return p90Us;
+    }
+
+    public void setP90Us(long p90Us) {
+        this.p90Us = p90Us;
+    }
+
+    public long getP99Us() {
+        return p99Us;
+    }
+
+    public void setP99Us(long p99Us) {
+        this.p99Us = p99Us;
+    }
+
+    public long getP999Us() {
+        return p999Us;
+    }
+
+    public void setP999Us(long p999Us) {
+        this.p999Us = p999Us;
+    }
+
+    public long getMaxUs() {
+        return maxUs;
+    }
+
+    public void setMaxUs(long maxUs) {
+        this.maxUs = maxUs;
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder("LatencyStatistics{");
+        sb.append("name='").append(name).append('\'');
+        sb.append(", sentCount=").append(sentCount);
+        sb.append(", receivedCount=").append(receivedCount);
+        sb.append(", unmatchedCount=").append(unmatchedCount);
+        sb.append(", errorCount=").append(errorCount);
+        sb.append(", sentPerSecond=").append(sentPerSecond);
+        sb.append(", receivedPerSecond=").append(receivedPerSecond);
+        sb.append(", minUs=").append(minUs);
+        sb.append(", meanUs=").append(meanUs);
+        sb.append(", p50Us=").append(p50Us);
+        sb.append(", p90Us=").append(p90Us);
+        sb.append(", p99Us=").append(p99Us);
+        sb.append(", p999Us=").append(p999Us);
+        sb.append(", maxUs=").append(maxUs);
+        sb.append('}');
+        return sb.toString();
+    }
+}
@@ -0,0 +1,134 @@
+package it.unimore.dipi.iot.demo.mqtt.loadtest;
+
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Associates the messages received at the end of each flow with the ones that generated them.
+ *
+ * Telemetry (device -> twin -> consumer): the twin averages averageWindowSize samples of a device into a single output
+ * message, so for each device the send times are kept in order and each output is associated to the sample that
+ * completed the window. The matching relies on the per-device ordering guaranteed by the ConcurrentProcessingPipeline
+ * and by MQTT on a single connection, so it has to be used with QoS 1 or 2 in order to avoid losses.
+ *
+ * Commands (app -> twin -> device): each command carries a sequence number that is preserved by the twin
+ * (originalMessage field of the JSON payload), so the latency is computed through the sequence number.
+ *
+ * @created: 18/10/2026
+ * @project: WLDT - MQTT Example
+ */
+public class LatencyTracker {
+
+    private final int averageWindowSize;
+
+    private final Map<String, ArrayDeque<Long>> telemetrySendTimes = new HashMap<>();
+
+    private final Map<Long, Long> commandSendTimes = new ConcurrentHashMap<>();
+
+    private final AtomicLong commandSequence = new AtomicLong(0);
+
+    private final LatencyRecorder telemetryRecorder = new LatencyRecorder("device-twin-consumer");
+
+    private final LatencyRecorder commandRecorder = new LatencyRecorder("app-twin-device");
+
+    public LatencyTracker(String[] deviceIds, int averageWindowSize) {
+
+        this.averageWindowSize = averageWindowSize;
+
+        //Devices are registered once, so the map is only read afterwards
+        for(String deviceId : deviceIds)
+            this.telemetrySendTimes.put(deviceId, new ArrayDeque<>());
+    }
+
+    public void onTelemetrySent(String deviceId, long sendNanos) {
+
+        ArrayDeque<Long> sendTimes = telemetrySendTimes.get(deviceId);
+
+        synchronized (sendTimes) {
+            sendTimes.addLast(sendNanos);
+        }
+
+        telemetryRecorder.onSent();
+    }
+
+    /**
+     * Publish of the last registered sample failed
+     */
+    public void onTelemetryError(String deviceId) {
+
+        ArrayDeque<Long> sendTimes = telemetrySendTimes.get(deviceId);
+
+        synchronized (sendTimes) {
+            sendTimes.pollLast();
+        }
+
+        telemetryRecorder.onError();
+    }
+
+    public void onTelemetryReceived(String deviceId, long receiveNanos) {
+
+        ArrayDeque<Long> sendTimes = deviceId != null ? telemetrySendTimes.get(deviceId) : null;
+
+        if(sendTimes == null){
+            telemetryRecorder.onUnmatched();
+            return;
+        }
+
+        Long sendNanos = null;
+
+        synchronized (sendTimes) {
+            if(sendTimes.size() >= averageWindowSize)
+                for(int i = 0; i < averageWindowSize; i++)
+                    sendNanos = sendTimes.pollFirst();
+        }
+
+        if(sendNanos != null)
+            telemetryRecorder.onReceived(receiveNanos - sendNanos);
+        else
+            telemetryRecorder.onUnmatched();
+    }
+
+    /**
+     * @return the sequence number to be included in the command
+     */
+    public long onCommandSent(long sendNanos) {
+        long sequenceNumber = commandSequence.incrementAndGet();
+        commandSendTimes.put(sequenceNumber, sendNanos);
+        commandRecorder.onSent();
+        return sequenceNumber;
+    }
+
+    public void onCommandError(long sequenceNumber) {
+        commandSendTimes.remove(sequenceNumber);
+        commandRecorder.onError();
+    }
+
+    public void onCommandReceived(long sequenceNumber, long receiveNanos) {
+
+        Long sendNanos = commandSendTimes.remove(sequenceNumber);
+
+        if(sendNanos != null)
+            commandRecorder.onReceived(receiveNanos - sendNanos);
+        else
+            commandRecorder.onUnmatched();
+    }
+
+    /**
+     * Discard the measurements collected during the warmup keeping the pending messages
+     */
+    public void resetStatistics() {
+        telemetryRecorder.reset();
+        commandRecorder.reset();
+    }
+
+    public LatencyRecorder getTelemetryRecorder() {
+        return telemetryRecorder;
+    }
+
+    public LatencyRecorder getCommandRecorder() {
+        return commandRecorder;
+    }
+}
@@ -0,0 +1,303 @@
+package it.unimore.dipi.iot.demo.mqtt.loadtest;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.yaml.YAMLFactory;
+import it.unimore.dipi.iot.demo.mqtt.wldt.pipeline.PriorityLaneConfiguration;
+
+import java.io.File;
+import java.io.IOException;
+
+/**
+ * Configuration of the end-to-end load test. It can be loaded from a YAML file
+ * (see loadtest.yaml) where missing fields keep the default values.
+ *
+ * @created: 18/10/2026
+ * @project: WLDT - MQTT Example
+ */
+public class LoadTestConfiguration {
+
+    private int physicalBrokerPort = 21883;
+
+    private int digitalBrokerPort = 21884;
+
+    private int deviceCount = 100;
+
+    private int connectionCount = 4;
+
+    private double telemetryRatePerDevice = 10.0;
+
+    private double commandRate = 50.0;
+
+    private int qos = 1;
+
+    private int averageWindowSize = 10;
+
+    private boolean batchedPublishing = false;
+
+    //Processing time added to each telemetry message by the twin (0 disabled), used to saturate the telemetry pipeline
+    private long telemetryProcessingMicros = 0;
+
+    //Partitions of the pipeline executors of the twin
+    private int partitionCount = Runtime.getRuntime().availableProcessors();
+
+    //Telemetry and commands are executed on the lanes of a PriorityLaneScheduler instead of a shared executor
+    private boolean priorityLanes = false;
+
+    private PriorityLaneConfiguration.PriorityPolicy priorityPolicy = PriorityLaneConfiguration.PriorityPolicy.WEIGHTED;
+
+    private int commandWeight = 16;
+
+    //Commands are published towards the physical broker through a dedicated connection
+    private boolean commandConnection = false;
+
+    //Maximum ratio between the command p99 latency with saturated telemetry and the baseline one (see PriorityLaneLoadTest)
+    private double maxCommandLatencyRatio = 3.0;
+
+    private int warmupSeconds = 10;
+
+    private int durationSeconds = 60;
+
+    private int drainSeconds = 5;
+
+    private String reportFile = "loadtest-report.json";
+
+    public LoadTestConfiguration() {
+    }
+
+    public static LoadTestConfiguration fromYamlFile(String filePath) throws IOException {
+        ObjectMapper mapper = new ObjectMapper(new YAMLFactory());
+        mapper.configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+        return mapper.readValue(new File(filePath), LoadTestConfiguration.class);
+    }
+
+    public LoadTestConfiguration copy() {
+        return new ObjectMapper().convertValue(this, LoadTestConfiguration.class);
+    }
+
+    /**
+     * @throws IllegalArgumentException if the configuration is not valid
+     */
+    public void validate() {
+
+        if(physicalBrokerPort <= 0 || digitalBrokerPort <= 0 || physicalBrokerPort == digitalBrokerPort)
+            throw new IllegalArgumentException("Invalid Broker Ports ! They must be greater than 0 and different");
+
+        if(deviceCount <= 0 || connectionCount <= 0)
+            throw new IllegalArgumentException("Device Count and Connection Count must be greater than 0 !");
+
+        if(telemetryRatePerDevice <= 0.0 || commandRate < 0.0)
+            throw new IllegalArgumentException("Telemetry Rate must be greater than 0 and the Command Rate can not be negative !");
+
+        if(qos < 0 || qos > 2)
+            throw new IllegalArgumentException(String.format("Invalid QoS: %d", qos));
+
+        if(averageWindowSize <= 0)
+            throw new IllegalArgumentException("Average Window Size must be greater than 0 !");
+
+        if(telemetryProcessingMicros < 0)
+            throw new IllegalArgumentException("Telemetry Processing Time can not be negative !");
+
+        if(partitionCount <= 0)
+            throw new IllegalArgumentException("Partition Count must be greater than 0 !");
+
+        if(priorityPolicy == null || commandWeight <= 0)
+            throw new IllegalArgumentException("Priority Policy can not be null and the Command Weight must be greater than 0 !");
+
+        if(maxCommandLatencyRatio < 1.0)
+            throw new IllegalArgumentException(String.format("Invalid Max Command Latency Ratio: %f", maxCommandLatencyRatio));
+
+        if(warmupSeconds < 0 || durationSeconds <= 0 || drainSeconds < 0)
+            throw new IllegalArgumentException("Invalid Warmup, Duration or Drain time !");
+
+        if(reportFile == null)
+            throw new IllegalArgumentException("Report File can not be null !");
+    }
+
+    public int getPhysicalBrokerPort() {
+        return physicalBrokerPort;
+    }
+
+    public void setPhysicalBrokerPort(int physicalBrokerPort) {
+        this.physicalBrokerPort = physicalBrokerPort;
+    }
+
+    public int getDigitalBrokerPort() {
+        return digitalBrokerPort;
+    }
+
+    public void setDigitalBrokerPort(int digitalBrokerPort) {
+        this.digitalBrokerPort = digitalBrokerPort;
+    }
+
+    public int getDeviceCount() {
+        return deviceCount;
+    }
+
+    public void setDeviceCount(int deviceCount) {
+        this.deviceCount = deviceCount;
+    }
+
+    public int getConnectionCount() {
+        return connectionCount;
+    }
+
+    public void setConnectionCount(int connectionCount) {
+        this.connectionCount = connectionCount;
+    }
+
+    public double getTelemetryRatePerDevice() {
+        return telemetryRatePerDevice;
+    }
+
+    public void setTelemetryRatePerDevice(double telemetryRatePerDevice) {
+        this.telemetryRatePerDevice = telemetryRatePerDevice;
+    }
+
+    public double getCommandRate() {
+        return commandRate;
+    }
+
+    public void setCommandRate(double commandRate) {
+        this.commandRate = commandRate;
+    }
+
+    public int getQos() {
+        return qos;
+    }
+
+    public void setQos(int qos) {
+        this.qos = qos;
+    }
+
+    public int getAverageWindowSize() {
+        return averageWindowSize;
+    }
+
+    public void setAverageWindowSize(int averageWindowSize) {
+        this.averageWindowSize = averageWindowSize;
+    }
+
+    public boolean isBatchedPublishing() {
+        return batchedPublishing;
+    }
+
+    public void setBatchedPublishing(boolean batchedPublishing) {
+        this.batchedPublishing = batchedPublishing;
+    }
+
+    public long getTelemetryProcessingMicros() {
+        return telemetryProcessingMicros;
+    }
+
+    public void setTelemetryProcessingMicros(long telemetryProcessingMicros) {
+        this.telemetryProcessingMicros = telemetryProcessingMicros;
+    }
+
+    public int getPartitionCount() {
+        return partitionCount;
+    }
+
+    public void setPartitionCount(int partitionCount) {
+        this.partitionCount = partitionCount;
+    }
+
+    public boolean isPriorityLanes() {
+        return priorityLanes;
+    }
+
+    public void setPriorityLanes(boolean priorityLanes) {
+        this.priorityLanes = priorityLanes;
+    }
+
+    public PriorityLaneConfiguration.PriorityPolicy getPriorityPolicy() {
+        return priorityPolicy;
+    }
+
+    public void setPriorityPolicy(PriorityLaneConfiguration.PriorityPolicy priorityPolicy) {
+        this.priorityPolicy = priorityPolicy;
+    }
+
+    public int getCommandWeight() {
+        return commandWeight;
+    }
+
+    public void setCommandWeight(int commandWeight) {
+        this.commandWeight = commandWeight;
+    }
+
+    public boolean isCommandConnection() {
+        return commandConnection;
+    }
+
+    public void setCommandConnection(boolean commandConnection) {
+        this.commandConnection = commandConnection;
+    }
+
+    public double getMaxCommandLatencyRatio() {
+        return maxCommandLatencyRatio;
+    }
+
+    public void setMaxCommandLatencyRatio(double maxCommandLatencyRatio) {
+        this.maxCommandLatencyRatio = maxCommandLatencyRatio;
+    }
+
+    public int getWarmupSeconds() {
+        return warmupSeconds;
+    }
+
+    public void setWarmupSeconds(int warmupSeconds) {
+        this.warmupSeconds = warmupSeconds;
+    }
+
+    public int getDurationSeconds() {
+        return durationSeconds;
+    }
+
+    public void setDurationSeconds(int durationSeconds) {
+        this.durationSeconds = durationSeconds;
+    }
+
+    public int getDrainSeconds() {
+        return drainSeconds;
+    }
+
+    public void setDrainSeconds(int drainSeconds) {
+        this.drainSeconds = drainSeconds;
+    }
+
+    public String getReportFile() {
+        return reportFile;
+    }
+
+    public void setReportFile(String reportFile) {
+        this.reportFile = reportFile;
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder("LoadTestConfiguration{");
+        sb.append("physicalBrokerPort=").append(physicalBrokerPort);
+        sb.append(", digitalBrokerPort=").append(digitalBrokerPort);
+        sb.append(", deviceCount=").append(deviceCount);
+        sb.append(", connectionCount=").append(connectionCount);
+        sb.append(", telemetryRatePerDevice=").append(telemetryRatePerDevice);
+        sb.append(", commandRate=").append(commandRate);
+        sb.append(", qos=").append(qos);
+        sb.append(", averageWindowSize=").append(averageWindowSize);
+        sb.append(", batchedPublishing=").append(batchedPublishing);
+        sb.append(", telemetryProcessingMicros=").append(telemetryProcessingMicros);
+        sb.append(", partitionCount=").append(partitionCount);
+        sb.append(", priorityLanes=").append(priorityLanes);
+        sb.append(", priorityPolicy=").append(priorityPolicy);
+        sb.append(", commandWeight=").append(commandWeight);
+        sb.append(", commandConnection=").append(commandConnection);
+        sb.append(", maxCommandLatencyRatio=").append(maxCommandLatencyRatio);
+        sb.append(", warmupSeconds=").append(warmupSeconds);
+        sb.append(", durationSeconds=").append(durationSeconds);
+        sb.append(", drainSeconds=").append(drainSeconds);
+        sb.append(", reportFile='").append(reportFile).append('\'');
+        sb.append('}');
+        return sb.toString();
+    }
+}
@@ -0,0 +1,293 @@
+package it.unimore.dipi.iot.demo.mqtt.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import it.unimore.dipi.iot.demo.mqtt.wldt.MqttCommandTopicChangeStep;
+import it.unimore.dipi.iot.demo.mqtt.wldt.MqttPayloadChangeStep;
+import it.unimore.dipi.iot.demo.mqtt.wldt.MqttPublishStep;
+import it.unimore.dipi.iot.demo.mqtt.wldt.MqttStreamingAverageStep;
+import it.unimore.dipi.iot.demo.mqtt.wldt.MqttTopicChangeStep;
+import it.unimore.dipi.iot.demo.mqtt.wldt.WldtMqttProcess;
+import it.unimore.dipi.iot.demo.mqtt.wldt.pipeline.ConcurrentProcessingPipeline;
+import it.unimore.dipi.iot.demo.mqtt.wldt.pipeline.PartitionedExecutor;
+import it.unimore.dipi.iot.demo.mqtt.wldt.pipeline.PipelineExecutor;
+import it.unimore.dipi.iot.demo.mqtt.wldt.pipeline.PriorityLaneConfiguration;
+import it.unimore.dipi.iot.demo.mqtt.wldt.pipeline.PriorityLaneScheduler;
+import it.unimore.dipi.iot.demo.mqtt.wldt.publish.BatchingMqttPublisher;
+import it.unimore.dipi.iot.demo.mqtt.wldt.publish.BatchingMqttPublisherConfiguration;
+import it.unimore.dipi.iot.wldt.engine.WldtConfiguration;
+import it.unimore.dipi.iot.wldt.engine.WldtEngine;
+import it.unimore.dipi.iot.wldt.processing.step.IdentityProcessingStep;
+import it.unimore.dipi.iot.wldt.worker.mqtt.Mqtt2MqttConfiguration;
+import it.unimore.dipi.iot.wldt.worker.mqtt.Mqtt2MqttWorker;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Self-contained end-to-end load test of the WLDT MQTT Digital Twin. Everything runs in the same JVM:
+ *
+ * SIMULATED DEVICES ---- [telemetry] ----> PHYSICAL BROKER ----> (DT) ----> DIGITAL BROKER ----> SIMULATED CONSUMER
+ * SIMULATED DEVICES <---- [commands] ---- PHYSICAL BROKER <---- (DT) <---- DIGITAL BROKER <---- SIMULATED APPLICATION
+ *
+ * The twin is configured with the same pipelines of WldtMqttProcess and mirrors all the simulated devices
+ * through a single Mqtt2MqttWorker using the MQTT single level wildcard as device id. The pipelines are executed
+ * on a shared PartitionedExecutor or, with priorityLanes, on the lanes of a PriorityLaneScheduler.
+ * At the end of the run the throughput and the latency percentiles of both flows are written as JSON.
+ *
+ * Usage: java -jar target/loadtest.jar [configuration.yaml]
+ *
+ * @created: 18/10/2026
+ * @project: WLDT - MQTT Example
+ */
+public class LoadTestHarness {
+
+    private static final String TAG = "[WLDT-LoadTest]";
+
+    private static final Logger logger = LoggerFactory.getLogger(LoadTestHarness.class);
+
+    private static final String ALL_DEVICES_ID = "+";
+
+    private static final long TWIN_STARTUP_WAIT_MS = 3000;
+
+    private static final long PUBLISHER_STOP_TIMEOUT_MS = 5000;
+
+    //Telemetry still queued in the pipelines when the devices stop (E.g. with saturated pipelines)
+    private static final long PIPELINE_DRAIN_TIMEOUT_MS = 30000;
+
+    public static void main(String[] args) {
+
+        int exitCode = 0;
+
+        try{
+
+            LoadTestConfiguration configuration = args.length > 0 ? LoadTestConfiguration.fromYamlFile(args[0]) : new LoadTestConfiguration();
+            configuration.validate();
+
+            logger.info("{} Starting Load Test ... Configuration: {}", TAG, configuration);
+
+            new LoadTestHarness().run(configuration);
+
+        }catch (Exception e){
+            logger.error("{} Load Test Error: {}", TAG, e.getLocalizedMessage(), e);
+            exitCode = 1;
+        }
+
+        //WLDT and Paho threads are not daemon threads
+        System.exit(exitCode);
+    }
+
+    public LoadTestReport run(LoadTestConfiguration configuration) throws Exception {
+
+        EmbeddedMqttBroker physicalBroker = new EmbeddedMqttBroker("physical", configuration.getPhysicalBrokerPort());
+        EmbeddedMqttBroker digitalBroker = new EmbeddedMqttBroker("digital", configuration.getDigitalBrokerPort());
+
+        String[] deviceIds = SimulatedDeviceFleet.createDeviceIds(configuration.getDeviceCount());
+        LatencyTracker latencyTracker = new LatencyTracker(deviceIds, configuration.getAverageWindowSize());
+
+        SimulatedDeviceFleet deviceFleet = new SimulatedDeviceFleet(configuration, physicalBroker.getBrokerUrl(), latencyTracker, deviceIds);
+        SimulatedApplication application = new SimulatedApplication(configuration, digitalBroker.getBrokerUrl(), latencyTracker, deviceIds);
+
+        WldtEngine wldtEngine = null;
+        BatchingMqttPublisher publisher = null;
+        BatchingMqttPublisher commandPublisher = null;
+
+        //Each run has its own executors, so the tasks of a saturated run do not leak in the following one
+        PriorityLaneScheduler laneScheduler = null;
+        PartitionedExecutor sharedExecutor = null;
+
+        try{
+
+            physicalBroker.start();
+            digitalBroker.start();
+
+            if(configuration.isBatchedPublishing()){
+                BatchingMqttPublisherConfiguration publisherConfiguration = new BatchingMqttPublisherConfiguration(digitalBroker.getAddress(), digitalBroker.getPort());
+                publisherConfiguration.setQos(configuration.getQos());
+                publisher = new BatchingMqttPublisher(publisherConfiguration);
+                publisher.start();
+            }
+
+            if(configuration.isCommandConnection()){
+                BatchingMqttPublisherConfiguration publisherConfiguration = new BatchingMqttPublisherConfiguration(physicalBroker.getAddress(), physicalBroker.getPort());
+                publisherConfiguration.setClientId("loadtest-command-publisher");
+                publisherConfiguration.setQos(configuration.getQos());
+                publisherConfiguration.setLingerMs(0);
+                commandPublisher = new BatchingMqttPublisher(publisherConfiguration);
+                commandPublisher.start();
+            }
+
+            PipelineExecutor telemetryExecutor;
+            PipelineExecutor commandExecutor;
+
+            if(configuration.isPriorityLanes()){
+                laneScheduler = new PriorityLaneScheduler("loadtest-lanes", createLaneConfiguration(configuration));
+                telemetryExecutor = laneScheduler.getTelemetryLane();
+                commandExecutor = laneScheduler.getCommandLane();
+            }
+            else {
+                sharedExecutor = new PartitionedExecutor("loadtest-pipeline",
+                        configuration.getPartitionCount(),
+                        PartitionedExecutor.DEFAULT_QUEUE_CAPACITY,
+                        PartitionedExecutor.OverflowPolicy.BLOCK,
+                        false);
+                telemetryExecutor = sharedExecutor;
+                commandExecutor = sharedExecutor;
+            }
+
+            wldtEngine = startDigitalTwin(configuration, physicalBroker, digitalBroker, publisher, commandPublisher, telemetryExecutor, commandExecutor);
+            Thread.sleep(TWIN_STARTUP_WAIT_MS);
+
+            application.connect();
+            deviceFleet.connect();
+
+            deviceFleet.startTelemetry();
+            application.startCommands();
+
+            logger.info("{} Warmup for {} seconds ...", TAG, configuration.getWarmupSeconds());
+            Thread.sleep(configuration.getWarmupSeconds() * 1000L);
+
+            latencyTracker.resetStatistics();
+            Instant startTime = Instant.now();
+            long measurementStart = System.nanoTime();
+
+            logger.info("{} Measuring for {} seconds ...", TAG, configuration.getDurationSeconds());
+            Thread.sleep(configuration.getDurationSeconds() * 1000L);
+
+            deviceFleet.stopTelemetry();
+            application.stopCommands();
+            long measurementMs = (System.nanoTime() - measurementStart) / 1000000L;
+
+            //Messages still travelling through the twin are counted as received
+            Thread.sleep(configuration.getDrainSeconds() * 1000L);
+
+            LoadTestReport report = new LoadTestReport();
+            report.setStartTime(startTime.toString());
+            report.setMeasurementMs(measurementMs);
+            report.setConfiguration(configuration);
+            report.setTelemetry(latencyTracker.getTelemetryRecorder().getStatistics(measurementMs));
+            report.setCommand(latencyTracker.getCommandRecorder().getStatistics(measurementMs));
+
+            if(publisher != null){
+                report.setPublisherRejectedCount(publisher.getRejectedCount());
+                report.setPublisherFailedCount(publisher.getFailedCount());
+                report.setPublisherBatchCount(publisher.getBatchCount());
+            }
+
+            writeReport(report, configuration.getReportFile());
+
+            logger.info("{} Telemetry: {}", TAG, report.getTelemetry());
+            logger.info("{} Commands: {}", TAG, report.getCommand());
+            logger.info("{} Report saved to: {}", TAG, configuration.getReportFile());
+
+            return report;
+
+        }finally {
+
+            deviceFleet.stopTelemetry();
+            application.stopCommands();
+            deviceFleet.disconnect();
+            application.disconnect();
+
+            if(laneScheduler != null){
+                laneScheduler.shutdown();
+                if(!laneScheduler.awaitTermination(PIPELINE_DRAIN_TIMEOUT_MS, TimeUnit.MILLISECONDS))
+                    logger.warn("{} Pipeline lanes not drained in {} ms !", TAG, PIPELINE_DRAIN_TIMEOUT_MS);
+            }
+
+            if(sharedExecutor != null){
+                sharedExecutor.shutdown();
+                if(!sharedExecutor.awaitTermination(PIPELINE_DRAIN_TIMEOUT_MS, TimeUnit.MILLISECONDS))
+                    logger.warn("{} Pipeline executor not drained in {} ms !", TAG, PIPELINE_DRAIN_TIMEOUT_MS);
+            }
+
+            if(wldtEngine != null)
+                wldtEngine.stopWorkers();
+
+            if(publisher != null)
+                publisher.stop(PUBLISHER_STOP_TIMEOUT_MS);
+
+            if(commandPublisher != null)
+                commandPublisher.stop(PUBLISHER_STOP_TIMEOUT_MS);
+
+            physicalBroker.stop();
+            digitalBroker.stop();
+        }
+    }
+
+    private WldtEngine startDigitalTwin(LoadTestConfiguration configuration,
+                                        EmbeddedMqttBroker physicalBroker,
+                                        EmbeddedMqttBroker digitalBroker,
+                                        BatchingMqttPublisher publisher,
+                                        BatchingMqttPublisher commandPublisher,
+                                        PipelineExecutor telemetryExecutor,
+                                        PipelineExecutor commandExecutor) throws Exception {
+
+        WldtConfiguration wldtConfiguration = new WldtConfiguration();
+        wldtConfiguration.setDeviceNameSpace("it.unimore.dipi.things");
+        wldtConfiguration.setWldtBaseIdentifier("wldt-loadtest");
+        wldtConfiguration.setWldtStartupTimeSeconds(1);
+        wldtConfiguration.setApplicationMetricsEnabled(false);
+
+        WldtEngine wldtEngine = new WldtEngine(wldtConfiguration);
+
+        Mqtt2MqttConfiguration mqtt2MqttConfiguration = WldtMqttProcess.getMqttComplexProtocolConfiguration(physicalBroker.getAddress(),
+                physicalBroker.getPort(),
+                digitalBroker.getAddress(),
+                digitalBroker.getPort(),
+                ALL_DEVICES_ID,
+                false);
+
+        mqtt2MqttConfiguration.setDtPublishingQoS(configuration.getQos());
+
+        Mqtt2MqttWorker mqtt2MqttWorker = new Mqtt2MqttWorker(wldtEngine.getWldtId(), mqtt2MqttConfiguration);
+
+        ConcurrentProcessingPipeline telemetryPipeline = new ConcurrentProcessingPipeline(telemetryExecutor,
+                new IdentityProcessingStep(),
+                new MqttStreamingAverageStep(configuration.getAverageWindowSize()),
+                new MqttTopicChangeStep()
+        );
+
+        if(configuration.getTelemetryProcessingMicros() > 0)
+            telemetryPipeline.addStep(new SimulatedProcessingStep(configuration.getTelemetryProcessingMicros()));
+
+        if(publisher != null)
+            telemetryPipeline.addStep(new MqttPublishStep(publisher));
+
+        mqtt2MqttWorker.addTopicProcessingPipeline(WldtMqttProcess.DEMO_TEMPERATURE_TOPIC_ID, telemetryPipeline);
+
+        ConcurrentProcessingPipeline commandPipeline = new ConcurrentProcessingPipeline(commandExecutor,
+                new IdentityProcessingStep(),
+                new MqttPayloadChangeStep(),
+                new MqttCommandTopicChangeStep()
+        );
+
+        if(commandPublisher != null)
+            commandPipeline.addStep(new MqttPublishStep(commandPublisher));
+
+        mqtt2MqttWorker.addTopicProcessingPipeline(WldtMqttProcess.DEMO_COMMAND_TOPIC_ID, commandPipeline);
+
+        wldtEngine.addNewWorker(mqtt2MqttWorker);
+        wldtEngine.startWorkers();
+
+        return wldtEngine;
+    }
+
+    private PriorityLaneConfiguration createLaneConfiguration(LoadTestConfiguration configuration) {
+        PriorityLaneConfiguration laneConfiguration = new PriorityLaneConfiguration();
+        laneConfiguration.setPartitionCount(configuration.getPartitionCount());
+        laneConfiguration.setPriorityPolicy(configuration.getPriorityPolicy());
+        laneConfiguration.setCommandWeight(configuration.getCommandWeight());
+        return laneConfiguration;
+    }
+
+    private void writeReport(LoadTestReport report, String reportFile) throws Exception {
+        ObjectMapper mapper = new ObjectMapper();
+        mapper.enable(SerializationFeature.INDENT_OUTPUT);
+        mapper.writeValue(new File(reportFile), report);
+    }
+
+}
@@ -0,0 +1,108 @@
+package it.unimore.dipi.iot.demo.mqtt.loadtest;
+
+/**
+ * Machine readable result of a load test run (serialized as JSON)
+ *
+ * @created: 18/10/2026
+ * @project: WLDT - MQTT Example
+ */
+public class LoadTestReport {
+
+    private String startTime;
+
+    private long measurementMs;
+
+    private LoadTestConfiguration configuration;
+
+    private LatencyStatistics telemetry;
+
+    private LatencyStatistics command;
+
+    private long publisherRejectedCount;
+
+    private long publisherFailedCount;
+
+    private long publisherBatchCount;
+
+    public LoadTestReport() {
+    }
+
+    public String getStartTime() {
+        return startTime;
+    }
+
+    public void setStartTime(String startTime) {
+        this.startTime = startTime;
+    }
+
+    public long getMeasurementMs() {
+        return measurementMs;
+    }
+
+    public void setMeasurementMs(long measurementMs) {
+        this.measurementMs = measurementMs;
+    }
+
+    public LoadTestConfiguration getConfiguration() {
+        return configuration;
+    }
+
+    public void setConfiguration(LoadTestConfiguration configuration) {
+        this.configuration = configuration;
+    }
+
+    public LatencyStatistics getTelemetry() {
+        return telemetry;
+    }
+
+    public void setTelemetry(LatencyStatistics telemetry) {
+        this.telemetry = telemetry;
+    }
+
+    public LatencyStatistics getCommand() {
+        return command;
+    }
+
+    public void setCommand(LatencyStatistics command) {
+        this.command = command;
+    }
+
+    public long getPublisherRejectedCount() {
+        return publisherRejectedCount;
+    }
+
+    public void setPublisherRejectedCount(long publisherRejectedCount) {
+        this.publisherRejectedCount = publisherRejectedCount;
+    }
+
+    public long getPublisherFailedCount() {
+        return publisherFailedCount;
+    }
+
+    public void setPublisherFailedCount(long publisherFailedCount) {
+        this.publisherFailedCount = publisherFailedCount;
+    }
+
+    public long getPublisherBatchCount() {
+        return publisherBatchCount;
+    }
+
+    public void setPublisherBatchCount(long publisherBatchCount) {
+        this.publisherBatchCount = publisherBatchCount;
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder("LoadTestReport{");
+        sb.append("startTime='").append(startTime).append('\'');
+        sb.append(", measurementMs=").append(measurementMs);
+        sb.append(", configuration=").append(configuration);
+        sb.append(", telemetry=").append(telemetry);
+        sb.append(", command=").append(command);
+        sb.append(", publisherRejectedCount=").append(publisherRejectedCount);
+        sb.append(", publisherFailedCount=").append(publisherFailedCount);
+        sb.append(", publisherBatchCount=").append(publisherBatchCount);
+        sb.append('}');
+        return sb.toString();
+    }
+}
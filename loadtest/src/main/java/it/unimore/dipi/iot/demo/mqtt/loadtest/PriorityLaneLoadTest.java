@@ -0,0 +1,137 @@
+package it.unimore.dipi.iot.demo.mqtt.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Load test of the command latency while the telemetry saturates the twin. The LoadTestHarness is executed three
+ * times with the same devices and rates:
+ *
+ * baseline   priority lanes, no telemetry processing time (the pipelines are not saturated)
+ * shared     telemetryProcessingMicros, telemetry and commands on the same PartitionedExecutor and connection
+ * lanes      telemetryProcessingMicros, PriorityLaneScheduler and dedicated command connection
+ *
+ * The report of each run is saved as <run>-<reportFile> and the command latencies of the three runs are compared
+ * in reportFile. The test fails (exit code 1) if the command p99 latency of the lanes run is greater than
+ * maxCommandLatencyRatio times the baseline one.
+ *
+ * Usage: java -cp target/loadtest.jar it.unimore.dipi.iot.demo.mqtt.loadtest.PriorityLaneLoadTest [configuration.yaml]
+ *
+ * @created: 18/10/2026
+ * @project: WLDT - MQTT Example
+ */
+public class PriorityLaneLoadTest {
+
+    private static final String TAG = "[WLDT-PriorityLaneLoadTest]";
+
+    private static final Logger logger = LoggerFactory.getLogger(PriorityLaneLoadTest.class);
+
+    public static void main(String[] args) {
+
+        int exitCode = 0;
+
+        try{
+
+            LoadTestConfiguration configuration = args.length > 0 ? LoadTestConfiguration.fromYamlFile(args[0]) : new LoadTestConfiguration();
+            configuration.validate();
+
+            if(configuration.getTelemetryProcessingMicros() <= 0)
+                throw new IllegalArgumentException("Telemetry Processing Time must be greater than 0 to saturate the telemetry pipeline !");
+
+            logger.info("{} Starting Priority Lane Load Test ... Configuration: {}", TAG, configuration);
+
+            if(!new PriorityLaneLoadTest().run(configuration))
+                exitCode = 1;
+
+        }catch (Exception e){
+            logger.error("{} Load Test Error: {}", TAG, e.getLocalizedMessage(), e);
+            exitCode = 1;
+        }
+
+        //WLDT and Paho threads are not daemon threads
+        System.exit(exitCode);
+    }
+
+    /**
+     * @return true if the command latency of the lanes run is within maxCommandLatencyRatio of the baseline one
+     */
+    public boolean run(LoadTestConfiguration configuration) throws Exception {
+
+        LoadTestHarness harness = new LoadTestHarness();
+
+        LoadTestReport baseline = harness.run(createRunConfiguration(configuration, "baseline", true, 0));
+        LoadTestReport shared = harness.run(createRunConfiguration(configuration, "shared", false, configuration.getTelemetryProcessingMicros()));
+        LoadTestReport lanes = harness.run(createRunConfiguration(configuration, "lanes", true, configuration.getTelemetryProcessingMicros()));
+
+        double sharedRatio = getCommandP99Ratio(shared, baseline);
+        double lanesRatio = getCommandP99Ratio(lanes, baseline);
+        boolean passed = lanesRatio <= configuration.getMaxCommandLatencyRatio();
+
+        Map<String, Object> comparison = new LinkedHashMap<>();
+        comparison.put("configuration", configuration);
+        comparison.put("baseline", baseline.getCommand());
+        comparison.put("shared", shared.getCommand());
+        comparison.put("lanes", lanes.getCommand());
+        comparison.put("sharedCommandP99Ratio", sharedRatio);
+        comparison.put("lanesCommandP99Ratio", lanesRatio);
+        comparison.put("passed", passed);
+
+        ObjectMapper mapper = new ObjectMapper();
+        mapper.enable(SerializationFeature.INDENT_OUTPUT);
+        mapper.writeValue(new File(configuration.getReportFile()), comparison);
+
+        logRun("baseline", baseline);
+        logRun("shared", shared);
+        logRun("lanes", lanes);
+
+        logger.info("{} Command p99 ratio to baseline -> shared: {} lanes: {} (max: {}) -> {}",
+                TAG,
+                String.format("%.2f", sharedRatio),
+                String.format("%.2f", lanesRatio),
+                configuration.getMaxCommandLatencyRatio(),
+                passed ? "PASSED" : "FAILED");
+
+        logger.info("{} Report saved to: {}", TAG, configuration.getReportFile());
+
+        return passed;
+    }
+
+    private LoadTestConfiguration createRunConfiguration(LoadTestConfiguration configuration, String runName, boolean priorityLanes, long telemetryProcessingMicros) {
+
+        LoadTestConfiguration runConfiguration = configuration.copy();
+        runConfiguration.setPriorityLanes(priorityLanes);
+        runConfiguration.setCommandConnection(priorityLanes);
+        runConfiguration.setTelemetryProcessingMicros(telemetryProcessingMicros);
+
+        File reportFile = new File(configuration.getReportFile());
+        runConfiguration.setReportFile(new File(reportFile.getAbsoluteFile().getParentFile(), String.format("%s-%s", runName, reportFile.getName())).getPath());
+
+        return runConfiguration;
+    }
+
+    private double getCommandP99Ratio(LoadTestReport report, LoadTestReport baseline) {
+        return (double) report.getCommand().getP99Us() / Math.max(1, baseline.getCommand().getP99Us());
+    }
+
+    private void logRun(String runName, LoadTestReport report) {
+        LatencyStatistics command = report.getCommand();
+        LatencyStatistics telemetry = report.getTelemetry();
+        logger.info("{} {} -> command p50: {} us p99: {} us max: {} us received: {}/{} | telemetry received/s: {} p99: {} us",
+                TAG,
+                runName,
+                command.getP50Us(),
+                command.getP99Us(),
+                command.getMaxUs(),
+                command.getReceivedCount(),
+                command.getSentCount(),
+                String.format("%.1f", telemetry.getReceivedPerSecond()),
+                telemetry.getP99Us());
+    }
+
+}
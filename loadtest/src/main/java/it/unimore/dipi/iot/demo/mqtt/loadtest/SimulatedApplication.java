@@ -0,0 +1,145 @@
+package it.unimore.dipi.iot.demo.mqtt.loadtest;
+
+import org.eclipse.paho.client.mqttv3.IMqttAsyncClient;
+import org.eclipse.paho.client.mqttv3.MqttAsyncClient;
+import org.eclipse.paho.client.mqttv3.MqttConnectOptions;
+import org.eclipse.paho.client.mqttv3.MqttException;
+import org.eclipse.paho.client.mqttv3.persist.MemoryPersistence;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Simulated external applications connected to the digital broker: a consumer receiving the telemetry
+ * published by the twin (as SimpleMqttConsumer) and a command sender (as ExternalApplicationCommandTester)
+ * sending commands to the simulated devices in round robin at the configured rate.
+ *
+ * @created: 18/10/2026
+ * @project: WLDT - MQTT Example
+ */
+public class SimulatedApplication {
+
+    private static final Logger logger = LoggerFactory.getLogger(SimulatedApplication.class);
+
+    private static final String TELEMETRY_TOPIC_FILTER = "#";
+
+    private static final String TELEMETRY_TOPIC_SEGMENT = "telemetry/";
+
+    private static final String COMMAND_TOPIC_FORMAT = "command/%s";
+
+    private static final int MAX_IN_FLIGHT = 10000;
+
+    private final LoadTestConfiguration configuration;
+
+    private final String brokerUrl;
+
+    private final LatencyTracker latencyTracker;
+
+    private final String[] deviceIds;
+
+    private IMqttAsyncClient consumerClient;
+
+    private IMqttAsyncClient commandClient;
+
+    private ScheduledExecutorService scheduler;
+
+    private int nextDevice = 0;
+
+    public SimulatedApplication(LoadTestConfiguration configuration, String brokerUrl, LatencyTracker latencyTracker, String[] deviceIds) {
+        this.configuration = configuration;
+        this.brokerUrl = brokerUrl;
+        this.latencyTracker = latencyTracker;
+        this.deviceIds = deviceIds;
+    }
+
+    public void connect() throws MqttException {
+
+        MqttConnectOptions options = new MqttConnectOptions();
+        options.setCleanSession(true);
+        options.setConnectionTimeout(10);
+        options.setMaxInflight(MAX_IN_FLIGHT);
+
+        this.consumerClient = new MqttAsyncClient(brokerUrl, UUID.randomUUID().toString(), new MemoryPersistence());
+        this.consumerClient.connect(options).waitForCompletion();
+
+        //Commands sent on the same broker are received as well and discarded by onTelemetryReceived()
+        this.consumerClient.subscribe(TELEMETRY_TOPIC_FILTER, configuration.getQos(), (topic, msg) -> onTelemetryReceived(topic)).waitForCompletion();
+
+        this.commandClient = new MqttAsyncClient(brokerUrl, UUID.randomUUID().toString(), new MemoryPersistence());
+        this.commandClient.connect(options).waitForCompletion();
+
+        logger.info("Simulated Application connected to {}", brokerUrl);
+    }
+
+    private void onTelemetryReceived(String topic) {
+
+        long receiveNanos = System.nanoTime();
+
+        int index = topic.indexOf(TELEMETRY_TOPIC_SEGMENT);
+
+        if(index < 0)
+            return;
+
+        int deviceIdStart = index + TELEMETRY_TOPIC_SEGMENT.length();
+        int deviceIdEnd = topic.indexOf('/', deviceIdStart);
+
+        latencyTracker.onTelemetryReceived(deviceIdEnd > 0 ? topic.substring(deviceIdStart, deviceIdEnd) : null, receiveNanos);
+    }
+
+    public synchronized void startCommands() {
+
+        if(configuration.getCommandRate() <= 0.0)
+            return;
+
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "loadtest-application");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        long periodNanos = (long) (TimeUnit.SECONDS.toNanos(1) / configuration.getCommandRate());
+
+        this.scheduler.scheduleAtFixedRate(this::sendCommand, periodNanos, periodNanos, TimeUnit.NANOSECONDS);
+    }
+
+    private void sendCommand() {
+
+        String topic = String.format(COMMAND_TOPIC_FORMAT, deviceIds[nextDevice]);
+        nextDevice = (nextDevice + 1) % deviceIds.length;
+
+        long sequenceNumber = latencyTracker.onCommandSent(System.nanoTime());
+
+        try{
+            commandClient.publish(topic, Long.toString(sequenceNumber).getBytes(StandardCharsets.UTF_8), configuration.getQos(), false);
+        }catch (MqttException e){
+            latencyTracker.onCommandError(sequenceNumber);
+            if(logger.isDebugEnabled())
+                logger.debug("Error sending command {}: {}", sequenceNumber, e.getLocalizedMessage());
+        }
+    }
+
+    public synchronized void stopCommands() {
+        if(scheduler != null)
+            scheduler.shutdown();
+    }
+
+    public void disconnect() {
+
+        for(IMqttAsyncClient client : new IMqttAsyncClient[]{ consumerClient, commandClient }) {
+            try{
+                if(client != null){
+                    client.disconnect().waitForCompletion(1000);
+                    client.close();
+                }
+            }catch (MqttException e){
+                logger.warn("Error disconnecting application client: {}", e.getLocalizedMessage());
+            }
+        }
+    }
+
+}
@@ -0,0 +1,182 @@
+package it.unimore.dipi.iot.demo.mqtt.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import it.unimore.dipi.iot.demo.mqtt.smartobject.TemperatureSensor;
+import org.eclipse.paho.client.mqttv3.IMqttAsyncClient;
+import org.eclipse.paho.client.mqttv3.MqttAsyncClient;
+import org.eclipse.paho.client.mqttv3.MqttConnectOptions;
+import org.eclipse.paho.client.mqttv3.MqttException;
+import org.eclipse.paho.client.mqttv3.MqttMessage;
+import org.eclipse.paho.client.mqttv3.persist.MemoryPersistence;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Simulated physical devices connected to the physical broker.
+ * Each device publishes numeric temperature samples at the configured rate on
+ * telemetry/{{device_id}}/resource/temperature and the devices are distributed over a small pool of shared connections.
+ * Commands forwarded by the twin on cmd/{{device_id}} are received through a single subscription.
+ *
+ * @created: 18/10/2026
+ * @project: WLDT - MQTT Example
+ */
+public class SimulatedDeviceFleet {
+
+    private static final Logger logger = LoggerFactory.getLogger(SimulatedDeviceFleet.class);
+
+    public static final String DEVICE_ID_FORMAT = "com:iot:dummy:loadTestDevice%06d";
+
+    private static final String TELEMETRY_TOPIC_FORMAT = "telemetry/%s/resource/temperature";
+
+    private static final String COMMAND_TOPIC_FILTER = "cmd/#";
+
+    private static final int MAX_IN_FLIGHT = 10000;
+
+    private final LoadTestConfiguration configuration;
+
+    private final String brokerUrl;
+
+    private final LatencyTracker latencyTracker;
+
+    private final String[] deviceIds;
+
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    private final List<IMqttAsyncClient> clients = new ArrayList<>();
+
+    private final List<ScheduledFuture<?>> telemetryTasks = new ArrayList<>();
+
+    private ScheduledExecutorService scheduler;
+
+    public SimulatedDeviceFleet(LoadTestConfiguration configuration, String brokerUrl, LatencyTracker latencyTracker, String[] deviceIds) {
+        this.configuration = configuration;
+        this.brokerUrl = brokerUrl;
+        this.latencyTracker = latencyTracker;
+        this.deviceIds = deviceIds;
+    }
+
+    public static String[] createDeviceIds(int deviceCount) {
+
+        String[] deviceIds = new String[deviceCount];
+
+        for(int i = 0; i < deviceCount; i++)
+            deviceIds[i] = String.format(DEVICE_ID_FORMAT, i);
+
+        return deviceIds;
+    }
+
+    public void connect() throws MqttException {
+
+        MqttConnectOptions options = new MqttConnectOptions();
+        options.setCleanSession(true);
+        options.setConnectionTimeout(10);
+        options.setMaxInflight(MAX_IN_FLIGHT);
+
+        for(int i = 0; i < configuration.getConnectionCount(); i++) {
+            IMqttAsyncClient client = new MqttAsyncClient(brokerUrl, UUID.randomUUID().toString(), new MemoryPersistence());
+            client.connect(options).waitForCompletion();
+            clients.add(client);
+        }
+
+        //A single subscription receives the commands of all the devices
+        clients.get(0).subscribe(COMMAND_TOPIC_FILTER, configuration.getQos(), (topic, msg) -> onCommandReceived(msg)).waitForCompletion();
+
+        logger.info("Simulated Device Fleet connected ! Devices: {} Connections: {}", deviceIds.length, clients.size());
+    }
+
+    /**
+     * Start publishing telemetry data. The first sample of each device is randomly delayed within the
+     * sampling period in order to avoid synchronized bursts.
+     */
+    public synchronized void startTelemetry() {
+
+        long periodNanos = (long) (TimeUnit.SECONDS.toNanos(1) / configuration.getTelemetryRatePerDevice());
+        int threadCount = Math.max(2, Runtime.getRuntime().availableProcessors() / 2);
+        Random random = new Random(0);
+
+        this.scheduler = Executors.newScheduledThreadPool(threadCount, runnable -> {
+            Thread thread = new Thread(runnable, "loadtest-device-fleet");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        for(int i = 0; i < deviceIds.length; i++) {
+
+            String deviceId = deviceIds[i];
+            String topic = String.format(TELEMETRY_TOPIC_FORMAT, deviceId);
+            IMqttAsyncClient client = clients.get(i % clients.size());
+            TemperatureSensor temperatureSensor = new TemperatureSensor();
+
+            telemetryTasks.add(scheduler.scheduleAtFixedRate(() -> publishTelemetry(client, deviceId, topic, temperatureSensor),
+                    (long) (random.nextDouble() * periodNanos),
+                    periodNanos,
+                    TimeUnit.NANOSECONDS));
+        }
+    }
+
+    private void publishTelemetry(IMqttAsyncClient client, String deviceId, String topic, TemperatureSensor temperatureSensor) {
+
+        byte[] payload = Double.toString(temperatureSensor.getTemperatureValue()).getBytes(StandardCharsets.UTF_8);
+
+        //The send time is registered before publishing since the message can be received before publish() returns
+        latencyTracker.onTelemetrySent(deviceId, System.nanoTime());
+
+        try{
+            client.publish(topic, payload, configuration.getQos(), false);
+        }catch (MqttException e){
+            latencyTracker.onTelemetryError(deviceId);
+            if(logger.isDebugEnabled())
+                logger.debug("Error publishing telemetry of device {}: {}", deviceId, e.getLocalizedMessage());
+        }
+    }
+
+    private void onCommandReceived(MqttMessage msg) {
+
+        long receiveNanos = System.nanoTime();
+
+        try{
+            JsonNode command = mapper.readTree(msg.getPayload());
+            latencyTracker.onCommandReceived(Long.parseLong(command.get("originalMessage").asText()), receiveNanos);
+        }catch (Exception e){
+            latencyTracker.getCommandRecorder().onUnmatched();
+            logger.warn("Unexpected Command Payload: {}", new String(msg.getPayload(), StandardCharsets.UTF_8));
+        }
+    }
+
+    public synchronized void stopTelemetry() {
+
+        for(ScheduledFuture<?> task : telemetryTasks)
+            task.cancel(false);
+
+        telemetryTasks.clear();
+
+        if(scheduler != null)
+            scheduler.shutdown();
+    }
+
+    public void disconnect() {
+
+        for(IMqttAsyncClient client : clients) {
+            try{
+                client.disconnect().waitForCompletion(1000);
+                client.close();
+            }catch (MqttException e){
+                logger.warn("Error disconnecting device fleet client: {}", e.getLocalizedMessage());
+            }
+        }
+
+        clients.clear();
+    }
+
+}
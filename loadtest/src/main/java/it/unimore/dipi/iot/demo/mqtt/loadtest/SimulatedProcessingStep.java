@@ -0,0 +1,39 @@
+package it.unimore.dipi.iot.demo.mqtt.loadtest;
+
+import it.unimore.dipi.iot.wldt.processing.PipelineData;
+import it.unimore.dipi.iot.wldt.processing.ProcessingStep;
+import it.unimore.dipi.iot.wldt.processing.ProcessingStepListener;
+import it.unimore.dipi.iot.wldt.processing.cache.PipelineCache;
+
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * ProcessingStep forwarding the received data after a fixed processing time (E.g. a blocking lookup on an external
+ * store). The pipeline thread is parked instead of spinning, so the pipelines can be saturated without taking the
+ * CPU from the embedded brokers and the simulated clients.
+ *
+ * @created: 18/10/2026
+ * @project: WLDT - MQTT Example
+ */
+public class SimulatedProcessingStep implements ProcessingStep {
+
+    private final long processingNanos;
+
+    public SimulatedProcessingStep(long processingMicros) {
+        this.processingNanos = TimeUnit.MICROSECONDS.toNanos(processingMicros);
+    }
+
+    @Override
+    public void execute(PipelineCache pipelineCache, PipelineData incomingData, ProcessingStepListener listener) {
+
+        long deadline = System.nanoTime() + processingNanos;
+
+        for(long remaining = processingNanos; remaining > 0; remaining = deadline - System.nanoTime())
+            LockSupport.parkNanos(remaining);
+
+        listener.onStepDone(this, Optional.of(incomingData));
+    }
+
+}
@@ -0,0 +1,96 @@
+package it.unimore.dipi.iot.demo.mqtt.loadtest;
+
+import org.junit.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * @created: 18/10/2026
+ * @project: WLDT - MQTT Example
+ */
+public class LatencyTrackerTest {
+
+    private static final long MS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    @Test
+    public void matchesEachAverageWithTheSampleCompletingTheWindow() {
+
+        LatencyTracker tracker = new LatencyTracker(new String[]{"device001"}, 3);
+
+        tracker.onTelemetrySent("device001", 0);
+        tracker.onTelemetrySent("device001", 10 * MS);
+        tracker.onTelemetrySent("device001", 20 * MS);
+        tracker.onTelemetrySent("device001", 30 * MS);
+
+        //Latency from the third sample
+        tracker.onTelemetryReceived("device001", 25 * MS);
+
+        //Incomplete window and unknown device
+        tracker.onTelemetryReceived("device001", 40 * MS);
+        tracker.onTelemetryReceived("device002", 40 * MS);
+
+        LatencyStatistics statistics = tracker.getTelemetryRecorder().getStatistics(1000);
+
+        assertEquals(4, statistics.getSentCount());
+        assertEquals(1, statistics.getReceivedCount());
+        assertEquals(2, statistics.getUnmatchedCount());
+        assertEquals(5000, statistics.getMaxUs(), 5);
+    }
+
+    @Test
+    public void failedSamplesAreNotMatched() {
+
+        LatencyTracker tracker = new LatencyTracker(new String[]{"device001"}, 1);
+
+        tracker.onTelemetrySent("device001", 0);
+        tracker.onTelemetrySent("device001", 10 * MS);
+        tracker.onTelemetryError("device001");
+        tracker.onTelemetryReceived("device001", 1 * MS);
+
+        LatencyStatistics statistics = tracker.getTelemetryRecorder().getStatistics(1000);
+
+        assertEquals(1, statistics.getErrorCount());
+        assertEquals(1, statistics.getReceivedCount());
+        assertEquals(1000, statistics.getMaxUs(), 1);
+    }
+
+    @Test
+    public void matchesTheCommandsBySequenceNumber() {
+
+        LatencyTracker tracker = new LatencyTracker(new String[0], 1);
+
+        long first = tracker.onCommandSent(0);
+        long second = tracker.onCommandSent(MS);
+
+        tracker.onCommandReceived(second, 3 * MS);
+        tracker.onCommandReceived(first, 4 * MS);
+        tracker.onCommandReceived(first, 5 * MS);
+
+        LatencyStatistics statistics = tracker.getCommandRecorder().getStatistics(1000);
+
+        assertEquals(2, statistics.getReceivedCount());
+        assertEquals(1, statistics.getUnmatchedCount());
+        assertEquals(2000, statistics.getMinUs(), 2);
+        assertEquals(4000, statistics.getMaxUs(), 4);
+    }
+
+    @Test
+    public void resetDiscardsTheWarmupMeasurements() {
+
+        LatencyTracker tracker = new LatencyTracker(new String[0], 1);
+
+        tracker.onCommandReceived(tracker.onCommandSent(0), MS);
+        long pending = tracker.onCommandSent(0);
+        tracker.resetStatistics();
+        tracker.onCommandReceived(pending, 2 * MS);
+
+        LatencyStatistics statistics = tracker.getCommandRecorder().getStatistics(2000);
+
+        assertEquals(0, statistics.getSentCount());
+        assertEquals(1, statistics.getReceivedCount());
+        assertEquals(0.5, statistics.getReceivedPerSecond(), 0.0);
+        assertEquals(2000, statistics.getMinUs(), 2);
+    }
+}
@@ -0,0 +1,43 @@
+package it.unimore.dipi.iot.demo.mqtt.loadtest;
+
+import org.junit.Test;
+
+import java.io.File;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+
+/**
+ * @created: 18/10/2026
+ * @project: WLDT - MQTT Example
+ */
+public class LoadTestConfigurationTest {
+
+    @Test
+    public void bundledConfigurationsAreValid() throws Exception {
+        for(String resource : new String[]{"/loadtest.yaml", "/loadtest-priority.yaml"})
+            LoadTestConfiguration.fromYamlFile(new File(getClass().getResource(resource).toURI()).getPath()).validate();
+        new LoadTestConfiguration().validate();
+    }
+
+    @Test
+    public void copyIsIndependent() {
+
+        LoadTestConfiguration configuration = new LoadTestConfiguration();
+        configuration.setDeviceCount(42);
+
+        LoadTestConfiguration copy = configuration.copy();
+        copy.setDeviceCount(7);
+
+        assertNotSame(configuration, copy);
+        assertEquals(42, configuration.getDeviceCount());
+        assertEquals(configuration.getQos(), copy.getQos());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void brokersNeedDifferentPorts() {
+        LoadTestConfiguration configuration = new LoadTestConfiguration();
+        configuration.setDigitalBrokerPort(configuration.getPhysicalBrokerPort());
+        configuration.validate();
+    }
+}
@@ -25,6 +25,11 @@ public class ExternalApplicationCommandTester {
 
     private static final String COMMAND_TOPIC = "command/com:iot:dummy:dummyMqttDevice001";
 
+    //Commands rejected by the command control of the Digital Twin are reported on this topic
+    private static final String COMMAND_REJECTION_TOPIC = COMMAND_TOPIC + "/rejected";
+
+    private static final long REJECTION_WAIT_MS = 2000;
+
     public static void main(String[] args) {
 
         logger.info("SimpleProducer started ...");
@@ -45,11 +50,21 @@ public class ExternalApplicationCommandTester {
 
             logger.info("Connected ! Client Id: {}", mqttClientId);
 
+            client.subscribe(COMMAND_REJECTION_TOPIC, (topic, message) ->
+                    logger.warn("Command rejected by the Digital Twin: {}", new String(message.getPayload())));
+
             String demoCommand = "REBOOT_DEVICE";
 
-            publishData(client, COMMAND_TOPIC, demoCommand);
+            //The number of commands can be passed as first argument (E.g. 20 to see the deduplication and the rate limits)
+            int commandCount = args.length > 0 ? Integer.parseInt(args[0]) : 1;
+
+            for(int i = 0; i < commandCount; i++)
+                publishData(client, COMMAND_TOPIC, demoCommand);
+
+            logger.info("Command {} correctly sent {} time(s) to: {}", demoCommand, commandCount, COMMAND_TOPIC);
 
-            logger.info("Command {} correctly sent to: {}", demoCommand, COMMAND_TOPIC);
+            //Wait for the rejection reports
+            Thread.sleep(REJECTION_WAIT_MS);
 
             //Disconnect from the broker and close the connection
             client.disconnect();
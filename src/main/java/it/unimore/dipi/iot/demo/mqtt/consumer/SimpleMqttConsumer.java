@@ -1,5 +1,6 @@
 package it.unimore.dipi.iot.demo.mqtt.consumer;
 
+import it.unimore.dipi.iot.demo.mqtt.utils.LogSampler;
 import org.eclipse.paho.client.mqttv3.IMqttClient;
 import org.eclipse.paho.client.mqttv3.MqttClient;
 import org.eclipse.paho.client.mqttv3.MqttClientPersistence;
@@ -8,6 +9,7 @@ import org.eclipse.paho.client.mqttv3.persist.MemoryPersistence;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.nio.charset.StandardCharsets;
 import java.util.UUID;
 
 /**
@@ -34,6 +36,9 @@ public class SimpleMqttConsumer {
 
     private static String TARGET_TOPIC = "#";
 
+    //At most 10 received messages logged for each second
+    private static final LogSampler receiveLogSampler = LogSampler.perSecond(10);
+
     public static void main(String [ ] args) {
 
     	logger.info("MQTT Consumer Tester Started ...");
@@ -73,8 +78,10 @@ public class SimpleMqttConsumer {
                 //The topic variable contain the specific topic associated to the received message. Using MQTT wildcards
                 //messaged from multiple and different topic can be received with the same subscription
                 //The msg variable is a MqttMessage object containing all the information about the received message
-            	byte[] payload = msg.getPayload();
-                logger.info("Message Received ({}) Message Received: {}", topic, new String(payload));
+                //Payloads are decoded only for the messages that are actually logged
+                if(logger.isInfoEnabled() && receiveLogSampler.sample())
+                    logger.info("Message Received ({}) Message Received: {} Suppressed Logs: {}",
+                            topic, new String(msg.getPayload(), StandardCharsets.UTF_8), receiveLogSampler.drainSuppressedCount());
             });
 
         }catch (Exception e){
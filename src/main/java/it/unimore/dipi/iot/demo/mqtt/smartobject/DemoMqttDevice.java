@@ -1,10 +1,15 @@
 package it.unimore.dipi.iot.demo.mqtt.smartobject;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import it.unimore.dipi.iot.demo.mqtt.utils.LogSampler;
 import org.eclipse.paho.client.mqttv3.*;
 import org.eclipse.paho.client.mqttv3.persist.MemoryPersistence;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.nio.charset.StandardCharsets;
 import java.util.UUID;
 
 
@@ -31,6 +36,18 @@ public class DemoMqttDevice {
 
     private static final String COMMAND_TOPIC = "cmd/com:iot:dummy:dummyMqttDevice001";
 
+    //Command responses carry the correlation id of the command E.g.: commands/{{device_id}}/response
+    private static final String COMMAND_RESPONSE_TOPIC = "commands/com:iot:dummy:dummyMqttDevice001/response";
+
+    private static final ObjectMapper mapper = new ObjectMapper();
+
+    //Per-message log statements are rate limited
+    private static final int MAX_MESSAGE_LOGS_PER_SECOND = 10;
+
+    private static final LogSampler publishLogSampler = LogSampler.perSecond(MAX_MESSAGE_LOGS_PER_SECOND);
+
+    private static final LogSampler commandLogSampler = LogSampler.perSecond(MAX_MESSAGE_LOGS_PER_SECOND);
+
     public static void main(String[] args) {
 
         logger.info("SimpleProducer started ...");
@@ -102,8 +119,11 @@ public class DemoMqttDevice {
                 client.subscribe(COMMAND_TOPIC, new IMqttMessageListener() {
                     @Override
                     public void messageArrived(String topic, MqttMessage msg) throws Exception {
-                        byte[] payload = msg.getPayload();
-                        logger.info("Message Command Received ({}) Message Received: {}", topic, new String(payload));
+                        if(logger.isInfoEnabled() && commandLogSampler.sample())
+                            logger.info("Message Command Received ({}) Message Received: {} Suppressed Logs: {}",
+                                    topic, new String(msg.getPayload(), StandardCharsets.UTF_8), commandLogSampler.drainSuppressedCount());
+
+                        sendCommandResponse(client, msg.getPayload());
                     }
                 });
 
@@ -112,6 +132,35 @@ public class DemoMqttDevice {
         }
     }
 
+    /**
+     * Acknowledge the received command on the response topic, returning its correlation id (if any)
+     * so the Digital Twin can match the response and measure the round trip latency
+     */
+    private static void sendCommandResponse(IMqttClient client, byte[] commandPayload){
+
+        try{
+
+            ObjectNode response = mapper.createObjectNode();
+
+            try{
+                JsonNode correlationId = mapper.readTree(commandPayload).get("correlationId");
+                if(correlationId != null && correlationId.isTextual())
+                    response.put("correlationId", correlationId.asText());
+            }catch (Exception e){
+                logger.debug("Command is not a JSON document: {}", e.getLocalizedMessage());
+            }
+
+            response.put("status", "OK");
+            response.put("receivedTimestamp", System.currentTimeMillis());
+
+            //QoS 0: publishing from the callback thread does not wait for an acknowledgement
+            publishData(client, COMMAND_RESPONSE_TOPIC, mapper.writeValueAsString(response));
+
+        }catch (Exception e){
+            logger.error("Error sending the command response: {}", e.getLocalizedMessage());
+        }
+    }
+
     /**
      * Send a target String Payload to the specified MQTT topic
      *
@@ -127,12 +176,13 @@ public class DemoMqttDevice {
         if (mqttClient.isConnected() && msgString != null && topic != null) {
 
             //Create an MQTT Message defining the required QoS Level and if the message is retained or not
-            MqttMessage msg = new MqttMessage(msgString.getBytes());
+            MqttMessage msg = new MqttMessage(msgString.getBytes(StandardCharsets.UTF_8));
             msg.setQos(0);
             msg.setRetained(false);
             mqttClient.publish(topic,msg);
 
-            logger.info("Data Correctly Published to Topic: {} Data: {}", topic, msgString);
+            if(logger.isInfoEnabled() && publishLogSampler.sample())
+                logger.info("Data Correctly Published to Topic: {} Data: {} Suppressed Logs: {}", topic, msgString, publishLogSampler.drainSuppressedCount());
         }
         else{
             logger.error("Error: Topic or Msg = Null or MQTT Client is not Connected !");
@@ -1,10 +1,12 @@
 package it.unimore.dipi.iot.demo.mqtt.smartobject;
 
-import java.util.Random;
+import java.util.SplittableRandom;
 
 /**
  *  Emulated Temperature Sensor generating random values within
- *  a target range
+ *  a target range. Each sensor has its own (not synchronized) random generator,
+ *  so a large number of sensors can be used by different threads without contention
+ *  and a seed can be provided to obtain reproducible sequences.
  *
  * @author : Marco Picone, Ph.D. (marco.picone@unimore.it)
  * @created: 21/05/2021
@@ -12,14 +14,19 @@ import java.util.Random;
  */
 public class TemperatureSensor {
 
-    private Random rnd;
+    private SplittableRandom rnd;
     
     private double temperatureValue;
     
     public TemperatureSensor() {
-        this.rnd = new Random(System.currentTimeMillis());
+        this.rnd = new SplittableRandom();
         this.temperatureValue = 0.0; 
     }
+
+    public TemperatureSensor(long seed) {
+        this.rnd = new SplittableRandom(seed);
+        this.temperatureValue = 0.0;
+    }
  
     private void generateEngineTemperature() {
     	temperatureValue =  80 + rnd.nextDouble() * 20.0;     
@@ -0,0 +1,91 @@
+package it.unimore.dipi.iot.demo.mqtt.smartobject.loadgen;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.eclipse.paho.client.mqttv3.IMqttMessageListener;
+import org.eclipse.paho.client.mqttv3.MqttMessage;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Receives the commands sent to the simulated devices (E.g. cmd/{{device_id}}) through a single subscription
+ * and answers on the response topic of the target device with an echo of the command and the reception/response timestamps:
+ *
+ * {"deviceId":"...","command":"<received payload>","receivedTimestamp":1634567890123,"responseTimestamp":1634567890124}
+ *
+ * so the sender can measure the round trip latency of the command.
+ *
+ * @created: 18/10/2026
+ * @project: WLDT - MQTT Example
+ */
+public class CommandEchoResponder implements IMqttMessageListener {
+
+    private static final Logger logger = LoggerFactory.getLogger(CommandEchoResponder.class);
+
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    private final Map<String, SimulatedDevice> devices;
+
+    private final String responseTopicFormat;
+
+    private final int qos;
+
+    private final LongAdder receivedCount = new LongAdder();
+
+    private final LongAdder unknownDeviceCount = new LongAdder();
+
+    private final LongAdder failedCount = new LongAdder();
+
+    public CommandEchoResponder(Map<String, SimulatedDevice> devices, String responseTopicFormat, int qos) {
+        this.devices = devices;
+        this.responseTopicFormat = responseTopicFormat;
+        this.qos = qos;
+    }
+
+    @Override
+    public void messageArrived(String topic, MqttMessage msg) {
+
+        long receivedTimestamp = System.currentTimeMillis();
+        receivedCount.increment();
+
+        //The device id is the last level of the command topic
+        SimulatedDevice device = devices.get(topic.substring(topic.lastIndexOf('/') + 1));
+
+        if(device == null){
+            unknownDeviceCount.increment();
+            return;
+        }
+
+        try{
+
+            ObjectNode echo = mapper.createObjectNode();
+            echo.put("deviceId", device.getDeviceId());
+            echo.put("command", new String(msg.getPayload(), StandardCharsets.UTF_8));
+            echo.put("receivedTimestamp", receivedTimestamp);
+            echo.put("responseTimestamp", System.currentTimeMillis());
+
+            device.getMqttClient().publish(String.format(responseTopicFormat, device.getDeviceId()), mapper.writeValueAsBytes(echo), qos, false);
+
+        }catch (Exception e){
+            failedCount.increment();
+            if(logger.isDebugEnabled())
+                logger.debug("Error sending command echo for device {}: {}", device.getDeviceId(), e.getLocalizedMessage());
+        }
+    }
+
+    public long getReceivedCount() {
+        return receivedCount.sum();
+    }
+
+    public long getUnknownDeviceCount() {
+        return unknownDeviceCount.sum();
+    }
+
+    public long getFailedCount() {
+        return failedCount.sum();
+    }
+}
@@ -0,0 +1,221 @@
+package it.unimore.dipi.iot.demo.mqtt.smartobject.loadgen;
+
+import it.unimore.dipi.iot.demo.mqtt.smartobject.TemperatureSensor;
+import it.unimore.dipi.iot.demo.mqtt.utils.SharedScheduler;
+import it.unimore.dipi.iot.demo.mqtt.utils.TimerWheel;
+import org.eclipse.paho.client.mqttv3.IMqttAsyncClient;
+import org.eclipse.paho.client.mqttv3.MqttAsyncClient;
+import org.eclipse.paho.client.mqttv3.MqttConnectOptions;
+import org.eclipse.paho.client.mqttv3.MqttException;
+import org.eclipse.paho.client.mqttv3.persist.MemoryPersistence;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.UUID;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Multi-device load generator extending the DemoMqttDevice behaviour to thousands of devices.
+ *
+ * Simulated devices do not have a thread and a connection of their own: all the devices are driven by a single
+ * TimerWheel and share a small pool of asynchronous MQTT connections (device i uses the connection i % connectionCount).
+ * Each device publishes TemperatureSensor samples according to the configured RateProfile and PayloadFormat, while
+ * the optional CommandEchoResponder answers to the received commands with an echo including the timestamps.
+ *
+ * Usage: LoadGenerator [configuration.yaml]
+ *
+ * @created: 18/10/2026
+ * @project: WLDT - MQTT Example
+ */
+public class LoadGenerator {
+
+    private static final Logger logger = LoggerFactory.getLogger(LoadGenerator.class);
+
+    private static final String TIMER_WHEEL_NAME = "loadgen-timer-wheel";
+
+    private final LoadGeneratorConfiguration configuration;
+
+    private final RateProfile rateProfile;
+
+    private final TimerWheel timerWheel;
+
+    //Used only by the TimerWheel thread
+    private final StringBuilder payloadBuilder = new StringBuilder(128);
+
+    private final List<IMqttAsyncClient> mqttClients = new ArrayList<>();
+
+    private final Map<String, SimulatedDevice> devices = new HashMap<>();
+
+    private final LongAdder publishedCount = new LongAdder();
+
+    private final LongAdder failedCount = new LongAdder();
+
+    private CommandEchoResponder commandEchoResponder;
+
+    private ScheduledFuture<?> statisticsTask;
+
+    private long lastPublishedCount = 0;
+
+    private volatile long startTimeMs;
+
+    public LoadGenerator(LoadGeneratorConfiguration configuration) {
+
+        configuration.validate();
+
+        this.configuration = configuration;
+        this.rateProfile = RateProfile.fromConfiguration(configuration);
+        this.timerWheel = new TimerWheel(TIMER_WHEEL_NAME, configuration.getTickMs(), TimerWheel.DEFAULT_WHEEL_SIZE);
+    }
+
+    public static void main(String[] args) {
+
+        try{
+
+            LoadGeneratorConfiguration configuration = args.length > 0 ? LoadGeneratorConfiguration.fromYamlFile(args[0]) : new LoadGeneratorConfiguration();
+
+            LoadGenerator loadGenerator = new LoadGenerator(configuration);
+            Runtime.getRuntime().addShutdownHook(new Thread(loadGenerator::stop));
+
+            loadGenerator.start();
+
+            if(configuration.getDurationSeconds() > 0){
+                Thread.sleep(configuration.getDurationSeconds() * 1000L);
+                loadGenerator.stop();
+                System.exit(0);
+            }
+
+        }catch (Exception e){
+            e.printStackTrace();
+            System.exit(1);
+        }
+    }
+
+    public synchronized void start() throws MqttException {
+
+        logger.info("Starting Load Generator ... Configuration: {} Rate Profile: {}", configuration, rateProfile);
+
+        String brokerUrl = String.format("tcp://%s:%d", configuration.getBrokerAddress(), configuration.getBrokerPort());
+
+        MqttConnectOptions options = new MqttConnectOptions();
+        options.setAutomaticReconnect(true);
+        options.setCleanSession(true);
+        options.setConnectionTimeout(10);
+        options.setMaxInflight(configuration.getMaxInFlight());
+
+        for(int i = 0; i < configuration.getConnectionCount(); i++) {
+            IMqttAsyncClient mqttClient = new MqttAsyncClient(brokerUrl, UUID.randomUUID().toString(), new MemoryPersistence());
+            mqttClient.connect(options).waitForCompletion();
+            mqttClients.add(mqttClient);
+        }
+
+        logger.info("Connected to {} with {} connections", brokerUrl, mqttClients.size());
+
+        for(int i = 0; i < configuration.getDeviceCount(); i++) {
+            String deviceId = String.format(configuration.getDeviceIdFormat(), i);
+            devices.put(deviceId, new SimulatedDevice(this,
+                    deviceId,
+                    String.format(configuration.getTelemetryTopicFormat(), deviceId),
+                    mqttClients.get(i % mqttClients.size()),
+                    new TemperatureSensor(configuration.getSeed() + i)));
+        }
+
+        if(configuration.isCommandEchoEnabled()){
+            this.commandEchoResponder = new CommandEchoResponder(devices, configuration.getCommandResponseTopicFormat(), configuration.getQos());
+            mqttClients.get(0).subscribe(configuration.getCommandTopicFilter(), configuration.getQos(), commandEchoResponder).waitForCompletion();
+            logger.info("Command Echo Responder subscribed to: {}", configuration.getCommandTopicFilter());
+        }
+
+        this.startTimeMs = System.currentTimeMillis();
+        this.timerWheel.start();
+
+        //The first sample of each device is randomly delayed within the first interval to avoid synchronized bursts
+        SplittableRandom random = new SplittableRandom(configuration.getSeed());
+        long firstIntervalMs = rateProfile.getIntervalMs(0);
+
+        for(SimulatedDevice device : devices.values())
+            timerWheel.schedule(device, random.nextLong(firstIntervalMs) + 1);
+
+        this.statisticsTask = SharedScheduler.getInstance().schedule(this::logStatistics, configuration.getStatsPeriodSeconds() * 1000L);
+
+        logger.info("Load Generator started ! Devices: {}", devices.size());
+    }
+
+    void publishTelemetry(SimulatedDevice device, long sequenceNumber, double value) {
+
+        long timestamp = System.currentTimeMillis();
+        byte[] payload = configuration.getPayloadFormat().encode(payloadBuilder, device.getDeviceId(), timestamp, sequenceNumber, value);
+
+        try{
+            device.getMqttClient().publish(device.getTelemetryTopic(), payload, configuration.getQos(), false);
+            publishedCount.increment();
+        }catch (MqttException e){
+            //E.g. max in flight reached or client disconnected: the sample is discarded
+            failedCount.increment();
+        }
+    }
+
+    void scheduleNext(SimulatedDevice device) {
+        timerWheel.schedule(device, rateProfile.getIntervalMs(System.currentTimeMillis() - startTimeMs));
+    }
+
+    private void logStatistics() {
+
+        long published = publishedCount.sum();
+        double rate = (published - lastPublishedCount) / (double) configuration.getStatsPeriodSeconds();
+        lastPublishedCount = published;
+
+        logger.info("Published: {} ({} msg/s) Failed: {} Commands Received: {} Current Device Rate: {} msg/s",
+                published,
+                String.format("%.1f", rate),
+                failedCount.sum(),
+                commandEchoResponder != null ? commandEchoResponder.getReceivedCount() : 0,
+                rateProfile.getRate(System.currentTimeMillis() - startTimeMs));
+    }
+
+    public synchronized void stop() {
+
+        if(!timerWheel.isRunning())
+            return;
+
+        for(SimulatedDevice device : devices.values())
+            device.deactivate();
+
+        timerWheel.stop();
+
+        if(statisticsTask != null)
+            statisticsTask.cancel(false);
+
+        logStatistics();
+
+        for(IMqttAsyncClient mqttClient : mqttClients) {
+            try{
+                mqttClient.disconnect().waitForCompletion(1000);
+                mqttClient.close();
+            }catch (MqttException e){
+                logger.warn("Error disconnecting Load Generator client: {}", e.getLocalizedMessage());
+            }
+        }
+
+        mqttClients.clear();
+
+        logger.info("Load Generator stopped !");
+    }
+
+    public long getPublishedCount() {
+        return publishedCount.sum();
+    }
+
+    public long getFailedCount() {
+        return failedCount.sum();
+    }
+
+    public int getDeviceCount() {
+        return devices.size();
+    }
+}
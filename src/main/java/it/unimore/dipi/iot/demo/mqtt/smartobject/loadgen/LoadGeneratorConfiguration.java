@@ -0,0 +1,323 @@
+package it.unimore.dipi.iot.demo.mqtt.smartobject.loadgen;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.yaml.YAMLFactory;
+import it.unimore.dipi.iot.demo.mqtt.utils.TimerWheel;
+
+import java.io.File;
+import java.io.IOException;
+
+/**
+ * Configuration of the LoadGenerator. It can be loaded from a YAML file
+ * where missing fields keep the default values.
+ *
+ * @created: 18/10/2026
+ * @project: WLDT - MQTT Example
+ */
+public class LoadGeneratorConfiguration {
+
+    private String brokerAddress = "127.0.0.1";
+
+    private int brokerPort = 1883;
+
+    private int deviceCount = 10000;
+
+    private int connectionCount = 8;
+
+    private String deviceIdFormat = "com:iot:dummy:loadGenDevice%06d";
+
+    private String telemetryTopicFormat = "telemetry/%s/resource/temperature";
+
+    private String commandTopicFilter = "cmd/#";
+
+    private String commandResponseTopicFormat = "cmd_response/%s";
+
+    private boolean commandEchoEnabled = true;
+
+    private int qos = 0;
+
+    private int maxInFlight = 10000;
+
+    private PayloadFormat payloadFormat = PayloadFormat.NUMERIC;
+
+    private RateProfileType rateProfileType = RateProfileType.CONSTANT;
+
+    private double ratePerDevice = 1.0;
+
+    private double burstMultiplier = 10.0;
+
+    private long burstPeriodMs = 60000;
+
+    private long burstDurationMs = 5000;
+
+    private double rampStartRate = 0.1;
+
+    private long rampDurationMs = 60000;
+
+    //0 = run until the process is stopped
+    private long durationSeconds = 0;
+
+    //Seed of the simulated sensors in order to obtain reproducible payloads
+    private long seed = 42;
+
+    private long tickMs = TimerWheel.DEFAULT_TICK_MS;
+
+    private long statsPeriodSeconds = 5;
+
+    public LoadGeneratorConfiguration() {
+    }
+
+    public static LoadGeneratorConfiguration fromYamlFile(String filePath) throws IOException {
+        ObjectMapper mapper = new ObjectMapper(new YAMLFactory());
+        mapper.configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+        return mapper.readValue(new File(filePath), LoadGeneratorConfiguration.class);
+    }
+
+    /**
+     * @throws IllegalArgumentException if the configuration is not valid
+     */
+    public void validate() {
+
+        if(brokerAddress == null || brokerPort <= 0)
+            throw new IllegalArgumentException("Invalid Broker Address or Port !");
+
+        if(deviceCount <= 0 || connectionCount <= 0 || maxInFlight <= 0)
+            throw new IllegalArgumentException("Device Count, Connection Count and Max In Flight must be greater than 0 !");
+
+        if(deviceIdFormat == null || telemetryTopicFormat == null || (commandEchoEnabled && (commandTopicFilter == null || commandResponseTopicFormat == null)))
+            throw new IllegalArgumentException("Device Id and Topic formats can not be null !");
+
+        if(qos < 0 || qos > 2)
+            throw new IllegalArgumentException(String.format("Invalid QoS: %d", qos));
+
+        if(payloadFormat == null || rateProfileType == null)
+            throw new IllegalArgumentException("Payload Format and Rate Profile Type can not be null !");
+
+        if(ratePerDevice <= 0.0 || rampStartRate <= 0.0 || burstMultiplier <= 0.0)
+            throw new IllegalArgumentException("Rates and Burst Multiplier must be greater than 0 !");
+
+        if(rateProfileType == RateProfileType.BURST && (burstPeriodMs <= 0 || burstDurationMs <= 0 || burstDurationMs > burstPeriodMs))
+            throw new IllegalArgumentException("Invalid Burst Period or Duration !");
+
+        if(rateProfileType == RateProfileType.RAMP && rampDurationMs <= 0)
+            throw new IllegalArgumentException("Invalid Ramp Duration !");
+
+        if(durationSeconds < 0 || tickMs <= 0 || statsPeriodSeconds <= 0)
+            throw new IllegalArgumentException("Invalid Duration, Tick or Stats Period !");
+    }
+
+    public String getBrokerAddress() {
+        return brokerAddress;
+    }
+
+    public void setBrokerAddress(String brokerAddress) {
+        this.brokerAddress = brokerAddress;
+    }
+
+    public int getBrokerPort() {
+        return brokerPort;
+    }
+
+    public void setBrokerPort(int brokerPort) {
+        this.brokerPort = brokerPort;
+    }
+
+    public int getDeviceCount() {
+        return deviceCount;
+    }
+
+    public void setDeviceCount(int deviceCount) {
+        this.deviceCount = deviceCount;
+    }
+
+    public int getConnectionCount() {
+        return connectionCount;
+    }
+
+    public void setConnectionCount(int connectionCount) {
+        this.connectionCount = connectionCount;
+    }
+
+    public String getDeviceIdFormat() {
+        return deviceIdFormat;
+    }
+
+    public void setDeviceIdFormat(String deviceIdFormat) {
+        this.deviceIdFormat = deviceIdFormat;
+    }
+
+    public String getTelemetryTopicFormat() {
+        return telemetryTopicFormat;
+    }
+
+    public void setTelemetryTopicFormat(String telemetryTopicFormat) {
+        this.telemetryTopicFormat = telemetryTopicFormat;
+    }
+
+    public String getCommandTopicFilter() {
+        return commandTopicFilter;
+    }
+
+    public void setCommandTopicFilter(String commandTopicFilter) {
+        this.commandTopicFilter = commandTopicFilter;
+    }
+
+    public String getCommandResponseTopicFormat() {
+        return commandResponseTopicFormat;
+    }
+
+    public void setCommandResponseTopicFormat(String commandResponseTopicFormat) {
+        this.commandResponseTopicFormat = commandResponseTopicFormat;
+    }
+
+    public boolean isCommandEchoEnabled() {
+        return commandEchoEnabled;
+    }
+
+    public void setCommandEchoEnabled(boolean commandEchoEnabled) {
+        this.commandEchoEnabled = commandEchoEnabled;
+    }
+
+    public int getQos() {
+        return qos;
+    }
+
+    public void setQos(int qos) {
+        this.qos = qos;
+    }
+
+    public int getMaxInFlight() {
+        return maxInFlight;
+    }
+
+    public void setMaxInFlight(int maxInFlight) {
+        this.maxInFlight = maxInFlight;
+    }
+
+    public PayloadFormat getPayloadFormat() {
+        return payloadFormat;
+    }
+
+    public void setPayloadFormat(PayloadFormat payloadFormat) {
+        this.payloadFormat = payloadFormat;
+    }
+
+    public RateProfileType getRateProfileType() {
+        return rateProfileType;
+    }
+
+    public void setRateProfileType(RateProfileType rateProfileType) {
+        this.rateProfileType = rateProfileType;
+    }
+
+    public double getRatePerDevice() {
+        return ratePerDevice;
+    }
+
+    public void setRatePerDevice(double ratePerDevice) {
+        this.ratePerDevice = ratePerDevice;
+    }
+
+    public double getBurstMultiplier() {
+        return burstMultiplier;
+    }
+
+    public void setBurstMultiplier(double burstMultiplier) {
+        this.burstMultiplier = burstMultiplier;
+    }
+
+    public long getBurstPeriodMs() {
+        return burstPeriodMs;
+    }
+
+    public void setBurstPeriodMs(long burstPeriodMs) {
+        this.burstPeriodMs = burstPeriodMs;
+    }
+
+    public long getBurstDurationMs() {
+        return burstDurationMs;
+    }
+
+    public void setBurstDurationMs(long burstDurationMs) {
+        this.burstDurationMs = burstDurationMs;
+    }
+
+    public double getRampStartRate() {
+        return rampStartRate;
+    }
+
+    public void setRampStartRate(double rampStartRate) {
+        this.rampStartRate = rampStartRate;
+    }
+
+    public long getRampDurationMs() {
+        return rampDurationMs;
+    }
+
+    public void setRampDurationMs(long rampDurationMs) {
+        this.rampDurationMs = rampDurationMs;
+    }
+
+    public long getDurationSeconds() {
+        return durationSeconds;
+    }
+
+    public void setDurationSeconds(long durationSeconds) {
+        this.durationSeconds = durationSeconds;
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    public void setSeed(long seed) {
+        this.seed = seed;
+    }
+
+    public long getTickMs() {
+        return tickMs;
+    }
+
+    public void setTickMs(long tickMs) {
+        this.tickMs = tickMs;
+    }
+
+    public long getStatsPeriodSeconds() {
+        return statsPeriodSeconds;
+    }
+
+    public void setStatsPeriodSeconds(long statsPeriodSeconds) {
+        this.statsPeriodSeconds = statsPeriodSeconds;
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder("LoadGeneratorConfiguration{");
+        sb.append("brokerAddress='").append(brokerAddress).append('\'');
+        sb.append(", brokerPort=").append(brokerPort);
+        sb.append(", deviceCount=").append(deviceCount);
+        sb.append(", connectionCount=").append(connectionCount);
+        sb.append(", deviceIdFormat='").append(deviceIdFormat).append('\'');
+        sb.append(", telemetryTopicFormat='").append(telemetryTopicFormat).append('\'');
+        sb.append(", commandTopicFilter='").append(commandTopicFilter).append('\'');
+        sb.append(", commandResponseTopicFormat='").append(commandResponseTopicFormat).append('\'');
+        sb.append(", commandEchoEnabled=").append(commandEchoEnabled);
+        sb.append(", qos=").append(qos);
+        sb.append(", maxInFlight=").append(maxInFlight);
+        sb.append(", payloadFormat=").append(payloadFormat);
+        sb.append(", rateProfileType=").append(rateProfileType);
+        sb.append(", ratePerDevice=").append(ratePerDevice);
+        sb.append(", burstMultiplier=").append(burstMultiplier);
+        sb.append(", burstPeriodMs=").append(burstPeriodMs);
+        sb.append(", burstDurationMs=").append(burstDurationMs);
+        sb.append(", rampStartRate=").append(rampStartRate);
+        sb.append(", rampDurationMs=").append(rampDurationMs);
+        sb.append(", durationSeconds=").append(durationSeconds);
+        sb.append(", seed=").append(seed);
+        sb.append(", tickMs=").append(tickMs);
+        sb.append(", statsPeriodSeconds=").append(statsPeriodSeconds);
+        sb.append('}');
+        return sb.toString();
+    }
+}
@@ -0,0 +1,62 @@
+package it.unimore.dipi.iot.demo.mqtt.smartobject.loadgen;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Telemetry payload formats generated by the simulated devices:
+ *
+ * - NUMERIC: plain numeric value (E.g. 23.41) as published by DemoMqttDevice and expected by the average steps
+ * - JSON: {"deviceId":"...","timestamp":1634567890123,"sequence":1,"value":23.41}
+ * - SENML_JSON: [{"bn":"...:","n":"temperature","u":"Cel","t":1634567890.123,"v":23.41}]
+ *
+ * @created: 18/10/2026
+ * @project: WLDT - MQTT Example
+ */
+public enum PayloadFormat {
+
+    NUMERIC {
+        @Override
+        protected void write(StringBuilder sb, String deviceId, long timestamp, long sequence, double value) {
+            sb.append(value);
+        }
+    },
+
+    JSON {
+        @Override
+        protected void write(StringBuilder sb, String deviceId, long timestamp, long sequence, double value) {
+            sb.append("{\"deviceId\":\"").append(deviceId)
+                    .append("\",\"timestamp\":").append(timestamp)
+                    .append(",\"sequence\":").append(sequence)
+                    .append(",\"value\":").append(value)
+                    .append('}');
+        }
+    },
+
+    SENML_JSON {
+        @Override
+        protected void write(StringBuilder sb, String deviceId, long timestamp, long sequence, double value) {
+            sb.append("[{\"bn\":\"").append(deviceId)
+                    .append(":\",\"n\":\"temperature\",\"u\":\"Cel\",\"t\":").append(timestamp / 1000).append('.');
+            long millis = timestamp % 1000;
+            if(millis < 100)
+                sb.append('0');
+            if(millis < 10)
+                sb.append('0');
+            sb.append(millis)
+                    .append(",\"v\":").append(value)
+                    .append("}]");
+        }
+    };
+
+    /**
+     * Encode a sample reusing the provided StringBuilder (owned by the calling thread).
+     * Device ids are expected to be plain ASCII identifiers without characters that require JSON escaping.
+     */
+    public byte[] encode(StringBuilder sb, String deviceId, long timestamp, long sequence, double value) {
+        sb.setLength(0);
+        write(sb, deviceId, timestamp, sequence, value);
+        return sb.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    protected abstract void write(StringBuilder sb, String deviceId, long timestamp, long sequence, double value);
+}
@@ -0,0 +1,108 @@
+package it.unimore.dipi.iot.demo.mqtt.smartobject.loadgen;
+
+/**
+ * Publishing rate of each simulated device (messages per second) as a function of the time elapsed since the start of the test
+ *
+ * @created: 18/10/2026
+ * @project: WLDT - MQTT Example
+ */
+public class RateProfile {
+
+    private final RateProfileType type;
+
+    private final double rate;
+
+    private final double burstMultiplier;
+
+    private final long burstPeriodMs;
+
+    private final long burstDurationMs;
+
+    private final double rampStartRate;
+
+    private final long rampDurationMs;
+
+    private RateProfile(RateProfileType type, double rate, double burstMultiplier, long burstPeriodMs, long burstDurationMs, double rampStartRate, long rampDurationMs) {
+        this.type = type;
+        this.rate = rate;
+        this.burstMultiplier = burstMultiplier;
+        this.burstPeriodMs = burstPeriodMs;
+        this.burstDurationMs = burstDurationMs;
+        this.rampStartRate = rampStartRate;
+        this.rampDurationMs = rampDurationMs;
+    }
+
+    public static RateProfile constant(double rate) {
+        return new RateProfile(RateProfileType.CONSTANT, rate, 1.0, 0, 0, rate, 0);
+    }
+
+    /**
+     * @param rate base rate
+     * @param burstMultiplier rate multiplier applied during the bursts
+     * @param burstPeriodMs time between the start of two consecutive bursts
+     * @param burstDurationMs duration of each burst
+     */
+    public static RateProfile burst(double rate, double burstMultiplier, long burstPeriodMs, long burstDurationMs) {
+        return new RateProfile(RateProfileType.BURST, rate, burstMultiplier, burstPeriodMs, burstDurationMs, rate, 0);
+    }
+
+    /**
+     * @param rampStartRate rate at the beginning of the test
+     * @param rate target rate reached after rampDurationMs
+     * @param rampDurationMs duration of the ramp
+     */
+    public static RateProfile ramp(double rampStartRate, double rate, long rampDurationMs) {
+        return new RateProfile(RateProfileType.RAMP, rate, 1.0, 0, 0, rampStartRate, rampDurationMs);
+    }
+
+    public static RateProfile fromConfiguration(LoadGeneratorConfiguration configuration) {
+        switch (configuration.getRateProfileType()) {
+            case BURST:
+                return burst(configuration.getRatePerDevice(), configuration.getBurstMultiplier(), configuration.getBurstPeriodMs(), configuration.getBurstDurationMs());
+            case RAMP:
+                return ramp(configuration.getRampStartRate(), configuration.getRatePerDevice(), configuration.getRampDurationMs());
+            default:
+                return constant(configuration.getRatePerDevice());
+        }
+    }
+
+    /**
+     * @param elapsedMs time elapsed since the start of the test
+     * @return the rate (messages per second) of each device
+     */
+    public double getRate(long elapsedMs) {
+        switch (type) {
+            case BURST:
+                return (elapsedMs % burstPeriodMs) < burstDurationMs ? rate * burstMultiplier : rate;
+            case RAMP:
+                return elapsedMs >= rampDurationMs ? rate : rampStartRate + (rate - rampStartRate) * elapsedMs / rampDurationMs;
+            default:
+                return rate;
+        }
+    }
+
+    /**
+     * @return the delay before the next message of a device
+     */
+    public long getIntervalMs(long elapsedMs) {
+        return Math.max(1, Math.round(1000.0 / getRate(elapsedMs)));
+    }
+
+    public RateProfileType getType() {
+        return type;
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder("RateProfile{");
+        sb.append("type=").append(type);
+        sb.append(", rate=").append(rate);
+        sb.append(", burstMultiplier=").append(burstMultiplier);
+        sb.append(", burstPeriodMs=").append(burstPeriodMs);
+        sb.append(", burstDurationMs=").append(burstDurationMs);
+        sb.append(", rampStartRate=").append(rampStartRate);
+        sb.append(", rampDurationMs=").append(rampDurationMs);
+        sb.append('}');
+        return sb.toString();
+    }
+}
@@ -0,0 +1,19 @@
+package it.unimore.dipi.iot.demo.mqtt.smartobject.loadgen;
+
+/**
+ * Supported publishing rate profiles of the simulated devices
+ *
+ * @created: 18/10/2026
+ * @project: WLDT - MQTT Example
+ */
+public enum RateProfileType {
+
+    //Fixed rate for the whole test
+    CONSTANT,
+
+    //Base rate with periodic bursts at an higher rate
+    BURST,
+
+    //Rate linearly increasing from the start rate to the target one and then constant
+    RAMP
+}
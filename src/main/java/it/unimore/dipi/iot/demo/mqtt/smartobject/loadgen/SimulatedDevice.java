@@ -0,0 +1,67 @@
+package it.unimore.dipi.iot.demo.mqtt.smartobject.loadgen;
+
+import it.unimore.dipi.iot.demo.mqtt.smartobject.TemperatureSensor;
+import it.unimore.dipi.iot.demo.mqtt.utils.TimerWheel;
+import org.eclipse.paho.client.mqttv3.IMqttAsyncClient;
+
+/**
+ * Lightweight simulated device: it has no thread of its own and it is executed on the
+ * LoadGenerator TimerWheel, rescheduling itself after each published sample according to the rate profile.
+ *
+ * @created: 18/10/2026
+ * @project: WLDT - MQTT Example
+ */
+public class SimulatedDevice extends TimerWheel.Task {
+
+    private final LoadGenerator loadGenerator;
+
+    private final String deviceId;
+
+    private final String telemetryTopic;
+
+    private final IMqttAsyncClient mqttClient;
+
+    private final TemperatureSensor temperatureSensor;
+
+    private long sequenceNumber = 0;
+
+    private volatile boolean active = true;
+
+    public SimulatedDevice(LoadGenerator loadGenerator, String deviceId, String telemetryTopic, IMqttAsyncClient mqttClient, TemperatureSensor temperatureSensor) {
+        this.loadGenerator = loadGenerator;
+        this.deviceId = deviceId;
+        this.telemetryTopic = telemetryTopic;
+        this.mqttClient = mqttClient;
+        this.temperatureSensor = temperatureSensor;
+    }
+
+    @Override
+    public void run() {
+
+        if(!active)
+            return;
+
+        loadGenerator.publishTelemetry(this, ++sequenceNumber, temperatureSensor.getTemperatureValue());
+        loadGenerator.scheduleNext(this);
+    }
+
+    public void deactivate() {
+        this.active = false;
+    }
+
+    public String getDeviceId() {
+        return deviceId;
+    }
+
+    public String getTelemetryTopic() {
+        return telemetryTopic;
+    }
+
+    public IMqttAsyncClient getMqttClient() {
+        return mqttClient;
+    }
+
+    public long getSequenceNumber() {
+        return sequenceNumber;
+    }
+}
@@ -0,0 +1,173 @@
+package it.unimore.dipi.iot.demo.mqtt.utils;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Allocation free parser for decimal numbers encoded as ASCII text
+ * directly inside a byte[] (e.g. an MQTT payload like "87.53")
+ *
+ * The common form [sign]digits[.digits][(e|E)[sign]digits] is parsed in place.
+ * Values whose significant digits fit in 53 bits (up to 15 digits, most of the 16 digits ones)
+ * with a decimal exponent within +/-22 are converted with a single rounding, so the result is always
+ * the same of Double.parseDouble. Any other valid Java double literal (NaN, Infinity, hexadecimal,
+ * longer mantissas as the 17 digits produced by Double.toString) falls back to Double.parseDouble
+ *
+ * @created: 18/10/2026
+ * @project: WLDT - MQTT Example
+ */
+public final class AsciiDoubleParser {
+
+    private static final int MAX_FAST_EXPONENT = 22;
+
+    //Digits accumulated before falling back (18 decimal digits always fit in a long)
+    private static final int MAX_MANTISSA_DIGITS = 18;
+
+    //Largest mantissa exactly representable as a double
+    private static final long MAX_EXACT_MANTISSA = 1L << 53;
+
+    private static final double[] POWERS_OF_TEN = {
+            1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10,
+            1e11, 1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+    };
+
+    private AsciiDoubleParser() {
+    }
+
+    /**
+     * Parse the whole array
+     *
+     * @param buffer the ASCII encoded number
+     * @return the parsed value or Double.NaN if the content is not a valid number
+     */
+    public static double parse(byte[] buffer) {
+        return buffer == null ? Double.NaN : parse(buffer, 0, buffer.length);
+    }
+
+    /**
+     * Parse len bytes starting from offset
+     *
+     * @param buffer the ASCII encoded number
+     * @param offset first byte to parse
+     * @param len number of bytes to parse
+     * @return the parsed value or Double.NaN if the content is not a valid number
+     */
+    public static double parse(byte[] buffer, int offset, int len) {
+
+        if(buffer == null || len <= 0)
+            return Double.NaN;
+
+        int start = offset;
+        int end = offset + len;
+
+        //Same whitespace handling of Double.parseDouble()
+        while(start < end && (buffer[start] & 0xFF) <= ' ')
+            start++;
+        while(end > start && (buffer[end - 1] & 0xFF) <= ' ')
+            end--;
+
+        if(start == end)
+            return Double.NaN;
+
+        int i = start;
+        boolean negative = false;
+
+        if(buffer[i] == '-' || buffer[i] == '+'){
+            negative = buffer[i] == '-';
+            i++;
+        }
+
+        long mantissa = 0;
+        int mantissaDigits = 0;
+        int exponent = 0;
+        boolean digitFound = false;
+
+        //Integer part
+        while(i < end && isDigit(buffer[i])){
+            digitFound = true;
+            int digit = buffer[i] - '0';
+            if(mantissaDigits < MAX_MANTISSA_DIGITS){
+                if(mantissa != 0 || digit != 0){
+                    mantissa = mantissa * 10 + digit;
+                    mantissaDigits++;
+                }
+            }
+            else
+                return fallback(buffer, start, end);
+            i++;
+        }
+
+        //Fractional part
+        if(i < end && buffer[i] == '.'){
+            i++;
+            while(i < end && isDigit(buffer[i])){
+                digitFound = true;
+                int digit = buffer[i] - '0';
+                if(mantissaDigits < MAX_MANTISSA_DIGITS){
+                    if(mantissa != 0 || digit != 0){
+                        mantissa = mantissa * 10 + digit;
+                        mantissaDigits++;
+                    }
+                    exponent--;
+                }
+                else
+                    return fallback(buffer, start, end);
+                i++;
+            }
+        }
+
+        if(!digitFound)
+            return fallback(buffer, start, end);
+
+        //Exponent part
+        if(i < end && (buffer[i] == 'e' || buffer[i] == 'E')){
+            i++;
+            boolean negativeExponent = false;
+            if(i < end && (buffer[i] == '-' || buffer[i] == '+')){
+                negativeExponent = buffer[i] == '-';
+                i++;
+            }
+            if(i == end || !isDigit(buffer[i]))
+                return Double.NaN;
+            int explicitExponent = 0;
+            while(i < end && isDigit(buffer[i])){
+                if(explicitExponent > 10000)
+                    return fallback(buffer, start, end);
+                explicitExponent = explicitExponent * 10 + (buffer[i] - '0');
+                i++;
+            }
+            exponent += negativeExponent ? -explicitExponent : explicitExponent;
+        }
+
+        //Java float/double literal suffixes accepted by Double.parseDouble()
+        if(i < end && (buffer[i] == 'd' || buffer[i] == 'D' || buffer[i] == 'f' || buffer[i] == 'F'))
+            i++;
+
+        if(i != end)
+            return fallback(buffer, start, end);
+
+        if(mantissa == 0)
+            return negative ? -0.0 : 0.0;
+
+        if(mantissa > MAX_EXACT_MANTISSA || exponent < -MAX_FAST_EXPONENT || exponent > MAX_FAST_EXPONENT)
+            return fallback(buffer, start, end);
+
+        //Both the mantissa and the power of ten are exact doubles: the division (or product) is correctly rounded
+        double value = (double) mantissa;
+        value = exponent < 0 ? value / POWERS_OF_TEN[-exponent] : value * POWERS_OF_TEN[exponent];
+
+        return negative ? -value : value;
+    }
+
+    private static boolean isDigit(byte b) {
+        return b >= '0' && b <= '9';
+    }
+
+    private static double fallback(byte[] buffer, int start, int end) {
+        try {
+            return Double.parseDouble(new String(buffer, start, end - start, StandardCharsets.US_ASCII));
+        } catch (NumberFormatException e) {
+            return Double.NaN;
+        }
+    }
+
+}
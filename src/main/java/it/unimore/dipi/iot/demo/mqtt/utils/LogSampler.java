@@ -0,0 +1,98 @@
+package it.unimore.dipi.iot.demo.mqtt.utils;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Sampling and rate limiting of the per-message log statements on the forwarding path.
+ * An event is logged if it is selected by the sampling (one event every samplingRate on average)
+ * and the max number of events of the current second has not been reached yet.
+ * The events that are not logged are counted, so the next logged message can report them.
+ *
+ * Usage (the payload is decoded only if the message is actually logged):
+ *
+ * if(logger.isInfoEnabled() && logSampler.sample())
+ *     logger.info("Message Received ({}): {} Suppressed: {}", topic, new String(payload, StandardCharsets.UTF_8), logSampler.drainSuppressedCount());
+ *
+ * @created: 18/10/2026
+ * @project: WLDT - MQTT Example
+ */
+public class LogSampler {
+
+    public static final int UNLIMITED = Integer.MAX_VALUE;
+
+    private final int samplingRate;
+
+    private final int maxPerSecond;
+
+    private final AtomicLong currentSecond = new AtomicLong(-1);
+
+    private final AtomicInteger currentSecondCount = new AtomicInteger(0);
+
+    private final LongAdder suppressedCount = new LongAdder();
+
+    /**
+     * @param samplingRate one event every samplingRate is selected (1 = all the events)
+     * @param maxPerSecond max number of selected events for each second (UNLIMITED to disable the rate limit)
+     */
+    public LogSampler(int samplingRate, int maxPerSecond) {
+
+        if(samplingRate <= 0 || maxPerSecond <= 0)
+            throw new IllegalArgumentException("Sampling Rate and Max Events per Second must be greater than 0 !");
+
+        this.samplingRate = samplingRate;
+        this.maxPerSecond = maxPerSecond;
+    }
+
+    public static LogSampler everyN(int samplingRate) {
+        return new LogSampler(samplingRate, UNLIMITED);
+    }
+
+    public static LogSampler perSecond(int maxPerSecond) {
+        return new LogSampler(1, maxPerSecond);
+    }
+
+    /**
+     * @return true if the current event has to be logged
+     */
+    public boolean sample() {
+
+        if(samplingRate > 1 && ThreadLocalRandom.current().nextInt(samplingRate) != 0){
+            suppressedCount.increment();
+            return false;
+        }
+
+        if(maxPerSecond == UNLIMITED)
+            return true;
+
+        long second = System.currentTimeMillis() / 1000;
+        long windowSecond = currentSecond.get();
+
+        //The first thread observing a new second resets the window
+        if(second != windowSecond && currentSecond.compareAndSet(windowSecond, second))
+            currentSecondCount.set(0);
+
+        if(currentSecondCount.incrementAndGet() <= maxPerSecond)
+            return true;
+
+        suppressedCount.increment();
+        return false;
+    }
+
+    /**
+     * @return the number of events suppressed since the last call
+     */
+    public long drainSuppressedCount() {
+        return suppressedCount.sumThenReset();
+    }
+
+    public int getSamplingRate() {
+        return samplingRate;
+    }
+
+    public int getMaxPerSecond() {
+        return maxPerSecond;
+    }
+}
@@ -0,0 +1,80 @@
+package it.unimore.dipi.iot.demo.mqtt.utils;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Single scheduler thread shared by the periodic housekeeping tasks of the JVM
+ * (e.g. closing expired aggregation windows or evicting idle per-topic state).
+ * Each component registers one periodic tick and not a timer for each topic.
+ *
+ * @created: 18/10/2026
+ * @project: WLDT - MQTT Example
+ */
+public class SharedScheduler {
+
+    private static final Logger logger = LoggerFactory.getLogger(SharedScheduler.class);
+
+    private static final String THREAD_NAME = "wldt-shared-scheduler";
+
+    private static volatile SharedScheduler instance = null;
+
+    private final ScheduledExecutorService scheduledExecutorService;
+
+    private SharedScheduler() {
+        this.scheduledExecutorService = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, THREAD_NAME);
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public static SharedScheduler getInstance() {
+        if(instance == null){
+            synchronized (SharedScheduler.class){
+                if(instance == null)
+                    instance = new SharedScheduler();
+            }
+        }
+        return instance;
+    }
+
+    /**
+     * Register a periodic task on the shared scheduler thread.
+     * Exceptions are logged and do not cancel the next executions.
+     *
+     * @param tickTask the task to execute
+     * @param periodMs execution period in milliseconds
+     * @return the ScheduledFuture that can be used to cancel the task
+     */
+    public ScheduledFuture<?> schedule(Runnable tickTask, long periodMs) {
+        return this.scheduledExecutorService.scheduleAtFixedRate(() -> {
+            try{
+                tickTask.run();
+            }catch (Exception e){
+                logger.error("Error executing shared scheduler task: {}", e.getLocalizedMessage());
+            }
+        }, periodMs, periodMs, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Execute a task once on the shared scheduler thread after the delay (E.g. releasing the resources of a replaced component)
+     *
+     * @return the ScheduledFuture that can be used to cancel the task
+     */
+    public ScheduledFuture<?> scheduleOnce(Runnable task, long delayMs) {
+        return this.scheduledExecutorService.schedule(() -> {
+            try{
+                task.run();
+            }catch (Exception e){
+                logger.error("Error executing shared scheduler task: {}", e.getLocalizedMessage());
+            }
+        }, delayMs, TimeUnit.MILLISECONDS);
+    }
+
+}
@@ -0,0 +1,182 @@
+package it.unimore.dipi.iot.demo.mqtt.utils;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Hashed timer wheel driving a large number of timers (E.g. one for each simulated device) with a single thread.
+ *
+ * Scheduled tasks are kept in intrusive linked lists (one for each bucket of the wheel), so scheduling
+ * a task from the wheel thread (E.g. a periodic task rescheduling itself) does not allocate any object.
+ * Tasks are executed on the wheel thread with a precision of one tick and must not block.
+ *
+ * @created: 18/10/2026
+ * @project: WLDT - MQTT Example
+ */
+public class TimerWheel {
+
+    private static final Logger logger = LoggerFactory.getLogger(TimerWheel.class);
+
+    public static final long DEFAULT_TICK_MS = 1;
+
+    public static final int DEFAULT_WHEEL_SIZE = 4096;
+
+    /**
+     * Task that can be scheduled on a TimerWheel. The same task can be scheduled again once executed
+     * (periodic tasks) but it can not be scheduled twice at the same time.
+     */
+    public static abstract class Task {
+
+        private long deadlineTick;
+
+        private Task next;
+
+        public abstract void run();
+    }
+
+    private final long tickNanos;
+
+    private final int mask;
+
+    private final Task[] buckets;
+
+    private final Queue<Task> pendingTasks = new ConcurrentLinkedQueue<>();
+
+    private final Thread workerThread;
+
+    private final long startNanos;
+
+    private volatile boolean running = false;
+
+    private long currentTick = 0;
+
+    public TimerWheel(String name) {
+        this(name, DEFAULT_TICK_MS, DEFAULT_WHEEL_SIZE);
+    }
+
+    /**
+     * @param name name of the wheel thread
+     * @param tickMs wheel resolution in milliseconds
+     * @param wheelSize number of buckets, rounded up to the next power of two
+     */
+    public TimerWheel(String name, long tickMs, int wheelSize) {
+
+        if(tickMs <= 0 || wheelSize <= 0)
+            throw new IllegalArgumentException("Tick and Wheel Size must be greater than 0 !");
+
+        int size = Integer.highestOneBit(wheelSize);
+        if(size < wheelSize)
+            size <<= 1;
+
+        this.tickNanos = TimeUnit.MILLISECONDS.toNanos(tickMs);
+        this.mask = size - 1;
+        this.buckets = new Task[size];
+        this.startNanos = System.nanoTime();
+
+        this.workerThread = new Thread(this::workerLoop, name);
+        this.workerThread.setDaemon(true);
+    }
+
+    public synchronized void start() {
+        if(running)
+            return;
+        running = true;
+        workerThread.start();
+    }
+
+    public void stop() {
+        running = false;
+        LockSupport.unpark(workerThread);
+    }
+
+    /**
+     * Schedule the execution of the task after delayMs milliseconds (at least one tick).
+     * It can be called from any thread.
+     */
+    public void schedule(Task task, long delayMs) {
+
+        long delayTicks = Math.max(1, TimeUnit.MILLISECONDS.toNanos(delayMs) / tickNanos);
+
+        if(Thread.currentThread() == workerThread){
+            insert(task, currentTick + delayTicks);
+        }
+        else {
+            task.deadlineTick = (System.nanoTime() - startNanos) / tickNanos + delayTicks;
+            pendingTasks.add(task);
+        }
+    }
+
+    private void insert(Task task, long deadlineTick) {
+
+        //Deadlines already expired are executed at the next tick
+        task.deadlineTick = Math.max(deadlineTick, currentTick + 1);
+
+        int index = (int) (task.deadlineTick & mask);
+        task.next = buckets[index];
+        buckets[index] = task;
+    }
+
+    private void workerLoop() {
+
+        while(running){
+
+            waitForNextTick();
+            currentTick++;
+
+            Task pendingTask;
+            while((pendingTask = pendingTasks.poll()) != null)
+                insert(pendingTask, pendingTask.deadlineTick);
+
+            int index = (int) (currentTick & mask);
+            Task task = buckets[index];
+            buckets[index] = null;
+
+            while(task != null){
+
+                Task next = task.next;
+                task.next = null;
+
+                if(task.deadlineTick <= currentTick)
+                    execute(task);
+                else {
+                    //Deadline in one of the next rounds of the wheel
+                    task.next = buckets[index];
+                    buckets[index] = task;
+                }
+
+                task = next;
+            }
+        }
+    }
+
+    private void execute(Task task) {
+        try{
+            task.run();
+        }catch (Exception e){
+            logger.error("Error executing timer wheel task: {}", e.getLocalizedMessage());
+        }
+    }
+
+    private void waitForNextTick() {
+
+        long deadline = startNanos + (currentTick + 1) * tickNanos;
+
+        //If the wheel is late the next tick is processed immediately
+        long sleepNanos;
+        while(running && (sleepNanos = deadline - System.nanoTime()) > 0)
+            LockSupport.parkNanos(this, sleepNanos);
+    }
+
+    public boolean isRunning() {
+        return running;
+    }
+
+    public long getTickMs() {
+        return TimeUnit.NANOSECONDS.toMillis(tickNanos);
+    }
+}
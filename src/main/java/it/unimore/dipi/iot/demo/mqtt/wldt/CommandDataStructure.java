@@ -1,8 +1,11 @@
 package it.unimore.dipi.iot.demo.mqtt.wldt;
 
+import java.nio.charset.StandardCharsets;
+
 /**
  * Simple data structure to show how a WLDT ProcessingStep can adapt
- * the payload af an incoming MQTT payload into a new format/content
+ * the payload af an incoming MQTT payload into a new format/content.
+ * The original payload is always decoded as UTF-8 (see also CommandDataStructureEncoder)
  *
  * @author Marco Picone, Ph.D. - picone.m@gmail.com
  * @project wldt-core
@@ -10,15 +13,20 @@ package it.unimore.dipi.iot.demo.mqtt.wldt;
  */
 public class CommandDataStructure {
 
-    private String type = "demo_command_data_structure";
+    public static final String DEFAULT_TYPE = "demo_command_data_structure";
+
+    private String type = DEFAULT_TYPE;
 
     private long timestamp;
 
+    //Assigned by the CommandCorrelationTracker and returned by the device in its response, null if not tracked
+    private String correlationId;
+
     private String originalMessage;
 
     public CommandDataStructure(byte[] originalPayload) {
         this.timestamp = System.currentTimeMillis();
-        this.originalMessage = new String(originalPayload);
+        this.originalMessage = new String(originalPayload, StandardCharsets.UTF_8);
     }
 
     public CommandDataStructure(String originalMessage) {
@@ -26,6 +34,11 @@ public class CommandDataStructure {
         this.originalMessage = originalMessage;
     }
 
+    public CommandDataStructure(byte[] originalPayload, String correlationId) {
+        this(originalPayload);
+        this.correlationId = correlationId;
+    }
+
     public CommandDataStructure(String type, long timestamp, String originalMessage) {
         this.type = type;
         this.timestamp = timestamp;
@@ -48,6 +61,14 @@ public class CommandDataStructure {
         this.timestamp = timestamp;
     }
 
+    public String getCorrelationId() {
+        return correlationId;
+    }
+
+    public void setCorrelationId(String correlationId) {
+        this.correlationId = correlationId;
+    }
+
     public String getOriginalMessage() {
         return originalMessage;
     }
@@ -58,9 +79,10 @@ public class CommandDataStructure {
 
     @Override
     public String toString() {
-        final StringBuffer sb = new StringBuffer("DemoDataStructure{");
+        final StringBuilder sb = new StringBuilder("DemoDataStructure{");
         sb.append("type='").append(type).append('\'');
         sb.append(", timestamp=").append(timestamp);
+        sb.append(", correlationId='").append(correlationId).append('\'');
         sb.append(", originalMessage='").append(originalMessage).append('\'');
         sb.append('}');
         return sb.toString();
@@ -0,0 +1,215 @@
+package it.unimore.dipi.iot.demo.mqtt.wldt;
+
+/**
+ * Optional features of the WldtMqttProcess demo pipelines, all disabled by default.
+ * The values of fromSystemProperties() are read from the wldt.* system properties (E.g. -Dwldt.history=true).
+ *
+ * @created: 18/10/2026
+ * @project: WLDT - MQTT Example
+ */
+public class DemoFeatures {
+
+    //If enabled the messages are processed by ConcurrentProcessingPipelines on a bounded PartitionedExecutor (ordered for each topic)
+    //instead of the core ProcessingPipeline, which runs the whole chain on the MQTT callback thread one message at a time.
+    //Always used by the fast start and by the topology file (-Dwldt.concurrentPipelines=true)
+    private boolean concurrentPipelines = false;
+
+    //If enabled telemetry results are published in batches through the BatchingMqttPublisher
+    //instead of one synchronous publish for each message on the Mqtt2MqttWorker outgoing client (-Dwldt.batchedPublishing=true)
+    private boolean batchedPublishing = false;
+
+    //If enabled telemetry results are appended to a memory-mapped log and delivered once the destination broker is available,
+    //so they are not lost while it is down or across restarts of the process (in place of the in-memory BatchingMqttPublisher buffer)
+    //Requires the batched publishing (-Dwldt.storeAndForward=true)
+    private boolean storeAndForward = false;
+
+    //If enabled the received temperature values are recorded in an off-heap HistoryStore (one series for each topic)
+    //that can be queried through JSON requests on the history/request topic of the destination broker (-Dwldt.history=true)
+    private boolean history = false;
+
+    //If enabled the last state of each destination topic is kept in a ShadowStateCache (served on the shadow/request topic
+    //of the destination broker) and the averages that changed less than the deadband are not published (-Dwldt.shadow=true)
+    private boolean shadow = false;
+
+    //Absolute deadband of the averages (-Dwldt.shadow.deadband=0.1), with 0 (default) only the repeated values are not published
+    private double shadowDeadband = 0;
+
+    //If enabled the commands of the applications are deduplicated and rate limited (for each device and application)
+    //before reaching the device, rejections are reported on command/<device_id>/rejected of the destination broker.
+    //Requires the concurrent pipelines, the waiting commands continue on the pipeline executor (-Dwldt.commandControl=true)
+    private boolean commandControl = false;
+
+    //If enabled each command carries a correlation id, the responses of the devices (commands/<device_id>/response)
+    //are matched to measure the round trip latency and the missing ones are reported as TIMEOUT on the same topic (-Dwldt.correlation=true)
+    private boolean correlation = false;
+
+    //If enabled the telemetry messages are processed with pooled PipelineData recycled after the publish
+    //(requires the batched publishing and the concurrent pipelines, -Dwldt.pooling=true). Leak detection: -Dwldt.pool.leakDetection=true
+    private boolean pooling = false;
+
+    //If enabled the command pipelines (device incoming topics) and the telemetry pipelines (device outgoing topics) are processed
+    //in separate bounded lanes of a PriorityLaneScheduler: the partition threads serve the commands first (weighted priority),
+    //so a telemetry burst does not delay the commands. Otherwise all the pipelines share the default PartitionedExecutor.
+    //Requires the concurrent pipelines (-Dwldt.priorityLanes=true)
+    private boolean priorityLanes = false;
+
+    //If enabled the processed commands are published on the source broker through a dedicated connection (BatchingMqttPublisher
+    //without linger) instead of the outgoing client of the Mqtt2MqttWorker, also used for the telemetry subscriptions (-Dwldt.commandConnection=true)
+    private boolean commandConnection = false;
+
+    //If enabled the demo starts without the WLDT-Engine startup delay: the services connect in parallel and the topics are
+    //mirrored through a single-device TwinHost (async clients, one SUBSCRIBE packet for each broker), ready once the
+    //brokers acknowledged the subscriptions. Not used with a topology file (-Dwldt.fastStart=true)
+    private boolean fastStart = false;
+
+    //In-memory metrics exposed in the Prometheus text format (http://127.0.0.1:9404/metrics) and through JMX
+    //in place of the core WldtMetricsManager CSV reports (-Dwldt.metrics=true)
+    private boolean metrics = false;
+
+    public DemoFeatures() {
+    }
+
+    public static DemoFeatures fromSystemProperties() {
+
+        DemoFeatures features = new DemoFeatures();
+        features.setConcurrentPipelines(Boolean.getBoolean("wldt.concurrentPipelines"));
+        features.setBatchedPublishing(Boolean.getBoolean("wldt.batchedPublishing"));
+        features.setStoreAndForward(Boolean.getBoolean("wldt.storeAndForward"));
+        features.setHistory(Boolean.getBoolean("wldt.history"));
+        features.setShadow(Boolean.getBoolean("wldt.shadow"));
+        features.setShadowDeadband(Double.parseDouble(System.getProperty("wldt.shadow.deadband", "0")));
+        features.setCommandControl(Boolean.getBoolean("wldt.commandControl"));
+        features.setCorrelation(Boolean.getBoolean("wldt.correlation"));
+        features.setPooling(Boolean.getBoolean("wldt.pooling"));
+        features.setPriorityLanes(Boolean.getBoolean("wldt.priorityLanes"));
+        features.setCommandConnection(Boolean.getBoolean("wldt.commandConnection"));
+        features.setFastStart(Boolean.getBoolean("wldt.fastStart"));
+        features.setMetrics(Boolean.getBoolean("wldt.metrics"));
+
+        return features;
+    }
+
+    public boolean isConcurrentPipelines() {
+        return concurrentPipelines;
+    }
+
+    public void setConcurrentPipelines(boolean concurrentPipelines) {
+        this.concurrentPipelines = concurrentPipelines;
+    }
+
+    public boolean isBatchedPublishing() {
+        return batchedPublishing;
+    }
+
+    public void setBatchedPublishing(boolean batchedPublishing) {
+        this.batchedPublishing = batchedPublishing;
+    }
+
+    public boolean isStoreAndForward() {
+        return storeAndForward;
+    }
+
+    public void setStoreAndForward(boolean storeAndForward) {
+        this.storeAndForward = storeAndForward;
+    }
+
+    public boolean isHistory() {
+        return history;
+    }
+
+    public void setHistory(boolean history) {
+        this.history = history;
+    }
+
+    public boolean isShadow() {
+        return shadow;
+    }
+
+    public void setShadow(boolean shadow) {
+        this.shadow = shadow;
+    }
+
+    public double getShadowDeadband() {
+        return shadowDeadband;
+    }
+
+    public void setShadowDeadband(double shadowDeadband) {
+        this.shadowDeadband = shadowDeadband;
+    }
+
+    public boolean isCommandControl() {
+        return commandControl;
+    }
+
+    public void setCommandControl(boolean commandControl) {
+        this.commandControl = commandControl;
+    }
+
+    public boolean isCorrelation() {
+        return correlation;
+    }
+
+    public void setCorrelation(boolean correlation) {
+        this.correlation = correlation;
+    }
+
+    public boolean isPooling() {
+        return pooling;
+    }
+
+    public void setPooling(boolean pooling) {
+        this.pooling = pooling;
+    }
+
+    public boolean isPriorityLanes() {
+        return priorityLanes;
+    }
+
+    public void setPriorityLanes(boolean priorityLanes) {
+        this.priorityLanes = priorityLanes;
+    }
+
+    public boolean isCommandConnection() {
+        return commandConnection;
+    }
+
+    public void setCommandConnection(boolean commandConnection) {
+        this.commandConnection = commandConnection;
+    }
+
+    public boolean isFastStart() {
+        return fastStart;
+    }
+
+    public void setFastStart(boolean fastStart) {
+        this.fastStart = fastStart;
+    }
+
+    public boolean isMetrics() {
+        return metrics;
+    }
+
+    public void setMetrics(boolean metrics) {
+        this.metrics = metrics;
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder("DemoFeatures{");
+        sb.append("concurrentPipelines=").append(concurrentPipelines);
+        sb.append(", batchedPublishing=").append(batchedPublishing);
+        sb.append(", storeAndForward=").append(storeAndForward);
+        sb.append(", history=").append(history);
+        sb.append(", shadow=").append(shadow);
+        sb.append(", shadowDeadband=").append(shadowDeadband);
+        sb.append(", commandControl=").append(commandControl);
+        sb.append(", correlation=").append(correlation);
+        sb.append(", pooling=").append(pooling);
+        sb.append(", priorityLanes=").append(priorityLanes);
+        sb.append(", commandConnection=").append(commandConnection);
+        sb.append(", fastStart=").append(fastStart);
+        sb.append(", metrics=").append(metrics);
+        sb.append('}');
+        return sb.toString();
+    }
+}
@@ -0,0 +1,520 @@
+package it.unimore.dipi.iot.demo.mqtt.wldt;
+
+import it.unimore.dipi.iot.demo.mqtt.wldt.control.CommandControlConfiguration;
+import it.unimore.dipi.iot.demo.mqtt.wldt.control.CommandController;
+import it.unimore.dipi.iot.demo.mqtt.wldt.control.CommandRejectionReason;
+import it.unimore.dipi.iot.demo.mqtt.wldt.control.MqttCommandRejectionPublisher;
+import it.unimore.dipi.iot.demo.mqtt.wldt.correlation.CommandCorrelationConfiguration;
+import it.unimore.dipi.iot.demo.mqtt.wldt.correlation.CommandCorrelationTracker;
+import it.unimore.dipi.iot.demo.mqtt.wldt.correlation.MqttCommandTimeoutPublisher;
+import it.unimore.dipi.iot.demo.mqtt.wldt.history.HistoryQueryService;
+import it.unimore.dipi.iot.demo.mqtt.wldt.history.HistoryQueryServiceConfiguration;
+import it.unimore.dipi.iot.demo.mqtt.wldt.history.HistoryStore;
+import it.unimore.dipi.iot.demo.mqtt.wldt.metrics.MetricsHttpServer;
+import it.unimore.dipi.iot.demo.mqtt.wldt.metrics.MetricsRegistry;
+import it.unimore.dipi.iot.demo.mqtt.wldt.pipeline.ConcurrentProcessingPipeline;
+import it.unimore.dipi.iot.demo.mqtt.wldt.pipeline.PartitionedExecutor;
+import it.unimore.dipi.iot.demo.mqtt.wldt.pipeline.PipelineDataPool;
+import it.unimore.dipi.iot.demo.mqtt.wldt.pipeline.PipelineExecutor;
+import it.unimore.dipi.iot.demo.mqtt.wldt.pipeline.PriorityLaneConfiguration;
+import it.unimore.dipi.iot.demo.mqtt.wldt.pipeline.PriorityLaneScheduler;
+import it.unimore.dipi.iot.demo.mqtt.wldt.publish.BackPressureListener;
+import it.unimore.dipi.iot.demo.mqtt.wldt.publish.BatchingMqttPublisher;
+import it.unimore.dipi.iot.demo.mqtt.wldt.publish.BatchingMqttPublisherConfiguration;
+import it.unimore.dipi.iot.demo.mqtt.wldt.publish.StoreAndForwardMqttPublisher;
+import it.unimore.dipi.iot.demo.mqtt.wldt.publish.StoreAndForwardMqttPublisherConfiguration;
+import it.unimore.dipi.iot.demo.mqtt.wldt.shadow.DeadbandConfiguration;
+import it.unimore.dipi.iot.demo.mqtt.wldt.shadow.ShadowSnapshotService;
+import it.unimore.dipi.iot.demo.mqtt.wldt.shadow.ShadowSnapshotServiceConfiguration;
+import it.unimore.dipi.iot.demo.mqtt.wldt.shadow.ShadowStateCache;
+import it.unimore.dipi.iot.demo.mqtt.wldt.startup.ParallelStartup;
+import it.unimore.dipi.iot.demo.mqtt.wldt.topology.StepDefinition;
+import it.unimore.dipi.iot.demo.mqtt.wldt.topology.StepFactoryRegistry;
+import it.unimore.dipi.iot.demo.mqtt.wldt.topology.TopicDefinition;
+import it.unimore.dipi.iot.wldt.processing.ProcessingPipeline;
+import it.unimore.dipi.iot.wldt.processing.ProcessingStep;
+import it.unimore.dipi.iot.wldt.processing.step.IdentityProcessingStep;
+import it.unimore.dipi.iot.wldt.worker.MirroringListener;
+import it.unimore.dipi.iot.wldt.worker.mqtt.MqttTopicDescriptor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Builds the pipelines of the WldtMqttProcess demo and the steps backed by the services of the process
+ * (history, shadow, command control, correlation and publishers) according to the enabled DemoFeatures.
+ *
+ * The same pipelines are used by the Mqtt2MqttWorker of the demo and by the TwinHost of the fast start,
+ * the topology file uses the steps through the StepFactoryRegistry. Pipelines are core ProcessingPipelines
+ * unless the concurrent pipelines are enabled: the command control, the pooling and the priority lanes
+ * are applied only to ConcurrentProcessingPipelines.
+ *
+ * @created: 18/10/2026
+ * @project: WLDT - MQTT Example
+ */
+public class DemoPipelineBuilder {
+
+    private static final String TAG = "[WLDT-Pipelines]";
+
+    private static final Logger logger = LoggerFactory.getLogger(DemoPipelineBuilder.class);
+
+    public static final String OUTGOING_LOG_DIRECTORY = "data/outgoing-log";
+
+    public static final String METRICS_BIND_ADDRESS = "127.0.0.1";
+
+    public static final int METRICS_HTTP_PORT = 9404;
+
+    private static final int AVERAGE_WINDOW_SIZE = 10;
+
+    private static final long PUBLISHER_STOP_TIMEOUT_MS = 5000;
+
+    //A stable value is published anyway once every minute
+    private static final long SHADOW_MAX_SILENCE_MS = 60000;
+
+    private static final long SERVICES_STARTUP_TIMEOUT_MS = 30000;
+
+    private final DemoFeatures features;
+
+    //Broker of the command publisher
+    private final String sourceBrokerAddress;
+
+    private final int sourceBrokerPort;
+
+    //Broker of the services (history, shadow, command reports and publishers)
+    private final String destinationBrokerAddress;
+
+    private final int destinationBrokerPort;
+
+    //Shared by the command and command response pipelines
+    private CommandCorrelationTracker correlationTracker = null;
+
+    //Created with the first pipeline if the priority lanes are enabled
+    private volatile PriorityLaneScheduler priorityLaneScheduler = null;
+
+    //Guards the creation of the PriorityLaneScheduler, the pipelines can be created while the services start in parallel
+    private final Object priorityLaneSchedulerLock = new Object();
+
+    public DemoPipelineBuilder(DemoFeatures features,
+                               String sourceBrokerAddress,
+                               int sourceBrokerPort,
+                               String destinationBrokerAddress,
+                               int destinationBrokerPort) {
+        this.features = features;
+        this.sourceBrokerAddress = sourceBrokerAddress;
+        this.sourceBrokerPort = sourceBrokerPort;
+        this.destinationBrokerAddress = destinationBrokerAddress;
+        this.destinationBrokerPort = destinationBrokerPort;
+    }
+
+    /**
+     * Demo pipelines without the publish steps, the services of the enabled steps are started in parallel.
+     *
+     * @return the pipelines for each demo topic id: temperature, command and, if the correlation is enabled, command response
+     */
+    public Map<String, ProcessingPipeline> buildPipelines() throws Exception {
+
+        ParallelStartup startup = new ParallelStartup("services");
+
+        Future<ProcessingStep> historyStep = features.isHistory() ? startup.submit("history", () -> new MqttHistoryStep(createHistoryStore())) : null;
+        Future<ProcessingStep> deadbandFilterStep = features.isShadow() ? startup.submit("shadow", this::createDeadbandFilterStep) : null;
+        Future<ProcessingStep> commandControlStep = features.isCommandControl() && features.isConcurrentPipelines() ? startup.submit("commandControl", this::createCommandControlStep) : null;
+        Future<CommandCorrelationTracker> correlationTracker = features.isCorrelation() ? startup.submit("correlation", this::getCorrelationTracker) : null;
+
+        startup.awaitAll(SERVICES_STARTUP_TIMEOUT_MS);
+
+        Map<String, ProcessingPipeline> pipelines = new LinkedHashMap<>();
+
+        ProcessingPipeline telemetryPipeline = createPipeline(() -> getPipelineExecutor(MqttTopicDescriptor.MQTT_TOPIC_TYPE_DEVICE_OUTGOING),
+                new IdentityProcessingStep());
+
+        if(historyStep != null)
+            telemetryPipeline.addStep(historyStep.get());
+
+        telemetryPipeline.addStep(new MqttStreamingAverageStep(AVERAGE_WINDOW_SIZE));
+        telemetryPipeline.addStep(new MqttTopicChangeStep());
+
+        if(deadbandFilterStep != null)
+            telemetryPipeline.addStep(deadbandFilterStep.get());
+
+        pipelines.put(WldtMqttProcess.DEMO_TEMPERATURE_TOPIC_ID, telemetryPipeline);
+
+        ProcessingPipeline commandPipeline = createPipeline(() -> getPipelineExecutor(MqttTopicDescriptor.MQTT_TOPIC_TYPE_DEVICE_INCOMING),
+                new IdentityProcessingStep());
+
+        if(commandControlStep != null)
+            commandPipeline.addStep(commandControlStep.get());
+
+        commandPipeline.addStep(correlationTracker != null ? new MqttPayloadChangeStep(correlationTracker.get()) : new MqttPayloadChangeStep());
+        commandPipeline.addStep(new MqttCommandTopicChangeStep());
+
+        pipelines.put(WldtMqttProcess.DEMO_COMMAND_TOPIC_ID, commandPipeline);
+
+        if(correlationTracker != null)
+            pipelines.put(WldtMqttProcess.DEMO_COMMAND_RESPONSE_TOPIC_ID,
+                    createPipeline(this::getCommandResponseExecutor, new MqttCommandResponseStep(correlationTracker.get())));
+
+        return pipelines;
+    }
+
+    /**
+     * With the concurrent pipelines the messages are processed on the executor of the topic type (ordered for each topic)
+     * instead of the MQTT callback thread
+     */
+    private ProcessingPipeline createPipeline(Supplier<PipelineExecutor> executor, ProcessingStep... steps) {
+        return features.isConcurrentPipelines() ? new ConcurrentProcessingPipeline(executor.get(), steps) : new ProcessingPipeline(steps);
+    }
+
+    /**
+     * Appends the enabled publish steps to the pipelines of buildPipelines(), used when the messages are not published
+     * by a TwinHost: the batched (or store and forward) telemetry publisher and the dedicated command connection
+     */
+    public void addPublishSteps(Map<String, ProcessingPipeline> pipelines) throws Exception {
+
+        ProcessingPipeline telemetryPipeline = pipelines.get(WldtMqttProcess.DEMO_TEMPERATURE_TOPIC_ID);
+
+        if(features.isBatchedPublishing())
+            telemetryPipeline.addStep(createPublishStep());
+
+        if(features.isPooling() && features.isBatchedPublishing() && telemetryPipeline instanceof ConcurrentProcessingPipeline)
+            ((ConcurrentProcessingPipeline) telemetryPipeline).setDataPool(createPipelineDataPool());
+
+        if(features.isCommandConnection())
+            pipelines.get(WldtMqttProcess.DEMO_COMMAND_TOPIC_ID).addStep(createCommandPublishStep());
+    }
+
+    /**
+     * Step types of the topology file: the default ones and the steps backed by the services of the process,
+     * created once when they are used for the first time
+     */
+    public StepFactoryRegistry createStepFactoryRegistry() {
+
+        StepFactoryRegistry stepFactoryRegistry = StepFactoryRegistry.withDefaultSteps();
+
+        stepFactoryRegistry.registerShared("history", definition -> new MqttHistoryStep(createHistoryStore()));
+        stepFactoryRegistry.registerShared("deadband", definition -> createDeadbandFilterStep(definition.getDouble("deadband", features.getShadowDeadband()),
+                definition.getLong("maxSilenceMs", SHADOW_MAX_SILENCE_MS)));
+        stepFactoryRegistry.registerShared("publish", definition -> createPublishStep());
+        stepFactoryRegistry.registerShared("commandControl", definition -> createCommandControlStep());
+        stepFactoryRegistry.registerShared("commandPublish", definition -> createCommandPublishStep());
+        stepFactoryRegistry.registerShared("correlatedPayloadChange", definition -> new MqttPayloadChangeStep(getCorrelationTracker()));
+        stepFactoryRegistry.registerShared("commandResponse", definition -> new MqttCommandResponseStep(getCorrelationTracker()));
+
+        return stepFactoryRegistry;
+    }
+
+    /**
+     * @return the lane of the topic type if the priority lanes are enabled, the default PartitionedExecutor otherwise
+     */
+    public PipelineExecutor getPipelineExecutor(String topicType) {
+
+        if(!features.isPriorityLanes())
+            return PartitionedExecutor.getDefault();
+
+        synchronized (priorityLaneSchedulerLock){
+            if(priorityLaneScheduler == null)
+                priorityLaneScheduler = createPriorityLaneScheduler();
+        }
+
+        return priorityLaneScheduler.laneFor(topicType);
+    }
+
+    /**
+     * @return the executor of a topology topic: the command lane for the command topics and the topics of the command responses
+     */
+    public PipelineExecutor getPipelineExecutor(TopicDefinition topic) {
+
+        if(topic.getSteps() != null)
+            for(StepDefinition step : topic.getSteps())
+                if("commandResponse".equals(step.getType()))
+                    return getCommandResponseExecutor();
+
+        return getPipelineExecutor(topic.getType());
+    }
+
+    /**
+     * Command responses are device outgoing topics, but they are processed in the command lane: a telemetry burst must not
+     * delay the match of the responses (and inflate the measured round trip latency)
+     */
+    private PipelineExecutor getCommandResponseExecutor() {
+        return getPipelineExecutor(MqttTopicDescriptor.MQTT_TOPIC_TYPE_DEVICE_INCOMING);
+    }
+
+    public MirroringListener createMirroringListener() {
+
+        final LongAdder mirroringErrors = features.isMetrics() ? MetricsRegistry.getDefault().counter("wldt_mirroring_errors_total", "Device and resource mirroring errors") : new LongAdder();
+
+        return new MirroringListener() {
+
+            @Override
+            public void onDeviceMirrored(String deviceId, Map<String, Object> metadata) {
+                logger.info("onDeviceMirrored() callback ! DeviceId: {} -> Metadata: {}", deviceId, metadata);
+            }
+
+            @Override
+            public void onDeviceMirroringError(String deviceId, String errorMsg) {
+                mirroringErrors.increment();
+                logger.info("onDeviceMirroringError() callback ! DeviceId: {} -> ErrorMsg: {}", deviceId, errorMsg);
+            }
+
+            @Override
+            public void onResourceMirrored(String resourceId, Map<String, Object> metadata) {
+                logger.info("onResourceMirrored() callback ! ResourceId: {} -> Metadata: {}", resourceId, metadata);
+            }
+
+            @Override
+            public void onResourceMirroringError(String resourceId, String errorMsg) {
+                mirroringErrors.increment();
+                logger.info("onResourceMirroringError() callback ! ResourceId: {} -> ErrorMsg: {}", resourceId, errorMsg);
+            }
+
+        };
+    }
+
+    public void startMetricsEndpoint(MetricsRegistry metricsRegistry) throws Exception {
+
+        //The lanes of the PriorityLaneScheduler are registered when it is created
+        if(features.isConcurrentPipelines() && !features.isPriorityLanes()){
+            PartitionedExecutor executor = PartitionedExecutor.getDefault();
+            metricsRegistry.gauge("wldt_executor_queue_depth", "Messages waiting in the partition queues", "executor", executor.getName(), executor::getQueueDepth);
+            metricsRegistry.gauge("wldt_executor_dropped_total", "Messages dropped by the partition overflow policy", "executor", executor.getName(), executor::getDroppedTaskCount);
+        }
+
+        MetricsHttpServer metricsHttpServer = new MetricsHttpServer(metricsRegistry, METRICS_BIND_ADDRESS, METRICS_HTTP_PORT);
+        metricsHttpServer.start();
+    }
+
+    private HistoryStore createHistoryStore() throws Exception {
+
+        HistoryStore historyStore = new HistoryStore();
+
+        HistoryQueryServiceConfiguration queryServiceConfiguration = new HistoryQueryServiceConfiguration(destinationBrokerAddress, destinationBrokerPort);
+        queryServiceConfiguration.setClientId("digitalBrokerHistoryClientId");
+
+        HistoryQueryService historyQueryService = new HistoryQueryService(historyStore, queryServiceConfiguration);
+        historyQueryService.start();
+
+        if(features.isMetrics()){
+            MetricsRegistry metricsRegistry = MetricsRegistry.getDefault();
+            metricsRegistry.gauge("wldt_history_series", "Series of the HistoryStore", "store", "telemetry", historyStore::getSeriesCount);
+            metricsRegistry.gauge("wldt_history_points", "Points stored in the HistoryStore", "store", "telemetry", historyStore::getPointCount);
+            metricsRegistry.gauge("wldt_history_used_bytes", "Compressed bytes of the HistoryStore points", "store", "telemetry", historyStore::getUsedBytes);
+            metricsRegistry.gauge("wldt_history_dropped_total", "Points dropped by the HistoryStore", "store", "telemetry", historyStore::getDroppedCount);
+        }
+
+        Runtime.getRuntime().addShutdownHook(new Thread(historyQueryService::stop));
+
+        return historyStore;
+    }
+
+    private ProcessingStep createDeadbandFilterStep() throws Exception {
+        return createDeadbandFilterStep(features.getShadowDeadband(), SHADOW_MAX_SILENCE_MS);
+    }
+
+    private ProcessingStep createDeadbandFilterStep(double deadband, long maxSilenceMs) throws Exception {
+
+        ShadowStateCache shadowStateCache = new ShadowStateCache();
+        MqttDeadbandFilterStep deadbandFilterStep = new MqttDeadbandFilterStep(shadowStateCache, DeadbandConfiguration.absolute(deadband).withMaxSilenceMs(maxSilenceMs));
+
+        ShadowSnapshotServiceConfiguration snapshotServiceConfiguration = new ShadowSnapshotServiceConfiguration(destinationBrokerAddress, destinationBrokerPort);
+        snapshotServiceConfiguration.setClientId("digitalBrokerShadowClientId");
+
+        ShadowSnapshotService shadowSnapshotService = new ShadowSnapshotService(shadowStateCache, snapshotServiceConfiguration);
+        shadowSnapshotService.start();
+
+        if(features.isMetrics()){
+            MetricsRegistry metricsRegistry = MetricsRegistry.getDefault();
+            metricsRegistry.gauge("wldt_shadow_states", "States of the ShadowStateCache", "cache", "telemetry", shadowStateCache::size);
+            metricsRegistry.gauge("wldt_shadow_forwarded_total", "Messages forwarded by the deadband filter", "cache", "telemetry", deadbandFilterStep::getForwardedCount);
+            metricsRegistry.gauge("wldt_shadow_suppressed_total", "Messages suppressed by the deadband filter", "cache", "telemetry", deadbandFilterStep::getSuppressedCount);
+        }
+
+        Runtime.getRuntime().addShutdownHook(new Thread(shadowSnapshotService::stop));
+
+        return deadbandFilterStep;
+    }
+
+    private ProcessingStep createCommandControlStep() throws Exception {
+
+        //Waiting commands are dispatched on the executor of the command pipelines
+        CommandController commandController = new CommandController(new CommandControlConfiguration(), getPipelineExecutor(MqttTopicDescriptor.MQTT_TOPIC_TYPE_DEVICE_INCOMING));
+
+        BatchingMqttPublisherConfiguration rejectionPublisherConfiguration = new BatchingMqttPublisherConfiguration(destinationBrokerAddress, destinationBrokerPort);
+        rejectionPublisherConfiguration.setClientId("digitalBrokerCommandRejectionClientId");
+
+        BatchingMqttPublisher rejectionPublisher = new BatchingMqttPublisher(rejectionPublisherConfiguration);
+        rejectionPublisher.start();
+
+        commandController.setRejectionListener(new MqttCommandRejectionPublisher(rejectionPublisher));
+
+        if(features.isMetrics()){
+            MetricsRegistry metricsRegistry = MetricsRegistry.getDefault();
+            metricsRegistry.gauge("wldt_command_forwarded_total", "Commands forwarded to the devices", "controller", WldtMqttProcess.DEMO_COMMAND_TOPIC_ID, commandController::getForwardedCount);
+            metricsRegistry.gauge("wldt_command_deferred_total", "Commands that waited for the device rate limit", "controller", WldtMqttProcess.DEMO_COMMAND_TOPIC_ID, commandController::getDeferredCount);
+            for(CommandRejectionReason reason : CommandRejectionReason.values())
+                metricsRegistry.gauge("wldt_command_rejected_total", "Commands rejected by the command control", "reason", reason.name(), () -> commandController.getRejectedCount(reason));
+        }
+
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            commandController.close();
+            rejectionPublisher.stop(PUBLISHER_STOP_TIMEOUT_MS);
+        }));
+
+        return new MqttCommandControlStep(commandController);
+    }
+
+    private PipelineDataPool createPipelineDataPool() {
+
+        PipelineDataPool pipelineDataPool = new PipelineDataPool();
+
+        if(features.isMetrics()){
+            MetricsRegistry metricsRegistry = MetricsRegistry.getDefault();
+            metricsRegistry.gauge("wldt_pool_borrowed_total", "PipelineData borrowed from the pool", "pool", WldtMqttProcess.DEMO_TEMPERATURE_TOPIC_ID, pipelineDataPool::getBorrowedCount);
+            metricsRegistry.gauge("wldt_pool_created_total", "PipelineData allocated because the pool was empty", "pool", WldtMqttProcess.DEMO_TEMPERATURE_TOPIC_ID, pipelineDataPool::getCreatedCount);
+            metricsRegistry.gauge("wldt_pool_released_total", "PipelineData returned to the pool", "pool", WldtMqttProcess.DEMO_TEMPERATURE_TOPIC_ID, pipelineDataPool::getReleasedCount);
+            metricsRegistry.gauge("wldt_pool_leaked_total", "PipelineData collected without being released (leak detection)", "pool", WldtMqttProcess.DEMO_TEMPERATURE_TOPIC_ID, pipelineDataPool::getLeakCount);
+        }
+
+        return pipelineDataPool;
+    }
+
+    private synchronized CommandCorrelationTracker getCorrelationTracker() throws Exception {
+
+        if(correlationTracker == null)
+            correlationTracker = createCorrelationTracker();
+
+        return correlationTracker;
+    }
+
+    private CommandCorrelationTracker createCorrelationTracker() throws Exception {
+
+        CommandCorrelationTracker correlationTracker = new CommandCorrelationTracker(new CommandCorrelationConfiguration());
+
+        BatchingMqttPublisherConfiguration timeoutPublisherConfiguration = new BatchingMqttPublisherConfiguration(destinationBrokerAddress, destinationBrokerPort);
+        timeoutPublisherConfiguration.setClientId("digitalBrokerCommandTimeoutClientId");
+
+        BatchingMqttPublisher timeoutPublisher = new BatchingMqttPublisher(timeoutPublisherConfiguration);
+        timeoutPublisher.start();
+
+        correlationTracker.setTimeoutListener(new MqttCommandTimeoutPublisher(timeoutPublisher));
+
+        if(features.isMetrics()){
+            MetricsRegistry metricsRegistry = MetricsRegistry.getDefault();
+            metricsRegistry.histogram("wldt_command_round_trip_seconds", "Round trip latency of the commands answered by the devices", "tracker", WldtMqttProcess.DEMO_COMMAND_TOPIC_ID, correlationTracker.getRoundTripLatency());
+            metricsRegistry.gauge("wldt_command_outstanding", "Commands waiting for the response of the device", "tracker", WldtMqttProcess.DEMO_COMMAND_TOPIC_ID, correlationTracker::getOutstandingCount);
+            metricsRegistry.gauge("wldt_command_matched_total", "Command responses matched with their command", "tracker", WldtMqttProcess.DEMO_COMMAND_TOPIC_ID, correlationTracker::getMatchedCount);
+            metricsRegistry.gauge("wldt_command_timed_out_total", "Commands without a response within the timeout", "tracker", WldtMqttProcess.DEMO_COMMAND_TOPIC_ID, correlationTracker::getTimedOutCount);
+            metricsRegistry.gauge("wldt_command_unmatched_total", "Command responses without an outstanding command (E.g. late)", "tracker", WldtMqttProcess.DEMO_COMMAND_TOPIC_ID, correlationTracker::getUnmatchedCount);
+            metricsRegistry.gauge("wldt_command_untracked_total", "Commands sent without correlation id (table full)", "tracker", WldtMqttProcess.DEMO_COMMAND_TOPIC_ID, correlationTracker::getUntrackedCount);
+        }
+
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            correlationTracker.close();
+            timeoutPublisher.stop(PUBLISHER_STOP_TIMEOUT_MS);
+        }));
+
+        return correlationTracker;
+    }
+
+    private ProcessingStep createPublishStep() throws Exception {
+
+        if(features.isStoreAndForward())
+            return createStoreAndForwardPublishStep();
+
+        BatchingMqttPublisherConfiguration publisherConfiguration = new BatchingMqttPublisherConfiguration(destinationBrokerAddress, destinationBrokerPort);
+        publisherConfiguration.setClientId("digitalBrokerBatchingClientId");
+
+        BatchingMqttPublisher publisher = new BatchingMqttPublisher(publisherConfiguration);
+
+        publisher.setBackPressureListener(new BackPressureListener() {
+
+            @Override
+            public void onBackPressureOn(int queueDepth, int inFlightCount) {
+                logger.warn("{} Destination broker back-pressure ON ! Queue Depth: {} In Flight: {}", TAG, queueDepth, inFlightCount);
+            }
+
+            @Override
+            public void onBackPressureOff(int queueDepth, int inFlightCount) {
+                logger.info("{} Destination broker back-pressure OFF ! Queue Depth: {} In Flight: {}", TAG, queueDepth, inFlightCount);
+            }
+        });
+
+        publisher.start();
+
+        if(features.isMetrics()){
+            MetricsRegistry metricsRegistry = MetricsRegistry.getDefault();
+            metricsRegistry.gauge("wldt_publisher_queue_depth", "Messages buffered by the BatchingMqttPublisher", "client", publisherConfiguration.getClientId(), publisher::getQueueDepth);
+            metricsRegistry.gauge("wldt_publisher_in_flight", "Unacknowledged messages of the BatchingMqttPublisher", "client", publisherConfiguration.getClientId(), publisher::getInFlightCount);
+            metricsRegistry.gauge("wldt_publisher_rejected_total", "Messages rejected by the BatchingMqttPublisher (buffer full)", "client", publisherConfiguration.getClientId(), publisher::getRejectedCount);
+        }
+
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> publisher.stop(PUBLISHER_STOP_TIMEOUT_MS)));
+
+        return new MqttPublishStep(publisher);
+    }
+
+    private ProcessingStep createCommandPublishStep() throws Exception {
+
+        BatchingMqttPublisherConfiguration publisherConfiguration = new BatchingMqttPublisherConfiguration(sourceBrokerAddress, sourceBrokerPort);
+        publisherConfiguration.setClientId("physicalBrokerCommandClientId");
+
+        //Commands are published as soon as they are processed
+        publisherConfiguration.setLingerMs(0);
+
+        BatchingMqttPublisher publisher = new BatchingMqttPublisher(publisherConfiguration);
+        publisher.start();
+
+        if(features.isMetrics()){
+            MetricsRegistry metricsRegistry = MetricsRegistry.getDefault();
+            metricsRegistry.gauge("wldt_publisher_queue_depth", "Messages buffered by the BatchingMqttPublisher", "client", publisherConfiguration.getClientId(), publisher::getQueueDepth);
+            metricsRegistry.gauge("wldt_publisher_in_flight", "Unacknowledged messages of the BatchingMqttPublisher", "client", publisherConfiguration.getClientId(), publisher::getInFlightCount);
+            metricsRegistry.gauge("wldt_publisher_rejected_total", "Messages rejected by the BatchingMqttPublisher (buffer full)", "client", publisherConfiguration.getClientId(), publisher::getRejectedCount);
+        }
+
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> publisher.stop(PUBLISHER_STOP_TIMEOUT_MS)));
+
+        return new MqttPublishStep(publisher);
+    }
+
+    private ProcessingStep createStoreAndForwardPublishStep() throws Exception {
+
+        StoreAndForwardMqttPublisherConfiguration publisherConfiguration = new StoreAndForwardMqttPublisherConfiguration(destinationBrokerAddress, destinationBrokerPort, OUTGOING_LOG_DIRECTORY);
+        publisherConfiguration.setClientId("digitalBrokerStoreAndForwardClientId");
+
+        //Messages stored by a previous run are delivered first
+        StoreAndForwardMqttPublisher publisher = new StoreAndForwardMqttPublisher(publisherConfiguration);
+        publisher.start();
+
+        if(features.isMetrics()){
+            MetricsRegistry metricsRegistry = MetricsRegistry.getDefault();
+            metricsRegistry.gauge("wldt_publisher_queue_depth", "Messages stored in the outgoing log and not delivered yet", "client", publisherConfiguration.getClientId(), publisher::getBacklogCount);
+            metricsRegistry.gauge("wldt_publisher_rejected_total", "Messages rejected by the StoreAndForwardMqttPublisher (too large or I/O error)", "client", publisherConfiguration.getClientId(), publisher::getRejectedCount);
+            metricsRegistry.gauge("wldt_publisher_expired_total", "Messages deleted by the outgoing log retention before the delivery", "client", publisherConfiguration.getClientId(), publisher::getExpiredCount);
+            metricsRegistry.gauge("wldt_publisher_replayed_batches_total", "Batches replayed after a failed delivery", "client", publisherConfiguration.getClientId(), publisher::getReplayedBatchCount);
+        }
+
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> publisher.stop(PUBLISHER_STOP_TIMEOUT_MS)));
+
+        return new MqttPublishStep(publisher);
+    }
+
+    private PriorityLaneScheduler createPriorityLaneScheduler() {
+
+        PriorityLaneScheduler scheduler = new PriorityLaneScheduler("wldt-lanes", new PriorityLaneConfiguration());
+
+        if(features.isMetrics()){
+            MetricsRegistry metricsRegistry = MetricsRegistry.getDefault();
+            for(PriorityLaneScheduler.Lane lane : Arrays.asList(scheduler.getCommandLane(), scheduler.getTelemetryLane())){
+                metricsRegistry.gauge("wldt_executor_queue_depth", "Messages waiting in the partition queues", "executor", lane.getName(), lane::getQueueDepth);
+                metricsRegistry.gauge("wldt_executor_dropped_total", "Messages dropped by the partition overflow policy", "executor", lane.getName(), lane::getDroppedTaskCount);
+            }
+        }
+
+        return scheduler;
+    }
+}
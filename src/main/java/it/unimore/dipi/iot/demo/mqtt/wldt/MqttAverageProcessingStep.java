@@ -1,5 +1,10 @@
 package it.unimore.dipi.iot.demo.mqtt.wldt;
 
+import it.unimore.dipi.iot.demo.mqtt.wldt.pipeline.LazyMqttPipelineData;
+import it.unimore.dipi.iot.demo.mqtt.wldt.state.StateKeyExtractor;
+import it.unimore.dipi.iot.demo.mqtt.wldt.state.TopicStateStore;
+import it.unimore.dipi.iot.demo.mqtt.wldt.topic.TopicRewriteRule;
+import it.unimore.dipi.iot.demo.mqtt.wldt.topic.TopicRewriter;
 import it.unimore.dipi.iot.wldt.processing.PipelineData;
 import it.unimore.dipi.iot.wldt.processing.ProcessingStep;
 import it.unimore.dipi.iot.wldt.processing.ProcessingStepListener;
@@ -8,7 +13,6 @@ import it.unimore.dipi.iot.wldt.worker.mqtt.MqttPipelineData;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import javax.inject.Named;
 import java.util.ArrayList;
 import java.util.Optional;
 
@@ -16,6 +20,9 @@ import java.util.Optional;
  * WLDT ProcessingStep that averages a list of received
  * numeric values and then publish the new value on a different topic
  *
+ * Received values are stored separately for each state key (by default the concrete topic)
+ * so that multiple devices or resources handled by the same pipeline are not mixed in the same average.
+ *
  * @author : Marco Picone, Ph.D. (marco.picone@unimore.it)
  * @created: 21/05/2021
  * @project: WLDT - MQTT Example
@@ -24,9 +31,20 @@ public class MqttAverageProcessingStep implements ProcessingStep {
 
     private static final Logger logger = LoggerFactory.getLogger(MqttAverageProcessingStep.class);
 
-    private final static String PIPELINE_CACHE_VALUE_LIST = "value_list";
+    private final StateKeyExtractor stateKeyExtractor;
+
+    private final TopicStateStore<ArrayList<Double>> valueListStore;
+
+    private final TopicRewriter averageTopicRewriter = new TopicRewriter(TopicRewriteRule.suffix("average"));
 
     public MqttAverageProcessingStep() {
+        this(StateKeyExtractor.byTopic());
+    }
+
+    public MqttAverageProcessingStep(StateKeyExtractor stateKeyExtractor) {
+        this.stateKeyExtractor = stateKeyExtractor;
+        this.valueListStore = new TopicStateStore<>(key -> new ArrayList<>());
+        this.valueListStore.startEviction(TopicStateStore.DEFAULT_EVICTION_PERIOD_MS);
     }
 
     @Override
@@ -45,20 +63,22 @@ public class MqttAverageProcessingStep implements ProcessingStep {
 
             if(listener != null && data.getPayload() != null){
 
-                String payloadBodyString = new String(data.getPayload());
+                //The data is copied only when the window is completed and the average is forwarded
+                double bodyDoubleValue = LazyMqttPipelineData.numericValueOf(data);
 
-                if(isNumeric(payloadBodyString)){
+                if(!Double.isNaN(bodyDoubleValue)){
 
-                    Double bodyDoubleValue = Double.parseDouble(payloadBodyString);
+                    ArrayList<Double> valueList = valueListStore.getOrCreate(stateKeyExtractor.extractKey(data));
 
-                    //Init Pipeline Cache
-                    if(pipelineCache.getData(this, PIPELINE_CACHE_VALUE_LIST) == null)
-                        pipelineCache.addData(this, PIPELINE_CACHE_VALUE_LIST, new ArrayList<Double>());
+                    if(valueList == null){
+                        listener.onStepError(this, data, "Unable to retrieve the state associated to the received data ! Skipping processing ....");
+                        return;
+                    }
 
-                    ArrayList<Double> valueList = (ArrayList<Double>) pipelineCache.getData(this, PIPELINE_CACHE_VALUE_LIST);
                     valueList.add(bodyDoubleValue);
 
-                    logger.info("Cached list size: {}", valueList.size());
+                    if(logger.isDebugEnabled())
+                        logger.debug("Cached list size: {}", valueList.size());
 
                     if(valueList.size() == 10){
 
@@ -66,12 +86,11 @@ public class MqttAverageProcessingStep implements ProcessingStep {
                         double average = sum / (double)valueList.size();
 
                         valueList.clear();
-                        pipelineCache.addData(this, PIPELINE_CACHE_VALUE_LIST, valueList);
 
-                        listener.onStepDone(this, Optional.of(new MqttPipelineData(String.format("%s/%s", data.getTopic(), "average"), data.getMqttTopicDescriptor(), Double.toString(average).getBytes(), data.isRetained())));
+                        listener.onStepDone(this, LazyMqttPipelineData.of(data).withTopic(averageTopicRewriter.rewrite(data.getTopic())).withNumericPayload(average).asOptional());
                     }
-                    else{
-                        pipelineCache.addData(this, PIPELINE_CACHE_VALUE_LIST, valueList);
+                    else {
+                        LazyMqttPipelineData.release(data);
                         listener.onStepDone(this, Optional.empty());
                     }
                 }
@@ -91,16 +110,10 @@ public class MqttAverageProcessingStep implements ProcessingStep {
     }
 
 
-    private static boolean isNumeric(String strNum) {
-        if (strNum == null) {
-            return false;
-        }
-        try {
-            double d = Double.parseDouble(strNum);
-        } catch (NumberFormatException nfe) {
-            return false;
-        }
-        return true;
+    /**
+     * Stop the periodic eviction of idle states and release all the stored values
+     */
+    public void close() {
+        this.valueListStore.close();
     }
-
 }
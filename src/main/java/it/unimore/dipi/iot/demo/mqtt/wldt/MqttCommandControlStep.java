@@ -0,0 +1,86 @@
+package it.unimore.dipi.iot.demo.mqtt.wldt;
+
+import it.unimore.dipi.iot.demo.mqtt.wldt.control.CommandController;
+import it.unimore.dipi.iot.demo.mqtt.wldt.state.StateKeyExtractor;
+import it.unimore.dipi.iot.wldt.processing.PipelineData;
+import it.unimore.dipi.iot.wldt.processing.ProcessingStep;
+import it.unimore.dipi.iot.wldt.processing.ProcessingStepListener;
+import it.unimore.dipi.iot.wldt.processing.cache.PipelineCache;
+import it.unimore.dipi.iot.wldt.worker.mqtt.MqttPipelineData;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * WLDT ProcessingStep applying the CommandController (deduplication, coalescing and rate limits) to the commands
+ * received from the applications before they are adapted and forwarded to the device.
+ *
+ * The device is identified by the command topic (E.g. command/com:iot:dummy:dummyMqttDevice001). MQTT 3.1.1 messages do not
+ * carry the identity of the publisher, so the application is identified only if an app id extractor is provided
+ * (E.g. from a topic level added by the deployment), otherwise all the commands share the anonymous application limit.
+ *
+ * Commands waiting for the device rate limiter complete their pipeline on another thread: the step must be added
+ * to a ConcurrentProcessingPipeline.
+ *
+ * @created: 18/10/2026
+ * @project: WLDT - MQTT Example
+ */
+public class MqttCommandControlStep implements ProcessingStep {
+
+    private static final Logger logger = LoggerFactory.getLogger(MqttCommandControlStep.class);
+
+    private final CommandController commandController;
+
+    private final StateKeyExtractor deviceIdExtractor;
+
+    private final StateKeyExtractor appIdExtractor;
+
+    public MqttCommandControlStep(CommandController commandController) {
+        this(commandController, StateKeyExtractor.byTopic(), data -> null);
+    }
+
+    public MqttCommandControlStep(CommandController commandController, StateKeyExtractor deviceIdExtractor, StateKeyExtractor appIdExtractor) {
+        this.commandController = commandController;
+        this.deviceIdExtractor = deviceIdExtractor;
+        this.appIdExtractor = appIdExtractor;
+    }
+
+    @Override
+    public void execute(PipelineCache pipelineCache, PipelineData incomingData, ProcessingStepListener listener) {
+
+        MqttPipelineData data = null;
+
+        if(incomingData instanceof MqttPipelineData)
+            data = (MqttPipelineData)incomingData;
+        else if(listener != null)
+            listener.onStepError(this, incomingData, String.format("Wrong PipelineData for MqttCommandControlStep ! Data type: %s", incomingData.getClass()));
+        else
+            logger.error("Wrong PipelineData for MqttCommandControlStep ! Data type: {}", incomingData.getClass());
+
+        try{
+
+            if(listener != null && data != null && data.getPayload() != null){
+
+                String deviceId = deviceIdExtractor.extractKey(data);
+
+                if(deviceId == null){
+                    listener.onStepError(this, data, "Unable to identify the target device of the command ! Skipping processing ....");
+                    return;
+                }
+
+                commandController.submit(deviceId, appIdExtractor.extractKey(data), data, this, listener);
+            }
+            else
+                logger.error("Processing Step Listener or MqttProcessingInfo Data = Null ! Skipping processing step");
+
+        }catch (Exception e){
+            logger.error("MQTT Processing Step Error: {}", e.getLocalizedMessage());
+
+            if(listener != null)
+                listener.onStepError(this, data, e.getLocalizedMessage());
+        }
+    }
+
+    public CommandController getCommandController() {
+        return commandController;
+    }
+}
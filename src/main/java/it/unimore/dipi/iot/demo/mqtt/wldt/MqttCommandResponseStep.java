@@ -0,0 +1,117 @@
+package it.unimore.dipi.iot.demo.mqtt.wldt;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import it.unimore.dipi.iot.demo.mqtt.wldt.correlation.CommandCorrelationTracker;
+import it.unimore.dipi.iot.demo.mqtt.wldt.state.StateKeyExtractor;
+import it.unimore.dipi.iot.wldt.processing.PipelineData;
+import it.unimore.dipi.iot.wldt.processing.ProcessingStep;
+import it.unimore.dipi.iot.wldt.processing.ProcessingStepListener;
+import it.unimore.dipi.iot.wldt.processing.cache.PipelineCache;
+import it.unimore.dipi.iot.wldt.worker.mqtt.MqttPipelineData;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.util.Optional;
+
+/**
+ * WLDT ProcessingStep matching the command responses of the devices (E.g. on commands/{{device_id}}/response)
+ * with the outstanding commands of a CommandCorrelationTracker, through the correlationId field of the JSON response.
+ * The response is forwarded unchanged, also when it can not be matched (E.g. received after the timeout).
+ *
+ * Only the top level fields of the response are scanned by a streaming parser, the document is not bound to an object.
+ *
+ * @created: 18/10/2026
+ * @project: WLDT - MQTT Example
+ */
+public class MqttCommandResponseStep implements ProcessingStep {
+
+    private static final Logger logger = LoggerFactory.getLogger(MqttCommandResponseStep.class);
+
+    public static final String CORRELATION_ID_FIELD = "correlationId";
+
+    private final CommandCorrelationTracker correlationTracker;
+
+    private final StateKeyExtractor deviceIdExtractor;
+
+    private final JsonFactory jsonFactory = new JsonFactory();
+
+    /**
+     * The device is identified by the second level of the response topic (E.g. commands/com:iot:dummy:dummyMqttDevice001/response)
+     */
+    public MqttCommandResponseStep(CommandCorrelationTracker correlationTracker) {
+        this(correlationTracker, StateKeyExtractor.byTopicSegments(1));
+    }
+
+    /**
+     * @param deviceIdExtractor identifies the device sending the response, a response is matched only with the
+     *                          commands sent to the same device
+     */
+    public MqttCommandResponseStep(CommandCorrelationTracker correlationTracker, StateKeyExtractor deviceIdExtractor) {
+        this.correlationTracker = correlationTracker;
+        this.deviceIdExtractor = deviceIdExtractor;
+    }
+
+    @Override
+    public void execute(PipelineCache pipelineCache, PipelineData incomingData, ProcessingStepListener listener) {
+
+        MqttPipelineData data = null;
+
+        if(incomingData instanceof MqttPipelineData)
+            data = (MqttPipelineData)incomingData;
+        else if(listener != null)
+            listener.onStepError(this, incomingData, String.format("Wrong PipelineData for MqttCommandResponseStep ! Data type: %s", incomingData.getClass()));
+        else
+            logger.error("Wrong PipelineData for MqttCommandResponseStep ! Data type: {}", incomingData.getClass());
+
+        try{
+
+            if(listener != null && data != null && data.getPayload() != null){
+                correlationTracker.onResponse(deviceIdExtractor.extractKey(data), parseCorrelationId(data.getPayload()));
+                listener.onStepDone(this, Optional.of(data));
+            }
+            else
+                logger.error("Processing Step Listener or MqttProcessingInfo Data = Null ! Skipping processing step");
+
+        }catch (Exception e){
+            logger.error("MQTT Processing Step Error: {}", e.getLocalizedMessage());
+
+            if(listener != null)
+                listener.onStepError(this, data, e.getLocalizedMessage());
+        }
+    }
+
+    /**
+     * @return the correlation id of the response or null if it is missing or the payload is not a JSON object
+     */
+    private String parseCorrelationId(byte[] payload) {
+
+        try(JsonParser parser = jsonFactory.createParser(payload)){
+
+            if(parser.nextToken() != JsonToken.START_OBJECT)
+                return null;
+
+            while(parser.nextToken() == JsonToken.FIELD_NAME){
+
+                String fieldName = parser.getCurrentName();
+                JsonToken valueToken = parser.nextToken();
+
+                if(CORRELATION_ID_FIELD.equals(fieldName))
+                    return valueToken == JsonToken.VALUE_STRING ? parser.getText() : null;
+
+                parser.skipChildren();
+            }
+
+        }catch (IOException e){
+            logger.debug("Invalid command response: {}", e.getLocalizedMessage());
+        }
+
+        return null;
+    }
+
+    public CommandCorrelationTracker getCorrelationTracker() {
+        return correlationTracker;
+    }
+}
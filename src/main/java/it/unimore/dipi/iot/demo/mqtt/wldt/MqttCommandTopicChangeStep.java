@@ -1,57 +1,23 @@
 package it.unimore.dipi.iot.demo.mqtt.wldt;
 
-import it.unimore.dipi.iot.wldt.processing.PipelineData;
-import it.unimore.dipi.iot.wldt.processing.ProcessingStep;
-import it.unimore.dipi.iot.wldt.processing.ProcessingStepListener;
-import it.unimore.dipi.iot.wldt.processing.cache.PipelineCache;
-import it.unimore.dipi.iot.wldt.worker.mqtt.MqttPipelineData;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
-
-import java.util.Objects;
-import java.util.Optional;
+import it.unimore.dipi.iot.demo.mqtt.wldt.topic.TopicRewriteRule;
 
 /**
  * WLDT ProcessingStep that changes the outgoing topic keeping the same
- * received payload
+ * received payload. Only the first topic level is mapped (command/... -> cmd/...),
+ * a command level appearing later in the topic is not changed.
  *
  * @author : Marco Picone, Ph.D. (marco.picone@unimore.it)
  * @created: 21/05/2021
  * @project: WLDT - MQTT Example
  */
-public class MqttCommandTopicChangeStep implements ProcessingStep {
-
-    private static final Logger logger = LoggerFactory.getLogger(MqttCommandTopicChangeStep.class);
-
-    public MqttCommandTopicChangeStep() {
-    }
+public class MqttCommandTopicChangeStep extends MqttTopicRewriteStep {
 
-    @Override
-    public void execute(PipelineCache pipelineCache, PipelineData incomingData, ProcessingStepListener listener) {
+    public static final String INCOMING_COMMAND_TOPIC_LEVEL = "command";
 
-        MqttPipelineData data = null;
+    public static final String OUTGOING_COMMAND_TOPIC_LEVEL = "cmd";
 
-        if(incomingData instanceof MqttPipelineData)
-            data = (MqttPipelineData)incomingData;
-        else if(listener != null)
-            listener.onStepError(this, incomingData, String.format("Wrong PipelineData for MqttAverageProcessingStep ! Data type: %s", incomingData.getClass()));
-        else
-            logger.error("Wrong PipelineData for MqttAverageProcessingStep ! Data type: {}", incomingData.getClass());
-
-        try{
-
-            if(listener != null && Objects.requireNonNull(data).getPayload() != null) {
-                String newTopic = data.getTopic().replace("command/", "cmd/");
-                listener.onStepDone(this, Optional.of(new MqttPipelineData(newTopic, data.getMqttTopicDescriptor(), data.getPayload(), data.isRetained())));
-            }
-            else
-                logger.error("Processing Step Listener or MqttProcessingInfo Data = Null ! Skipping processing step");
-
-        }catch (Exception e){
-            logger.error("MQTT Processing Step Error: {}", e.getLocalizedMessage());
-
-            if(listener != null)
-                listener.onStepError(this, data, e.getLocalizedMessage());
-        }
+    public MqttCommandTopicChangeStep() {
+        super(TopicRewriteRule.segment(0, INCOMING_COMMAND_TOPIC_LEVEL, OUTGOING_COMMAND_TOPIC_LEVEL));
     }
 }
@@ -0,0 +1,118 @@
+package it.unimore.dipi.iot.demo.mqtt.wldt;
+
+import it.unimore.dipi.iot.demo.mqtt.wldt.pipeline.LazyMqttPipelineData;
+import it.unimore.dipi.iot.demo.mqtt.wldt.shadow.DeadbandConfiguration;
+import it.unimore.dipi.iot.demo.mqtt.wldt.shadow.ShadowState;
+import it.unimore.dipi.iot.demo.mqtt.wldt.shadow.ShadowStateCache;
+import it.unimore.dipi.iot.demo.mqtt.wldt.state.StateKeyExtractor;
+import it.unimore.dipi.iot.wldt.processing.PipelineData;
+import it.unimore.dipi.iot.wldt.processing.ProcessingStep;
+import it.unimore.dipi.iot.wldt.processing.ProcessingStepListener;
+import it.unimore.dipi.iot.wldt.processing.cache.PipelineCache;
+import it.unimore.dipi.iot.wldt.worker.mqtt.MqttPipelineData;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Optional;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * WLDT ProcessingStep that stores every received message in a ShadowStateCache (one state for each state key,
+ * by default the concrete topic) and forwards it only if it changed beyond the configured deadband, otherwise
+ * the processing ends without publishing (E.g. a stable temperature is not published again and again).
+ *
+ * The step should be added just before the publish step, so the shadow contains the state as seen by the consumers
+ * of the destination broker and can be served by the ShadowSnapshotService.
+ *
+ * @created: 18/10/2026
+ * @project: WLDT - MQTT Example
+ */
+public class MqttDeadbandFilterStep implements ProcessingStep {
+
+    private static final Logger logger = LoggerFactory.getLogger(MqttDeadbandFilterStep.class);
+
+    private final ShadowStateCache shadowStateCache;
+
+    private final DeadbandConfiguration deadband;
+
+    private final StateKeyExtractor stateKeyExtractor;
+
+    private final LongAdder forwardedCount = new LongAdder();
+
+    private final LongAdder suppressedCount = new LongAdder();
+
+    public MqttDeadbandFilterStep(ShadowStateCache shadowStateCache) {
+        this(shadowStateCache, new DeadbandConfiguration());
+    }
+
+    public MqttDeadbandFilterStep(ShadowStateCache shadowStateCache, DeadbandConfiguration deadband) {
+        this(shadowStateCache, deadband, StateKeyExtractor.byTopic());
+    }
+
+    public MqttDeadbandFilterStep(ShadowStateCache shadowStateCache, DeadbandConfiguration deadband, StateKeyExtractor stateKeyExtractor) {
+
+        deadband.validate();
+
+        this.shadowStateCache = shadowStateCache;
+        this.deadband = deadband;
+        this.stateKeyExtractor = stateKeyExtractor;
+    }
+
+    @Override
+    public void execute(PipelineCache pipelineCache, PipelineData incomingData, ProcessingStepListener listener) {
+
+        MqttPipelineData data = null;
+
+        if(incomingData instanceof MqttPipelineData)
+            data = (MqttPipelineData)incomingData;
+        else if(listener != null)
+            listener.onStepError(this, incomingData, String.format("Wrong PipelineData for MqttDeadbandFilterStep ! Data type: %s", incomingData.getClass()));
+        else
+            logger.error("Wrong PipelineData for MqttDeadbandFilterStep ! Data type: {}", incomingData.getClass());
+
+        try{
+
+            if(listener != null && data != null && data.getPayload() != null){
+
+                //The state references the payload after the end of the message
+                LazyMqttPipelineData lazyData = LazyMqttPipelineData.of(data).retainPayload();
+                ShadowState state = shadowStateCache.getOrCreate(stateKeyExtractor.extractKey(data));
+
+                //Without a state the change can not be detected: the message is forwarded
+                if(state == null || state.update(data.getTopic(), data.getPayload(), lazyData.getNumericValue(), data.isRetained(), System.currentTimeMillis(), deadband)){
+                    forwardedCount.increment();
+                    listener.onStepDone(this, lazyData.asOptional());
+                }
+                else {
+                    suppressedCount.increment();
+                    lazyData.release();
+                    listener.onStepDone(this, Optional.empty());
+                }
+            }
+            else
+                logger.error("Processing Step Listener or MqttProcessingInfo Data = Null ! Skipping processing step");
+
+        }catch (Exception e){
+            logger.error("MQTT Processing Step Error: {}", e.getLocalizedMessage());
+
+            if(listener != null)
+                listener.onStepError(this, data, e.getLocalizedMessage());
+        }
+    }
+
+    public ShadowStateCache getShadowStateCache() {
+        return shadowStateCache;
+    }
+
+    public DeadbandConfiguration getDeadband() {
+        return deadband;
+    }
+
+    public long getForwardedCount() {
+        return forwardedCount.sum();
+    }
+
+    public long getSuppressedCount() {
+        return suppressedCount.sum();
+    }
+}
@@ -0,0 +1,88 @@
+package it.unimore.dipi.iot.demo.mqtt.wldt;
+
+import it.unimore.dipi.iot.demo.mqtt.utils.LogSampler;
+import it.unimore.dipi.iot.demo.mqtt.wldt.history.HistoryStore;
+import it.unimore.dipi.iot.demo.mqtt.wldt.pipeline.LazyMqttPipelineData;
+import it.unimore.dipi.iot.demo.mqtt.wldt.state.StateKeyExtractor;
+import it.unimore.dipi.iot.wldt.processing.PipelineData;
+import it.unimore.dipi.iot.wldt.processing.ProcessingStep;
+import it.unimore.dipi.iot.wldt.processing.ProcessingStepListener;
+import it.unimore.dipi.iot.wldt.processing.cache.PipelineCache;
+import it.unimore.dipi.iot.wldt.worker.mqtt.MqttPipelineData;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Optional;
+
+/**
+ * WLDT ProcessingStep that records the numeric values of the received messages in a HistoryStore
+ * (one series for each state key, by default the concrete topic) with the reception time as timestamp.
+ *
+ * The received data is forwarded unchanged to the next step, so the step can be added to an existing pipeline
+ * (E.g. before the MqttStreamingAverageStep). Payloads that are not a number are forwarded without being recorded.
+ *
+ * @created: 18/10/2026
+ * @project: WLDT - MQTT Example
+ */
+public class MqttHistoryStep implements ProcessingStep {
+
+    private static final Logger logger = LoggerFactory.getLogger(MqttHistoryStep.class);
+
+    private static final LogSampler skipLogSampler = LogSampler.perSecond(1);
+
+    private final HistoryStore historyStore;
+
+    private final StateKeyExtractor seriesKeyExtractor;
+
+    public MqttHistoryStep(HistoryStore historyStore) {
+        this(historyStore, StateKeyExtractor.byTopic());
+    }
+
+    public MqttHistoryStep(HistoryStore historyStore, StateKeyExtractor seriesKeyExtractor) {
+        this.historyStore = historyStore;
+        this.seriesKeyExtractor = seriesKeyExtractor;
+    }
+
+    @Override
+    public void execute(PipelineCache pipelineCache, PipelineData incomingData, ProcessingStepListener listener) {
+
+        MqttPipelineData data = null;
+
+        if(incomingData instanceof MqttPipelineData)
+            data = (MqttPipelineData)incomingData;
+        else if(listener != null)
+            listener.onStepError(this, incomingData, String.format("Wrong PipelineData for MqttHistoryStep ! Data type: %s", incomingData.getClass()));
+        else
+            logger.error("Wrong PipelineData for MqttHistoryStep ! Data type: {}", incomingData.getClass());
+
+        try{
+
+            if(listener != null && data != null && data.getPayload() != null){
+
+                //The decoded value is kept for the following steps
+                LazyMqttPipelineData lazyData = LazyMqttPipelineData.of(data);
+                double value = lazyData.getNumericValue();
+                String seriesKey = seriesKeyExtractor.extractKey(data);
+
+                if(!Double.isNaN(value) && seriesKey != null)
+                    historyStore.record(seriesKey, System.currentTimeMillis(), value);
+                else if(skipLogSampler.sample())
+                    logger.warn("Value of topic {} not recorded in the history: payload is not a number or the series key is missing ! Suppressed: {}", data.getTopic(), skipLogSampler.drainSuppressedCount());
+
+                listener.onStepDone(this, lazyData.asOptional());
+            }
+            else
+                logger.error("Processing Step Listener or MqttProcessingInfo Data = Null ! Skipping processing step");
+
+        }catch (Exception e){
+            logger.error("MQTT Processing Step Error: {}", e.getLocalizedMessage());
+
+            if(listener != null)
+                listener.onStepError(this, data, e.getLocalizedMessage());
+        }
+    }
+
+    public HistoryStore getHistoryStore() {
+        return historyStore;
+    }
+}
@@ -2,6 +2,10 @@ package it.unimore.dipi.iot.demo.mqtt.wldt;
 
 import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import it.unimore.dipi.iot.demo.mqtt.wldt.codec.CommandDataStructureEncoder;
+import it.unimore.dipi.iot.demo.mqtt.wldt.correlation.CommandCorrelationTracker;
+import it.unimore.dipi.iot.demo.mqtt.wldt.pipeline.LazyMqttPipelineData;
+import it.unimore.dipi.iot.demo.mqtt.wldt.state.StateKeyExtractor;
 import it.unimore.dipi.iot.wldt.processing.PipelineData;
 import it.unimore.dipi.iot.wldt.processing.ProcessingStep;
 import it.unimore.dipi.iot.wldt.processing.ProcessingStepListener;
@@ -17,6 +21,13 @@ import java.util.Optional;
  * WLDT ProcessingStep that changes the incoming MQTT Payload (a number)
  * into a new structured payload modeled through the class DemoDataStructure
  *
+ * By default the JSON document is written by the precompiled CommandDataStructureEncoder,
+ * while the Jackson ObjectMapper is used when the streaming encoder is disabled or the payload
+ * is not a valid UTF-8 sequence.
+ *
+ * When a CommandCorrelationTracker is provided each command is registered as outstanding and its correlation id
+ * is added to the document, so the response of the device can be matched (see MqttCommandResponseStep).
+ *
  * @author : Marco Picone, Ph.D. (marco.picone@unimore.it)
  * @created: 21/05/2021
  * @project: WLDT - MQTT Example
@@ -27,9 +38,41 @@ public class MqttPayloadChangeStep implements ProcessingStep {
 
     private ObjectMapper mapper;
 
+    private final CommandDataStructureEncoder encoder;
+
+    private final CommandCorrelationTracker correlationTracker;
+
+    private final StateKeyExtractor deviceIdExtractor;
+
     public MqttPayloadChangeStep() {
+        this(true);
+    }
+
+    /**
+     * @param streamingEncoderEnabled if false each command is serialized through the Jackson ObjectMapper
+     */
+    public MqttPayloadChangeStep(boolean streamingEncoderEnabled) {
+        this(streamingEncoderEnabled, null, null);
+    }
+
+    /**
+     * Commands are tracked by the correlation tracker. The device is identified by the second level of the
+     * command topic (E.g. command/com:iot:dummy:dummyMqttDevice001).
+     */
+    public MqttPayloadChangeStep(CommandCorrelationTracker correlationTracker) {
+        this(true, correlationTracker, StateKeyExtractor.byTopicSegments(1));
+    }
+
+    /**
+     * @param correlationTracker tracker of the outstanding commands, null to send the commands without correlation id
+     * @param deviceIdExtractor identifies the target device of the command
+     */
+    public MqttPayloadChangeStep(boolean streamingEncoderEnabled, CommandCorrelationTracker correlationTracker, StateKeyExtractor deviceIdExtractor) {
         this.mapper = new ObjectMapper();
         this.mapper.setSerializationInclusion(JsonInclude.Include.NON_NULL);
+        this.encoder = streamingEncoderEnabled ? new CommandDataStructureEncoder() : null;
+        this.correlationTracker = correlationTracker;
+        this.deviceIdExtractor = deviceIdExtractor;
     }
 
     @Override
@@ -40,14 +83,15 @@ public class MqttPayloadChangeStep implements ProcessingStep {
         if(incomingData instanceof MqttPipelineData)
             data = (MqttPipelineData)incomingData;
         else if(listener != null)
-            listener.onStepError(this, incomingData, String.format("Wrong PipelineData for MqttAverageProcessingStep ! Data type: %s", incomingData.getClass()));
+            listener.onStepError(this, incomingData, String.format("Wrong PipelineData for MqttPayloadChangeStep ! Data type: %s", incomingData.getClass()));
         else
-            logger.error("Wrong PipelineData for MqttAverageProcessingStep ! Data type: {}", incomingData.getClass());
+            logger.error("Wrong PipelineData for MqttPayloadChangeStep ! Data type: {}", incomingData.getClass());
 
         try{
 
             if(listener != null && Objects.requireNonNull(data).getPayload() != null) {
-                listener.onStepDone(this, Optional.of(new MqttPipelineData(data.getTopic(), data.getMqttTopicDescriptor(), mapper.writeValueAsBytes(new CommandDataStructure(data.getPayload())), data.isRetained())));
+                byte[] encodedCommand = encodeCommand(data.getPayload(), registerCommand(data));
+                listener.onStepDone(this, LazyMqttPipelineData.of(data).withPayload(encodedCommand).asOptional());
             }
             else
                 logger.error("Processing Step Listener or MqttProcessingInfo Data = Null ! Skipping processing step");
@@ -60,17 +104,27 @@ public class MqttPayloadChangeStep implements ProcessingStep {
         }
     }
 
+    /**
+     * @return the correlation id of the command or null if it is not tracked
+     */
+    private String registerCommand(MqttPipelineData data) {
 
-    private static boolean isNumeric(String strNum) {
-        if (strNum == null) {
-            return false;
-        }
-        try {
-            double d = Double.parseDouble(strNum);
-        } catch (NumberFormatException nfe) {
-            return false;
-        }
-        return true;
+        if(correlationTracker == null)
+            return null;
+
+        String deviceId = deviceIdExtractor.extractKey(data);
+
+        return deviceId != null ? correlationTracker.register(deviceId) : null;
+    }
+
+    private byte[] encodeCommand(byte[] payload, String correlationId) throws Exception {
+
+        byte[] encodedCommand = encoder != null ? encoder.encode(System.currentTimeMillis(), correlationId, payload) : null;
+
+        if(encodedCommand != null)
+            return encodedCommand;
+
+        return mapper.writeValueAsBytes(new CommandDataStructure(payload, correlationId));
     }
 
 }
@@ -0,0 +1,128 @@
+package it.unimore.dipi.iot.demo.mqtt.wldt;
+
+import it.unimore.dipi.iot.demo.mqtt.wldt.codec.TelemetryCodec;
+import it.unimore.dipi.iot.demo.mqtt.wldt.pipeline.LazyMqttPipelineData;
+import it.unimore.dipi.iot.wldt.processing.PipelineData;
+import it.unimore.dipi.iot.wldt.processing.ProcessingStep;
+import it.unimore.dipi.iot.wldt.processing.ProcessingStepListener;
+import it.unimore.dipi.iot.wldt.processing.cache.PipelineCache;
+import it.unimore.dipi.iot.wldt.worker.mqtt.MqttPipelineData;
+import it.unimore.dipi.iot.wldt.worker.mqtt.MqttTopicDescriptor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * WLDT ProcessingStep that transcodes a numeric telemetry payload between the formats of TelemetryCodec
+ * (plain text, JSON, CBOR, MessagePack and SenML CBOR) keeping the same topic.
+ *
+ * Incoming and outgoing formats can be selected for each MqttTopicDescriptor (through its id), otherwise the
+ * default formats are used. E.g. devices publishing plain text on a constrained uplink forwarded as CBOR:
+ *
+ * new MqttPayloadCodecStep(TelemetryCodec.TEXT, TelemetryCodec.CBOR)
+ *
+ * The SenML record name is the resource id of the MqttTopicDescriptor.
+ *
+ * @created: 18/10/2026
+ * @project: WLDT - MQTT Example
+ */
+public class MqttPayloadCodecStep implements ProcessingStep {
+
+    private static final Logger logger = LoggerFactory.getLogger(MqttPayloadCodecStep.class);
+
+    private final TelemetryCodec defaultInputCodec;
+
+    private final TelemetryCodec defaultOutputCodec;
+
+    private final Map<String, TelemetryCodec> inputCodecs = new ConcurrentHashMap<>();
+
+    private final Map<String, TelemetryCodec> outputCodecs = new ConcurrentHashMap<>();
+
+    public MqttPayloadCodecStep(TelemetryCodec defaultInputCodec, TelemetryCodec defaultOutputCodec) {
+        this.defaultInputCodec = Objects.requireNonNull(defaultInputCodec);
+        this.defaultOutputCodec = Objects.requireNonNull(defaultOutputCodec);
+    }
+
+    /**
+     * Select the formats of the messages associated to a specific MqttTopicDescriptor
+     *
+     * @param topicDescriptorId id of the MqttTopicDescriptor
+     */
+    public MqttPayloadCodecStep setCodecs(String topicDescriptorId, TelemetryCodec inputCodec, TelemetryCodec outputCodec) {
+        this.inputCodecs.put(topicDescriptorId, Objects.requireNonNull(inputCodec));
+        this.outputCodecs.put(topicDescriptorId, Objects.requireNonNull(outputCodec));
+        return this;
+    }
+
+    @Override
+    public void execute(PipelineCache pipelineCache, PipelineData incomingData, ProcessingStepListener listener) {
+
+        MqttPipelineData data = null;
+
+        if(incomingData instanceof MqttPipelineData)
+            data = (MqttPipelineData)incomingData;
+        else if(listener != null)
+            listener.onStepError(this, incomingData, String.format("Wrong PipelineData for MqttPayloadCodecStep ! Data type: %s", incomingData.getClass()));
+        else
+            logger.error("Wrong PipelineData for MqttPayloadCodecStep ! Data type: {}", incomingData.getClass());
+
+        try{
+
+            if(listener != null && Objects.requireNonNull(data).getPayload() != null) {
+
+                MqttTopicDescriptor topicDescriptor = data.getMqttTopicDescriptor();
+                String topicDescriptorId = topicDescriptor != null ? topicDescriptor.getId() : null;
+
+                TelemetryCodec inputCodec = selectCodec(inputCodecs, topicDescriptorId, defaultInputCodec);
+                TelemetryCodec outputCodec = selectCodec(outputCodecs, topicDescriptorId, defaultOutputCodec);
+
+                if(inputCodec == outputCodec){
+                    listener.onStepDone(this, Optional.of(data));
+                    return;
+                }
+
+                LazyMqttPipelineData lazyData = LazyMqttPipelineData.of(data);
+
+                //Plain text numbers are decoded once for all the steps
+                double value = inputCodec == TelemetryCodec.TEXT ? lazyData.getNumericValue() : inputCodec.decode(data.getPayload());
+
+                if(Double.isNaN(value)){
+                    listener.onStepError(this, data, String.format("Payload is not a valid %s value ! Skipping processing ....", inputCodec));
+                    return;
+                }
+
+                byte[] payload = outputCodec.encode(value, topicDescriptor != null ? topicDescriptor.getResourceId() : null);
+                listener.onStepDone(this, lazyData.withPayload(payload).asOptional());
+            }
+            else
+                logger.error("Processing Step Listener or MqttProcessingInfo Data = Null ! Skipping processing step");
+
+        }catch (Exception e){
+            logger.error("MQTT Processing Step Error: {}", e.getLocalizedMessage());
+
+            if(listener != null)
+                listener.onStepError(this, data, e.getLocalizedMessage());
+        }
+    }
+
+    private static TelemetryCodec selectCodec(Map<String, TelemetryCodec> codecs, String topicDescriptorId, TelemetryCodec defaultCodec) {
+
+        if(topicDescriptorId == null || codecs.isEmpty())
+            return defaultCodec;
+
+        TelemetryCodec codec = codecs.get(topicDescriptorId);
+        return codec != null ? codec : defaultCodec;
+    }
+
+    public TelemetryCodec getDefaultInputCodec() {
+        return defaultInputCodec;
+    }
+
+    public TelemetryCodec getDefaultOutputCodec() {
+        return defaultOutputCodec;
+    }
+}
@@ -0,0 +1,73 @@
+package it.unimore.dipi.iot.demo.mqtt.wldt;
+
+import it.unimore.dipi.iot.demo.mqtt.wldt.publish.OutgoingPublisher;
+import it.unimore.dipi.iot.demo.mqtt.wldt.startup.StartupReport;
+import it.unimore.dipi.iot.wldt.processing.PipelineData;
+import it.unimore.dipi.iot.wldt.processing.ProcessingStep;
+import it.unimore.dipi.iot.wldt.processing.ProcessingStepListener;
+import it.unimore.dipi.iot.wldt.processing.cache.PipelineCache;
+import it.unimore.dipi.iot.wldt.worker.mqtt.MqttPipelineData;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * WLDT ProcessingStep that hands the processed message to an OutgoingPublisher
+ * (BatchingMqttPublisher or StoreAndForwardMqttPublisher).
+ * It has to be used as the last step of a pipeline: the step result is always empty
+ * so the message is not published again by the Mqtt2MqttWorker outgoing client.
+ *
+ * @created: 18/10/2026
+ * @project: WLDT - MQTT Example
+ */
+public class MqttPublishStep implements ProcessingStep {
+
+    private static final Logger logger = LoggerFactory.getLogger(MqttPublishStep.class);
+
+    private final OutgoingPublisher publisher;
+
+    public MqttPublishStep(OutgoingPublisher publisher) {
+        this.publisher = publisher;
+    }
+
+    @Override
+    public void execute(PipelineCache pipelineCache, PipelineData incomingData, ProcessingStepListener listener) {
+
+        MqttPipelineData data = null;
+
+        if(incomingData instanceof MqttPipelineData)
+            data = (MqttPipelineData)incomingData;
+        else if(listener != null)
+            listener.onStepError(this, incomingData, String.format("Wrong PipelineData for MqttPublishStep ! Data type: %s", incomingData.getClass()));
+        else
+            logger.error("Wrong PipelineData for MqttPublishStep ! Data type: {}", incomingData.getClass());
+
+        try{
+
+            if(listener != null && Objects.requireNonNull(data).getPayload() != null) {
+                if(publisher.publish(data)) {
+                    StartupReport.getDefault().onMessageForwarded();
+                    listener.onStepDone(this, Optional.empty());
+                }
+                else {
+                    //The rejected data is released by the pipeline execution
+                    listener.onStepError(this, data, "Message rejected by the outgoing publisher ! Message discarded");
+                }
+            }
+            else
+                logger.error("Processing Step Listener or MqttProcessingInfo Data = Null ! Skipping processing step");
+
+        }catch (Exception e){
+            logger.error("MQTT Processing Step Error: {}", e.getLocalizedMessage());
+
+            if(listener != null)
+                listener.onStepError(this, data, e.getLocalizedMessage());
+        }
+    }
+
+    public OutgoingPublisher getPublisher() {
+        return publisher;
+    }
+}
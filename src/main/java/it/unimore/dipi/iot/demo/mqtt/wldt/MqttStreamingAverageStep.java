@@ -0,0 +1,141 @@
+package it.unimore.dipi.iot.demo.mqtt.wldt;
+
+import it.unimore.dipi.iot.demo.mqtt.wldt.aggregation.StreamingAggregator;
+import it.unimore.dipi.iot.demo.mqtt.wldt.pipeline.LazyMqttPipelineData;
+import it.unimore.dipi.iot.demo.mqtt.wldt.state.StateKeyExtractor;
+import it.unimore.dipi.iot.demo.mqtt.wldt.state.TopicStateStore;
+import it.unimore.dipi.iot.demo.mqtt.wldt.topic.TopicRewriteRule;
+import it.unimore.dipi.iot.demo.mqtt.wldt.topic.TopicRewriter;
+import it.unimore.dipi.iot.wldt.processing.PipelineData;
+import it.unimore.dipi.iot.wldt.processing.ProcessingStep;
+import it.unimore.dipi.iot.wldt.processing.ProcessingStepListener;
+import it.unimore.dipi.iot.wldt.processing.cache.PipelineCache;
+import it.unimore.dipi.iot.wldt.worker.mqtt.MqttPipelineData;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Optional;
+
+/**
+ * WLDT ProcessingStep that averages a configurable window of received
+ * numeric values and then publish the new value on the topic <topic>/average
+ *
+ * Differently from MqttAverageProcessingStep the received values are not stored:
+ * the payload is parsed directly from the received byte[] and folded into a
+ * StreamingAggregator (count, sum, min, max and variance kept in primitive fields).
+ * When the window is not completed the step does not allocate any object.
+ *
+ * A separated aggregator is kept for each state key (by default the concrete topic) inside a TopicStateStore,
+ * so each device/resource mirrored through the same pipeline has its own average.
+ *
+ * @created: 18/10/2026
+ * @project: WLDT - MQTT Example
+ */
+public class MqttStreamingAverageStep implements ProcessingStep {
+
+    private static final Logger logger = LoggerFactory.getLogger(MqttStreamingAverageStep.class);
+
+    public final static int DEFAULT_WINDOW_SIZE = 10;
+
+    private final static String AVERAGE_TOPIC_SUFFIX = "average";
+
+    private final int windowSize;
+
+    private final StateKeyExtractor stateKeyExtractor;
+
+    private final TopicStateStore<StreamingAggregator> aggregatorStore;
+
+    private final TopicRewriter averageTopicRewriter = new TopicRewriter(TopicRewriteRule.suffix(AVERAGE_TOPIC_SUFFIX));
+
+    public MqttStreamingAverageStep() {
+        this(DEFAULT_WINDOW_SIZE);
+    }
+
+    public MqttStreamingAverageStep(int windowSize) {
+        this(windowSize, StateKeyExtractor.byTopic(), new TopicStateStore<>(key -> new StreamingAggregator()));
+    }
+
+    public MqttStreamingAverageStep(int windowSize, StateKeyExtractor stateKeyExtractor, TopicStateStore<StreamingAggregator> aggregatorStore) {
+
+        if(windowSize <= 0)
+            throw new IllegalArgumentException(String.format("Invalid window size: %d ! It must be greater than 0", windowSize));
+
+        this.windowSize = windowSize;
+        this.stateKeyExtractor = stateKeyExtractor;
+        this.aggregatorStore = aggregatorStore;
+        this.aggregatorStore.startEviction(TopicStateStore.DEFAULT_EVICTION_PERIOD_MS);
+    }
+
+    @Override
+    public void execute(PipelineCache pipelineCache, PipelineData incomingData, ProcessingStepListener listener) {
+
+        MqttPipelineData data = null;
+
+        if(incomingData instanceof MqttPipelineData)
+            data = (MqttPipelineData)incomingData;
+        else if(listener != null)
+            listener.onStepError(this, incomingData, String.format("Wrong PipelineData for MqttStreamingAverageStep ! Data type: %s", incomingData.getClass()));
+        else
+            logger.error("Wrong PipelineData for MqttStreamingAverageStep ! Data type: {}", incomingData.getClass());
+
+        try{
+
+            if(listener != null && data != null && data.getPayload() != null){
+
+                //The data is copied only when the window is completed and the average is forwarded
+                double value = LazyMqttPipelineData.numericValueOf(data);
+
+                if(Double.isNaN(value)){
+                    listener.onStepError(this, data, "Provided Payload is not a Number ! Skipping processing ....");
+                    return;
+                }
+
+                StreamingAggregator aggregator = aggregatorStore.getOrCreate(stateKeyExtractor.extractKey(data));
+
+                if(aggregator == null){
+                    listener.onStepError(this, data, "Unable to retrieve the state associated to the received data ! Skipping processing ....");
+                    return;
+                }
+
+                aggregator.add(value);
+
+                if(aggregator.getCount() >= windowSize){
+
+                    double average = aggregator.getAverage();
+
+                    if(logger.isDebugEnabled())
+                        logger.debug("Window completed for topic: {} -> {}", data.getTopic(), aggregator);
+
+                    aggregator.reset();
+
+                    listener.onStepDone(this, LazyMqttPipelineData.of(data).withTopic(averageTopicRewriter.rewrite(data.getTopic())).withNumericPayload(average).asOptional());
+                }
+                else {
+                    LazyMqttPipelineData.release(data);
+                    listener.onStepDone(this, Optional.empty());
+                }
+
+            }
+            else
+                logger.error("Processing Step Listener or MqttProcessingInfo Data = Null ! Skipping processing step");
+
+        }catch (Exception e){
+            logger.error("MQTT Processing Step Error: {}", e.getLocalizedMessage());
+
+            if(listener != null)
+                listener.onStepError(this, data, e.getLocalizedMessage());
+        }
+    }
+
+    /**
+     * Stop the periodic eviction of idle aggregators and release the stored states
+     */
+    public void close() {
+        this.aggregatorStore.close();
+    }
+
+    public int getWindowSize() {
+        return windowSize;
+    }
+
+}
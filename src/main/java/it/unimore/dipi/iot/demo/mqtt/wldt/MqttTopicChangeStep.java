@@ -1,70 +1,21 @@
 package it.unimore.dipi.iot.demo.mqtt.wldt;
 
-import it.unimore.dipi.iot.wldt.processing.PipelineData;
-import it.unimore.dipi.iot.wldt.processing.ProcessingStep;
-import it.unimore.dipi.iot.wldt.processing.ProcessingStepListener;
-import it.unimore.dipi.iot.wldt.processing.cache.PipelineCache;
-import it.unimore.dipi.iot.wldt.worker.mqtt.MqttPipelineData;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
-import java.util.Objects;
-import java.util.Optional;
+import it.unimore.dipi.iot.demo.mqtt.wldt.topic.TopicRewriteRule;
 
 /**
  * WLDT ProcessingStep that changes the outgoing topic keeping the same
- * received payload
+ * received payload. The topic is published under the pipeline/ level (E.g. pipeline/telemetry/device01/...)
  *
  * @author : Marco Picone, Ph.D. (marco.picone@unimore.it)
  * @created: 21/05/2021
  * @project: WLDT - MQTT Example
  */
-public class MqttTopicChangeStep implements ProcessingStep {
+public class MqttTopicChangeStep extends MqttTopicRewriteStep {
 
-    private static final Logger logger = LoggerFactory.getLogger(MqttTopicChangeStep.class);
+    public static final String PIPELINE_TOPIC_PREFIX = "pipeline";
 
     public MqttTopicChangeStep() {
-    }
-
-    @Override
-    public void execute(PipelineCache pipelineCache, PipelineData incomingData, ProcessingStepListener listener) {
-
-        MqttPipelineData data = null;
-
-        if(incomingData instanceof MqttPipelineData)
-            data = (MqttPipelineData)incomingData;
-        else if(listener != null)
-            listener.onStepError(this, incomingData, String.format("Wrong PipelineData for MqttAverageProcessingStep ! Data type: %s", incomingData.getClass()));
-        else
-            logger.error("Wrong PipelineData for MqttAverageProcessingStep ! Data type: {}", incomingData.getClass());
-
-        try{
-
-            if(listener != null && Objects.requireNonNull(data).getPayload() != null) {
-                String newTopic = String.format("%s/%s", "pipeline", data.getTopic());
-                listener.onStepDone(this, Optional.of(new MqttPipelineData(newTopic, data.getMqttTopicDescriptor(), data.getPayload(), data.isRetained())));
-            }
-            else
-                logger.error("Processing Step Listener or MqttProcessingInfo Data = Null ! Skipping processing step");
-
-        }catch (Exception e){
-            logger.error("MQTT Processing Step Error: {}", e.getLocalizedMessage());
-
-            if(listener != null)
-                listener.onStepError(this, data, e.getLocalizedMessage());
-        }
-    }
-
-
-    private static boolean isNumeric(String strNum) {
-        if (strNum == null) {
-            return false;
-        }
-        try {
-            double d = Double.parseDouble(strNum);
-        } catch (NumberFormatException nfe) {
-            return false;
-        }
-        return true;
+        super(TopicRewriteRule.prefix(PIPELINE_TOPIC_PREFIX));
     }
 
 }
@@ -0,0 +1,73 @@
+package it.unimore.dipi.iot.demo.mqtt.wldt;
+
+import it.unimore.dipi.iot.demo.mqtt.wldt.pipeline.LazyMqttPipelineData;
+import it.unimore.dipi.iot.demo.mqtt.wldt.topic.TopicRewriteRule;
+import it.unimore.dipi.iot.demo.mqtt.wldt.topic.TopicRewriter;
+import it.unimore.dipi.iot.wldt.processing.PipelineData;
+import it.unimore.dipi.iot.wldt.processing.ProcessingStep;
+import it.unimore.dipi.iot.wldt.processing.ProcessingStepListener;
+import it.unimore.dipi.iot.wldt.processing.cache.PipelineCache;
+import it.unimore.dipi.iot.wldt.worker.mqtt.MqttPipelineData;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * WLDT ProcessingStep that rewrites the outgoing topic keeping the same received payload.
+ * The rewrite rules (prefix, suffix and anchored segment mapping) are compiled once into a TopicRewriter
+ * and the rewritten topic is cached for each received topic.
+ *
+ * E.g. new MqttTopicRewriteStep(TopicRewriteRule.segment(0, "telemetry", "twin"), TopicRewriteRule.suffix("state"))
+ *
+ * @created: 18/10/2026
+ * @project: WLDT - MQTT Example
+ */
+public class MqttTopicRewriteStep implements ProcessingStep {
+
+    private static final Logger logger = LoggerFactory.getLogger(MqttTopicRewriteStep.class);
+
+    private final TopicRewriter topicRewriter;
+
+    public MqttTopicRewriteStep(TopicRewriteRule... rules) {
+        this(new TopicRewriter(rules));
+    }
+
+    public MqttTopicRewriteStep(TopicRewriter topicRewriter) {
+        this.topicRewriter = Objects.requireNonNull(topicRewriter);
+    }
+
+    @Override
+    public void execute(PipelineCache pipelineCache, PipelineData incomingData, ProcessingStepListener listener) {
+
+        MqttPipelineData data = null;
+
+        if(incomingData instanceof MqttPipelineData)
+            data = (MqttPipelineData)incomingData;
+        else if(listener != null)
+            listener.onStepError(this, incomingData, String.format("Wrong PipelineData for %s ! Data type: %s", getClass().getSimpleName(), incomingData.getClass()));
+        else
+            logger.error("Wrong PipelineData for {} ! Data type: {}", getClass().getSimpleName(), incomingData.getClass());
+
+        try{
+
+            if(listener != null && Objects.requireNonNull(data).getPayload() != null) {
+                String newTopic = topicRewriter.rewrite(data.getTopic());
+                listener.onStepDone(this, LazyMqttPipelineData.of(data).withTopic(newTopic).asOptional());
+            }
+            else
+                logger.error("Processing Step Listener or MqttProcessingInfo Data = Null ! Skipping processing step");
+
+        }catch (Exception e){
+            logger.error("MQTT Processing Step Error: {}", e.getLocalizedMessage());
+
+            if(listener != null)
+                listener.onStepError(this, data, e.getLocalizedMessage());
+        }
+    }
+
+    public TopicRewriter getTopicRewriter() {
+        return topicRewriter;
+    }
+}
@@ -0,0 +1,243 @@
+package it.unimore.dipi.iot.demo.mqtt.wldt;
+
+import it.unimore.dipi.iot.demo.mqtt.utils.SharedScheduler;
+import it.unimore.dipi.iot.demo.mqtt.wldt.pipeline.LazyMqttPipelineData;
+import it.unimore.dipi.iot.demo.mqtt.wldt.state.TopicStateStore;
+import it.unimore.dipi.iot.demo.mqtt.wldt.window.TopicWindow;
+import it.unimore.dipi.iot.demo.mqtt.wldt.window.WindowConfiguration;
+import it.unimore.dipi.iot.demo.mqtt.wldt.window.WindowResult;
+import it.unimore.dipi.iot.demo.mqtt.wldt.window.WindowResultListener;
+import it.unimore.dipi.iot.demo.mqtt.wldt.window.WindowStatistic;
+import it.unimore.dipi.iot.wldt.processing.PipelineData;
+import it.unimore.dipi.iot.wldt.processing.ProcessingStep;
+import it.unimore.dipi.iot.wldt.processing.ProcessingStepListener;
+import it.unimore.dipi.iot.wldt.processing.cache.PipelineCache;
+import it.unimore.dipi.iot.wldt.worker.mqtt.MqttPipelineData;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * WLDT ProcessingStep that aggregates numeric values over time based windows
+ * (tumbling, sliding or session) for each received topic and publishes the configured
+ * statistics (count, average, min, max and percentiles) on the topics <topic>/<suffix>
+ *
+ * When a received sample closes a window, the first configured statistic is forwarded through
+ * the ProcessingPipeline (as MqttAverageProcessingStep does with /average) while the other statistics
+ * are delivered to the optional WindowResultListener (without a listener they are discarded and counted by
+ * getDiscardedResultCount()). Windows of topics that stop publishing are closed by the
+ * SharedScheduler and delivered to the WindowResultListener. Without a listener, windows are closed only
+ * when a new sample is received on the same topic: the open window of a topic idle for more than
+ * idleTimeoutMs is evicted and its samples are discarded without any result (logged at debug level).
+ * idleTimeoutMs should be greater than the window length, since a window still open when evicted is never delivered.
+ *
+ * @created: 18/10/2026
+ * @project: WLDT - MQTT Example
+ */
+public class MqttWindowAggregationStep implements ProcessingStep {
+
+    private static final Logger logger = LoggerFactory.getLogger(MqttWindowAggregationStep.class);
+
+    private final WindowConfiguration windowConfiguration;
+
+    private final WindowResultListener windowResultListener;
+
+    private final TopicStateStore<TopicWindow> windowStore;
+
+    private final WindowStatistic[] statistics;
+
+    private final String[] statisticTopicSuffixes;
+
+    private final String[] percentileTopicSuffixes;
+
+    private final ScheduledFuture<?> tickFuture;
+
+    private final LongAdder discardedResultCount = new LongAdder();
+
+    public MqttWindowAggregationStep(WindowConfiguration windowConfiguration) {
+        this(windowConfiguration, null);
+    }
+
+    public MqttWindowAggregationStep(WindowConfiguration windowConfiguration, WindowResultListener windowResultListener) {
+
+        windowConfiguration.validate();
+
+        this.windowConfiguration = windowConfiguration;
+        this.windowResultListener = windowResultListener;
+        this.windowStore = new TopicStateStore<>(topic -> new TopicWindow(topic, windowConfiguration, System.currentTimeMillis()),
+                windowConfiguration.getMaxWindows(),
+                windowConfiguration.getIdleTimeoutMs(),
+                TopicStateStore.DEFAULT_SHARD_COUNT);
+
+        this.statistics = windowConfiguration.getStatisticSuffixes().keySet().toArray(new WindowStatistic[0]);
+        this.statisticTopicSuffixes = windowConfiguration.getStatisticSuffixes().values().stream().map(suffix -> "/" + suffix).toArray(String[]::new);
+        this.percentileTopicSuffixes = windowConfiguration.getPercentileSuffixes().values().stream().map(suffix -> "/" + suffix).toArray(String[]::new);
+
+        this.windowStore.setEvictionListener(this::onWindowEvicted);
+
+        this.tickFuture = SharedScheduler.getInstance().schedule(this::onTick, windowConfiguration.getTickPeriodMs());
+    }
+
+    @Override
+    public void execute(PipelineCache pipelineCache, PipelineData incomingData, ProcessingStepListener listener) {
+
+        MqttPipelineData data = null;
+
+        if(incomingData instanceof MqttPipelineData)
+            data = (MqttPipelineData)incomingData;
+        else if(listener != null)
+            listener.onStepError(this, incomingData, String.format("Wrong PipelineData for MqttWindowAggregationStep ! Data type: %s", incomingData.getClass()));
+        else
+            logger.error("Wrong PipelineData for MqttWindowAggregationStep ! Data type: {}", incomingData.getClass());
+
+        try{
+
+            if(listener != null && data != null && data.getPayload() != null){
+
+                double value = LazyMqttPipelineData.numericValueOf(data);
+
+                if(Double.isNaN(value)){
+                    listener.onStepError(this, data, "Provided Payload is not a Number ! Skipping processing ....");
+                    return;
+                }
+
+                long now = System.currentTimeMillis();
+
+                TopicWindow topicWindow = windowStore.getOrCreate(data.getTopic());
+
+                if(topicWindow == null){
+                    listener.onStepError(this, data, String.format("Max number of windows (%d) reached ! Skipping processing ....", windowConfiguration.getMaxWindows()));
+                    return;
+                }
+
+                topicWindow.setMqttTopicDescriptor(data.getMqttTopicDescriptor());
+                topicWindow.setRetained(data.isRetained());
+
+                List<WindowResult> closedWindowList = topicWindow.closeExpiredAndAdd(now, value);
+
+                if(closedWindowList.isEmpty()){
+                    LazyMqttPipelineData.release(data);
+                    listener.onStepDone(this, Optional.empty());
+                    return;
+                }
+
+                List<MqttPipelineData> resultDataList = new ArrayList<>();
+                for(WindowResult windowResult : closedWindowList)
+                    resultDataList.addAll(buildResultData(topicWindow, windowResult));
+
+                //The results are new data: the received one is no longer needed
+                LazyMqttPipelineData.release(data);
+
+                //The first statistic goes through the pipeline, the other ones to the listener
+                notifyWindowResults(resultDataList.subList(1, resultDataList.size()));
+                listener.onStepDone(this, Optional.of(resultDataList.get(0)));
+            }
+            else
+                logger.error("Processing Step Listener or MqttProcessingInfo Data = Null ! Skipping processing step");
+
+        }catch (Exception e){
+            logger.error("MQTT Processing Step Error: {}", e.getLocalizedMessage());
+
+            if(listener != null)
+                listener.onStepError(this, data, e.getLocalizedMessage());
+        }
+    }
+
+    /**
+     * Periodic task executed on the SharedScheduler thread
+     */
+    private void onTick(){
+
+        long now = System.currentTimeMillis();
+
+        if(windowResultListener != null)
+            windowStore.forEach((topic, topicWindow) -> {
+                if(topicWindow.isExpired(now))
+                    for(WindowResult windowResult : topicWindow.closeExpired(now))
+                        notifyWindowResults(buildResultData(topicWindow, windowResult));
+            });
+
+        windowStore.evictIdle();
+    }
+
+    private void onWindowEvicted(String topic, TopicWindow topicWindow){
+
+        if(windowResultListener != null){
+            for(WindowResult windowResult : topicWindow.closeExpired(System.currentTimeMillis()))
+                notifyWindowResults(buildResultData(topicWindow, windowResult));
+        }
+
+        if(topicWindow.hasOpenSamples())
+            logger.debug("Idle window of topic {} evicted while still open ! Discarding its samples", topic);
+    }
+
+    private List<MqttPipelineData> buildResultData(TopicWindow topicWindow, WindowResult windowResult){
+
+        List<MqttPipelineData> resultDataList = new ArrayList<>(statistics.length + percentileTopicSuffixes.length);
+
+        for(int i = 0; i < statistics.length; i++)
+            resultDataList.add(new MqttPipelineData(topicWindow.getTopic() + statisticTopicSuffixes[i],
+                    topicWindow.getMqttTopicDescriptor(),
+                    Double.toString(windowResult.getStatistic(statistics[i])).getBytes(StandardCharsets.US_ASCII),
+                    topicWindow.isRetained()));
+
+        double[] percentileValues = windowResult.getPercentiles();
+
+        for(int i = 0; i < percentileTopicSuffixes.length; i++)
+            resultDataList.add(new MqttPipelineData(topicWindow.getTopic() + percentileTopicSuffixes[i],
+                    topicWindow.getMqttTopicDescriptor(),
+                    Double.toString(percentileValues[i]).getBytes(StandardCharsets.US_ASCII),
+                    topicWindow.isRetained()));
+
+        return resultDataList;
+    }
+
+    private void notifyWindowResults(List<MqttPipelineData> resultDataList){
+
+        if(windowResultListener == null){
+            if(!resultDataList.isEmpty()){
+                discardedResultCount.add(resultDataList.size());
+                logger.debug("No WindowResultListener available ! Discarding {} window results", resultDataList.size());
+            }
+            return;
+        }
+
+        for(MqttPipelineData resultData : resultDataList){
+            try{
+                windowResultListener.onWindowResult(resultData);
+            }catch (Exception e){
+                logger.error("Error notifying window result on topic {}: {}", resultData.getTopic(), e.getLocalizedMessage());
+            }
+        }
+    }
+
+    /**
+     * Stop the periodic tick on the SharedScheduler and release all the windows
+     */
+    public void close(){
+        this.tickFuture.cancel(false);
+        this.windowStore.close();
+    }
+
+    public int getActiveWindowCount(){
+        return this.windowStore.size();
+    }
+
+    /**
+     * @return window results (statistics other than the first one) discarded since no WindowResultListener is available
+     */
+    public long getDiscardedResultCount() {
+        return discardedResultCount.sum();
+    }
+
+    public WindowConfiguration getWindowConfiguration() {
+        return windowConfiguration;
+    }
+
+}
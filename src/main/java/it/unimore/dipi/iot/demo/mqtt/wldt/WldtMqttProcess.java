@@ -1,17 +1,26 @@
 package it.unimore.dipi.iot.demo.mqtt.wldt;
 
+import it.unimore.dipi.iot.demo.mqtt.wldt.host.TwinDeviceDescriptor;
+import it.unimore.dipi.iot.demo.mqtt.wldt.host.TwinHost;
+import it.unimore.dipi.iot.demo.mqtt.wldt.host.TwinHostConfiguration;
+import it.unimore.dipi.iot.demo.mqtt.wldt.host.TwinRegistry;
+import it.unimore.dipi.iot.demo.mqtt.wldt.metrics.MetricsRegistry;
+import it.unimore.dipi.iot.demo.mqtt.wldt.pipeline.ConcurrentProcessingPipeline;
+import it.unimore.dipi.iot.demo.mqtt.wldt.startup.StartupReport;
+import it.unimore.dipi.iot.demo.mqtt.wldt.topology.TopologyConfiguration;
+import it.unimore.dipi.iot.demo.mqtt.wldt.topology.TopologyManager;
 import it.unimore.dipi.iot.wldt.engine.WldtConfiguration;
 import it.unimore.dipi.iot.wldt.engine.WldtEngine;
 import it.unimore.dipi.iot.wldt.processing.ProcessingPipeline;
-import it.unimore.dipi.iot.wldt.processing.step.IdentityProcessingStep;
-import it.unimore.dipi.iot.wldt.worker.MirroringListener;
 import it.unimore.dipi.iot.wldt.worker.mqtt.Mqtt2MqttConfiguration;
 import it.unimore.dipi.iot.wldt.worker.mqtt.Mqtt2MqttWorker;
 import it.unimore.dipi.iot.wldt.worker.mqtt.MqttTopicDescriptor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.List;
 import java.util.Map;
 
 /**
@@ -39,12 +48,15 @@ public class WldtMqttProcess {
 
     private static final Logger logger = LoggerFactory.getLogger(WldtMqttProcess.class);
 
-    private static final String DEMO_TEMPERATURE_TOPIC_ID = "temperature_topic";
+    public static final String DEMO_TEMPERATURE_TOPIC_ID = "temperature_topic";
     private static final String DEMO_TEMPERATURE_RESOURCE_ID = "temperature";
 
-    private static final String DEMO_COMMAND_TOPIC_ID = "command_topic";
+    public static final String DEMO_COMMAND_TOPIC_ID = "command_topic";
     private static final String DEMO_COMMAND_RESOURCE_ID = "default_command_channel";
 
+    public static final String DEMO_COMMAND_RESPONSE_TOPIC_ID = "command_response_topic";
+    private static final String DEMO_COMMAND_RESPONSE_RESOURCE_ID = "default_command_response_channel";
+
     private static final String SOURCE_BROKER_ADDRESS = "127.0.0.1";
     private static final int SOURCE_BROKER_PORT = 1883;
 
@@ -53,10 +65,20 @@ public class WldtMqttProcess {
 
     private static final String DEVICE_ID = "com:iot:dummy:dummyMqttDevice001";
 
+    private static final String FAST_START_CLIENT_ID_PREFIX = "wldtFastStart";
+
     public static void main(String[] args)  {
 
         try{
 
+            //Optional features of the demo pipelines (-Dwldt.*=true, see DemoFeatures)
+            DemoFeatures features = DemoFeatures.fromSystemProperties();
+
+            if(features.isFastStart() && args.length == 0){
+                startFast(features);
+                return;
+            }
+
             logger.info("{} Initializing WLDT-Engine ... ", TAG);
 
             //Example loading everything from the configuration file
@@ -72,92 +94,198 @@ public class WldtMqttProcess {
 
             WldtEngine wldtEngine = new WldtEngine(wldtConfiguration);
 
-            Mqtt2MqttWorker mqtt2MqttWorker = new Mqtt2MqttWorker(wldtEngine.getWldtId(), getMqttComplexProtocolConfiguration());
+            //The topology file (E.g. src/main/resources/topology.yaml) replaces the demo topology below
+            //and the pipeline steps are reloaded each time the file is modified
+            if(args.length > 0){
+                startTopology(wldtEngine, features, args[0]);
+                return;
+            }
 
-            //Add Processing Pipeline for target topics
-            mqtt2MqttWorker.addTopicProcessingPipeline(DEMO_TEMPERATURE_TOPIC_ID,
-                    new ProcessingPipeline(
-                            new IdentityProcessingStep(),
-                            new MqttAverageProcessingStep(),
-                            new MqttTopicChangeStep()
-                    )
-            );
-
-            mqtt2MqttWorker.addTopicProcessingPipeline(DEMO_COMMAND_TOPIC_ID,
-                    new ProcessingPipeline(
-                            new IdentityProcessingStep(),
-                            new MqttPayloadChangeStep(),
-                            new MqttCommandTopicChangeStep()
-                    )
-            );
+            DemoPipelineBuilder pipelineBuilder = new DemoPipelineBuilder(features, SOURCE_BROKER_ADDRESS, SOURCE_BROKER_PORT, DESTINATION_BROKER_ADDRESS, DESTINATION_BROKER_PORT);
 
-            //Add Mirroring Listener
-            mqtt2MqttWorker.addMirroringListener(new MirroringListener() {
+            Mqtt2MqttWorker mqtt2MqttWorker = new Mqtt2MqttWorker(wldtEngine.getWldtId(), getMqttComplexProtocolConfiguration(features.isCorrelation()));
 
-                @Override
-                public void onDeviceMirrored(String deviceId, Map<String, Object> metadata) {
-                    logger.info("onDeviceMirrored() callback ! DeviceId: {} -> Metadata: {}", deviceId, metadata);
-                }
+            //Add Processing Pipeline for target topics
+            //Core ProcessingPipelines unless the concurrent pipelines are enabled (-Dwldt.concurrentPipelines=true)
+            Map<String, ProcessingPipeline> pipelines = pipelineBuilder.buildPipelines();
+            pipelineBuilder.addPublishSteps(pipelines);
+
+            for(Map.Entry<String, ProcessingPipeline> entry : pipelines.entrySet()){
 
-                @Override
-                public void onDeviceMirroringError(String deviceId, String errorMsg) {
-                    logger.info("onDeviceMirroringError() callback ! DeviceId: {} -> ErrorMsg: {}", deviceId, errorMsg);
-                }
+                mqtt2MqttWorker.addTopicProcessingPipeline(entry.getKey(), entry.getValue());
 
-                @Override
-                public void onResourceMirrored(String resourceId, Map<String, Object> metadata) {
-                    logger.info("onResourceMirrored() callback ! ResourceId: {} -> Metadata: {}", resourceId, metadata);
-                }
+                if(features.isMetrics() && entry.getValue() instanceof ConcurrentProcessingPipeline)
+                    ((ConcurrentProcessingPipeline) entry.getValue()).enableMetrics(MetricsRegistry.getDefault(), entry.getKey());
+            }
 
-                @Override
-                public void onResourceMirroringError(String resourceId, String errorMsg) {
-                    logger.info("onResourceMirroringError() callback ! ResourceId: {} -> ErrorMsg: {}", resourceId, errorMsg);
-                }
+            if(features.isMetrics())
+                pipelineBuilder.startMetricsEndpoint(MetricsRegistry.getDefault());
 
-            });
+            //Add Mirroring Listener
+            mqtt2MqttWorker.addMirroringListener(pipelineBuilder.createMirroringListener());
 
             wldtEngine.addNewWorker(mqtt2MqttWorker);
             wldtEngine.startWorkers();
 
+            StartupReport.getDefault().mark("workersStarted");
+
         }catch (Exception e){
             e.printStackTrace();
         }
     }
 
-    private static Mqtt2MqttConfiguration getMqttComplexProtocolConfiguration(){
+    /**
+     * Demo pipelines on a TwinHost mirroring only DEVICE_ID. The services of the steps are started in parallel,
+     * then the TwinHost connects both brokers in parallel and returns once the subscriptions have been acknowledged.
+     * The TwinHost appends the publish step of each pipeline (StoreAndForwardMqttPublisher if enabled, BatchingMqttPublisher otherwise)
+     * and publishes the commands through its own source broker publisher.
+     */
+    private static void startFast(DemoFeatures features) throws Exception {
+
+        logger.info("{} Fast start ... ", TAG);
+
+        //The TwinHost dispatches the messages of all the topics from its own callback threads
+        features.setConcurrentPipelines(true);
+
+        DemoPipelineBuilder pipelineBuilder = new DemoPipelineBuilder(features, SOURCE_BROKER_ADDRESS, SOURCE_BROKER_PORT, DESTINATION_BROKER_ADDRESS, DESTINATION_BROKER_PORT);
+
+        Map<String, ProcessingPipeline> pipelines = pipelineBuilder.buildPipelines();
+
+        TwinHostConfiguration configuration = new TwinHostConfiguration();
+        configuration.setSourceBrokerAddress(SOURCE_BROKER_ADDRESS);
+        configuration.setSourceBrokerPort(SOURCE_BROKER_PORT);
+        configuration.setDestinationBrokerAddress(DESTINATION_BROKER_ADDRESS);
+        configuration.setDestinationBrokerPort(DESTINATION_BROKER_PORT);
+        configuration.setClientIdPrefix(FAST_START_CLIENT_ID_PREFIX);
+        configuration.setTopicList(getDemoTopicList(pipelines.containsKey(DEMO_COMMAND_RESPONSE_TOPIC_ID)));
+        configuration.setOutgoingLogDirectory(features.isStoreAndForward() ? DemoPipelineBuilder.OUTGOING_LOG_DIRECTORY : null);
+        configuration.setMetricsEnabled(features.isMetrics());
+        configuration.setMetricsBindAddress(DemoPipelineBuilder.METRICS_BIND_ADDRESS);
+        configuration.setMetricsPort(DemoPipelineBuilder.METRICS_HTTP_PORT);
+
+        TwinRegistry registry = new TwinRegistry();
+        registry.add(new TwinDeviceDescriptor(DEVICE_ID, TwinDeviceDescriptor.DEFAULT_PROFILE));
+
+        //A single device: the pipelines are used as they are
+        TwinHost twinHost = new TwinHost(configuration, registry, (device, topicDescriptor) -> pipelines.get(topicDescriptor.getId()));
+
+        Runtime.getRuntime().addShutdownHook(new Thread(twinHost::stop));
+
+        twinHost.start();
+
+        StartupReport.getDefault().markReady();
+    }
+
+    private static void startTopology(WldtEngine wldtEngine, DemoFeatures features, String topologyFilePath) throws Exception {
+
+        TopologyConfiguration topologyConfiguration = TopologyConfiguration.fromYamlFile(topologyFilePath);
+        topologyConfiguration.validate();
+
+        //The TopologyManager replaces the steps of ConcurrentProcessingPipelines in place
+        features.setConcurrentPipelines(true);
+
+        //The services of the steps use the brokers of the topology file
+        DemoPipelineBuilder pipelineBuilder = new DemoPipelineBuilder(features,
+                topologyConfiguration.getSourceBroker().getAddress(),
+                topologyConfiguration.getSourceBroker().getPort(),
+                topologyConfiguration.getDestinationBroker().getAddress(),
+                topologyConfiguration.getDestinationBroker().getPort());
+
+        TopologyManager topologyManager = new TopologyManager(topologyConfiguration,
+                pipelineBuilder.createStepFactoryRegistry(),
+                TopologyManager.DEFAULT_RETIRE_DELAY_MS,
+                pipelineBuilder::getPipelineExecutor);
+
+        Mqtt2MqttWorker mqtt2MqttWorker = new Mqtt2MqttWorker(wldtEngine.getWldtId(), topologyConfiguration.toMqtt2MqttConfiguration());
+
+        for(Map.Entry<String, ConcurrentProcessingPipeline> entry : topologyManager.getPipelines().entrySet()){
+
+            mqtt2MqttWorker.addTopicProcessingPipeline(entry.getKey(), entry.getValue());
+
+            if(features.isMetrics())
+                entry.getValue().enableMetrics(MetricsRegistry.getDefault(), entry.getKey());
+        }
+
+        if(features.isMetrics()){
+            MetricsRegistry metricsRegistry = MetricsRegistry.getDefault();
+            metricsRegistry.gauge("wldt_topology_reloads_total", "Topology versions applied after a change of the file", "file", topologyFilePath, topologyManager::getReloadCount);
+            metricsRegistry.gauge("wldt_topology_reload_errors_total", "Topology versions rejected (invalid file or step)", "file", topologyFilePath, topologyManager::getReloadErrorCount);
+            pipelineBuilder.startMetricsEndpoint(metricsRegistry);
+        }
+
+        topologyManager.startWatching(topologyFilePath);
+        Runtime.getRuntime().addShutdownHook(new Thread(topologyManager::stopWatching));
+
+        mqtt2MqttWorker.addMirroringListener(pipelineBuilder.createMirroringListener());
+
+        wldtEngine.addNewWorker(mqtt2MqttWorker);
+        wldtEngine.startWorkers();
+
+        StartupReport.getDefault().mark("workersStarted");
+
+        logger.info("{} Topology loaded from {} ! {}", TAG, topologyFilePath, topologyConfiguration);
+    }
+
+    private static Mqtt2MqttConfiguration getMqttComplexProtocolConfiguration(boolean commandResponseEnabled){
+        return getMqttComplexProtocolConfiguration(SOURCE_BROKER_ADDRESS, SOURCE_BROKER_PORT, DESTINATION_BROKER_ADDRESS, DESTINATION_BROKER_PORT, DEVICE_ID, commandResponseEnabled);
+    }
+
+    /**
+     * Demo Mqtt2Mqtt configuration (telemetry and command topics) for the target brokers and device.
+     * The MQTT single level wildcard (+) can be used as device id to mirror all the devices publishing on the same topic structure.
+     * The command response topic is subscribed only if commandResponseEnabled (correlation of the commands).
+     */
+    public static Mqtt2MqttConfiguration getMqttComplexProtocolConfiguration(String sourceBrokerAddress,
+                                                                             int sourceBrokerPort,
+                                                                             String destinationBrokerAddress,
+                                                                             int destinationBrokerPort,
+                                                                             String deviceId,
+                                                                             boolean commandResponseEnabled){
 
         //Configuration associated to the MQTT experimental use-case available in the dedicated project
         //Demo Telemetry topic -> telemetry/com:iot:dummy:dummyMqttDevice001/resource/dummy_string_resource
+        //Demo Command Response topic (core command response template) -> commands/com:iot:dummy:dummyMqttDevice001/response
 
         Mqtt2MqttConfiguration mqtt2MqttConfiguration = new Mqtt2MqttConfiguration();
 
         mqtt2MqttConfiguration.setDtPublishingQoS(0);
-        mqtt2MqttConfiguration.setBrokerAddress(SOURCE_BROKER_ADDRESS);
-        mqtt2MqttConfiguration.setBrokerPort(SOURCE_BROKER_PORT);
-        mqtt2MqttConfiguration.setDestinationBrokerAddress(DESTINATION_BROKER_ADDRESS);
-        mqtt2MqttConfiguration.setDestinationBrokerPort(DESTINATION_BROKER_PORT);
-        mqtt2MqttConfiguration.setDeviceId(DEVICE_ID);
+        mqtt2MqttConfiguration.setBrokerAddress(sourceBrokerAddress);
+        mqtt2MqttConfiguration.setBrokerPort(sourceBrokerPort);
+        mqtt2MqttConfiguration.setDestinationBrokerAddress(destinationBrokerAddress);
+        mqtt2MqttConfiguration.setDestinationBrokerPort(destinationBrokerPort);
+        mqtt2MqttConfiguration.setDeviceId(deviceId);
 
         //If Required Specify the ClientId
         mqtt2MqttConfiguration.setBrokerClientId("physicalBrokerTestClientId");
         mqtt2MqttConfiguration.setDestinationBrokerClientId("digitalBrokerTestClientId");
 
         //Specify Topic List Configuration
-        mqtt2MqttConfiguration.setTopicList(
-                Arrays.asList(
-                        new MqttTopicDescriptor(DEMO_TEMPERATURE_TOPIC_ID,
-                                DEMO_TEMPERATURE_RESOURCE_ID,
-                                "telemetry/{{device_id}}/resource/{{resource_id}}",
-                                MqttTopicDescriptor.MQTT_TOPIC_TYPE_DEVICE_OUTGOING),
-                        new MqttTopicDescriptor(DEMO_COMMAND_TOPIC_ID,
-                                DEMO_COMMAND_RESOURCE_ID,
-                                "command/{{device_id}}",
-                                MqttTopicDescriptor.MQTT_TOPIC_TYPE_DEVICE_INCOMING)
-                )
-        );
+        mqtt2MqttConfiguration.setTopicList(getDemoTopicList(commandResponseEnabled));
 
         return mqtt2MqttConfiguration;
     }
 
+    private static List<MqttTopicDescriptor> getDemoTopicList(boolean commandResponseEnabled) {
+
+        List<MqttTopicDescriptor> topicList = new ArrayList<>(Arrays.asList(
+                new MqttTopicDescriptor(DEMO_TEMPERATURE_TOPIC_ID,
+                        DEMO_TEMPERATURE_RESOURCE_ID,
+                        "telemetry/{{device_id}}/resource/{{resource_id}}",
+                        MqttTopicDescriptor.MQTT_TOPIC_TYPE_DEVICE_OUTGOING),
+                new MqttTopicDescriptor(DEMO_COMMAND_TOPIC_ID,
+                        DEMO_COMMAND_RESOURCE_ID,
+                        "command/{{device_id}}",
+                        MqttTopicDescriptor.MQTT_TOPIC_TYPE_DEVICE_INCOMING)
+        ));
+
+        if(commandResponseEnabled)
+            topicList.add(new MqttTopicDescriptor(DEMO_COMMAND_RESPONSE_TOPIC_ID,
+                    DEMO_COMMAND_RESPONSE_RESOURCE_ID,
+                    "commands/{{device_id}}/response",
+                    MqttTopicDescriptor.MQTT_TOPIC_TYPE_DEVICE_OUTGOING));
+
+        return topicList;
+    }
+
 }
 
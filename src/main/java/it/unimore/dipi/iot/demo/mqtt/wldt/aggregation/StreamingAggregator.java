@@ -0,0 +1,162 @@
+package it.unimore.dipi.iot.demo.mqtt.wldt.aggregation;
+
+/**
+ * Running aggregation of a stream of numeric samples kept only in primitive fields.
+ * Count, sum, min, max, mean and variance are updated in O(1) for each new sample
+ * without storing the samples themselves.
+ *
+ * The sum uses the same compensated (Kahan) summation of DoubleStream.sum() so that
+ * the produced average matches the one of the list based MqttAverageProcessingStep,
+ * while the variance is tracked through the Welford online algorithm.
+ *
+ * The class is not thread safe, each instance is expected to be updated by a single thread at a time.
+ *
+ * @created: 18/10/2026
+ * @project: WLDT - MQTT Example
+ */
+public class StreamingAggregator {
+
+    private long count;
+
+    private double sum;
+
+    private double sumCompensation;
+
+    private double simpleSum;
+
+    private double min;
+
+    private double max;
+
+    private double mean;
+
+    private double m2;
+
+    public StreamingAggregator() {
+        reset();
+    }
+
+    public void add(double value) {
+
+        count++;
+
+        //Compensated summation (same algorithm of java.util.stream.Collectors.sumWithCompensation)
+        double compensated = value - sumCompensation;
+        double velvel = sum + compensated;
+        sumCompensation = (velvel - sum) - compensated;
+        sum = velvel;
+        simpleSum += value;
+
+        if(value < min)
+            min = value;
+        if(value > max)
+            max = value;
+
+        //Welford online variance
+        double delta = value - mean;
+        mean += delta / (double) count;
+        m2 += delta * (value - mean);
+    }
+
+    /**
+     * Merge the samples of another aggregator into this one
+     *
+     * @param other the aggregator to merge
+     */
+    public void merge(StreamingAggregator other) {
+
+        if(other == null || other.count == 0)
+            return;
+
+        if(count == 0){
+            copyFrom(other);
+            return;
+        }
+
+        long mergedCount = count + other.count;
+        double delta = other.mean - mean;
+
+        m2 = m2 + other.m2 + delta * delta * ((double) count * (double) other.count / (double) mergedCount);
+        mean = mean + delta * ((double) other.count / (double) mergedCount);
+
+        double compensated = other.getSum() - sumCompensation;
+        double velvel = sum + compensated;
+        sumCompensation = (velvel - sum) - compensated;
+        sum = velvel;
+        simpleSum += other.simpleSum;
+
+        min = Math.min(min, other.min);
+        max = Math.max(max, other.max);
+        count = mergedCount;
+    }
+
+    public void copyFrom(StreamingAggregator other) {
+        this.count = other.count;
+        this.sum = other.sum;
+        this.sumCompensation = other.sumCompensation;
+        this.simpleSum = other.simpleSum;
+        this.min = other.min;
+        this.max = other.max;
+        this.mean = other.mean;
+        this.m2 = other.m2;
+    }
+
+    public void reset() {
+        this.count = 0;
+        this.sum = 0.0;
+        this.sumCompensation = 0.0;
+        this.simpleSum = 0.0;
+        this.min = Double.POSITIVE_INFINITY;
+        this.max = Double.NEGATIVE_INFINITY;
+        this.mean = 0.0;
+        this.m2 = 0.0;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public double getSum() {
+        double tmp = sum - sumCompensation;
+        if(Double.isNaN(tmp) && Double.isInfinite(simpleSum))
+            return simpleSum;
+        return tmp;
+    }
+
+    public double getAverage() {
+        return count > 0 ? getSum() / (double) count : Double.NaN;
+    }
+
+    public double getMin() {
+        return count > 0 ? min : Double.NaN;
+    }
+
+    public double getMax() {
+        return count > 0 ? max : Double.NaN;
+    }
+
+    public double getVariance() {
+        return count > 0 ? m2 / (double) count : Double.NaN;
+    }
+
+    public double getSampleVariance() {
+        return count > 1 ? m2 / (double) (count - 1) : Double.NaN;
+    }
+
+    public double getStandardDeviation() {
+        return Math.sqrt(getVariance());
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder("StreamingAggregator{");
+        sb.append("count=").append(count);
+        sb.append(", sum=").append(getSum());
+        sb.append(", min=").append(getMin());
+        sb.append(", max=").append(getMax());
+        sb.append(", average=").append(getAverage());
+        sb.append(", variance=").append(getVariance());
+        sb.append('}');
+        return sb.toString();
+    }
+}
@@ -0,0 +1,248 @@
+package it.unimore.dipi.iot.demo.mqtt.wldt.codec;
+
+/**
+ * Minimal CBOR (RFC 8949) reader working directly on the received byte[].
+ * It supports the items used by the numeric telemetry payloads (integers, floating point numbers, strings, arrays and maps);
+ * any other item (E.g. tags or indefinite length items) marks the reader as not valid.
+ *
+ * @created: 18/10/2026
+ * @project: WLDT - MQTT Example
+ */
+class CborReader {
+
+    static final int MAJOR_TYPE_UNSIGNED_INT = 0;
+
+    static final int MAJOR_TYPE_NEGATIVE_INT = 1;
+
+    static final int MAJOR_TYPE_BYTE_STRING = 2;
+
+    static final int MAJOR_TYPE_TEXT_STRING = 3;
+
+    static final int MAJOR_TYPE_ARRAY = 4;
+
+    static final int MAJOR_TYPE_MAP = 5;
+
+    static final int MAJOR_TYPE_SIMPLE = 7;
+
+    private static final int MAX_NESTING_DEPTH = 16;
+
+    private final byte[] buffer;
+
+    private final int end;
+
+    private int position;
+
+    private boolean valid = true;
+
+    CborReader(byte[] buffer, int offset, int end) {
+        this.buffer = buffer;
+        this.position = offset;
+        this.end = end;
+    }
+
+    /**
+     * Read an integer or floating point item
+     *
+     * @return the value or Double.NaN if the next item is not a number
+     */
+    double readNumber() {
+
+        if(!ensureAvailable(1))
+            return Double.NaN;
+
+        int initialByte = buffer[position] & 0xFF;
+        int majorType = initialByte >>> 5;
+
+        if(majorType == MAJOR_TYPE_UNSIGNED_INT || majorType == MAJOR_TYPE_NEGATIVE_INT){
+
+            long argument = readArgument();
+
+            if(!valid)
+                return Double.NaN;
+
+            double value = argument >= 0 ? argument : (double) (argument >>> 1) * 2.0;
+            return majorType == MAJOR_TYPE_UNSIGNED_INT ? value : -1.0 - value;
+        }
+
+        if(majorType != MAJOR_TYPE_SIMPLE)
+            return invalid();
+
+        switch (initialByte & 0x1F) {
+            case 25:
+                return ensureAvailable(3) ? halfToDouble((int) read(position + 1, 2, 3)) : Double.NaN;
+            case 26:
+                return ensureAvailable(5) ? Float.intBitsToFloat((int) read(position + 1, 4, 5)) : Double.NaN;
+            case 27:
+                return ensureAvailable(9) ? Double.longBitsToDouble(read(position + 1, 8, 9)) : Double.NaN;
+            default:
+                return invalid();
+        }
+    }
+
+    /**
+     * Read the header of an array or a map
+     *
+     * @return the number of elements (pairs for the maps) or -1 if the next item is not of the expected type
+     */
+    long readHeader(int expectedMajorType) {
+
+        if(!ensureAvailable(1) || (buffer[position] & 0xFF) >>> 5 != expectedMajorType){
+            invalid();
+            return -1;
+        }
+
+        return readArgument();
+    }
+
+    /**
+     * Skip the next item
+     */
+    void skip() {
+        skip(0);
+    }
+
+    private void skip(int depth) {
+
+        if(!ensureAvailable(1) || depth > MAX_NESTING_DEPTH){
+            invalid();
+            return;
+        }
+
+        int majorType = (buffer[position] & 0xFF) >>> 5;
+
+        switch (majorType) {
+            case MAJOR_TYPE_UNSIGNED_INT:
+            case MAJOR_TYPE_NEGATIVE_INT:
+            case MAJOR_TYPE_SIMPLE:
+                readArgument();
+                break;
+            case MAJOR_TYPE_BYTE_STRING:
+            case MAJOR_TYPE_TEXT_STRING:
+                long length = readArgument();
+                if(valid && (length < 0 || length > end - position))
+                    invalid();
+                else
+                    position += (int) length;
+                break;
+            case MAJOR_TYPE_ARRAY:
+            case MAJOR_TYPE_MAP:
+                long items = readArgument();
+                if(majorType == MAJOR_TYPE_MAP)
+                    items *= 2;
+                for(long i = 0; i < items && valid; i++)
+                    skip(depth + 1);
+                break;
+            default:
+                invalid();
+        }
+    }
+
+    /**
+     * Read the argument of the current item (value, length or number of elements) and move after the header
+     */
+    private long readArgument() {
+
+        int additionalInfo = buffer[position] & 0x1F;
+
+        if(additionalInfo < 24){
+            position++;
+            return additionalInfo;
+        }
+
+        if(additionalInfo > 27){
+            invalid();
+            return -1;
+        }
+
+        int size = 1 << (additionalInfo - 24);
+
+        if(!ensureAvailable(size + 1))
+            return -1;
+
+        return read(position + 1, size, size + 1);
+    }
+
+    private long read(int from, int size, int itemSize) {
+
+        long value = 0;
+        for(int i = 0; i < size; i++)
+            value = (value << 8) | (buffer[from + i] & 0xFF);
+
+        position += itemSize;
+        return value;
+    }
+
+    private boolean ensureAvailable(int size) {
+        if(!valid || end - position < size){
+            valid = false;
+            return false;
+        }
+        return true;
+    }
+
+    private double invalid() {
+        valid = false;
+        return Double.NaN;
+    }
+
+    boolean isValid() {
+        return valid;
+    }
+
+    boolean isConsumed() {
+        return position == end;
+    }
+
+    private static double halfToDouble(int half) {
+
+        int exponent = (half >> 10) & 0x1F;
+        int mantissa = half & 0x3FF;
+        double value;
+
+        if(exponent == 0)
+            value = Math.scalb((double) mantissa, -24);
+        else if(exponent != 31)
+            value = Math.scalb((double) (mantissa + 1024), exponent - 25);
+        else
+            value = mantissa == 0 ? Double.POSITIVE_INFINITY : Double.NaN;
+
+        return (half & 0x8000) != 0 ? -value : value;
+    }
+
+    static int headerSize(long argument) {
+        if(argument < 24)
+            return 1;
+        if(argument <= 0xFF)
+            return 2;
+        if(argument <= 0xFFFF)
+            return 3;
+        if(argument <= 0xFFFFFFFFL)
+            return 5;
+        return 9;
+    }
+
+    /**
+     * Write the header of an item with the given major type and argument
+     *
+     * @return the position after the header
+     */
+    static int writeHeader(int majorType, long argument, byte[] buffer, int position) {
+
+        int size = headerSize(argument);
+
+        if(size == 1){
+            buffer[position] = (byte) ((majorType << 5) | argument);
+            return position + 1;
+        }
+
+        int payloadSize = size - 1;
+        buffer[position] = (byte) ((majorType << 5) | (24 + Integer.numberOfTrailingZeros(payloadSize)));
+
+        for(int i = payloadSize; i >= 1; i--){
+            buffer[position + i] = (byte) argument;
+            argument >>>= 8;
+        }
+
+        return position + size;
+    }
+}
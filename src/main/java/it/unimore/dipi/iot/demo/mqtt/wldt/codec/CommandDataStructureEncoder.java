@@ -0,0 +1,290 @@
+package it.unimore.dipi.iot.demo.mqtt.wldt.codec;
+
+import it.unimore.dipi.iot.demo.mqtt.wldt.CommandDataStructure;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Precompiled JSON encoder for CommandDataStructure producing the same document of the Jackson ObjectMapper
+ * ({"type":"...","timestamp":...,"correlationId":"...","originalMessage":"..."}, correlationId omitted when null)
+ * without building the intermediate object and Strings.
+ *
+ * The constant parts of the envelope are encoded once, while the timestamp digits and the received payload
+ * (escaped in place and always handled as UTF-8) are written into a reusable per-thread byte buffer.
+ * The only allocation for each message is the returned byte[].
+ *
+ * If the payload is not a valid UTF-8 sequence the encoder returns null, so the caller can fall back to Jackson
+ * (that replaces the malformed sequences as done by the String decoding).
+ *
+ * @created: 18/10/2026
+ * @project: WLDT - MQTT Example
+ */
+public class CommandDataStructureEncoder {
+
+    private static final int INITIAL_BUFFER_SIZE = 1024;
+
+    private static final byte[] HEX_DIGITS = "0123456789ABCDEF".getBytes(StandardCharsets.US_ASCII);
+
+    private static final byte[] MIN_LONG = Long.toString(Long.MIN_VALUE).getBytes(StandardCharsets.US_ASCII);
+
+    //Reusable buffer of each thread, grown when a larger payload is received
+    private static final ThreadLocal<byte[][]> threadBuffer = ThreadLocal.withInitial(() -> new byte[][]{ new byte[INITIAL_BUFFER_SIZE] });
+
+    private final byte[] header;
+
+    private final byte[] correlationIdSeparator;
+
+    private final byte[] separator;
+
+    private final byte[] trailer;
+
+    public CommandDataStructureEncoder() {
+        this(CommandDataStructure.DEFAULT_TYPE);
+    }
+
+    public CommandDataStructureEncoder(String type) {
+
+        if(type == null)
+            throw new IllegalArgumentException("Command type can not be null !");
+
+        byte[] typeBytes = type.getBytes(StandardCharsets.UTF_8);
+        byte[] escapedType = new byte[typeBytes.length * 6];
+        int escapedTypeLength = escape(typeBytes, 0, typeBytes.length, escapedType, 0);
+
+        if(escapedTypeLength < 0)
+            throw new IllegalArgumentException("Invalid command type !");
+
+        this.header = concat("{\"type\":\"".getBytes(StandardCharsets.US_ASCII), Arrays.copyOf(escapedType, escapedTypeLength), "\",\"timestamp\":".getBytes(StandardCharsets.US_ASCII));
+        this.correlationIdSeparator = ",\"correlationId\":\"".getBytes(StandardCharsets.US_ASCII);
+        this.separator = ",\"originalMessage\":\"".getBytes(StandardCharsets.US_ASCII);
+        this.trailer = "\"}".getBytes(StandardCharsets.US_ASCII);
+    }
+
+    /**
+     * @param timestamp command timestamp
+     * @param payload original payload (UTF-8)
+     * @return the JSON document or null if the payload is not a valid UTF-8 sequence
+     */
+    public byte[] encode(long timestamp, byte[] payload) {
+        return encode(timestamp, null, payload);
+    }
+
+    /**
+     * @param timestamp command timestamp
+     * @param correlationId correlation id of the command, null if the command is not tracked
+     * @param payload original payload (UTF-8)
+     * @return the JSON document or null if the payload is not a valid UTF-8 sequence
+     */
+    public byte[] encode(long timestamp, String correlationId, byte[] payload) {
+
+        //Correlation ids are generated by the CommandCorrelationTracker and do not need to be escaped
+        byte[] correlationIdBytes = correlationId != null ? correlationId.getBytes(StandardCharsets.UTF_8) : null;
+
+        //Worst case: each payload byte escaped as \\u00XX
+        int maxLength = header.length + MIN_LONG.length + separator.length + payload.length * 6 + trailer.length
+                + (correlationIdBytes != null ? correlationIdSeparator.length + correlationIdBytes.length * 6 + 1 : 0);
+
+        byte[][] holder = threadBuffer.get();
+        byte[] buffer = holder[0];
+
+        if(buffer.length < maxLength){
+            buffer = new byte[Math.max(maxLength, buffer.length * 2)];
+            holder[0] = buffer;
+        }
+
+        int position = write(header, buffer, 0);
+        position = writeLong(timestamp, buffer, position);
+
+        if(correlationIdBytes != null){
+            position = write(correlationIdSeparator, buffer, position);
+            position = escape(correlationIdBytes, 0, correlationIdBytes.length, buffer, position);
+            buffer[position++] = '"';
+        }
+
+        position = write(separator, buffer, position);
+
+        position = escape(payload, 0, payload.length, buffer, position);
+
+        if(position < 0)
+            return null;
+
+        position = write(trailer, buffer, position);
+
+        return Arrays.copyOf(buffer, position);
+    }
+
+    private static int write(byte[] source, byte[] buffer, int position) {
+        System.arraycopy(source, 0, buffer, position, source.length);
+        return position + source.length;
+    }
+
+    private static int writeLong(long value, byte[] buffer, int position) {
+
+        if(value == Long.MIN_VALUE)
+            return write(MIN_LONG, buffer, position);
+
+        if(value < 0){
+            buffer[position++] = '-';
+            value = -value;
+        }
+
+        int digits = 1;
+        for(long limit = 10; digits < 19 && value >= limit; limit *= 10)
+            digits++;
+
+        for(int i = position + digits - 1; i >= position; i--){
+            buffer[i] = (byte) ('0' + (value % 10));
+            value /= 10;
+        }
+
+        return position + digits;
+    }
+
+    /**
+     * Copy the UTF-8 bytes escaping the characters as Jackson does (quote, backslash, control characters
+     * and characters outside the BMP written as escaped surrogate pairs)
+     *
+     * @return the new position or -1 if the source is not a valid UTF-8 sequence
+     */
+    private static int escape(byte[] source, int offset, int length, byte[] buffer, int position) {
+
+        int end = offset + length;
+        int i = offset;
+
+        while(i < end){
+
+            int b = source[i] & 0xFF;
+
+            if(b < 0x80){
+
+                if(b == '"' || b == '\\'){
+                    buffer[position++] = '\\';
+                    buffer[position++] = (byte) b;
+                }
+                else if(b < 0x20)
+                    position = escapeControl(b, buffer, position);
+                else
+                    buffer[position++] = (byte) b;
+
+                i++;
+                continue;
+            }
+
+            int sequenceLength = utf8SequenceLength(source, i, end);
+
+            if(sequenceLength < 0)
+                return -1;
+
+            if(sequenceLength == 4)
+                position = escapeSupplementary(source, i, buffer, position);
+            else {
+                System.arraycopy(source, i, buffer, position, sequenceLength);
+                position += sequenceLength;
+            }
+
+            i += sequenceLength;
+        }
+
+        return position;
+    }
+
+    private static int escapeControl(int b, byte[] buffer, int position) {
+
+        byte shortEscape;
+
+        switch (b) {
+            case '\n': shortEscape = 'n'; break;
+            case '\r': shortEscape = 'r'; break;
+            case '\t': shortEscape = 't'; break;
+            case '\b': shortEscape = 'b'; break;
+            case '\f': shortEscape = 'f'; break;
+            default:
+                return escapeUnicode((char) b, buffer, position);
+        }
+
+        buffer[position++] = '\\';
+        buffer[position++] = shortEscape;
+        return position;
+    }
+
+    private static int escapeSupplementary(byte[] source, int index, byte[] buffer, int position) {
+
+        int codePoint = ((source[index] & 0x07) << 18)
+                | ((source[index + 1] & 0x3F) << 12)
+                | ((source[index + 2] & 0x3F) << 6)
+                | (source[index + 3] & 0x3F);
+
+        position = escapeUnicode(Character.highSurrogate(codePoint), buffer, position);
+        return escapeUnicode(Character.lowSurrogate(codePoint), buffer, position);
+    }
+
+    private static int escapeUnicode(char c, byte[] buffer, int position) {
+        buffer[position++] = '\\';
+        buffer[position++] = 'u';
+        buffer[position++] = HEX_DIGITS[(c >> 12) & 0xF];
+        buffer[position++] = HEX_DIGITS[(c >> 8) & 0xF];
+        buffer[position++] = HEX_DIGITS[(c >> 4) & 0xF];
+        buffer[position++] = HEX_DIGITS[c & 0xF];
+        return position;
+    }
+
+    /**
+     * @return the length of the well-formed multi byte sequence starting at index or -1 if it is malformed
+     */
+    private static int utf8SequenceLength(byte[] source, int index, int end) {
+
+        int b = source[index] & 0xFF;
+        int length;
+        int min;
+        int max = 0xBF;
+
+        if(b >= 0xC2 && b <= 0xDF){
+            length = 2;
+            min = 0x80;
+        }
+        else if(b >= 0xE0 && b <= 0xEF){
+            length = 3;
+            //Overlong encodings and surrogates are not valid
+            min = b == 0xE0 ? 0xA0 : 0x80;
+            max = b == 0xED ? 0x9F : 0xBF;
+        }
+        else if(b >= 0xF0 && b <= 0xF4){
+            length = 4;
+            min = b == 0xF0 ? 0x90 : 0x80;
+            max = b == 0xF4 ? 0x8F : 0xBF;
+        }
+        else
+            return -1;
+
+        if(index + length > end)
+            return -1;
+
+        int second = source[index + 1] & 0xFF;
+        if(second < min || second > max)
+            return -1;
+
+        for(int i = index + 2; i < index + length; i++){
+            int continuation = source[i] & 0xFF;
+            if(continuation < 0x80 || continuation > 0xBF)
+                return -1;
+        }
+
+        return length;
+    }
+
+    private static byte[] concat(byte[]... parts) {
+
+        int length = 0;
+        for(byte[] part : parts)
+            length += part.length;
+
+        byte[] result = new byte[length];
+        int position = 0;
+
+        for(byte[] part : parts)
+            position = write(part, result, position);
+
+        return result;
+    }
+}
@@ -0,0 +1,354 @@
+package it.unimore.dipi.iot.demo.mqtt.wldt.codec;
+
+import it.unimore.dipi.iot.demo.mqtt.utils.AsciiDoubleParser;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.IntFunction;
+
+/**
+ * Encodings of a numeric telemetry value (E.g. the TemperatureSensor samples) supported by the MqttPayloadCodecStep:
+ *
+ * - TEXT: plain numeric value as published by DemoMqttDevice (E.g. 23.41)
+ * - JSON: {"value":23.41}. Decoding also accepts the documents with a "v" field (E.g. SenML JSON)
+ * - CBOR: single CBOR floating point item (single precision when the value is exactly representable)
+ * - MESSAGEPACK: single MessagePack float (float 32 when the value is exactly representable)
+ * - SENML_CBOR: SenML pack in the CBOR representation (RFC 8428) with a single record {n: name, v: value}
+ *
+ * Values are encoded into a per-thread reusable buffer, so the only allocation for each message is the returned byte[].
+ * Decoding works directly on the received byte[] and returns Double.NaN if the payload is not valid for the format.
+ *
+ * @created: 18/10/2026
+ * @project: WLDT - MQTT Example
+ */
+public enum TelemetryCodec {
+
+    TEXT {
+        @Override
+        protected int write(double value, String name, byte[] buffer) {
+            return writeText(value, buffer, 0);
+        }
+
+        @Override
+        public double decode(byte[] payload, int offset, int length) {
+            return AsciiDoubleParser.parse(payload, offset, length);
+        }
+    },
+
+    JSON {
+        @Override
+        protected int write(double value, String name, byte[] buffer) {
+            int position = writeBytes(JSON_VALUE_PREFIX, buffer, 0);
+            position = writeText(value, buffer, position);
+            buffer[position++] = '}';
+            return position;
+        }
+
+        @Override
+        public double decode(byte[] payload, int offset, int length) {
+
+            int end = offset + length;
+            int valueStart = findJsonField(payload, offset, end, JSON_VALUE_KEY);
+
+            if(valueStart < 0)
+                valueStart = findJsonField(payload, offset, end, SENML_JSON_VALUE_KEY);
+
+            if(valueStart < 0)
+                return Double.NaN;
+
+            int valueEnd = valueStart;
+            while(valueEnd < end && payload[valueEnd] != ',' && payload[valueEnd] != '}' && payload[valueEnd] != ']' && payload[valueEnd] > ' ')
+                valueEnd++;
+
+            return AsciiDoubleParser.parse(payload, valueStart, valueEnd - valueStart);
+        }
+    },
+
+    CBOR {
+        @Override
+        protected int write(double value, String name, byte[] buffer) {
+            return writeCborFloat(value, buffer, 0);
+        }
+
+        @Override
+        public double decode(byte[] payload, int offset, int length) {
+            CborReader reader = new CborReader(payload, offset, offset + length);
+            double value = reader.readNumber();
+            return reader.isValid() && reader.isConsumed() ? value : Double.NaN;
+        }
+    },
+
+    MESSAGEPACK {
+        @Override
+        protected int write(double value, String name, byte[] buffer) {
+
+            float floatValue = (float) value;
+
+            if(Double.doubleToRawLongBits(floatValue) == Double.doubleToRawLongBits(value)){
+                buffer[0] = (byte) 0xCA;
+                writeBigEndian(Float.floatToRawIntBits(floatValue), 4, buffer, 1);
+                return 5;
+            }
+
+            buffer[0] = (byte) 0xCB;
+            writeBigEndian(Double.doubleToRawLongBits(value), 8, buffer, 1);
+            return 9;
+        }
+
+        @Override
+        public double decode(byte[] payload, int offset, int length) {
+
+            if(length <= 0)
+                return Double.NaN;
+
+            int type = payload[offset] & 0xFF;
+
+            //Positive and negative fixint
+            if(type <= 0x7F || type >= 0xE0)
+                return length == 1 ? (byte) type : Double.NaN;
+
+            int size;
+            switch (type) {
+                case 0xCA: case 0xCE: case 0xD2: size = 4; break;
+                case 0xCB: case 0xCF: case 0xD3: size = 8; break;
+                case 0xCC: case 0xD0: size = 1; break;
+                case 0xCD: case 0xD1: size = 2; break;
+                default: return Double.NaN;
+            }
+
+            if(length != size + 1)
+                return Double.NaN;
+
+            long bits = readBigEndian(payload, offset + 1, size);
+
+            switch (type) {
+                case 0xCA: return Float.intBitsToFloat((int) bits);
+                case 0xCB: return Double.longBitsToDouble(bits);
+                case 0xCF: return bits >= 0 ? bits : (double) (bits >>> 1) * 2.0;
+                case 0xD0: return (byte) bits;
+                case 0xD1: return (short) bits;
+                case 0xD2: return (int) bits;
+                default: return bits;
+            }
+        }
+    },
+
+    SENML_CBOR {
+        @Override
+        protected int write(double value, String name, byte[] buffer) {
+
+            byte[] encodedName = encodedSenmlName(name);
+
+            //[{0: name, 2: value}]
+            buffer[0] = (byte) 0x81;
+            buffer[1] = (byte) 0xA2;
+            buffer[2] = SENML_NAME_LABEL;
+            int position = writeBytes(encodedName, buffer, 3);
+            buffer[position++] = SENML_VALUE_LABEL;
+
+            return writeCborFloat(value, buffer, position);
+        }
+
+        @Override
+        public double decode(byte[] payload, int offset, int length) {
+
+            CborReader reader = new CborReader(payload, offset, offset + length);
+
+            long records = reader.readHeader(CborReader.MAJOR_TYPE_ARRAY);
+
+            if(records < 1)
+                return Double.NaN;
+
+            //Value of the first record
+            long fields = reader.readHeader(CborReader.MAJOR_TYPE_MAP);
+
+            for(long i = 0; i < fields && reader.isValid(); i++){
+
+                double label = reader.readNumber();
+
+                if(label == SENML_VALUE_LABEL)
+                    return reader.readNumber();
+
+                reader.skip();
+            }
+
+            return Double.NaN;
+        }
+    };
+
+    /**
+     * Max size of the encoded value (names of the SENML_CBOR records excluded)
+     */
+    public static final int MAX_VALUE_SIZE = 64;
+
+    private static final byte SENML_NAME_LABEL = 0;
+
+    private static final byte SENML_VALUE_LABEL = 2;
+
+    private static final String DEFAULT_SENML_NAME = "value";
+
+    private static final byte[] JSON_VALUE_PREFIX = "{\"value\":".getBytes(StandardCharsets.US_ASCII);
+
+    private static final byte[] JSON_VALUE_KEY = "\"value\"".getBytes(StandardCharsets.US_ASCII);
+
+    private static final byte[] SENML_JSON_VALUE_KEY = "\"v\"".getBytes(StandardCharsets.US_ASCII);
+
+    private static final int MAX_CACHED_NAMES = 10000;
+
+    //CBOR text string items of the SenML record names
+    private static final Map<String, byte[]> senmlNameCache = new ConcurrentHashMap<>();
+
+    private static final ThreadLocal<EncodingBuffer> encodingBuffer = ThreadLocal.withInitial(EncodingBuffer::new);
+
+    /**
+     * Reusable buffers of the encoding thread
+     */
+    private static class EncodingBuffer {
+
+        private final StringBuilder text = new StringBuilder(32);
+
+        private byte[] bytes = new byte[MAX_VALUE_SIZE * 2];
+
+        private byte[] ensureCapacity(int capacity) {
+            if(bytes.length < capacity)
+                bytes = new byte[Math.max(capacity, bytes.length * 2)];
+            return bytes;
+        }
+    }
+
+    /**
+     * @param value value to encode
+     * @param name name of the value (E.g. the resource id) used by the formats including it (SENML_CBOR), it can be null
+     */
+    public byte[] encode(double value, String name) {
+        return encode(value, name, byte[]::new);
+    }
+
+    /**
+     * @param allocator provides the returned array of exactly the encoded length (E.g. a recycled buffer of a PipelineDataPool)
+     */
+    public byte[] encode(double value, String name, IntFunction<byte[]> allocator) {
+
+        byte[] buffer = encodingBuffer.get().ensureCapacity(MAX_VALUE_SIZE + (this == SENML_CBOR ? encodedSenmlName(name).length : 0));
+        int length = write(value, name, buffer);
+
+        byte[] payload = allocator.apply(length);
+        System.arraycopy(buffer, 0, payload, 0, length);
+
+        return payload;
+    }
+
+    /**
+     * @return the decoded value or Double.NaN if the payload is not valid for the format
+     */
+    public double decode(byte[] payload) {
+        return payload == null ? Double.NaN : decode(payload, 0, payload.length);
+    }
+
+    public abstract double decode(byte[] payload, int offset, int length);
+
+    /**
+     * Write the encoded value at the beginning of the buffer
+     *
+     * @return the encoded length
+     */
+    protected abstract int write(double value, String name, byte[] buffer);
+
+    private static int writeText(double value, byte[] buffer, int position) {
+
+        //StringBuilder.append(double) formats the value as Double.toString without creating a String
+        StringBuilder text = encodingBuffer.get().text;
+        text.setLength(0);
+        text.append(value);
+
+        for(int i = 0; i < text.length(); i++)
+            buffer[position++] = (byte) text.charAt(i);
+
+        return position;
+    }
+
+    private static int writeBytes(byte[] source, byte[] buffer, int position) {
+        System.arraycopy(source, 0, buffer, position, source.length);
+        return position + source.length;
+    }
+
+    private static int writeCborFloat(double value, byte[] buffer, int position) {
+
+        float floatValue = (float) value;
+
+        if(Double.doubleToRawLongBits(floatValue) == Double.doubleToRawLongBits(value)){
+            buffer[position] = (byte) 0xFA;
+            writeBigEndian(Float.floatToRawIntBits(floatValue), 4, buffer, position + 1);
+            return position + 5;
+        }
+
+        buffer[position] = (byte) 0xFB;
+        writeBigEndian(Double.doubleToRawLongBits(value), 8, buffer, position + 1);
+        return position + 9;
+    }
+
+    private static void writeBigEndian(long value, int size, byte[] buffer, int position) {
+        for(int i = size - 1; i >= 0; i--){
+            buffer[position + i] = (byte) value;
+            value >>>= 8;
+        }
+    }
+
+    private static long readBigEndian(byte[] buffer, int position, int size) {
+        long value = 0;
+        for(int i = 0; i < size; i++)
+            value = (value << 8) | (buffer[position + i] & 0xFF);
+        return value;
+    }
+
+    private static byte[] encodedSenmlName(String name) {
+
+        String recordName = name != null ? name : DEFAULT_SENML_NAME;
+        byte[] encodedName = senmlNameCache.get(recordName);
+
+        if(encodedName != null)
+            return encodedName;
+
+        byte[] nameBytes = recordName.getBytes(StandardCharsets.UTF_8);
+        encodedName = new byte[CborReader.headerSize(nameBytes.length) + nameBytes.length];
+        int position = CborReader.writeHeader(CborReader.MAJOR_TYPE_TEXT_STRING, nameBytes.length, encodedName, 0);
+        writeBytes(nameBytes, encodedName, position);
+
+        if(senmlNameCache.size() >= MAX_CACHED_NAMES)
+            senmlNameCache.clear();
+
+        senmlNameCache.put(recordName, encodedName);
+
+        return encodedName;
+    }
+
+    /**
+     * @return the index of the first byte of the field value or -1 if the key is not found
+     */
+    private static int findJsonField(byte[] payload, int offset, int end, byte[] key) {
+
+        for(int i = offset; i <= end - key.length; i++){
+
+            int j = 0;
+            while(j < key.length && payload[i + j] == key[j])
+                j++;
+
+            if(j < key.length)
+                continue;
+
+            int position = skipWhitespaces(payload, i + key.length, end);
+
+            if(position < end && payload[position] == ':')
+                return skipWhitespaces(payload, position + 1, end);
+        }
+
+        return -1;
+    }
+
+    private static int skipWhitespaces(byte[] payload, int position, int end) {
+        while(position < end && payload[position] <= ' ' && payload[position] >= 0)
+            position++;
+        return position;
+    }
+}
@@ -0,0 +1,141 @@
+package it.unimore.dipi.iot.demo.mqtt.wldt.control;
+
+/**
+ * Configuration of the MqttCommandControlStep
+ *
+ * @created: 18/10/2026
+ * @project: WLDT - MQTT Example
+ */
+public class CommandControlConfiguration {
+
+    //Identical commands for the same device received within the window are discarded, 0 to disable the deduplication
+    private long deduplicationWindowMs = 5000;
+
+    private double deviceRatePerSecond = 1.0;
+
+    private int deviceBurst = 3;
+
+    private double appRatePerSecond = 10.0;
+
+    private int appBurst = 20;
+
+    //If enabled the commands exceeding the device rate wait for the next permit and a newer command for the same device
+    //replaces the waiting one, otherwise they are rejected
+    private boolean coalescingEnabled = true;
+
+    private int maxDevices = 100000;
+
+    private int maxApps = 10000;
+
+    //Idle time after which the state of a device or an application is released
+    private long idleTimeoutMs = 10 * 60 * 1000;
+
+    public CommandControlConfiguration() {
+    }
+
+    /**
+     * @throws IllegalArgumentException if the configuration is not valid
+     */
+    public void validate() {
+
+        if(deduplicationWindowMs < 0)
+            throw new IllegalArgumentException(String.format("Invalid deduplication window: %d ms !", deduplicationWindowMs));
+
+        if(!(deviceRatePerSecond > 0.0) || deviceBurst <= 0)
+            throw new IllegalArgumentException("Device Rate and Burst must be greater than 0 !");
+
+        if(!(appRatePerSecond > 0.0) || appBurst <= 0)
+            throw new IllegalArgumentException("App Rate and Burst must be greater than 0 !");
+
+        if(maxDevices <= 0 || maxApps <= 0 || idleTimeoutMs <= 0)
+            throw new IllegalArgumentException("Max Devices, Max Apps and Idle Timeout must be greater than 0 !");
+    }
+
+    public long getDeduplicationWindowMs() {
+        return deduplicationWindowMs;
+    }
+
+    public void setDeduplicationWindowMs(long deduplicationWindowMs) {
+        this.deduplicationWindowMs = deduplicationWindowMs;
+    }
+
+    public double getDeviceRatePerSecond() {
+        return deviceRatePerSecond;
+    }
+
+    public void setDeviceRatePerSecond(double deviceRatePerSecond) {
+        this.deviceRatePerSecond = deviceRatePerSecond;
+    }
+
+    public int getDeviceBurst() {
+        return deviceBurst;
+    }
+
+    public void setDeviceBurst(int deviceBurst) {
+        this.deviceBurst = deviceBurst;
+    }
+
+    public double getAppRatePerSecond() {
+        return appRatePerSecond;
+    }
+
+    public void setAppRatePerSecond(double appRatePerSecond) {
+        this.appRatePerSecond = appRatePerSecond;
+    }
+
+    public int getAppBurst() {
+        return appBurst;
+    }
+
+    public void setAppBurst(int appBurst) {
+        this.appBurst = appBurst;
+    }
+
+    public boolean isCoalescingEnabled() {
+        return coalescingEnabled;
+    }
+
+    public void setCoalescingEnabled(boolean coalescingEnabled) {
+        this.coalescingEnabled = coalescingEnabled;
+    }
+
+    public int getMaxDevices() {
+        return maxDevices;
+    }
+
+    public void setMaxDevices(int maxDevices) {
+        this.maxDevices = maxDevices;
+    }
+
+    public int getMaxApps() {
+        return maxApps;
+    }
+
+    public void setMaxApps(int maxApps) {
+        this.maxApps = maxApps;
+    }
+
+    public long getIdleTimeoutMs() {
+        return idleTimeoutMs;
+    }
+
+    public void setIdleTimeoutMs(long idleTimeoutMs) {
+        this.idleTimeoutMs = idleTimeoutMs;
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder("CommandControlConfiguration{");
+        sb.append("deduplicationWindowMs=").append(deduplicationWindowMs);
+        sb.append(", deviceRatePerSecond=").append(deviceRatePerSecond);
+        sb.append(", deviceBurst=").append(deviceBurst);
+        sb.append(", appRatePerSecond=").append(appRatePerSecond);
+        sb.append(", appBurst=").append(appBurst);
+        sb.append(", coalescingEnabled=").append(coalescingEnabled);
+        sb.append(", maxDevices=").append(maxDevices);
+        sb.append(", maxApps=").append(maxApps);
+        sb.append(", idleTimeoutMs=").append(idleTimeoutMs);
+        sb.append('}');
+        return sb.toString();
+    }
+}
@@ -0,0 +1,299 @@
+package it.unimore.dipi.iot.demo.mqtt.wldt.control;
+
+import it.unimore.dipi.iot.demo.mqtt.utils.LogSampler;
+import it.unimore.dipi.iot.demo.mqtt.utils.TimerWheel;
+import it.unimore.dipi.iot.demo.mqtt.wldt.pipeline.PartitionedExecutor;
+import it.unimore.dipi.iot.demo.mqtt.wldt.pipeline.PipelineExecutor;
+import it.unimore.dipi.iot.demo.mqtt.wldt.state.TopicStateStore;
+import it.unimore.dipi.iot.wldt.processing.ProcessingStep;
+import it.unimore.dipi.iot.wldt.processing.ProcessingStepListener;
+import it.unimore.dipi.iot.wldt.worker.mqtt.MqttPipelineData;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Decides if a command sent by an application has to be forwarded to its device:
+ *
+ * - Deduplication: a command identical to one forwarded to the same device within the deduplication window is discarded
+ * - App rate limit: each application (ANONYMOUS_APP_ID when it can not be identified) has its own token bucket
+ * - Device rate limit: each device has its own token bucket. With coalescing enabled a command exceeding the rate waits for
+ *   the next permit and a newer command for the same device replaces it (the last command wins), otherwise it is rejected.
+ *
+ * The states of devices and applications are kept in sharded TopicStateStores (released when idle) and updated only
+ * through compare and set. Waiting commands are dispatched by a TimerWheel on the executor partition of the
+ * device (the executor of the command pipeline), so their pipeline continues on a different thread: the step must be used in a ConcurrentProcessingPipeline,
+ * where each message has its own listener.
+ *
+ * @created: 18/10/2026
+ * @project: WLDT - MQTT Example
+ */
+public class CommandController {
+
+    private static final Logger logger = LoggerFactory.getLogger(CommandController.class);
+
+    private static final LogSampler rejectionLogSampler = LogSampler.perSecond(10);
+
+    public static final String ANONYMOUS_APP_ID = "anonymous";
+
+    private static final String TIMER_WHEEL_NAME = "wldt-command-control";
+
+    private static final long TIMER_TICK_MS = 10;
+
+    private final CommandControlConfiguration configuration;
+
+    private final TopicStateStore<DeviceCommandState> deviceStates;
+
+    private final TopicStateStore<RateLimiter> appRateLimiters;
+
+    private final PipelineExecutor executor;
+
+    private final TimerWheel timerWheel;
+
+    private volatile CommandRejectionListener rejectionListener;
+
+    private final LongAdder forwardedCount = new LongAdder();
+
+    private final LongAdder deferredCount = new LongAdder();
+
+    private final LongAdder[] rejectedCounts;
+
+    public CommandController(CommandControlConfiguration configuration) {
+        this(configuration, PartitionedExecutor.getDefault());
+    }
+
+    public CommandController(CommandControlConfiguration configuration, PipelineExecutor executor) {
+
+        configuration.validate();
+
+        this.configuration = configuration;
+        this.executor = executor;
+
+        this.deviceStates = new TopicStateStore<>(key -> new DeviceCommandState(new RateLimiter(configuration.getDeviceRatePerSecond(), configuration.getDeviceBurst())),
+                configuration.getMaxDevices(), configuration.getIdleTimeoutMs(), TopicStateStore.DEFAULT_SHARD_COUNT);
+
+        this.appRateLimiters = new TopicStateStore<>(key -> new RateLimiter(configuration.getAppRatePerSecond(), configuration.getAppBurst()),
+                configuration.getMaxApps(), configuration.getIdleTimeoutMs(), TopicStateStore.DEFAULT_SHARD_COUNT);
+
+        this.rejectedCounts = new LongAdder[CommandRejectionReason.values().length];
+        for(int i = 0; i < rejectedCounts.length; i++)
+            rejectedCounts[i] = new LongAdder();
+
+        this.deviceStates.startEviction(TopicStateStore.DEFAULT_EVICTION_PERIOD_MS);
+        this.appRateLimiters.startEviction(TopicStateStore.DEFAULT_EVICTION_PERIOD_MS);
+
+        this.timerWheel = new TimerWheel(TIMER_WHEEL_NAME, TIMER_TICK_MS, TimerWheel.DEFAULT_WHEEL_SIZE);
+        this.timerWheel.start();
+
+        logger.info("Command Controller created ! Configuration: {}", configuration);
+    }
+
+    /**
+     * Apply the command control to the received command. The processing is completed through the listener:
+     * onStepDone with the command when it is forwarded (immediately or after waiting for the device rate limiter)
+     * or with an empty result when it is rejected.
+     *
+     * @param appId the application sending the command, null if unknown
+     */
+    public void submit(String deviceId, String appId, MqttPipelineData data, ProcessingStep step, ProcessingStepListener listener) {
+
+        String applicationId = appId != null ? appId : ANONYMOUS_APP_ID;
+
+        DeviceCommandState deviceState = deviceStates.getOrCreate(deviceId);
+
+        if(deviceState == null){
+            reject(data, applicationId, CommandRejectionReason.OVERFLOW, step, listener);
+            return;
+        }
+
+        DeviceCommandState.RecentCommand recentCommand = null;
+
+        if(configuration.getDeduplicationWindowMs() > 0){
+
+            recentCommand = deviceState.record(data.getPayload(), System.currentTimeMillis(), configuration.getDeduplicationWindowMs());
+
+            if(recentCommand == null){
+                reject(data, applicationId, CommandRejectionReason.DUPLICATE, step, listener);
+                return;
+            }
+        }
+
+        RateLimiter appRateLimiter = appRateLimiters.getOrCreate(applicationId);
+
+        //Sampled after the lookup: a limiter created now starts full only from its creation time
+        long nowNanos = System.nanoTime();
+
+        if(appRateLimiter == null || appRateLimiter.tryAcquire(nowNanos) > 0){
+            deviceState.forget(recentCommand);
+            reject(data, applicationId, appRateLimiter == null ? CommandRejectionReason.OVERFLOW : CommandRejectionReason.APP_RATE_LIMITED, step, listener);
+            return;
+        }
+
+        if(!configuration.isCoalescingEnabled()){
+
+            if(deviceState.getRateLimiter().tryAcquire(nowNanos) == 0)
+                forward(data, step, listener);
+            else {
+                deviceState.forget(recentCommand);
+                reject(data, applicationId, CommandRejectionReason.DEVICE_RATE_LIMITED, step, listener);
+            }
+
+            return;
+        }
+
+        PendingCommand command = null;
+
+        for(;;){
+
+            PendingCommand previous = deviceState.pendingCommand.get();
+
+            if(previous == null){
+
+                long waitNanos = deviceState.getRateLimiter().tryAcquire(nowNanos);
+
+                //Nothing waiting for the device: the command does not overtake an older one
+                if(waitNanos == 0){
+                    forward(data, step, listener);
+                    return;
+                }
+
+                if(command == null)
+                    command = new PendingCommand(this, deviceState, deviceId, applicationId, data, recentCommand, step, listener);
+
+                if(deviceState.pendingCommand.compareAndSet(null, command)){
+                    deferredCount.increment();
+                    timerWheel.schedule(command, toMillis(waitNanos));
+                    return;
+                }
+            }
+            else {
+
+                if(command == null)
+                    command = new PendingCommand(this, deviceState, deviceId, applicationId, data, recentCommand, step, listener);
+
+                //The timer task of the previous command dispatches the new one
+                if(deviceState.pendingCommand.compareAndSet(previous, command)){
+                    deferredCount.increment();
+                    supersede(previous);
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * Called by the timer when the rate limiter of the device should have a new permit
+     */
+    void dispatchPending(DeviceCommandState deviceState, PendingCommand timerTask) {
+
+        PendingCommand command = deviceState.pendingCommand.getAndSet(null);
+
+        if(command == null)
+            return;
+
+        long waitNanos = deviceState.getRateLimiter().tryAcquire(System.nanoTime());
+
+        if(waitNanos > 0){
+
+            if(deviceState.pendingCommand.compareAndSet(null, command))
+                timerWheel.schedule(timerTask, toMillis(waitNanos));
+            else
+                supersede(command);
+
+            return;
+        }
+
+        //The timer thread must not block: the pipeline continues on the partition of the device
+        if(!executor.execute(executor.partitionFor(command.deviceId), () -> forward(command.data, command.step, command.listener))){
+            deviceState.forget(command.recentCommand);
+            reject(command.data, command.appId, CommandRejectionReason.OVERFLOW, command.step, command.listener);
+        }
+    }
+
+    private void supersede(PendingCommand command) {
+        command.deviceState.forget(command.recentCommand);
+        reject(command.data, command.appId, CommandRejectionReason.SUPERSEDED, command.step, command.listener);
+    }
+
+    private void forward(MqttPipelineData data, ProcessingStep step, ProcessingStepListener listener) {
+        forwardedCount.increment();
+        listener.onStepDone(step, Optional.of(data));
+    }
+
+    private void reject(MqttPipelineData data, String appId, CommandRejectionReason reason, ProcessingStep step, ProcessingStepListener listener) {
+
+        rejectedCounts[reason.ordinal()].increment();
+
+        if(rejectionLogSampler.sample())
+            logger.warn("Command on {} from {} rejected ! Reason: {} Suppressed: {}", data.getTopic(), appId, reason, rejectionLogSampler.drainSuppressedCount());
+
+        CommandRejectionListener currentListener = this.rejectionListener;
+
+        if(currentListener != null){
+            try{
+                currentListener.onCommandRejected(data, appId, reason);
+            }catch (Exception e){
+                logger.error("Command Rejection Listener error: {}", e.getLocalizedMessage());
+            }
+        }
+
+        listener.onStepDone(step, Optional.empty());
+    }
+
+    private static long toMillis(long nanos) {
+        return Math.max(1, (nanos + TimeUnit.MILLISECONDS.toNanos(1) - 1) / TimeUnit.MILLISECONDS.toNanos(1));
+    }
+
+    /**
+     * Stop the timer and release the states. Commands still waiting for the rate limiter are not completed.
+     */
+    public void close() {
+        timerWheel.stop();
+        deviceStates.close();
+        appRateLimiters.close();
+    }
+
+    public void setRejectionListener(CommandRejectionListener rejectionListener) {
+        this.rejectionListener = rejectionListener;
+    }
+
+    public CommandControlConfiguration getConfiguration() {
+        return configuration;
+    }
+
+    public long getForwardedCount() {
+        return forwardedCount.sum();
+    }
+
+    /**
+     * @return commands that waited for the device rate limiter
+     */
+    public long getDeferredCount() {
+        return deferredCount.sum();
+    }
+
+    public long getRejectedCount(CommandRejectionReason reason) {
+        return rejectedCounts[reason.ordinal()].sum();
+    }
+
+    public long getRejectedCount() {
+
+        long rejectedCount = 0;
+
+        for(LongAdder count : rejectedCounts)
+            rejectedCount += count.sum();
+
+        return rejectedCount;
+    }
+
+    public int getDeviceCount() {
+        return deviceStates.size();
+    }
+
+    public int getAppCount() {
+        return appRateLimiters.size();
+    }
+}
@@ -0,0 +1,16 @@
+package it.unimore.dipi.iot.demo.mqtt.wldt.control;
+
+import it.unimore.dipi.iot.wldt.worker.mqtt.MqttPipelineData;
+
+/**
+ * Listener notified by the MqttCommandControlStep for each command that is not forwarded to the device.
+ * It is called on the pipeline threads (or on the command control timer for the superseded commands) and must not block.
+ *
+ * @created: 18/10/2026
+ * @project: WLDT - MQTT Example
+ */
+public interface CommandRejectionListener {
+
+    public void onCommandRejected(MqttPipelineData command, String appId, CommandRejectionReason reason);
+
+}
@@ -0,0 +1,21 @@
+package it.unimore.dipi.iot.demo.mqtt.wldt.control;
+
+/**
+ * Reasons for which the MqttCommandControlStep does not forward a command to the device
+ *
+ * DUPLICATE: the same command has already been sent to the device within the deduplication window
+ * APP_RATE_LIMITED: the application sending the command exceeded its rate limit
+ * DEVICE_RATE_LIMITED: the device already received the commands allowed by its rate limit (coalescing disabled)
+ * SUPERSEDED: the command was waiting for the device rate limit and a newer command replaced it
+ * OVERFLOW: the command state can not be created (too many devices or applications) or the executor is full
+ *
+ * @created: 18/10/2026
+ * @project: WLDT - MQTT Example
+ */
+public enum CommandRejectionReason {
+    DUPLICATE,
+    APP_RATE_LIMITED,
+    DEVICE_RATE_LIMITED,
+    SUPERSEDED,
+    OVERFLOW
+}
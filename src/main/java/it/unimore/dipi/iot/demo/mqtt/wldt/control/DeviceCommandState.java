@@ -0,0 +1,82 @@
+package it.unimore.dipi.iot.demo.mqtt.wldt.control;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Command control state of a device: the rate limiter, the recently forwarded commands (used for the deduplication)
+ * and the command waiting for the next permit of the rate limiter.
+ *
+ * Recent commands are kept in a small direct-mapped table indexed by the payload hash: a command can only be evicted by
+ * a different command with a colliding hash, so the deduplication is exact for the last few distinct commands of each device.
+ * All the fields are updated through compare and set, the state can be shared by the pipeline threads without locks.
+ *
+ * @created: 18/10/2026
+ * @project: WLDT - MQTT Example
+ */
+class DeviceCommandState {
+
+    private static final int RECENT_COMMAND_SLOTS = 8;
+
+    static final class RecentCommand {
+
+        private final int hash;
+
+        private final byte[] payload;
+
+        private final long timestamp;
+
+        private RecentCommand(int hash, byte[] payload, long timestamp) {
+            this.hash = hash;
+            this.payload = payload;
+            this.timestamp = timestamp;
+        }
+    }
+
+    private final RateLimiter rateLimiter;
+
+    private final AtomicReferenceArray<RecentCommand> recentCommands = new AtomicReferenceArray<>(RECENT_COMMAND_SLOTS);
+
+    //Command waiting for the next permit of the rate limiter
+    final AtomicReference<PendingCommand> pendingCommand = new AtomicReference<>();
+
+    DeviceCommandState(RateLimiter rateLimiter) {
+        this.rateLimiter = rateLimiter;
+    }
+
+    /**
+     * Record the command unless the same payload has been recorded within the window
+     *
+     * @return the recorded command (to be forgotten if it is not forwarded) or null if it is a duplicate
+     */
+    RecentCommand record(byte[] payload, long timestamp, long windowMs) {
+
+        int hash = Arrays.hashCode(payload);
+        int slot = hash & (RECENT_COMMAND_SLOTS - 1);
+        RecentCommand command = new RecentCommand(hash, payload, timestamp);
+
+        for(;;){
+
+            RecentCommand recent = recentCommands.get(slot);
+
+            if(recent != null && recent.hash == hash && timestamp - recent.timestamp < windowMs && Arrays.equals(recent.payload, payload))
+                return null;
+
+            if(recentCommands.compareAndSet(slot, recent, command))
+                return command;
+        }
+    }
+
+    /**
+     * Remove a recorded command that has not been forwarded, so it is not considered a duplicate when sent again
+     */
+    void forget(RecentCommand command) {
+        if(command != null)
+            recentCommands.compareAndSet(command.hash & (RECENT_COMMAND_SLOTS - 1), command, null);
+    }
+
+    RateLimiter getRateLimiter() {
+        return rateLimiter;
+    }
+}
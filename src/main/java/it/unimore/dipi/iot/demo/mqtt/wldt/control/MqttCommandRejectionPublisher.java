@@ -0,0 +1,95 @@
+package it.unimore.dipi.iot.demo.mqtt.wldt.control;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import it.unimore.dipi.iot.demo.mqtt.utils.LogSampler;
+import it.unimore.dipi.iot.demo.mqtt.wldt.publish.OutgoingPublisher;
+import it.unimore.dipi.iot.wldt.worker.mqtt.MqttPipelineData;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+
+/**
+ * CommandRejectionListener reporting the rejected commands to the applications on the destination broker,
+ * on the command topic followed by the rejection suffix (E.g. command/com:iot:dummy:dummyMqttDevice001/rejected):
+ *
+ * {"topic": "command/com:iot:dummy:dummyMqttDevice001", "appId": "anonymous", "reason": "DEVICE_RATE_LIMITED",
+ *  "timestamp": 1792303600000, "command": "REBOOT_DEVICE"}
+ *
+ * Reports are sent through an OutgoingPublisher (E.g. a BatchingMqttPublisher) and dropped when it is full,
+ * so a flood of rejected commands does not slow down the command pipeline.
+ *
+ * @created: 18/10/2026
+ * @project: WLDT - MQTT Example
+ */
+public class MqttCommandRejectionPublisher implements CommandRejectionListener {
+
+    private static final Logger logger = LoggerFactory.getLogger(MqttCommandRejectionPublisher.class);
+
+    private static final LogSampler dropLogSampler = LogSampler.perSecond(1);
+
+    public static final String DEFAULT_TOPIC_SUFFIX = "rejected";
+
+    private final OutgoingPublisher publisher;
+
+    private final String topicSuffix;
+
+    private final JsonFactory jsonFactory = new JsonFactory();
+
+    public MqttCommandRejectionPublisher(OutgoingPublisher publisher) {
+        this(publisher, DEFAULT_TOPIC_SUFFIX);
+    }
+
+    public MqttCommandRejectionPublisher(OutgoingPublisher publisher, String topicSuffix) {
+
+        if(publisher == null || topicSuffix == null || topicSuffix.isEmpty())
+            throw new IllegalArgumentException("Publisher and Topic Suffix can not be null or empty !");
+
+        this.publisher = publisher;
+        this.topicSuffix = topicSuffix;
+    }
+
+    @Override
+    public void onCommandRejected(MqttPipelineData command, String appId, CommandRejectionReason reason) {
+
+        try{
+
+            String rejectionTopic = command.getTopic() + "/" + topicSuffix;
+
+            if(!publisher.publish(new MqttPipelineData(rejectionTopic, command.getMqttTopicDescriptor(), encode(command, appId, reason), false)) && dropLogSampler.sample())
+                logger.warn("Command rejection report on {} dropped: publisher full ! Suppressed: {}", rejectionTopic, dropLogSampler.drainSuppressedCount());
+
+        }catch (IOException e){
+            logger.error("Error encoding command rejection report: {}", e.getLocalizedMessage());
+        }
+    }
+
+    private byte[] encode(MqttPipelineData command, String appId, CommandRejectionReason reason) throws IOException {
+
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream(128);
+
+        try(JsonGenerator generator = jsonFactory.createGenerator(outputStream)){
+
+            generator.writeStartObject();
+            generator.writeStringField("topic", command.getTopic());
+            generator.writeStringField("appId", appId);
+            generator.writeStringField("reason", reason.name());
+            generator.writeNumberField("timestamp", System.currentTimeMillis());
+
+            if(command.getPayload() != null){
+                generator.writeFieldName("command");
+                generator.writeUTF8String(command.getPayload(), 0, command.getPayload().length);
+            }
+
+            generator.writeEndObject();
+        }
+
+        return outputStream.toByteArray();
+    }
+
+    public String getTopicSuffix() {
+        return topicSuffix;
+    }
+}
@@ -0,0 +1,53 @@
+package it.unimore.dipi.iot.demo.mqtt.wldt.control;
+
+import it.unimore.dipi.iot.demo.mqtt.utils.TimerWheel;
+import it.unimore.dipi.iot.wldt.processing.ProcessingStep;
+import it.unimore.dipi.iot.wldt.processing.ProcessingStepListener;
+import it.unimore.dipi.iot.wldt.worker.mqtt.MqttPipelineData;
+
+/**
+ * Command waiting for the rate limiter of its device. The processing of the command is suspended
+ * until the CommandController completes it through the step listener (forwarded or rejected).
+ *
+ * The task scheduled on the timer dispatches the command pending for the device when it fires,
+ * that can be a newer command that superseded this one.
+ *
+ * @created: 18/10/2026
+ * @project: WLDT - MQTT Example
+ */
+class PendingCommand extends TimerWheel.Task {
+
+    private final CommandController controller;
+
+    final DeviceCommandState deviceState;
+
+    final String deviceId;
+
+    final String appId;
+
+    final MqttPipelineData data;
+
+    //Recorded for the deduplication, null if the deduplication is disabled
+    final DeviceCommandState.RecentCommand recentCommand;
+
+    final ProcessingStep step;
+
+    final ProcessingStepListener listener;
+
+    PendingCommand(CommandController controller, DeviceCommandState deviceState, String deviceId, String appId,
+                   MqttPipelineData data, DeviceCommandState.RecentCommand recentCommand, ProcessingStep step, ProcessingStepListener listener) {
+        this.controller = controller;
+        this.deviceState = deviceState;
+        this.deviceId = deviceId;
+        this.appId = appId;
+        this.data = data;
+        this.recentCommand = recentCommand;
+        this.step = step;
+        this.listener = listener;
+    }
+
+    @Override
+    public void run() {
+        controller.dispatchPending(deviceState, this);
+    }
+}
@@ -0,0 +1,61 @@
+package it.unimore.dipi.iot.demo.mqtt.wldt.control;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lock-free token bucket of permitsPerSecond permits with a capacity of burst permits.
+ *
+ * The bucket is implemented as in the generic cell rate algorithm: the only state is the theoretical arrival time
+ * of the next permit, updated with a single compare and set, so the limiter of an application can be shared by
+ * the pipeline threads without locks and costs a few bytes.
+ *
+ * @created: 18/10/2026
+ * @project: WLDT - MQTT Example
+ */
+public class RateLimiter {
+
+    private final long emissionIntervalNanos;
+
+    private final long burstToleranceNanos;
+
+    private final AtomicLong theoreticalArrivalTime;
+
+    public RateLimiter(double permitsPerSecond, int burst) {
+
+        if(!(permitsPerSecond > 0.0) || burst <= 0)
+            throw new IllegalArgumentException(String.format("Invalid rate limit: %f permits/s burst %d ! They must be greater than 0", permitsPerSecond, burst));
+
+        this.emissionIntervalNanos = Math.max(1, (long) (TimeUnit.SECONDS.toNanos(1) / permitsPerSecond));
+        this.burstToleranceNanos = emissionIntervalNanos * (burst - 1);
+
+        //The bucket starts full
+        this.theoreticalArrivalTime = new AtomicLong(System.nanoTime());
+    }
+
+    /**
+     * Take a permit if available
+     *
+     * @param nowNanos current System.nanoTime()
+     * @return 0 if the permit has been taken, otherwise the nanoseconds to wait for the next permit
+     */
+    public long tryAcquire(long nowNanos) {
+
+        for(;;){
+
+            long arrivalTime = theoreticalArrivalTime.get();
+            long start = arrivalTime - nowNanos > 0 ? arrivalTime : nowNanos;
+            long waitNanos = start - burstToleranceNanos - nowNanos;
+
+            if(waitNanos > 0)
+                return waitNanos;
+
+            if(theoreticalArrivalTime.compareAndSet(arrivalTime, start + emissionIntervalNanos))
+                return 0;
+        }
+    }
+
+    public long getEmissionIntervalNanos() {
+        return emissionIntervalNanos;
+    }
+}
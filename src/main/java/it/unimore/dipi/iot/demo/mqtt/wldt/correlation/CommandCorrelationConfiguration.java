@@ -0,0 +1,71 @@
+package it.unimore.dipi.iot.demo.mqtt.wldt.correlation;
+
+/**
+ * Configuration of the CommandCorrelationTracker
+ *
+ * @created: 18/10/2026
+ * @project: WLDT - MQTT Example
+ */
+public class CommandCorrelationConfiguration {
+
+    //Time allowed to the device to respond before the command is reported as timed out
+    private long timeoutMs = 10000;
+
+    //Commands sent when the table is full are forwarded without a correlation id (untracked)
+    private int maxOutstanding = 100000;
+
+    //Resolution of the timeouts
+    private long timerTickMs = 10;
+
+    public CommandCorrelationConfiguration() {
+    }
+
+    /**
+     * @throws IllegalArgumentException if the configuration is not valid
+     */
+    public void validate() {
+
+        if(timeoutMs <= 0 || timerTickMs <= 0)
+            throw new IllegalArgumentException("Timeout and Timer Tick must be greater than 0 !");
+
+        if(timerTickMs > timeoutMs)
+            throw new IllegalArgumentException(String.format("Timer Tick (%d ms) can not be greater than the Timeout (%d ms) !", timerTickMs, timeoutMs));
+
+        if(maxOutstanding <= 0)
+            throw new IllegalArgumentException(String.format("Invalid max outstanding commands: %d !", maxOutstanding));
+    }
+
+    public long getTimeoutMs() {
+        return timeoutMs;
+    }
+
+    public void setTimeoutMs(long timeoutMs) {
+        this.timeoutMs = timeoutMs;
+    }
+
+    public int getMaxOutstanding() {
+        return maxOutstanding;
+    }
+
+    public void setMaxOutstanding(int maxOutstanding) {
+        this.maxOutstanding = maxOutstanding;
+    }
+
+    public long getTimerTickMs() {
+        return timerTickMs;
+    }
+
+    public void setTimerTickMs(long timerTickMs) {
+        this.timerTickMs = timerTickMs;
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder("CommandCorrelationConfiguration{");
+        sb.append("timeoutMs=").append(timeoutMs);
+        sb.append(", maxOutstanding=").append(maxOutstanding);
+        sb.append(", timerTickMs=").append(timerTickMs);
+        sb.append('}');
+        return sb.toString();
+    }
+}
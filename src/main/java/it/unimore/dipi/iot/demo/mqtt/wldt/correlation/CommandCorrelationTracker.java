@@ -0,0 +1,206 @@
+package it.unimore.dipi.iot.demo.mqtt.wldt.correlation;
+
+import it.unimore.dipi.iot.demo.mqtt.utils.LogSampler;
+import it.unimore.dipi.iot.demo.mqtt.utils.TimerWheel;
+import it.unimore.dipi.iot.demo.mqtt.wldt.metrics.Histogram;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Table of the commands sent to the devices and waiting for a response.
+ *
+ * Each command receives a correlation id (added to the CommandDataStructure) that the device returns in its response.
+ * Outstanding commands are kept in a ConcurrentHashMap and their timeouts are driven by a single TimerWheel thread:
+ * the table scales to a large number of outstanding commands without a thread or a scheduled future for each of them.
+ *
+ * A response and the timeout of the same command race on the removal from the table: only the first one is counted.
+ * The timer task of a command answered in time stays in the wheel until its deadline and is then discarded.
+ *
+ * @created: 18/10/2026
+ * @project: WLDT - MQTT Example
+ */
+public class CommandCorrelationTracker {
+
+    private static final Logger logger = LoggerFactory.getLogger(CommandCorrelationTracker.class);
+
+    private static final LogSampler timeoutLogSampler = LogSampler.perSecond(10);
+
+    private static final LogSampler unmatchedLogSampler = LogSampler.perSecond(10);
+
+    private static final String TIMER_WHEEL_NAME = "wldt-command-correlation";
+
+    private final CommandCorrelationConfiguration configuration;
+
+    private final Map<String, OutstandingCommand> outstandingCommands = new ConcurrentHashMap<>();
+
+    private final AtomicInteger outstandingCount = new AtomicInteger();
+
+    //Ids of different runs do not collide: late responses to the commands of a previous run are not matched
+    private final String idPrefix = Long.toString(System.currentTimeMillis(), Character.MAX_RADIX) + "-";
+
+    private final AtomicLong idSequence = new AtomicLong();
+
+    private final TimerWheel timerWheel;
+
+    private volatile CommandTimeoutListener timeoutListener;
+
+    private final Histogram roundTripLatency = Histogram.latency();
+
+    private final LongAdder matchedCount = new LongAdder();
+
+    private final LongAdder timedOutCount = new LongAdder();
+
+    private final LongAdder unmatchedCount = new LongAdder();
+
+    private final LongAdder untrackedCount = new LongAdder();
+
+    public CommandCorrelationTracker(CommandCorrelationConfiguration configuration) {
+
+        configuration.validate();
+
+        this.configuration = configuration;
+
+        this.timerWheel = new TimerWheel(TIMER_WHEEL_NAME, configuration.getTimerTickMs(), TimerWheel.DEFAULT_WHEEL_SIZE);
+        this.timerWheel.start();
+
+        logger.info("Command Correlation Tracker created ! Configuration: {}", configuration);
+    }
+
+    /**
+     * Track a command sent to the device
+     *
+     * @return the correlation id of the command or null if the table is full and the command is not tracked
+     */
+    public String register(String deviceId) {
+
+        for(;;){
+
+            int count = outstandingCount.get();
+
+            if(count >= configuration.getMaxOutstanding()){
+                untrackedCount.increment();
+                return null;
+            }
+
+            if(outstandingCount.compareAndSet(count, count + 1))
+                break;
+        }
+
+        String correlationId = idPrefix + Long.toString(idSequence.incrementAndGet(), Character.MAX_RADIX);
+        OutstandingCommand command = new OutstandingCommand(this, correlationId, deviceId, System.nanoTime());
+
+        outstandingCommands.put(correlationId, command);
+        timerWheel.schedule(command, configuration.getTimeoutMs());
+
+        return correlationId;
+    }
+
+    /**
+     * Match the response of a device with its outstanding command and record the round trip latency
+     *
+     * @param deviceId the device sending the response, null to skip the check
+     * @return false if the command is unknown, already timed out or sent to a different device
+     */
+    public boolean onResponse(String deviceId, String correlationId) {
+
+        OutstandingCommand command = correlationId != null ? outstandingCommands.get(correlationId) : null;
+
+        if(command == null || (deviceId != null && !deviceId.equals(command.deviceId)) || !outstandingCommands.remove(correlationId, command)){
+
+            unmatchedCount.increment();
+
+            if(unmatchedLogSampler.sample())
+                logger.warn("Unmatched command response ! Device: {} Correlation Id: {} Suppressed: {}", deviceId, correlationId, unmatchedLogSampler.drainSuppressedCount());
+
+            return false;
+        }
+
+        outstandingCount.decrementAndGet();
+        roundTripLatency.record(System.nanoTime() - command.sentNanos);
+        matchedCount.increment();
+
+        return true;
+    }
+
+    /**
+     * Called on the timer thread when the timeout of the command expires
+     */
+    void expire(OutstandingCommand command) {
+
+        //Already removed by its response
+        if(!outstandingCommands.remove(command.correlationId, command))
+            return;
+
+        outstandingCount.decrementAndGet();
+        timedOutCount.increment();
+
+        if(timeoutLogSampler.sample())
+            logger.warn("Command {} to {} timed out after {} ms ! Suppressed: {}", command.correlationId, command.deviceId, configuration.getTimeoutMs(), timeoutLogSampler.drainSuppressedCount());
+
+        CommandTimeoutListener currentListener = this.timeoutListener;
+
+        if(currentListener != null){
+            try{
+                currentListener.onCommandTimeout(command.deviceId, command.correlationId, configuration.getTimeoutMs());
+            }catch (Exception e){
+                logger.error("Command Timeout Listener error: {}", e.getLocalizedMessage());
+            }
+        }
+    }
+
+    /**
+     * Stop the timer. Outstanding commands are neither matched nor reported as timed out.
+     */
+    public void close() {
+        timerWheel.stop();
+        outstandingCommands.clear();
+        outstandingCount.set(0);
+    }
+
+    public void setTimeoutListener(CommandTimeoutListener timeoutListener) {
+        this.timeoutListener = timeoutListener;
+    }
+
+    public CommandCorrelationConfiguration getConfiguration() {
+        return configuration;
+    }
+
+    /**
+     * @return round trip latency (ns) of the matched commands
+     */
+    public Histogram getRoundTripLatency() {
+        return roundTripLatency;
+    }
+
+    public int getOutstandingCount() {
+        return outstandingCount.get();
+    }
+
+    public long getMatchedCount() {
+        return matchedCount.sum();
+    }
+
+    public long getTimedOutCount() {
+        return timedOutCount.sum();
+    }
+
+    /**
+     * @return responses with an unknown correlation id (E.g. received after the timeout)
+     */
+    public long getUnmatchedCount() {
+        return unmatchedCount.sum();
+    }
+
+    /**
+     * @return commands forwarded without a correlation id because the table was full
+     */
+    public long getUntrackedCount() {
+        return untrackedCount.sum();
+    }
+}
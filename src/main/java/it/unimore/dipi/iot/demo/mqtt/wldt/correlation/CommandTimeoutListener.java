@@ -0,0 +1,14 @@
+package it.unimore.dipi.iot.demo.mqtt.wldt.correlation;
+
+/**
+ * Listener notified by the CommandCorrelationTracker when a device does not respond to a command in time.
+ * It is called on the timer thread and must not block.
+ *
+ * @created: 18/10/2026
+ * @project: WLDT - MQTT Example
+ */
+public interface CommandTimeoutListener {
+
+    public void onCommandTimeout(String deviceId, String correlationId, long timeoutMs);
+
+}
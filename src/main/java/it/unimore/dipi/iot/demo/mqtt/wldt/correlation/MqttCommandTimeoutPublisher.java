@@ -0,0 +1,95 @@
+package it.unimore.dipi.iot.demo.mqtt.wldt.correlation;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import it.unimore.dipi.iot.demo.mqtt.utils.LogSampler;
+import it.unimore.dipi.iot.demo.mqtt.wldt.publish.OutgoingPublisher;
+import it.unimore.dipi.iot.wldt.worker.mqtt.MqttPipelineData;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+
+/**
+ * CommandTimeoutListener reporting the timed out commands to the applications on the destination broker,
+ * on the response topic of the device (E.g. commands/com:iot:dummy:dummyMqttDevice001/response), so each command
+ * receives either the response of the device or the timeout:
+ *
+ * {"correlationId": "mfx3k2a1-4f", "deviceId": "com:iot:dummy:dummyMqttDevice001", "status": "TIMEOUT",
+ *  "timeoutMs": 10000, "timestamp": 1792303600000}
+ *
+ * Reports are sent through an OutgoingPublisher (E.g. a BatchingMqttPublisher) and dropped when it is full,
+ * so the timer thread is never blocked.
+ *
+ * @created: 18/10/2026
+ * @project: WLDT - MQTT Example
+ */
+public class MqttCommandTimeoutPublisher implements CommandTimeoutListener {
+
+    private static final Logger logger = LoggerFactory.getLogger(MqttCommandTimeoutPublisher.class);
+
+    private static final LogSampler dropLogSampler = LogSampler.perSecond(1);
+
+    public static final String DEFAULT_TOPIC_FORMAT = "commands/%s/response";
+
+    public static final String TIMEOUT_STATUS = "TIMEOUT";
+
+    private final OutgoingPublisher publisher;
+
+    private final String topicFormat;
+
+    private final JsonFactory jsonFactory = new JsonFactory();
+
+    public MqttCommandTimeoutPublisher(OutgoingPublisher publisher) {
+        this(publisher, DEFAULT_TOPIC_FORMAT);
+    }
+
+    /**
+     * @param topicFormat format of the report topic, the device id is the only argument
+     */
+    public MqttCommandTimeoutPublisher(OutgoingPublisher publisher, String topicFormat) {
+
+        if(publisher == null || topicFormat == null || topicFormat.isEmpty())
+            throw new IllegalArgumentException("Publisher and Topic Format can not be null or empty !");
+
+        this.publisher = publisher;
+        this.topicFormat = topicFormat;
+    }
+
+    @Override
+    public void onCommandTimeout(String deviceId, String correlationId, long timeoutMs) {
+
+        try{
+
+            String timeoutTopic = String.format(topicFormat, deviceId);
+
+            if(!publisher.publish(new MqttPipelineData(timeoutTopic, null, encode(deviceId, correlationId, timeoutMs), false)) && dropLogSampler.sample())
+                logger.warn("Command timeout report on {} dropped: publisher full ! Suppressed: {}", timeoutTopic, dropLogSampler.drainSuppressedCount());
+
+        }catch (IOException e){
+            logger.error("Error encoding command timeout report: {}", e.getLocalizedMessage());
+        }
+    }
+
+    private byte[] encode(String deviceId, String correlationId, long timeoutMs) throws IOException {
+
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream(128);
+
+        try(JsonGenerator generator = jsonFactory.createGenerator(outputStream)){
+            generator.writeStartObject();
+            generator.writeStringField("correlationId", correlationId);
+            generator.writeStringField("deviceId", deviceId);
+            generator.writeStringField("status", TIMEOUT_STATUS);
+            generator.writeNumberField("timeoutMs", timeoutMs);
+            generator.writeNumberField("timestamp", System.currentTimeMillis());
+            generator.writeEndObject();
+        }
+
+        return outputStream.toByteArray();
+    }
+
+    public String getTopicFormat() {
+        return topicFormat;
+    }
+}
@@ -0,0 +1,33 @@
+package it.unimore.dipi.iot.demo.mqtt.wldt.correlation;
+
+import it.unimore.dipi.iot.demo.mqtt.utils.TimerWheel;
+
+/**
+ * Command waiting for the response of its device. The entry of the table is also the timeout task of the TimerWheel,
+ * so tracking a command allocates a single object.
+ *
+ * @created: 18/10/2026
+ * @project: WLDT - MQTT Example
+ */
+class OutstandingCommand extends TimerWheel.Task {
+
+    private final CommandCorrelationTracker tracker;
+
+    final String correlationId;
+
+    final String deviceId;
+
+    final long sentNanos;
+
+    OutstandingCommand(CommandCorrelationTracker tracker, String correlationId, String deviceId, long sentNanos) {
+        this.tracker = tracker;
+        this.correlationId = correlationId;
+        this.deviceId = deviceId;
+        this.sentNanos = sentNanos;
+    }
+
+    @Override
+    public void run() {
+        tracker.expire(this);
+    }
+}
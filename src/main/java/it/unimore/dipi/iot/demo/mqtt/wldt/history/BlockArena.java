@@ -0,0 +1,119 @@
+package it.unimore.dipi.iot.demo.mqtt.wldt.history;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Fixed size off-heap memory (a direct ByteBuffer allocated once) divided in blocks of blockSize bytes.
+ * Blocks are handed out and returned through a free list, so the memory used by the history does not depend
+ * on the number of stored points and is not scanned by the GC.
+ *
+ * Blocks are written and read as bit streams (most significant bit first). Different threads can access different
+ * blocks at the same time, the accesses to the same block have to be serialized by the caller.
+ *
+ * @created: 18/10/2026
+ * @project: WLDT - MQTT Example
+ */
+public class BlockArena {
+
+    public static final int NO_BLOCK = -1;
+
+    private final ByteBuffer memory;
+
+    private final int blockSize;
+
+    private final int blockCount;
+
+    //Guarded by this
+    private final int[] freeBlocks;
+
+    private int freeCount;
+
+    public BlockArena(int blockSize, int blockCount) {
+
+        if(blockSize <= 0 || blockCount <= 0 || (long) blockSize * blockCount > Integer.MAX_VALUE)
+            throw new IllegalArgumentException(String.format("Invalid arena size: %d blocks of %d bytes !", blockCount, blockSize));
+
+        this.blockSize = blockSize;
+        this.blockCount = blockCount;
+        this.memory = ByteBuffer.allocateDirect(blockSize * blockCount);
+        this.freeBlocks = new int[blockCount];
+
+        //The lowest blocks are allocated first
+        for(int i = 0; i < blockCount; i++)
+            freeBlocks[i] = blockCount - 1 - i;
+
+        this.freeCount = blockCount;
+    }
+
+    /**
+     * @return the index of a free block or NO_BLOCK if the arena is full
+     */
+    public synchronized int allocate() {
+        return freeCount > 0 ? freeBlocks[--freeCount] : NO_BLOCK;
+    }
+
+    public synchronized void release(int block) {
+        freeBlocks[freeCount++] = block;
+    }
+
+    /**
+     * Write the lowest bitCount bits of the value starting from the target bit of the block.
+     * The bits following the written ones in the last byte are cleared.
+     */
+    void writeBits(int block, int bitPosition, long value, int bitCount) {
+
+        int base = block * blockSize;
+
+        while(bitCount > 0){
+
+            int byteIndex = base + (bitPosition >>> 3);
+            int freeBits = 8 - (bitPosition & 7);
+            int writtenBits = Math.min(freeBits, bitCount);
+            int bits = (int) (value >>> (bitCount - writtenBits)) & ((1 << writtenBits) - 1);
+
+            //A byte is cleared when its first bit is written: recycled blocks do not have to be cleared
+            int current = freeBits == 8 ? 0 : memory.get(byteIndex);
+            memory.put(byteIndex, (byte) (current | (bits << (freeBits - writtenBits))));
+
+            bitCount -= writtenBits;
+            bitPosition += writtenBits;
+        }
+    }
+
+    long readBits(int block, int bitPosition, int bitCount) {
+
+        int base = block * blockSize;
+        long value = 0;
+
+        while(bitCount > 0){
+
+            int byteIndex = base + (bitPosition >>> 3);
+            int availableBits = 8 - (bitPosition & 7);
+            int readBits = Math.min(availableBits, bitCount);
+            int bits = ((memory.get(byteIndex) & 0xFF) >>> (availableBits - readBits)) & ((1 << readBits) - 1);
+
+            value = (value << readBits) | bits;
+
+            bitCount -= readBits;
+            bitPosition += readBits;
+        }
+
+        return value;
+    }
+
+    public int getBlockSize() {
+        return blockSize;
+    }
+
+    public int getBlockCount() {
+        return blockCount;
+    }
+
+    public synchronized int getFreeBlockCount() {
+        return freeCount;
+    }
+
+    public long getCapacityBytes() {
+        return (long) blockSize * blockCount;
+    }
+}
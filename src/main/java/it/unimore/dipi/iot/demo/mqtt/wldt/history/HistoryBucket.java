@@ -0,0 +1,60 @@
+package it.unimore.dipi.iot.demo.mqtt.wldt.history;
+
+import it.unimore.dipi.iot.demo.mqtt.wldt.aggregation.StreamingAggregator;
+
+/**
+ * Aggregate of the points of a downsampling interval [start, start + duration) returned by HistoryStore.downsample()
+ *
+ * @created: 18/10/2026
+ * @project: WLDT - MQTT Example
+ */
+public class HistoryBucket {
+
+    private final long start;
+
+    private final StreamingAggregator aggregator = new StreamingAggregator();
+
+    public HistoryBucket(long start) {
+        this.start = start;
+    }
+
+    void add(double value) {
+        aggregator.add(value);
+    }
+
+    public long getStart() {
+        return start;
+    }
+
+    public long getCount() {
+        return aggregator.getCount();
+    }
+
+    public double getMin() {
+        return aggregator.getMin();
+    }
+
+    public double getMax() {
+        return aggregator.getMax();
+    }
+
+    public double getAverage() {
+        return aggregator.getAverage();
+    }
+
+    public double getSum() {
+        return aggregator.getSum();
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder("HistoryBucket{");
+        sb.append("start=").append(start);
+        sb.append(", count=").append(getCount());
+        sb.append(", min=").append(getMin());
+        sb.append(", max=").append(getMax());
+        sb.append(", average=").append(getAverage());
+        sb.append('}');
+        return sb.toString();
+    }
+}
@@ -0,0 +1,16 @@
+package it.unimore.dipi.iot.demo.mqtt.wldt.history;
+
+/**
+ * Receives the points of a HistoryStore range query in chronological order
+ *
+ * @created: 18/10/2026
+ * @project: WLDT - MQTT Example
+ */
+public interface HistoryPointConsumer {
+
+    /**
+     * @return false to stop the query
+     */
+    public boolean accept(long timestamp, double value);
+
+}
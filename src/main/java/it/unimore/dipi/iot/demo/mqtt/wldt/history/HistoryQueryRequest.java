@@ -0,0 +1,102 @@
+package it.unimore.dipi.iot.demo.mqtt.wldt.history;
+
+/**
+ * JSON request of the HistoryQueryService. E.g. the last hour of a series in buckets of one minute:
+ *
+ * {"correlationId": "42", "series": "telemetry/com:iot:dummy:dummyMqttDevice001/resource/temperature",
+ *  "lastMs": 3600000, "bucketMs": 60000, "responseTopic": "history/response/dashboard01"}
+ *
+ * The range is [from, to] or the last lastMs milliseconds, without bucketMs the raw points are returned.
+ *
+ * @created: 18/10/2026
+ * @project: WLDT - MQTT Example
+ */
+public class HistoryQueryRequest {
+
+    private String correlationId;
+
+    private String series;
+
+    private Long from;
+
+    private Long to;
+
+    private Long lastMs;
+
+    private Long bucketMs;
+
+    private String responseTopic;
+
+    public HistoryQueryRequest() {
+    }
+
+    public String getCorrelationId() {
+        return correlationId;
+    }
+
+    public void setCorrelationId(String correlationId) {
+        this.correlationId = correlationId;
+    }
+
+    public String getSeries() {
+        return series;
+    }
+
+    public void setSeries(String series) {
+        this.series = series;
+    }
+
+    public Long getFrom() {
+        return from;
+    }
+
+    public void setFrom(Long from) {
+        this.from = from;
+    }
+
+    public Long getTo() {
+        return to;
+    }
+
+    public void setTo(Long to) {
+        this.to = to;
+    }
+
+    public Long getLastMs() {
+        return lastMs;
+    }
+
+    public void setLastMs(Long lastMs) {
+        this.lastMs = lastMs;
+    }
+
+    public Long getBucketMs() {
+        return bucketMs;
+    }
+
+    public void setBucketMs(Long bucketMs) {
+        this.bucketMs = bucketMs;
+    }
+
+    public String getResponseTopic() {
+        return responseTopic;
+    }
+
+    public void setResponseTopic(String responseTopic) {
+        this.responseTopic = responseTopic;
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder("HistoryQueryRequest{");
+        sb.append("correlationId='").append(correlationId).append('\'');
+        sb.append(", series='").append(series).append('\'');
+        sb.append(", from=").append(from);
+        sb.append(", to=").append(to);
+        sb.append(", lastMs=").append(lastMs);
+        sb.append(", bucketMs=").append(bucketMs);
+        sb.append(", responseTopic='").append(responseTopic).append('\'');
+        sb.append('}');
+        return sb.toString();
+    }
+}
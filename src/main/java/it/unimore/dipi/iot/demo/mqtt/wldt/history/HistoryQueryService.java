@@ -0,0 +1,345 @@
+package it.unimore.dipi.iot.demo.mqtt.wldt.history;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.eclipse.paho.client.mqttv3.IMqttAsyncClient;
+import org.eclipse.paho.client.mqttv3.IMqttDeliveryToken;
+import org.eclipse.paho.client.mqttv3.MqttAsyncClient;
+import org.eclipse.paho.client.mqttv3.MqttCallbackExtended;
+import org.eclipse.paho.client.mqttv3.MqttConnectOptions;
+import org.eclipse.paho.client.mqttv3.MqttException;
+import org.eclipse.paho.client.mqttv3.MqttMessage;
+import org.eclipse.paho.client.mqttv3.persist.MemoryPersistence;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Answers the HistoryQueryRequest messages published on the request topic of the destination broker
+ * with the points (or the downsampled buckets) of a HistoryStore series. E.g.
+ *
+ * Request on history/request:
+ * {"correlationId": "42", "series": "telemetry/com:iot:dummy:dummyMqttDevice001/resource/temperature", "lastMs": 3600000, "bucketMs": 60000, "responseTopic": "history/response/dashboard01"}
+ *
+ * Response on history/response/dashboard01:
+ * {"correlationId": "42", "series": "...", "from": 1792300000000, "to": 1792303600000, "bucketMs": 60000,
+ *  "buckets": [{"start": 1792300020000, "count": 6, "min": 21.5, "max": 23.1, "avg": 22.4}, ...], "truncated": false}
+ *
+ * Raw points are returned as "points": [[timestamp, value], ...]. At most maxResponsePoints points (or buckets) are returned
+ * starting from the oldest one: a truncated response can be continued with a new request starting after its last point.
+ * Errors are returned as {"correlationId": "42", "error": "..."}.
+ *
+ * Requests are answered on the Paho callback thread: the response size is bounded and the queries only decode the blocks
+ * in the requested range.
+ *
+ * @created: 18/10/2026
+ * @project: WLDT - MQTT Example
+ */
+public class HistoryQueryService {
+
+    private static final Logger logger = LoggerFactory.getLogger(HistoryQueryService.class);
+
+    private final HistoryStore historyStore;
+
+    private final HistoryQueryServiceConfiguration configuration;
+
+    private final ObjectMapper mapper;
+
+    private final JsonFactory jsonFactory;
+
+    private final LongAdder requestCount = new LongAdder();
+
+    private final LongAdder errorCount = new LongAdder();
+
+    private IMqttAsyncClient mqttClient;
+
+    public HistoryQueryService(HistoryStore historyStore, HistoryQueryServiceConfiguration configuration) {
+
+        configuration.validate();
+
+        this.historyStore = historyStore;
+        this.configuration = configuration;
+        this.mapper = new ObjectMapper();
+        this.mapper.configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+        this.jsonFactory = mapper.getFactory();
+    }
+
+    /**
+     * Connect to the broker and subscribe the request topic
+     */
+    public synchronized void start() throws MqttException {
+
+        if(mqttClient != null)
+            return;
+
+        String clientId = configuration.getClientId() != null ? configuration.getClientId() : UUID.randomUUID().toString();
+
+        this.mqttClient = new MqttAsyncClient(configuration.getBrokerUrl(), clientId, new MemoryPersistence());
+
+        this.mqttClient.setCallback(new MqttCallbackExtended() {
+
+            @Override
+            public void connectComplete(boolean reconnect, String serverURI) {
+                //Clean session: the subscription is lost when the connection is lost
+                if(reconnect)
+                    subscribe();
+            }
+
+            @Override
+            public void connectionLost(Throwable cause) {
+                logger.warn("History Query Service connection lost ! Cause: {}", cause != null ? cause.getLocalizedMessage() : "unknown");
+            }
+
+            @Override
+            public void messageArrived(String topic, MqttMessage message) {
+                onRequest(message.getPayload());
+            }
+
+            @Override
+            public void deliveryComplete(IMqttDeliveryToken token) {
+            }
+        });
+
+        MqttConnectOptions options = new MqttConnectOptions();
+        options.setAutomaticReconnect(true);
+        options.setCleanSession(true);
+        options.setConnectionTimeout(10);
+
+        this.mqttClient.connect(options).waitForCompletion();
+        subscribe();
+
+        logger.info("History Query Service connected to {} ! Request Topic: {}", configuration.getBrokerUrl(), configuration.getRequestTopic());
+    }
+
+    private void subscribe() {
+        try{
+            //Not waiting for the completion: it can be called by the Paho callback thread
+            mqttClient.subscribe(configuration.getRequestTopic(), configuration.getQos());
+        }catch (MqttException e){
+            logger.error("History Query Service subscription error: {}", e.getLocalizedMessage());
+        }
+    }
+
+    private void onRequest(byte[] payload) {
+
+        requestCount.increment();
+
+        HistoryQueryRequest request;
+
+        try{
+            request = mapper.readValue(payload, HistoryQueryRequest.class);
+        }catch (IOException e){
+            logger.warn("Invalid history query request: {}", e.getLocalizedMessage());
+            publishResponse(configuration.getDefaultResponseTopic(), errorResponse(null, "Invalid request !"));
+            return;
+        }
+
+        publishResponse(request.getResponseTopic() != null ? request.getResponseTopic() : configuration.getDefaultResponseTopic(), execute(request));
+    }
+
+    private void publishResponse(String responseTopic, byte[] response) {
+        try{
+            mqttClient.publish(responseTopic, response, configuration.getQos(), false);
+        }catch (MqttException e){
+            errorCount.increment();
+            logger.error("Error publishing history query response on {}: {}", responseTopic, e.getLocalizedMessage());
+        }
+    }
+
+    /**
+     * Execute the query
+     *
+     * @return the JSON response (an error response if the request is not valid)
+     */
+    public byte[] execute(HistoryQueryRequest request) {
+
+        if(request.getSeries() == null)
+            return errorResponse(request.getCorrelationId(), "Missing series !");
+
+        if(!historyStore.containsSeries(request.getSeries()))
+            return errorResponse(request.getCorrelationId(), String.format("Unknown series: %s", request.getSeries()));
+
+        long to = request.getTo() != null ? request.getTo() : System.currentTimeMillis();
+        long from = request.getFrom() != null ? request.getFrom() : (request.getLastMs() != null ? to - request.getLastMs() : Long.MIN_VALUE);
+
+        if(from > to)
+            return errorResponse(request.getCorrelationId(), String.format("Invalid range: [%d, %d]", from, to));
+
+        if(request.getBucketMs() != null && request.getBucketMs() <= 0)
+            return errorResponse(request.getCorrelationId(), String.format("Invalid bucket duration: %d ms", request.getBucketMs()));
+
+        try{
+
+            ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+
+            try(JsonGenerator generator = jsonFactory.createGenerator(outputStream)){
+
+                generator.writeStartObject();
+
+                if(request.getCorrelationId() != null)
+                    generator.writeStringField("correlationId", request.getCorrelationId());
+
+                generator.writeStringField("series", request.getSeries());
+                generator.writeNumberField("from", from);
+                generator.writeNumberField("to", to);
+
+                boolean truncated = request.getBucketMs() != null ?
+                        writeBuckets(generator, historyStore.downsample(request.getSeries(), from, to, request.getBucketMs()), request.getBucketMs()) :
+                        writePoints(generator, request.getSeries(), from, to);
+
+                generator.writeBooleanField("truncated", truncated);
+                generator.writeEndObject();
+            }
+
+            return outputStream.toByteArray();
+
+        }catch (IOException e){
+            logger.error("Error encoding history query response: {}", e.getLocalizedMessage());
+            return errorResponse(request.getCorrelationId(), "Error encoding the response !");
+        }
+    }
+
+    private boolean writeBuckets(JsonGenerator generator, List<HistoryBucket> buckets, long bucketMs) throws IOException {
+
+        int count = Math.min(buckets.size(), configuration.getMaxResponsePoints());
+
+        generator.writeNumberField("bucketMs", bucketMs);
+        generator.writeArrayFieldStart("buckets");
+
+        for(int i = 0; i < count; i++){
+            HistoryBucket bucket = buckets.get(i);
+            generator.writeStartObject();
+            generator.writeNumberField("start", bucket.getStart());
+            generator.writeNumberField("count", bucket.getCount());
+            generator.writeNumberField("min", bucket.getMin());
+            generator.writeNumberField("max", bucket.getMax());
+            generator.writeNumberField("avg", bucket.getAverage());
+            generator.writeEndObject();
+        }
+
+        generator.writeEndArray();
+
+        return count < buckets.size();
+    }
+
+    private boolean writePoints(JsonGenerator generator, String series, long from, long to) throws IOException {
+
+        PointCollector points = new PointCollector(configuration.getMaxResponsePoints());
+        historyStore.range(series, from, to, points);
+
+        generator.writeArrayFieldStart("points");
+
+        for(int i = 0; i < points.count; i++){
+            generator.writeStartArray();
+            generator.writeNumber(points.timestamps[i]);
+            generator.writeNumber(points.values[i]);
+            generator.writeEndArray();
+        }
+
+        generator.writeEndArray();
+
+        return points.truncated;
+    }
+
+    private byte[] errorResponse(String correlationId, String error) {
+
+        errorCount.increment();
+
+        try{
+
+            ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+
+            try(JsonGenerator generator = jsonFactory.createGenerator(outputStream)){
+                generator.writeStartObject();
+                if(correlationId != null)
+                    generator.writeStringField("correlationId", correlationId);
+                generator.writeStringField("error", error);
+                generator.writeEndObject();
+            }
+
+            return outputStream.toByteArray();
+
+        }catch (IOException e){
+            return new byte[0];
+        }
+    }
+
+    public synchronized void stop() {
+
+        if(mqttClient == null)
+            return;
+
+        try{
+            mqttClient.disconnect().waitForCompletion(1000);
+            mqttClient.close();
+        }catch (MqttException e){
+            logger.warn("Error disconnecting History Query Service: {}", e.getLocalizedMessage());
+        }
+
+        mqttClient = null;
+    }
+
+    public long getRequestCount() {
+        return requestCount.sum();
+    }
+
+    public long getErrorCount() {
+        return errorCount.sum();
+    }
+
+    public HistoryQueryServiceConfiguration getConfiguration() {
+        return configuration;
+    }
+
+    /**
+     * Collects the points of a range query (the series is locked during the query) up to the max response points
+     */
+    private static final class PointCollector implements HistoryPointConsumer {
+
+        private static final int INITIAL_CAPACITY = 256;
+
+        private final int maxPoints;
+
+        private long[] timestamps;
+
+        private double[] values;
+
+        private int count = 0;
+
+        private boolean truncated = false;
+
+        private PointCollector(int maxPoints) {
+            this.maxPoints = maxPoints;
+            this.timestamps = new long[Math.min(maxPoints, INITIAL_CAPACITY)];
+            this.values = new double[timestamps.length];
+        }
+
+        @Override
+        public boolean accept(long timestamp, double value) {
+
+            if(count == maxPoints){
+                truncated = true;
+                return false;
+            }
+
+            if(count == timestamps.length){
+                timestamps = Arrays.copyOf(timestamps, Math.min(count * 2, maxPoints));
+                values = Arrays.copyOf(values, timestamps.length);
+            }
+
+            timestamps[count] = timestamp;
+            values[count] = value;
+            count++;
+
+            return true;
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package it.unimore.dipi.iot.demo.mqtt.wldt.history;
+
+/**
+ * Configuration of the HistoryQueryService
+ *
+ * @created: 18/10/2026
+ * @project: WLDT - MQTT Example
+ */
+public class HistoryQueryServiceConfiguration {
+
+    private String brokerAddress = "127.0.0.1";
+
+    private int brokerPort = 1884;
+
+    private String clientId = null;
+
+    private String requestTopic = "history/request";
+
+    //Used when the request does not contain a response topic
+    private String defaultResponseTopic = "history/response";
+
+    private int qos = 0;
+
+    //Max points (or buckets) of a response, larger ranges are truncated
+    private int maxResponsePoints = 10000;
+
+    public HistoryQueryServiceConfiguration() {
+    }
+
+    public HistoryQueryServiceConfiguration(String brokerAddress, int brokerPort) {
+        this.brokerAddress = brokerAddress;
+        this.brokerPort = brokerPort;
+    }
+
+    /**
+     * @throws IllegalArgumentException if the configuration is not valid
+     */
+    public void validate() {
+
+        if(brokerAddress == null || brokerPort <= 0)
+            throw new IllegalArgumentException("Invalid Broker Address or Port !");
+
+        if(requestTopic == null || defaultResponseTopic == null)
+            throw new IllegalArgumentException("Request and Default Response Topics can not be null !");
+
+        if(qos < 0 || qos > 2)
+            throw new IllegalArgumentException(String.format("Invalid QoS: %d", qos));
+
+        if(maxResponsePoints <= 0)
+            throw new IllegalArgumentException("Max Response Points must be greater than 0 !");
+    }
+
+    public String getBrokerUrl() {
+        return String.format("tcp://%s:%d", brokerAddress, brokerPort);
+    }
+
+    public String getBrokerAddress() {
+        return brokerAddress;
+    }
+
+    public void setBrokerAddress(String brokerAddress) {
+        this.brokerAddress = brokerAddress;
+    }
+
+    public int getBrokerPort() {
+        return brokerPort;
+    }
+
+    public void setBrokerPort(int brokerPort) {
+        this.brokerPort = brokerPort;
+    }
+
+    public String getClientId() {
+        return clientId;
+    }
+
+    public void setClientId(String clientId) {
+        this.clientId = clientId;
+    }
+
+    public String getRequestTopic() {
+        return requestTopic;
+    }
+
+    public void setRequestTopic(String requestTopic) {
+        this.requestTopic = requestTopic;
+    }
+
+    public String getDefaultResponseTopic() {
+        return defaultResponseTopic;
+    }
+
+    public void setDefaultResponseTopic(String defaultResponseTopic) {
+        this.defaultResponseTopic = defaultResponseTopic;
+    }
+
+    public int getQos() {
+        return qos;
+    }
+
+    public void setQos(int qos) {
+        this.qos = qos;
+    }
+
+    public int getMaxResponsePoints() {
+        return maxResponsePoints;
+    }
+
+    public void setMaxResponsePoints(int maxResponsePoints) {
+        this.maxResponsePoints = maxResponsePoints;
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder("HistoryQueryServiceConfiguration{");
+        sb.append("brokerAddress='").append(brokerAddress).append('\'');
+        sb.append(", brokerPort=").append(brokerPort);
+        sb.append(", clientId='").append(clientId).append('\'');
+        sb.append(", requestTopic='").append(requestTopic).append('\'');
+        sb.append(", defaultResponseTopic='").append(defaultResponseTopic).append('\'');
+        sb.append(", qos=").append(qos);
+        sb.append(", maxResponsePoints=").append(maxResponsePoints);
+        sb.append('}');
+        return sb.toString();
+    }
+}
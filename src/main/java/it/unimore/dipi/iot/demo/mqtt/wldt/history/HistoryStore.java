@@ -0,0 +1,228 @@
+package it.unimore.dipi.iot.demo.mqtt.wldt.history;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Embedded time series history of the mirrored resources (E.g. one series for each telemetry topic).
+ *
+ * The points of each series are compressed (Gorilla delta of delta timestamps and XOR values, about 2-4 bytes for
+ * a sensor sampled at a regular interval instead of 16) in a ring of blocks of a shared off-heap BlockArena: the memory is fixed
+ * by the configuration (blockSize * blockCount bytes off-heap, a few hundred bytes of heap for each series) and when
+ * a series fills its ring, or the arena is full, its oldest block is recycled.
+ *
+ * Appends and queries of the same series are serialized on the series, different series are accessed in parallel.
+ *
+ * @created: 18/10/2026
+ * @project: WLDT - MQTT Example
+ */
+public class HistoryStore {
+
+    private static final Logger logger = LoggerFactory.getLogger(HistoryStore.class);
+
+    private final HistoryStoreConfiguration configuration;
+
+    private final BlockArena arena;
+
+    private final ConcurrentHashMap<String, TimeSeries> series = new ConcurrentHashMap<>();
+
+    private final LongAdder recordedCount = new LongAdder();
+
+    private final LongAdder droppedCount = new LongAdder();
+
+    public HistoryStore() {
+        this(new HistoryStoreConfiguration());
+    }
+
+    public HistoryStore(HistoryStoreConfiguration configuration) {
+
+        configuration.validate();
+
+        this.configuration = configuration;
+        this.arena = new BlockArena(configuration.getBlockSize(), configuration.getBlockCount());
+
+        logger.info("History Store created ! Off-heap memory: {} bytes Configuration: {}", arena.getCapacityBytes(), configuration);
+    }
+
+    /**
+     * Append a point to the series (created on the first point)
+     *
+     * @return false if the point has been dropped (older than the last point of the series or too many series)
+     */
+    public boolean record(String key, long timestamp, double value) {
+
+        TimeSeries timeSeries = series.get(key);
+
+        if(timeSeries == null){
+
+            if(series.size() >= configuration.getMaxSeries()){
+                droppedCount.increment();
+                return false;
+            }
+
+            timeSeries = series.computeIfAbsent(key, k -> new TimeSeries(arena, configuration.getMaxBlocksPerSeries()));
+        }
+
+        boolean recorded;
+
+        synchronized (timeSeries){
+            recorded = timeSeries.append(timestamp, value);
+        }
+
+        if(recorded)
+            recordedCount.increment();
+        else
+            droppedCount.increment();
+
+        return recorded;
+    }
+
+    /**
+     * Read the points of the series in the range [from, to] in chronological order
+     *
+     * @return false if the series does not exist
+     */
+    public boolean range(String key, long from, long to, HistoryPointConsumer consumer) {
+
+        TimeSeries timeSeries = series.get(key);
+
+        if(timeSeries == null)
+            return false;
+
+        synchronized (timeSeries){
+            timeSeries.forEach(from, to, consumer);
+        }
+
+        return true;
+    }
+
+    /**
+     * Aggregate the points of the series in the range [from, to] in intervals of bucketMs milliseconds
+     * aligned to the epoch (E.g. one bucket for each minute). Intervals without points are not returned.
+     *
+     * @return the buckets in chronological order, an empty list if the series does not exist
+     */
+    public List<HistoryBucket> downsample(String key, long from, long to, long bucketMs) {
+
+        if(bucketMs <= 0)
+            throw new IllegalArgumentException(String.format("Invalid bucket duration: %d ms !", bucketMs));
+
+        List<HistoryBucket> buckets = new ArrayList<>();
+
+        range(key, from, to, (timestamp, value) -> {
+
+            long start = timestamp - Math.floorMod(timestamp, bucketMs);
+            HistoryBucket bucket = buckets.isEmpty() ? null : buckets.get(buckets.size() - 1);
+
+            if(bucket == null || bucket.getStart() != start){
+                bucket = new HistoryBucket(start);
+                buckets.add(bucket);
+            }
+
+            bucket.add(value);
+            return true;
+        });
+
+        return buckets;
+    }
+
+    /**
+     * Remove the series returning its blocks to the arena
+     */
+    public boolean remove(String key) {
+
+        TimeSeries timeSeries = series.remove(key);
+
+        if(timeSeries == null)
+            return false;
+
+        synchronized (timeSeries){
+            timeSeries.release();
+        }
+
+        return true;
+    }
+
+    public Set<String> getSeriesKeys() {
+        return Collections.unmodifiableSet(series.keySet());
+    }
+
+    public boolean containsSeries(String key) {
+        return series.containsKey(key);
+    }
+
+    public int getSeriesCount() {
+        return series.size();
+    }
+
+    public long getPointCount(String key) {
+
+        TimeSeries timeSeries = series.get(key);
+
+        if(timeSeries == null)
+            return 0;
+
+        synchronized (timeSeries){
+            return timeSeries.getPointCount();
+        }
+    }
+
+    /**
+     * @return points stored in all the series
+     */
+    public long getPointCount() {
+
+        long pointCount = 0;
+
+        for(TimeSeries timeSeries : series.values()){
+            synchronized (timeSeries){
+                pointCount += timeSeries.getPointCount();
+            }
+        }
+
+        return pointCount;
+    }
+
+    /**
+     * @return compressed bytes used by the points of all the series
+     */
+    public long getUsedBytes() {
+
+        long usedBytes = 0;
+
+        for(TimeSeries timeSeries : series.values()){
+            synchronized (timeSeries){
+                usedBytes += timeSeries.getUsedBytes();
+            }
+        }
+
+        return usedBytes;
+    }
+
+    public long getCapacityBytes() {
+        return arena.getCapacityBytes();
+    }
+
+    public int getFreeBlockCount() {
+        return arena.getFreeBlockCount();
+    }
+
+    public long getRecordedCount() {
+        return recordedCount.sum();
+    }
+
+    public long getDroppedCount() {
+        return droppedCount.sum();
+    }
+
+    public HistoryStoreConfiguration getConfiguration() {
+        return configuration;
+    }
+}
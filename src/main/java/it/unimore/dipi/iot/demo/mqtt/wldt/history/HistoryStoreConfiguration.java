@@ -0,0 +1,89 @@
+package it.unimore.dipi.iot.demo.mqtt.wldt.history;
+
+/**
+ * Configuration of the HistoryStore. The off-heap memory is blockSize * blockCount bytes
+ * and the heap used by each series is proportional to maxBlocksPerSeries.
+ *
+ * @created: 18/10/2026
+ * @project: WLDT - MQTT Example
+ */
+public class HistoryStoreConfiguration {
+
+    //A block holds about blockSize / 4 points of a resource sampled at a regular interval
+    private int blockSize = 1024;
+
+    private int blockCount = 16 * 1024;
+
+    //Older blocks of a series are recycled when it reaches this size
+    private int maxBlocksPerSeries = 64;
+
+    private int maxSeries = 100000;
+
+    public HistoryStoreConfiguration() {
+    }
+
+    public HistoryStoreConfiguration(int blockSize, int blockCount, int maxBlocksPerSeries, int maxSeries) {
+        this.blockSize = blockSize;
+        this.blockCount = blockCount;
+        this.maxBlocksPerSeries = maxBlocksPerSeries;
+        this.maxSeries = maxSeries;
+    }
+
+    /**
+     * @throws IllegalArgumentException if the configuration is not valid
+     */
+    public void validate() {
+
+        if(blockSize * 8 < 128 + TimeSeries.MAX_POINT_BITS)
+            throw new IllegalArgumentException(String.format("Block Size must be at least %d bytes !", (128 + TimeSeries.MAX_POINT_BITS + 7) / 8));
+
+        if(blockCount <= 0 || (long) blockSize * blockCount > Integer.MAX_VALUE)
+            throw new IllegalArgumentException("Block Count must be greater than 0 and the arena can not exceed 2 GB !");
+
+        if(maxBlocksPerSeries <= 0 || maxSeries <= 0)
+            throw new IllegalArgumentException("Max Blocks per Series and Max Series must be greater than 0 !");
+    }
+
+    public int getBlockSize() {
+        return blockSize;
+    }
+
+    public void setBlockSize(int blockSize) {
+        this.blockSize = blockSize;
+    }
+
+    public int getBlockCount() {
+        return blockCount;
+    }
+
+    public void setBlockCount(int blockCount) {
+        this.blockCount = blockCount;
+    }
+
+    public int getMaxBlocksPerSeries() {
+        return maxBlocksPerSeries;
+    }
+
+    public void setMaxBlocksPerSeries(int maxBlocksPerSeries) {
+        this.maxBlocksPerSeries = maxBlocksPerSeries;
+    }
+
+    public int getMaxSeries() {
+        return maxSeries;
+    }
+
+    public void setMaxSeries(int maxSeries) {
+        this.maxSeries = maxSeries;
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder("HistoryStoreConfiguration{");
+        sb.append("blockSize=").append(blockSize);
+        sb.append(", blockCount=").append(blockCount);
+        sb.append(", maxBlocksPerSeries=").append(maxBlocksPerSeries);
+        sb.append(", maxSeries=").append(maxSeries);
+        sb.append('}');
+        return sb.toString();
+    }
+}
@@ -0,0 +1,331 @@
+package it.unimore.dipi.iot.demo.mqtt.wldt.history;
+
+/**
+ * History of a single resource stored as a ring of compressed BlockArena blocks.
+ *
+ * Points are compressed as in the Gorilla time series database: the first point of a block is stored as it is,
+ * the following timestamps as delta of delta (1 bit for a regular sampling interval) and the following values
+ * as XOR with the previous value (1 bit for a repeated value, otherwise only the meaningful bits).
+ * When the ring is full (or the arena has no free blocks) the oldest block is recycled.
+ *
+ * Only the bounds of the blocks and the state of the encoder are kept on the heap. Points older than the last one
+ * are rejected. The class is not thread safe: the HistoryStore serializes the accesses to each series.
+ *
+ * @created: 18/10/2026
+ * @project: WLDT - MQTT Example
+ */
+class TimeSeries {
+
+    //Delta of delta with the largest prefix (4 bits + 64 bits) and value with a new XOR window (2 bits + 5 + 6 + 64 bits)
+    static final int MAX_POINT_BITS = 68 + 77;
+
+    private static final int LEADING_ZEROS_BITS = 5;
+
+    private static final int MAX_LEADING_ZEROS = (1 << LEADING_ZEROS_BITS) - 1;
+
+    private static final int MEANINGFUL_BITS_BITS = 6;
+
+    private final BlockArena arena;
+
+    private final int blockBits;
+
+    private final int maxBlocks;
+
+    private final int[] blocks;
+
+    private final long[] blockFirstTimestamps;
+
+    private final long[] blockLastTimestamps;
+
+    private final int[] blockPointCounts;
+
+    //Ring index of the oldest block
+    private int head = 0;
+
+    private int size = 0;
+
+    //Encoder state of the last block
+    private int bitPosition;
+
+    private long previousTimestamp;
+
+    private long previousDelta;
+
+    private long previousValueBits;
+
+    private int previousLeadingZeros;
+
+    private int previousTrailingZeros;
+
+    private long pointCount = 0;
+
+    private boolean released = false;
+
+    TimeSeries(BlockArena arena, int maxBlocks) {
+        this.arena = arena;
+        this.blockBits = arena.getBlockSize() * 8;
+        this.maxBlocks = maxBlocks;
+        this.blocks = new int[maxBlocks];
+        this.blockFirstTimestamps = new long[maxBlocks];
+        this.blockLastTimestamps = new long[maxBlocks];
+        this.blockPointCounts = new int[maxBlocks];
+    }
+
+    /**
+     * @return false if the point is older than the last one, there is no block available or the series has been released
+     */
+    boolean append(long timestamp, double value) {
+
+        if(released || (size > 0 && timestamp < previousTimestamp))
+            return false;
+
+        if(size == 0 || bitPosition + MAX_POINT_BITS > blockBits){
+            if(!addBlock(timestamp))
+                return false;
+        }
+
+        int last = ringIndex(size - 1);
+        int block = blocks[last];
+        long valueBits = Double.doubleToRawLongBits(value);
+
+        if(blockPointCounts[last] == 0){
+            arena.writeBits(block, 0, timestamp, 64);
+            arena.writeBits(block, 64, valueBits, 64);
+            bitPosition = 128;
+            previousDelta = 0;
+            previousLeadingZeros = -1;
+            previousTrailingZeros = 0;
+        }
+        else {
+            long delta = timestamp - previousTimestamp;
+            writeDeltaOfDelta(block, delta - previousDelta);
+            writeValue(block, valueBits ^ previousValueBits);
+            previousDelta = delta;
+        }
+
+        previousTimestamp = timestamp;
+        previousValueBits = valueBits;
+
+        blockLastTimestamps[last] = timestamp;
+        blockPointCounts[last]++;
+        pointCount++;
+
+        return true;
+    }
+
+    private boolean addBlock(long timestamp) {
+
+        int block = size < maxBlocks ? arena.allocate() : BlockArena.NO_BLOCK;
+
+        if(block == BlockArena.NO_BLOCK){
+
+            if(size == 0)
+                return false;
+
+            //Recycle the oldest block
+            block = blocks[head];
+            pointCount -= blockPointCounts[head];
+            head = ringIndex(1);
+            size--;
+        }
+
+        int last = ringIndex(size);
+        blocks[last] = block;
+        blockFirstTimestamps[last] = timestamp;
+        blockLastTimestamps[last] = timestamp;
+        blockPointCounts[last] = 0;
+        size++;
+
+        bitPosition = 0;
+
+        return true;
+    }
+
+    private void writeDeltaOfDelta(int block, long deltaOfDelta) {
+
+        if(deltaOfDelta == 0)
+            writeBits(block, 0, 1);
+        else if(deltaOfDelta >= -63 && deltaOfDelta <= 64){
+            writeBits(block, 0b10, 2);
+            writeBits(block, deltaOfDelta + 63, 7);
+        }
+        else if(deltaOfDelta >= -255 && deltaOfDelta <= 256){
+            writeBits(block, 0b110, 3);
+            writeBits(block, deltaOfDelta + 255, 9);
+        }
+        else if(deltaOfDelta >= -2047 && deltaOfDelta <= 2048){
+            writeBits(block, 0b1110, 4);
+            writeBits(block, deltaOfDelta + 2047, 12);
+        }
+        else {
+            writeBits(block, 0b1111, 4);
+            writeBits(block, deltaOfDelta, 64);
+        }
+    }
+
+    private void writeValue(int block, long xor) {
+
+        if(xor == 0){
+            writeBits(block, 0, 1);
+            return;
+        }
+
+        int leadingZeros = Math.min(Long.numberOfLeadingZeros(xor), MAX_LEADING_ZEROS);
+        int trailingZeros = Long.numberOfTrailingZeros(xor);
+
+        //The meaningful bits fit in the window of the previous value
+        if(previousLeadingZeros >= 0 && leadingZeros >= previousLeadingZeros && trailingZeros >= previousTrailingZeros){
+            writeBits(block, 0b10, 2);
+            writeBits(block, xor >>> previousTrailingZeros, 64 - previousLeadingZeros - previousTrailingZeros);
+            return;
+        }
+
+        int meaningfulBits = 64 - leadingZeros - trailingZeros;
+
+        writeBits(block, 0b11, 2);
+        writeBits(block, leadingZeros, LEADING_ZEROS_BITS);
+        writeBits(block, meaningfulBits - 1, MEANINGFUL_BITS_BITS);
+        writeBits(block, xor >>> trailingZeros, meaningfulBits);
+
+        previousLeadingZeros = leadingZeros;
+        previousTrailingZeros = trailingZeros;
+    }
+
+    private void writeBits(int block, long value, int bitCount) {
+        arena.writeBits(block, bitPosition, value, bitCount);
+        bitPosition += bitCount;
+    }
+
+    /**
+     * Decode the points in the range [from, to] in chronological order
+     *
+     * @return false if the consumer stopped the query
+     */
+    boolean forEach(long from, long to, HistoryPointConsumer consumer) {
+
+        for(int i = 0; i < size; i++){
+
+            int index = ringIndex(i);
+
+            if(blockLastTimestamps[index] < from)
+                continue;
+
+            if(blockFirstTimestamps[index] > to)
+                return true;
+
+            if(!decodeBlock(blocks[index], blockPointCounts[index], from, to, consumer))
+                return false;
+        }
+
+        return true;
+    }
+
+    private boolean decodeBlock(int block, int count, long from, long to, HistoryPointConsumer consumer) {
+
+        if(count == 0)
+            return true;
+
+        long timestamp = arena.readBits(block, 0, 64);
+        long valueBits = arena.readBits(block, 64, 64);
+        int position = 128;
+        long delta = 0;
+        int leadingZeros = 0;
+        int trailingZeros = 0;
+
+        for(int i = 0; i < count; i++){
+
+            if(i > 0){
+
+                //Delta of delta
+                long deltaOfDelta;
+
+                if(arena.readBits(block, position++, 1) == 0)
+                    deltaOfDelta = 0;
+                else if(arena.readBits(block, position++, 1) == 0){
+                    deltaOfDelta = arena.readBits(block, position, 7) - 63;
+                    position += 7;
+                }
+                else if(arena.readBits(block, position++, 1) == 0){
+                    deltaOfDelta = arena.readBits(block, position, 9) - 255;
+                    position += 9;
+                }
+                else if(arena.readBits(block, position++, 1) == 0){
+                    deltaOfDelta = arena.readBits(block, position, 12) - 2047;
+                    position += 12;
+                }
+                else {
+                    deltaOfDelta = arena.readBits(block, position, 64);
+                    position += 64;
+                }
+
+                delta += deltaOfDelta;
+                timestamp += delta;
+
+                //XOR with the previous value
+                if(arena.readBits(block, position++, 1) == 1){
+
+                    if(arena.readBits(block, position++, 1) == 1){
+                        leadingZeros = (int) arena.readBits(block, position, LEADING_ZEROS_BITS);
+                        int meaningfulBits = (int) arena.readBits(block, position + LEADING_ZEROS_BITS, MEANINGFUL_BITS_BITS) + 1;
+                        position += LEADING_ZEROS_BITS + MEANINGFUL_BITS_BITS;
+                        trailingZeros = 64 - leadingZeros - meaningfulBits;
+                    }
+
+                    int meaningfulBits = 64 - leadingZeros - trailingZeros;
+                    valueBits ^= arena.readBits(block, position, meaningfulBits) << trailingZeros;
+                    position += meaningfulBits;
+                }
+            }
+
+            if(timestamp > to)
+                return true;
+
+            if(timestamp >= from && !consumer.accept(timestamp, Double.longBitsToDouble(valueBits)))
+                return false;
+        }
+
+        return true;
+    }
+
+    /**
+     * Return all the blocks to the arena
+     */
+    void release() {
+
+        for(int i = 0; i < size; i++)
+            arena.release(blocks[ringIndex(i)]);
+
+        head = 0;
+        size = 0;
+        pointCount = 0;
+        released = true;
+    }
+
+    private int ringIndex(int offset) {
+        int index = head + offset;
+        return index >= maxBlocks ? index - maxBlocks : index;
+    }
+
+    long getPointCount() {
+        return pointCount;
+    }
+
+    int getBlockCount() {
+        return size;
+    }
+
+    /**
+     * @return compressed size of the points
+     */
+    long getUsedBytes() {
+        return size == 0 ? 0 : (long) (size - 1) * arena.getBlockSize() + (bitPosition + 7) / 8;
+    }
+
+    long getFirstTimestamp() {
+        return size > 0 ? blockFirstTimestamps[head] : Long.MIN_VALUE;
+    }
+
+    long getLastTimestamp() {
+        return size > 0 ? previousTimestamp : Long.MIN_VALUE;
+    }
+}
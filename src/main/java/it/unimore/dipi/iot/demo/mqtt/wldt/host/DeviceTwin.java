@@ -0,0 +1,43 @@
+package it.unimore.dipi.iot.demo.mqtt.wldt.host;
+
+import it.unimore.dipi.iot.wldt.processing.ProcessingPipeline;
+
+/**
+ * Device mirrored by the TwinHost: the device descriptor and one pipeline for each topic of the host
+ * (aligned with the topic descriptors of the TwinTopicDispatcher, null if the topic is not mirrored).
+ *
+ * @created: 18/10/2026
+ * @project: WLDT - MQTT Example
+ */
+public class DeviceTwin {
+
+    private final TwinDeviceDescriptor descriptor;
+
+    private final ProcessingPipeline[] pipelines;
+
+    public DeviceTwin(TwinDeviceDescriptor descriptor, ProcessingPipeline[] pipelines) {
+        this.descriptor = descriptor;
+        this.pipelines = pipelines;
+    }
+
+    public String getDeviceId() {
+        return descriptor.getId();
+    }
+
+    public TwinDeviceDescriptor getDescriptor() {
+        return descriptor;
+    }
+
+    public ProcessingPipeline getPipeline(int topicIndex) {
+        return pipelines[topicIndex];
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder("DeviceTwin{");
+        sb.append("descriptor=").append(descriptor);
+        sb.append(", pipelines=").append(pipelines.length);
+        sb.append('}');
+        return sb.toString();
+    }
+}
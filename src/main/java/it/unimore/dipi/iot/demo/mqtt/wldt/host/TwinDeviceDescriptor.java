@@ -0,0 +1,50 @@
+package it.unimore.dipi.iot.demo.mqtt.wldt.host;
+
+/**
+ * Device mirrored by the TwinHost as loaded from the TwinRegistry.
+ * The profile is passed to the TwinPipelineFactory in order to build different pipelines for different kinds of devices.
+ *
+ * @created: 18/10/2026
+ * @project: WLDT - MQTT Example
+ */
+public class TwinDeviceDescriptor {
+
+    public static final String DEFAULT_PROFILE = "default";
+
+    private String id;
+
+    private String profile = DEFAULT_PROFILE;
+
+    public TwinDeviceDescriptor() {
+    }
+
+    public TwinDeviceDescriptor(String id, String profile) {
+        this.id = id;
+        this.profile = profile;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public String getProfile() {
+        return profile;
+    }
+
+    public void setProfile(String profile) {
+        this.profile = profile;
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder("TwinDeviceDescriptor{");
+        sb.append("id='").append(id).append('\'');
+        sb.append(", profile='").append(profile).append('\'');
+        sb.append('}');
+        return sb.toString();
+    }
+}
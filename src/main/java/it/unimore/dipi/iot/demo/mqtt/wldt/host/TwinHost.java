@@ -0,0 +1,549 @@
+package it.unimore.dipi.iot.demo.mqtt.wldt.host;
+
+import it.unimore.dipi.iot.demo.mqtt.utils.LogSampler;
+import it.unimore.dipi.iot.demo.mqtt.wldt.MqttCommandTopicChangeStep;
+import it.unimore.dipi.iot.demo.mqtt.wldt.MqttPayloadChangeStep;
+import it.unimore.dipi.iot.demo.mqtt.wldt.MqttPublishStep;
+import it.unimore.dipi.iot.demo.mqtt.wldt.MqttStreamingAverageStep;
+import it.unimore.dipi.iot.demo.mqtt.wldt.MqttTopicChangeStep;
+import it.unimore.dipi.iot.demo.mqtt.wldt.metrics.MetricsHttpServer;
+import it.unimore.dipi.iot.demo.mqtt.wldt.metrics.MetricsRegistry;
+import it.unimore.dipi.iot.demo.mqtt.wldt.pipeline.ConcurrentProcessingPipeline;
+import it.unimore.dipi.iot.demo.mqtt.wldt.pipeline.PartitionedExecutor;
+import it.unimore.dipi.iot.demo.mqtt.wldt.publish.BatchingMqttPublisher;
+import it.unimore.dipi.iot.demo.mqtt.wldt.publish.BatchingMqttPublisherConfiguration;
+import it.unimore.dipi.iot.demo.mqtt.wldt.publish.OutgoingPublisher;
+import it.unimore.dipi.iot.demo.mqtt.wldt.publish.StoreAndForwardMqttPublisher;
+import it.unimore.dipi.iot.demo.mqtt.wldt.publish.StoreAndForwardMqttPublisherConfiguration;
+import it.unimore.dipi.iot.demo.mqtt.wldt.startup.ParallelStartup;
+import it.unimore.dipi.iot.demo.mqtt.wldt.startup.StartupReport;
+import it.unimore.dipi.iot.wldt.exception.ProcessingPipelineException;
+import it.unimore.dipi.iot.wldt.processing.PipelineData;
+import it.unimore.dipi.iot.wldt.processing.ProcessingPipeline;
+import it.unimore.dipi.iot.wldt.processing.ProcessingPipelineListener;
+import it.unimore.dipi.iot.wldt.worker.mqtt.MqttPipelineData;
+import it.unimore.dipi.iot.wldt.worker.mqtt.MqttTopicDescriptor;
+import org.eclipse.paho.client.mqttv3.IMqttActionListener;
+import org.eclipse.paho.client.mqttv3.IMqttAsyncClient;
+import org.eclipse.paho.client.mqttv3.IMqttDeliveryToken;
+import org.eclipse.paho.client.mqttv3.IMqttToken;
+import org.eclipse.paho.client.mqttv3.MqttAsyncClient;
+import org.eclipse.paho.client.mqttv3.MqttCallbackExtended;
+import org.eclipse.paho.client.mqttv3.MqttConnectOptions;
+import org.eclipse.paho.client.mqttv3.MqttException;
+import org.eclipse.paho.client.mqttv3.MqttMessage;
+import org.eclipse.paho.client.mqttv3.persist.MemoryPersistence;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Multi-twin host mirroring all the devices of a TwinRegistry in a single JVM.
+ *
+ * Differently from WldtMqttProcess (one Mqtt2MqttWorker, with its own incoming and outgoing clients, for each device)
+ * the devices share a small number of connections:
+ *
+ * - the topic templates are subscribed once with the device id replaced by the + wildcard (E.g. telemetry/+/resource/temperature)
+ *   on connectionCount connections for each broker (shared subscriptions when connectionCount > 1);
+ * - received messages are routed to the pipeline of the device through the TwinTopicDispatcher;
+ * - the results of all the devices are published by one BatchingMqttPublisher for each target broker
+ *   (a StoreAndForwardMqttPublisher for the destination broker if an outgoing log directory is configured).
+ *
+ * Each device only keeps its descriptor and its pipelines (created by the TwinPipelineFactory sharing the step instances,
+ * the partition caches are created on first use), so the per-device overhead stays below one kilobyte of heap
+ * (TwinHostFootprintReport in the benchmarks module).
+ *
+ * The startup opens all the connections in parallel and subscribes all the topic templates of a broker with a single
+ * SUBSCRIBE packet for each connection: start() returns when the brokers acknowledged the subscriptions.
+ *
+ * Usage: TwinHost [configuration.yaml]
+ *
+ * @created: 18/10/2026
+ * @project: WLDT - MQTT Example
+ */
+public class TwinHost {
+
+    private static final Logger logger = LoggerFactory.getLogger(TwinHost.class);
+
+    private static final long PUBLISHER_STOP_TIMEOUT_MS = 5000;
+
+    //Connections, subscriptions and publishers of the startup
+    private static final long STARTUP_TIMEOUT_MS = 30000;
+
+    //Return code of the SUBACK for a refused filter
+    private static final int SUBSCRIPTION_REFUSED_QOS = 0x80;
+
+    private static final String SHARED_SUBSCRIPTION_FORMAT = "$share/%s/%s";
+
+    //Unmatched topics and unknown devices are logged for each message
+    private static final LogSampler dropLogSampler = LogSampler.perSecond(10);
+
+    private final TwinHostConfiguration configuration;
+
+    private final TwinTopicDispatcher dispatcher;
+
+    //Read-only after the creation of the host
+    private final Map<String, DeviceTwin> twins;
+
+    //Telemetry results towards the destination broker, null if there are no device outgoing topics
+    private final OutgoingPublisher destinationPublisher;
+
+    //Command results towards the source broker, null if there are no device incoming topics
+    private final OutgoingPublisher sourcePublisher;
+
+    private final List<IMqttAsyncClient> incomingClients = new ArrayList<>();
+
+    private final LongAdder receivedCount = new LongAdder();
+
+    private final LongAdder unmatchedCount = new LongAdder();
+
+    private final LongAdder unknownDeviceCount = new LongAdder();
+
+    private final LongAdder errorCount = new LongAdder();
+
+    private final ProcessingPipelineListener pipelineListener;
+
+    private MetricsHttpServer metricsHttpServer;
+
+    private boolean running = false;
+
+    /**
+     * @throws IOException if the outgoing log can not be opened
+     */
+    public TwinHost(TwinHostConfiguration configuration, TwinRegistry registry, TwinPipelineFactory pipelineFactory) throws IOException {
+
+        configuration.validate();
+
+        this.configuration = configuration;
+        this.dispatcher = new TwinTopicDispatcher(configuration.getTopicList());
+
+        this.destinationPublisher = hasTopics(MqttTopicDescriptor.MQTT_TOPIC_TYPE_DEVICE_OUTGOING) ? createDestinationPublisher() : null;
+
+        this.sourcePublisher = hasTopics(MqttTopicDescriptor.MQTT_TOPIC_TYPE_DEVICE_INCOMING) ?
+                new BatchingMqttPublisher(publisherConfiguration(configuration.getSourceBrokerAddress(), configuration.getSourceBrokerPort(), "source")) : null;
+
+        //Results are published by the last step of each pipeline: the listener only counts the failures
+        this.pipelineListener = new ProcessingPipelineListener() {
+
+            @Override
+            public void onPipelineDone(Optional<PipelineData> result) {
+            }
+
+            @Override
+            public void onPipelineError() {
+                errorCount.increment();
+            }
+        };
+
+        MqttPublishStep[] publishSteps = new MqttPublishStep[dispatcher.getTopicCount()];
+        MqttPublishStep destinationPublishStep = destinationPublisher != null ? new MqttPublishStep(destinationPublisher) : null;
+        MqttPublishStep sourcePublishStep = sourcePublisher != null ? new MqttPublishStep(sourcePublisher) : null;
+
+        for(int i = 0; i < publishSteps.length; i++)
+            publishSteps[i] = isDeviceOutgoing(dispatcher.getTopicDescriptor(i)) ? destinationPublishStep : sourcePublishStep;
+
+        this.twins = new HashMap<>((int) (registry.size() / 0.75f) + 1);
+
+        for(TwinDeviceDescriptor device : registry.getDevices())
+            twins.put(device.getId(), createTwin(device, pipelineFactory, publishSteps));
+
+        logger.info("Twin Host created ! Devices: {} Topics: {}", twins.size(), dispatcher.getTopicCount());
+    }
+
+    public static void main(String[] args) {
+
+        try{
+
+            TwinHostConfiguration configuration = args.length > 0 ? TwinHostConfiguration.fromYamlFile(args[0]) : new TwinHostConfiguration();
+            TwinRegistry registry = TwinRegistry.load(configuration.getRegistryPath());
+
+            TwinHost twinHost = new TwinHost(configuration, registry, defaultPipelineFactory(configuration));
+            Runtime.getRuntime().addShutdownHook(new Thread(twinHost::stop));
+
+            twinHost.start();
+            StartupReport.getDefault().markReady();
+
+        }catch (Exception e){
+            e.printStackTrace();
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Pipelines of the WldtMqttProcess demo: streaming average and topic change for the telemetry,
+     * payload and topic change for the commands. The step instances are shared by all the devices.
+     */
+    public static TwinPipelineFactory defaultPipelineFactory(TwinHostConfiguration configuration) {
+
+        MqttStreamingAverageStep averageStep = new MqttStreamingAverageStep(configuration.getAverageWindowSize());
+        MqttTopicChangeStep topicChangeStep = new MqttTopicChangeStep();
+        MqttPayloadChangeStep payloadChangeStep = new MqttPayloadChangeStep();
+        MqttCommandTopicChangeStep commandTopicChangeStep = new MqttCommandTopicChangeStep();
+
+        return (device, topicDescriptor) -> isDeviceOutgoing(topicDescriptor) ?
+                new ConcurrentProcessingPipeline(averageStep, topicChangeStep) :
+                new ConcurrentProcessingPipeline(payloadChangeStep, commandTopicChangeStep);
+    }
+
+    private DeviceTwin createTwin(TwinDeviceDescriptor device, TwinPipelineFactory pipelineFactory, MqttPublishStep[] publishSteps) {
+
+        ProcessingPipeline[] pipelines = new ProcessingPipeline[dispatcher.getTopicCount()];
+
+        for(int i = 0; i < pipelines.length; i++){
+
+            MqttTopicDescriptor topicDescriptor = dispatcher.getTopicDescriptor(i);
+            ProcessingPipeline pipeline = pipelineFactory.createPipeline(device, topicDescriptor);
+
+            if(pipeline == null)
+                continue;
+
+            pipeline.addStep(publishSteps[i]);
+
+            //Devices share the metrics of the topic
+            if(configuration.isMetricsEnabled() && pipeline instanceof ConcurrentProcessingPipeline)
+                ((ConcurrentProcessingPipeline) pipeline).enableMetrics(MetricsRegistry.getDefault(), topicDescriptor.getId());
+
+            pipelines[i] = pipeline;
+        }
+
+        return new DeviceTwin(device, pipelines);
+    }
+
+    /**
+     * Start the publishers, connect the incoming clients and subscribe the topic templates.
+     *
+     * The publishers and the incoming connections of both brokers are started in parallel and the method returns once
+     * all the subscriptions have been acknowledged by the brokers (SUBACK), so the host is ready to receive the messages.
+     *
+     * @throws Exception if a connection or a subscription fails within the startup timeout
+     */
+    public synchronized void start() throws Exception {
+
+        if(running)
+            return;
+
+        logger.info("Starting Twin Host ... Configuration: {}", configuration);
+
+        ParallelStartup startup = new ParallelStartup("twinHost");
+
+        if(destinationPublisher != null)
+            startup.submit("destinationPublisher", () -> { destinationPublisher.start(); return null; });
+
+        if(sourcePublisher != null)
+            startup.submit("sourcePublisher", () -> { sourcePublisher.start(); return null; });
+
+        //Device outgoing topics are received from the source broker, device incoming topics from the destination broker
+        startup.submit("sourceSubscriptions", () -> connectIncoming(configuration.getSourceBrokerAddress(), configuration.getSourceBrokerPort(),
+                "source", subscriptionFilters(MqttTopicDescriptor.MQTT_TOPIC_TYPE_DEVICE_OUTGOING)));
+        startup.submit("destinationSubscriptions", () -> connectIncoming(configuration.getDestinationBrokerAddress(), configuration.getDestinationBrokerPort(),
+                "destination", subscriptionFilters(MqttTopicDescriptor.MQTT_TOPIC_TYPE_DEVICE_INCOMING)));
+
+        try{
+            startup.awaitAll(STARTUP_TIMEOUT_MS);
+        }catch (Exception e){
+            release();
+            throw e;
+        }
+
+        if(configuration.isMetricsEnabled())
+            startMetricsEndpoint(MetricsRegistry.getDefault());
+
+        this.running = true;
+
+        logger.info("Twin Host started ! Devices: {} Incoming Connections: {}", twins.size(), incomingClients.size());
+    }
+
+    /**
+     * Open all the connections towards the broker, then send a single SUBSCRIBE packet with all the filters on each of them
+     * and wait for the acknowledgements
+     */
+    private Void connectIncoming(String brokerAddress, int brokerPort, String brokerName, String[] filters) throws MqttException {
+
+        if(filters.length == 0)
+            return null;
+
+        String brokerUrl = String.format("tcp://%s:%d", brokerAddress, brokerPort);
+
+        MqttConnectOptions options = new MqttConnectOptions();
+        options.setAutomaticReconnect(true);
+        options.setCleanSession(true);
+        options.setConnectionTimeout(10);
+
+        List<IMqttAsyncClient> mqttClients = new ArrayList<>();
+        List<IMqttToken> connectTokens = new ArrayList<>();
+
+        for(int i = 0; i < configuration.getConnectionCount(); i++){
+
+            String clientId = String.format("%s-%s-%d", configuration.getClientIdPrefix(), brokerName, i);
+            IMqttAsyncClient mqttClient = new MqttAsyncClient(brokerUrl, clientId, new MemoryPersistence());
+
+            mqttClient.setCallback(new MqttCallbackExtended() {
+
+                @Override
+                public void connectComplete(boolean reconnect, String serverURI) {
+
+                    //Clean session: the subscriptions are lost when the connection is lost
+                    if(!reconnect)
+                        return;
+
+                    try{
+                        //Not waiting for the completion: called by the Paho callback thread
+                        subscribe(mqttClient, filters);
+                    }catch (MqttException e){
+                        logger.error("Twin Host client {} subscription error: {}", clientId, e.getLocalizedMessage());
+                    }
+                }
+
+                @Override
+                public void connectionLost(Throwable cause) {
+                    logger.warn("Twin Host client {} connection lost ! Cause: {}", clientId, cause != null ? cause.getLocalizedMessage() : "unknown");
+                }
+
+                @Override
+                public void messageArrived(String topic, MqttMessage message) {
+                    onMessage(topic, message);
+                }
+
+                @Override
+                public void deliveryComplete(IMqttDeliveryToken token) {
+                }
+            });
+
+            synchronized (incomingClients){
+                incomingClients.add(mqttClient);
+            }
+
+            mqttClients.add(mqttClient);
+            connectTokens.add(mqttClient.connect(options));
+        }
+
+        for(IMqttToken connectToken : connectTokens)
+            connectToken.waitForCompletion();
+
+        List<IMqttToken> subscribeTokens = new ArrayList<>();
+
+        for(IMqttAsyncClient mqttClient : mqttClients)
+            subscribeTokens.add(subscribe(mqttClient, filters));
+
+        for(int i = 0; i < subscribeTokens.size(); i++)
+            awaitSubscription(mqttClients.get(i), subscribeTokens.get(i), filters);
+
+        logger.info("Twin Host connected to {} with {} connections ! Subscriptions: {}", brokerUrl, configuration.getConnectionCount(), Arrays.toString(filters));
+
+        return null;
+    }
+
+    private IMqttToken subscribe(IMqttAsyncClient mqttClient, String[] filters) throws MqttException {
+
+        int[] qos = new int[filters.length];
+        Arrays.fill(qos, configuration.getSubscriptionQos());
+
+        return mqttClient.subscribe(filters, qos, null, new IMqttActionListener() {
+
+            @Override
+            public void onSuccess(IMqttToken asyncActionToken) {
+                logger.debug("Twin Host client {} subscribed to {}", mqttClient.getClientId(), Arrays.toString(filters));
+            }
+
+            @Override
+            public void onFailure(IMqttToken asyncActionToken, Throwable exception) {
+                logger.error("Twin Host client {} subscription error: {}", mqttClient.getClientId(), exception != null ? exception.getLocalizedMessage() : "unknown error");
+            }
+        });
+    }
+
+    /**
+     * Wait for the SUBACK of the filters: a filter refused by the broker (granted QoS 0x80) fails the startup
+     */
+    private void awaitSubscription(IMqttAsyncClient mqttClient, IMqttToken subscribeToken, String[] filters) throws MqttException {
+
+        subscribeToken.waitForCompletion(STARTUP_TIMEOUT_MS);
+
+        if(!subscribeToken.isComplete())
+            throw new MqttException(MqttException.REASON_CODE_CLIENT_TIMEOUT);
+
+        int[] grantedQos = subscribeToken.getGrantedQos();
+
+        for(int i = 0; grantedQos != null && i < grantedQos.length && i < filters.length; i++)
+            if(grantedQos[i] == SUBSCRIPTION_REFUSED_QOS){
+                logger.error("Twin Host client {} subscription to {} refused by the broker !", mqttClient.getClientId(), filters[i]);
+                throw new MqttException(MqttException.REASON_CODE_SUBSCRIBE_FAILED);
+            }
+    }
+
+    /**
+     * Route a received message to the pipeline of the device that published it (called by the Paho callback threads)
+     */
+    void onMessage(String topic, MqttMessage message) {
+
+        receivedCount.increment();
+
+        int topicIndex = dispatcher.match(topic);
+
+        if(topicIndex == TwinTopicDispatcher.NO_MATCH){
+            unmatchedCount.increment();
+            if(dropLogSampler.sample())
+                logger.warn("Twin Host received a message on an unexpected topic: {} Suppressed: {}", topic, dropLogSampler.drainSuppressedCount());
+            return;
+        }
+
+        DeviceTwin twin = twins.get(dispatcher.extractDeviceId(topic, topicIndex));
+        ProcessingPipeline pipeline = twin != null ? twin.getPipeline(topicIndex) : null;
+
+        if(pipeline == null){
+            unknownDeviceCount.increment();
+            if(dropLogSampler.sample())
+                logger.warn("Twin Host received a message of a device not mirrored on the topic: {} Suppressed: {}", topic, dropLogSampler.drainSuppressedCount());
+            return;
+        }
+
+        try{
+            pipeline.start(new MqttPipelineData(topic, dispatcher.getTopicDescriptor(topicIndex), message.getPayload(), message.isRetained()), pipelineListener);
+        }catch (ProcessingPipelineException e){
+            errorCount.increment();
+            logger.error("Twin Host pipeline error on topic {}: {}", topic, e.getLocalizedMessage());
+        }
+    }
+
+    private void startMetricsEndpoint(MetricsRegistry metricsRegistry) throws Exception {
+
+        metricsRegistry.gauge("wldt_twin_host_devices", "Devices mirrored by the Twin Host", "host", configuration.getClientIdPrefix(), () -> twins.size());
+        metricsRegistry.gauge("wldt_twin_host_received_total", "Messages received by the Twin Host", "host", configuration.getClientIdPrefix(), receivedCount::sum);
+        metricsRegistry.gauge("wldt_twin_host_unmatched_total", "Messages received on topics not matching any template", "host", configuration.getClientIdPrefix(), unmatchedCount::sum);
+        metricsRegistry.gauge("wldt_twin_host_unknown_device_total", "Messages of devices not in the registry", "host", configuration.getClientIdPrefix(), unknownDeviceCount::sum);
+        metricsRegistry.gauge("wldt_twin_host_errors_total", "Pipeline errors of the Twin Host", "host", configuration.getClientIdPrefix(), errorCount::sum);
+
+        PartitionedExecutor executor = PartitionedExecutor.getDefault();
+        metricsRegistry.gauge("wldt_executor_queue_depth", "Messages waiting in the partition queues", "executor", executor.getName(), executor::getQueueDepth);
+
+        for(OutgoingPublisher publisher : Arrays.asList(destinationPublisher, sourcePublisher))
+            if(publisher != null)
+                metricsRegistry.gauge("wldt_publisher_queue_depth", "Messages buffered by the outgoing publisher", "client", publisher.getClientId(), publisher::getQueueDepth);
+
+        this.metricsHttpServer = new MetricsHttpServer(metricsRegistry, configuration.getMetricsBindAddress(), configuration.getMetricsPort());
+        this.metricsHttpServer.start();
+    }
+
+    /**
+     * Disconnect the incoming clients and flush the publishers
+     */
+    public synchronized void stop() {
+
+        if(!running)
+            return;
+
+        running = false;
+
+        release();
+
+        if(metricsHttpServer != null)
+            metricsHttpServer.stop();
+
+        logger.info("Twin Host stopped ! Received: {} Unmatched: {} Unknown Device: {} Errors: {}", getReceivedCount(), getUnmatchedCount(), getUnknownDeviceCount(), getErrorCount());
+    }
+
+    private void release() {
+
+        synchronized (incomingClients){
+
+            for(IMqttAsyncClient mqttClient : incomingClients) {
+                try{
+                    if(mqttClient.isConnected())
+                        mqttClient.disconnect().waitForCompletion(1000);
+                    mqttClient.close();
+                }catch (MqttException e){
+                    logger.warn("Error disconnecting Twin Host client: {}", e.getLocalizedMessage());
+                }
+            }
+
+            incomingClients.clear();
+        }
+
+        if(destinationPublisher != null)
+            destinationPublisher.stop(PUBLISHER_STOP_TIMEOUT_MS);
+
+        if(sourcePublisher != null)
+            sourcePublisher.stop(PUBLISHER_STOP_TIMEOUT_MS);
+    }
+
+    private String[] subscriptionFilters(String topicType) {
+
+        List<String> filters = new ArrayList<>();
+
+        for(int i = 0; i < dispatcher.getTopicCount(); i++)
+            if(topicType.equals(dispatcher.getTopicDescriptor(i).getType()))
+                filters.add(configuration.getConnectionCount() > 1 ?
+                        String.format(SHARED_SUBSCRIPTION_FORMAT, configuration.getSharedSubscriptionGroup(), dispatcher.getSubscriptionFilter(i)) :
+                        dispatcher.getSubscriptionFilter(i));
+
+        return filters.toArray(new String[0]);
+    }
+
+    private OutgoingPublisher createDestinationPublisher() throws IOException {
+
+        if(configuration.getOutgoingLogDirectory() == null)
+            return new BatchingMqttPublisher(publisherConfiguration(configuration.getDestinationBrokerAddress(), configuration.getDestinationBrokerPort(), "destination"));
+
+        StoreAndForwardMqttPublisherConfiguration publisherConfiguration = new StoreAndForwardMqttPublisherConfiguration(configuration.getDestinationBrokerAddress(),
+                configuration.getDestinationBrokerPort(),
+                configuration.getOutgoingLogDirectory());
+        publisherConfiguration.setClientId(String.format("%s-destination-publisher", configuration.getClientIdPrefix()));
+        publisherConfiguration.setQos(configuration.getPublishingQos());
+
+        return new StoreAndForwardMqttPublisher(publisherConfiguration);
+    }
+
+    private BatchingMqttPublisherConfiguration publisherConfiguration(String brokerAddress, int brokerPort, String brokerName) {
+        BatchingMqttPublisherConfiguration publisherConfiguration = new BatchingMqttPublisherConfiguration(brokerAddress, brokerPort);
+        publisherConfiguration.setClientId(String.format("%s-%s-publisher", configuration.getClientIdPrefix(), brokerName));
+        publisherConfiguration.setQos(configuration.getPublishingQos());
+        return publisherConfiguration;
+    }
+
+    private boolean hasTopics(String topicType) {
+        for(MqttTopicDescriptor topicDescriptor : configuration.getTopicList())
+            if(topicType.equals(topicDescriptor.getType()))
+                return true;
+        return false;
+    }
+
+    private static boolean isDeviceOutgoing(MqttTopicDescriptor topicDescriptor) {
+        return MqttTopicDescriptor.MQTT_TOPIC_TYPE_DEVICE_OUTGOING.equals(topicDescriptor.getType());
+    }
+
+    public DeviceTwin getTwin(String deviceId) {
+        return twins.get(deviceId);
+    }
+
+    public int getDeviceCount() {
+        return twins.size();
+    }
+
+    public long getReceivedCount() {
+        return receivedCount.sum();
+    }
+
+    public long getUnmatchedCount() {
+        return unmatchedCount.sum();
+    }
+
+    public long getUnknownDeviceCount() {
+        return unknownDeviceCount.sum();
+    }
+
+    public long getErrorCount() {
+        return errorCount.sum();
+    }
+
+    public TwinHostConfiguration getConfiguration() {
+        return configuration;
+    }
+}
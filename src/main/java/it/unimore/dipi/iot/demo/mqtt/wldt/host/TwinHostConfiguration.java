@@ -0,0 +1,263 @@
+package it.unimore.dipi.iot.demo.mqtt.wldt.host;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.yaml.YAMLFactory;
+import it.unimore.dipi.iot.demo.mqtt.wldt.WldtMqttProcess;
+import it.unimore.dipi.iot.wldt.worker.mqtt.MqttTopicDescriptor;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Configuration of the TwinHost. It can be loaded from a YAML file
+ * where missing fields keep the default values.
+ *
+ * Topic templates use the {{device_id}} and {{resource_id}} placeholders of the Mqtt2MqttWorker configuration:
+ * MQTT_TOPIC_TYPE_DEVICE_OUTGOING topics (telemetry) are received from the source broker and published on the destination one,
+ * MQTT_TOPIC_TYPE_DEVICE_INCOMING topics (commands) are received from the destination broker and published on the source one.
+ *
+ * @created: 18/10/2026
+ * @project: WLDT - MQTT Example
+ */
+public class TwinHostConfiguration {
+
+    private String sourceBrokerAddress = "127.0.0.1";
+
+    private int sourceBrokerPort = 1883;
+
+    private String destinationBrokerAddress = "127.0.0.1";
+
+    private int destinationBrokerPort = 1884;
+
+    //Registry file or directory of registry files
+    private String registryPath = "src/main/resources/twin-registry.yaml";
+
+    private String clientIdPrefix = "wldtTwinHost";
+
+    //Incoming connections for each broker: with more than one connection the subscriptions are shared ($share/<group>/<filter>)
+    private int connectionCount = 1;
+
+    private String sharedSubscriptionGroup = "wldt-twin-host";
+
+    private int subscriptionQos = 0;
+
+    private int publishingQos = 0;
+
+    private int averageWindowSize = 10;
+
+    //If set, telemetry results are stored in a memory-mapped log in this directory and delivered once the destination broker
+    //is available (StoreAndForwardMqttPublisher), otherwise they are buffered in memory (BatchingMqttPublisher)
+    private String outgoingLogDirectory = null;
+
+    private boolean metricsEnabled = true;
+
+    private String metricsBindAddress = "127.0.0.1";
+
+    private int metricsPort = 9404;
+
+    private List<MqttTopicDescriptor> topicList = new ArrayList<>(Arrays.asList(
+            new MqttTopicDescriptor(WldtMqttProcess.DEMO_TEMPERATURE_TOPIC_ID,
+                    "temperature",
+                    "telemetry/{{device_id}}/resource/{{resource_id}}",
+                    MqttTopicDescriptor.MQTT_TOPIC_TYPE_DEVICE_OUTGOING),
+            new MqttTopicDescriptor(WldtMqttProcess.DEMO_COMMAND_TOPIC_ID,
+                    "default_command_channel",
+                    "command/{{device_id}}",
+                    MqttTopicDescriptor.MQTT_TOPIC_TYPE_DEVICE_INCOMING)
+    ));
+
+    public TwinHostConfiguration() {
+    }
+
+    public static TwinHostConfiguration fromYamlFile(String filePath) throws IOException {
+        ObjectMapper mapper = new ObjectMapper(new YAMLFactory());
+        mapper.configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+        return mapper.readValue(new File(filePath), TwinHostConfiguration.class);
+    }
+
+    /**
+     * @throws IllegalArgumentException if the configuration is not valid
+     */
+    public void validate() {
+
+        if(sourceBrokerAddress == null || sourceBrokerPort <= 0 || destinationBrokerAddress == null || destinationBrokerPort <= 0)
+            throw new IllegalArgumentException("Invalid Broker Address or Port !");
+
+        if(registryPath == null || clientIdPrefix == null)
+            throw new IllegalArgumentException("Registry Path and Client Id Prefix can not be null !");
+
+        if(connectionCount <= 0 || averageWindowSize <= 0)
+            throw new IllegalArgumentException("Connection Count and Average Window Size must be greater than 0 !");
+
+        if(connectionCount > 1 && (sharedSubscriptionGroup == null || sharedSubscriptionGroup.isEmpty()))
+            throw new IllegalArgumentException("Shared Subscription Group is required with more than one connection !");
+
+        if(subscriptionQos < 0 || subscriptionQos > 2 || publishingQos < 0 || publishingQos > 2)
+            throw new IllegalArgumentException(String.format("Invalid QoS: %d, %d", subscriptionQos, publishingQos));
+
+        if(topicList == null || topicList.isEmpty())
+            throw new IllegalArgumentException("Topic List can not be empty !");
+
+        for(MqttTopicDescriptor topicDescriptor : topicList)
+            if(!MqttTopicDescriptor.MQTT_TOPIC_TYPE_DEVICE_OUTGOING.equals(topicDescriptor.getType()) && !MqttTopicDescriptor.MQTT_TOPIC_TYPE_DEVICE_INCOMING.equals(topicDescriptor.getType()))
+                throw new IllegalArgumentException(String.format("Invalid type of topic %s: %s", topicDescriptor.getId(), topicDescriptor.getType()));
+
+        if(metricsEnabled && (metricsBindAddress == null || metricsPort <= 0))
+            throw new IllegalArgumentException("Invalid Metrics Bind Address or Port !");
+    }
+
+    public String getSourceBrokerAddress() {
+        return sourceBrokerAddress;
+    }
+
+    public void setSourceBrokerAddress(String sourceBrokerAddress) {
+        this.sourceBrokerAddress = sourceBrokerAddress;
+    }
+
+    public int getSourceBrokerPort() {
+        return sourceBrokerPort;
+    }
+
+    public void setSourceBrokerPort(int sourceBrokerPort) {
+        this.sourceBrokerPort = sourceBrokerPort;
+    }
+
+    public String getDestinationBrokerAddress() {
+        return destinationBrokerAddress;
+    }
+
+    public void setDestinationBrokerAddress(String destinationBrokerAddress) {
+        this.destinationBrokerAddress = destinationBrokerAddress;
+    }
+
+    public int getDestinationBrokerPort() {
+        return destinationBrokerPort;
+    }
+
+    public void setDestinationBrokerPort(int destinationBrokerPort) {
+        this.destinationBrokerPort = destinationBrokerPort;
+    }
+
+    public String getRegistryPath() {
+        return registryPath;
+    }
+
+    public void setRegistryPath(String registryPath) {
+        this.registryPath = registryPath;
+    }
+
+    public String getClientIdPrefix() {
+        return clientIdPrefix;
+    }
+
+    public void setClientIdPrefix(String clientIdPrefix) {
+        this.clientIdPrefix = clientIdPrefix;
+    }
+
+    public int getConnectionCount() {
+        return connectionCount;
+    }
+
+    public void setConnectionCount(int connectionCount) {
+        this.connectionCount = connectionCount;
+    }
+
+    public String getSharedSubscriptionGroup() {
+        return sharedSubscriptionGroup;
+    }
+
+    public void setSharedSubscriptionGroup(String sharedSubscriptionGroup) {
+        this.sharedSubscriptionGroup = sharedSubscriptionGroup;
+    }
+
+    public int getSubscriptionQos() {
+        return subscriptionQos;
+    }
+
+    public void setSubscriptionQos(int subscriptionQos) {
+        this.subscriptionQos = subscriptionQos;
+    }
+
+    public int getPublishingQos() {
+        return publishingQos;
+    }
+
+    public void setPublishingQos(int publishingQos) {
+        this.publishingQos = publishingQos;
+    }
+
+    public int getAverageWindowSize() {
+        return averageWindowSize;
+    }
+
+    public void setAverageWindowSize(int averageWindowSize) {
+        this.averageWindowSize = averageWindowSize;
+    }
+
+    public String getOutgoingLogDirectory() {
+        return outgoingLogDirectory;
+    }
+
+    public void setOutgoingLogDirectory(String outgoingLogDirectory) {
+        this.outgoingLogDirectory = outgoingLogDirectory;
+    }
+
+    public boolean isMetricsEnabled() {
+        return metricsEnabled;
+    }
+
+    public void setMetricsEnabled(boolean metricsEnabled) {
+        this.metricsEnabled = metricsEnabled;
+    }
+
+    public String getMetricsBindAddress() {
+        return metricsBindAddress;
+    }
+
+    public void setMetricsBindAddress(String metricsBindAddress) {
+        this.metricsBindAddress = metricsBindAddress;
+    }
+
+    public int getMetricsPort() {
+        return metricsPort;
+    }
+
+    public void setMetricsPort(int metricsPort) {
+        this.metricsPort = metricsPort;
+    }
+
+    public List<MqttTopicDescriptor> getTopicList() {
+        return topicList;
+    }
+
+    public void setTopicList(List<MqttTopicDescriptor> topicList) {
+        this.topicList = topicList;
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder("TwinHostConfiguration{");
+        sb.append("sourceBrokerAddress='").append(sourceBrokerAddress).append('\'');
+        sb.append(", sourceBrokerPort=").append(sourceBrokerPort);
+        sb.append(", destinationBrokerAddress='").append(destinationBrokerAddress).append('\'');
+        sb.append(", destinationBrokerPort=").append(destinationBrokerPort);
+        sb.append(", registryPath='").append(registryPath).append('\'');
+        sb.append(", clientIdPrefix='").append(clientIdPrefix).append('\'');
+        sb.append(", connectionCount=").append(connectionCount);
+        sb.append(", sharedSubscriptionGroup='").append(sharedSubscriptionGroup).append('\'');
+        sb.append(", subscriptionQos=").append(subscriptionQos);
+        sb.append(", publishingQos=").append(publishingQos);
+        sb.append(", averageWindowSize=").append(averageWindowSize);
+        sb.append(", outgoingLogDirectory='").append(outgoingLogDirectory).append('\'');
+        sb.append(", metricsEnabled=").append(metricsEnabled);
+        sb.append(", metricsBindAddress='").append(metricsBindAddress).append('\'');
+        sb.append(", metricsPort=").append(metricsPort);
+        sb.append(", topicList=").append(topicList.size());
+        sb.append('}');
+        return sb.toString();
+    }
+}
@@ -0,0 +1,24 @@
+package it.unimore.dipi.iot.demo.mqtt.wldt.host;
+
+import it.unimore.dipi.iot.wldt.processing.ProcessingPipeline;
+import it.unimore.dipi.iot.wldt.worker.mqtt.MqttTopicDescriptor;
+
+/**
+ * Creates the pipeline of a mirrored device for one of the topics of the TwinHost.
+ *
+ * The factory is called once for each device and topic when the TwinHost is created: in order to keep the
+ * per-device overhead small the returned pipelines should share the step instances (steps keeping a state for
+ * each concrete topic, E.g. MqttStreamingAverageStep, can be shared by all the devices).
+ * The TwinHost appends the publish step towards the target broker to each pipeline.
+ *
+ * @created: 18/10/2026
+ * @project: WLDT - MQTT Example
+ */
+public interface TwinPipelineFactory {
+
+    /**
+     * @return the pipeline processing the messages of the device on the topic, null if the topic is not mirrored for the device
+     */
+    ProcessingPipeline createPipeline(TwinDeviceDescriptor device, MqttTopicDescriptor topicDescriptor);
+
+}
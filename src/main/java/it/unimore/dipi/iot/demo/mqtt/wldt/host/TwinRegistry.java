@@ -0,0 +1,207 @@
+package it.unimore.dipi.iot.demo.mqtt.wldt.host;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.yaml.YAMLFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Registry of the devices mirrored by the TwinHost. It can be loaded from a YAML file or from a directory
+ * (all the .yaml and .yml files, in alphabetical order) with the following structure:
+ *
+ * devices:
+ *   - id: com:iot:dummy:dummyMqttDevice001
+ *     profile: temperature
+ * ranges:
+ *   - idFormat: "com:iot:dummy:loadGenDevice%06d"
+ *     start: 0
+ *     count: 10000
+ *     profile: temperature
+ *
+ * where ranges generate the ids of a large number of devices (E.g. the devices simulated by the LoadGenerator).
+ * A device defined more than once keeps the last definition.
+ *
+ * @created: 18/10/2026
+ * @project: WLDT - MQTT Example
+ */
+public class TwinRegistry {
+
+    private static final Logger logger = LoggerFactory.getLogger(TwinRegistry.class);
+
+    /**
+     * Content of a registry file
+     */
+    public static class RegistryFile {
+
+        private List<TwinDeviceDescriptor> devices = new ArrayList<>();
+
+        private List<DeviceRange> ranges = new ArrayList<>();
+
+        public List<TwinDeviceDescriptor> getDevices() {
+            return devices;
+        }
+
+        public void setDevices(List<TwinDeviceDescriptor> devices) {
+            this.devices = devices;
+        }
+
+        public List<DeviceRange> getRanges() {
+            return ranges;
+        }
+
+        public void setRanges(List<DeviceRange> ranges) {
+            this.ranges = ranges;
+        }
+    }
+
+    /**
+     * Range of devices with the same profile and ids generated through String.format(idFormat, index)
+     */
+    public static class DeviceRange {
+
+        private String idFormat;
+
+        private int start = 0;
+
+        private int count = 0;
+
+        private String profile = TwinDeviceDescriptor.DEFAULT_PROFILE;
+
+        public String getIdFormat() {
+            return idFormat;
+        }
+
+        public void setIdFormat(String idFormat) {
+            this.idFormat = idFormat;
+        }
+
+        public int getStart() {
+            return start;
+        }
+
+        public void setStart(int start) {
+            this.start = start;
+        }
+
+        public int getCount() {
+            return count;
+        }
+
+        public void setCount(int count) {
+            this.count = count;
+        }
+
+        public String getProfile() {
+            return profile;
+        }
+
+        public void setProfile(String profile) {
+            this.profile = profile;
+        }
+    }
+
+    private final Map<String, TwinDeviceDescriptor> devices = new LinkedHashMap<>();
+
+    public TwinRegistry() {
+    }
+
+    /**
+     * @param path registry file or directory of registry files
+     */
+    public static TwinRegistry load(String path) throws IOException {
+
+        File file = new File(path);
+        TwinRegistry registry = new TwinRegistry();
+
+        if(file.isDirectory()){
+
+            File[] files = file.listFiles((dir, name) -> name.endsWith(".yaml") || name.endsWith(".yml"));
+
+            if(files == null)
+                throw new IOException(String.format("Unable to list the registry directory: %s", path));
+
+            Arrays.sort(files);
+
+            for(File registryFile : files)
+                registry.load(registryFile);
+        }
+        else
+            registry.load(file);
+
+        logger.info("Twin Registry loaded from {} ! Devices: {}", path, registry.size());
+
+        return registry;
+    }
+
+    private void load(File file) throws IOException {
+
+        ObjectMapper mapper = new ObjectMapper(new YAMLFactory());
+        mapper.configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+
+        RegistryFile registryFile = mapper.readValue(file, RegistryFile.class);
+
+        if(registryFile == null)
+            return;
+
+        if(registryFile.getDevices() != null)
+            for(TwinDeviceDescriptor device : registryFile.getDevices())
+                add(device);
+
+        if(registryFile.getRanges() != null)
+            for(DeviceRange range : registryFile.getRanges())
+                addRange(range);
+    }
+
+    /**
+     * @throws IllegalArgumentException if the device id is not valid
+     */
+    public void add(TwinDeviceDescriptor device) {
+
+        if(device == null || device.getId() == null || device.getId().isEmpty())
+            throw new IllegalArgumentException("Device Id can not be null or empty !");
+
+        //The device id is used as a topic level
+        if(device.getId().indexOf('/') >= 0 || device.getId().indexOf('+') >= 0 || device.getId().indexOf('#') >= 0)
+            throw new IllegalArgumentException(String.format("Invalid Device Id: %s ! It can not contain '/', '+' or '#'", device.getId()));
+
+        if(device.getProfile() == null)
+            device.setProfile(TwinDeviceDescriptor.DEFAULT_PROFILE);
+
+        devices.put(device.getId(), device);
+    }
+
+    /**
+     * @throws IllegalArgumentException if the range is not valid
+     */
+    public void addRange(DeviceRange range) {
+
+        if(range.getIdFormat() == null || range.getStart() < 0 || range.getCount() < 0)
+            throw new IllegalArgumentException("Invalid Device Range ! Id Format can not be null and Start and Count can not be negative");
+
+        for(int i = range.getStart(); i < range.getStart() + range.getCount(); i++)
+            add(new TwinDeviceDescriptor(String.format(range.getIdFormat(), i), range.getProfile()));
+    }
+
+    public TwinDeviceDescriptor get(String deviceId) {
+        return devices.get(deviceId);
+    }
+
+    public Collection<TwinDeviceDescriptor> getDevices() {
+        return Collections.unmodifiableCollection(devices.values());
+    }
+
+    public int size() {
+        return devices.size();
+    }
+}
@@ -0,0 +1,158 @@
+package it.unimore.dipi.iot.demo.mqtt.wldt.host;
+
+import it.unimore.dipi.iot.demo.mqtt.wldt.topic.TopicMatch;
+import it.unimore.dipi.iot.demo.mqtt.wldt.topic.TopicTrie;
+import it.unimore.dipi.iot.wldt.worker.mqtt.MqttTopicDescriptor;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Maps the topics received by the TwinHost to the topic descriptor and to the device that published them.
+ *
+ * The topic templates of the descriptors (E.g. telemetry/{{device_id}}/resource/{{resource_id}}) are registered on a
+ * TopicTrie with the resource id replaced by the one of the descriptor while the device id placeholder matches any device.
+ * A received topic is matched walking the trie one level at a time (literal levels are preferred to the device level),
+ * so the cost does not depend on the number of mirrored devices. The same templates are used to build the wildcard
+ * subscription filters (E.g. telemetry/+/resource/temperature).
+ *
+ * The dispatcher is immutable and can be used by multiple threads.
+ *
+ * @created: 18/10/2026
+ * @project: WLDT - MQTT Example
+ */
+public class TwinTopicDispatcher {
+
+    public static final String DEVICE_ID_PLACEHOLDER = "{{device_id}}";
+
+    public static final String RESOURCE_ID_PLACEHOLDER = "{{resource_id}}";
+
+    public static final int NO_MATCH = -1;
+
+    private final TopicTrie<Integer> topicTrie = new TopicTrie<>();
+
+    private final ThreadLocal<TopicMatch<Integer>> topicMatch = ThreadLocal.withInitial(TopicMatch::new);
+
+    private final List<MqttTopicDescriptor> topicDescriptors;
+
+    private final String[] subscriptionFilters;
+
+    private final int[] deviceLevels;
+
+    /**
+     * @throws IllegalArgumentException if a template does not contain the device id as a whole topic level,
+     * contains MQTT wildcards or two templates match the same topics
+     */
+    public TwinTopicDispatcher(List<MqttTopicDescriptor> topicDescriptors) {
+
+        this.topicDescriptors = Collections.unmodifiableList(new ArrayList<>(topicDescriptors));
+        this.subscriptionFilters = new String[topicDescriptors.size()];
+        this.deviceLevels = new int[topicDescriptors.size()];
+
+        Map<String, MqttTopicDescriptor> filterDescriptors = new HashMap<>();
+
+        for(int i = 0; i < topicDescriptors.size(); i++){
+
+            MqttTopicDescriptor topicDescriptor = topicDescriptors.get(i);
+            compile(i, topicDescriptor);
+
+            MqttTopicDescriptor conflictingDescriptor = filterDescriptors.put(subscriptionFilters[i], topicDescriptor);
+
+            if(conflictingDescriptor != null)
+                throw new IllegalArgumentException(String.format("Topic templates of %s and %s match the same topics !", conflictingDescriptor.getId(), topicDescriptor.getId()));
+        }
+    }
+
+    private void compile(int topicIndex, MqttTopicDescriptor topicDescriptor) {
+
+        if(topicDescriptor.getTopic() == null)
+            throw new IllegalArgumentException(String.format("Topic template of %s can not be null !", topicDescriptor.getId()));
+
+        String template = topicDescriptor.getResourceId() != null ? topicDescriptor.getTopic().replace(RESOURCE_ID_PLACEHOLDER, topicDescriptor.getResourceId()) : topicDescriptor.getTopic();
+        String[] levels = template.split("/", -1);
+
+        StringBuilder filter = new StringBuilder(template.length());
+        int deviceLevel = NO_MATCH;
+
+        for(int i = 0; i < levels.length; i++){
+
+            String level = levels[i];
+
+            if(i > 0)
+                filter.append('/');
+
+            if(level.equals(DEVICE_ID_PLACEHOLDER)){
+
+                if(deviceLevel != NO_MATCH)
+                    throw new IllegalArgumentException(String.format("Topic template %s contains more than one %s level !", topicDescriptor.getTopic(), DEVICE_ID_PLACEHOLDER));
+
+                deviceLevel = i;
+                filter.append(TopicTrie.SINGLE_LEVEL_WILDCARD);
+            }
+            else {
+
+                if(level.contains(TopicTrie.SINGLE_LEVEL_WILDCARD) || level.contains(TopicTrie.MULTI_LEVEL_WILDCARD) || level.contains("{{"))
+                    throw new IllegalArgumentException(String.format("Invalid level '%s' in topic template %s !", level, topicDescriptor.getTopic()));
+
+                filter.append(level);
+            }
+        }
+
+        if(deviceLevel == NO_MATCH)
+            throw new IllegalArgumentException(String.format("Topic template %s does not contain a %s level !", topicDescriptor.getTopic(), DEVICE_ID_PLACEHOLDER));
+
+        topicTrie.add(template, topicIndex);
+
+        this.deviceLevels[topicIndex] = deviceLevel;
+        this.subscriptionFilters[topicIndex] = filter.toString();
+    }
+
+    /**
+     * @return the index of the topic descriptor matching the topic, NO_MATCH if the topic does not match any template
+     */
+    public int match(String topic) {
+
+        TopicMatch<Integer> result = topicMatch.get();
+
+        //The first entry is the most specific template
+        return topicTrie.match(topic, result) > 0 ? result.getValue(0) : NO_MATCH;
+    }
+
+    /**
+     * @param topicIndex index of the topic descriptor returned by match(topic)
+     * @return the device id level of the topic
+     */
+    public String extractDeviceId(String topic, int topicIndex) {
+
+        int start = 0;
+
+        for(int level = 0; level < deviceLevels[topicIndex]; level++)
+            start = topic.indexOf('/', start) + 1;
+
+        int end = topic.indexOf('/', start);
+
+        return topic.substring(start, end < 0 ? topic.length() : end);
+    }
+
+    public MqttTopicDescriptor getTopicDescriptor(int topicIndex) {
+        return topicDescriptors.get(topicIndex);
+    }
+
+    public List<MqttTopicDescriptor> getTopicDescriptors() {
+        return topicDescriptors;
+    }
+
+    /**
+     * @return the MQTT subscription filter of the topic descriptor (the device id level is replaced by the + wildcard)
+     */
+    public String getSubscriptionFilter(int topicIndex) {
+        return subscriptionFilters[topicIndex];
+    }
+
+    public int getTopicCount() {
+        return subscriptionFilters.length;
+    }
+}
@@ -0,0 +1,151 @@
+package it.unimore.dipi.iot.demo.mqtt.wldt.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-free histogram with power of two buckets (bucket i counts the values in (2^(i-1), 2^i] of the minimum bound).
+ * The bucket of a value is selected with a single leading zeros count and each bucket is a striped LongAdder,
+ * so recording a value from multiple threads has no lock and no shared cache line under contention.
+ *
+ * Values are recorded as long in the native unit (E.g. nanoseconds or bytes) and exported with the
+ * configured scale (E.g. 1e-9 to export seconds as suggested by the Prometheus naming conventions).
+ *
+ * @created: 18/10/2026
+ * @project: WLDT - MQTT Example
+ */
+public class Histogram {
+
+    private final int minExponent;
+
+    private final double exportScale;
+
+    //Last bucket: values above the max bound (+Inf)
+    private final LongAdder[] buckets;
+
+    private final LongAdder sum = new LongAdder();
+
+    /**
+     * @param minExponent the first bucket counts the values <= 2^minExponent
+     * @param maxExponent the last finite bucket counts the values <= 2^maxExponent
+     * @param exportScale multiplier applied to the bucket bounds and to the sum when exported
+     */
+    public Histogram(int minExponent, int maxExponent, double exportScale) {
+
+        if(minExponent < 0 || maxExponent > 62 || minExponent >= maxExponent)
+            throw new IllegalArgumentException("Invalid histogram exponents ! Required: 0 <= min < max <= 62");
+
+        this.minExponent = minExponent;
+        this.exportScale = exportScale;
+        this.buckets = new LongAdder[maxExponent - minExponent + 2];
+
+        for(int i = 0; i < buckets.length; i++)
+            this.buckets[i] = new LongAdder();
+    }
+
+    /**
+     * Latencies recorded in nanoseconds (from 256 ns to about 17 s) exported in seconds
+     */
+    public static Histogram latency() {
+        return new Histogram(8, 34, 1e-9);
+    }
+
+    /**
+     * Sizes recorded in bytes (from 8 bytes to 16 MB)
+     */
+    public static Histogram size() {
+        return new Histogram(3, 24, 1.0);
+    }
+
+    public void record(long value) {
+
+        //Ceil of log2(value), 0 for values <= 1
+        int exponent = value <= 1 ? 0 : 64 - Long.numberOfLeadingZeros(value - 1);
+        int index = exponent <= minExponent ? 0 : Math.min(exponent - minExponent, buckets.length - 1);
+
+        buckets[index].increment();
+        sum.add(value);
+    }
+
+    public long getCount() {
+        long count = 0;
+        for(LongAdder bucket : buckets)
+            count += bucket.sum();
+        return count;
+    }
+
+    /**
+     * @return the sum of the recorded values in the export unit
+     */
+    public double getSum() {
+        return sum.sum() * exportScale;
+    }
+
+    /**
+     * @return the mean of the recorded values in the export unit, 0 if no value has been recorded
+     */
+    public double getMean() {
+        long count = getCount();
+        return count > 0 ? getSum() / count : 0.0;
+    }
+
+    /**
+     * @param percentile percentile in the range (0,100]
+     * @return upper bound (export unit) of the bucket containing the percentile, 0 if no value has been recorded
+     */
+    public double getPercentileUpperBound(double percentile) {
+
+        long[] counts = snapshot();
+        long count = 0;
+        for(long bucketCount : counts)
+            count += bucketCount;
+
+        if(count == 0)
+            return 0.0;
+
+        long rank = (long) Math.ceil(count * percentile / 100.0);
+        long cumulative = 0;
+
+        for(int i = 0; i < counts.length; i++){
+            cumulative += counts[i];
+            if(cumulative >= rank)
+                return getUpperBound(i);
+        }
+
+        return Double.POSITIVE_INFINITY;
+    }
+
+    private long[] snapshot() {
+        long[] counts = new long[buckets.length];
+        for(int i = 0; i < buckets.length; i++)
+            counts[i] = buckets[i].sum();
+        return counts;
+    }
+
+    private double getUpperBound(int bucketIndex) {
+        return bucketIndex == buckets.length - 1 ? Double.POSITIVE_INFINITY : (double) (1L << (minExponent + bucketIndex)) * exportScale;
+    }
+
+    /**
+     * Write the histogram samples (cumulative buckets, sum and count) in the Prometheus text format
+     *
+     * @param labels already formatted labels without braces (E.g. pipeline="temperature_topic"), can be empty
+     */
+    void writePrometheus(StringBuilder sb, String name, String labels) {
+
+        long[] counts = snapshot();
+        long cumulative = 0;
+        String labelPrefix = labels.isEmpty() ? "" : labels + ",";
+
+        for(int i = 0; i < counts.length; i++){
+            cumulative += counts[i];
+            double upperBound = getUpperBound(i);
+            sb.append(name).append("_bucket{").append(labelPrefix).append("le=\"")
+                    .append(Double.isInfinite(upperBound) ? "+Inf" : Double.toString(upperBound))
+                    .append("\"} ").append(cumulative).append('\n');
+        }
+
+        String braces = labels.isEmpty() ? "" : "{" + labels + "}";
+        sb.append(name).append("_sum").append(braces).append(' ').append(getSum()).append('\n');
+        sb.append(name).append("_count").append(braces).append(' ').append(cumulative).append('\n');
+    }
+}
@@ -0,0 +1,91 @@
+package it.unimore.dipi.iot.demo.mqtt.wldt.metrics;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.Executors;
+
+/**
+ * Local HTTP endpoint exposing the MetricsRegistry in the Prometheus text format on the /metrics path.
+ * It is based on the JDK HttpServer and uses a single daemon thread, so it does not add any dependency.
+ *
+ * @created: 18/10/2026
+ * @project: WLDT - MQTT Example
+ */
+public class MetricsHttpServer {
+
+    private static final Logger logger = LoggerFactory.getLogger(MetricsHttpServer.class);
+
+    public static final String METRICS_PATH = "/metrics";
+
+    private static final String CONTENT_TYPE = "text/plain; version=0.0.4; charset=utf-8";
+
+    private static final String THREAD_NAME = "wldt-metrics-http";
+
+    private final MetricsRegistry metricsRegistry;
+
+    private final HttpServer httpServer;
+
+    /**
+     * @param bindAddress address of the endpoint (E.g. 127.0.0.1 to expose the metrics only locally)
+     * @param port listening port
+     */
+    public MetricsHttpServer(MetricsRegistry metricsRegistry, String bindAddress, int port) throws IOException {
+
+        this.metricsRegistry = metricsRegistry;
+        this.httpServer = HttpServer.create(new InetSocketAddress(bindAddress, port), 0);
+        this.httpServer.createContext(METRICS_PATH, this::handleMetricsRequest);
+        this.httpServer.setExecutor(Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, THREAD_NAME);
+            thread.setDaemon(true);
+            return thread;
+        }));
+    }
+
+    public void start() {
+        httpServer.start();
+        logger.info("Metrics endpoint available on http://{}:{}{}", httpServer.getAddress().getHostString(), httpServer.getAddress().getPort(), METRICS_PATH);
+    }
+
+    public void stop() {
+        httpServer.stop(0);
+    }
+
+    private void handleMetricsRequest(HttpExchange exchange) throws IOException {
+
+        try{
+
+            if(!"GET".equals(exchange.getRequestMethod())){
+                exchange.sendResponseHeaders(405, -1);
+                return;
+            }
+
+            StringBuilder sb = new StringBuilder(16384);
+            metricsRegistry.writePrometheus(sb);
+            byte[] body = sb.toString().getBytes(StandardCharsets.UTF_8);
+
+            exchange.getResponseHeaders().set("Content-Type", CONTENT_TYPE);
+            exchange.sendResponseHeaders(200, body.length);
+
+            try(OutputStream outputStream = exchange.getResponseBody()){
+                outputStream.write(body);
+            }
+
+        }catch (Exception e){
+            logger.error("Error exporting metrics: {}", e.getLocalizedMessage());
+            exchange.sendResponseHeaders(500, -1);
+        }finally {
+            exchange.close();
+        }
+    }
+
+    public int getPort() {
+        return httpServer.getAddress().getPort();
+    }
+}
@@ -0,0 +1,272 @@
+package it.unimore.dipi.iot.demo.mqtt.wldt.metrics;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BiConsumer;
+import java.util.function.LongSupplier;
+
+/**
+ * Registry of the Digital Twin metrics (pipelines, steps, topics, counters and gauges) replacing the core
+ * WldtMetricsManager (that writes Codahale CSV reports) with in-memory lock-free recorders.
+ *
+ * Hot path components resolve their recorders once (E.g. a ConcurrentProcessingPipeline keeps its PipelineMetrics
+ * and the StepMetrics of its steps), so the only lookup for each message is the one of the per-topic metrics.
+ * The number of tracked topics is bounded: the topics received after the limit are accounted on the "__other__" topic.
+ *
+ * Metrics are exported in the Prometheus text format (see MetricsHttpServer) and the pipelines are registered as JMX MBeans.
+ *
+ * @created: 18/10/2026
+ * @project: WLDT - MQTT Example
+ */
+public class MetricsRegistry {
+
+    private static final Logger logger = LoggerFactory.getLogger(MetricsRegistry.class);
+
+    public static final int DEFAULT_MAX_TOPICS = 10000;
+
+    public static final String OTHER_TOPICS_LABEL = "__other__";
+
+    private static final String JMX_DOMAIN = "it.unimore.dipi.iot.demo.mqtt";
+
+    private static volatile MetricsRegistry defaultInstance = null;
+
+    private final int maxTopics;
+
+    private final Map<String, PipelineMetrics> pipelineMetricsMap = new ConcurrentHashMap<>();
+
+    private final Map<String, TopicMetrics> topicMetricsMap = new ConcurrentHashMap<>();
+
+    private final TopicMetrics otherTopicsMetrics = new TopicMetrics();
+
+    //Registration order is kept in the export
+    private final Map<String, MetricEntry<LongAdder>> counters = new LinkedHashMap<>();
+
+    private final Map<String, List<MetricEntry<LongSupplier>>> gauges = new LinkedHashMap<>();
+
+    private final Map<String, List<MetricEntry<Histogram>>> histograms = new LinkedHashMap<>();
+
+    private static class MetricEntry<T> {
+
+        private final String help;
+
+        private final String labels;
+
+        private final T metric;
+
+        private MetricEntry(String help, String labels, T metric) {
+            this.help = help;
+            this.labels = labels;
+            this.metric = metric;
+        }
+    }
+
+    public MetricsRegistry() {
+        this(DEFAULT_MAX_TOPICS);
+    }
+
+    public MetricsRegistry(int maxTopics) {
+        this.maxTopics = maxTopics;
+    }
+
+    public static MetricsRegistry getDefault() {
+        if(defaultInstance == null){
+            synchronized (MetricsRegistry.class){
+                if(defaultInstance == null)
+                    defaultInstance = new MetricsRegistry();
+            }
+        }
+        return defaultInstance;
+    }
+
+    /**
+     * @return the metrics of the pipeline, created and registered on JMX if not available
+     */
+    public PipelineMetrics pipeline(String pipelineName) {
+        return pipelineMetricsMap.computeIfAbsent(pipelineName, name -> {
+            PipelineMetrics pipelineMetrics = new PipelineMetrics(name);
+            registerMBean("Pipeline", name, pipelineMetrics);
+            return pipelineMetrics;
+        });
+    }
+
+    /**
+     * Account a message received on a concrete topic
+     */
+    public void recordTopic(String topic, int payloadLength) {
+
+        TopicMetrics topicMetrics = topicMetricsMap.get(topic);
+
+        if(topicMetrics == null){
+            if(topicMetricsMap.size() < maxTopics)
+                topicMetrics = topicMetricsMap.computeIfAbsent(topic, key -> new TopicMetrics());
+            else
+                topicMetrics = otherTopicsMetrics;
+        }
+
+        topicMetrics.record(payloadLength);
+    }
+
+    /**
+     * @return a counter without labels, created if not available
+     */
+    public synchronized LongAdder counter(String name, String help) {
+        return counters.computeIfAbsent(name, key -> new MetricEntry<>(help, "", new LongAdder())).metric;
+    }
+
+    /**
+     * Register a gauge (E.g. a queue depth) evaluated when the metrics are exported
+     *
+     * @param labelName optional label name (null for a gauge without labels)
+     */
+    public synchronized void gauge(String name, String help, String labelName, String labelValue, LongSupplier supplier) {
+        String labels = labelName != null ? formatLabel(labelName, labelValue) : "";
+        gauges.computeIfAbsent(name, key -> new ArrayList<>()).add(new MetricEntry<>(help, labels, supplier));
+    }
+
+    /**
+     * Register a histogram recorded by a component (E.g. the command round trip latency)
+     *
+     * @param labelName optional label name (null for a histogram without labels)
+     */
+    public synchronized void histogram(String name, String help, String labelName, String labelValue, Histogram histogram) {
+        String labels = labelName != null ? formatLabel(labelName, labelValue) : "";
+        histograms.computeIfAbsent(name, key -> new ArrayList<>()).add(new MetricEntry<>(help, labels, histogram));
+    }
+
+    private void registerMBean(String type, String name, Object mBean) {
+        try{
+            MBeanServer mBeanServer = ManagementFactory.getPlatformMBeanServer();
+            ObjectName objectName = new ObjectName(String.format("%s:type=%s,name=%s", JMX_DOMAIN, type, ObjectName.quote(name)));
+            if(!mBeanServer.isRegistered(objectName))
+                mBeanServer.registerMBean(mBean, objectName);
+        }catch (Exception e){
+            logger.warn("Error registering {} {} MBean: {}", type, name, e.getLocalizedMessage());
+        }
+    }
+
+    /**
+     * Write all the metrics in the Prometheus text exposition format (version 0.0.4)
+     */
+    public synchronized void writePrometheus(StringBuilder sb) {
+
+        for(Map.Entry<String, MetricEntry<LongAdder>> counter : counters.entrySet()){
+            writeHeader(sb, counter.getKey(), counter.getValue().help, "counter");
+            sb.append(counter.getKey()).append(' ').append(counter.getValue().metric.sum()).append('\n');
+        }
+
+        for(Map.Entry<String, List<MetricEntry<LongSupplier>>> gauge : gauges.entrySet()){
+            writeHeader(sb, gauge.getKey(), gauge.getValue().get(0).help, "gauge");
+            for(MetricEntry<LongSupplier> entry : gauge.getValue())
+                writeSample(sb, gauge.getKey(), entry.labels, entry.metric.getAsLong());
+        }
+
+        for(Map.Entry<String, List<MetricEntry<Histogram>>> histogram : histograms.entrySet()){
+            writeHeader(sb, histogram.getKey(), histogram.getValue().get(0).help, "histogram");
+            for(MetricEntry<Histogram> entry : histogram.getValue())
+                entry.metric.writePrometheus(sb, histogram.getKey(), entry.labels);
+        }
+
+        writeTopicMetrics(sb);
+        writePipelineMetrics(sb);
+        writeStepMetrics(sb);
+    }
+
+    private void writeTopicMetrics(StringBuilder sb) {
+
+        writeHeader(sb, "wldt_topic_messages_total", "Messages received on each topic", "counter");
+        topicMetricsMap.forEach((topic, metrics) -> writeSample(sb, "wldt_topic_messages_total", formatLabel("topic", topic), metrics.getMessageCount()));
+        writeSample(sb, "wldt_topic_messages_total", formatLabel("topic", OTHER_TOPICS_LABEL), otherTopicsMetrics.getMessageCount());
+
+        writeHeader(sb, "wldt_topic_payload_bytes_total", "Payload bytes received on each topic", "counter");
+        topicMetricsMap.forEach((topic, metrics) -> writeSample(sb, "wldt_topic_payload_bytes_total", formatLabel("topic", topic), metrics.getByteCount()));
+        writeSample(sb, "wldt_topic_payload_bytes_total", formatLabel("topic", OTHER_TOPICS_LABEL), otherTopicsMetrics.getByteCount());
+    }
+
+    private void writePipelineMetrics(StringBuilder sb) {
+
+        writeHeader(sb, "wldt_pipeline_received_total", "Messages received by the pipeline", "counter");
+        pipelineMetricsMap.forEach((name, metrics) -> writeSample(sb, "wldt_pipeline_received_total", formatLabel("pipeline", name), metrics.getReceivedCount()));
+
+        writeHeader(sb, "wldt_pipeline_completed_total", "Messages that completed the pipeline", "counter");
+        pipelineMetricsMap.forEach((name, metrics) -> writeSample(sb, "wldt_pipeline_completed_total", formatLabel("pipeline", name), metrics.getCompletedCount()));
+
+        writeHeader(sb, "wldt_pipeline_results_total", "Pipeline executions with a result to be published", "counter");
+        pipelineMetricsMap.forEach((name, metrics) -> writeSample(sb, "wldt_pipeline_results_total", formatLabel("pipeline", name), metrics.getResultCount()));
+
+        writeHeader(sb, "wldt_pipeline_errors_total", "Pipeline executions terminated by a step error", "counter");
+        pipelineMetricsMap.forEach((name, metrics) -> writeSample(sb, "wldt_pipeline_errors_total", formatLabel("pipeline", name), metrics.getErrorCount()));
+
+        writeHeader(sb, "wldt_pipeline_rejected_total", "Messages rejected because the partition queue was full", "counter");
+        pipelineMetricsMap.forEach((name, metrics) -> writeSample(sb, "wldt_pipeline_rejected_total", formatLabel("pipeline", name), metrics.getRejectedCount()));
+
+        writeHeader(sb, "wldt_pipeline_latency_seconds", "Pipeline latency including the partition queue wait", "histogram");
+        pipelineMetricsMap.forEach((name, metrics) -> metrics.getLatency().writePrometheus(sb, "wldt_pipeline_latency_seconds", formatLabel("pipeline", name)));
+
+        writeHeader(sb, "wldt_pipeline_payload_size_bytes", "Size of the payloads received by the pipeline", "histogram");
+        pipelineMetricsMap.forEach((name, metrics) -> metrics.getPayloadSize().writePrometheus(sb, "wldt_pipeline_payload_size_bytes", formatLabel("pipeline", name)));
+    }
+
+    private void writeStepMetrics(StringBuilder sb) {
+
+        writeHeader(sb, "wldt_step_done_total", "Step executions completed with onStepDone", "counter");
+        forEachStep((labels, metrics) -> writeSample(sb, "wldt_step_done_total", labels, metrics.getDoneCount()));
+
+        writeHeader(sb, "wldt_step_skipped_total", "Step executions completed with onStepSkip", "counter");
+        forEachStep((labels, metrics) -> writeSample(sb, "wldt_step_skipped_total", labels, metrics.getSkipCount()));
+
+        writeHeader(sb, "wldt_step_errors_total", "Step executions completed with onStepError", "counter");
+        forEachStep((labels, metrics) -> writeSample(sb, "wldt_step_errors_total", labels, metrics.getErrorCount()));
+
+        writeHeader(sb, "wldt_step_latency_seconds", "Step execution latency", "histogram");
+        forEachStep((labels, metrics) -> metrics.getLatency().writePrometheus(sb, "wldt_step_latency_seconds", labels));
+    }
+
+    private void forEachStep(BiConsumer<String, StepMetrics> consumer) {
+        pipelineMetricsMap.forEach((pipelineName, pipelineMetrics) ->
+                pipelineMetrics.getStepMetricsMap().forEach((stepName, stepMetrics) ->
+                        consumer.accept(formatLabel("pipeline", pipelineName) + "," + formatLabel("step", stepName), stepMetrics)));
+    }
+
+    private static void writeHeader(StringBuilder sb, String name, String help, String type) {
+        sb.append("# HELP ").append(name).append(' ').append(help).append('\n');
+        sb.append("# TYPE ").append(name).append(' ').append(type).append('\n');
+    }
+
+    private static void writeSample(StringBuilder sb, String name, String labels, long value) {
+        sb.append(name);
+        if(!labels.isEmpty())
+            sb.append('{').append(labels).append('}');
+        sb.append(' ').append(value).append('\n');
+    }
+
+    private static String formatLabel(String name, String value) {
+
+        StringBuilder sb = new StringBuilder(name.length() + value.length() + 3).append(name).append("=\"");
+
+        for(int i = 0; i < value.length(); i++){
+            char c = value.charAt(i);
+            if(c == '\\' || c == '"')
+                sb.append('\\').append(c);
+            else if(c == '\n')
+                sb.append("\\n");
+            else
+                sb.append(c);
+        }
+
+        return sb.append('"').toString();
+    }
+
+    public int getMaxTopics() {
+        return maxTopics;
+    }
+}
@@ -0,0 +1,169 @@
+package it.unimore.dipi.iot.demo.mqtt.wldt.metrics;
+
+import it.unimore.dipi.iot.wldt.processing.ProcessingStep;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Metrics of a processing pipeline: received, completed (with or without a result), failed and rejected messages,
+ * end-to-end latency (including the time spent in the partition queue), payload sizes and the StepMetrics of each step.
+ *
+ * Counters are updated for every message while the latencies (pipeline and steps) are measured only for one message
+ * every latencySampling (on average), keeping the clock readings out of the hot path of most of the messages.
+ *
+ * @created: 18/10/2026
+ * @project: WLDT - MQTT Example
+ */
+public class PipelineMetrics implements PipelineMetricsMBean {
+
+    public static final int DEFAULT_LATENCY_SAMPLING = 16;
+
+    private final String pipelineName;
+
+    private final int latencySamplingMask;
+
+    private final LongAdder completedCount = new LongAdder();
+
+    private final LongAdder resultCount = new LongAdder();
+
+    private final LongAdder errorCount = new LongAdder();
+
+    private final LongAdder rejectedCount = new LongAdder();
+
+    private final Histogram latency = Histogram.latency();
+
+    private final Histogram payloadSize = Histogram.size();
+
+    //Key: <step index>:<step class>
+    private final Map<String, StepMetrics> stepMetricsMap = new ConcurrentHashMap<>();
+
+    public PipelineMetrics(String pipelineName) {
+        this(pipelineName, DEFAULT_LATENCY_SAMPLING);
+    }
+
+    /**
+     * @param latencySampling one message every latencySampling is timed, rounded up to a power of two (1 = all the messages)
+     */
+    public PipelineMetrics(String pipelineName, int latencySampling) {
+
+        if(latencySampling <= 0)
+            throw new IllegalArgumentException(String.format("Invalid latency sampling: %d ! It must be greater than 0", latencySampling));
+
+        int sampling = Integer.highestOneBit(latencySampling);
+        if(sampling < latencySampling)
+            sampling <<= 1;
+
+        this.pipelineName = pipelineName;
+        this.latencySamplingMask = sampling - 1;
+    }
+
+    /**
+     * @return true if the latency of the next message has to be measured
+     */
+    public boolean sampleLatency() {
+        return latencySamplingMask == 0 || (ThreadLocalRandom.current().nextInt() & latencySamplingMask) == 0;
+    }
+
+    /**
+     * @return the StepMetrics of each step, in the same order of the received steps
+     */
+    public StepMetrics[] getStepMetrics(ProcessingStep[] steps) {
+
+        StepMetrics[] result = new StepMetrics[steps.length];
+
+        for(int i = 0; i < steps.length; i++)
+            result[i] = stepMetricsMap.computeIfAbsent(String.format("%d:%s", i, steps[i].getClass().getSimpleName()), StepMetrics::new);
+
+        return result;
+    }
+
+    /**
+     * The received messages are counted by the payload size histogram
+     */
+    public void onReceived(int payloadLength) {
+        payloadSize.record(payloadLength);
+    }
+
+    public void onRejected() {
+        rejectedCount.increment();
+    }
+
+    /**
+     * @param latencyNanos pipeline latency, negative if not measured
+     */
+    public void onCompleted(long latencyNanos, boolean resultPresent) {
+        completedCount.increment();
+        if(resultPresent)
+            resultCount.increment();
+        if(latencyNanos >= 0)
+            latency.record(latencyNanos);
+    }
+
+    /**
+     * @param latencyNanos pipeline latency, negative if not measured
+     */
+    public void onError(long latencyNanos) {
+        errorCount.increment();
+        if(latencyNanos >= 0)
+            latency.record(latencyNanos);
+    }
+
+    public String getPipelineName() {
+        return pipelineName;
+    }
+
+    Map<String, StepMetrics> getStepMetricsMap() {
+        return stepMetricsMap;
+    }
+
+    public Histogram getLatency() {
+        return latency;
+    }
+
+    public Histogram getPayloadSize() {
+        return payloadSize;
+    }
+
+    @Override
+    public long getReceivedCount() {
+        return payloadSize.getCount();
+    }
+
+    @Override
+    public long getCompletedCount() {
+        return completedCount.sum();
+    }
+
+    @Override
+    public long getResultCount() {
+        return resultCount.sum();
+    }
+
+    @Override
+    public long getErrorCount() {
+        return errorCount.sum();
+    }
+
+    @Override
+    public long getRejectedCount() {
+        return rejectedCount.sum();
+    }
+
+    @Override
+    public double getMeanLatencyMicros() {
+        return latency.getMean() * 1e6;
+    }
+
+    @Override
+    public double getLatencyP99Micros() {
+        return latency.getPercentileUpperBound(99.0) * 1e6;
+    }
+
+    @Override
+    public double getMeanPayloadSize() {
+        return payloadSize.getMean();
+    }
+}
@@ -0,0 +1,27 @@
+package it.unimore.dipi.iot.demo.mqtt.wldt.metrics;
+
+/**
+ * JMX view of the metrics of a pipeline (latencies in microseconds)
+ *
+ * @created: 18/10/2026
+ * @project: WLDT - MQTT Example
+ */
+public interface PipelineMetricsMBean {
+
+    public long getReceivedCount();
+
+    public long getCompletedCount();
+
+    public long getResultCount();
+
+    public long getErrorCount();
+
+    public long getRejectedCount();
+
+    public double getMeanLatencyMicros();
+
+    public double getLatencyP99Micros();
+
+    public double getMeanPayloadSize();
+
+}
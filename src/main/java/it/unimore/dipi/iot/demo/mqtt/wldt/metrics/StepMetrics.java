@@ -0,0 +1,66 @@
+package it.unimore.dipi.iot.demo.mqtt.wldt.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Metrics of a single ProcessingStep of a pipeline: outcome counters (done, skipped, error)
+ * and execution latency measured from the step invocation to its listener callback.
+ * Latencies are recorded only for the sampled executions (a negative latency means not measured).
+ *
+ * @created: 18/10/2026
+ * @project: WLDT - MQTT Example
+ */
+public class StepMetrics {
+
+    private final String stepName;
+
+    private final LongAdder doneCount = new LongAdder();
+
+    private final LongAdder skipCount = new LongAdder();
+
+    private final LongAdder errorCount = new LongAdder();
+
+    private final Histogram latency = Histogram.latency();
+
+    public StepMetrics(String stepName) {
+        this.stepName = stepName;
+    }
+
+    public void onStepDone(long latencyNanos) {
+        doneCount.increment();
+        if(latencyNanos >= 0)
+            latency.record(latencyNanos);
+    }
+
+    public void onStepSkip(long latencyNanos) {
+        skipCount.increment();
+        if(latencyNanos >= 0)
+            latency.record(latencyNanos);
+    }
+
+    public void onStepError(long latencyNanos) {
+        errorCount.increment();
+        if(latencyNanos >= 0)
+            latency.record(latencyNanos);
+    }
+
+    public String getStepName() {
+        return stepName;
+    }
+
+    public long getDoneCount() {
+        return doneCount.sum();
+    }
+
+    public long getSkipCount() {
+        return skipCount.sum();
+    }
+
+    public long getErrorCount() {
+        return errorCount.sum();
+    }
+
+    public Histogram getLatency() {
+        return latency;
+    }
+}
@@ -0,0 +1,29 @@
+package it.unimore.dipi.iot.demo.mqtt.wldt.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Received messages and bytes of a single concrete topic
+ *
+ * @created: 18/10/2026
+ * @project: WLDT - MQTT Example
+ */
+public class TopicMetrics {
+
+    private final LongAdder messageCount = new LongAdder();
+
+    private final LongAdder byteCount = new LongAdder();
+
+    public void record(int payloadLength) {
+        messageCount.increment();
+        byteCount.add(payloadLength);
+    }
+
+    public long getMessageCount() {
+        return messageCount.sum();
+    }
+
+    public long getByteCount() {
+        return byteCount.sum();
+    }
+}
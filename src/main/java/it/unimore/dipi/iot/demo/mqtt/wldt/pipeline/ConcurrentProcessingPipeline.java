@@ -0,0 +1,244 @@
+package it.unimore.dipi.iot.demo.mqtt.wldt.pipeline;
+
+import it.unimore.dipi.iot.demo.mqtt.wldt.metrics.MetricsRegistry;
+import it.unimore.dipi.iot.demo.mqtt.wldt.metrics.PipelineMetrics;
+import it.unimore.dipi.iot.demo.mqtt.wldt.metrics.StepMetrics;
+import it.unimore.dipi.iot.demo.mqtt.wldt.state.StateKeyExtractor;
+import it.unimore.dipi.iot.wldt.exception.ProcessingPipelineException;
+import it.unimore.dipi.iot.wldt.processing.PipelineData;
+import it.unimore.dipi.iot.wldt.processing.ProcessingPipeline;
+import it.unimore.dipi.iot.wldt.processing.ProcessingPipelineListener;
+import it.unimore.dipi.iot.wldt.processing.ProcessingStep;
+import it.unimore.dipi.iot.wldt.processing.cache.PipelineCache;
+import it.unimore.dipi.iot.wldt.worker.mqtt.MqttPipelineData;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * ProcessingPipeline that can be registered on the Mqtt2MqttWorker in place of the core one
+ * in order to process multiple messages at the same time.
+ *
+ * Each received message gets its own PipelineExecution (traversal state) and is dispatched to a
+ * PipelineExecutor (by default the shared PartitionedExecutor, or a lane of a PriorityLaneScheduler): messages with the same partition key (by default the concrete topic) are always
+ * processed by the same partition, keeping the per-topic ordering, while different topics are processed
+ * in parallel and the MQTT callback thread is released as soon as the message is queued.
+ *
+ * Each partition has its own PipelineCache, so steps storing their state in the cache see all
+ * the messages of a topic in order and never share the cache with another thread. Partition caches are created
+ * on first use, so an idle pipeline (E.g. one of the per-device pipelines of a TwinHost) only keeps its steps.
+ *
+ * Metrics (per topic, per pipeline and per step) are recorded only if enabled through enableMetrics().
+ *
+ * Steps can be added, removed or replaced (replaceSteps()) while messages are processed: the step array is
+ * copied on write and each message keeps the array read when it has been received.
+ *
+ * In pooled mode (setDataPool()) the data of each message is borrowed from a PipelineDataPool and recycled once
+ * the message has been published: the last step must be a MqttPublishStep, results returned to the worker
+ * are not recycled.
+ *
+ * @created: 18/10/2026
+ * @project: WLDT - MQTT Example
+ */
+public class ConcurrentProcessingPipeline extends ProcessingPipeline {
+
+    private static final Logger logger = LoggerFactory.getLogger(ConcurrentProcessingPipeline.class);
+
+    private final PipelineExecutor executor;
+
+    private final StateKeyExtractor partitionKeyExtractor;
+
+    private final AtomicReferenceArray<PipelineCache> partitionCaches;
+
+    private volatile ProcessingStep[] steps = new ProcessingStep[0];
+
+    private volatile MetricsRegistry metricsRegistry = null;
+
+    private volatile PipelineDataPool dataPool = null;
+
+    private volatile PipelineMetrics pipelineMetrics = null;
+
+    //Aligned with steps, replaced together with them
+    private volatile StepMetrics[] stepMetrics = null;
+
+    public ConcurrentProcessingPipeline(ProcessingStep... steps) {
+        this(PartitionedExecutor.getDefault(), StateKeyExtractor.byTopic(), steps);
+    }
+
+    public ConcurrentProcessingPipeline(PipelineExecutor executor, ProcessingStep... steps) {
+        this(executor, StateKeyExtractor.byTopic(), steps);
+    }
+
+    public ConcurrentProcessingPipeline(PipelineExecutor executor, StateKeyExtractor partitionKeyExtractor, ProcessingStep... steps) {
+
+        super();
+
+        this.executor = executor;
+        this.partitionKeyExtractor = partitionKeyExtractor;
+        this.partitionCaches = new AtomicReferenceArray<>(executor.getPartitionCount());
+
+        if(steps != null)
+            for(ProcessingStep step : steps)
+                addStep(step);
+    }
+
+    @Override
+    public synchronized void addStep(ProcessingStep step) {
+
+        ProcessingStep[] newSteps = new ProcessingStep[steps.length + 1];
+        System.arraycopy(steps, 0, newSteps, 0, steps.length);
+        newSteps[steps.length] = step;
+
+        this.steps = newSteps;
+        updateStepMetrics();
+    }
+
+    @Override
+    public synchronized void removeStep(ProcessingStep step) {
+
+        int index = -1;
+        for(int i = 0; i < steps.length && index < 0; i++)
+            if(steps[i] == step)
+                index = i;
+
+        if(index < 0)
+            return;
+
+        ProcessingStep[] newSteps = new ProcessingStep[steps.length - 1];
+        System.arraycopy(steps, 0, newSteps, 0, index);
+        System.arraycopy(steps, index + 1, newSteps, index, steps.length - index - 1);
+
+        this.steps = newSteps;
+        updateStepMetrics();
+    }
+
+    /**
+     * Atomically replace all the steps of the pipeline (E.g. after a reload of the topology).
+     * Messages already started complete with the previous steps, the next received messages use the new ones:
+     * the partition threads are never blocked and the partition caches are kept.
+     */
+    public synchronized void replaceSteps(ProcessingStep... newSteps) {
+        this.steps = newSteps != null ? newSteps.clone() : new ProcessingStep[0];
+        updateStepMetrics();
+    }
+
+    /**
+     * @return a copy of the current steps
+     */
+    public ProcessingStep[] getSteps() {
+        return steps.clone();
+    }
+
+    /**
+     * Record the metrics of the received topics, of the pipeline and of each step on the registry
+     *
+     * @param pipelineName name used to label the pipeline metrics (E.g. the id of the MqttTopicDescriptor)
+     */
+    public synchronized void enableMetrics(MetricsRegistry metricsRegistry, String pipelineName) {
+        this.pipelineMetrics = metricsRegistry.pipeline(pipelineName);
+        this.metricsRegistry = metricsRegistry;
+        updateStepMetrics();
+    }
+
+    /**
+     * Enable the pooled mode for the next received messages
+     *
+     * @param dataPool pool of the data of the messages, null to disable the pooled mode
+     */
+    public void setDataPool(PipelineDataPool dataPool) {
+        this.dataPool = dataPool;
+    }
+
+    public PipelineDataPool getDataPool() {
+        return dataPool;
+    }
+
+    private void updateStepMetrics() {
+        if(pipelineMetrics != null)
+            this.stepMetrics = pipelineMetrics.getStepMetrics(steps);
+    }
+
+    @Override
+    public int getSize() {
+        return steps.length;
+    }
+
+    @Override
+    public void start(PipelineData data, ProcessingPipelineListener listener) throws ProcessingPipelineException {
+
+        ProcessingStep[] currentSteps = this.steps;
+        PipelineMetrics currentPipelineMetrics = this.pipelineMetrics;
+        StepMetrics[] currentStepMetrics = this.stepMetrics;
+
+        if(currentSteps.length == 0)
+            throw new ProcessingPipelineException("Empty Pipeline !");
+
+        //Steps changed while reading: the step metrics of this message are not recorded
+        if(currentStepMetrics != null && currentStepMetrics.length != currentSteps.length)
+            currentStepMetrics = null;
+
+        int partition = data instanceof MqttPipelineData ? executor.partitionFor(partitionKeyExtractor.extractKey((MqttPipelineData) data)) : 0;
+
+        if(currentPipelineMetrics != null && data instanceof MqttPipelineData)
+            recordReceived(currentPipelineMetrics, (MqttPipelineData) data);
+
+        PipelineExecution pipelineExecution = new PipelineExecution(currentSteps, partitionCache(partition), data, listener, currentPipelineMetrics, currentStepMetrics, dataPool);
+
+        if(!executor.execute(partition, pipelineExecution)){
+
+            logger.warn("Partition {} of executor {} full ! Message discarded", partition, executor.getName());
+
+            if(currentPipelineMetrics != null)
+                currentPipelineMetrics.onRejected();
+
+            LazyMqttPipelineData.release(data);
+
+            if(listener != null)
+                listener.onPipelineError();
+        }
+    }
+
+    private PipelineCache partitionCache(int partition) {
+
+        PipelineCache pipelineCache = partitionCaches.get(partition);
+
+        //Messages of the same partition can be received by different threads: only the first created cache is used
+        if(pipelineCache == null && !partitionCaches.compareAndSet(partition, null, pipelineCache = new PipelineCache()))
+            pipelineCache = partitionCaches.get(partition);
+
+        return pipelineCache;
+    }
+
+    private void recordReceived(PipelineMetrics currentPipelineMetrics, MqttPipelineData data) {
+        int payloadLength = data.getPayload() != null ? data.getPayload().length : 0;
+        currentPipelineMetrics.onReceived(payloadLength);
+        if(data.getTopic() != null)
+            metricsRegistry.recordTopic(data.getTopic(), payloadLength);
+    }
+
+    @Override
+    public void onStepDone(ProcessingStep step, Optional<PipelineData> result) {
+        logger.error("Unexpected onStepDone() callback on ConcurrentProcessingPipeline ! Step results are handled by PipelineExecution");
+    }
+
+    @Override
+    public void onStepError(ProcessingStep step, PipelineData data, String errorMessage) {
+        logger.error("Unexpected onStepError() callback on ConcurrentProcessingPipeline ! Step: {} Error: {}", step, errorMessage);
+    }
+
+    @Override
+    public void onStepSkip(ProcessingStep step, PipelineData data) {
+        logger.error("Unexpected onStepSkip() callback on ConcurrentProcessingPipeline ! Step results are handled by PipelineExecution");
+    }
+
+    public PipelineMetrics getPipelineMetrics() {
+        return pipelineMetrics;
+    }
+
+    public PipelineExecutor getExecutor() {
+        return executor;
+    }
+
+}
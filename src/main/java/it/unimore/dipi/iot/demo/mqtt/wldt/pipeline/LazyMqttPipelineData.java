@@ -0,0 +1,330 @@
+package it.unimore.dipi.iot.demo.mqtt.wldt.pipeline;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import it.unimore.dipi.iot.demo.mqtt.utils.AsciiDoubleParser;
+import it.unimore.dipi.iot.demo.mqtt.wldt.codec.TelemetryCodec;
+import it.unimore.dipi.iot.wldt.processing.PipelineData;
+import it.unimore.dipi.iot.wldt.worker.mqtt.MqttPipelineData;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Optional;
+import java.util.function.IntFunction;
+
+/**
+ * MqttPipelineData carrying, together with the raw payload, the decoded views computed by the steps
+ * (numeric value, UTF-8 string and JSON tree). Each view is decoded on first use and memoized,
+ * so a chain of steps reading the same value decodes the payload only once.
+ *
+ * Steps obtain the data through of(): a plain MqttPipelineData (E.g. the one received by the worker) is copied once,
+ * then the topic and payload overrides (withTopic(), withPayload(), withNumericPayload()) update the copy in place
+ * and the following steps receive the same instance. The original data is never modified (copy-on-write),
+ * so a chain of steps allocates at most one PipelineData for each message.
+ *
+ * An instance is owned by a single pipeline execution at a time and it is not thread safe. Data delivered to
+ * multiple pipelines (E.g. by a TopicRoutingPipeline) must be marked through share(): each pipeline then gets
+ * its own copy from of(), keeping the views already decoded. Decoded views must be treated as read-only.
+ *
+ * In the pooled mode of a ConcurrentProcessingPipeline the instances are borrowed from a PipelineDataPool and must be
+ * released (release()) by whoever ends the life of the message, after which they must not be used anymore.
+ * Steps should return asOptional() instead of Optional.of(data): the Optional is created once for each instance.
+ *
+ * @created: 18/10/2026
+ * @project: WLDT - MQTT Example
+ */
+public class LazyMqttPipelineData extends MqttPipelineData {
+
+    private static final ObjectMapper mapper = new ObjectMapper();
+
+    //Pool of the instance, null if it has been allocated by of()
+    private final PipelineDataPool pool;
+
+    private final IntFunction<byte[]> bufferAllocator;
+
+    private int poolStripe;
+
+    private boolean borrowed = false;
+
+    //The payload has been allocated from the pool and can be recycled
+    private boolean payloadPooled = false;
+
+    private Object leakTracker;
+
+    private Optional<PipelineData> optional;
+
+    private volatile boolean shared = false;
+
+    private boolean numericValueDecoded = false;
+
+    private double numericValue;
+
+    private String utf8String;
+
+    private boolean jsonTreeDecoded = false;
+
+    private JsonNode jsonTree;
+
+    private LazyMqttPipelineData(MqttPipelineData data) {
+        super(data.getTopic(), data.getMqttTopicDescriptor(), data.getPayload(), data.isRetained());
+        this.pool = null;
+        this.bufferAllocator = null;
+    }
+
+    /**
+     * Empty instance of a PipelineDataPool
+     */
+    LazyMqttPipelineData(PipelineDataPool pool) {
+        super();
+        this.pool = pool;
+        this.bufferAllocator = length -> pool.borrowBuffer(poolStripe, length);
+    }
+
+    /**
+     * @return the same data if it is a LazyMqttPipelineData owned by the caller, otherwise a copy that can be modified
+     */
+    public static LazyMqttPipelineData of(MqttPipelineData data) {
+
+        if(data instanceof LazyMqttPipelineData){
+
+            LazyMqttPipelineData lazyData = (LazyMqttPipelineData) data;
+
+            if(!lazyData.shared)
+                return lazyData;
+
+            LazyMqttPipelineData copy = new LazyMqttPipelineData(lazyData);
+            copy.copyViews(lazyData);
+            return copy;
+        }
+
+        return new LazyMqttPipelineData(data);
+    }
+
+    /**
+     * Numeric value of the data, memoized if it is a LazyMqttPipelineData, parsed without allocating a copy otherwise
+     * (for steps that do not forward the received data)
+     */
+    public static double numericValueOf(MqttPipelineData data) {
+        return data instanceof LazyMqttPipelineData ? ((LazyMqttPipelineData) data).getNumericValue() : AsciiDoubleParser.parse(data.getPayload());
+    }
+
+    private void copyViews(LazyMqttPipelineData source) {
+        this.numericValueDecoded = source.numericValueDecoded;
+        this.numericValue = source.numericValue;
+        this.utf8String = source.utf8String;
+        this.jsonTreeDecoded = source.jsonTreeDecoded;
+        this.jsonTree = source.jsonTree;
+    }
+
+    /**
+     * Release the data if it has been borrowed from a PipelineDataPool, no effect otherwise
+     */
+    public static void release(PipelineData data) {
+        if(data instanceof LazyMqttPipelineData)
+            ((LazyMqttPipelineData) data).release();
+    }
+
+    /**
+     * Return the data to its pool (if any). Shared data is never recycled.
+     */
+    public void release() {
+        if(pool != null && !shared)
+            pool.release(this);
+    }
+
+    /**
+     * Initialize a borrowed instance with the content of the source data
+     */
+    void reset(MqttPipelineData source, int poolStripe) {
+        super.setTopic(source.getTopic());
+        super.setMqttTopicDescriptor(source.getMqttTopicDescriptor());
+        super.setRetained(source.isRetained());
+        setPayload(source.getPayload());
+        this.poolStripe = poolStripe;
+        this.shared = false;
+        this.borrowed = true;
+    }
+
+    /**
+     * Clear a released instance
+     *
+     * @return the payload buffer to be recycled, null if it can not be recycled
+     */
+    byte[] recycle() {
+
+        byte[] payloadBuffer = payloadPooled ? getPayload() : null;
+
+        super.setTopic(null);
+        super.setMqttTopicDescriptor(null);
+        super.setPayload(null);
+        clearViews();
+
+        this.payloadPooled = false;
+        this.borrowed = false;
+
+        return payloadBuffer;
+    }
+
+    boolean isBorrowed() {
+        return borrowed;
+    }
+
+    int getPoolStripe() {
+        return poolStripe;
+    }
+
+    Object getLeakTracker() {
+        return leakTracker;
+    }
+
+    void setLeakTracker(Object leakTracker) {
+        this.leakTracker = leakTracker;
+    }
+
+    /**
+     * The payload is referenced after the end of the message (E.g. by a ShadowState): it will not be recycled
+     */
+    public LazyMqttPipelineData retainPayload() {
+        this.payloadPooled = false;
+        return this;
+    }
+
+    /**
+     * @return Optional.of(this), created once for each instance
+     */
+    public Optional<PipelineData> asOptional() {
+
+        if(optional == null)
+            optional = Optional.of(this);
+
+        return optional;
+    }
+
+    /**
+     * Mark the data as delivered to multiple pipelines: it can not be modified anymore and of() returns a copy
+     */
+    public LazyMqttPipelineData share() {
+        this.shared = true;
+        return this;
+    }
+
+    public boolean isShared() {
+        return shared;
+    }
+
+    /**
+     * @return the payload parsed as an ASCII decimal number or Double.NaN if it is not a number
+     */
+    public double getNumericValue() {
+
+        if(!numericValueDecoded){
+            numericValue = AsciiDoubleParser.parse(getPayload());
+            numericValueDecoded = true;
+        }
+
+        return numericValue;
+    }
+
+    /**
+     * @return the payload decoded as UTF-8 string, null if there is no payload
+     */
+    public String getUtf8String() {
+
+        if(utf8String == null && getPayload() != null)
+            utf8String = new String(getPayload(), StandardCharsets.UTF_8);
+
+        return utf8String;
+    }
+
+    /**
+     * @return the payload parsed as JSON document or null if it is not valid JSON
+     */
+    public JsonNode getJsonTree() {
+
+        if(!jsonTreeDecoded){
+
+            try{
+                jsonTree = getPayload() != null ? mapper.readTree(getPayload()) : null;
+            }catch (Exception e){
+                jsonTree = null;
+            }
+
+            jsonTreeDecoded = true;
+        }
+
+        return jsonTree;
+    }
+
+    /**
+     * Override the topic keeping the payload and its decoded views
+     */
+    public LazyMqttPipelineData withTopic(String topic) {
+        checkNotShared();
+        super.setTopic(topic);
+        return this;
+    }
+
+    /**
+     * Override the payload discarding the decoded views
+     */
+    public LazyMqttPipelineData withPayload(byte[] payload) {
+        checkNotShared();
+        setPayload(payload);
+        return this;
+    }
+
+    /**
+     * Override the payload with the textual representation of the value (E.g. an average),
+     * the numeric view is set without parsing the new payload again
+     */
+    public LazyMqttPipelineData withNumericPayload(double value) {
+
+        checkNotShared();
+
+        if(pool != null){
+            byte[] payload = TelemetryCodec.TEXT.encode(value, null, bufferAllocator);
+            setPayload(payload);
+            this.payloadPooled = true;
+        }
+        else
+            setPayload(TelemetryCodec.TEXT.encode(value, null));
+
+        this.numericValue = value;
+        this.numericValueDecoded = true;
+        return this;
+    }
+
+    @Override
+    public void setPayload(byte[] payload) {
+
+        //The replaced payload belongs to this message only
+        if(payloadPooled && getPayload() != payload)
+            pool.releaseBuffer(poolStripe, getPayload());
+
+        super.setPayload(payload);
+        this.payloadPooled = false;
+        clearViews();
+    }
+
+    private void clearViews() {
+        this.numericValueDecoded = false;
+        this.utf8String = null;
+        this.jsonTreeDecoded = false;
+        this.jsonTree = null;
+    }
+
+    private void checkNotShared() {
+        if(shared)
+            throw new IllegalStateException("Shared LazyMqttPipelineData can not be modified ! Use LazyMqttPipelineData.of() to get a copy");
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder("LazyMqttPipelineData{");
+        sb.append("topic='").append(getTopic()).append('\'');
+        sb.append(", payloadLength=").append(getPayload() != null ? getPayload().length : 0);
+        sb.append(", retained=").append(isRetained());
+        sb.append(", shared=").append(shared);
+        sb.append('}');
+        return sb.toString();
+    }
+}
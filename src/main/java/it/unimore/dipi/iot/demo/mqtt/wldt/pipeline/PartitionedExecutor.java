@@ -0,0 +1,241 @@
+package it.unimore.dipi.iot.demo.mqtt.wldt.pipeline;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bounded executor composed by N single threaded partitions (lanes).
+ * Tasks submitted with the same key are always executed by the same partition and
+ * therefore in submission order, while tasks with different keys run in parallel.
+ *
+ * Each partition has a bounded queue: when it is full the submitting thread is blocked
+ * (OverflowPolicy.BLOCK, back-pressure towards the MQTT callback thread) or the task is discarded
+ * (OverflowPolicy.DROP). The queue space is tracked by a semaphore acquired before ThreadPoolExecutor.execute()
+ * and released when the task is taken from the queue, so the tasks are always submitted through execute()
+ * (rejected after shutdown). Partition threads can be virtual threads when the JVM supports them (Java 21+).
+ *
+ * @created: 18/10/2026
+ * @project: WLDT - MQTT Example
+ */
+public class PartitionedExecutor implements PipelineExecutor {
+
+    private static final Logger logger = LoggerFactory.getLogger(PartitionedExecutor.class);
+
+    public static final int DEFAULT_QUEUE_CAPACITY = 10000;
+
+    public static final String VIRTUAL_THREADS_PROPERTY = "wldt.pipeline.virtualThreads";
+
+    public enum OverflowPolicy {
+        BLOCK,
+        DROP
+    }
+
+    private static volatile PartitionedExecutor defaultInstance = null;
+
+    /**
+     * Single threaded partition releasing a unit of queue space each time a task is taken from its queue
+     */
+    private static final class Partition extends ThreadPoolExecutor {
+
+        private final Semaphore queueSpace;
+
+        private Partition(int queueCapacity, ThreadFactory threadFactory) {
+            //The queue is never full when a permit is held, the default AbortPolicy only rejects after shutdown
+            super(1, 1, 0L, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(queueCapacity), threadFactory);
+            this.queueSpace = new Semaphore(queueCapacity);
+        }
+
+        @Override
+        protected void beforeExecute(Thread thread, Runnable task) {
+            queueSpace.release();
+        }
+    }
+
+    private final String name;
+
+    private final Partition[] partitions;
+
+    private final OverflowPolicy overflowPolicy;
+
+    private final boolean virtualThreads;
+
+    private final LongAdder droppedTaskCount = new LongAdder();
+
+    public PartitionedExecutor(String name, int partitionCount, int queueCapacity, OverflowPolicy overflowPolicy, boolean useVirtualThreads) {
+
+        if(partitionCount <= 0 || queueCapacity <= 0)
+            throw new IllegalArgumentException("Partition Count and Queue Capacity must be greater than 0 !");
+
+        this.name = name;
+        this.overflowPolicy = overflowPolicy;
+
+        ThreadFactory threadFactory = useVirtualThreads ? createVirtualThreadFactory() : null;
+        this.virtualThreads = threadFactory != null;
+
+        if(threadFactory == null)
+            threadFactory = createPlatformThreadFactory(name);
+
+        this.partitions = new Partition[partitionCount];
+
+        for(int i = 0; i < partitionCount; i++)
+            this.partitions[i] = new Partition(queueCapacity, threadFactory);
+
+        logger.info("PartitionedExecutor {} created: {} partitions, queue capacity: {}, overflow: {}, virtual threads: {}",
+                name, partitionCount, queueCapacity, overflowPolicy, virtualThreads);
+    }
+
+    /**
+     * Shared executor used by the pipelines that do not specify a dedicated one:
+     * one partition for each available core, blocking back-pressure and virtual threads
+     * if enabled through the system property wldt.pipeline.virtualThreads=true
+     */
+    public static PartitionedExecutor getDefault() {
+        if(defaultInstance == null){
+            synchronized (PartitionedExecutor.class){
+                if(defaultInstance == null)
+                    defaultInstance = new PartitionedExecutor("wldt-pipeline",
+                            Runtime.getRuntime().availableProcessors(),
+                            DEFAULT_QUEUE_CAPACITY,
+                            OverflowPolicy.BLOCK,
+                            Boolean.getBoolean(VIRTUAL_THREADS_PROPERTY));
+            }
+        }
+        return defaultInstance;
+    }
+
+    @Override
+    public int partitionFor(String key) {
+        return partitionFor(key, partitions.length);
+    }
+
+    /**
+     * Partition of the key among partitionCount partitions (shared by the PipelineExecutor implementations)
+     */
+    static int partitionFor(String key, int partitionCount) {
+
+        if(key == null)
+            return 0;
+
+        int hash = key.hashCode();
+        hash ^= (hash >>> 16);
+        return (hash & 0x7FFFFFFF) % partitionCount;
+    }
+
+    /**
+     * Execute the task on the target partition
+     *
+     * @return false if the task has been discarded since the partition queue is full (OverflowPolicy.DROP)
+     * @throws RejectedExecutionException if the executor is shutdown or the thread is interrupted while blocked
+     */
+    @Override
+    public boolean execute(int partition, Runnable task) {
+
+        Partition target = partitions[partition];
+
+        if(target.isShutdown())
+            throw new RejectedExecutionException(String.format("Executor %s is shutdown !", name));
+
+        if(overflowPolicy == OverflowPolicy.DROP){
+            if(!target.queueSpace.tryAcquire()){
+                droppedTaskCount.increment();
+                return false;
+            }
+        }
+        else {
+            try {
+                target.queueSpace.acquire();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new RejectedExecutionException("Interrupted while waiting for partition queue space !", e);
+            }
+        }
+
+        try{
+            target.execute(task);
+            return true;
+        }catch (RejectedExecutionException e){
+            target.queueSpace.release();
+            throw new RejectedExecutionException(String.format("Executor %s is shutdown !", name), e);
+        }
+    }
+
+    @Override
+    public int getPartitionCount() {
+        return partitions.length;
+    }
+
+    /**
+     * @return the number of tasks waiting in all the partition queues
+     */
+    @Override
+    public int getQueueDepth() {
+        int depth = 0;
+        for(Partition partition : partitions)
+            depth += partition.getQueue().size();
+        return depth;
+    }
+
+    @Override
+    public long getDroppedTaskCount() {
+        return droppedTaskCount.sum();
+    }
+
+    public boolean isVirtualThreads() {
+        return virtualThreads;
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    public void shutdown() {
+        for(Partition partition : partitions)
+            partition.shutdown();
+    }
+
+    public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        for(Partition partition : partitions)
+            if(!partition.awaitTermination(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS))
+                return false;
+        return true;
+    }
+
+    private static ThreadFactory createPlatformThreadFactory(String name) {
+        AtomicInteger threadCounter = new AtomicInteger(0);
+        return runnable -> {
+            Thread thread = new Thread(runnable, String.format("%s-%d", name, threadCounter.getAndIncrement()));
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    /**
+     * Thread.ofVirtual().factory() through reflection in order to keep the Java 8 compatibility
+     *
+     * @return the virtual thread factory or null if not supported by the running JVM
+     */
+    private static ThreadFactory createVirtualThreadFactory() {
+        try {
+            Method ofVirtualMethod = Thread.class.getMethod("ofVirtual");
+            Object builder = ofVirtualMethod.invoke(null);
+            Method factoryMethod = Class.forName("java.lang.Thread$Builder").getMethod("factory");
+            return (ThreadFactory) factoryMethod.invoke(builder);
+        } catch (Exception e) {
+            logger.warn("Virtual Threads not supported by the current JVM ({}) ! Using platform threads ...", System.getProperty("java.version"));
+            return null;
+        }
+    }
+
+}
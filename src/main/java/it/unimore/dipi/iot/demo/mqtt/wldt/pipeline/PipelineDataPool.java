@@ -0,0 +1,359 @@
+package it.unimore.dipi.iot.demo.mqtt.wldt.pipeline;
+
+import it.unimore.dipi.iot.demo.mqtt.utils.LogSampler;
+import it.unimore.dipi.iot.wldt.processing.PipelineData;
+import it.unimore.dipi.iot.wldt.worker.mqtt.MqttPipelineData;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Striped pool of LazyMqttPipelineData and of the small payload buffers written by the steps (E.g. the average value),
+ * used by a ConcurrentProcessingPipeline in pooled mode (see setDataPool()) to recycle the data of each message.
+ *
+ * The data is borrowed on the partition thread when the execution of the message starts and is released when its
+ * life ends: by the OutgoingPublisher once the message has been delivered (or stored), by the MqttPublishStep when
+ * the publisher rejects it and by the steps discarding it (E.g. an incomplete average window or a suppressed value).
+ * Each object returns to the stripe of the thread that borrowed it, so a partition thread only competes with
+ * the publisher thread on the lock of its own stripe. Data that is never released (E.g. the result of a pipeline
+ * published by the worker) is simply collected by the GC.
+ *
+ * Payload buffers are recycled only if they have been allocated from the pool and no step retained them
+ * (see LazyMqttPipelineData.retainPayload()): MQTT payloads must have the exact length of the content,
+ * so buffers are pooled by length up to MAX_POOLED_BUFFER_LENGTH bytes.
+ *
+ * Leak detection (enabled by the system property wldt.pool.leakDetection, meant for debug runs) records where each
+ * object has been borrowed and reports the objects collected by the GC without being released.
+ * Releasing an object twice is always detected and ignored.
+ *
+ * @created: 18/10/2026
+ * @project: WLDT - MQTT Example
+ */
+public class PipelineDataPool {
+
+    private static final Logger logger = LoggerFactory.getLogger(PipelineDataPool.class);
+
+    private static final LogSampler errorLogSampler = LogSampler.perSecond(1);
+
+    public static final String LEAK_DETECTION_PROPERTY = "wldt.pool.leakDetection";
+
+    public static final int DEFAULT_MAX_OBJECTS_PER_STRIPE = 1024;
+
+    public static final int DEFAULT_MAX_BUFFERS_PER_LENGTH = 64;
+
+    public static final int MAX_POOLED_BUFFER_LENGTH = 64;
+
+    /**
+     * Free objects and buffers of the threads mapped on the stripe
+     */
+    private static final class Stripe {
+
+        private final LazyMqttPipelineData[] objects;
+
+        private int objectCount = 0;
+
+        //Lazily created: only the lengths actually used keep a free list
+        private final byte[][][] buffers = new byte[MAX_POOLED_BUFFER_LENGTH + 1][][];
+
+        private final int[] bufferCounts = new int[MAX_POOLED_BUFFER_LENGTH + 1];
+
+        private Stripe(int maxObjects) {
+            this.objects = new LazyMqttPipelineData[maxObjects];
+        }
+    }
+
+    /**
+     * Weak reference to a borrowed object, enqueued by the GC if the object is collected before being released
+     */
+    private static final class LeakTracker extends WeakReference<LazyMqttPipelineData> {
+
+        private final Throwable borrowTrace;
+
+        private LeakTracker(LazyMqttPipelineData data, ReferenceQueue<LazyMqttPipelineData> queue) {
+            super(data, queue);
+            this.borrowTrace = new Throwable(String.format("Borrowed by thread %s for topic %s", Thread.currentThread().getName(), data.getTopic()));
+        }
+    }
+
+    private final Stripe[] stripes;
+
+    private final int stripeMask;
+
+    private final int maxBuffersPerLength;
+
+    private final boolean leakDetectionEnabled;
+
+    private final ReferenceQueue<LazyMqttPipelineData> leakQueue = new ReferenceQueue<>();
+
+    private final Set<LeakTracker> leakTrackers = ConcurrentHashMap.newKeySet();
+
+    private final LongAdder borrowedCount = new LongAdder();
+
+    private final LongAdder createdCount = new LongAdder();
+
+    private final LongAdder releasedCount = new LongAdder();
+
+    private final LongAdder recycledBufferCount = new LongAdder();
+
+    private final LongAdder leakCount = new LongAdder();
+
+    private final LongAdder doubleReleaseCount = new LongAdder();
+
+    public PipelineDataPool() {
+        this(Runtime.getRuntime().availableProcessors() * 2, DEFAULT_MAX_OBJECTS_PER_STRIPE, DEFAULT_MAX_BUFFERS_PER_LENGTH, Boolean.getBoolean(LEAK_DETECTION_PROPERTY));
+    }
+
+    /**
+     * @param stripeCount number of stripes, rounded up to the next power of two
+     * @param maxObjectsPerStripe free objects kept by each stripe, the exceeding ones are left to the GC
+     * @param maxBuffersPerLength free payload buffers of each length kept by each stripe
+     * @param leakDetectionEnabled if true the borrow stack trace of each object is recorded and the leaks are reported
+     */
+    public PipelineDataPool(int stripeCount, int maxObjectsPerStripe, int maxBuffersPerLength, boolean leakDetectionEnabled) {
+
+        if(stripeCount <= 0 || maxObjectsPerStripe <= 0 || maxBuffersPerLength < 0)
+            throw new IllegalArgumentException("Stripe Count and Max Objects must be greater than 0, Max Buffers can not be negative !");
+
+        int size = Integer.highestOneBit(stripeCount);
+        if(size < stripeCount)
+            size <<= 1;
+
+        this.stripes = new Stripe[size];
+        for(int i = 0; i < size; i++)
+            this.stripes[i] = new Stripe(maxObjectsPerStripe);
+
+        this.stripeMask = size - 1;
+        this.maxBuffersPerLength = maxBuffersPerLength;
+        this.leakDetectionEnabled = leakDetectionEnabled;
+
+        if(leakDetectionEnabled)
+            logger.warn("PipelineDataPool leak detection enabled: the stack trace of each borrowed object is recorded !");
+    }
+
+    /**
+     * @return a pooled copy of the data, the same data if it is already a LazyMqttPipelineData
+     */
+    public PipelineData wrap(PipelineData data) {
+
+        if(data instanceof MqttPipelineData && !(data instanceof LazyMqttPipelineData))
+            return borrow((MqttPipelineData) data);
+
+        return data;
+    }
+
+    /**
+     * Borrow an object initialized with the content of the source data. It has to be released through
+     * LazyMqttPipelineData.release() when the message is no longer used.
+     */
+    public LazyMqttPipelineData borrow(MqttPipelineData source) {
+
+        int stripeIndex = (int) Thread.currentThread().getId() & stripeMask;
+        Stripe stripe = stripes[stripeIndex];
+        LazyMqttPipelineData data = null;
+
+        synchronized (stripe){
+            if(stripe.objectCount > 0){
+                data = stripe.objects[--stripe.objectCount];
+                stripe.objects[stripe.objectCount] = null;
+            }
+        }
+
+        if(data == null){
+            data = new LazyMqttPipelineData(this);
+            createdCount.increment();
+        }
+
+        data.reset(source, stripeIndex);
+        borrowedCount.increment();
+
+        if(leakDetectionEnabled)
+            track(data);
+
+        return data;
+    }
+
+    /**
+     * Called by LazyMqttPipelineData.release()
+     */
+    void release(LazyMqttPipelineData data) {
+
+        if(!data.isBorrowed()){
+
+            doubleReleaseCount.increment();
+
+            if(errorLogSampler.sample())
+                logger.error("PipelineData released twice ! Data: {} Suppressed: {}", data, errorLogSampler.drainSuppressedCount(),
+                        leakDetectionEnabled ? new Throwable("Second release") : null);
+
+            return;
+        }
+
+        if(leakDetectionEnabled)
+            untrack(data);
+
+        int stripeIndex = data.getPoolStripe();
+        byte[] payloadBuffer = data.recycle();
+        Stripe stripe = stripes[stripeIndex];
+
+        synchronized (stripe){
+
+            if(payloadBuffer != null)
+                pushBuffer(stripe, payloadBuffer);
+
+            if(stripe.objectCount < stripe.objects.length)
+                stripe.objects[stripe.objectCount++] = data;
+        }
+
+        releasedCount.increment();
+    }
+
+    /**
+     * @return a buffer of exactly the requested length, recycled if available
+     */
+    byte[] borrowBuffer(int stripeIndex, int length) {
+
+        if(length <= MAX_POOLED_BUFFER_LENGTH){
+
+            Stripe stripe = stripes[stripeIndex];
+
+            synchronized (stripe){
+
+                int count = stripe.bufferCounts[length];
+
+                if(count > 0){
+                    byte[] buffer = stripe.buffers[length][--count];
+                    stripe.buffers[length][count] = null;
+                    stripe.bufferCounts[length] = count;
+                    recycledBufferCount.increment();
+                    return buffer;
+                }
+            }
+        }
+
+        return new byte[length];
+    }
+
+    void releaseBuffer(int stripeIndex, byte[] buffer) {
+
+        Stripe stripe = stripes[stripeIndex];
+
+        synchronized (stripe){
+            pushBuffer(stripe, buffer);
+        }
+    }
+
+    private void pushBuffer(Stripe stripe, byte[] buffer) {
+
+        int length = buffer.length;
+
+        if(length > MAX_POOLED_BUFFER_LENGTH || maxBuffersPerLength == 0)
+            return;
+
+        if(stripe.buffers[length] == null)
+            stripe.buffers[length] = new byte[maxBuffersPerLength][];
+
+        if(stripe.bufferCounts[length] < maxBuffersPerLength)
+            stripe.buffers[length][stripe.bufferCounts[length]++] = buffer;
+    }
+
+    private void track(LazyMqttPipelineData data) {
+
+        reportLeaks();
+
+        LeakTracker leakTracker = new LeakTracker(data, leakQueue);
+        leakTrackers.add(leakTracker);
+        data.setLeakTracker(leakTracker);
+    }
+
+    private void untrack(LazyMqttPipelineData data) {
+
+        Object leakTracker = data.getLeakTracker();
+
+        if(leakTracker instanceof LeakTracker){
+            leakTrackers.remove(leakTracker);
+            ((LeakTracker) leakTracker).clear();
+        }
+
+        data.setLeakTracker(null);
+    }
+
+    /**
+     * Report the objects collected by the GC without being released. It is called at each borrow when the leak
+     * detection is enabled and can be called periodically.
+     */
+    public void reportLeaks() {
+
+        Reference<? extends LazyMqttPipelineData> reference;
+
+        while((reference = leakQueue.poll()) != null){
+
+            if(!leakTrackers.remove(reference))
+                continue;
+
+            leakCount.increment();
+
+            if(errorLogSampler.sample())
+                logger.error("PipelineData collected without being released ! Suppressed: {}", errorLogSampler.drainSuppressedCount(), ((LeakTracker) reference).borrowTrace);
+        }
+    }
+
+    public boolean isLeakDetectionEnabled() {
+        return leakDetectionEnabled;
+    }
+
+    public long getBorrowedCount() {
+        return borrowedCount.sum();
+    }
+
+    /**
+     * @return objects allocated because the stripe was empty
+     */
+    public long getCreatedCount() {
+        return createdCount.sum();
+    }
+
+    public long getReleasedCount() {
+        return releasedCount.sum();
+    }
+
+    public long getRecycledBufferCount() {
+        return recycledBufferCount.sum();
+    }
+
+    /**
+     * @return objects collected without being released (only with the leak detection enabled)
+     */
+    public long getLeakCount() {
+        return leakCount.sum();
+    }
+
+    public long getDoubleReleaseCount() {
+        return doubleReleaseCount.sum();
+    }
+
+    /**
+     * @return borrowed objects not released yet (only with the leak detection enabled)
+     */
+    public int getTrackedCount() {
+        return leakTrackers.size();
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder("PipelineDataPool{");
+        sb.append("stripes=").append(stripes.length);
+        sb.append(", borrowed=").append(getBorrowedCount());
+        sb.append(", created=").append(getCreatedCount());
+        sb.append(", released=").append(getReleasedCount());
+        sb.append(", recycledBuffers=").append(getRecycledBufferCount());
+        sb.append(", leakDetectionEnabled=").append(leakDetectionEnabled);
+        sb.append('}');
+        return sb.toString();
+    }
+}
@@ -0,0 +1,201 @@
+package it.unimore.dipi.iot.demo.mqtt.wldt.pipeline;
+
+import it.unimore.dipi.iot.wldt.processing.PipelineData;
+import it.unimore.dipi.iot.wldt.processing.ProcessingPipelineListener;
+import it.unimore.dipi.iot.wldt.processing.ProcessingStep;
+import it.unimore.dipi.iot.wldt.processing.ProcessingStepListener;
+import it.unimore.dipi.iot.wldt.processing.cache.PipelineCache;
+import it.unimore.dipi.iot.demo.mqtt.utils.LogSampler;
+import it.unimore.dipi.iot.demo.mqtt.wldt.metrics.PipelineMetrics;
+import it.unimore.dipi.iot.demo.mqtt.wldt.metrics.StepMetrics;
+import it.unimore.dipi.iot.demo.mqtt.wldt.startup.StartupReport;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Optional;
+
+/**
+ * Traversal state of a single message through the steps of a pipeline.
+ * Differently from the core ProcessingPipeline (where the step iterator is a field of the pipeline)
+ * each message has its own instance, so the same pipeline can process multiple messages at the same time.
+ *
+ * The step chaining follows the same semantic of the core ProcessingPipeline: a step result is used as input
+ * of the next step, an empty result or the last step completes the pipeline, a skipped step forwards the same data.
+ *
+ * When metrics are enabled the outcome of each step is always counted, while the latencies are measured only for
+ * the sampled messages: the end of a step is also the start of the next one, so a timed pipeline of N steps
+ * reads the clock N + 2 times (the first reading is the creation time, the pipeline latency includes the queue wait).
+ *
+ * With a PipelineDataPool the received data is replaced by a pooled LazyMqttPipelineData when the execution starts
+ * on the partition thread. The execution releases the data of a failed step and a result without a pipeline listener,
+ * in every other case the data is released by the step ending the life of the message.
+ *
+ * @created: 18/10/2026
+ * @project: WLDT - MQTT Example
+ */
+public class PipelineExecution implements ProcessingStepListener, Runnable {
+
+    private static final Logger logger = LoggerFactory.getLogger(PipelineExecution.class);
+
+    //Step errors are logged for each message: a flood of invalid messages must not saturate the appenders
+    private static final LogSampler errorLogSampler = LogSampler.perSecond(100);
+
+    private final ProcessingStep[] steps;
+
+    private final PipelineCache pipelineCache;
+
+    private final PipelineData incomingData;
+
+    private final ProcessingPipelineListener pipelineListener;
+
+    private final PipelineMetrics pipelineMetrics;
+
+    private final StepMetrics[] stepMetrics;
+
+    private final PipelineDataPool dataPool;
+
+    private final boolean timed;
+
+    private final long startNanos;
+
+    private long stepStartNanos;
+
+    private int nextStepIndex = 0;
+
+    //Input of the running step, released if the step fails
+    private PipelineData currentData;
+
+    private boolean completed = false;
+
+    public PipelineExecution(ProcessingStep[] steps, PipelineCache pipelineCache, PipelineData incomingData, ProcessingPipelineListener pipelineListener) {
+        this(steps, pipelineCache, incomingData, pipelineListener, null, null);
+    }
+
+    /**
+     * @param pipelineMetrics metrics of the pipeline, null if disabled
+     * @param stepMetrics metrics of each step (aligned with steps), null if disabled
+     */
+    public PipelineExecution(ProcessingStep[] steps, PipelineCache pipelineCache, PipelineData incomingData, ProcessingPipelineListener pipelineListener,
+                             PipelineMetrics pipelineMetrics, StepMetrics[] stepMetrics) {
+        this(steps, pipelineCache, incomingData, pipelineListener, pipelineMetrics, stepMetrics, null);
+    }
+
+    /**
+     * @param dataPool pool of the data of the messages, null to process the received data
+     */
+    public PipelineExecution(ProcessingStep[] steps, PipelineCache pipelineCache, PipelineData incomingData, ProcessingPipelineListener pipelineListener,
+                             PipelineMetrics pipelineMetrics, StepMetrics[] stepMetrics, PipelineDataPool dataPool) {
+        this.steps = steps;
+        this.pipelineCache = pipelineCache;
+        this.incomingData = incomingData;
+        this.pipelineListener = pipelineListener;
+        this.pipelineMetrics = pipelineMetrics;
+        this.stepMetrics = stepMetrics;
+        this.dataPool = dataPool;
+        this.timed = pipelineMetrics != null && pipelineMetrics.sampleLatency();
+        this.startNanos = timed ? System.nanoTime() : 0;
+    }
+
+    @Override
+    public void run() {
+
+        if(timed)
+            stepStartNanos = System.nanoTime();
+
+        executeNextStep(dataPool != null ? dataPool.wrap(incomingData) : incomingData);
+    }
+
+    /**
+     * @return the latency of the step that is notifying its result (and start the clock of the next one), -1 if not timed
+     */
+    private long stepLatency() {
+
+        if(!timed)
+            return -1;
+
+        long now = System.nanoTime();
+        long latency = now - stepStartNanos;
+        stepStartNanos = now;
+        return latency;
+    }
+
+    private void executeNextStep(PipelineData data) {
+
+        ProcessingStep step = steps[nextStepIndex++];
+        currentData = data;
+
+        try{
+            step.execute(pipelineCache, data, this);
+        }catch (Exception e){
+            onStepError(step, data, e.getLocalizedMessage());
+        }
+    }
+
+    @Override
+    public void onStepDone(ProcessingStep step, Optional<PipelineData> result) {
+
+        if(stepMetrics != null && !completed)
+            stepMetrics[nextStepIndex - 1].onStepDone(stepLatency());
+
+        if(nextStepIndex < steps.length && result.isPresent())
+            executeNextStep(result.get());
+        else
+            complete(result);
+    }
+
+    @Override
+    public void onStepError(ProcessingStep step, PipelineData data, String errorMessage) {
+
+        if(errorLogSampler.sample())
+            logger.error("Step: {} -> Error {} ! Original Data: {} Suppressed Errors: {}", step.getClass(), errorMessage, data, errorLogSampler.drainSuppressedCount());
+
+        if(completed)
+            return;
+
+        completed = true;
+
+        if(stepMetrics != null)
+            stepMetrics[nextStepIndex - 1].onStepError(stepLatency());
+
+        if(pipelineMetrics != null)
+            pipelineMetrics.onError(timed ? System.nanoTime() - startNanos : -1);
+
+        LazyMqttPipelineData.release(currentData);
+
+        if(pipelineListener != null)
+            pipelineListener.onPipelineError();
+    }
+
+    @Override
+    public void onStepSkip(ProcessingStep step, PipelineData data) {
+
+        if(stepMetrics != null && !completed)
+            stepMetrics[nextStepIndex - 1].onStepSkip(stepLatency());
+
+        if(nextStepIndex < steps.length)
+            executeNextStep(data);
+        else
+            complete(Optional.empty());
+    }
+
+    private void complete(Optional<PipelineData> result) {
+
+        if(completed)
+            return;
+
+        completed = true;
+
+        if(pipelineMetrics != null)
+            pipelineMetrics.onCompleted(timed ? System.nanoTime() - startNanos : -1, result.isPresent());
+
+        //The result is published by the worker (the publish steps report their own messages)
+        if(result.isPresent())
+            StartupReport.getDefault().onMessageForwarded();
+
+        if(pipelineListener != null)
+            pipelineListener.onPipelineDone(result);
+        else
+            result.ifPresent(LazyMqttPipelineData::release);
+    }
+
+}
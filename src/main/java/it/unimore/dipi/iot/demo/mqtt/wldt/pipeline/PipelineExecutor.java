@@ -0,0 +1,38 @@
+package it.unimore.dipi.iot.demo.mqtt.wldt.pipeline;
+
+/**
+ * Partitioned executor of the ConcurrentProcessingPipeline: tasks submitted on the same partition are executed
+ * in submission order, while different partitions can run in parallel.
+ *
+ * Implemented by the PartitionedExecutor (one thread and one bounded queue for each partition) and by the lanes
+ * of the PriorityLaneScheduler (one bounded queue for each lane and partition, sharing the partition threads).
+ *
+ * @created: 18/10/2026
+ * @project: WLDT - MQTT Example
+ */
+public interface PipelineExecutor {
+
+    /**
+     * Select the partition associated to the key
+     */
+    int partitionFor(String key);
+
+    /**
+     * Execute the task on the target partition
+     *
+     * @return false if the task has been discarded since the partition queue is full
+     */
+    boolean execute(int partition, Runnable task);
+
+    int getPartitionCount();
+
+    /**
+     * @return the number of tasks waiting in all the partition queues
+     */
+    int getQueueDepth();
+
+    long getDroppedTaskCount();
+
+    String getName();
+
+}
@@ -0,0 +1,121 @@
+package it.unimore.dipi.iot.demo.mqtt.wldt.pipeline;
+
+/**
+ * Configuration of the PriorityLaneScheduler
+ *
+ * @created: 18/10/2026
+ * @project: WLDT - MQTT Example
+ */
+public class PriorityLaneConfiguration {
+
+    public enum PriorityPolicy {
+        //A partition executes a telemetry task only when its command queue is empty
+        STRICT,
+        //A partition executes up to commandWeight command tasks for each waiting telemetry task (the telemetry is never starved)
+        WEIGHTED
+    }
+
+    private int partitionCount = Runtime.getRuntime().availableProcessors();
+
+    private PriorityPolicy priorityPolicy = PriorityPolicy.WEIGHTED;
+
+    private int commandWeight = 16;
+
+    //Queue capacity of each partition
+    private int commandQueueCapacity = 1000;
+
+    private int telemetryQueueCapacity = PartitionedExecutor.DEFAULT_QUEUE_CAPACITY;
+
+    private PartitionedExecutor.OverflowPolicy commandOverflowPolicy = PartitionedExecutor.OverflowPolicy.BLOCK;
+
+    //With DROP a telemetry burst exceeding the queues is discarded instead of slowing down the MQTT callback thread
+    private PartitionedExecutor.OverflowPolicy telemetryOverflowPolicy = PartitionedExecutor.OverflowPolicy.BLOCK;
+
+    public PriorityLaneConfiguration() {
+    }
+
+    /**
+     * @throws IllegalArgumentException if the configuration is not valid
+     */
+    public void validate() {
+
+        if(partitionCount <= 0 || commandQueueCapacity <= 0 || telemetryQueueCapacity <= 0)
+            throw new IllegalArgumentException("Partition Count and Queue Capacities must be greater than 0 !");
+
+        if(priorityPolicy == null || commandOverflowPolicy == null || telemetryOverflowPolicy == null)
+            throw new IllegalArgumentException("Priority and Overflow Policies can not be null !");
+
+        if(priorityPolicy == PriorityPolicy.WEIGHTED && commandWeight <= 0)
+            throw new IllegalArgumentException(String.format("Invalid command weight: %d", commandWeight));
+    }
+
+    public int getPartitionCount() {
+        return partitionCount;
+    }
+
+    public void setPartitionCount(int partitionCount) {
+        this.partitionCount = partitionCount;
+    }
+
+    public PriorityPolicy getPriorityPolicy() {
+        return priorityPolicy;
+    }
+
+    public void setPriorityPolicy(PriorityPolicy priorityPolicy) {
+        this.priorityPolicy = priorityPolicy;
+    }
+
+    public int getCommandWeight() {
+        return commandWeight;
+    }
+
+    public void setCommandWeight(int commandWeight) {
+        this.commandWeight = commandWeight;
+    }
+
+    public int getCommandQueueCapacity() {
+        return commandQueueCapacity;
+    }
+
+    public void setCommandQueueCapacity(int commandQueueCapacity) {
+        this.commandQueueCapacity = commandQueueCapacity;
+    }
+
+    public int getTelemetryQueueCapacity() {
+        return telemetryQueueCapacity;
+    }
+
+    public void setTelemetryQueueCapacity(int telemetryQueueCapacity) {
+        this.telemetryQueueCapacity = telemetryQueueCapacity;
+    }
+
+    public PartitionedExecutor.OverflowPolicy getCommandOverflowPolicy() {
+        return commandOverflowPolicy;
+    }
+
+    public void setCommandOverflowPolicy(PartitionedExecutor.OverflowPolicy commandOverflowPolicy) {
+        this.commandOverflowPolicy = commandOverflowPolicy;
+    }
+
+    public PartitionedExecutor.OverflowPolicy getTelemetryOverflowPolicy() {
+        return telemetryOverflowPolicy;
+    }
+
+    public void setTelemetryOverflowPolicy(PartitionedExecutor.OverflowPolicy telemetryOverflowPolicy) {
+        this.telemetryOverflowPolicy = telemetryOverflowPolicy;
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder("PriorityLaneConfiguration{");
+        sb.append("partitionCount=").append(partitionCount);
+        sb.append(", priorityPolicy=").append(priorityPolicy);
+        sb.append(", commandWeight=").append(commandWeight);
+        sb.append(", commandQueueCapacity=").append(commandQueueCapacity);
+        sb.append(", telemetryQueueCapacity=").append(telemetryQueueCapacity);
+        sb.append(", commandOverflowPolicy=").append(commandOverflowPolicy);
+        sb.append(", telemetryOverflowPolicy=").append(telemetryOverflowPolicy);
+        sb.append('}');
+        return sb.toString();
+    }
+}
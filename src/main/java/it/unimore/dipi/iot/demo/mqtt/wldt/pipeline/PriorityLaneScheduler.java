@@ -0,0 +1,286 @@
+package it.unimore.dipi.iot.demo.mqtt.wldt.pipeline;
+
+import it.unimore.dipi.iot.wldt.worker.mqtt.MqttTopicDescriptor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Scheduler processing the command and the telemetry pipelines in separate lanes, so a telemetry burst does not delay
+ * the commands received in the meantime.
+ *
+ * Each lane is a PipelineExecutor with its own bounded queue (and overflow policy) on each partition, while the lanes
+ * share the partition threads: the thread of a partition executes the command tasks first (PriorityPolicy.STRICT) or up to
+ * commandWeight command tasks for each waiting telemetry task (PriorityPolicy.WEIGHTED). A command therefore waits at most
+ * for the telemetry task already running on its partition, and a full telemetry queue only blocks (or drops) the telemetry.
+ *
+ * The lane of a pipeline is selected by the type of its MqttTopicDescriptor (laneFor()): device incoming topics (commands)
+ * are processed in the command lane, device outgoing topics (telemetry) in the telemetry lane. Messages of the same topic
+ * are always processed by the same lane and partition, keeping the per-topic ordering.
+ *
+ * @created: 18/10/2026
+ * @project: WLDT - MQTT Example
+ */
+public class PriorityLaneScheduler {
+
+    private static final Logger logger = LoggerFactory.getLogger(PriorityLaneScheduler.class);
+
+    //Partition threads check the shutdown flag when idle
+    private static final long IDLE_POLL_TIMEOUT_MS = 100;
+
+    /**
+     * Lane of the scheduler: its tasks are queued in the lane queue of the target partition
+     */
+    public final class Lane implements PipelineExecutor {
+
+        private final String name;
+
+        private final boolean command;
+
+        private final PartitionedExecutor.OverflowPolicy overflowPolicy;
+
+        private final LongAdder droppedTaskCount = new LongAdder();
+
+        private Lane(String name, boolean command, PartitionedExecutor.OverflowPolicy overflowPolicy) {
+            this.name = name;
+            this.command = command;
+            this.overflowPolicy = overflowPolicy;
+        }
+
+        @Override
+        public int partitionFor(String key) {
+            return PartitionedExecutor.partitionFor(key, partitions.length);
+        }
+
+        @Override
+        public boolean execute(int partition, Runnable task) {
+
+            //Registered before checking the shutdown flag: the partition threads do not terminate while a task is being queued
+            submitting.incrementAndGet();
+
+            try{
+
+                if(shutdown)
+                    throw new RejectedExecutionException(String.format("Scheduler %s is shutdown !", PriorityLaneScheduler.this.name));
+
+                Partition target = partitions[partition];
+                BlockingQueue<Runnable> queue = target.queue(command);
+
+                if(overflowPolicy == PartitionedExecutor.OverflowPolicy.DROP){
+                    if(!queue.offer(task)){
+                        droppedTaskCount.increment();
+                        return false;
+                    }
+                }
+                else {
+                    try {
+                        queue.put(task);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        throw new RejectedExecutionException("Interrupted while waiting for lane queue space !", e);
+                    }
+                }
+
+                target.pending.release();
+
+                return true;
+
+            }finally {
+                submitting.decrementAndGet();
+            }
+        }
+
+        @Override
+        public int getPartitionCount() {
+            return partitions.length;
+        }
+
+        @Override
+        public int getQueueDepth() {
+            int depth = 0;
+            for(Partition partition : partitions)
+                depth += partition.queue(command).size();
+            return depth;
+        }
+
+        @Override
+        public long getDroppedTaskCount() {
+            return droppedTaskCount.sum();
+        }
+
+        @Override
+        public String getName() {
+            return name;
+        }
+    }
+
+    /**
+     * Thread and lane queues of a partition
+     */
+    private final class Partition implements Runnable {
+
+        private final BlockingQueue<Runnable> commandQueue;
+
+        private final BlockingQueue<Runnable> telemetryQueue;
+
+        //One permit for each queued task of the partition (of any lane)
+        private final Semaphore pending = new Semaphore(0);
+
+        private final Thread thread;
+
+        //Command tasks executed since the last telemetry task (only accessed by the partition thread)
+        private long commandStreak = 0;
+
+        private Partition(int index) {
+            this.commandQueue = new ArrayBlockingQueue<>(configuration.getCommandQueueCapacity());
+            this.telemetryQueue = new ArrayBlockingQueue<>(configuration.getTelemetryQueueCapacity());
+            this.thread = new Thread(this, String.format("%s-%d", name, index));
+            this.thread.setDaemon(true);
+        }
+
+        private BlockingQueue<Runnable> queue(boolean command) {
+            return command ? commandQueue : telemetryQueue;
+        }
+
+        @Override
+        public void run() {
+
+            while(true){
+
+                try{
+                    if(!pending.tryAcquire(IDLE_POLL_TIMEOUT_MS, TimeUnit.MILLISECONDS)){
+                        //Terminate only when no task can still be queued: a submitter blocked on a full queue is waiting for this thread
+                        if(shutdown && submitting.get() == 0 && pending.availablePermits() == 0)
+                            break;
+                        continue;
+                    }
+                }catch (InterruptedException e){
+                    break;
+                }
+
+                Runnable task = next();
+
+                try{
+                    task.run();
+                }catch (RuntimeException e){
+                    logger.error("Task error on {}: {}", thread.getName(), e.getLocalizedMessage());
+                }
+            }
+        }
+
+        /**
+         * Select the next task according to the priority policy. The acquired permit guarantees that at least one of the
+         * queues is not empty, and only the partition thread removes tasks from them.
+         */
+        private Runnable next() {
+
+            Runnable task;
+
+            if(configuration.getPriorityPolicy() == PriorityLaneConfiguration.PriorityPolicy.STRICT || commandStreak < configuration.getCommandWeight()){
+                if((task = commandQueue.poll()) != null){
+                    commandStreak++;
+                    return task;
+                }
+            }
+
+            if((task = telemetryQueue.poll()) != null){
+                commandStreak = 0;
+                return task;
+            }
+
+            commandStreak++;
+            return commandQueue.poll();
+        }
+    }
+
+    private final String name;
+
+    private final PriorityLaneConfiguration configuration;
+
+    private final Partition[] partitions;
+
+    private final Lane commandLane;
+
+    private final Lane telemetryLane;
+
+    private volatile boolean shutdown = false;
+
+    //Threads queuing a task (execute() in progress on any lane)
+    private final AtomicInteger submitting = new AtomicInteger();
+
+    public PriorityLaneScheduler(String name, PriorityLaneConfiguration configuration) {
+
+        configuration.validate();
+
+        this.name = name;
+        this.configuration = configuration;
+
+        this.commandLane = new Lane(String.format("%s-command", name), true, configuration.getCommandOverflowPolicy());
+        this.telemetryLane = new Lane(String.format("%s-telemetry", name), false, configuration.getTelemetryOverflowPolicy());
+
+        this.partitions = new Partition[configuration.getPartitionCount()];
+
+        for(int i = 0; i < partitions.length; i++)
+            partitions[i] = new Partition(i);
+
+        for(Partition partition : partitions)
+            partition.thread.start();
+
+        logger.info("PriorityLaneScheduler {} created ! Configuration: {}", name, configuration);
+    }
+
+    /**
+     * @return the command lane for device incoming topics, the telemetry lane otherwise
+     */
+    public Lane laneFor(String topicType) {
+        return MqttTopicDescriptor.MQTT_TOPIC_TYPE_DEVICE_INCOMING.equals(topicType) ? commandLane : telemetryLane;
+    }
+
+    public Lane laneFor(MqttTopicDescriptor topicDescriptor) {
+        return laneFor(topicDescriptor.getType());
+    }
+
+    public Lane getCommandLane() {
+        return commandLane;
+    }
+
+    public Lane getTelemetryLane() {
+        return telemetryLane;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public PriorityLaneConfiguration getConfiguration() {
+        return configuration;
+    }
+
+    /**
+     * Reject the next tasks, the queued ones are executed before the partition threads terminate
+     */
+    public void shutdown() {
+        this.shutdown = true;
+    }
+
+    public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+
+        for(Partition partition : partitions){
+            partition.thread.join(Math.max(1, TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime())));
+            if(partition.thread.isAlive())
+                return false;
+        }
+
+        return true;
+    }
+
+}
@@ -0,0 +1,162 @@
+package it.unimore.dipi.iot.demo.mqtt.wldt.pipeline;
+
+import it.unimore.dipi.iot.demo.mqtt.wldt.topic.TopicMatch;
+import it.unimore.dipi.iot.demo.mqtt.wldt.topic.TopicTrie;
+import it.unimore.dipi.iot.wldt.exception.ProcessingPipelineException;
+import it.unimore.dipi.iot.wldt.processing.PipelineData;
+import it.unimore.dipi.iot.wldt.processing.ProcessingPipeline;
+import it.unimore.dipi.iot.wldt.processing.ProcessingPipelineListener;
+import it.unimore.dipi.iot.wldt.processing.ProcessingStep;
+import it.unimore.dipi.iot.wldt.worker.mqtt.MqttPipelineData;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.LinkedHashSet;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * ProcessingPipeline that can be registered on the Mqtt2MqttWorker for a topic id (E.g. a MqttTopicDescriptor mirroring
+ * all the devices through the + device id) and forwards each message to the pipelines registered for the patterns
+ * matching its concrete topic (E.g. telemetry/{{device_id}}/resource/humidity or telemetry/+/resource/#).
+ *
+ * Routes are kept in a TopicTrie: the lookup cost depends on the topic depth and not on the number of routes, it does not
+ * allocate and routes can be added or removed while messages are processed without blocking the lookups.
+ * Each matching pipeline receives the same message once (even when registered for more matching patterns) and
+ * notifies the worker listener, a message without routes
+ * completes with an empty result. Steps added or removed through the ProcessingPipeline interface are applied
+ * to all the routed pipelines.
+ *
+ * @created: 18/10/2026
+ * @project: WLDT - MQTT Example
+ */
+public class TopicRoutingPipeline extends ProcessingPipeline {
+
+    private static final Logger logger = LoggerFactory.getLogger(TopicRoutingPipeline.class);
+
+    private final TopicTrie<ProcessingPipeline> routes = new TopicTrie<>();
+
+    private final ThreadLocal<TopicMatch<ProcessingPipeline>> topicMatch = ThreadLocal.withInitial(TopicMatch::new);
+
+    public TopicRoutingPipeline() {
+        super();
+    }
+
+    /**
+     * @param pattern MQTT topic filter, optionally with template placeholders (E.g. {{device_id}})
+     * @throws IllegalArgumentException if the pattern is not valid
+     */
+    public TopicRoutingPipeline addRoute(String pattern, ProcessingPipeline pipeline) {
+        routes.add(pattern, pipeline);
+        return this;
+    }
+
+    public boolean removeRoute(String pattern, ProcessingPipeline pipeline) {
+        return routes.remove(pattern, pipeline);
+    }
+
+    /**
+     * @return the distinct pipelines of all the routes
+     */
+    public Set<ProcessingPipeline> getRoutedPipelines() {
+        Set<ProcessingPipeline> pipelines = new LinkedHashSet<>();
+        for(TopicTrie.Entry<ProcessingPipeline> entry : routes.entries())
+            pipelines.add(entry.getValue());
+        return pipelines;
+    }
+
+    /**
+     * Append the step to all the routed pipelines (a pipeline registered for more patterns gets it once)
+     */
+    @Override
+    public void addStep(ProcessingStep step) {
+        for(ProcessingPipeline pipeline : getRoutedPipelines())
+            pipeline.addStep(step);
+    }
+
+    /**
+     * Remove the step from all the routed pipelines
+     */
+    @Override
+    public void removeStep(ProcessingStep step) {
+        for(ProcessingPipeline pipeline : getRoutedPipelines())
+            pipeline.removeStep(step);
+    }
+
+    @Override
+    public int getSize() {
+        return routes.size();
+    }
+
+    @Override
+    public void start(PipelineData data, ProcessingPipelineListener listener) throws ProcessingPipelineException {
+
+        if(!(data instanceof MqttPipelineData) || ((MqttPipelineData) data).getTopic() == null)
+            throw new ProcessingPipelineException(String.format("Wrong PipelineData for TopicRoutingPipeline ! Data type: %s", data != null ? data.getClass() : null));
+
+        TopicMatch<ProcessingPipeline> result = topicMatch.get();
+
+        if(routes.match(((MqttPipelineData) data).getTopic(), result) == 0){
+
+            if(logger.isDebugEnabled())
+                logger.debug("No route for topic: {}", ((MqttPipelineData) data).getTopic());
+
+            if(listener != null)
+                listener.onPipelineDone(Optional.empty());
+
+            return;
+        }
+
+        //The match is reused by the next lookup of this thread (E.g. a nested TopicRoutingPipeline): multiple pipelines are copied before starting them
+        int size = result.size();
+
+        if(size == 1){
+            result.getValue(0).start(data, listener);
+            return;
+        }
+
+        //A pipeline registered for overlapping patterns (E.g. a/+ and a/#) is matched more times but started once
+        ProcessingPipeline[] pipelines = new ProcessingPipeline[size];
+        int pipelineCount = 0;
+
+        for(int i = 0; i < size; i++){
+
+            ProcessingPipeline pipeline = result.getValue(i);
+            boolean duplicated = false;
+
+            for(int j = 0; j < pipelineCount && !duplicated; j++)
+                duplicated = pipelines[j] == pipeline;
+
+            if(!duplicated)
+                pipelines[pipelineCount++] = pipeline;
+        }
+
+        if(pipelineCount == 1){
+            pipelines[0].start(data, listener);
+            return;
+        }
+
+        //Each pipeline gets its own copy of the data when a step modifies it
+        if(data instanceof LazyMqttPipelineData)
+            ((LazyMqttPipelineData) data).share();
+
+        for(int i = 0; i < pipelineCount; i++)
+            pipelines[i].start(data, listener);
+    }
+
+    @Override
+    public void onStepDone(ProcessingStep step, Optional<PipelineData> result) {
+        logger.error("Unexpected onStepDone() callback on TopicRoutingPipeline ! Step results are handled by the routed pipelines");
+    }
+
+    @Override
+    public void onStepError(ProcessingStep step, PipelineData data, String errorMessage) {
+        logger.error("Unexpected onStepError() callback on TopicRoutingPipeline ! Step: {} Error: {}", step, errorMessage);
+    }
+
+    @Override
+    public void onStepSkip(ProcessingStep step, PipelineData data) {
+        logger.error("Unexpected onStepSkip() callback on TopicRoutingPipeline ! Step results are handled by the routed pipelines");
+    }
+
+}
@@ -0,0 +1,16 @@
+package it.unimore.dipi.iot.demo.mqtt.wldt.publish;
+
+/**
+ * Listener notified when the outgoing buffer of a BatchingMqttPublisher crosses
+ * the configured high (back-pressure on) and low (back-pressure off) watermarks
+ *
+ * @created: 18/10/2026
+ * @project: WLDT - MQTT Example
+ */
+public interface BackPressureListener {
+
+    public void onBackPressureOn(int queueDepth, int inFlightCount);
+
+    public void onBackPressureOff(int queueDepth, int inFlightCount);
+
+}
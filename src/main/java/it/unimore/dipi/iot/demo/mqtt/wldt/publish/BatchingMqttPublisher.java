@@ -0,0 +1,426 @@
+package it.unimore.dipi.iot.demo.mqtt.wldt.publish;
+
+import it.unimore.dipi.iot.demo.mqtt.utils.LogSampler;
+import it.unimore.dipi.iot.demo.mqtt.wldt.pipeline.LazyMqttPipelineData;
+import it.unimore.dipi.iot.wldt.processing.PipelineData;
+import it.unimore.dipi.iot.wldt.worker.mqtt.MqttPipelineData;
+import org.eclipse.paho.client.mqttv3.IMqttActionListener;
+import org.eclipse.paho.client.mqttv3.IMqttAsyncClient;
+import org.eclipse.paho.client.mqttv3.IMqttToken;
+import org.eclipse.paho.client.mqttv3.MqttAsyncClient;
+import org.eclipse.paho.client.mqttv3.MqttConnectOptions;
+import org.eclipse.paho.client.mqttv3.MqttException;
+import org.eclipse.paho.client.mqttv3.persist.MemoryPersistence;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Outgoing publish stage towards the destination broker.
+ *
+ * MqttPipelineData results are buffered in a bounded queue and flushed by a dedicated thread
+ * when the batch reaches the configured size or the linger time expires. Messages are published through
+ * the asynchronous Paho client keeping at most maxInFlight unacknowledged messages (windowed in-flight control),
+ * so the forwarding throughput is not bounded by the round trip time of each single QoS 1 publish.
+ *
+ * The session is clean, so the unacknowledged messages are failed by the client when the connection is lost:
+ * they are kept in a retry queue and published again (before the buffered ones) after the automatic reconnection.
+ * Messages refused by the client for a transient reason (E.g. REASON_CODE_MAX_INFLIGHT) are retried as well.
+ *
+ * The buffer exposes back-pressure signals: publish() returns false when the buffer is full and the
+ * optional BackPressureListener is notified when the buffer crosses the high and low watermarks.
+ *
+ * @created: 18/10/2026
+ * @project: WLDT - MQTT Example
+ */
+public class BatchingMqttPublisher implements OutgoingPublisher {
+
+    private static final Logger logger = LoggerFactory.getLogger(BatchingMqttPublisher.class);
+
+    private static final long IDLE_POLL_TIMEOUT_MS = 100;
+
+    private static final long RECONNECTION_WAIT_MS = 100;
+
+    private static final long RETRY_WAIT_MS = 10;
+
+    private static final LogSampler retryLogSampler = LogSampler.perSecond(1);
+
+    private final BatchingMqttPublisherConfiguration configuration;
+
+    private final BlockingQueue<MqttPipelineData> buffer;
+
+    //Messages failed by a connection loss, at most maxInFlight
+    private final Queue<MqttPipelineData> retryQueue = new ConcurrentLinkedQueue<>();
+
+    private final Semaphore inFlightPermits;
+
+    private final int highWatermarkSize;
+
+    private final int lowWatermarkSize;
+
+    private final AtomicBoolean backPressured = new AtomicBoolean(false);
+
+    private final LongAdder publishedCount = new LongAdder();
+
+    private final LongAdder failedCount = new LongAdder();
+
+    private final LongAdder rejectedCount = new LongAdder();
+
+    private final LongAdder batchCount = new LongAdder();
+
+    private final LongAdder retriedCount = new LongAdder();
+
+    private final IMqttActionListener deliveryListener;
+
+    private volatile BackPressureListener backPressureListener;
+
+    private volatile boolean running = false;
+
+    private IMqttAsyncClient mqttClient;
+
+    private Thread flusherThread;
+
+    public BatchingMqttPublisher(BatchingMqttPublisherConfiguration configuration) {
+
+        configuration.validate();
+
+        this.configuration = configuration;
+        this.buffer = new ArrayBlockingQueue<>(configuration.getBufferCapacity());
+        this.inFlightPermits = new Semaphore(configuration.getMaxInFlight());
+        this.highWatermarkSize = (int) (configuration.getBufferCapacity() * configuration.getHighWatermark());
+        this.lowWatermarkSize = (int) (configuration.getBufferCapacity() * configuration.getLowWatermark());
+
+        //Single listener instance shared by all the publish operations
+        this.deliveryListener = new IMqttActionListener() {
+
+            @Override
+            public void onSuccess(IMqttToken asyncActionToken) {
+                inFlightPermits.release();
+                publishedCount.increment();
+                LazyMqttPipelineData.release((PipelineData) asyncActionToken.getUserContext());
+            }
+
+            @Override
+            public void onFailure(IMqttToken asyncActionToken, Throwable exception) {
+
+                inFlightPermits.release();
+
+                //The message has not been acknowledged before the connection loss: it is published again after the reconnection
+                if(running && isConnectionError(exception)){
+                    retriedCount.increment();
+                    retryQueue.offer((MqttPipelineData) asyncActionToken.getUserContext());
+                    return;
+                }
+
+                failedCount.increment();
+                logger.error("Error publishing message: {}", exception != null ? exception.getLocalizedMessage() : "unknown error");
+                LazyMqttPipelineData.release((PipelineData) asyncActionToken.getUserContext());
+            }
+        };
+    }
+
+    /**
+     * Connect to the destination broker and start the flusher thread
+     */
+    @Override
+    public synchronized void start() throws MqttException {
+
+        if(running)
+            return;
+
+        String clientId = configuration.getClientId() != null ? configuration.getClientId() : UUID.randomUUID().toString();
+
+        this.mqttClient = new MqttAsyncClient(configuration.getBrokerUrl(), clientId, new MemoryPersistence());
+
+        MqttConnectOptions options = new MqttConnectOptions();
+        options.setAutomaticReconnect(true);
+        options.setCleanSession(true);
+        options.setConnectionTimeout(10);
+        options.setMaxInflight(configuration.getMaxInFlight());
+
+        this.mqttClient.connect(options).waitForCompletion();
+
+        logger.info("BatchingMqttPublisher connected to {} ! Client Id: {}", configuration.getBrokerUrl(), clientId);
+
+        this.running = true;
+        this.flusherThread = new Thread(this::flushLoop, String.format("wldt-batching-publisher-%s", clientId));
+        this.flusherThread.setDaemon(true);
+        this.flusherThread.start();
+    }
+
+    /**
+     * Enqueue a message for the next batch. The method never blocks the caller.
+     *
+     * @param data message to publish
+     * @return false if the outgoing buffer is full and the message has been rejected
+     */
+    @Override
+    public boolean publish(MqttPipelineData data) {
+
+        if(data == null || data.getTopic() == null || data.getPayload() == null)
+            return false;
+
+        if(!buffer.offer(data)){
+            rejectedCount.increment();
+            notifyBackPressureOn();
+            return false;
+        }
+
+        if(buffer.size() >= highWatermarkSize)
+            notifyBackPressureOn();
+
+        return true;
+    }
+
+    private void flushLoop() {
+
+        List<MqttPipelineData> batch = new ArrayList<>(configuration.getMaxBatchSize());
+        long lingerNanos = TimeUnit.MILLISECONDS.toNanos(configuration.getLingerMs());
+
+        while(running || !buffer.isEmpty() || !retryQueue.isEmpty()){
+
+            try{
+
+                //The messages failed by a connection loss are published before the buffered ones
+                MqttPipelineData retried;
+                while(batch.size() < configuration.getMaxBatchSize() && (retried = retryQueue.poll()) != null)
+                    batch.add(retried);
+
+                if(batch.isEmpty()){
+
+                    MqttPipelineData first = buffer.poll(IDLE_POLL_TIMEOUT_MS, TimeUnit.MILLISECONDS);
+
+                    if(first == null)
+                        continue;
+
+                    batch.add(first);
+                }
+
+                long deadline = System.nanoTime() + lingerNanos;
+
+                //Fill the batch until it is full or the linger time expires
+                while(batch.size() < configuration.getMaxBatchSize()){
+
+                    buffer.drainTo(batch, configuration.getMaxBatchSize() - batch.size());
+
+                    long remaining = deadline - System.nanoTime();
+
+                    if(batch.size() >= configuration.getMaxBatchSize() || remaining <= 0)
+                        break;
+
+                    MqttPipelineData next = buffer.poll(remaining, TimeUnit.NANOSECONDS);
+
+                    if(next == null)
+                        break;
+
+                    batch.add(next);
+                }
+
+                flush(batch);
+                batch.clear();
+
+                if(backPressured.get() && buffer.size() <= lowWatermarkSize)
+                    notifyBackPressureOff();
+
+            }catch (InterruptedException e){
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+
+        logger.info("BatchingMqttPublisher flusher stopped ! Published: {} Failed: {} Rejected: {} Retried: {}", getPublishedCount(), getFailedCount(), getRejectedCount(), getRetriedCount());
+    }
+
+    private void flush(List<MqttPipelineData> batch) throws InterruptedException {
+
+        int index = 0;
+
+        try{
+
+            awaitConnection();
+
+            for(; index < batch.size(); index++){
+
+                MqttPipelineData data = batch.get(index);
+
+                inFlightPermits.acquire();
+
+                //The connection can be lost in the middle of the batch: the message is kept and retried after the reconnection
+                while(!send(data))
+                    awaitRetry();
+            }
+
+        }catch (InterruptedException e){
+            //Stopped while waiting: the messages not handed to the client are discarded
+            for(; index < batch.size(); index++)
+                LazyMqttPipelineData.release(batch.get(index));
+            throw e;
+        }
+
+        batchCount.increment();
+    }
+
+    /**
+     * @return false if the message has to be published again (the client is disconnected or it has refused the message
+     * for a transient reason, E.g. REASON_CODE_MAX_INFLIGHT), true if it has been handed to the client or discarded
+     * because the client has been closed (the in-flight permit is released)
+     */
+    private boolean send(MqttPipelineData data) {
+
+        try{
+            //The payload of a pooled message is recycled once it has been delivered
+            mqttClient.publish(data.getTopic(), data.getPayload(), configuration.getQos(), data.isRetained(), data, deliveryListener);
+            return true;
+        }catch (MqttException e){
+
+            if(isConnectionError(e)){
+                logger.warn("Connection lost publishing on topic {}: {} ! Waiting for the reconnection ...", data.getTopic(), e.getLocalizedMessage());
+                return false;
+            }
+
+            if(e.getReasonCode() != MqttException.REASON_CODE_CLIENT_CLOSED){
+                if(retryLogSampler.sample())
+                    logger.warn("Message on topic {} refused by the client: {} ! Retrying ... Suppressed: {}", data.getTopic(), e.getLocalizedMessage(), retryLogSampler.drainSuppressedCount());
+                return false;
+            }
+
+            inFlightPermits.release();
+            failedCount.increment();
+            logger.error("Error publishing message on topic {}: {}", data.getTopic(), e.getLocalizedMessage());
+            LazyMqttPipelineData.release(data);
+            return true;
+        }
+    }
+
+    private boolean isConnectionError(Throwable e) {
+
+        int reasonCode = e instanceof MqttException ? ((MqttException) e).getReasonCode() : -1;
+
+        return !mqttClient.isConnected()
+                || reasonCode == MqttException.REASON_CODE_CLIENT_NOT_CONNECTED
+                || reasonCode == MqttException.REASON_CODE_CONNECTION_LOST
+                || reasonCode == MqttException.REASON_CODE_CLIENT_DISCONNECTING;
+    }
+
+    private void awaitConnection() throws InterruptedException {
+        //Keep the messages until the automatic reconnection completes
+        while(!mqttClient.isConnected())
+            Thread.sleep(RECONNECTION_WAIT_MS);
+    }
+
+    private void awaitRetry() throws InterruptedException {
+        if(mqttClient.isConnected())
+            Thread.sleep(RETRY_WAIT_MS);
+        else
+            awaitConnection();
+    }
+
+    private void notifyBackPressureOn() {
+        if(backPressured.compareAndSet(false, true)){
+            logger.warn("Outgoing buffer above the high watermark ! Queue depth: {} In flight: {}", buffer.size(), getInFlightCount());
+            BackPressureListener listener = this.backPressureListener;
+            if(listener != null)
+                listener.onBackPressureOn(buffer.size(), getInFlightCount());
+        }
+    }
+
+    private void notifyBackPressureOff() {
+        if(backPressured.compareAndSet(true, false)){
+            logger.info("Outgoing buffer below the low watermark ! Queue depth: {} In flight: {}", buffer.size(), getInFlightCount());
+            BackPressureListener listener = this.backPressureListener;
+            if(listener != null)
+                listener.onBackPressureOff(buffer.size(), getInFlightCount());
+        }
+    }
+
+    /**
+     * Stop accepting new messages, flush the buffered ones and disconnect from the broker
+     *
+     * @param timeoutMs max time to wait for the buffered messages to be flushed
+     */
+    @Override
+    public synchronized void stop(long timeoutMs) {
+
+        if(!running)
+            return;
+
+        running = false;
+
+        try{
+
+            flusherThread.join(timeoutMs);
+
+            if(flusherThread.isAlive()){
+                logger.warn("BatchingMqttPublisher flusher still running after {} ms ! Discarding {} buffered messages", timeoutMs, buffer.size());
+                flusherThread.interrupt();
+            }
+
+            mqttClient.disconnect().waitForCompletion(timeoutMs);
+            mqttClient.close();
+
+        }catch (Exception e){
+            logger.error("Error stopping BatchingMqttPublisher: {}", e.getLocalizedMessage());
+        }
+    }
+
+    public boolean isBackPressured() {
+        return backPressured.get();
+    }
+
+    @Override
+    public int getQueueDepth() {
+        return buffer.size();
+    }
+
+    public int getInFlightCount() {
+        return configuration.getMaxInFlight() - inFlightPermits.availablePermits();
+    }
+
+    public long getPublishedCount() {
+        return publishedCount.sum();
+    }
+
+    public long getFailedCount() {
+        return failedCount.sum();
+    }
+
+    public long getRejectedCount() {
+        return rejectedCount.sum();
+    }
+
+    public long getBatchCount() {
+        return batchCount.sum();
+    }
+
+    /**
+     * @return messages failed by a connection loss and queued to be published again
+     */
+    public long getRetriedCount() {
+        return retriedCount.sum();
+    }
+
+    public void setBackPressureListener(BackPressureListener backPressureListener) {
+        this.backPressureListener = backPressureListener;
+    }
+
+    @Override
+    public String getClientId() {
+        return mqttClient != null ? mqttClient.getClientId() : configuration.getClientId();
+    }
+
+    public BatchingMqttPublisherConfiguration getConfiguration() {
+        return configuration;
+    }
+
+}
@@ -0,0 +1,157 @@
+package it.unimore.dipi.iot.demo.mqtt.wldt.publish;
+
+/**
+ * Configuration of the BatchingMqttPublisher
+ *
+ * @created: 18/10/2026
+ * @project: WLDT - MQTT Example
+ */
+public class BatchingMqttPublisherConfiguration {
+
+    private String brokerAddress = "127.0.0.1";
+
+    private int brokerPort = 1884;
+
+    private String clientId = null;
+
+    private int qos = 1;
+
+    private int maxBatchSize = 100;
+
+    private long lingerMs = 5;
+
+    private int maxInFlight = 1000;
+
+    private int bufferCapacity = 50000;
+
+    private double highWatermark = 0.8;
+
+    private double lowWatermark = 0.5;
+
+    public BatchingMqttPublisherConfiguration() {
+    }
+
+    public BatchingMqttPublisherConfiguration(String brokerAddress, int brokerPort) {
+        this.brokerAddress = brokerAddress;
+        this.brokerPort = brokerPort;
+    }
+
+    /**
+     * @throws IllegalArgumentException if the configuration is not valid
+     */
+    public void validate() {
+
+        if(brokerAddress == null || brokerPort <= 0)
+            throw new IllegalArgumentException("Invalid Broker Address or Port !");
+
+        if(qos < 0 || qos > 2)
+            throw new IllegalArgumentException(String.format("Invalid QoS: %d", qos));
+
+        if(maxBatchSize <= 0 || lingerMs < 0 || maxInFlight <= 0 || bufferCapacity <= 0)
+            throw new IllegalArgumentException("Max Batch Size, Max In Flight and Buffer Capacity must be greater than 0 and Linger can not be negative !");
+
+        if(lowWatermark < 0.0 || highWatermark > 1.0 || lowWatermark >= highWatermark)
+            throw new IllegalArgumentException("Watermarks must be in the range [0,1] with Low Watermark < High Watermark !");
+    }
+
+    public String getBrokerUrl() {
+        return String.format("tcp://%s:%d", brokerAddress, brokerPort);
+    }
+
+    public String getBrokerAddress() {
+        return brokerAddress;
+    }
+
+    public void setBrokerAddress(String brokerAddress) {
+        this.brokerAddress = brokerAddress;
+    }
+
+    public int getBrokerPort() {
+        return brokerPort;
+    }
+
+    public void setBrokerPort(int brokerPort) {
+        this.brokerPort = brokerPort;
+    }
+
+    public String getClientId() {
+        return clientId;
+    }
+
+    public void setClientId(String clientId) {
+        this.clientId = clientId;
+    }
+
+    public int getQos() {
+        return qos;
+    }
+
+    public void setQos(int qos) {
+        this.qos = qos;
+    }
+
+    public int getMaxBatchSize() {
+        return maxBatchSize;
+    }
+
+    public void setMaxBatchSize(int maxBatchSize) {
+        this.maxBatchSize = maxBatchSize;
+    }
+
+    public long getLingerMs() {
+        return lingerMs;
+    }
+
+    public void setLingerMs(long lingerMs) {
+        this.lingerMs = lingerMs;
+    }
+
+    public int getMaxInFlight() {
+        return maxInFlight;
+    }
+
+    public void setMaxInFlight(int maxInFlight) {
+        this.maxInFlight = maxInFlight;
+    }
+
+    public int getBufferCapacity() {
+        return bufferCapacity;
+    }
+
+    public void setBufferCapacity(int bufferCapacity) {
+        this.bufferCapacity = bufferCapacity;
+    }
+
+    public double getHighWatermark() {
+        return highWatermark;
+    }
+
+    public void setHighWatermark(double highWatermark) {
+        this.highWatermark = highWatermark;
+    }
+
+    public double getLowWatermark() {
+        return lowWatermark;
+    }
+
+    public void setLowWatermark(double lowWatermark) {
+        this.lowWatermark = lowWatermark;
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder("BatchingMqttPublisherConfiguration{");
+        sb.append("brokerAddress='").append(brokerAddress).append('\'');
+        sb.append(", brokerPort=").append(brokerPort);
+        sb.append(", clientId='").append(clientId).append('\'');
+        sb.append(", qos=").append(qos);
+        sb.append(", maxBatchSize=").append(maxBatchSize);
+        sb.append(", lingerMs=").append(lingerMs);
+        sb.append(", maxInFlight=").append(maxInFlight);
+        sb.append(", bufferCapacity=").append(bufferCapacity);
+        sb.append(", highWatermark=").append(highWatermark);
+        sb.append(", lowWatermark=").append(lowWatermark);
+        sb.append('}');
+        return sb.toString();
+    }
+}
@@ -0,0 +1,31 @@
+package it.unimore.dipi.iot.demo.mqtt.wldt.publish;
+
+import it.unimore.dipi.iot.wldt.worker.mqtt.MqttPipelineData;
+import org.eclipse.paho.client.mqttv3.MqttException;
+
+/**
+ * Outgoing publish stage used by the MqttPublishStep: processed messages are handed to the publisher
+ * that delivers them to the target broker without blocking the processing threads
+ *
+ * @created: 18/10/2026
+ * @project: WLDT - MQTT Example
+ */
+public interface OutgoingPublisher {
+
+    public void start() throws MqttException;
+
+    /**
+     * When the message is accepted the publisher becomes its owner and releases it (LazyMqttPipelineData.release())
+     * once it is no longer needed, a rejected message still belongs to the caller.
+     *
+     * @return false if the message has been rejected and will not be delivered
+     */
+    public boolean publish(MqttPipelineData data);
+
+    public void stop(long timeoutMs);
+
+    public int getQueueDepth();
+
+    public String getClientId();
+
+}
@@ -0,0 +1,657 @@
+package it.unimore.dipi.iot.demo.mqtt.wldt.publish;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only log of outgoing MQTT messages stored in memory-mapped segment files.
+ *
+ * Records are appended to the active segment (a preallocated file named after its index, E.g. 00000000000000000003.log)
+ * and the log rolls to the next segment when the record does not fit in the remaining space. The next segment is
+ * created and mapped in advance by preallocateNextSegment(), so an append does not create files in the common case.
+ * Each record is stored as:
+ *
+ * [body length (int)][CRC32 of the body (int)][flags (byte)][topic length (short)][topic (UTF-8)][payload]
+ *
+ * The position of a record is the index of its segment (high 32 bits) and its offset in the segment (low 32 bits).
+ * The position of the first record not yet acknowledged by the broker is stored in a memory-mapped checkpoint file,
+ * so after a restart (or a crash) the records are replayed starting from it: the delivery is at least once.
+ * Writes to the mappings reach the page cache without system calls, they survive a crash of the process
+ * while force() writes them to the disk (E.g. to survive a power loss): the segments left by a roll since the last
+ * force() are written as well.
+ *
+ * When the log is opened the last segment is scanned to find the end of the valid records (a torn record of a crash
+ * fails the length or the CRC check) and the remaining space is cleared.
+ * Old segments are deleted by enforceRetention() when the log exceeds the retained bytes or when they are older than
+ * the retention time, records not delivered yet are counted as expired.
+ *
+ * Appends are serialized by the log while a single reader (the drainer of the StoreAndForwardMqttPublisher)
+ * reads the records up to the last published write position without locks. The maintenance tasks (force(),
+ * preallocateNextSegment() and enforceRetention()) are expected to run on the reader thread, not on the appending one.
+ *
+ * @created: 18/10/2026
+ * @project: WLDT - MQTT Example
+ */
+public class SegmentLog {
+
+    private static final Logger logger = LoggerFactory.getLogger(SegmentLog.class);
+
+    //Body length and CRC32
+    private static final int RECORD_HEADER_SIZE = 8;
+
+    //Flags and topic length
+    private static final int RECORD_BODY_HEADER_SIZE = 3;
+
+    //Written in place of the body length when the next record does not fit in the segment
+    private static final int SEGMENT_END_MARKER = -1;
+
+    private static final byte RETAINED_FLAG = 0x01;
+
+    private static final int MAX_TOPIC_LENGTH = 0xFFFF;
+
+    private static final String SEGMENT_FILE_SUFFIX = ".log";
+
+    private static final String SEGMENT_FILE_FORMAT = "%020d" + SEGMENT_FILE_SUFFIX;
+
+    private static final String CHECKPOINT_FILE_NAME = "checkpoint";
+
+    //Committed position and committed position ^ CHECKPOINT_MAGIC to detect a torn checkpoint
+    private static final int CHECKPOINT_SIZE = 16;
+
+    private static final long CHECKPOINT_MAGIC = 0x5744_4C54_5346_4C47L;
+
+    private final File directory;
+
+    private final int segmentSize;
+
+    private final long maxRetainedBytes;
+
+    private final long retentionMs;
+
+    private final ConcurrentNavigableMap<Long, Segment> segments = new ConcurrentSkipListMap<>();
+
+    private final CRC32 writeCrc = new CRC32();
+
+    private final CRC32 readCrc = new CRC32();
+
+    private final MappedByteBuffer checkpointBuffer;
+
+    private final AtomicLong backlogCount = new AtomicLong();
+
+    private final LongAdder appendedCount = new LongAdder();
+
+    private final LongAdder expiredCount = new LongAdder();
+
+    private final LongAdder corruptedCount = new LongAdder();
+
+    //Segments left by a roll and not written to the disk yet
+    private final Queue<Segment> unforcedSegments = new ConcurrentLinkedQueue<>();
+
+    //Guarded by this
+    private Segment activeSegment;
+
+    //Guarded by this, read without lock to skip the preallocation when it is already available
+    private volatile Segment nextSegment;
+
+    private volatile long writePosition;
+
+    private volatile long committedPosition;
+
+    /**
+     * Open (or create) the log in the target directory recovering the segments and the checkpoint of a previous run
+     *
+     * @param segmentSize size of the preallocated segment files (the max size of a record)
+     * @param maxRetainedBytes max size of the segments on disk, older segments are deleted when it is exceeded
+     * @param retentionMs max age of the last record of a segment, 0 to keep the segments until the size limit
+     */
+    public SegmentLog(File directory, int segmentSize, long maxRetainedBytes, long retentionMs) throws IOException {
+
+        if(segmentSize <= RECORD_HEADER_SIZE + RECORD_BODY_HEADER_SIZE || maxRetainedBytes < segmentSize || retentionMs < 0)
+            throw new IllegalArgumentException("Invalid Segment Size, Max Retained Bytes or Retention !");
+
+        if(!directory.isDirectory() && !directory.mkdirs())
+            throw new IOException(String.format("Error creating the log directory %s !", directory.getAbsolutePath()));
+
+        this.directory = directory;
+        this.segmentSize = segmentSize;
+        this.maxRetainedBytes = maxRetainedBytes;
+        this.retentionMs = retentionMs;
+
+        File[] segmentFiles = directory.listFiles((dir, name) -> name.endsWith(SEGMENT_FILE_SUFFIX));
+
+        if(segmentFiles != null){
+            for(File segmentFile : segmentFiles){
+                try{
+                    long index = Long.parseLong(segmentFile.getName().substring(0, segmentFile.getName().length() - SEGMENT_FILE_SUFFIX.length()));
+                    segments.put(index, new Segment(index, segmentFile, map(segmentFile, 0), segmentFile.lastModified()));
+                }catch (NumberFormatException e){
+                    logger.warn("Skipping unknown file {} in the log directory", segmentFile.getName());
+                }
+            }
+        }
+
+        if(segments.isEmpty())
+            segments.put(0L, createSegment(0));
+
+        Segment lastSegment = segments.lastEntry().getValue();
+        Map.Entry<Long, Segment> previousEntry = segments.lowerEntry(lastSegment.index);
+
+        //Segment preallocated by the previous run and never written: the log did not roll to it
+        if(previousEntry != null && lastSegment.buffer.getInt(0) == 0 && !isSealed(previousEntry.getValue())){
+            segments.remove(lastSegment.index);
+            this.nextSegment = lastSegment;
+        }
+
+        this.activeSegment = segments.lastEntry().getValue();
+        this.writePosition = position(activeSegment.index, recover(activeSegment));
+
+        this.checkpointBuffer = map(new File(directory, CHECKPOINT_FILE_NAME), CHECKPOINT_SIZE);
+
+        long checkpoint = checkpointBuffer.getLong(0);
+
+        if((checkpoint ^ CHECKPOINT_MAGIC) == checkpointBuffer.getLong(8) && segments.containsKey(segmentIndex(checkpoint)) && checkpoint <= writePosition)
+            this.committedPosition = checkpoint;
+        else
+            this.committedPosition = position(segments.firstKey(), 0);
+
+        this.backlogCount.set(countRecords(committedPosition, writePosition));
+
+        logger.info("Outgoing log {} opened ! Segments: {} Backlog: {} messages", directory.getAbsolutePath(), segments.size(), backlogCount.get());
+    }
+
+    /**
+     * Map a file extending it to the min size
+     */
+    private static MappedByteBuffer map(File file, int minSize) throws IOException {
+        try(RandomAccessFile randomAccessFile = new RandomAccessFile(file, "rw")){
+
+            if(randomAccessFile.length() < minSize)
+                randomAccessFile.setLength(minSize);
+
+            //The mapping stays valid after closing the channel
+            return randomAccessFile.getChannel().map(FileChannel.MapMode.READ_WRITE, 0, randomAccessFile.length());
+        }
+    }
+
+    private Segment createSegment(long index) throws IOException {
+        File segmentFile = new File(directory, String.format(SEGMENT_FILE_FORMAT, index));
+        return new Segment(index, segmentFile, map(segmentFile, segmentSize), System.currentTimeMillis());
+    }
+
+    /**
+     * @return the offset following the last valid record of the segment
+     */
+    private int endOfRecords(Segment segment) {
+
+        int offset = 0;
+        int next;
+
+        while((next = nextRecord(segment.buffer, offset, true)) > 0)
+            offset = next;
+
+        return offset;
+    }
+
+    /**
+     * @return true if the log rolled from the segment to the next one (end marker or no space left for it)
+     */
+    private boolean isSealed(Segment segment) {
+        int offset = endOfRecords(segment);
+        return segment.buffer.capacity() - offset < 4 || segment.buffer.getInt(offset) == SEGMENT_END_MARKER;
+    }
+
+    /**
+     * @return the offset following the last valid record of the segment, the remaining space is cleared
+     */
+    private int recover(Segment segment) {
+
+        int offset = endOfRecords(segment);
+
+        int clearedBytes = 0;
+
+        for(int i = offset; i < segment.buffer.capacity(); i++){
+            if(segment.buffer.get(i) != 0){
+                segment.buffer.put(i, (byte) 0);
+                clearedBytes++;
+            }
+        }
+
+        if(clearedBytes > 0)
+            logger.warn("Discarded the torn tail of segment {} at offset {} ({} bytes)", segment.file.getName(), offset, clearedBytes);
+
+        return offset;
+    }
+
+    /**
+     * @return the offset of the record following the one at the target offset, -1 if there is no valid record
+     */
+    private int nextRecord(ByteBuffer buffer, int offset, boolean verify) {
+
+        if(offset + RECORD_HEADER_SIZE + RECORD_BODY_HEADER_SIZE > buffer.capacity())
+            return -1;
+
+        int bodyLength = buffer.getInt(offset);
+
+        if(bodyLength < RECORD_BODY_HEADER_SIZE || bodyLength > buffer.capacity() - offset - RECORD_HEADER_SIZE)
+            return -1;
+
+        if(verify && buffer.getInt(offset + 4) != crc(buffer, offset + RECORD_HEADER_SIZE, bodyLength))
+            return -1;
+
+        return offset + RECORD_HEADER_SIZE + bodyLength;
+    }
+
+    /**
+     * CRC32 of a region of a buffer owned by the caller (its position and limit are changed)
+     */
+    private int crc(ByteBuffer buffer, int offset, int length) {
+        buffer.limit(offset + length).position(offset);
+        readCrc.reset();
+        readCrc.update(buffer);
+        buffer.limit(buffer.capacity());
+        return (int) readCrc.getValue();
+    }
+
+    private long countRecords(long from, long to) {
+
+        long count = 0;
+
+        for(Segment segment : segments.subMap(segmentIndex(from), true, segmentIndex(to), true).values()){
+
+            int offset = segment.index == segmentIndex(from) ? offset(from) : 0;
+            int end = segment.index == segmentIndex(to) ? offset(to) : segment.buffer.capacity();
+
+            while(offset < end && (offset = nextRecord(segment.buffer, offset, false)) > 0)
+                count++;
+        }
+
+        return count;
+    }
+
+    /**
+     * Append a record to the active segment creating a new segment if required
+     *
+     * @return false if the record is larger than a segment
+     */
+    public synchronized boolean append(byte[] topic, byte[] payload, boolean retained) throws IOException {
+
+        int bodyLength = RECORD_BODY_HEADER_SIZE + topic.length + payload.length;
+
+        if(topic.length > MAX_TOPIC_LENGTH || RECORD_HEADER_SIZE + bodyLength > segmentSize)
+            return false;
+
+        int offset = offset(writePosition);
+
+        if(RECORD_HEADER_SIZE + bodyLength > activeSegment.buffer.capacity() - offset){
+            roll(offset);
+            offset = 0;
+        }
+
+        byte flags = retained ? RETAINED_FLAG : 0;
+
+        writeCrc.reset();
+        writeCrc.update(flags);
+        writeCrc.update(topic.length >>> 8);
+        writeCrc.update(topic.length);
+        writeCrc.update(topic);
+        writeCrc.update(payload);
+
+        MappedByteBuffer buffer = activeSegment.buffer;
+        buffer.position(offset + RECORD_HEADER_SIZE);
+        buffer.put(flags);
+        buffer.putShort((short) topic.length);
+        buffer.put(topic);
+        buffer.put(payload);
+        buffer.putInt(offset + 4, (int) writeCrc.getValue());
+
+        //The length is written last: a record with a length has a complete body (or a CRC mismatch after a crash)
+        buffer.putInt(offset, bodyLength);
+
+        activeSegment.lastWriteMillis = System.currentTimeMillis();
+        appendedCount.increment();
+        backlogCount.incrementAndGet();
+
+        this.writePosition = position(activeSegment.index, offset + RECORD_HEADER_SIZE + bodyLength);
+
+        return true;
+    }
+
+    private void roll(int offset) throws IOException {
+
+        if(activeSegment.buffer.capacity() - offset >= 4)
+            activeSegment.buffer.putInt(offset, SEGMENT_END_MARKER);
+
+        //Written to the disk by the next force()
+        unforcedSegments.offer(activeSegment);
+
+        Segment segment = nextSegment;
+        this.nextSegment = null;
+
+        //The next segment has not been preallocated yet: it is created on the appending thread
+        if(segment == null || segment.index != activeSegment.index + 1)
+            segment = createSegment(activeSegment.index + 1);
+
+        segments.put(segment.index, segment);
+
+        this.activeSegment = segment;
+        this.writePosition = position(segment.index, 0);
+    }
+
+    /**
+     * Create and map the segment following the active one (if not available yet), so the next roll of append()
+     * does not create files. The file is created without holding the lock of the appends.
+     *
+     * @return true if a segment has been created, false if it was already available
+     */
+    public boolean preallocateNextSegment() throws IOException {
+
+        if(nextSegment != null)
+            return false;
+
+        long index;
+
+        synchronized (this){
+            if(nextSegment != null)
+                return false;
+            index = activeSegment.index + 1;
+        }
+
+        Segment segment = createSegment(index);
+
+        synchronized (this){
+            //A roll has created the segment in the meantime: the file is the active one and it is kept
+            if(nextSegment != null || activeSegment.index + 1 != index)
+                return false;
+            this.nextSegment = segment;
+        }
+
+        return true;
+    }
+
+    /**
+     * Delete the oldest segments exceeding the retained bytes or the retention time (the active segment is never deleted)
+     */
+    public synchronized void enforceRetention() {
+
+        long retainedBytes = 0;
+
+        for(Segment segment : segments.values())
+            retainedBytes += segment.buffer.capacity();
+
+        long now = System.currentTimeMillis();
+
+        while(segments.size() > 1){
+
+            Segment oldest = segments.firstEntry().getValue();
+
+            if(retainedBytes <= maxRetainedBytes && (retentionMs == 0 || now - oldest.lastWriteMillis <= retentionMs))
+                break;
+
+            retainedBytes -= oldest.buffer.capacity();
+            delete(oldest);
+        }
+    }
+
+    private void delete(Segment segment) {
+
+        long nextSegmentPosition = position(segment.index + 1, 0);
+
+        if(committedPosition < nextSegmentPosition){
+
+            long expired = countRecords(committedPosition, nextSegmentPosition);
+
+            if(expired > 0){
+                expiredCount.add(expired);
+                backlogCount.addAndGet(-expired);
+                logger.warn("Deleting segment {} with {} messages not delivered yet !", segment.file.getName(), expired);
+            }
+
+            writeCheckpoint(nextSegmentPosition);
+        }
+
+        segments.remove(segment.index);
+
+        //The mapping is released by the GC, so a reader of the segment is not affected
+        if(!segment.file.delete())
+            logger.warn("Error deleting segment {}", segment.file.getAbsolutePath());
+    }
+
+    /**
+     * Read the records following the target position. The position is moved to the oldest segment
+     * if its segment has been deleted by the retention.
+     *
+     * @return the position following the last record added to the list
+     */
+    public long read(long position, int maxRecords, List<StoredMessage> messages) {
+
+        long end = this.writePosition;
+        ByteBuffer buffer = null;
+        long bufferIndex = -1;
+
+        while(messages.size() < maxRecords && position < end){
+
+            long index = segmentIndex(position);
+
+            if(index != bufferIndex){
+
+                Map.Entry<Long, Segment> segmentEntry = segments.ceilingEntry(index);
+
+                if(segmentEntry == null)
+                    break;
+
+                if(segmentEntry.getKey() != index){
+                    position = position(segmentEntry.getKey(), 0);
+                    continue;
+                }
+
+                buffer = segmentEntry.getValue().buffer.duplicate();
+                bufferIndex = index;
+            }
+
+            int offset = offset(position);
+            int next = nextRecord(buffer, offset, true);
+
+            if(next < 0){
+
+                //End marker or end of the segment: the active segment always contains the records up to the write position
+                if(offset + 4 <= buffer.capacity() && buffer.getInt(offset) != SEGMENT_END_MARKER && buffer.getInt(offset) != 0){
+                    corruptedCount.increment();
+                    logger.error("Corrupted record in segment {} at offset {} ! Skipping the rest of the segment", index, offset);
+                }
+
+                position = position(index + 1, 0);
+                continue;
+            }
+
+            buffer.position(offset + RECORD_HEADER_SIZE);
+
+            boolean retained = (buffer.get() & RETAINED_FLAG) != 0;
+            byte[] topic = new byte[buffer.getShort() & MAX_TOPIC_LENGTH];
+            buffer.get(topic);
+            byte[] payload = new byte[next - buffer.position()];
+            buffer.get(payload);
+
+            position = position(index, next);
+            messages.add(new StoredMessage(new String(topic, StandardCharsets.UTF_8), payload, retained, position));
+        }
+
+        return position;
+    }
+
+    /**
+     * Mark the records before the target position as delivered
+     *
+     * @param count number of records delivered since the last commit
+     */
+    public synchronized void commit(long position, int count) {
+
+        //The records have been expired by the retention in the meantime
+        if(position <= committedPosition)
+            return;
+
+        backlogCount.addAndGet(-count);
+        writeCheckpoint(position);
+    }
+
+    private void writeCheckpoint(long position) {
+        this.committedPosition = position;
+        checkpointBuffer.putLong(0, position);
+        checkpointBuffer.putLong(8, position ^ CHECKPOINT_MAGIC);
+    }
+
+    /**
+     * Write the segments left by a roll since the last call, the active segment and the checkpoint to the disk
+     */
+    public void force() {
+
+        Segment segment;
+
+        synchronized (this){
+            segment = activeSegment;
+        }
+
+        Segment sealedSegment;
+        while((sealedSegment = unforcedSegments.poll()) != null)
+            sealedSegment.buffer.force();
+
+        segment.buffer.force();
+        checkpointBuffer.force();
+    }
+
+    public synchronized void close() {
+        for(Segment segment : segments.values())
+            segment.buffer.force();
+        checkpointBuffer.force();
+    }
+
+    public static long position(long segmentIndex, int offset) {
+        return (segmentIndex << 32) | offset;
+    }
+
+    public static long segmentIndex(long position) {
+        return position >>> 32;
+    }
+
+    public static int offset(long position) {
+        return (int) position;
+    }
+
+    public long getWritePosition() {
+        return writePosition;
+    }
+
+    public long getCommittedPosition() {
+        return committedPosition;
+    }
+
+    /**
+     * @return messages appended and not delivered yet
+     */
+    public long getBacklogCount() {
+        return Math.max(0, backlogCount.get());
+    }
+
+    public long getAppendedCount() {
+        return appendedCount.sum();
+    }
+
+    public long getExpiredCount() {
+        return expiredCount.sum();
+    }
+
+    public long getCorruptedCount() {
+        return corruptedCount.sum();
+    }
+
+    public int getSegmentCount() {
+        return segments.size();
+    }
+
+    public File getDirectory() {
+        return directory;
+    }
+
+    private static final class Segment {
+
+        private final long index;
+
+        private final File file;
+
+        private final MappedByteBuffer buffer;
+
+        private volatile long lastWriteMillis;
+
+        private Segment(long index, File file, MappedByteBuffer buffer, long lastWriteMillis) {
+            this.index = index;
+            this.file = file;
+            this.buffer = buffer;
+            this.lastWriteMillis = lastWriteMillis;
+        }
+    }
+
+    /**
+     * Message read from the log with the position of the following record
+     */
+    public static final class StoredMessage {
+
+        private final String topic;
+
+        private final byte[] payload;
+
+        private final boolean retained;
+
+        private final long nextPosition;
+
+        private StoredMessage(String topic, byte[] payload, boolean retained, long nextPosition) {
+            this.topic = topic;
+            this.payload = payload;
+            this.retained = retained;
+            this.nextPosition = nextPosition;
+        }
+
+        public String getTopic() {
+            return topic;
+        }
+
+        public byte[] getPayload() {
+            return payload;
+        }
+
+        public boolean isRetained() {
+            return retained;
+        }
+
+        public long getNextPosition() {
+            return nextPosition;
+        }
+
+        @Override
+        public String toString() {
+            final StringBuilder sb = new StringBuilder("StoredMessage{");
+            sb.append("topic='").append(topic).append('\'');
+            sb.append(", payload=").append(Arrays.toString(payload));
+            sb.append(", retained=").append(retained);
+            sb.append(", nextPosition=").append(nextPosition);
+            sb.append('}');
+            return sb.toString();
+        }
+    }
+}
@@ -0,0 +1,431 @@
+package it.unimore.dipi.iot.demo.mqtt.wldt.publish;
+
+import it.unimore.dipi.iot.demo.mqtt.wldt.pipeline.LazyMqttPipelineData;
+import it.unimore.dipi.iot.wldt.worker.mqtt.MqttPipelineData;
+import org.eclipse.paho.client.mqttv3.IMqttActionListener;
+import org.eclipse.paho.client.mqttv3.IMqttAsyncClient;
+import org.eclipse.paho.client.mqttv3.IMqttDeliveryToken;
+import org.eclipse.paho.client.mqttv3.IMqttToken;
+import org.eclipse.paho.client.mqttv3.MqttAsyncClient;
+import org.eclipse.paho.client.mqttv3.MqttCallback;
+import org.eclipse.paho.client.mqttv3.MqttConnectOptions;
+import org.eclipse.paho.client.mqttv3.MqttException;
+import org.eclipse.paho.client.mqttv3.MqttMessage;
+import org.eclipse.paho.client.mqttv3.persist.MemoryPersistence;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Outgoing publish stage that does not lose messages while the target broker is unavailable.
+ *
+ * publish() appends the message to a SegmentLog (memory-mapped segment files) and returns: the caller never waits
+ * for the network or for the broker. A dedicated drainer thread reads the log in order and publishes the messages in
+ * batches, each batch is committed in the log checkpoint only when all its messages have been acknowledged, otherwise
+ * (connection lost, delivery timeout) it is replayed from the last committed position after the reconnection.
+ * Messages not delivered before a stop or a crash are delivered after the next start (at least once delivery).
+ *
+ * The drainer owns the connection: the initial connection does not have to succeed and reconnections are attempted
+ * with an exponential backoff with jitter, so many twins restarting together do not reconnect in lockstep.
+ * The log is written to the disk every syncIntervalMs and old segments are deleted according to the retention.
+ * Both tasks and the preallocation of the next segment of the log run on the drainer thread.
+ *
+ * @created: 18/10/2026
+ * @project: WLDT - MQTT Example
+ */
+public class StoreAndForwardMqttPublisher implements OutgoingPublisher {
+
+    private static final Logger logger = LoggerFactory.getLogger(StoreAndForwardMqttPublisher.class);
+
+    //Max time the drainer waits before checking the log, the connection and the maintenance tasks
+    private static final long IDLE_WAIT_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+
+    private static final long RETENTION_CHECK_INTERVAL_MS = 1000;
+
+    private final StoreAndForwardMqttPublisherConfiguration configuration;
+
+    private final SegmentLog log;
+
+    private final String clientId;
+
+    private final LongAdder publishedCount = new LongAdder();
+
+    private final LongAdder failedCount = new LongAdder();
+
+    private final LongAdder rejectedCount = new LongAdder();
+
+    private final LongAdder replayedBatchCount = new LongAdder();
+
+    private final LongAdder connectionCount = new LongAdder();
+
+    private volatile boolean running = false;
+
+    private volatile boolean drainerWaiting = false;
+
+    private IMqttAsyncClient mqttClient;
+
+    private MqttConnectOptions connectOptions;
+
+    private Thread drainerThread;
+
+    /**
+     * Open the log recovering the messages not delivered by a previous run
+     */
+    public StoreAndForwardMqttPublisher(StoreAndForwardMqttPublisherConfiguration configuration) throws IOException {
+
+        configuration.validate();
+
+        this.configuration = configuration;
+        this.clientId = configuration.getClientId() != null ? configuration.getClientId() : UUID.randomUUID().toString();
+        this.log = new SegmentLog(new File(configuration.getLogDirectory()),
+                configuration.getSegmentSize(),
+                configuration.getMaxRetainedBytes(),
+                configuration.getRetentionMs());
+    }
+
+    /**
+     * Start the drainer thread: the connection to the broker is established (and restored) by the drainer
+     */
+    @Override
+    public synchronized void start() throws MqttException {
+
+        if(running)
+            return;
+
+        //Messages are persisted by the log: the client only keeps the in-flight batch
+        this.mqttClient = new MqttAsyncClient(configuration.getBrokerUrl(), clientId, new MemoryPersistence());
+
+        this.mqttClient.setCallback(new MqttCallback() {
+
+            @Override
+            public void connectionLost(Throwable cause) {
+                logger.warn("StoreAndForwardMqttPublisher connection to {} lost: {} ! Backlog: {} messages", configuration.getBrokerUrl(), cause != null ? cause.getLocalizedMessage() : "unknown cause", log.getBacklogCount());
+            }
+
+            @Override
+            public void messageArrived(String topic, MqttMessage message) {
+            }
+
+            @Override
+            public void deliveryComplete(IMqttDeliveryToken token) {
+            }
+        });
+
+        this.connectOptions = new MqttConnectOptions();
+        this.connectOptions.setAutomaticReconnect(false);
+        this.connectOptions.setCleanSession(true);
+        this.connectOptions.setConnectionTimeout(10);
+        this.connectOptions.setMaxInflight(configuration.getMaxBatchSize());
+
+        this.running = true;
+        this.drainerThread = new Thread(this::drainLoop, String.format("wldt-store-and-forward-publisher-%s", clientId));
+        this.drainerThread.setDaemon(true);
+        this.drainerThread.start();
+    }
+
+    /**
+     * Append a message to the log. The method never waits for the broker.
+     *
+     * @param data message to publish
+     * @return false if the message can not be stored (larger than a log segment or I/O error)
+     */
+    @Override
+    public boolean publish(MqttPipelineData data) {
+
+        if(data == null || data.getTopic() == null || data.getPayload() == null)
+            return false;
+
+        try{
+
+            if(!log.append(data.getTopic().getBytes(StandardCharsets.UTF_8), data.getPayload(), data.isRetained())){
+                rejectedCount.increment();
+                logger.error("Message on topic {} larger than a log segment ! Message discarded", data.getTopic());
+                return false;
+            }
+
+        }catch (IOException e){
+            rejectedCount.increment();
+            logger.error("Error appending message on topic {} to the log: {}", data.getTopic(), e.getLocalizedMessage());
+            return false;
+        }
+
+        //The message has been copied into the log
+        LazyMqttPipelineData.release(data);
+
+        if(drainerWaiting)
+            LockSupport.unpark(drainerThread);
+
+        return true;
+    }
+
+    private void drainLoop() {
+
+        List<SegmentLog.StoredMessage> batch = new ArrayList<>(configuration.getMaxBatchSize());
+        long position = log.getCommittedPosition();
+        long reconnectDelayMs = configuration.getMinReconnectDelayMs();
+        long nextConnectionMillis = 0;
+        long nextSyncMillis = System.currentTimeMillis() + configuration.getSyncIntervalMs();
+        long nextRetentionCheckMillis = System.currentTimeMillis() + RETENTION_CHECK_INTERVAL_MS;
+
+        while(running){
+
+            try{
+
+                long now = System.currentTimeMillis();
+
+                if(configuration.getSyncIntervalMs() > 0 && now >= nextSyncMillis){
+                    log.force();
+                    nextSyncMillis = now + configuration.getSyncIntervalMs();
+                }
+
+                //The segment used by the next roll is created here and the retention is checked after each roll,
+                //so the publishing threads never create or delete files
+                if(log.preallocateNextSegment() || now >= nextRetentionCheckMillis){
+                    log.enforceRetention();
+                    nextRetentionCheckMillis = now + RETENTION_CHECK_INTERVAL_MS;
+                }
+
+                if(!mqttClient.isConnected()){
+
+                    if(now < nextConnectionMillis){
+                        LockSupport.parkNanos(this, Math.min(IDLE_WAIT_NANOS, TimeUnit.MILLISECONDS.toNanos(nextConnectionMillis - now)));
+                        continue;
+                    }
+
+                    if(connect()){
+                        reconnectDelayMs = configuration.getMinReconnectDelayMs();
+                        //Replay the messages not acknowledged before the disconnection
+                        position = log.getCommittedPosition();
+                    }
+                    else {
+                        nextConnectionMillis = System.currentTimeMillis() + jitter(reconnectDelayMs);
+                        reconnectDelayMs = Math.min(reconnectDelayMs * 2, configuration.getMaxReconnectDelayMs());
+                    }
+
+                    continue;
+                }
+
+                batch.clear();
+                long nextPosition = log.read(position, configuration.getMaxBatchSize(), batch);
+
+                if(batch.isEmpty()){
+                    position = nextPosition;
+                    waitForMessages(position);
+                    continue;
+                }
+
+                if(deliver(batch)){
+                    log.commit(nextPosition, batch.size());
+                    publishedCount.add(batch.size());
+                    position = nextPosition;
+                }
+                else {
+                    replayedBatchCount.increment();
+                    position = log.getCommittedPosition();
+                    LockSupport.parkNanos(this, IDLE_WAIT_NANOS);
+                }
+
+            }catch (InterruptedException e){
+                Thread.currentThread().interrupt();
+                break;
+            }catch (Exception e){
+                logger.error("StoreAndForwardMqttPublisher drainer error: {}", e.getLocalizedMessage());
+                LockSupport.parkNanos(this, IDLE_WAIT_NANOS);
+            }
+        }
+
+        logger.info("StoreAndForwardMqttPublisher drainer stopped ! Published: {} Failed: {} Rejected: {} Backlog: {}", getPublishedCount(), getFailedCount(), getRejectedCount(), getBacklogCount());
+    }
+
+    private boolean connect() {
+        try{
+
+            mqttClient.connect(connectOptions).waitForCompletion(TimeUnit.SECONDS.toMillis(10));
+
+            connectionCount.increment();
+            logger.info("StoreAndForwardMqttPublisher connected to {} ! Client Id: {} Backlog: {} messages", configuration.getBrokerUrl(), clientId, log.getBacklogCount());
+
+            return true;
+
+        }catch (MqttException e){
+            logger.warn("StoreAndForwardMqttPublisher connection to {} failed: {}", configuration.getBrokerUrl(), e.getLocalizedMessage());
+            return false;
+        }
+    }
+
+    /**
+     * @return a random delay between delayMs / 2 and delayMs
+     */
+    private static long jitter(long delayMs) {
+        return delayMs / 2 + ThreadLocalRandom.current().nextLong(delayMs / 2 + 1);
+    }
+
+    private void waitForMessages(long position) {
+
+        drainerWaiting = true;
+
+        //A message appended after the check unparks the drainer
+        if(log.getWritePosition() == position)
+            LockSupport.parkNanos(this, IDLE_WAIT_NANOS);
+
+        drainerWaiting = false;
+    }
+
+    /**
+     * Publish the batch and wait for all the acknowledgements
+     *
+     * @return true if all the messages of the batch have been delivered
+     */
+    private boolean deliver(List<SegmentLog.StoredMessage> batch) throws InterruptedException {
+
+        BatchDeliveryListener deliveryListener = new BatchDeliveryListener(batch.size());
+
+        for(SegmentLog.StoredMessage message : batch){
+            try{
+                mqttClient.publish(message.getTopic(), message.getPayload(), configuration.getQos(), message.isRetained(), null, deliveryListener);
+            }catch (MqttException e){
+                failedCount.increment();
+                logger.warn("Error publishing message on topic {}: {} ! Replaying the batch", message.getTopic(), e.getLocalizedMessage());
+                return false;
+            }
+        }
+
+        if(!deliveryListener.await(configuration.getDeliveryTimeoutMs())){
+            logger.warn("Batch of {} messages not acknowledged in {} ms ! Replaying the batch", batch.size(), configuration.getDeliveryTimeoutMs());
+            return false;
+        }
+
+        return deliveryListener.getFailureCount() == 0;
+    }
+
+    /**
+     * Stop the drainer and disconnect from the broker. The messages not delivered yet are kept in the log
+     * and delivered after the next start.
+     *
+     * @param timeoutMs max time to wait for the batch in flight
+     */
+    @Override
+    public synchronized void stop(long timeoutMs) {
+
+        if(!running)
+            return;
+
+        running = false;
+        LockSupport.unpark(drainerThread);
+
+        try{
+
+            drainerThread.join(timeoutMs);
+
+            if(drainerThread.isAlive())
+                drainerThread.interrupt();
+
+            if(mqttClient.isConnected())
+                mqttClient.disconnect().waitForCompletion(timeoutMs);
+
+            mqttClient.close();
+
+        }catch (Exception e){
+            logger.error("Error stopping StoreAndForwardMqttPublisher: {}", e.getLocalizedMessage());
+        }
+
+        log.close();
+    }
+
+    @Override
+    public int getQueueDepth() {
+        return (int) Math.min(Integer.MAX_VALUE, log.getBacklogCount());
+    }
+
+    @Override
+    public String getClientId() {
+        return clientId;
+    }
+
+    public long getBacklogCount() {
+        return log.getBacklogCount();
+    }
+
+    public long getPublishedCount() {
+        return publishedCount.sum();
+    }
+
+    public long getFailedCount() {
+        return failedCount.sum();
+    }
+
+    public long getRejectedCount() {
+        return rejectedCount.sum();
+    }
+
+    public long getExpiredCount() {
+        return log.getExpiredCount();
+    }
+
+    public long getReplayedBatchCount() {
+        return replayedBatchCount.sum();
+    }
+
+    public long getConnectionCount() {
+        return connectionCount.sum();
+    }
+
+    public boolean isConnected() {
+        return mqttClient != null && mqttClient.isConnected();
+    }
+
+    public SegmentLog getLog() {
+        return log;
+    }
+
+    public StoreAndForwardMqttPublisherConfiguration getConfiguration() {
+        return configuration;
+    }
+
+    /**
+     * Delivery listener shared by the messages of a batch
+     */
+    private class BatchDeliveryListener implements IMqttActionListener {
+
+        private final CountDownLatch pendingLatch;
+
+        private final AtomicInteger failureCount = new AtomicInteger();
+
+        private BatchDeliveryListener(int batchSize) {
+            this.pendingLatch = new CountDownLatch(batchSize);
+        }
+
+        @Override
+        public void onSuccess(IMqttToken asyncActionToken) {
+            pendingLatch.countDown();
+        }
+
+        @Override
+        public void onFailure(IMqttToken asyncActionToken, Throwable exception) {
+            failedCount.increment();
+            failureCount.incrementAndGet();
+            pendingLatch.countDown();
+        }
+
+        private boolean await(long timeoutMs) throws InterruptedException {
+            return pendingLatch.await(timeoutMs, TimeUnit.MILLISECONDS);
+        }
+
+        private int getFailureCount() {
+            return failureCount.get();
+        }
+    }
+
+}
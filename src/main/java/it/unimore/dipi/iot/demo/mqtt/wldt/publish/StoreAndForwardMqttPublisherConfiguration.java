@@ -0,0 +1,201 @@
+package it.unimore.dipi.iot.demo.mqtt.wldt.publish;
+
+/**
+ * Configuration of the StoreAndForwardMqttPublisher
+ *
+ * @created: 18/10/2026
+ * @project: WLDT - MQTT Example
+ */
+public class StoreAndForwardMqttPublisherConfiguration {
+
+    private String brokerAddress = "127.0.0.1";
+
+    private int brokerPort = 1884;
+
+    private String clientId = null;
+
+    private int qos = 1;
+
+    private String logDirectory = "data/outgoing-log";
+
+    private int segmentSize = 16 * 1024 * 1024;
+
+    //Older segments are deleted (also if they contain messages not delivered yet) when the log exceeds this size
+    private long maxRetainedBytes = 1024L * 1024 * 1024;
+
+    //Max age of the segments, 0 to keep them until the size limit
+    private long retentionMs = 24 * 60 * 60 * 1000L;
+
+    //Messages replayed together: the batch is acknowledged (and replayed after a failure) as a whole
+    private int maxBatchSize = 100;
+
+    private long deliveryTimeoutMs = 10000;
+
+    //Interval of the writes of the log to the disk, 0 to rely on the page cache (messages survive a crash of the process but not of the host)
+    private long syncIntervalMs = 1000;
+
+    private long minReconnectDelayMs = 100;
+
+    private long maxReconnectDelayMs = 30000;
+
+    public StoreAndForwardMqttPublisherConfiguration() {
+    }
+
+    public StoreAndForwardMqttPublisherConfiguration(String brokerAddress, int brokerPort, String logDirectory) {
+        this.brokerAddress = brokerAddress;
+        this.brokerPort = brokerPort;
+        this.logDirectory = logDirectory;
+    }
+
+    /**
+     * @throws IllegalArgumentException if the configuration is not valid
+     */
+    public void validate() {
+
+        if(brokerAddress == null || brokerPort <= 0)
+            throw new IllegalArgumentException("Invalid Broker Address or Port !");
+
+        if(qos < 0 || qos > 2)
+            throw new IllegalArgumentException(String.format("Invalid QoS: %d", qos));
+
+        if(logDirectory == null)
+            throw new IllegalArgumentException("Log Directory can not be null !");
+
+        if(segmentSize <= 0 || maxRetainedBytes < segmentSize || retentionMs < 0)
+            throw new IllegalArgumentException("Segment Size must be greater than 0, Max Retained Bytes can not be lower than Segment Size and Retention can not be negative !");
+
+        if(maxBatchSize <= 0 || deliveryTimeoutMs <= 0 || syncIntervalMs < 0)
+            throw new IllegalArgumentException("Max Batch Size and Delivery Timeout must be greater than 0 and Sync Interval can not be negative !");
+
+        if(minReconnectDelayMs <= 0 || maxReconnectDelayMs < minReconnectDelayMs)
+            throw new IllegalArgumentException("Reconnect Delays must be greater than 0 with Min Reconnect Delay <= Max Reconnect Delay !");
+    }
+
+    public String getBrokerUrl() {
+        return String.format("tcp://%s:%d", brokerAddress, brokerPort);
+    }
+
+    public String getBrokerAddress() {
+        return brokerAddress;
+    }
+
+    public void setBrokerAddress(String brokerAddress) {
+        this.brokerAddress = brokerAddress;
+    }
+
+    public int getBrokerPort() {
+        return brokerPort;
+    }
+
+    public void setBrokerPort(int brokerPort) {
+        this.brokerPort = brokerPort;
+    }
+
+    public String getClientId() {
+        return clientId;
+    }
+
+    public void setClientId(String clientId) {
+        this.clientId = clientId;
+    }
+
+    public int getQos() {
+        return qos;
+    }
+
+    public void setQos(int qos) {
+        this.qos = qos;
+    }
+
+    public String getLogDirectory() {
+        return logDirectory;
+    }
+
+    public void setLogDirectory(String logDirectory) {
+        this.logDirectory = logDirectory;
+    }
+
+    public int getSegmentSize() {
+        return segmentSize;
+    }
+
+    public void setSegmentSize(int segmentSize) {
+        this.segmentSize = segmentSize;
+    }
+
+    public long getMaxRetainedBytes() {
+        return maxRetainedBytes;
+    }
+
+    public void setMaxRetainedBytes(long maxRetainedBytes) {
+        this.maxRetainedBytes = maxRetainedBytes;
+    }
+
+    public long getRetentionMs() {
+        return retentionMs;
+    }
+
+    public void setRetentionMs(long retentionMs) {
+        this.retentionMs = retentionMs;
+    }
+
+    public int getMaxBatchSize() {
+        return maxBatchSize;
+    }
+
+    public void setMaxBatchSize(int maxBatchSize) {
+        this.maxBatchSize = maxBatchSize;
+    }
+
+    public long getDeliveryTimeoutMs() {
+        return deliveryTimeoutMs;
+    }
+
+    public void setDeliveryTimeoutMs(long deliveryTimeoutMs) {
+        this.deliveryTimeoutMs = deliveryTimeoutMs;
+    }
+
+    public long getSyncIntervalMs() {
+        return syncIntervalMs;
+    }
+
+    public void setSyncIntervalMs(long syncIntervalMs) {
+        this.syncIntervalMs = syncIntervalMs;
+    }
+
+    public long getMinReconnectDelayMs() {
+        return minReconnectDelayMs;
+    }
+
+    public void setMinReconnectDelayMs(long minReconnectDelayMs) {
+        this.minReconnectDelayMs = minReconnectDelayMs;
+    }
+
+    public long getMaxReconnectDelayMs() {
+        return maxReconnectDelayMs;
+    }
+
+    public void setMaxReconnectDelayMs(long maxReconnectDelayMs) {
+        this.maxReconnectDelayMs = maxReconnectDelayMs;
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder("StoreAndForwardMqttPublisherConfiguration{");
+        sb.append("brokerAddress='").append(brokerAddress).append('\'');
+        sb.append(", brokerPort=").append(brokerPort);
+        sb.append(", clientId='").append(clientId).append('\'');
+        sb.append(", qos=").append(qos);
+        sb.append(", logDirectory='").append(logDirectory).append('\'');
+        sb.append(", segmentSize=").append(segmentSize);
+        sb.append(", maxRetainedBytes=").append(maxRetainedBytes);
+        sb.append(", retentionMs=").append(retentionMs);
+        sb.append(", maxBatchSize=").append(maxBatchSize);
+        sb.append(", deliveryTimeoutMs=").append(deliveryTimeoutMs);
+        sb.append(", syncIntervalMs=").append(syncIntervalMs);
+        sb.append(", minReconnectDelayMs=").append(minReconnectDelayMs);
+        sb.append(", maxReconnectDelayMs=").append(maxReconnectDelayMs);
+        sb.append('}');
+        return sb.toString();
+    }
+}
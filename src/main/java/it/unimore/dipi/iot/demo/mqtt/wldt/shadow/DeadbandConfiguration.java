@@ -0,0 +1,99 @@
+package it.unimore.dipi.iot.demo.mqtt.wldt.shadow;
+
+/**
+ * Deadband used by the MqttDeadbandFilterStep: a numeric value is published only if it differs from the last published one
+ * by more than max(absoluteDeadband, relativeDeadband * |last published value|).
+ *
+ * With both deadbands set to 0 (default) every change is published and only the repeated values are suppressed.
+ * If maxSilenceMs is greater than 0 a value is published anyway when nothing has been published for maxSilenceMs,
+ * so the consumers can tell a stable resource from a disconnected one.
+ *
+ * @created: 18/10/2026
+ * @project: WLDT - MQTT Example
+ */
+public class DeadbandConfiguration {
+
+    private double absoluteDeadband = 0.0;
+
+    //Fraction of the last published value (E.g. 0.01 for 1%)
+    private double relativeDeadband = 0.0;
+
+    private long maxSilenceMs = 0;
+
+    public DeadbandConfiguration() {
+    }
+
+    public DeadbandConfiguration(double absoluteDeadband, double relativeDeadband, long maxSilenceMs) {
+        this.absoluteDeadband = absoluteDeadband;
+        this.relativeDeadband = relativeDeadband;
+        this.maxSilenceMs = maxSilenceMs;
+    }
+
+    public static DeadbandConfiguration absolute(double absoluteDeadband) {
+        return new DeadbandConfiguration(absoluteDeadband, 0.0, 0);
+    }
+
+    public static DeadbandConfiguration relative(double relativeDeadband) {
+        return new DeadbandConfiguration(0.0, relativeDeadband, 0);
+    }
+
+    /**
+     * @throws IllegalArgumentException if the configuration is not valid
+     */
+    public void validate() {
+
+        if(!(absoluteDeadband >= 0.0) || !(relativeDeadband >= 0.0))
+            throw new IllegalArgumentException(String.format("Invalid deadband: absolute %f relative %f ! They can not be negative", absoluteDeadband, relativeDeadband));
+
+        if(maxSilenceMs < 0)
+            throw new IllegalArgumentException(String.format("Invalid max silence: %d ms !", maxSilenceMs));
+    }
+
+    /**
+     * @return true if the value is outside the deadband of the last published value
+     */
+    public boolean isExceeded(double publishedValue, double value) {
+        double threshold = Math.max(absoluteDeadband, relativeDeadband * Math.abs(publishedValue));
+        double difference = Math.abs(value - publishedValue);
+        return threshold == 0.0 ? difference != 0.0 : difference > threshold;
+    }
+
+    public double getAbsoluteDeadband() {
+        return absoluteDeadband;
+    }
+
+    public void setAbsoluteDeadband(double absoluteDeadband) {
+        this.absoluteDeadband = absoluteDeadband;
+    }
+
+    public double getRelativeDeadband() {
+        return relativeDeadband;
+    }
+
+    public void setRelativeDeadband(double relativeDeadband) {
+        this.relativeDeadband = relativeDeadband;
+    }
+
+    public long getMaxSilenceMs() {
+        return maxSilenceMs;
+    }
+
+    public void setMaxSilenceMs(long maxSilenceMs) {
+        this.maxSilenceMs = maxSilenceMs;
+    }
+
+    public DeadbandConfiguration withMaxSilenceMs(long maxSilenceMs) {
+        this.maxSilenceMs = maxSilenceMs;
+        return this;
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder("DeadbandConfiguration{");
+        sb.append("absoluteDeadband=").append(absoluteDeadband);
+        sb.append(", relativeDeadband=").append(relativeDeadband);
+        sb.append(", maxSilenceMs=").append(maxSilenceMs);
+        sb.append('}');
+        return sb.toString();
+    }
+}
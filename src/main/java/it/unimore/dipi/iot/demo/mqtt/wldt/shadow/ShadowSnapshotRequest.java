@@ -0,0 +1,57 @@
+package it.unimore.dipi.iot.demo.mqtt.wldt.shadow;
+
+/**
+ * JSON request of the ShadowSnapshotService. E.g. the current state of all the average temperatures:
+ *
+ * {"correlationId": "42", "topicFilter": "pipeline/telemetry/+/resource/temperature/average", "responseTopic": "shadow/response/dashboard01"}
+ *
+ * The topic filter follows the MQTT subscription syntax (+ and #), without filter all the states are returned.
+ *
+ * @created: 18/10/2026
+ * @project: WLDT - MQTT Example
+ */
+public class ShadowSnapshotRequest {
+
+    private String correlationId;
+
+    private String topicFilter;
+
+    private String responseTopic;
+
+    public ShadowSnapshotRequest() {
+    }
+
+    public String getCorrelationId() {
+        return correlationId;
+    }
+
+    public void setCorrelationId(String correlationId) {
+        this.correlationId = correlationId;
+    }
+
+    public String getTopicFilter() {
+        return topicFilter;
+    }
+
+    public void setTopicFilter(String topicFilter) {
+        this.topicFilter = topicFilter;
+    }
+
+    public String getResponseTopic() {
+        return responseTopic;
+    }
+
+    public void setResponseTopic(String responseTopic) {
+        this.responseTopic = responseTopic;
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder("ShadowSnapshotRequest{");
+        sb.append("correlationId='").append(correlationId).append('\'');
+        sb.append(", topicFilter='").append(topicFilter).append('\'');
+        sb.append(", responseTopic='").append(responseTopic).append('\'');
+        sb.append('}');
+        return sb.toString();
+    }
+}
@@ -0,0 +1,292 @@
+package it.unimore.dipi.iot.demo.mqtt.wldt.shadow;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import it.unimore.dipi.iot.demo.mqtt.wldt.topic.TopicMatch;
+import it.unimore.dipi.iot.demo.mqtt.wldt.topic.TopicTrie;
+import org.eclipse.paho.client.mqttv3.IMqttAsyncClient;
+import org.eclipse.paho.client.mqttv3.IMqttDeliveryToken;
+import org.eclipse.paho.client.mqttv3.MqttAsyncClient;
+import org.eclipse.paho.client.mqttv3.MqttCallbackExtended;
+import org.eclipse.paho.client.mqttv3.MqttConnectOptions;
+import org.eclipse.paho.client.mqttv3.MqttException;
+import org.eclipse.paho.client.mqttv3.MqttMessage;
+import org.eclipse.paho.client.mqttv3.persist.MemoryPersistence;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.UUID;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Answers the ShadowSnapshotRequest messages published on the request topic of the destination broker with the
+ * current state of the ShadowStateCache, so a new consumer does not have to wait for the next publish of each resource. E.g.
+ *
+ * Request on shadow/request:
+ * {"correlationId": "42", "topicFilter": "pipeline/telemetry/+/resource/temperature/average", "responseTopic": "shadow/response/dashboard01"}
+ *
+ * Response on shadow/response/dashboard01:
+ * {"correlationId": "42", "timestamp": 1792303600000,
+ *  "states": [{"key": "...", "topic": "pipeline/telemetry/com:iot:dummy:dummyMqttDevice001/resource/temperature/average", "payload": "22.4",
+ *              "value": 22.4, "timestamp": 1792303598000, "sequence": 118}, ...], "truncated": false}
+ *
+ * The payload is returned as UTF-8 text and the value only for numeric payloads. At most maxResponseStates states are returned.
+ * Errors are returned as {"correlationId": "42", "error": "..."}.
+ *
+ * @created: 18/10/2026
+ * @project: WLDT - MQTT Example
+ */
+public class ShadowSnapshotService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ShadowSnapshotService.class);
+
+    private static final String MATCH_ALL_FILTER = "#";
+
+    private final ShadowStateCache shadowStateCache;
+
+    private final ShadowSnapshotServiceConfiguration configuration;
+
+    private final ObjectMapper mapper;
+
+    private final JsonFactory jsonFactory;
+
+    private final LongAdder requestCount = new LongAdder();
+
+    private final LongAdder errorCount = new LongAdder();
+
+    private IMqttAsyncClient mqttClient;
+
+    public ShadowSnapshotService(ShadowStateCache shadowStateCache, ShadowSnapshotServiceConfiguration configuration) {
+
+        configuration.validate();
+
+        this.shadowStateCache = shadowStateCache;
+        this.configuration = configuration;
+        this.mapper = new ObjectMapper();
+        this.mapper.configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+        this.jsonFactory = mapper.getFactory();
+    }
+
+    /**
+     * Connect to the broker and subscribe the request topic
+     */
+    public synchronized void start() throws MqttException {
+
+        if(mqttClient != null)
+            return;
+
+        String clientId = configuration.getClientId() != null ? configuration.getClientId() : UUID.randomUUID().toString();
+
+        this.mqttClient = new MqttAsyncClient(configuration.getBrokerUrl(), clientId, new MemoryPersistence());
+
+        this.mqttClient.setCallback(new MqttCallbackExtended() {
+
+            @Override
+            public void connectComplete(boolean reconnect, String serverURI) {
+                //Clean session: the subscription is lost when the connection is lost
+                if(reconnect)
+                    subscribe();
+            }
+
+            @Override
+            public void connectionLost(Throwable cause) {
+                logger.warn("Shadow Snapshot Service connection lost ! Cause: {}", cause != null ? cause.getLocalizedMessage() : "unknown");
+            }
+
+            @Override
+            public void messageArrived(String topic, MqttMessage message) {
+                onRequest(message.getPayload());
+            }
+
+            @Override
+            public void deliveryComplete(IMqttDeliveryToken token) {
+            }
+        });
+
+        MqttConnectOptions options = new MqttConnectOptions();
+        options.setAutomaticReconnect(true);
+        options.setCleanSession(true);
+        options.setConnectionTimeout(10);
+
+        this.mqttClient.connect(options).waitForCompletion();
+        subscribe();
+
+        logger.info("Shadow Snapshot Service connected to {} ! Request Topic: {}", configuration.getBrokerUrl(), configuration.getRequestTopic());
+    }
+
+    private void subscribe() {
+        try{
+            //Not waiting for the completion: it can be called by the Paho callback thread
+            mqttClient.subscribe(configuration.getRequestTopic(), configuration.getQos());
+        }catch (MqttException e){
+            logger.error("Shadow Snapshot Service subscription error: {}", e.getLocalizedMessage());
+        }
+    }
+
+    private void onRequest(byte[] payload) {
+
+        requestCount.increment();
+
+        ShadowSnapshotRequest request;
+
+        try{
+            request = mapper.readValue(payload, ShadowSnapshotRequest.class);
+        }catch (IOException e){
+            logger.warn("Invalid shadow snapshot request: {}", e.getLocalizedMessage());
+            publishResponse(configuration.getDefaultResponseTopic(), errorResponse(null, "Invalid request !"));
+            return;
+        }
+
+        publishResponse(request.getResponseTopic() != null ? request.getResponseTopic() : configuration.getDefaultResponseTopic(), execute(request));
+    }
+
+    private void publishResponse(String responseTopic, byte[] response) {
+        try{
+            mqttClient.publish(responseTopic, response, configuration.getQos(), false);
+        }catch (MqttException e){
+            errorCount.increment();
+            logger.error("Error publishing shadow snapshot response on {}: {}", responseTopic, e.getLocalizedMessage());
+        }
+    }
+
+    /**
+     * Execute the snapshot request
+     *
+     * @return the JSON response (an error response if the request is not valid)
+     */
+    public byte[] execute(ShadowSnapshotRequest request) {
+
+        String topicFilter = request.getTopicFilter() != null ? request.getTopicFilter() : MATCH_ALL_FILTER;
+
+        TopicTrie<String> filter = new TopicTrie<>();
+        TopicMatch<String> match = new TopicMatch<>();
+
+        try{
+            filter.add(topicFilter, topicFilter);
+        }catch (IllegalArgumentException e){
+            return errorResponse(request.getCorrelationId(), String.format("Invalid topic filter: %s", topicFilter));
+        }
+
+        try{
+
+            ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+
+            try(JsonGenerator generator = jsonFactory.createGenerator(outputStream)){
+
+                generator.writeStartObject();
+
+                if(request.getCorrelationId() != null)
+                    generator.writeStringField("correlationId", request.getCorrelationId());
+
+                generator.writeNumberField("timestamp", System.currentTimeMillis());
+                generator.writeArrayFieldStart("states");
+
+                int count = 0;
+                boolean truncated = false;
+
+                for(ShadowState state : shadowStateCache.getStates()){
+
+                    //The fields of the state are read under its lock to return a consistent update
+                    synchronized (state){
+
+                        if(state.getTimestamp() == ShadowState.NEVER || state.getTopic() == null || filter.match(state.getTopic(), match) == 0)
+                            continue;
+
+                        if(count == configuration.getMaxResponseStates()){
+                            truncated = true;
+                            break;
+                        }
+
+                        writeState(generator, state);
+                        count++;
+                    }
+                }
+
+                generator.writeEndArray();
+                generator.writeBooleanField("truncated", truncated);
+                generator.writeEndObject();
+            }
+
+            return outputStream.toByteArray();
+
+        }catch (IOException e){
+            logger.error("Error encoding shadow snapshot response: {}", e.getLocalizedMessage());
+            return errorResponse(request.getCorrelationId(), "Error encoding the response !");
+        }
+    }
+
+    private void writeState(JsonGenerator generator, ShadowState state) throws IOException {
+
+        generator.writeStartObject();
+        generator.writeStringField("key", state.getKey());
+        generator.writeStringField("topic", state.getTopic());
+
+        byte[] payload = state.getPayload();
+
+        if(payload != null){
+            generator.writeFieldName("payload");
+            generator.writeUTF8String(payload, 0, payload.length);
+        }
+
+        if(!Double.isNaN(state.getValue()))
+            generator.writeNumberField("value", state.getValue());
+
+        generator.writeNumberField("timestamp", state.getTimestamp());
+        generator.writeNumberField("sequence", state.getSequence());
+        generator.writeEndObject();
+    }
+
+    private byte[] errorResponse(String correlationId, String error) {
+
+        errorCount.increment();
+
+        try{
+
+            ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+
+            try(JsonGenerator generator = jsonFactory.createGenerator(outputStream)){
+                generator.writeStartObject();
+                if(correlationId != null)
+                    generator.writeStringField("correlationId", correlationId);
+                generator.writeStringField("error", error);
+                generator.writeEndObject();
+            }
+
+            return outputStream.toByteArray();
+
+        }catch (IOException e){
+            return new byte[0];
+        }
+    }
+
+    public synchronized void stop() {
+
+        if(mqttClient == null)
+            return;
+
+        try{
+            mqttClient.disconnect().waitForCompletion(1000);
+            mqttClient.close();
+        }catch (MqttException e){
+            logger.warn("Error disconnecting Shadow Snapshot Service: {}", e.getLocalizedMessage());
+        }
+
+        mqttClient = null;
+    }
+
+    public long getRequestCount() {
+        return requestCount.sum();
+    }
+
+    public long getErrorCount() {
+        return errorCount.sum();
+    }
+
+    public ShadowSnapshotServiceConfiguration getConfiguration() {
+        return configuration;
+    }
+}
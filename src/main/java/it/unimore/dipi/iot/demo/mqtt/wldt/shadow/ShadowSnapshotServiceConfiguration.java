@@ -0,0 +1,126 @@
+package it.unimore.dipi.iot.demo.mqtt.wldt.shadow;
+
+/**
+ * Configuration of the ShadowSnapshotService
+ *
+ * @created: 18/10/2026
+ * @project: WLDT - MQTT Example
+ */
+public class ShadowSnapshotServiceConfiguration {
+
+    private String brokerAddress = "127.0.0.1";
+
+    private int brokerPort = 1884;
+
+    private String clientId = null;
+
+    private String requestTopic = "shadow/request";
+
+    //Used when the request does not contain a response topic
+    private String defaultResponseTopic = "shadow/response";
+
+    private int qos = 0;
+
+    //Max states of a response, larger snapshots are truncated
+    private int maxResponseStates = 10000;
+
+    public ShadowSnapshotServiceConfiguration() {
+    }
+
+    public ShadowSnapshotServiceConfiguration(String brokerAddress, int brokerPort) {
+        this.brokerAddress = brokerAddress;
+        this.brokerPort = brokerPort;
+    }
+
+    /**
+     * @throws IllegalArgumentException if the configuration is not valid
+     */
+    public void validate() {
+
+        if(brokerAddress == null || brokerPort <= 0)
+            throw new IllegalArgumentException("Invalid Broker Address or Port !");
+
+        if(requestTopic == null || defaultResponseTopic == null)
+            throw new IllegalArgumentException("Request and Default Response Topics can not be null !");
+
+        if(qos < 0 || qos > 2)
+            throw new IllegalArgumentException(String.format("Invalid QoS: %d", qos));
+
+        if(maxResponseStates <= 0)
+            throw new IllegalArgumentException("Max Response States must be greater than 0 !");
+    }
+
+    public String getBrokerUrl() {
+        return String.format("tcp://%s:%d", brokerAddress, brokerPort);
+    }
+
+    public String getBrokerAddress() {
+        return brokerAddress;
+    }
+
+    public void setBrokerAddress(String brokerAddress) {
+        this.brokerAddress = brokerAddress;
+    }
+
+    public int getBrokerPort() {
+        return brokerPort;
+    }
+
+    public void setBrokerPort(int brokerPort) {
+        this.brokerPort = brokerPort;
+    }
+
+    public String getClientId() {
+        return clientId;
+    }
+
+    public void setClientId(String clientId) {
+        this.clientId = clientId;
+    }
+
+    public String getRequestTopic() {
+        return requestTopic;
+    }
+
+    public void setRequestTopic(String requestTopic) {
+        this.requestTopic = requestTopic;
+    }
+
+    public String getDefaultResponseTopic() {
+        return defaultResponseTopic;
+    }
+
+    public void setDefaultResponseTopic(String defaultResponseTopic) {
+        this.defaultResponseTopic = defaultResponseTopic;
+    }
+
+    public int getQos() {
+        return qos;
+    }
+
+    public void setQos(int qos) {
+        this.qos = qos;
+    }
+
+    public int getMaxResponseStates() {
+        return maxResponseStates;
+    }
+
+    public void setMaxResponseStates(int maxResponseStates) {
+        this.maxResponseStates = maxResponseStates;
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder("ShadowSnapshotServiceConfiguration{");
+        sb.append("brokerAddress='").append(brokerAddress).append('\'');
+        sb.append(", brokerPort=").append(brokerPort);
+        sb.append(", clientId='").append(clientId).append('\'');
+        sb.append(", requestTopic='").append(requestTopic).append('\'');
+        sb.append(", defaultResponseTopic='").append(defaultResponseTopic).append('\'');
+        sb.append(", qos=").append(qos);
+        sb.append(", maxResponseStates=").append(maxResponseStates);
+        sb.append('}');
+        return sb.toString();
+    }
+}
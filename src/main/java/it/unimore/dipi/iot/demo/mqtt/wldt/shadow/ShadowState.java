@@ -0,0 +1,138 @@
+package it.unimore.dipi.iot.demo.mqtt.wldt.shadow;
+
+import java.util.Arrays;
+
+/**
+ * Last known state of a mirrored resource (E.g. the temperature of a device) kept by the ShadowStateCache:
+ * the last received payload with its numeric value, reception time and sequence number, and the last published one
+ * used by the deadband filter.
+ *
+ * Payload arrays are referenced and not copied (the pipeline steps create new payloads instead of modifying
+ * the received ones), so a state costs a few tens of bytes on top of the payloads.
+ *
+ * Updates and reads are synchronized on the state: readers that need a consistent view of more fields
+ * (E.g. the ShadowSnapshotService) lock the state while reading them.
+ *
+ * @created: 18/10/2026
+ * @project: WLDT - MQTT Example
+ */
+public class ShadowState {
+
+    public static final long NEVER = Long.MIN_VALUE;
+
+    private final String key;
+
+    private String topic;
+
+    private byte[] payload;
+
+    private double value = Double.NaN;
+
+    private boolean retained;
+
+    private long timestamp = NEVER;
+
+    private long sequence = 0;
+
+    private byte[] publishedPayload;
+
+    private double publishedValue = Double.NaN;
+
+    private long publishedTimestamp = NEVER;
+
+    public ShadowState(String key) {
+        this.key = key;
+    }
+
+    /**
+     * Store the received payload and decide if it has to be published: the first value, a change of the numeric value
+     * beyond the deadband, a change of a non numeric payload or a value received after maxSilenceMs without publishing
+     *
+     * @param value numeric value of the payload, NaN if the payload is not a number
+     * @return true if the payload has to be published
+     */
+    public synchronized boolean update(String topic, byte[] payload, double value, boolean retained, long timestamp, DeadbandConfiguration deadband) {
+
+        this.topic = topic;
+        this.payload = payload;
+        this.value = value;
+        this.retained = retained;
+        this.timestamp = timestamp;
+        this.sequence++;
+
+        boolean publish;
+
+        if(publishedTimestamp == NEVER)
+            publish = true;
+        else if(deadband.getMaxSilenceMs() > 0 && timestamp - publishedTimestamp >= deadband.getMaxSilenceMs())
+            publish = true;
+        else if(!Double.isNaN(value) && !Double.isNaN(publishedValue))
+            publish = deadband.isExceeded(publishedValue, value);
+        else
+            publish = !Arrays.equals(publishedPayload, payload);
+
+        if(publish){
+            this.publishedPayload = payload;
+            this.publishedValue = value;
+            this.publishedTimestamp = timestamp;
+        }
+
+        return publish;
+    }
+
+    public String getKey() {
+        return key;
+    }
+
+    public synchronized String getTopic() {
+        return topic;
+    }
+
+    public synchronized byte[] getPayload() {
+        return payload;
+    }
+
+    /**
+     * @return last received value, NaN if the payload is not a number
+     */
+    public synchronized double getValue() {
+        return value;
+    }
+
+    public synchronized boolean isRetained() {
+        return retained;
+    }
+
+    public synchronized long getTimestamp() {
+        return timestamp;
+    }
+
+    /**
+     * @return number of received updates
+     */
+    public synchronized long getSequence() {
+        return sequence;
+    }
+
+    public synchronized double getPublishedValue() {
+        return publishedValue;
+    }
+
+    public synchronized long getPublishedTimestamp() {
+        return publishedTimestamp;
+    }
+
+    @Override
+    public synchronized String toString() {
+        final StringBuilder sb = new StringBuilder("ShadowState{");
+        sb.append("key='").append(key).append('\'');
+        sb.append(", topic='").append(topic).append('\'');
+        sb.append(", value=").append(value);
+        sb.append(", timestamp=").append(timestamp);
+        sb.append(", sequence=").append(sequence);
+        sb.append(", publishedValue=").append(publishedValue);
+        sb.append(", publishedTimestamp=").append(publishedTimestamp);
+        sb.append('}');
+        return sb.toString();
+    }
+}
@@ -0,0 +1,130 @@
+package it.unimore.dipi.iot.demo.mqtt.wldt.shadow;
+
+import it.unimore.dipi.iot.wldt.cache.IWldtCache;
+import it.unimore.dipi.iot.wldt.exception.WldtCacheException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Shadow of the mirrored resources: the last ShadowState of each device/resource (by default one for each destination topic).
+ *
+ * The cache implements the WLDT IWldtCache interface, so it can be used where a worker cache is expected, but it is backed
+ * by a ConcurrentHashMap without expiration instead of the core WldtCache: the shadow must keep the state of resources
+ * that publish rarely and the lookup on the pipeline hot path does not allocate. The number of states is bounded by maxEntries,
+ * the states of new keys are rejected when the cache is full.
+ *
+ * @created: 18/10/2026
+ * @project: WLDT - MQTT Example
+ */
+public class ShadowStateCache implements IWldtCache<String, ShadowState> {
+
+    private static final Logger logger = LoggerFactory.getLogger(ShadowStateCache.class);
+
+    public static final int DEFAULT_MAX_ENTRIES = 100000;
+
+    private final ConcurrentHashMap<String, ShadowState> states = new ConcurrentHashMap<>();
+
+    private final int maxEntries;
+
+    private final LongAdder rejectedCount = new LongAdder();
+
+    public ShadowStateCache() {
+        this(DEFAULT_MAX_ENTRIES);
+    }
+
+    public ShadowStateCache(int maxEntries) {
+
+        if(maxEntries <= 0)
+            throw new IllegalArgumentException(String.format("Invalid max entries: %d ! It must be greater than 0", maxEntries));
+
+        this.maxEntries = maxEntries;
+    }
+
+    /**
+     * @return the state of the key (created if missing) or null if the key is null or the cache is full
+     */
+    public ShadowState getOrCreate(String key) {
+
+        if(key == null)
+            return null;
+
+        ShadowState state = states.get(key);
+
+        if(state != null)
+            return state;
+
+        if(states.size() >= maxEntries){
+            rejectedCount.increment();
+            return null;
+        }
+
+        return states.computeIfAbsent(key, ShadowState::new);
+    }
+
+    public ShadowState get(String key) {
+        return key != null ? states.get(key) : null;
+    }
+
+    @Override
+    public void initCache() throws WldtCacheException {
+        logger.debug("Shadow State Cache initialized ! Max Entries: {}", maxEntries);
+    }
+
+    @Override
+    public void delete() throws WldtCacheException {
+        states.clear();
+    }
+
+    @Override
+    public void putData(String key, ShadowState state) throws WldtCacheException {
+
+        if(key == null || state == null)
+            throw new WldtCacheException("Key and State can not be null !");
+
+        if(!states.containsKey(key) && states.size() >= maxEntries){
+            rejectedCount.increment();
+            throw new WldtCacheException(String.format("Shadow State Cache full ! Max Entries: %d", maxEntries));
+        }
+
+        states.put(key, state);
+    }
+
+    @Override
+    public Optional<ShadowState> getData(String key) throws WldtCacheException {
+        return Optional.ofNullable(get(key));
+    }
+
+    @Override
+    public void removeData(String key) throws WldtCacheException {
+        if(key != null)
+            states.remove(key);
+    }
+
+    /**
+     * @return live view of the stored states
+     */
+    public Collection<ShadowState> getStates() {
+        return Collections.unmodifiableCollection(states.values());
+    }
+
+    public int size() {
+        return states.size();
+    }
+
+    public int getMaxEntries() {
+        return maxEntries;
+    }
+
+    /**
+     * @return states of new keys not created because the cache was full
+     */
+    public long getRejectedCount() {
+        return rejectedCount.sum();
+    }
+}
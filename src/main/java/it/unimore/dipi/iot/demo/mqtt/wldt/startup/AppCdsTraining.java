@@ -0,0 +1,117 @@
+package it.unimore.dipi.iot.demo.mqtt.wldt.startup;
+
+import it.unimore.dipi.iot.demo.mqtt.wldt.MqttCommandTopicChangeStep;
+import it.unimore.dipi.iot.demo.mqtt.wldt.MqttPayloadChangeStep;
+import it.unimore.dipi.iot.demo.mqtt.wldt.MqttStreamingAverageStep;
+import it.unimore.dipi.iot.demo.mqtt.wldt.MqttTopicChangeStep;
+import it.unimore.dipi.iot.demo.mqtt.wldt.WldtMqttProcess;
+import it.unimore.dipi.iot.demo.mqtt.wldt.host.TwinHostConfiguration;
+import it.unimore.dipi.iot.demo.mqtt.wldt.metrics.MetricsRegistry;
+import it.unimore.dipi.iot.demo.mqtt.wldt.pipeline.ConcurrentProcessingPipeline;
+import it.unimore.dipi.iot.demo.mqtt.wldt.topology.TopologyConfiguration;
+import it.unimore.dipi.iot.wldt.processing.PipelineData;
+import it.unimore.dipi.iot.wldt.processing.ProcessingPipelineListener;
+import it.unimore.dipi.iot.wldt.worker.mqtt.MqttPipelineData;
+import it.unimore.dipi.iot.wldt.worker.mqtt.MqttTopicDescriptor;
+import org.eclipse.paho.client.mqttv3.MqttAsyncClient;
+import org.eclipse.paho.client.mqttv3.MqttConnectOptions;
+import org.eclipse.paho.client.mqttv3.persist.MemoryPersistence;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Training run of the AppCDS archive built by the appcds Maven profile: it loads the classes used by the startup and
+ * by the first messages of WldtMqttProcess (configuration parsing, pipelines and steps, MQTT clients, metrics)
+ * without connecting to the brokers, then exits so the JVM dumps the loaded classes in the archive.
+ *
+ * Usage: AppCdsTraining [topology.yaml]
+ *
+ * @created: 18/10/2026
+ * @project: WLDT - MQTT Example
+ */
+public class AppCdsTraining {
+
+    private static final Logger logger = LoggerFactory.getLogger(AppCdsTraining.class);
+
+    private static final String DEVICE_ID = "com:iot:dummy:dummyMqttDevice001";
+
+    private static final int TRAINING_MESSAGE_COUNT = 1000;
+
+    private static final long TRAINING_TIMEOUT_MS = 30000;
+
+    public static void main(String[] args) {
+
+        try{
+
+            if(args.length > 0)
+                TopologyConfiguration.fromYamlFile(args[0]).validate();
+
+            new TwinHostConfiguration().validate();
+
+            MqttTopicDescriptor telemetryDescriptor = new MqttTopicDescriptor(WldtMqttProcess.DEMO_TEMPERATURE_TOPIC_ID,
+                    "temperature",
+                    "telemetry/{{device_id}}/resource/{{resource_id}}",
+                    MqttTopicDescriptor.MQTT_TOPIC_TYPE_DEVICE_OUTGOING);
+
+            MqttTopicDescriptor commandDescriptor = new MqttTopicDescriptor(WldtMqttProcess.DEMO_COMMAND_TOPIC_ID,
+                    "default_command_channel",
+                    "command/{{device_id}}",
+                    MqttTopicDescriptor.MQTT_TOPIC_TYPE_DEVICE_INCOMING);
+
+            ConcurrentProcessingPipeline telemetryPipeline = new ConcurrentProcessingPipeline(new MqttStreamingAverageStep(10), new MqttTopicChangeStep());
+            telemetryPipeline.enableMetrics(MetricsRegistry.getDefault(), telemetryDescriptor.getId());
+
+            ConcurrentProcessingPipeline commandPipeline = new ConcurrentProcessingPipeline(new MqttPayloadChangeStep(), new MqttCommandTopicChangeStep());
+            commandPipeline.enableMetrics(MetricsRegistry.getDefault(), commandDescriptor.getId());
+
+            CountDownLatch completedLatch = new CountDownLatch(2 * TRAINING_MESSAGE_COUNT);
+
+            ProcessingPipelineListener listener = new ProcessingPipelineListener() {
+
+                @Override
+                public void onPipelineDone(Optional<PipelineData> result) {
+                    completedLatch.countDown();
+                }
+
+                @Override
+                public void onPipelineError() {
+                    completedLatch.countDown();
+                }
+            };
+
+            for(int i = 0; i < TRAINING_MESSAGE_COUNT; i++){
+
+                byte[] telemetryPayload = Double.toString(20.0 + (i % 100) / 10.0).getBytes(StandardCharsets.UTF_8);
+                telemetryPipeline.start(new MqttPipelineData(String.format("telemetry/%s/resource/temperature", DEVICE_ID), telemetryDescriptor, telemetryPayload, false), listener);
+
+                byte[] commandPayload = String.format("command-%d", i).getBytes(StandardCharsets.UTF_8);
+                commandPipeline.start(new MqttPipelineData(String.format("command/%s", DEVICE_ID), commandDescriptor, commandPayload, false), listener);
+            }
+
+            if(!completedLatch.await(TRAINING_TIMEOUT_MS, TimeUnit.MILLISECONDS))
+                logger.warn("AppCDS training messages not completed within {} ms ! Pending: {}", TRAINING_TIMEOUT_MS, completedLatch.getCount());
+
+            //Created but not connected: loads the client classes
+            MqttConnectOptions options = new MqttConnectOptions();
+            options.setAutomaticReconnect(true);
+            options.setCleanSession(true);
+            new MqttAsyncClient("tcp://127.0.0.1:1883", "wldtAppCdsTraining", new MemoryPersistence()).close();
+
+            StringBuilder sb = new StringBuilder();
+            MetricsRegistry.getDefault().writePrometheus(sb);
+
+            logger.info("AppCDS training completed ! Messages: {} Metrics: {} bytes", 2 * TRAINING_MESSAGE_COUNT, sb.length());
+
+            System.exit(0);
+
+        }catch (Exception e){
+            e.printStackTrace();
+            System.exit(1);
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package it.unimore.dipi.iot.demo.mqtt.wldt.startup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs the blocking startup tasks of a process (E.g. the connection of a publisher or of a service client) in parallel,
+ * so the startup time is the one of the slowest task and not the sum of all of them. The completion of each task is
+ * marked on the StartupReport.
+ *
+ * Usage: submit() the tasks, then awaitAll() before using their results.
+ *
+ * @created: 18/10/2026
+ * @project: WLDT - MQTT Example
+ */
+public class ParallelStartup {
+
+    private final String name;
+
+    private final StartupReport startupReport;
+
+    private final ExecutorService executorService;
+
+    private final List<String> taskNames = new ArrayList<>();
+
+    private final List<Future<?>> futures = new ArrayList<>();
+
+    public ParallelStartup(String name) {
+        this(name, StartupReport.getDefault());
+    }
+
+    public ParallelStartup(String name, StartupReport startupReport) {
+
+        this.name = name;
+        this.startupReport = startupReport;
+
+        AtomicInteger threadCount = new AtomicInteger(0);
+
+        this.executorService = Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, String.format("wldt-startup-%s-%d", name, threadCount.getAndIncrement()));
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Start the task on a dedicated thread
+     *
+     * @return the result of the task, available after awaitAll()
+     */
+    public synchronized <T> Future<T> submit(String taskName, Callable<T> task) {
+
+        Future<T> future = executorService.submit(() -> {
+            T result = task.call();
+            startupReport.mark(String.format("%s.%s", name, taskName));
+            return result;
+        });
+
+        taskNames.add(taskName);
+        futures.add(future);
+
+        return future;
+    }
+
+    /**
+     * Wait for the completion of all the submitted tasks. The threads are released when the method returns.
+     *
+     * @throws Exception the error of the first failed task, a TimeoutException if the tasks did not complete in time
+     */
+    public synchronized void awaitAll(long timeoutMs) throws Exception {
+
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMs);
+
+        try{
+
+            for(int i = 0; i < futures.size(); i++){
+
+                try{
+                    futures.get(i).get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+                }catch (ExecutionException e){
+                    throw new Exception(String.format("Startup task %s.%s failed: %s", name, taskNames.get(i), e.getCause().getLocalizedMessage()), e.getCause());
+                }catch (TimeoutException e){
+                    throw new TimeoutException(String.format("Startup task %s.%s not completed within %d ms !", name, taskNames.get(i), timeoutMs));
+                }
+            }
+
+        }finally {
+            executorService.shutdownNow();
+        }
+    }
+}
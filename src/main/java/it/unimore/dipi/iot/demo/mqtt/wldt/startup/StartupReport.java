@@ -0,0 +1,126 @@
+package it.unimore.dipi.iot.demo.mqtt.wldt.startup;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.management.ManagementFactory;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Startup time of the process measured from the launch of the JVM (RuntimeMXBean start time): the components mark
+ * the completion of their startup phases (E.g. connected brokers, subscriptions acknowledged) and the report is logged
+ * when the process is ready and when the first message has been forwarded by a pipeline.
+ *
+ * onMessageForwarded() is called by each completed PipelineExecution: after the first message it only reads a volatile field.
+ *
+ * @created: 18/10/2026
+ * @project: WLDT - MQTT Example
+ */
+public class StartupReport {
+
+    private static final Logger logger = LoggerFactory.getLogger(StartupReport.class);
+
+    private static final StartupReport instance = new StartupReport();
+
+    private final long launchTimeMs;
+
+    //Phase -> elapsed milliseconds from the launch, in completion order
+    private final Map<String, Long> phases = new LinkedHashMap<>();
+
+    private volatile long readyMs = -1;
+
+    private volatile long firstMessageForwardedMs = -1;
+
+    private final AtomicBoolean firstMessageForwarded = new AtomicBoolean(false);
+
+    public StartupReport() {
+        this(ManagementFactory.getRuntimeMXBean().getStartTime());
+    }
+
+    /**
+     * @param launchTimeMs epoch milliseconds of the process launch
+     */
+    public StartupReport(long launchTimeMs) {
+        this.launchTimeMs = launchTimeMs;
+    }
+
+    public static StartupReport getDefault() {
+        return instance;
+    }
+
+    /**
+     * @return the elapsed milliseconds from the launch of the process
+     */
+    public long getElapsedMs() {
+        return System.currentTimeMillis() - launchTimeMs;
+    }
+
+    /**
+     * Record the completion of a startup phase
+     */
+    public long mark(String phase) {
+
+        long elapsedMs = getElapsedMs();
+
+        synchronized (phases){
+            phases.put(phase, elapsedMs);
+        }
+
+        logger.debug("Startup phase {} completed after {} ms", phase, elapsedMs);
+
+        return elapsedMs;
+    }
+
+    /**
+     * The process is connected and subscribed: the messages can be received
+     */
+    public void markReady() {
+        this.readyMs = mark("ready");
+        logger.info("Startup ready after {} ms ! {}", readyMs, this);
+    }
+
+    public void onMessageForwarded() {
+
+        if(firstMessageForwardedMs >= 0 || !firstMessageForwarded.compareAndSet(false, true))
+            return;
+
+        this.firstMessageForwardedMs = mark("firstMessageForwarded");
+        logger.info("First message forwarded after {} ms ! {}", firstMessageForwardedMs, this);
+    }
+
+    /**
+     * @return the elapsed milliseconds of the phase, -1 if not completed
+     */
+    public long getPhaseMs(String phase) {
+        synchronized (phases){
+            Long elapsedMs = phases.get(phase);
+            return elapsedMs != null ? elapsedMs : -1;
+        }
+    }
+
+    public long getReadyMs() {
+        return readyMs;
+    }
+
+    public long getFirstMessageForwardedMs() {
+        return firstMessageForwardedMs;
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder("StartupReport{");
+        synchronized (phases){
+            boolean first = true;
+            for(Map.Entry<String, Long> phase : phases.entrySet()){
+                if(!first)
+                    sb.append(", ");
+                sb.append(phase.getKey()).append('=').append(phase.getValue()).append("ms");
+                first = false;
+            }
+        }
+        sb.append('}');
+        return sb.toString();
+    }
+}
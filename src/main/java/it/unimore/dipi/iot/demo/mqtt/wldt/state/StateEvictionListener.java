@@ -0,0 +1,13 @@
+package it.unimore.dipi.iot.demo.mqtt.wldt.state;
+
+/**
+ * Listener notified when an idle state is removed from a TopicStateStore
+ *
+ * @created: 18/10/2026
+ * @project: WLDT - MQTT Example
+ */
+public interface StateEvictionListener<S> {
+
+    public void onStateEvicted(String key, S state);
+
+}
@@ -0,0 +1,97 @@
+package it.unimore.dipi.iot.demo.mqtt.wldt.state;
+
+import it.unimore.dipi.iot.wldt.worker.mqtt.MqttPipelineData;
+
+/**
+ * Strategy used by stateful ProcessingSteps to decide which state has to be
+ * associated to a received MqttPipelineData (e.g. one state for each concrete topic
+ * or for each resource of the MqttTopicDescriptor)
+ *
+ * @created: 18/10/2026
+ * @project: WLDT - MQTT Example
+ */
+public interface StateKeyExtractor {
+
+    /**
+     * @return the state key of the received data or null if the key can not be extracted
+     */
+    public String extractKey(MqttPipelineData data);
+
+    /**
+     * One state for each concrete topic (e.g. telemetry/device01/resource/temperature).
+     * The received topic is used as it is, without any allocation.
+     */
+    public static StateKeyExtractor byTopic() {
+        return MqttPipelineData::getTopic;
+    }
+
+    /**
+     * One state for each resource id declared in the MqttTopicDescriptor
+     */
+    public static StateKeyExtractor byResourceId() {
+        return data -> data.getMqttTopicDescriptor() != null ? data.getMqttTopicDescriptor().getResourceId() : null;
+    }
+
+    /**
+     * One state for each combination of the selected topic segments.
+     * E.g. segments 1 and 3 of telemetry/{{device_id}}/resource/{{resource_id}} identify device and resource.
+     * The topic levels are located with indexOf (a single pass when the indexes are sorted), so only the key is allocated.
+     *
+     * @param segmentIndexes zero based indexes of the topic levels to be used as key
+     */
+    public static StateKeyExtractor byTopicSegments(int... segmentIndexes) {
+        return data -> {
+
+            String topic = data.getTopic();
+
+            if(topic == null)
+                return null;
+
+            StringBuilder keyBuilder = null;
+            int keyStart = -1;
+            int keyEnd = -1;
+
+            int level = 0;
+            int start = 0;
+
+            for(int segmentIndex : segmentIndexes){
+
+                if(segmentIndex < 0)
+                    return null;
+
+                if(segmentIndex < level){
+                    level = 0;
+                    start = 0;
+                }
+
+                for(; level < segmentIndex; level++){
+                    int separator = topic.indexOf('/', start);
+                    if(separator < 0)
+                        return null;
+                    start = separator + 1;
+                }
+
+                int end = topic.indexOf('/', start);
+                if(end < 0)
+                    end = topic.length();
+
+                if(keyStart < 0){
+                    keyStart = start;
+                    keyEnd = end;
+                }
+                else {
+                    if(keyBuilder == null)
+                        keyBuilder = new StringBuilder(topic.length()).append(topic, keyStart, keyEnd);
+
+                    keyBuilder.append('/').append(topic, start, end);
+                }
+            }
+
+            if(keyBuilder != null)
+                return keyBuilder.toString();
+
+            return keyStart >= 0 ? topic.substring(keyStart, keyEnd) : "";
+        };
+    }
+
+}
@@ -0,0 +1,302 @@
+package it.unimore.dipi.iot.demo.mqtt.wldt.state;
+
+import it.unimore.dipi.iot.demo.mqtt.utils.SharedScheduler;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+/**
+ * Sharded concurrent store used by stateful ProcessingSteps to keep a separated state
+ * for each key (e.g. concrete topic, device or resource) instead of a single PipelineCache entry.
+ *
+ * The number of stored states is bounded (new keys are rejected when the store is full and no idle
+ * state can be evicted, a slot is reserved on the size counter before a state is created so the limit
+ * holds under concurrent insertions) and states not accessed for longer than the idle timeout are periodically
+ * removed through the SharedScheduler, so the heap used by a twin mirroring tens of thousands of devices
+ * stays bounded.
+ *
+ * The store only guarantees a safe publication of the states, the state objects themselves are
+ * expected to be updated by one thread at a time for each key.
+ *
+ * @created: 18/10/2026
+ * @project: WLDT - MQTT Example
+ */
+public class TopicStateStore<S> {
+
+    private static final Logger logger = LoggerFactory.getLogger(TopicStateStore.class);
+
+    public static final int DEFAULT_MAX_ENTRIES = 100000;
+
+    public static final long DEFAULT_IDLE_TIMEOUT_MS = 10 * 60 * 1000;
+
+    public static final long DEFAULT_EVICTION_PERIOD_MS = 30 * 1000;
+
+    public static final int DEFAULT_SHARD_COUNT = 16;
+
+    private static final long MIN_FULL_EVICTION_INTERVAL_MS = 1000;
+
+    private final Function<String, S> stateFactory;
+
+    private final int maxEntries;
+
+    private final long idleTimeoutMs;
+
+    private final ConcurrentHashMap<String, StateEntry<S>>[] shards;
+
+    private final int shardMask;
+
+    private final AtomicInteger size = new AtomicInteger(0);
+
+    private volatile StateEvictionListener<S> evictionListener;
+
+    private ScheduledFuture<?> evictionFuture;
+
+    private volatile long lastFullEvictionTime = 0;
+
+    private static class StateEntry<S> {
+
+        private final S state;
+
+        private volatile long lastAccessTime;
+
+        private StateEntry(S state, long lastAccessTime) {
+            this.state = state;
+            this.lastAccessTime = lastAccessTime;
+        }
+    }
+
+    public TopicStateStore(Function<String, S> stateFactory) {
+        this(stateFactory, DEFAULT_MAX_ENTRIES, DEFAULT_IDLE_TIMEOUT_MS, DEFAULT_SHARD_COUNT);
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public TopicStateStore(Function<String, S> stateFactory, int maxEntries, long idleTimeoutMs, int shardCount) {
+
+        if(stateFactory == null || maxEntries <= 0 || idleTimeoutMs <= 0 || shardCount <= 0)
+            throw new IllegalArgumentException("State Factory can not be null and Max Entries, Idle Timeout and Shard Count must be greater than 0 !");
+
+        this.stateFactory = stateFactory;
+        this.maxEntries = maxEntries;
+        this.idleTimeoutMs = idleTimeoutMs;
+
+        int normalizedShardCount = Integer.highestOneBit(shardCount - 1) << 1;
+        if(normalizedShardCount <= 0)
+            normalizedShardCount = 1;
+
+        this.shards = new ConcurrentHashMap[normalizedShardCount];
+        for(int i = 0; i < normalizedShardCount; i++)
+            this.shards[i] = new ConcurrentHashMap<>();
+
+        this.shardMask = normalizedShardCount - 1;
+    }
+
+    /**
+     * Return the state associated to the key creating it if required
+     *
+     * @param key the state key
+     * @return the state or null if the store is full and the state can not be created
+     */
+    public S getOrCreate(String key) {
+
+        if(key == null)
+            return null;
+
+        long now = System.currentTimeMillis();
+        ConcurrentHashMap<String, StateEntry<S>> shard = shardFor(key);
+
+        StateEntry<S> entry = shard.get(key);
+
+        if(entry != null){
+            entry.lastAccessTime = now;
+            return entry.state;
+        }
+
+        if(!reserveSlot(shard, now)){
+            logger.debug("TopicStateStore full ({} entries) ! Unable to create the state for key: {}", maxEntries, key);
+            return null;
+        }
+
+        boolean[] created = new boolean[1];
+
+        try{
+            entry = shard.computeIfAbsent(key, newKey -> {
+                created[0] = true;
+                return new StateEntry<>(stateFactory.apply(newKey), now);
+            });
+        }finally {
+            //The state has been created concurrently by another thread (or the factory failed)
+            if(!created[0] || entry == null)
+                size.decrementAndGet();
+        }
+
+        return entry.state;
+    }
+
+    /**
+     * Reserve a slot for a new state with a CAS on the size counter, evicting idle states if the store is full
+     */
+    private boolean reserveSlot(ConcurrentHashMap<String, StateEntry<S>> shard, long now) {
+
+        while(true){
+
+            int currentSize = size.get();
+
+            if(currentSize < maxEntries){
+                if(size.compareAndSet(currentSize, currentSize + 1))
+                    return true;
+            }
+            else if(!makeRoom(shard, now))
+                return false;
+        }
+    }
+
+    /**
+     * Try to evict idle states from the target shard and, at most once per second, from the whole store
+     */
+    private boolean makeRoom(ConcurrentHashMap<String, StateEntry<S>> shard, long now) {
+
+        if(evictIdle(shard, now) > 0)
+            return true;
+
+        if(now - lastFullEvictionTime < MIN_FULL_EVICTION_INTERVAL_MS)
+            return false;
+
+        lastFullEvictionTime = now;
+        return evictIdle() > 0;
+    }
+
+    /**
+     * @return the state associated to the key or null if it does not exist
+     */
+    public S get(String key) {
+
+        if(key == null)
+            return null;
+
+        StateEntry<S> entry = shardFor(key).get(key);
+        return entry != null ? entry.state : null;
+    }
+
+    public S remove(String key) {
+
+        if(key == null)
+            return null;
+
+        StateEntry<S> entry = shardFor(key).remove(key);
+
+        if(entry == null)
+            return null;
+
+        size.decrementAndGet();
+        return entry.state;
+    }
+
+    /**
+     * Remove all the states not accessed for longer than the idle timeout
+     *
+     * @return the number of removed states
+     */
+    public int evictIdle() {
+
+        long now = System.currentTimeMillis();
+        int evicted = 0;
+
+        for(ConcurrentHashMap<String, StateEntry<S>> shard : shards)
+            evicted += evictIdle(shard, now);
+
+        if(evicted > 0)
+            logger.debug("Evicted {} idle states. Current size: {}", evicted, size.get());
+
+        return evicted;
+    }
+
+    private int evictIdle(ConcurrentHashMap<String, StateEntry<S>> shard, long now) {
+
+        int evicted = 0;
+        Iterator<Map.Entry<String, StateEntry<S>>> iterator = shard.entrySet().iterator();
+
+        while(iterator.hasNext()){
+
+            Map.Entry<String, StateEntry<S>> mapEntry = iterator.next();
+            StateEntry<S> entry = mapEntry.getValue();
+
+            if(now - entry.lastAccessTime > idleTimeoutMs && shard.remove(mapEntry.getKey(), entry)){
+
+                size.decrementAndGet();
+                evicted++;
+
+                StateEvictionListener<S> listener = this.evictionListener;
+                if(listener != null){
+                    try{
+                        listener.onStateEvicted(mapEntry.getKey(), entry.state);
+                    }catch (Exception e){
+                        logger.error("Error notifying evicted state for key {}: {}", mapEntry.getKey(), e.getLocalizedMessage());
+                    }
+                }
+            }
+        }
+
+        return evicted;
+    }
+
+    /**
+     * Periodically evict idle states on the SharedScheduler thread
+     *
+     * @param periodMs eviction period in milliseconds
+     */
+    public synchronized void startEviction(long periodMs) {
+        if(this.evictionFuture == null)
+            this.evictionFuture = SharedScheduler.getInstance().schedule(this::evictIdle, periodMs);
+    }
+
+    /**
+     * Stop the periodic eviction and remove all the stored states
+     */
+    public synchronized void close() {
+
+        if(this.evictionFuture != null){
+            this.evictionFuture.cancel(false);
+            this.evictionFuture = null;
+        }
+
+        for(ConcurrentHashMap<String, StateEntry<S>> shard : shards)
+            shard.clear();
+
+        size.set(0);
+    }
+
+    public void forEach(BiConsumer<String, S> action) {
+        for(ConcurrentHashMap<String, StateEntry<S>> shard : shards)
+            shard.forEach((key, entry) -> action.accept(key, entry.state));
+    }
+
+    public int size() {
+        return size.get();
+    }
+
+    public int getMaxEntries() {
+        return maxEntries;
+    }
+
+    public long getIdleTimeoutMs() {
+        return idleTimeoutMs;
+    }
+
+    public void setEvictionListener(StateEvictionListener<S> evictionListener) {
+        this.evictionListener = evictionListener;
+    }
+
+    private ConcurrentHashMap<String, StateEntry<S>> shardFor(String key) {
+        int hash = key.hashCode();
+        hash ^= (hash >>> 16);
+        return shards[hash & shardMask];
+    }
+
+}
@@ -0,0 +1,164 @@
+package it.unimore.dipi.iot.demo.mqtt.wldt.topic;
+
+import java.util.Arrays;
+
+/**
+ * Reusable result of a TopicTrie lookup: the matching entries and the offsets of the levels of the topic,
+ * so the variables captured by the placeholders are extracted only when requested.
+ *
+ * The internal arrays grow when needed and are reused by the next lookups: an instance must not be shared by
+ * multiple threads (E.g. keep one in a ThreadLocal) and the results are valid until the next lookup.
+ *
+ * @created: 18/10/2026
+ * @project: WLDT - MQTT Example
+ */
+public class TopicMatch<T> {
+
+    private static final int DEFAULT_LEVEL_CAPACITY = 16;
+
+    private static final int DEFAULT_ENTRY_CAPACITY = 8;
+
+    private String topic;
+
+    private int levelCount = 0;
+
+    private int[] levelStarts = new int[DEFAULT_LEVEL_CAPACITY];
+
+    private int[] levelEnds = new int[DEFAULT_LEVEL_CAPACITY];
+
+    private int[] levelHashes = new int[DEFAULT_LEVEL_CAPACITY];
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private TopicTrie.Entry<T>[] entries = (TopicTrie.Entry<T>[]) new TopicTrie.Entry[DEFAULT_ENTRY_CAPACITY];
+
+    private int size = 0;
+
+    public TopicMatch() {
+    }
+
+    /**
+     * Split the topic in levels computing the hash of each level (the same of String.hashCode())
+     */
+    void reset(String topic) {
+
+        Arrays.fill(entries, 0, size, null);
+
+        this.topic = topic;
+        this.size = 0;
+        this.levelCount = 0;
+
+        int start = 0;
+        int hash = 0;
+
+        for(int i = 0; i <= topic.length(); i++){
+
+            if(i == topic.length() || topic.charAt(i) == '/'){
+
+                if(levelCount == levelStarts.length){
+                    levelStarts = Arrays.copyOf(levelStarts, levelCount * 2);
+                    levelEnds = Arrays.copyOf(levelEnds, levelCount * 2);
+                    levelHashes = Arrays.copyOf(levelHashes, levelCount * 2);
+                }
+
+                levelStarts[levelCount] = start;
+                levelEnds[levelCount] = i;
+                levelHashes[levelCount] = hash;
+                levelCount++;
+
+                start = i + 1;
+                hash = 0;
+            }
+            else
+                hash = 31 * hash + topic.charAt(i);
+        }
+    }
+
+    void add(TopicTrie.Entry<T>[] newEntries) {
+
+        if(newEntries.length == 0)
+            return;
+
+        if(size + newEntries.length > entries.length)
+            entries = Arrays.copyOf(entries, Math.max(entries.length * 2, size + newEntries.length));
+
+        System.arraycopy(newEntries, 0, entries, size, newEntries.length);
+        size += newEntries.length;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public TopicTrie.Entry<T> getEntry(int index) {
+        checkIndex(index);
+        return entries[index];
+    }
+
+    public T getValue(int index) {
+        checkIndex(index);
+        return entries[index].getValue();
+    }
+
+    /**
+     * @return the level of the topic captured by the placeholder {{name}} of the matching entry, null if the pattern does not contain it
+     */
+    public String getVariable(int index, String name) {
+
+        int level = getEntry(index).getVariableLevel(name);
+
+        return level >= 0 ? topic.substring(levelStarts[level], levelEnds[level]) : null;
+    }
+
+    /**
+     * Compare the level captured by the placeholder {{name}} of the matching entry without extracting it
+     */
+    public boolean variableEquals(int index, String name, String value) {
+
+        int level = getEntry(index).getVariableLevel(name);
+
+        if(level < 0 || value == null)
+            return false;
+
+        int length = levelEnds[level] - levelStarts[level];
+
+        return value.length() == length && topic.regionMatches(levelStarts[level], value, 0, length);
+    }
+
+    private void checkIndex(int index) {
+        if(index < 0 || index >= size)
+            throw new IndexOutOfBoundsException(String.format("Index: %d Size: %d", index, size));
+    }
+
+    public String getTopic() {
+        return topic;
+    }
+
+    public int getLevelCount() {
+        return levelCount;
+    }
+
+    int getLevelStart(int level) {
+        return levelStarts[level];
+    }
+
+    int getLevelEnd(int level) {
+        return levelEnds[level];
+    }
+
+    int getLevelHash(int level) {
+        return levelHashes[level];
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder("TopicMatch{");
+        sb.append("topic='").append(topic).append('\'');
+        sb.append(", entries=").append(Arrays.toString(Arrays.copyOf(entries, size)));
+        sb.append('}');
+        return sb.toString();
+    }
+}
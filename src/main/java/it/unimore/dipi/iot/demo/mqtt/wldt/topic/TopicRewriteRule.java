@@ -0,0 +1,79 @@
+package it.unimore.dipi.iot.demo.mqtt.wldt.topic;
+
+/**
+ * Single rewrite rule applied by a TopicRewriter to the topic of the processed messages.
+ * Rules are created once (E.g. when the pipeline is built) with all the constant parts
+ * already concatenated, so applying a rule never formats or parses a template.
+ *
+ * @created: 18/10/2026
+ * @project: WLDT - MQTT Example
+ */
+public interface TopicRewriteRule {
+
+    /**
+     * @return the rewritten topic or the received one if the rule does not match
+     */
+    public String apply(String topic);
+
+    /**
+     * Add a leading topic level. E.g. prefix("pipeline"): telemetry/device01 -> pipeline/telemetry/device01
+     */
+    public static TopicRewriteRule prefix(String prefix) {
+
+        if(prefix == null || prefix.isEmpty())
+            throw new IllegalArgumentException("Topic prefix can not be null or empty !");
+
+        final String levelPrefix = prefix.endsWith("/") ? prefix : prefix + "/";
+        return topic -> levelPrefix.concat(topic);
+    }
+
+    /**
+     * Add a trailing topic level. E.g. suffix("average"): telemetry/device01 -> telemetry/device01/average
+     */
+    public static TopicRewriteRule suffix(String suffix) {
+
+        if(suffix == null || suffix.isEmpty())
+            throw new IllegalArgumentException("Topic suffix can not be null or empty !");
+
+        final String levelSuffix = suffix.startsWith("/") ? suffix : "/" + suffix;
+        return topic -> topic.concat(levelSuffix);
+    }
+
+    /**
+     * Replace the topic level at the given position only if it is exactly equal to the expected value.
+     * E.g. segment(0, "command", "cmd"): command/device01 -> cmd/device01 while device01/command/x is not changed
+     *
+     * @param segmentIndex zero based index of the topic level
+     * @param from expected value of the whole topic level
+     * @param to replacement value
+     */
+    public static TopicRewriteRule segment(int segmentIndex, String from, String to) {
+
+        if(segmentIndex < 0 || from == null || from.isEmpty() || to == null || from.contains("/"))
+            throw new IllegalArgumentException("Invalid segment rule ! The index must be >= 0 and the expected value a single not empty topic level");
+
+        return topic -> {
+
+            int start = 0;
+
+            for(int i = 0; i < segmentIndex; i++){
+                int separator = topic.indexOf('/', start);
+                if(separator < 0)
+                    return topic;
+                start = separator + 1;
+            }
+
+            int end = start + from.length();
+
+            if(end > topic.length() || (end < topic.length() && topic.charAt(end) != '/') || !topic.regionMatches(start, from, 0, from.length()))
+                return topic;
+
+            return new StringBuilder(topic.length() - from.length() + to.length())
+                    .append(topic, 0, start)
+                    .append(to)
+                    .append(topic, end, topic.length())
+                    .toString();
+        };
+    }
+
+}
@@ -0,0 +1,87 @@
+package it.unimore.dipi.iot.demo.mqtt.wldt.topic;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Applies an ordered list of precompiled TopicRewriteRules and caches the result for each input topic.
+ *
+ * The number of distinct topics handled by a pipeline is usually bounded (devices x resources), so after the
+ * first message of a topic the rewritten topic is returned by a single lookup without any formatting or allocation.
+ * The cache is bounded: when maxCacheSize is reached it is cleared and rebuilt by the following messages,
+ * avoiding an unbounded growth when the pipeline receives an unexpected number of topics.
+ *
+ * @created: 18/10/2026
+ * @project: WLDT - MQTT Example
+ */
+public class TopicRewriter {
+
+    public static final int DEFAULT_MAX_CACHE_SIZE = 100000;
+
+    private final TopicRewriteRule[] rules;
+
+    private final int maxCacheSize;
+
+    private final Map<String, String> topicCache;
+
+    public TopicRewriter(TopicRewriteRule... rules) {
+        this(DEFAULT_MAX_CACHE_SIZE, rules);
+    }
+
+    public TopicRewriter(int maxCacheSize, TopicRewriteRule... rules) {
+
+        if(maxCacheSize <= 0)
+            throw new IllegalArgumentException(String.format("Invalid max cache size: %d ! It must be greater than 0", maxCacheSize));
+
+        if(rules == null || rules.length == 0)
+            throw new IllegalArgumentException("At least one TopicRewriteRule is required !");
+
+        this.rules = Arrays.copyOf(rules, rules.length);
+        this.maxCacheSize = maxCacheSize;
+        this.topicCache = new ConcurrentHashMap<>(Math.min(maxCacheSize, 1024));
+    }
+
+    /**
+     * @return the rewritten topic, null if the received topic is null
+     */
+    public String rewrite(String topic) {
+
+        if(topic == null)
+            return null;
+
+        String rewrittenTopic = topicCache.get(topic);
+
+        if(rewrittenTopic != null)
+            return rewrittenTopic;
+
+        rewrittenTopic = topic;
+        for(TopicRewriteRule rule : rules)
+            rewrittenTopic = rule.apply(rewrittenTopic);
+
+        if(topicCache.size() >= maxCacheSize)
+            topicCache.clear();
+
+        topicCache.put(topic, rewrittenTopic);
+
+        return rewrittenTopic;
+    }
+
+    public int getCacheSize() {
+        return topicCache.size();
+    }
+
+    public int getMaxCacheSize() {
+        return maxCacheSize;
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder("TopicRewriter{");
+        sb.append("rules=").append(rules.length);
+        sb.append(", maxCacheSize=").append(maxCacheSize);
+        sb.append(", cacheSize=").append(topicCache.size());
+        sb.append('}');
+        return sb.toString();
+    }
+}
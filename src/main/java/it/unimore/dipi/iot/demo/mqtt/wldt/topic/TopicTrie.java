@@ -0,0 +1,506 @@
+package it.unimore.dipi.iot.demo.mqtt.wldt.topic;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Trie of MQTT topic patterns mapping a concrete topic to the values (E.g. pipelines) of all the matching patterns.
+ *
+ * Patterns are split in topic levels and can contain the MQTT wildcards (+ for a single level, # as the last level
+ * for any number of levels, including zero) and template placeholders (E.g. {{device_id}}) matching a single level
+ * and capturing it as a named variable. A topic is matched walking the trie one level at a time, so the cost depends
+ * on the topic depth and not on the number of patterns. Topics starting with $ are not matched by wildcards in the
+ * first level (MQTT specification).
+ *
+ * Nodes are immutable: updates (serialized on the trie) copy the nodes on the path of the pattern and publish the
+ * new root, so lookups never block, never see a partial update and do not allocate any object (literal levels are
+ * compared in place through a precomputed hash and the results are collected into a reusable TopicMatch).
+ * The cost of an update is proportional to the number of literal children of the nodes on the path of the pattern.
+ *
+ * @created: 18/10/2026
+ * @project: WLDT - MQTT Example
+ */
+public class TopicTrie<T> {
+
+    public static final String SINGLE_LEVEL_WILDCARD = "+";
+
+    public static final String MULTI_LEVEL_WILDCARD = "#";
+
+    private static final String PLACEHOLDER_START = "{{";
+
+    private static final String PLACEHOLDER_END = "}}";
+
+    /**
+     * Pattern registered on the trie with its value and the topic levels captured by its placeholders
+     */
+    public static final class Entry<T> {
+
+        private final String pattern;
+
+        private final T value;
+
+        private final String[] variableNames;
+
+        private final int[] variableLevels;
+
+        private Entry(String pattern, T value, String[] variableNames, int[] variableLevels) {
+            this.pattern = pattern;
+            this.value = value;
+            this.variableNames = variableNames;
+            this.variableLevels = variableLevels;
+        }
+
+        public String getPattern() {
+            return pattern;
+        }
+
+        public T getValue() {
+            return value;
+        }
+
+        /**
+         * @return the topic level captured by the variable, -1 if the pattern does not contain it
+         */
+        public int getVariableLevel(String name) {
+            for(int i = 0; i < variableNames.length; i++)
+                if(variableNames[i].equals(name))
+                    return variableLevels[i];
+            return -1;
+        }
+
+        public String[] getVariableNames() {
+            return variableNames.clone();
+        }
+
+        @Override
+        public String toString() {
+            final StringBuilder sb = new StringBuilder("Entry{");
+            sb.append("pattern='").append(pattern).append('\'');
+            sb.append(", value=").append(value);
+            sb.append('}');
+            return sb.toString();
+        }
+    }
+
+    private static final class Node<T> {
+
+        //Open addressing table of the literal children (power of two size, at most half full)
+        private final String[] keys;
+
+        private final int[] hashes;
+
+        private final Node<T>[] children;
+
+        private final int literalCount;
+
+        //Child of the + wildcard and of the placeholders
+        private final Node<T> wildcardChild;
+
+        //Patterns ending at this node
+        private final Entry<T>[] entries;
+
+        //Patterns ending with # after this node
+        private final Entry<T>[] multiLevelEntries;
+
+        private Node(String[] keys, int[] hashes, Node<T>[] children, int literalCount, Node<T> wildcardChild, Entry<T>[] entries, Entry<T>[] multiLevelEntries) {
+            this.keys = keys;
+            this.hashes = hashes;
+            this.children = children;
+            this.literalCount = literalCount;
+            this.wildcardChild = wildcardChild;
+            this.entries = entries;
+            this.multiLevelEntries = multiLevelEntries;
+        }
+
+        private int slot(String key, int hash) {
+
+            int mask = keys.length - 1;
+            int index = spread(hash) & mask;
+
+            while(keys[index] != null && !(hashes[index] == hash && keys[index].equals(key)))
+                index = (index + 1) & mask;
+
+            return index;
+        }
+
+        private Node<T> literalChild(String topic, int start, int end, int hash) {
+
+            if(literalCount == 0)
+                return null;
+
+            int mask = keys.length - 1;
+            int length = end - start;
+
+            for(int index = spread(hash) & mask; keys[index] != null; index = (index + 1) & mask)
+                if(hashes[index] == hash && keys[index].length() == length && topic.regionMatches(start, keys[index], 0, length))
+                    return children[index];
+
+            return null;
+        }
+
+        private Node<T> literalChild(String key) {
+            return literalChild(key, 0, key.length(), key.hashCode());
+        }
+
+        /**
+         * @return a copy of the node with the literal child replaced (or removed if child is null)
+         */
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        private Node<T> withLiteralChild(String key, Node<T> child) {
+
+            int hash = key.hashCode();
+            boolean present = literalCount > 0 && keys[slot(key, hash)] != null;
+
+            //Replaced child: the table keeps the same layout
+            if(present && child != null){
+                Node<T>[] newChildren = children.clone();
+                newChildren[slot(key, hash)] = child;
+                return new Node<>(keys, hashes, newChildren, literalCount, wildcardChild, entries, multiLevelEntries);
+            }
+
+            int newLiteralCount = literalCount + (child != null ? 1 : present ? -1 : 0);
+
+            //Added child with free space: the new key is inserted in a copy of the table
+            if(!present && child != null && newLiteralCount * 2 <= keys.length){
+                String[] newKeys = keys.clone();
+                int[] newHashes = hashes.clone();
+                Node<T>[] newChildren = children.clone();
+                int index = slot(key, hash);
+                newKeys[index] = key;
+                newHashes[index] = hash;
+                newChildren[index] = child;
+                return new Node<>(newKeys, newHashes, newChildren, newLiteralCount, wildcardChild, entries, multiLevelEntries);
+            }
+
+            //Resize or removal (open addressing): the table is rebuilt
+            int capacity = newLiteralCount == 0 ? 0 : Integer.highestOneBit(newLiteralCount * 2 - 1) << 1;
+
+            Node<T> node = new Node<>(new String[capacity], new int[capacity], (Node<T>[]) new Node[capacity], newLiteralCount, wildcardChild, entries, multiLevelEntries);
+
+            for(int i = 0; i < keys.length; i++)
+                if(keys[i] != null && !(hashes[i] == hash && keys[i].equals(key)))
+                    node.put(keys[i], hashes[i], children[i]);
+
+            if(child != null)
+                node.put(key, hash, child);
+
+            return node;
+        }
+
+        //Only used while building a new node
+        private void put(String key, int hash, Node<T> child) {
+            int index = slot(key, hash);
+            keys[index] = key;
+            hashes[index] = hash;
+            children[index] = child;
+        }
+
+        private Node<T> withWildcardChild(Node<T> child) {
+            return copy(child, entries, multiLevelEntries);
+        }
+
+        private Node<T> withEntries(Entry<T>[] newEntries) {
+            return copy(wildcardChild, newEntries, multiLevelEntries);
+        }
+
+        private Node<T> withMultiLevelEntries(Entry<T>[] newMultiLevelEntries) {
+            return copy(wildcardChild, entries, newMultiLevelEntries);
+        }
+
+        //The literal table is immutable and shared with the copy
+        private Node<T> copy(Node<T> newWildcardChild, Entry<T>[] newEntries, Entry<T>[] newMultiLevelEntries) {
+            return new Node<>(keys, hashes, children, literalCount, newWildcardChild, newEntries, newMultiLevelEntries);
+        }
+
+        private boolean isEmpty() {
+            return literalCount == 0 && wildcardChild == null && entries.length == 0 && multiLevelEntries.length == 0;
+        }
+    }
+
+    private volatile Node<T> root = emptyNode();
+
+    private int size = 0;
+
+    public TopicTrie() {
+    }
+
+    static int spread(int hash) {
+        int mixed = hash * 0x9E3779B9;
+        return mixed ^ (mixed >>> 16);
+    }
+
+    /**
+     * Register a value for the pattern
+     *
+     * @return false if the same value was already registered for the pattern
+     * @throws IllegalArgumentException if the pattern is not valid
+     */
+    public synchronized boolean add(String pattern, T value) {
+
+        Objects.requireNonNull(value, "Value can not be null !");
+
+        String[] levels = parse(pattern);
+
+        List<String> variableNames = new ArrayList<>();
+        List<Integer> variableLevels = new ArrayList<>();
+
+        for(int i = 0; i < levels.length; i++)
+            if(isPlaceholder(levels[i])){
+
+                String name = levels[i].substring(PLACEHOLDER_START.length(), levels[i].length() - PLACEHOLDER_END.length());
+
+                if(variableNames.contains(name))
+                    throw new IllegalArgumentException(String.format("Placeholder %s used more than once in pattern %s !", levels[i], pattern));
+
+                variableNames.add(name);
+                variableLevels.add(i);
+            }
+
+        int[] levelsArray = new int[variableLevels.size()];
+        for(int i = 0; i < levelsArray.length; i++)
+            levelsArray[i] = variableLevels.get(i);
+
+        Entry<T> entry = new Entry<>(pattern, value, variableNames.toArray(new String[0]), levelsArray);
+
+        Node<T> newRoot = insert(root, levels, 0, entry);
+
+        if(newRoot == null)
+            return false;
+
+        this.root = newRoot;
+        this.size++;
+
+        return true;
+    }
+
+    /**
+     * Remove the value registered for the pattern
+     *
+     * @return false if the value was not registered for the pattern
+     */
+    public synchronized boolean remove(String pattern, T value) {
+
+        Node<T> newRoot = remove(root, parse(pattern), 0, pattern, value);
+
+        if(newRoot == null)
+            return false;
+
+        this.root = newRoot;
+        this.size--;
+
+        return true;
+    }
+
+    /**
+     * @return the entries of all the registered patterns (snapshot of the current trie, in no particular order)
+     */
+    public List<Entry<T>> entries() {
+        List<Entry<T>> entryList = new ArrayList<>();
+        collect(root, entryList);
+        return entryList;
+    }
+
+    private static <T> void collect(Node<T> node, List<Entry<T>> entryList) {
+
+        Collections.addAll(entryList, node.entries);
+        Collections.addAll(entryList, node.multiLevelEntries);
+
+        for(Node<T> child : node.children)
+            if(child != null)
+                collect(child, entryList);
+
+        if(node.wildcardChild != null)
+            collect(node.wildcardChild, entryList);
+    }
+
+    public synchronized void clear() {
+        this.root = emptyNode();
+        this.size = 0;
+    }
+
+    /**
+     * Collect the entries of all the patterns matching the topic: the most specific levels are visited first,
+     * so the entries of literal levels come before the ones of the wildcards and of the placeholders.
+     *
+     * @param result reusable match (E.g. one for each thread), cleared before the lookup
+     * @return the number of matching entries
+     */
+    public int match(String topic, TopicMatch<T> result) {
+
+        result.reset(topic);
+
+        //Wildcards of the first level do not match the topics starting with $
+        collect(root, 0, result, !topic.isEmpty() && topic.charAt(0) == '$');
+
+        return result.size();
+    }
+
+    private void collect(Node<T> node, int depth, TopicMatch<T> result, boolean systemTopic) {
+
+        boolean wildcardsAllowed = depth > 0 || !systemTopic;
+
+        if(depth == result.getLevelCount()){
+
+            result.add(node.entries);
+
+            //# also matches the parent level (E.g. sensors/# matches sensors)
+            if(wildcardsAllowed)
+                result.add(node.multiLevelEntries);
+
+            return;
+        }
+
+        Node<T> literalChild = node.literalChild(result.getTopic(), result.getLevelStart(depth), result.getLevelEnd(depth), result.getLevelHash(depth));
+
+        if(literalChild != null)
+            collect(literalChild, depth + 1, result, systemTopic);
+
+        if(wildcardsAllowed){
+
+            if(node.wildcardChild != null)
+                collect(node.wildcardChild, depth + 1, result, systemTopic);
+
+            result.add(node.multiLevelEntries);
+        }
+    }
+
+    /**
+     * @return the new node, null if the entry was already registered
+     */
+    private Node<T> insert(Node<T> node, String[] levels, int depth, Entry<T> entry) {
+
+        if(depth == levels.length)
+            return contains(node.entries, entry.pattern, entry.value) ? null : node.withEntries(append(node.entries, entry));
+
+        String level = levels[depth];
+
+        if(level.equals(MULTI_LEVEL_WILDCARD))
+            return contains(node.multiLevelEntries, entry.pattern, entry.value) ? null : node.withMultiLevelEntries(append(node.multiLevelEntries, entry));
+
+        if(isWildcard(level)){
+            Node<T> child = insert(node.wildcardChild != null ? node.wildcardChild : emptyNode(), levels, depth + 1, entry);
+            return child != null ? node.withWildcardChild(child) : null;
+        }
+
+        Node<T> currentChild = node.literalChild(level);
+        Node<T> child = insert(currentChild != null ? currentChild : emptyNode(), levels, depth + 1, entry);
+
+        return child != null ? node.withLiteralChild(level, child) : null;
+    }
+
+    /**
+     * @return the new node (null child links are pruned by the caller), null if the entry was not found
+     */
+    private Node<T> remove(Node<T> node, String[] levels, int depth, String pattern, T value) {
+
+        if(depth == levels.length){
+            Entry<T>[] newEntries = without(node.entries, pattern, value);
+            return newEntries != null ? node.withEntries(newEntries) : null;
+        }
+
+        String level = levels[depth];
+
+        if(level.equals(MULTI_LEVEL_WILDCARD)){
+            Entry<T>[] newEntries = without(node.multiLevelEntries, pattern, value);
+            return newEntries != null ? node.withMultiLevelEntries(newEntries) : null;
+        }
+
+        if(isWildcard(level)){
+
+            if(node.wildcardChild == null)
+                return null;
+
+            Node<T> child = remove(node.wildcardChild, levels, depth + 1, pattern, value);
+            return child != null ? node.withWildcardChild(child.isEmpty() ? null : child) : null;
+        }
+
+        Node<T> currentChild = node.literalChild(level);
+
+        if(currentChild == null)
+            return null;
+
+        Node<T> child = remove(currentChild, levels, depth + 1, pattern, value);
+        return child != null ? node.withLiteralChild(level, child.isEmpty() ? null : child) : null;
+    }
+
+    private static String[] parse(String pattern) {
+
+        if(pattern == null || pattern.isEmpty())
+            throw new IllegalArgumentException("Topic pattern can not be null or empty !");
+
+        String[] levels = pattern.split("/", -1);
+
+        for(int i = 0; i < levels.length; i++){
+
+            String level = levels[i];
+
+            if(level.equals(MULTI_LEVEL_WILDCARD) && i != levels.length - 1)
+                throw new IllegalArgumentException(String.format("Invalid pattern %s ! # must be the last level", pattern));
+
+            if(level.equals(MULTI_LEVEL_WILDCARD) || level.equals(SINGLE_LEVEL_WILDCARD) || isPlaceholder(level))
+                continue;
+
+            if(level.contains(SINGLE_LEVEL_WILDCARD) || level.contains(MULTI_LEVEL_WILDCARD) || level.contains(PLACEHOLDER_START) || level.contains(PLACEHOLDER_END))
+                throw new IllegalArgumentException(String.format("Invalid level '%s' in pattern %s ! Wildcards and placeholders must be whole levels", level, pattern));
+        }
+
+        return levels;
+    }
+
+    static boolean isPlaceholder(String level) {
+        return level.length() > PLACEHOLDER_START.length() + PLACEHOLDER_END.length()
+                && level.startsWith(PLACEHOLDER_START)
+                && level.endsWith(PLACEHOLDER_END);
+    }
+
+    private static boolean isWildcard(String level) {
+        return level.equals(SINGLE_LEVEL_WILDCARD) || isPlaceholder(level);
+    }
+
+    private static <T> boolean contains(Entry<T>[] entries, String pattern, T value) {
+        for(Entry<T> entry : entries)
+            if(entry.pattern.equals(pattern) && entry.value.equals(value))
+                return true;
+        return false;
+    }
+
+    private static <T> Entry<T>[] append(Entry<T>[] entries, Entry<T> entry) {
+        Entry<T>[] newEntries = Arrays.copyOf(entries, entries.length + 1);
+        newEntries[entries.length] = entry;
+        return newEntries;
+    }
+
+    /**
+     * @return a copy of the entries without the matching one, null if not found
+     */
+    private static <T> Entry<T>[] without(Entry<T>[] entries, String pattern, T value) {
+
+        for(int i = 0; i < entries.length; i++)
+            if(entries[i].pattern.equals(pattern) && entries[i].value.equals(value)){
+                Entry<T>[] newEntries = Arrays.copyOf(entries, entries.length - 1);
+                System.arraycopy(entries, i + 1, newEntries, i, entries.length - i - 1);
+                return newEntries;
+            }
+
+        return null;
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static <T> Node<T> emptyNode() {
+        return new Node<>(new String[0], new int[0], (Node<T>[]) new Node[0], 0, null, (Entry<T>[]) new Entry[0], (Entry<T>[]) new Entry[0]);
+    }
+
+    /**
+     * @return the number of registered (pattern, value) entries
+     */
+    public synchronized int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return root.isEmpty();
+    }
+}
@@ -0,0 +1,82 @@
+package it.unimore.dipi.iot.demo.mqtt.wldt.topology;
+
+import java.util.Objects;
+
+/**
+ * MQTT broker of a TopologyConfiguration (the source broker of the physical devices or the destination broker of the applications)
+ *
+ * @created: 18/10/2026
+ * @project: WLDT - MQTT Example
+ */
+public class BrokerDefinition {
+
+    private String address = "127.0.0.1";
+
+    private int port = 1883;
+
+    private String clientId;
+
+    public BrokerDefinition() {
+    }
+
+    public BrokerDefinition(String address, int port, String clientId) {
+        this.address = address;
+        this.port = port;
+        this.clientId = clientId;
+    }
+
+    /**
+     * @throws IllegalArgumentException if the definition is not valid
+     */
+    public void validate(String name) {
+        if(address == null || address.isEmpty() || port <= 0 || port > 65535)
+            throw new IllegalArgumentException(String.format("Invalid %s Broker Address or Port: %s:%d", name, address, port));
+    }
+
+    public String getAddress() {
+        return address;
+    }
+
+    public void setAddress(String address) {
+        this.address = address;
+    }
+
+    public int getPort() {
+        return port;
+    }
+
+    public void setPort(int port) {
+        this.port = port;
+    }
+
+    public String getClientId() {
+        return clientId;
+    }
+
+    public void setClientId(String clientId) {
+        this.clientId = clientId;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if(this == o) return true;
+        if(o == null || getClass() != o.getClass()) return false;
+        BrokerDefinition that = (BrokerDefinition) o;
+        return port == that.port && Objects.equals(address, that.address) && Objects.equals(clientId, that.clientId);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(address, port, clientId);
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder("BrokerDefinition{");
+        sb.append("address='").append(address).append('\'');
+        sb.append(", port=").append(port);
+        sb.append(", clientId='").append(clientId).append('\'');
+        sb.append('}');
+        return sb.toString();
+    }
+}
@@ -0,0 +1,126 @@
+package it.unimore.dipi.iot.demo.mqtt.wldt.topology;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Step of a pipeline in a TopologyConfiguration: the step type (the name of a StepFactory registered on the
+ * StepFactoryRegistry) and its parameters. In the YAML file a step without parameters can be written as its type only:
+ *
+ * steps:
+ *   - topicChange
+ *   - type: streamingAverage
+ *     params:
+ *       windowSize: 10
+ *
+ * Two definitions are equal if they have the same type and parameters: the TopologyManager keeps the instance
+ * (and its state) of the steps whose definition did not change across reloads.
+ *
+ * @created: 18/10/2026
+ * @project: WLDT - MQTT Example
+ */
+public class StepDefinition {
+
+    private String type;
+
+    private Map<String, Object> params = new LinkedHashMap<>();
+
+    public StepDefinition() {
+    }
+
+    public StepDefinition(String type) {
+        this.type = type;
+    }
+
+    public StepDefinition(String type, Map<String, Object> params) {
+        this.type = type;
+        this.params = params;
+    }
+
+    /**
+     * @throws IllegalArgumentException if the parameter is not a number
+     */
+    public int getInt(String name, int defaultValue) {
+        Number value = getNumber(name);
+        return value != null ? value.intValue() : defaultValue;
+    }
+
+    /**
+     * @throws IllegalArgumentException if the parameter is not a number
+     */
+    public long getLong(String name, long defaultValue) {
+        Number value = getNumber(name);
+        return value != null ? value.longValue() : defaultValue;
+    }
+
+    /**
+     * @throws IllegalArgumentException if the parameter is not a number
+     */
+    public double getDouble(String name, double defaultValue) {
+        Number value = getNumber(name);
+        return value != null ? value.doubleValue() : defaultValue;
+    }
+
+    public boolean getBoolean(String name, boolean defaultValue) {
+        Object value = params != null ? params.get(name) : null;
+        return value != null ? Boolean.parseBoolean(value.toString()) : defaultValue;
+    }
+
+    public String getString(String name, String defaultValue) {
+        Object value = params != null ? params.get(name) : null;
+        return value != null ? value.toString() : defaultValue;
+    }
+
+    private Number getNumber(String name) {
+
+        Object value = params != null ? params.get(name) : null;
+
+        if(value == null || value instanceof Number)
+            return (Number) value;
+
+        try{
+            return Double.parseDouble(value.toString());
+        }catch (NumberFormatException e){
+            throw new IllegalArgumentException(String.format("Invalid parameter %s of step %s: %s is not a number", name, type, value));
+        }
+    }
+
+    public String getType() {
+        return type;
+    }
+
+    public void setType(String type) {
+        this.type = type;
+    }
+
+    public Map<String, Object> getParams() {
+        return params;
+    }
+
+    public void setParams(Map<String, Object> params) {
+        this.params = params;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if(this == o) return true;
+        if(o == null || getClass() != o.getClass()) return false;
+        StepDefinition that = (StepDefinition) o;
+        return Objects.equals(type, that.type) && Objects.equals(params, that.params);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(type, params);
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder("StepDefinition{");
+        sb.append("type='").append(type).append('\'');
+        sb.append(", params=").append(params);
+        sb.append('}');
+        return sb.toString();
+    }
+}
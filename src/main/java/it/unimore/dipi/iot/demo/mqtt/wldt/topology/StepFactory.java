@@ -0,0 +1,20 @@
+package it.unimore.dipi.iot.demo.mqtt.wldt.topology;
+
+import it.unimore.dipi.iot.wldt.processing.ProcessingStep;
+
+/**
+ * Creates the ProcessingStep of a StepDefinition. Factories are registered on the StepFactoryRegistry with the name
+ * used as step type in the topology file.
+ *
+ * @created: 18/10/2026
+ * @project: WLDT - MQTT Example
+ */
+@FunctionalInterface
+public interface StepFactory {
+
+    /**
+     * @throws IllegalArgumentException if the parameters of the definition are not valid
+     */
+    ProcessingStep create(StepDefinition definition) throws Exception;
+
+}
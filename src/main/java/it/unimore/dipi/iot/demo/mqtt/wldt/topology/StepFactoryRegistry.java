@@ -0,0 +1,154 @@
+package it.unimore.dipi.iot.demo.mqtt.wldt.topology;
+
+import it.unimore.dipi.iot.demo.mqtt.wldt.MqttAverageProcessingStep;
+import it.unimore.dipi.iot.demo.mqtt.wldt.MqttCommandTopicChangeStep;
+import it.unimore.dipi.iot.demo.mqtt.wldt.MqttPayloadChangeStep;
+import it.unimore.dipi.iot.demo.mqtt.wldt.MqttStreamingAverageStep;
+import it.unimore.dipi.iot.demo.mqtt.wldt.MqttTopicChangeStep;
+import it.unimore.dipi.iot.demo.mqtt.wldt.MqttTopicRewriteStep;
+import it.unimore.dipi.iot.demo.mqtt.wldt.topic.TopicRewriteRule;
+import it.unimore.dipi.iot.wldt.processing.ProcessingStep;
+import it.unimore.dipi.iot.wldt.processing.step.IdentityProcessingStep;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+/**
+ * Step types available in a TopologyConfiguration. withDefaultSteps() registers the steps that only depend on their
+ * parameters:
+ *
+ * identity                                IdentityProcessingStep
+ * average                                 MqttAverageProcessingStep
+ * streamingAverage  (windowSize)          MqttStreamingAverageStep
+ * topicChange                             MqttTopicChangeStep
+ * commandTopicChange                      MqttCommandTopicChangeStep
+ * topicPrefix       (prefix)              MqttTopicRewriteStep adding a leading topic level
+ * topicSuffix       (suffix)              MqttTopicRewriteStep adding a trailing topic level
+ * payloadChange     (streamingEncoder)    MqttPayloadChangeStep
+ *
+ * Steps backed by a service of the process (E.g. a HistoryStore or an OutgoingPublisher) are registered through
+ * registerShared(): the step is created once, the first time its type is used, and the same instance is returned for
+ * all the following definitions (their parameters are ignored until the process is restarted).
+ *
+ * @created: 18/10/2026
+ * @project: WLDT - MQTT Example
+ */
+public class StepFactoryRegistry {
+
+    private static final class Registration {
+
+        private final StepFactory factory;
+
+        private final Consumer<ProcessingStep> disposer;
+
+        private final boolean shared;
+
+        private volatile ProcessingStep sharedStep = null;
+
+        private Registration(StepFactory factory, Consumer<ProcessingStep> disposer, boolean shared) {
+            this.factory = factory;
+            this.disposer = disposer;
+            this.shared = shared;
+        }
+    }
+
+    private final Map<String, Registration> registrations = new ConcurrentHashMap<>();
+
+    public StepFactoryRegistry() {
+    }
+
+    public static StepFactoryRegistry withDefaultSteps() {
+
+        StepFactoryRegistry registry = new StepFactoryRegistry();
+
+        registry.register("identity", definition -> new IdentityProcessingStep());
+        registry.register("average", definition -> new MqttAverageProcessingStep(), step -> ((MqttAverageProcessingStep) step).close());
+        registry.register("streamingAverage",
+                definition -> new MqttStreamingAverageStep(definition.getInt("windowSize", MqttStreamingAverageStep.DEFAULT_WINDOW_SIZE)),
+                step -> ((MqttStreamingAverageStep) step).close());
+        registry.register("topicChange", definition -> new MqttTopicChangeStep());
+        registry.register("commandTopicChange", definition -> new MqttCommandTopicChangeStep());
+        registry.register("topicPrefix", definition -> new MqttTopicRewriteStep(TopicRewriteRule.prefix(definition.getString("prefix", null))));
+        registry.register("topicSuffix", definition -> new MqttTopicRewriteStep(TopicRewriteRule.suffix(definition.getString("suffix", null))));
+        registry.register("payloadChange", definition -> new MqttPayloadChangeStep(definition.getBoolean("streamingEncoder", true)));
+
+        return registry;
+    }
+
+    /**
+     * Register (or replace) a step type creating a new step for each definition
+     */
+    public StepFactoryRegistry register(String type, StepFactory factory) {
+        return register(type, factory, null);
+    }
+
+    /**
+     * @param disposer releases the resources of a step no longer used by any pipeline (E.g. its state store), null if not required
+     */
+    public StepFactoryRegistry register(String type, StepFactory factory, Consumer<ProcessingStep> disposer) {
+
+        if(type == null || type.isEmpty() || factory == null)
+            throw new IllegalArgumentException("Step Type and Factory can not be null or empty !");
+
+        registrations.put(type, new Registration(factory, disposer, false));
+        return this;
+    }
+
+    /**
+     * Register (or replace) a step type whose single instance is created on first use and shared by all the pipelines
+     */
+    public StepFactoryRegistry registerShared(String type, StepFactory factory) {
+
+        if(type == null || type.isEmpty() || factory == null)
+            throw new IllegalArgumentException("Step Type and Factory can not be null or empty !");
+
+        registrations.put(type, new Registration(factory, null, true));
+        return this;
+    }
+
+    /**
+     * @throws IllegalArgumentException if the step type is not registered or its parameters are not valid
+     */
+    public ProcessingStep create(StepDefinition definition) throws Exception {
+
+        Registration registration = registrations.get(definition.getType());
+
+        if(registration == null)
+            throw new IllegalArgumentException(String.format("Unknown step type: %s ! Available types: %s", definition.getType(), registrations.keySet()));
+
+        if(!registration.shared)
+            return registration.factory.create(definition);
+
+        synchronized (registration){
+            if(registration.sharedStep == null)
+                registration.sharedStep = registration.factory.create(definition);
+            return registration.sharedStep;
+        }
+    }
+
+    /**
+     * Release the resources of a step created for the definition, shared steps are never disposed
+     */
+    public void dispose(StepDefinition definition, ProcessingStep step) {
+
+        Registration registration = registrations.get(definition.getType());
+
+        if(registration != null && !registration.shared && registration.disposer != null)
+            registration.disposer.accept(step);
+    }
+
+    /**
+     * @return true if the steps of the type are shared (see registerShared())
+     */
+    public boolean isShared(String type) {
+        Registration registration = registrations.get(type);
+        return registration != null && registration.shared;
+    }
+
+    public Set<String> getTypes() {
+        return Collections.unmodifiableSet(registrations.keySet());
+    }
+}
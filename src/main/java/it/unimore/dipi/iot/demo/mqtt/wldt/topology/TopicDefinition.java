@@ -0,0 +1,111 @@
+package it.unimore.dipi.iot.demo.mqtt.wldt.topology;
+
+import it.unimore.dipi.iot.wldt.worker.mqtt.MqttTopicDescriptor;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Topic of a TopologyConfiguration: the MqttTopicDescriptor mirrored by the Mqtt2MqttWorker and the ordered steps
+ * of its processing pipeline (a topic without steps is forwarded as received).
+ *
+ * @created: 18/10/2026
+ * @project: WLDT - MQTT Example
+ */
+public class TopicDefinition {
+
+    private String id;
+
+    private String resourceId;
+
+    private String topic;
+
+    private String type = MqttTopicDescriptor.MQTT_TOPIC_TYPE_DEVICE_OUTGOING;
+
+    private List<StepDefinition> steps = new ArrayList<>();
+
+    public TopicDefinition() {
+    }
+
+    /**
+     * @throws IllegalArgumentException if the definition is not valid
+     */
+    public void validate() {
+
+        if(id == null || id.isEmpty() || topic == null || topic.isEmpty())
+            throw new IllegalArgumentException("Topic Id and Topic can not be null or empty !");
+
+        if(!MqttTopicDescriptor.MQTT_TOPIC_TYPE_DEVICE_OUTGOING.equals(type) && !MqttTopicDescriptor.MQTT_TOPIC_TYPE_DEVICE_INCOMING.equals(type))
+            throw new IllegalArgumentException(String.format("Invalid type of topic %s: %s", id, type));
+
+        if(steps != null)
+            for(StepDefinition step : steps)
+                if(step == null || step.getType() == null || step.getType().isEmpty())
+                    throw new IllegalArgumentException(String.format("Step type of topic %s can not be null or empty !", id));
+    }
+
+    public MqttTopicDescriptor toMqttTopicDescriptor() {
+        return new MqttTopicDescriptor(id, resourceId, topic, type);
+    }
+
+    /**
+     * @return true if the mirrored topic is the same (the steps are not compared)
+     */
+    public boolean sameDescriptor(TopicDefinition other) {
+        return other != null && Objects.equals(id, other.id) && Objects.equals(resourceId, other.resourceId)
+                && Objects.equals(topic, other.topic) && Objects.equals(type, other.type);
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public String getResourceId() {
+        return resourceId;
+    }
+
+    public void setResourceId(String resourceId) {
+        this.resourceId = resourceId;
+    }
+
+    public String getTopic() {
+        return topic;
+    }
+
+    public void setTopic(String topic) {
+        this.topic = topic;
+    }
+
+    public String getType() {
+        return type;
+    }
+
+    public void setType(String type) {
+        this.type = type;
+    }
+
+    public List<StepDefinition> getSteps() {
+        return steps;
+    }
+
+    public void setSteps(List<StepDefinition> steps) {
+        this.steps = steps;
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder("TopicDefinition{");
+        sb.append("id='").append(id).append('\'');
+        sb.append(", resourceId='").append(resourceId).append('\'');
+        sb.append(", topic='").append(topic).append('\'');
+        sb.append(", type='").append(type).append('\'');
+        sb.append(", steps=").append(steps);
+        sb.append('}');
+        return sb.toString();
+    }
+}
@@ -0,0 +1,201 @@
+package it.unimore.dipi.iot.demo.mqtt.wldt.topology;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.yaml.YAMLFactory;
+import it.unimore.dipi.iot.wldt.worker.mqtt.Mqtt2MqttConfiguration;
+import it.unimore.dipi.iot.wldt.worker.mqtt.MqttTopicDescriptor;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Topology of the WldtMqttProcess (brokers, mirrored device, topic descriptors and the steps of their pipelines)
+ * loaded from a YAML file in place of the values hard-coded in the process:
+ *
+ * sourceBroker: { address: 127.0.0.1, port: 1883, clientId: physicalBrokerTestClientId }
+ * destinationBroker: { address: 127.0.0.1, port: 1884, clientId: digitalBrokerTestClientId }
+ * deviceId: com:iot:dummy:dummyMqttDevice001
+ * topics:
+ *   - id: temperature_topic
+ *     resourceId: temperature
+ *     topic: telemetry/{{device_id}}/resource/{{resource_id}}
+ *     type: device_outgoing
+ *     steps:
+ *       - type: streamingAverage
+ *         params: { windowSize: 10 }
+ *       - topicChange
+ *
+ * The brokers, the device and the topic descriptors are applied when the Mqtt2MqttWorker is created,
+ * while the steps can be changed at runtime through the TopologyManager.
+ *
+ * @created: 18/10/2026
+ * @project: WLDT - MQTT Example
+ */
+public class TopologyConfiguration {
+
+    private BrokerDefinition sourceBroker = new BrokerDefinition("127.0.0.1", 1883, "physicalBrokerTestClientId");
+
+    private BrokerDefinition destinationBroker = new BrokerDefinition("127.0.0.1", 1884, "digitalBrokerTestClientId");
+
+    //The MQTT single level wildcard (+) mirrors all the devices publishing on the same topic structure
+    private String deviceId;
+
+    private int publishingQos = 0;
+
+    private List<TopicDefinition> topics = new ArrayList<>();
+
+    public TopologyConfiguration() {
+    }
+
+    public static TopologyConfiguration fromYamlFile(String filePath) throws IOException {
+        ObjectMapper mapper = new ObjectMapper(new YAMLFactory());
+        mapper.configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+        return mapper.readValue(new File(filePath), TopologyConfiguration.class);
+    }
+
+    /**
+     * @throws IllegalArgumentException if the configuration is not valid
+     */
+    public void validate() {
+
+        if(sourceBroker == null || destinationBroker == null)
+            throw new IllegalArgumentException("Source and Destination Broker can not be null !");
+
+        sourceBroker.validate("Source");
+        destinationBroker.validate("Destination");
+
+        if(deviceId == null || deviceId.isEmpty())
+            throw new IllegalArgumentException("Device Id can not be null or empty !");
+
+        if(publishingQos < 0 || publishingQos > 2)
+            throw new IllegalArgumentException(String.format("Invalid Publishing QoS: %d", publishingQos));
+
+        if(topics == null || topics.isEmpty())
+            throw new IllegalArgumentException("Topic List can not be empty !");
+
+        Set<String> topicIds = new HashSet<>();
+
+        for(TopicDefinition topic : topics){
+
+            if(topic == null)
+                throw new IllegalArgumentException("Topic definition can not be null !");
+
+            topic.validate();
+
+            if(!topicIds.add(topic.getId()))
+                throw new IllegalArgumentException(String.format("Duplicated topic id: %s", topic.getId()));
+        }
+    }
+
+    public Mqtt2MqttConfiguration toMqtt2MqttConfiguration() {
+
+        Mqtt2MqttConfiguration mqtt2MqttConfiguration = new Mqtt2MqttConfiguration();
+
+        mqtt2MqttConfiguration.setDtPublishingQoS(publishingQos);
+        mqtt2MqttConfiguration.setBrokerAddress(sourceBroker.getAddress());
+        mqtt2MqttConfiguration.setBrokerPort(sourceBroker.getPort());
+        mqtt2MqttConfiguration.setDestinationBrokerAddress(destinationBroker.getAddress());
+        mqtt2MqttConfiguration.setDestinationBrokerPort(destinationBroker.getPort());
+        mqtt2MqttConfiguration.setDeviceId(deviceId);
+
+        if(sourceBroker.getClientId() != null)
+            mqtt2MqttConfiguration.setBrokerClientId(sourceBroker.getClientId());
+
+        if(destinationBroker.getClientId() != null)
+            mqtt2MqttConfiguration.setDestinationBrokerClientId(destinationBroker.getClientId());
+
+        List<MqttTopicDescriptor> topicList = new ArrayList<>();
+        for(TopicDefinition topic : topics)
+            topicList.add(topic.toMqttTopicDescriptor());
+
+        mqtt2MqttConfiguration.setTopicList(topicList);
+
+        return mqtt2MqttConfiguration;
+    }
+
+    /**
+     * @return true if the other configuration has the same brokers, device and topic descriptors (the steps are not compared)
+     */
+    public boolean sameConnections(TopologyConfiguration other) {
+
+        if(other == null || !Objects.equals(sourceBroker, other.sourceBroker) || !Objects.equals(destinationBroker, other.destinationBroker)
+                || !Objects.equals(deviceId, other.deviceId) || publishingQos != other.publishingQos || topics.size() != other.topics.size())
+            return false;
+
+        for(int i = 0; i < topics.size(); i++)
+            if(!topics.get(i).sameDescriptor(other.topics.get(i)))
+                return false;
+
+        return true;
+    }
+
+    /**
+     * @return the definition of the topic, null if it is not defined
+     */
+    public TopicDefinition getTopic(String topicId) {
+
+        for(TopicDefinition topic : topics)
+            if(topic.getId().equals(topicId))
+                return topic;
+
+        return null;
+    }
+
+    public BrokerDefinition getSourceBroker() {
+        return sourceBroker;
+    }
+
+    public void setSourceBroker(BrokerDefinition sourceBroker) {
+        this.sourceBroker = sourceBroker;
+    }
+
+    public BrokerDefinition getDestinationBroker() {
+        return destinationBroker;
+    }
+
+    public void setDestinationBroker(BrokerDefinition destinationBroker) {
+        this.destinationBroker = destinationBroker;
+    }
+
+    public String getDeviceId() {
+        return deviceId;
+    }
+
+    public void setDeviceId(String deviceId) {
+        this.deviceId = deviceId;
+    }
+
+    public int getPublishingQos() {
+        return publishingQos;
+    }
+
+    public void setPublishingQos(int publishingQos) {
+        this.publishingQos = publishingQos;
+    }
+
+    public List<TopicDefinition> getTopics() {
+        return topics;
+    }
+
+    public void setTopics(List<TopicDefinition> topics) {
+        this.topics = topics;
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder("TopologyConfiguration{");
+        sb.append("sourceBroker=").append(sourceBroker);
+        sb.append(", destinationBroker=").append(destinationBroker);
+        sb.append(", deviceId='").append(deviceId).append('\'');
+        sb.append(", publishingQos=").append(publishingQos);
+        sb.append(", topics=").append(topics.size());
+        sb.append('}');
+        return sb.toString();
+    }
+}
@@ -0,0 +1,365 @@
+package it.unimore.dipi.iot.demo.mqtt.wldt.topology;
+
+import it.unimore.dipi.iot.demo.mqtt.utils.SharedScheduler;
+import it.unimore.dipi.iot.demo.mqtt.wldt.pipeline.ConcurrentProcessingPipeline;
+import it.unimore.dipi.iot.demo.mqtt.wldt.pipeline.PartitionedExecutor;
+import it.unimore.dipi.iot.demo.mqtt.wldt.pipeline.PipelineExecutor;
+import it.unimore.dipi.iot.wldt.processing.ProcessingStep;
+import it.unimore.dipi.iot.wldt.processing.step.IdentityProcessingStep;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * Keeps a ConcurrentProcessingPipeline for each topic of a TopologyConfiguration and applies the new versions of the
+ * configuration (E.g. reloaded when the topology file changes) without restarting the process.
+ *
+ * The pipelines registered on the Mqtt2MqttWorker are never replaced: when the steps of a topic change, the new step
+ * array is built on the caller (or watcher) thread and then published with a single volatile write
+ * (ConcurrentProcessingPipeline.replaceSteps()). Messages already started complete with the previous steps, the next
+ * ones use the new steps, so no message is dropped and the partition threads never wait. The partition caches
+ * are kept and a step whose definition did not change keeps its instance and its state (E.g. the average windows).
+ * The replaced steps are disposed after a grace period, once the messages still using them have completed.
+ *
+ * A configuration is applied only if all its steps can be created, otherwise the current topology is kept.
+ * Brokers, device and topic descriptors are used by the Mqtt2MqttWorker when it is created: their changes
+ * (including added or removed topics) are reported and applied only after a restart.
+ *
+ * @created: 18/10/2026
+ * @project: WLDT - MQTT Example
+ */
+public class TopologyManager {
+
+    private static final Logger logger = LoggerFactory.getLogger(TopologyManager.class);
+
+    private static final String WATCHER_THREAD_NAME = "wldt-topology-watcher";
+
+    public static final long DEFAULT_RETIRE_DELAY_MS = 30000;
+
+    //Editors can write a file with multiple modifications: the events received within the delay trigger a single reload
+    private static final long RELOAD_DEBOUNCE_MS = 250;
+
+    /**
+     * Steps currently used by the pipeline of a topic
+     */
+    private static final class AppliedSteps {
+
+        //Empty for a topic without steps (forwarded through an IdentityProcessingStep)
+        private final List<StepDefinition> definitions;
+
+        private final ProcessingStep[] steps;
+
+        private AppliedSteps(List<StepDefinition> definitions, ProcessingStep[] steps) {
+            this.definitions = definitions;
+            this.steps = steps;
+        }
+    }
+
+    private final StepFactoryRegistry stepFactoryRegistry;
+
+    private final long retireDelayMs;
+
+    private final Map<String, ConcurrentProcessingPipeline> pipelines = new LinkedHashMap<>();
+
+    private final Map<String, AppliedSteps> appliedSteps = new HashMap<>();
+
+    private volatile TopologyConfiguration configuration;
+
+    private final LongAdder reloadCount = new LongAdder();
+
+    private final LongAdder reloadErrorCount = new LongAdder();
+
+    private volatile WatchService watchService = null;
+
+    public TopologyManager(TopologyConfiguration configuration, StepFactoryRegistry stepFactoryRegistry) throws Exception {
+        this(configuration, stepFactoryRegistry, DEFAULT_RETIRE_DELAY_MS);
+    }
+
+    public TopologyManager(TopologyConfiguration configuration, StepFactoryRegistry stepFactoryRegistry, long retireDelayMs) throws Exception {
+        this(configuration, stepFactoryRegistry, retireDelayMs, topic -> PartitionedExecutor.getDefault());
+    }
+
+    /**
+     * @param retireDelayMs delay before disposing the replaced steps, it must exceed the time spent by a message in a pipeline
+     * @param executorSelector executor of the pipeline of each topic (E.g. the lane of a PriorityLaneScheduler for its type)
+     * @throws IllegalArgumentException if the configuration is not valid or one of its steps can not be created
+     */
+    public TopologyManager(TopologyConfiguration configuration,
+                           StepFactoryRegistry stepFactoryRegistry,
+                           long retireDelayMs,
+                           Function<TopicDefinition, PipelineExecutor> executorSelector) throws Exception {
+
+        if(configuration == null || stepFactoryRegistry == null || retireDelayMs < 0 || executorSelector == null)
+            throw new IllegalArgumentException("Configuration, Step Factory Registry and Executor Selector can not be null, Retire Delay can not be negative !");
+
+        configuration.validate();
+
+        this.stepFactoryRegistry = stepFactoryRegistry;
+        this.retireDelayMs = retireDelayMs;
+
+        for(TopicDefinition topic : configuration.getTopics()){
+
+            AppliedSteps steps = buildSteps(topic, null, new ArrayList<>(), new ArrayList<>());
+
+            ConcurrentProcessingPipeline pipeline = new ConcurrentProcessingPipeline(executorSelector.apply(topic));
+            pipeline.replaceSteps(steps.steps);
+
+            pipelines.put(topic.getId(), pipeline);
+            appliedSteps.put(topic.getId(), steps);
+        }
+
+        this.configuration = configuration;
+    }
+
+    /**
+     * Apply the steps of a new version of the configuration to the pipelines of the existing topics
+     *
+     * @throws IllegalArgumentException if the configuration is not valid or one of its steps can not be created,
+     * in this case the current topology is kept
+     */
+    public synchronized void apply(TopologyConfiguration next) throws Exception {
+
+        next.validate();
+
+        if(!configuration.sameConnections(next))
+            logger.warn("Topology brokers, device or topic descriptors changed: they will be applied after a restart ! Updating the pipelines of the current topics");
+
+        Map<String, AppliedSteps> changedSteps = new LinkedHashMap<>();
+        List<StepDefinition> createdDefinitions = new ArrayList<>();
+        List<ProcessingStep> createdSteps = new ArrayList<>();
+
+        try{
+
+            for(String topicId : pipelines.keySet()){
+
+                TopicDefinition topic = next.getTopic(topicId);
+
+                if(topic == null){
+                    logger.warn("Topic {} removed from the topology: its pipeline is kept until the next restart", topicId);
+                    continue;
+                }
+
+                AppliedSteps current = appliedSteps.get(topicId);
+
+                if(current.definitions.equals(definitionsOf(topic)))
+                    continue;
+
+                changedSteps.put(topicId, buildSteps(topic, current, createdDefinitions, createdSteps));
+            }
+
+        }catch (Exception e){
+
+            for(int i = 0; i < createdDefinitions.size(); i++)
+                stepFactoryRegistry.dispose(createdDefinitions.get(i), createdSteps.get(i));
+
+            throw e;
+        }
+
+        List<StepDefinition> retiredDefinitions = new ArrayList<>();
+        List<ProcessingStep> retiredSteps = new ArrayList<>();
+
+        for(Map.Entry<String, AppliedSteps> entry : changedSteps.entrySet()){
+
+            AppliedSteps previous = appliedSteps.put(entry.getKey(), entry.getValue());
+            pipelines.get(entry.getKey()).replaceSteps(entry.getValue().steps);
+
+            for(int i = 0; i < previous.definitions.size(); i++)
+                if(!containsInstance(entry.getValue().steps, previous.steps[i])){
+                    retiredDefinitions.add(previous.definitions.get(i));
+                    retiredSteps.add(previous.steps[i]);
+                }
+
+            logger.info("Topology pipeline {} updated ! Steps: {}", entry.getKey(), entry.getValue().definitions);
+        }
+
+        this.configuration = next;
+        reloadCount.increment();
+
+        if(!retiredSteps.isEmpty())
+            SharedScheduler.getInstance().scheduleOnce(() -> {
+                for(int i = 0; i < retiredSteps.size(); i++)
+                    stepFactoryRegistry.dispose(retiredDefinitions.get(i), retiredSteps.get(i));
+            }, retireDelayMs);
+    }
+
+    /**
+     * Load and apply the topology file, logging the errors
+     *
+     * @return true if the configuration has been applied
+     */
+    public boolean reload(String filePath) {
+
+        try{
+            apply(TopologyConfiguration.fromYamlFile(filePath));
+            logger.info("Topology reloaded from {}", filePath);
+            return true;
+        }catch (Exception e){
+            reloadErrorCount.increment();
+            logger.error("Error reloading the topology from {}: {} ! The current topology is kept", filePath, e.getLocalizedMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Reload the topology each time the file is modified (on a dedicated daemon thread)
+     */
+    public synchronized void startWatching(String filePath) throws IOException {
+
+        if(watchService != null)
+            throw new IllegalStateException("TopologyManager is already watching a topology file !");
+
+        Path path = Paths.get(filePath).toAbsolutePath();
+
+        WatchService newWatchService = path.getFileSystem().newWatchService();
+        path.getParent().register(newWatchService, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY);
+
+        Thread watcherThread = new Thread(() -> watch(newWatchService, path), WATCHER_THREAD_NAME);
+        watcherThread.setDaemon(true);
+
+        this.watchService = newWatchService;
+        watcherThread.start();
+
+        logger.info("Watching topology file {}", path);
+    }
+
+    public synchronized void stopWatching() {
+
+        if(watchService == null)
+            return;
+
+        try{
+            watchService.close();
+        }catch (IOException e){
+            logger.error("Error closing the topology watcher: {}", e.getLocalizedMessage());
+        }
+
+        watchService = null;
+    }
+
+    private void watch(WatchService watchService, Path path) {
+
+        try{
+
+            while(true){
+
+                WatchKey watchKey = watchService.take();
+                boolean changed = isChanged(watchKey, path);
+
+                if(changed){
+                    Thread.sleep(RELOAD_DEBOUNCE_MS);
+
+                    //Events received during the debounce delay are already included in the reload
+                    WatchKey pendingKey;
+                    while((pendingKey = watchService.poll()) != null)
+                        isChanged(pendingKey, path);
+
+                    reload(path.toString());
+                }
+            }
+
+        }catch (ClosedWatchServiceException | InterruptedException e){
+            logger.info("Topology watcher stopped");
+        }
+    }
+
+    private boolean isChanged(WatchKey watchKey, Path path) {
+
+        boolean changed = false;
+
+        for(WatchEvent<?> event : watchKey.pollEvents())
+            if(path.getFileName().equals(event.context()))
+                changed = true;
+
+        watchKey.reset();
+
+        return changed;
+    }
+
+    /**
+     * Build the steps of the topic reusing the instances of the current steps with the same definition
+     */
+    private AppliedSteps buildSteps(TopicDefinition topic, AppliedSteps current, List<StepDefinition> createdDefinitions, List<ProcessingStep> createdSteps) throws Exception {
+
+        List<StepDefinition> definitions = definitionsOf(topic);
+
+        if(definitions.isEmpty())
+            return new AppliedSteps(definitions, new ProcessingStep[]{ new IdentityProcessingStep() });
+
+        Map<StepDefinition, Deque<ProcessingStep>> reusableSteps = new HashMap<>();
+
+        if(current != null)
+            for(int i = 0; i < current.definitions.size(); i++)
+                reusableSteps.computeIfAbsent(current.definitions.get(i), key -> new ArrayDeque<>()).add(current.steps[i]);
+
+        ProcessingStep[] steps = new ProcessingStep[definitions.size()];
+
+        for(int i = 0; i < steps.length; i++){
+
+            Deque<ProcessingStep> reusable = reusableSteps.get(definitions.get(i));
+
+            if(reusable != null && !reusable.isEmpty())
+                steps[i] = reusable.poll();
+            else{
+                steps[i] = stepFactoryRegistry.create(definitions.get(i));
+                createdDefinitions.add(definitions.get(i));
+                createdSteps.add(steps[i]);
+            }
+        }
+
+        return new AppliedSteps(definitions, steps);
+    }
+
+    private static List<StepDefinition> definitionsOf(TopicDefinition topic) {
+        return topic.getSteps() != null ? new ArrayList<>(topic.getSteps()) : Collections.emptyList();
+    }
+
+    private static boolean containsInstance(ProcessingStep[] steps, ProcessingStep step) {
+
+        for(ProcessingStep candidate : steps)
+            if(candidate == step)
+                return true;
+
+        return false;
+    }
+
+    /**
+     * @return the pipeline of the topic to be registered on the Mqtt2MqttWorker, null if the topic is not defined
+     */
+    public ConcurrentProcessingPipeline getPipeline(String topicId) {
+        return pipelines.get(topicId);
+    }
+
+    public Map<String, ConcurrentProcessingPipeline> getPipelines() {
+        return Collections.unmodifiableMap(pipelines);
+    }
+
+    public TopologyConfiguration getConfiguration() {
+        return configuration;
+    }
+
+    public long getReloadCount() {
+        return reloadCount.sum();
+    }
+
+    public long getReloadErrorCount() {
+        return reloadErrorCount.sum();
+    }
+}
@@ -0,0 +1,262 @@
+package it.unimore.dipi.iot.demo.mqtt.wldt.window;
+
+import it.unimore.dipi.iot.demo.mqtt.wldt.aggregation.StreamingAggregator;
+import it.unimore.dipi.iot.wldt.worker.mqtt.MqttTopicDescriptor;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Window state associated to a single concrete topic.
+ * The memory used by each instance is fixed by the configuration (number of panes and reservoir size),
+ * samples are never stored outside the bounded reservoir (not allocated at all without percentiles).
+ *
+ * Methods are synchronized since a window is updated by the pipeline thread and closed
+ * by the SharedScheduler thread.
+ *
+ * @created: 18/10/2026
+ * @project: WLDT - MQTT Example
+ */
+public class TopicWindow {
+
+    private final String topic;
+
+    private final WindowMode windowMode;
+
+    private final long windowLengthMs;
+
+    private final long paneLengthMs;
+
+    private final long sessionGapMs;
+
+    private final double[] percentiles;
+
+    private final WindowPane[] panes;
+
+    private int currentPane = 0;
+
+    private long paneEnd = Long.MIN_VALUE;
+
+    private long sessionStart = 0;
+
+    private long lastSampleTime = 0;
+
+    private volatile long lastAccessTime;
+
+    private volatile MqttTopicDescriptor mqttTopicDescriptor;
+
+    private volatile boolean retained;
+
+    public TopicWindow(String topic, WindowConfiguration configuration, long now) {
+
+        this.topic = topic;
+        this.windowMode = configuration.getWindowMode();
+        this.windowLengthMs = configuration.getWindowLengthMs();
+        this.paneLengthMs = windowMode == WindowMode.SLIDING_TIME ? configuration.getSlideMs() : configuration.getWindowLengthMs();
+        this.sessionGapMs = configuration.getSessionGapMs();
+        this.lastAccessTime = now;
+
+        this.percentiles = new double[configuration.getPercentileSuffixes().size()];
+        int index = 0;
+        for(Double percentile : configuration.getPercentileSuffixes().keySet())
+            this.percentiles[index++] = percentile;
+
+        //Samples are only needed to estimate the percentiles
+        int reservoirSize = percentiles.length > 0 ? configuration.getPercentileSampleSize() : 0;
+
+        this.panes = new WindowPane[configuration.getPaneCount()];
+        for(int i = 0; i < panes.length; i++)
+            this.panes[i] = new WindowPane(reservoirSize, topic.hashCode() * 31L + i);
+
+        if(windowMode != WindowMode.SESSION)
+            this.paneEnd = alignedPaneEnd(now);
+    }
+
+    /**
+     * Close the expired windows and add the sample to the current one as a single operation,
+     * so a concurrent closeExpired() (E.g. the SharedScheduler tick) can not close the window in between
+     *
+     * @return the results of the closed windows (see closeExpired())
+     */
+    public synchronized List<WindowResult> closeExpiredAndAdd(long now, double value) {
+        List<WindowResult> resultList = closeExpired(now);
+        add(now, value);
+        return resultList;
+    }
+
+    /**
+     * Add a new sample to the current window. Expired windows have to be closed
+     * before through closeExpired()
+     */
+    public synchronized void add(long now, double value) {
+
+        if(windowMode == WindowMode.SESSION && panes[0].isEmpty())
+            sessionStart = now;
+
+        panes[currentPane].add(value);
+        lastSampleTime = now;
+        lastAccessTime = now;
+    }
+
+    /**
+     * @return true if at least one window boundary has been reached and closeExpired() has to be called
+     */
+    public synchronized boolean isExpired(long now) {
+        if(windowMode == WindowMode.SESSION)
+            return !panes[0].isEmpty() && now - lastSampleTime > sessionGapMs;
+        return now >= paneEnd;
+    }
+
+    /**
+     * Close all the windows expired at the target time
+     *
+     * @param now current time in milliseconds
+     * @return the results of the closed windows that contained at least one sample (oldest first)
+     */
+    public synchronized List<WindowResult> closeExpired(long now) {
+
+        if(!isExpired(now))
+            return Collections.emptyList();
+
+        List<WindowResult> resultList = new ArrayList<>(1);
+
+        switch (windowMode){
+
+            case SESSION:
+                resultList.add(buildResult(sessionStart, lastSampleTime));
+                panes[0].reset();
+                break;
+
+            case TUMBLING_TIME:
+                if(!panes[0].isEmpty())
+                    resultList.add(buildResult(paneEnd - windowLengthMs, paneEnd));
+                panes[0].reset();
+                paneEnd = alignedPaneEnd(now);
+                break;
+
+            case SLIDING_TIME:
+                while(now >= paneEnd){
+
+                    //Nothing left in the ring, realign directly to the current pane
+                    if(now - paneEnd >= windowLengthMs && !hasSamples()){
+                        paneEnd = alignedPaneEnd(now);
+                        break;
+                    }
+
+                    if(hasSamples())
+                        resultList.add(buildResult(paneEnd - windowLengthMs, paneEnd));
+
+                    currentPane = (currentPane + 1) % panes.length;
+                    panes[currentPane].reset();
+                    paneEnd += paneLengthMs;
+                }
+                break;
+
+            default:
+                break;
+        }
+
+        return resultList;
+    }
+
+    /**
+     * @return true if the open window(s) contain at least one sample
+     */
+    public synchronized boolean hasOpenSamples() {
+        return hasSamples();
+    }
+
+    private long alignedPaneEnd(long now) {
+        return Math.floorDiv(now, paneLengthMs) * paneLengthMs + paneLengthMs;
+    }
+
+    private boolean hasSamples() {
+        for(WindowPane pane : panes)
+            if(!pane.isEmpty())
+                return true;
+        return false;
+    }
+
+    private WindowResult buildResult(long windowStart, long windowEnd) {
+
+        StreamingAggregator merged = new StreamingAggregator();
+        int sampleCount = 0;
+
+        for(WindowPane pane : panes){
+            merged.merge(pane.getAggregator());
+            sampleCount += pane.getSampleCount();
+        }
+
+        double[] percentileValues = new double[percentiles.length];
+
+        if(percentiles.length > 0 && sampleCount > 0){
+
+            //Each sample of a reservoir stands for (pane count / pane samples) values of its pane,
+            //so sparse panes do not weigh as much as the busy ones
+            double[] samples = new double[sampleCount];
+            double[] weights = new double[sampleCount];
+            int offset = 0;
+
+            for(WindowPane pane : panes){
+                int paneSamples = pane.getSampleCount();
+                if(paneSamples > 0){
+                    System.arraycopy(pane.getReservoir(), 0, samples, offset, paneSamples);
+                    Arrays.fill(weights, offset, offset + paneSamples, (double) pane.getAggregator().getCount() / paneSamples);
+                    offset += paneSamples;
+                }
+            }
+
+            Integer[] order = new Integer[sampleCount];
+            for(int i = 0; i < sampleCount; i++)
+                order[i] = i;
+            Arrays.sort(order, (first, second) -> Double.compare(samples[first], samples[second]));
+
+            //Weighted nearest rank percentile on the sampled values
+            for(int i = 0; i < percentiles.length; i++){
+
+                double targetWeight = percentiles[i] / 100.0 * merged.getCount();
+                double cumulativeWeight = 0.0;
+                int index = 0;
+
+                while(index < sampleCount - 1){
+                    cumulativeWeight += weights[order[index]];
+                    if(cumulativeWeight >= targetWeight)
+                        break;
+                    index++;
+                }
+
+                percentileValues[i] = samples[order[index]];
+            }
+        }
+        else
+            Arrays.fill(percentileValues, Double.NaN);
+
+        return new WindowResult(windowStart, windowEnd, merged.getCount(), merged.getAverage(), merged.getMin(), merged.getMax(), percentileValues);
+    }
+
+    public String getTopic() {
+        return topic;
+    }
+
+    public MqttTopicDescriptor getMqttTopicDescriptor() {
+        return mqttTopicDescriptor;
+    }
+
+    public void setMqttTopicDescriptor(MqttTopicDescriptor mqttTopicDescriptor) {
+        this.mqttTopicDescriptor = mqttTopicDescriptor;
+    }
+
+    public boolean isRetained() {
+        return retained;
+    }
+
+    public void setRetained(boolean retained) {
+        this.retained = retained;
+    }
+
+    public long getLastAccessTime() {
+        return lastAccessTime;
+    }
+}
@@ -0,0 +1,219 @@
+package it.unimore.dipi.iot.demo.mqtt.wldt.window;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Configuration of a time based window aggregation.
+ * Each enabled statistic (and percentile) is emitted on the topic <topic>/<suffix>
+ * (e.g. telemetry/device01/resource/temperature/average) following the insertion order.
+ * The first configured statistic is the one forwarded through the ProcessingPipeline.
+ *
+ * @created: 18/10/2026
+ * @project: WLDT - MQTT Example
+ */
+public class WindowConfiguration {
+
+    public static final int DEFAULT_MAX_WINDOWS = 250000;
+
+    public static final int DEFAULT_PERCENTILE_SAMPLE_SIZE = 32;
+
+    public static final long DEFAULT_TICK_PERIOD_MS = 250;
+
+    private WindowMode windowMode = WindowMode.TUMBLING_TIME;
+
+    private long windowLengthMs = 10000;
+
+    private long slideMs = 10000;
+
+    private long sessionGapMs = 30000;
+
+    private long idleTimeoutMs = 300000;
+
+    private long tickPeriodMs = DEFAULT_TICK_PERIOD_MS;
+
+    private int maxWindows = DEFAULT_MAX_WINDOWS;
+
+    private int percentileSampleSize = DEFAULT_PERCENTILE_SAMPLE_SIZE;
+
+    private Map<WindowStatistic, String> statisticSuffixes = new LinkedHashMap<>();
+
+    private Map<Double, String> percentileSuffixes = new LinkedHashMap<>();
+
+    public WindowConfiguration() {
+    }
+
+    public static WindowConfiguration tumbling(long windowLengthMs) {
+        WindowConfiguration configuration = new WindowConfiguration();
+        configuration.setWindowMode(WindowMode.TUMBLING_TIME);
+        configuration.setWindowLengthMs(windowLengthMs);
+        configuration.setSlideMs(windowLengthMs);
+        return configuration;
+    }
+
+    public static WindowConfiguration sliding(long windowLengthMs, long slideMs) {
+        WindowConfiguration configuration = new WindowConfiguration();
+        configuration.setWindowMode(WindowMode.SLIDING_TIME);
+        configuration.setWindowLengthMs(windowLengthMs);
+        configuration.setSlideMs(slideMs);
+        return configuration;
+    }
+
+    public static WindowConfiguration session(long sessionGapMs) {
+        WindowConfiguration configuration = new WindowConfiguration();
+        configuration.setWindowMode(WindowMode.SESSION);
+        configuration.setSessionGapMs(sessionGapMs);
+        return configuration;
+    }
+
+    public WindowConfiguration addStatistic(WindowStatistic statistic, String topicSuffix) {
+        this.statisticSuffixes.put(statistic, topicSuffix);
+        return this;
+    }
+
+    /**
+     * @param percentile percentile in the range (0,100] e.g. 95.0
+     * @param topicSuffix suffix used for the emitted topic e.g. p95
+     */
+    public WindowConfiguration addPercentile(double percentile, String topicSuffix) {
+
+        if(percentile <= 0.0 || percentile > 100.0)
+            throw new IllegalArgumentException(String.format("Invalid percentile: %f ! Allowed range: (0,100]", percentile));
+
+        this.percentileSuffixes.put(percentile, topicSuffix);
+        return this;
+    }
+
+    /**
+     * Check the consistency of the configuration
+     *
+     * @throws IllegalArgumentException if the configuration is not valid
+     */
+    public void validate() {
+
+        if(windowMode == null)
+            throw new IllegalArgumentException("Window Mode can not be null !");
+
+        if(statisticSuffixes.isEmpty() && percentileSuffixes.isEmpty())
+            throw new IllegalArgumentException("At least one statistic or percentile has to be configured !");
+
+        if(windowMode != WindowMode.SESSION && windowLengthMs <= 0)
+            throw new IllegalArgumentException(String.format("Invalid window length: %d ms", windowLengthMs));
+
+        if(windowMode == WindowMode.SLIDING_TIME && (slideMs <= 0 || slideMs > windowLengthMs || windowLengthMs % slideMs != 0))
+            throw new IllegalArgumentException(String.format("Invalid slide: %d ms ! The window length (%d ms) has to be a multiple of the slide", slideMs, windowLengthMs));
+
+        if(windowMode == WindowMode.SESSION && sessionGapMs <= 0)
+            throw new IllegalArgumentException(String.format("Invalid session gap: %d ms", sessionGapMs));
+
+        if(maxWindows <= 0 || tickPeriodMs <= 0 || idleTimeoutMs <= 0 || percentileSampleSize < 0)
+            throw new IllegalArgumentException("Max Windows, Tick Period and Idle Timeout must be greater than 0 and the Percentile Sample Size can not be negative !");
+
+        if(!percentileSuffixes.isEmpty() && percentileSampleSize == 0)
+            throw new IllegalArgumentException("Percentiles require a Percentile Sample Size greater than 0 !");
+    }
+
+    /**
+     * @return the number of panes used to store the samples of a single window
+     */
+    public int getPaneCount() {
+        return windowMode == WindowMode.SLIDING_TIME ? (int) (windowLengthMs / slideMs) : 1;
+    }
+
+    public WindowMode getWindowMode() {
+        return windowMode;
+    }
+
+    public void setWindowMode(WindowMode windowMode) {
+        this.windowMode = windowMode;
+    }
+
+    public long getWindowLengthMs() {
+        return windowLengthMs;
+    }
+
+    public void setWindowLengthMs(long windowLengthMs) {
+        this.windowLengthMs = windowLengthMs;
+    }
+
+    public long getSlideMs() {
+        return slideMs;
+    }
+
+    public void setSlideMs(long slideMs) {
+        this.slideMs = slideMs;
+    }
+
+    public long getSessionGapMs() {
+        return sessionGapMs;
+    }
+
+    public void setSessionGapMs(long sessionGapMs) {
+        this.sessionGapMs = sessionGapMs;
+    }
+
+    public long getIdleTimeoutMs() {
+        return idleTimeoutMs;
+    }
+
+    public void setIdleTimeoutMs(long idleTimeoutMs) {
+        this.idleTimeoutMs = idleTimeoutMs;
+    }
+
+    public long getTickPeriodMs() {
+        return tickPeriodMs;
+    }
+
+    public void setTickPeriodMs(long tickPeriodMs) {
+        this.tickPeriodMs = tickPeriodMs;
+    }
+
+    public int getMaxWindows() {
+        return maxWindows;
+    }
+
+    public void setMaxWindows(int maxWindows) {
+        this.maxWindows = maxWindows;
+    }
+
+    public int getPercentileSampleSize() {
+        return percentileSampleSize;
+    }
+
+    public void setPercentileSampleSize(int percentileSampleSize) {
+        this.percentileSampleSize = percentileSampleSize;
+    }
+
+    public Map<WindowStatistic, String> getStatisticSuffixes() {
+        return statisticSuffixes;
+    }
+
+    public void setStatisticSuffixes(Map<WindowStatistic, String> statisticSuffixes) {
+        this.statisticSuffixes = statisticSuffixes;
+    }
+
+    public Map<Double, String> getPercentileSuffixes() {
+        return percentileSuffixes;
+    }
+
+    public void setPercentileSuffixes(Map<Double, String> percentileSuffixes) {
+        this.percentileSuffixes = percentileSuffixes;
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder("WindowConfiguration{");
+        sb.append("windowMode=").append(windowMode);
+        sb.append(", windowLengthMs=").append(windowLengthMs);
+        sb.append(", slideMs=").append(slideMs);
+        sb.append(", sessionGapMs=").append(sessionGapMs);
+        sb.append(", idleTimeoutMs=").append(idleTimeoutMs);
+        sb.append(", tickPeriodMs=").append(tickPeriodMs);
+        sb.append(", maxWindows=").append(maxWindows);
+        sb.append(", percentileSampleSize=").append(percentileSampleSize);
+        sb.append(", statisticSuffixes=").append(statisticSuffixes);
+        sb.append(", percentileSuffixes=").append(percentileSuffixes);
+        sb.append('}');
+        return sb.toString();
+    }
+}
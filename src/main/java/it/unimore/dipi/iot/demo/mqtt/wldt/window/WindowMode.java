@@ -0,0 +1,17 @@
+package it.unimore.dipi.iot.demo.mqtt.wldt.window;
+
+/**
+ * Supported time based window types
+ *
+ * TUMBLING_TIME: fixed, non overlapping windows aligned to the window length
+ * SLIDING_TIME: overlapping windows of a fixed length emitted every slide interval
+ * SESSION: windows closed after a configurable gap without received samples
+ *
+ * @created: 18/10/2026
+ * @project: WLDT - MQTT Example
+ */
+public enum WindowMode {
+    TUMBLING_TIME,
+    SLIDING_TIME,
+    SESSION
+}
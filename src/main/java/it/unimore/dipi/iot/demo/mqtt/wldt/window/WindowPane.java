@@ -0,0 +1,81 @@
+package it.unimore.dipi.iot.demo.mqtt.wldt.window;
+
+import it.unimore.dipi.iot.demo.mqtt.wldt.aggregation.StreamingAggregator;
+
+/**
+ * Portion of a time window storing the running aggregation of the received samples
+ * and a fixed size reservoir of samples (Algorithm R) used to estimate percentiles
+ * with a bounded amount of memory
+ *
+ * @created: 18/10/2026
+ * @project: WLDT - MQTT Example
+ */
+public class WindowPane {
+
+    private final StreamingAggregator aggregator;
+
+    private final int reservoirSize;
+
+    private double[] reservoir;
+
+    private long randomState;
+
+    public WindowPane(int reservoirSize, long seed) {
+        this.aggregator = new StreamingAggregator();
+        this.reservoirSize = reservoirSize;
+        this.randomState = seed == 0 ? 0x9E3779B97F4A7C15L : seed;
+    }
+
+    public void add(double value) {
+
+        aggregator.add(value);
+
+        if(reservoirSize == 0)
+            return;
+
+        if(reservoir == null)
+            reservoir = new double[reservoirSize];
+
+        long count = aggregator.getCount();
+
+        if(count <= reservoirSize)
+            reservoir[(int) (count - 1)] = value;
+        else {
+            long index = Long.remainderUnsigned(nextRandom(), count);
+            if(index < reservoirSize)
+                reservoir[(int) index] = value;
+        }
+    }
+
+    public void reset() {
+        aggregator.reset();
+    }
+
+    public boolean isEmpty() {
+        return aggregator.getCount() == 0;
+    }
+
+    public StreamingAggregator getAggregator() {
+        return aggregator;
+    }
+
+    /**
+     * @return the number of valid samples stored in the reservoir
+     */
+    public int getSampleCount() {
+        return (int) Math.min(aggregator.getCount(), reservoirSize);
+    }
+
+    public double[] getReservoir() {
+        return reservoir;
+    }
+
+    private long nextRandom() {
+        //xorshift64* generator: no shared state and no allocation
+        randomState ^= randomState >>> 12;
+        randomState ^= randomState << 25;
+        randomState ^= randomState >>> 27;
+        return randomState * 0x2545F4914F6CDD1DL;
+    }
+
+}
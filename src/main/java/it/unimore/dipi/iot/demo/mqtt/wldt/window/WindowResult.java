@@ -0,0 +1,96 @@
+package it.unimore.dipi.iot.demo.mqtt.wldt.window;
+
+import java.util.Arrays;
+
+/**
+ * Statistics computed for a closed window
+ *
+ * @created: 18/10/2026
+ * @project: WLDT - MQTT Example
+ */
+public class WindowResult {
+
+    private final long windowStart;
+
+    private final long windowEnd;
+
+    private final long count;
+
+    private final double average;
+
+    private final double min;
+
+    private final double max;
+
+    private final double[] percentiles;
+
+    public WindowResult(long windowStart, long windowEnd, long count, double average, double min, double max, double[] percentiles) {
+        this.windowStart = windowStart;
+        this.windowEnd = windowEnd;
+        this.count = count;
+        this.average = average;
+        this.min = min;
+        this.max = max;
+        this.percentiles = percentiles;
+    }
+
+    public double getStatistic(WindowStatistic statistic) {
+        switch (statistic){
+            case COUNT:
+                return (double) count;
+            case AVERAGE:
+                return average;
+            case MIN:
+                return min;
+            case MAX:
+                return max;
+            default:
+                throw new IllegalArgumentException(String.format("Unsupported statistic: %s", statistic));
+        }
+    }
+
+    public long getWindowStart() {
+        return windowStart;
+    }
+
+    public long getWindowEnd() {
+        return windowEnd;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public double getAverage() {
+        return average;
+    }
+
+    public double getMin() {
+        return min;
+    }
+
+    public double getMax() {
+        return max;
+    }
+
+    /**
+     * @return the percentile values following the order of WindowConfiguration.getPercentileSuffixes()
+     */
+    public double[] getPercentiles() {
+        return percentiles;
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder("WindowResult{");
+        sb.append("windowStart=").append(windowStart);
+        sb.append(", windowEnd=").append(windowEnd);
+        sb.append(", count=").append(count);
+        sb.append(", average=").append(average);
+        sb.append(", min=").append(min);
+        sb.append(", max=").append(max);
+        sb.append(", percentiles=").append(Arrays.toString(percentiles));
+        sb.append('}');
+        return sb.toString();
+    }
+}
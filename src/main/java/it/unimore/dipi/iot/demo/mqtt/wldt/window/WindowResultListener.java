@@ -0,0 +1,17 @@
+package it.unimore.dipi.iot.demo.mqtt.wldt.window;
+
+import it.unimore.dipi.iot.wldt.worker.mqtt.MqttPipelineData;
+
+/**
+ * Listener receiving the window results that can not be forwarded through the
+ * ProcessingPipeline: additional statistics of a closed window and the windows
+ * closed by the SharedScheduler when no new sample is received
+ *
+ * @created: 18/10/2026
+ * @project: WLDT - MQTT Example
+ */
+public interface WindowResultListener {
+
+    public void onWindowResult(MqttPipelineData windowResult);
+
+}
@@ -0,0 +1,15 @@
+package it.unimore.dipi.iot.demo.mqtt.wldt.window;
+
+/**
+ * Statistics that can be emitted when a window is closed.
+ * Percentiles are configured separately through WindowConfiguration.addPercentile()
+ *
+ * @created: 18/10/2026
+ * @project: WLDT - MQTT Example
+ */
+public enum WindowStatistic {
+    COUNT,
+    AVERAGE,
+    MIN,
+    MAX
+}
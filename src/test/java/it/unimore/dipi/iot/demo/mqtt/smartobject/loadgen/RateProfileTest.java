@@ -0,0 +1,78 @@
+package it.unimore.dipi.iot.demo.mqtt.smartobject.loadgen;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.Test;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @created: 18/10/2026
+ * @project: WLDT - MQTT Example
+ */
+public class RateProfileTest {
+
+    @Test
+    public void constantRate() {
+
+        RateProfile profile = RateProfile.constant(4.0);
+
+        assertEquals(4.0, profile.getRate(0), 0.0);
+        assertEquals(4.0, profile.getRate(60000), 0.0);
+        assertEquals(250, profile.getIntervalMs(1000));
+    }
+
+    @Test
+    public void burstRateDuringTheBurstWindow() {
+
+        RateProfile profile = RateProfile.burst(1.0, 10.0, 10000, 2000);
+
+        assertEquals(10.0, profile.getRate(0), 0.0);
+        assertEquals(10.0, profile.getRate(1999), 0.0);
+        assertEquals(1.0, profile.getRate(2000), 0.0);
+        assertEquals(10.0, profile.getRate(10500), 0.0);
+        assertEquals(100, profile.getIntervalMs(500));
+    }
+
+    @Test
+    public void rampReachesTheTargetRate() {
+
+        RateProfile profile = RateProfile.ramp(1.0, 11.0, 10000);
+
+        assertEquals(1.0, profile.getRate(0), 0.0);
+        assertEquals(6.0, profile.getRate(5000), 1e-9);
+        assertEquals(11.0, profile.getRate(10000), 0.0);
+        assertEquals(11.0, profile.getRate(20000), 0.0);
+    }
+
+    @Test
+    public void intervalIsAtLeastOneMillisecond() {
+        assertEquals(1, RateProfile.constant(5000.0).getIntervalMs(0));
+    }
+
+    @Test
+    public void payloadFormatsAreValid() throws Exception {
+
+        ObjectMapper mapper = new ObjectMapper();
+        StringBuilder sb = new StringBuilder();
+
+        assertEquals("23.5", new String(PayloadFormat.NUMERIC.encode(sb, "device001", 1634567890123L, 7, 23.5), StandardCharsets.UTF_8));
+
+        JsonNode json = mapper.readTree(PayloadFormat.JSON.encode(sb, "device001", 1634567890123L, 7, 23.5));
+        assertEquals("device001", json.get("deviceId").asText());
+        assertEquals(1634567890123L, json.get("timestamp").asLong());
+        assertEquals(7, json.get("sequence").asLong());
+        assertEquals(23.5, json.get("value").asDouble(), 0.0);
+
+        String senmlString = new String(PayloadFormat.SENML_JSON.encode(sb, "device001", 1634567890005L, 7, 23.5), StandardCharsets.UTF_8);
+        assertTrue(senmlString.contains("1634567890.005"));
+
+        JsonNode senml = mapper.readTree(senmlString).get(0);
+        assertEquals("device001:", senml.get("bn").asText());
+        assertEquals(1634567890.005, senml.get("t").asDouble(), 1e-6);
+        assertEquals(23.5, senml.get("v").asDouble(), 0.0);
+    }
+}
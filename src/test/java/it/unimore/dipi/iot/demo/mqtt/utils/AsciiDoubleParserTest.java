@@ -0,0 +1,85 @@
+package it.unimore.dipi.iot.demo.mqtt.utils;
+
+import org.junit.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * The parsed values must be the same of Double.parseDouble (bit by bit) for every valid literal
+ *
+ * @created: 18/10/2026
+ * @project: WLDT - MQTT Example
+ */
+public class AsciiDoubleParserTest {
+
+    private static double parse(String text) {
+        return AsciiDoubleParser.parse(text.getBytes(StandardCharsets.US_ASCII));
+    }
+
+    private static void assertSameAsParseDouble(String text) {
+        assertEquals(text, Double.doubleToRawLongBits(Double.parseDouble(text)), Double.doubleToRawLongBits(parse(text)));
+    }
+
+    @Test
+    public void parsesCommonLiterals() {
+        String[] literals = {"87.53", "0", "-0", "0.0", "-0.0", "42", "-17.25", "+3.5", ".5", "5.", "1e3", "1E-7", "2.5e+10",
+                "  12.5  ", "\t-1\n", "1d", "2.5F", "0.1", "0.3", "123456.789", "1e22", "1e-22", "4.35", "0.000001"};
+        for(String literal : literals)
+            assertSameAsParseDouble(literal);
+    }
+
+    @Test
+    public void fallsBackForExoticLiterals() {
+        String[] literals = {"NaN", "Infinity", "-Infinity", "0x1p3", "1e23", "1e-23", "1e308", "4.9e-324", "1e400", "1e-400",
+                "12345678901234567890", "0.12345678901234567890", "9007199254740993", "9007199254740993e-5"};
+        for(String literal : literals)
+            assertSameAsParseDouble(literal);
+    }
+
+    @Test
+    public void returnsNaNForInvalidPayloads() {
+        String[] invalid = {"", " ", "-", "+", ".", "e3", "1e", "1e+", "1.2.3", "abc", "12a", "--1", "1 2"};
+        for(String text : invalid)
+            assertTrue(text, Double.isNaN(parse(text)));
+        assertTrue(Double.isNaN(AsciiDoubleParser.parse(null)));
+    }
+
+    @Test
+    public void parsesARangeOfTheBuffer() {
+        byte[] buffer = "xx-12.75yy".getBytes(StandardCharsets.US_ASCII);
+        assertEquals(-12.75, AsciiDoubleParser.parse(buffer, 2, 6), 0.0);
+        assertTrue(Double.isNaN(AsciiDoubleParser.parse(buffer, 2, 0)));
+    }
+
+    @Test
+    public void roundTripsDoubleToString() {
+        Random random = new Random(42);
+        for(int i = 0; i < 100000; i++){
+            double value = Double.longBitsToDouble(random.nextLong());
+            if(Double.isNaN(value))
+                continue;
+            assertEquals(Double.doubleToRawLongBits(value), Double.doubleToRawLongBits(parse(Double.toString(value))));
+        }
+    }
+
+    @Test
+    public void matchesParseDoubleOnRandomDecimals() {
+        Random random = new Random(7);
+        for(int i = 0; i < 100000; i++){
+            //Up to 17 significant digits, the longest ones exceed 2^53 and fall back
+            long mantissa = (long) (random.nextDouble() * Math.pow(10, 1 + random.nextInt(17)));
+            int exponent = random.nextInt(61) - 30;
+            assertSameAsParseDouble(mantissa + "e" + exponent);
+            assertSameAsParseDouble(insertDecimalPoint(Long.toString(mantissa), random.nextInt(18)));
+        }
+    }
+
+    private static String insertDecimalPoint(String digits, int position) {
+        int index = Math.min(position, digits.length());
+        return digits.substring(0, index) + "." + digits.substring(index);
+    }
+}
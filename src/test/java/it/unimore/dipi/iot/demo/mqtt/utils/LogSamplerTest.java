@@ -0,0 +1,115 @@
+package it.unimore.dipi.iot.demo.mqtt.utils;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @created: 18/10/2026
+ * @project: WLDT - MQTT Example
+ */
+public class LogSamplerTest {
+
+    /**
+     * Wait for the first half of a second, so a short burst of events is not split in two rate limit windows
+     */
+    private static void awaitSecondStart() throws InterruptedException {
+        while(System.currentTimeMillis() % 1000 > 500)
+            Thread.sleep(10);
+    }
+
+    @Test
+    public void everyEventIsSampledWithoutLimits() {
+
+        LogSampler logSampler = LogSampler.everyN(1);
+
+        for(int i = 0; i < 1000; i++)
+            assertTrue(logSampler.sample());
+
+        assertEquals(0, logSampler.drainSuppressedCount());
+    }
+
+    @Test
+    public void samplingSelectsAboutOneEventEveryN() {
+
+        LogSampler logSampler = LogSampler.everyN(10);
+        int sampled = 0;
+
+        for(int i = 0; i < 100000; i++)
+            if(logSampler.sample())
+                sampled++;
+
+        assertTrue(String.valueOf(sampled), sampled > 9000 && sampled < 11000);
+        assertEquals(100000 - sampled, logSampler.drainSuppressedCount());
+        assertEquals(0, logSampler.drainSuppressedCount());
+    }
+
+    @Test
+    public void rateLimitOfTheCurrentSecond() throws InterruptedException {
+
+        awaitSecondStart();
+
+        LogSampler logSampler = LogSampler.perSecond(5);
+        int sampled = 0;
+
+        for(int i = 0; i < 100; i++)
+            if(logSampler.sample())
+                sampled++;
+
+        assertEquals(5, sampled);
+        assertEquals(95, logSampler.drainSuppressedCount());
+    }
+
+    @Test
+    public void rateLimitWindowIsResetEverySecond() throws InterruptedException {
+
+        awaitSecondStart();
+
+        LogSampler logSampler = LogSampler.perSecond(1);
+
+        assertTrue(logSampler.sample());
+        assertFalse(logSampler.sample());
+
+        Thread.sleep(1000);
+
+        assertTrue(logSampler.sample());
+    }
+
+    @Test
+    public void rateLimitIsSharedByConcurrentThreads() throws InterruptedException {
+
+        awaitSecondStart();
+
+        LogSampler logSampler = LogSampler.perSecond(50);
+        AtomicInteger sampled = new AtomicInteger();
+        List<Thread> threads = new ArrayList<>();
+
+        for(int t = 0; t < 4; t++){
+            Thread thread = new Thread(() -> {
+                for(int i = 0; i < 1000; i++)
+                    if(logSampler.sample())
+                        sampled.incrementAndGet();
+            });
+            threads.add(thread);
+            thread.start();
+        }
+
+        for(Thread thread : threads)
+            thread.join();
+
+        //A second boundary during the burst opens at most a second window
+        assertTrue(String.valueOf(sampled.get()), sampled.get() >= 50 && sampled.get() <= 100);
+        assertEquals(4000 - sampled.get(), logSampler.drainSuppressedCount());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void invalidSamplingRate() {
+        new LogSampler(0, LogSampler.UNLIMITED);
+    }
+}
@@ -0,0 +1,119 @@
+package it.unimore.dipi.iot.demo.mqtt.utils;
+
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @created: 18/10/2026
+ * @project: WLDT - MQTT Example
+ */
+public class TimerWheelTest {
+
+    private TimerWheel timerWheel;
+
+    @After
+    public void tearDown() {
+        if(timerWheel != null)
+            timerWheel.stop();
+    }
+
+    @Test
+    public void executesTheTaskAfterTheDelay() throws InterruptedException {
+
+        timerWheel = new TimerWheel("test-wheel");
+        timerWheel.start();
+
+        CountDownLatch executed = new CountDownLatch(1);
+        long scheduleNanos = System.nanoTime();
+        long[] executionNanos = new long[1];
+
+        timerWheel.schedule(new TimerWheel.Task() {
+            @Override
+            public void run() {
+                executionNanos[0] = System.nanoTime();
+                executed.countDown();
+            }
+        }, 50);
+
+        assertTrue(executed.await(5, TimeUnit.SECONDS));
+        assertTrue(TimeUnit.NANOSECONDS.toMillis(executionNanos[0] - scheduleNanos) >= 49);
+    }
+
+    @Test
+    public void delaysLongerThanTheWheelWaitForTheirRound() throws InterruptedException {
+
+        //8 buckets of 1 ms: the task goes around the wheel several times before its deadline
+        timerWheel = new TimerWheel("test-wheel", 1, 8);
+        timerWheel.start();
+
+        CountDownLatch executed = new CountDownLatch(1);
+        long scheduleNanos = System.nanoTime();
+        long[] executionNanos = new long[1];
+
+        timerWheel.schedule(new TimerWheel.Task() {
+            @Override
+            public void run() {
+                executionNanos[0] = System.nanoTime();
+                executed.countDown();
+            }
+        }, 40);
+
+        assertTrue(executed.await(5, TimeUnit.SECONDS));
+        assertTrue(TimeUnit.NANOSECONDS.toMillis(executionNanos[0] - scheduleNanos) >= 39);
+    }
+
+    @Test
+    public void periodicTasksRescheduleThemselves() throws InterruptedException {
+
+        timerWheel = new TimerWheel("test-wheel", 1, 16);
+        timerWheel.start();
+
+        AtomicInteger executionCount = new AtomicInteger();
+        CountDownLatch done = new CountDownLatch(1);
+
+        timerWheel.schedule(new TimerWheel.Task() {
+            @Override
+            public void run() {
+                if(executionCount.incrementAndGet() < 10)
+                    timerWheel.schedule(this, 2);
+                else
+                    done.countDown();
+            }
+        }, 2);
+
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        assertEquals(10, executionCount.get());
+    }
+
+    @Test
+    public void failingTasksDoNotStopTheWheel() throws InterruptedException {
+
+        timerWheel = new TimerWheel("test-wheel");
+        timerWheel.start();
+
+        CountDownLatch executed = new CountDownLatch(1);
+
+        timerWheel.schedule(new TimerWheel.Task() {
+            @Override
+            public void run() {
+                throw new IllegalStateException("failure");
+            }
+        }, 1);
+
+        timerWheel.schedule(new TimerWheel.Task() {
+            @Override
+            public void run() {
+                executed.countDown();
+            }
+        }, 5);
+
+        assertTrue(executed.await(5, TimeUnit.SECONDS));
+    }
+}
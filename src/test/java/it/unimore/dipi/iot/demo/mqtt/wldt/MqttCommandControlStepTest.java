@@ -0,0 +1,86 @@
+package it.unimore.dipi.iot.demo.mqtt.wldt;
+
+import it.unimore.dipi.iot.demo.mqtt.wldt.control.CommandControlConfiguration;
+import it.unimore.dipi.iot.demo.mqtt.wldt.control.CommandController;
+import it.unimore.dipi.iot.demo.mqtt.wldt.control.CommandRejectionReason;
+import it.unimore.dipi.iot.demo.mqtt.wldt.state.StateKeyExtractor;
+import it.unimore.dipi.iot.wldt.processing.PipelineData;
+import it.unimore.dipi.iot.wldt.processing.cache.PipelineCache;
+import it.unimore.dipi.iot.wldt.worker.mqtt.MqttPipelineData;
+import org.junit.After;
+import org.junit.Test;
+
+import static it.unimore.dipi.iot.demo.mqtt.wldt.TestPipelineData.data;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @created: 18/10/2026
+ * @project: WLDT - MQTT Example
+ */
+public class MqttCommandControlStepTest {
+
+    private static final String TOPIC = "command/com:iot:dummy:dummyMqttDevice001";
+
+    private final PipelineCache pipelineCache = new PipelineCache();
+
+    private final RecordingStepListener listener = new RecordingStepListener();
+
+    private CommandController commandController;
+
+    private MqttCommandControlStep createStep(StateKeyExtractor deviceIdExtractor) {
+
+        CommandControlConfiguration configuration = new CommandControlConfiguration();
+        configuration.setCoalescingEnabled(false);
+
+        commandController = new CommandController(configuration);
+        return new MqttCommandControlStep(commandController, deviceIdExtractor, data -> null);
+    }
+
+    @After
+    public void tearDown() {
+        if(commandController != null)
+            commandController.close();
+    }
+
+    @Test
+    public void commandsAreControlledByTopic() {
+
+        MqttCommandControlStep step = createStep(StateKeyExtractor.byTopic());
+
+        step.execute(pipelineCache, data(TOPIC, "{\"on\":true}"), listener);
+        step.execute(pipelineCache, data(TOPIC, "{\"on\":true}"), listener);
+        step.execute(pipelineCache, data(TOPIC + "2", "{\"on\":true}"), listener);
+
+        assertEquals(3, listener.getResults().size());
+        assertTrue(listener.getResults().get(0).isPresent());
+        assertFalse(listener.getResults().get(1).isPresent());
+        assertTrue(listener.getResults().get(2).isPresent());
+        assertEquals(1, commandController.getRejectedCount(CommandRejectionReason.DUPLICATE));
+        assertEquals(2, commandController.getDeviceCount());
+    }
+
+    @Test
+    public void unknownDeviceIsAnError() {
+
+        MqttCommandControlStep step = createStep(data -> null);
+
+        step.execute(pipelineCache, data(TOPIC, "{\"on\":true}"), listener);
+
+        assertTrue(listener.getResults().isEmpty());
+        assertEquals(1, listener.getErrors().size());
+        assertEquals(0, commandController.getDeviceCount());
+    }
+
+    @Test
+    public void wrongPipelineDataIsAnError() {
+
+        MqttCommandControlStep step = createStep(StateKeyExtractor.byTopic());
+
+        step.execute(pipelineCache, new PipelineData() {}, listener);
+
+        assertTrue(listener.getResults().isEmpty());
+        assertEquals(1, listener.getErrors().size());
+    }
+}
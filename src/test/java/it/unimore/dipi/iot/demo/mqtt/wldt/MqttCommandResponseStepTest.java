@@ -0,0 +1,102 @@
+package it.unimore.dipi.iot.demo.mqtt.wldt;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import it.unimore.dipi.iot.demo.mqtt.wldt.correlation.CommandCorrelationConfiguration;
+import it.unimore.dipi.iot.demo.mqtt.wldt.correlation.CommandCorrelationTracker;
+import it.unimore.dipi.iot.wldt.processing.cache.PipelineCache;
+import it.unimore.dipi.iot.wldt.worker.mqtt.MqttPipelineData;
+import org.junit.After;
+import org.junit.Test;
+
+import java.nio.charset.StandardCharsets;
+
+import static it.unimore.dipi.iot.demo.mqtt.wldt.TestPipelineData.data;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @created: 18/10/2026
+ * @project: WLDT - MQTT Example
+ */
+public class MqttCommandResponseStepTest {
+
+    private static final String DEVICE_ID = "com:iot:dummy:dummyMqttDevice001";
+
+    private static final String RESPONSE_TOPIC = "commands/" + DEVICE_ID + "/response";
+
+    private final PipelineCache pipelineCache = new PipelineCache();
+
+    private final RecordingStepListener listener = new RecordingStepListener();
+
+    private final CommandCorrelationTracker tracker = new CommandCorrelationTracker(new CommandCorrelationConfiguration());
+
+    @After
+    public void tearDown() {
+        tracker.close();
+    }
+
+    @Test
+    public void responseIsMatchedAndForwardedUnchanged() {
+
+        MqttCommandResponseStep step = new MqttCommandResponseStep(tracker);
+        String correlationId = tracker.register(DEVICE_ID);
+        String response = String.format("{\"status\":{\"code\":200,\"tags\":[\"a\"]},\"correlationId\":\"%s\"}", correlationId);
+
+        step.execute(pipelineCache, data(RESPONSE_TOPIC, response), listener);
+
+        assertEquals(1, tracker.getMatchedCount());
+        assertEquals(0, tracker.getOutstandingCount());
+        assertArrayEquals(response.getBytes(StandardCharsets.UTF_8), ((MqttPipelineData) listener.getLastResult()).getPayload());
+    }
+
+    @Test
+    public void responseOfAnotherDeviceIsNotMatched() {
+
+        MqttCommandResponseStep step = new MqttCommandResponseStep(tracker);
+        String correlationId = tracker.register(DEVICE_ID);
+
+        step.execute(pipelineCache, data("commands/com:iot:dummy:dummyMqttDevice002/response", String.format("{\"correlationId\":\"%s\"}", correlationId)), listener);
+
+        assertEquals(0, tracker.getMatchedCount());
+        assertEquals(1, tracker.getUnmatchedCount());
+        assertEquals(1, tracker.getOutstandingCount());
+        assertNotNull(listener.getLastResult());
+    }
+
+    @Test
+    public void invalidResponsesAreForwardedAsUnmatched() {
+
+        MqttCommandResponseStep step = new MqttCommandResponseStep(tracker);
+        tracker.register(DEVICE_ID);
+
+        step.execute(pipelineCache, data(RESPONSE_TOPIC, "{\"status\":\"ok\"}"), listener);
+        step.execute(pipelineCache, data(RESPONSE_TOPIC, "{\"correlationId\":42}"), listener);
+        step.execute(pipelineCache, data(RESPONSE_TOPIC, "[\"correlationId\"]"), listener);
+        step.execute(pipelineCache, data(RESPONSE_TOPIC, "not json"), listener);
+
+        assertEquals(4, listener.getResults().size());
+        assertTrue(listener.getErrors().isEmpty());
+        assertEquals(4, tracker.getUnmatchedCount());
+        assertEquals(1, tracker.getOutstandingCount());
+    }
+
+    @Test
+    public void commandEncodedByThePayloadChangeStepIsMatched() throws Exception {
+
+        MqttPayloadChangeStep commandStep = new MqttPayloadChangeStep(tracker);
+        commandStep.execute(pipelineCache, data("command/" + DEVICE_ID, "{\"on\":true}"), listener);
+
+        byte[] command = ((MqttPipelineData) listener.getLastResult()).getPayload();
+        String correlationId = new ObjectMapper().readTree(command).path("correlationId").asText(null);
+
+        assertNotNull(correlationId);
+        assertEquals(1, tracker.getOutstandingCount());
+
+        new MqttCommandResponseStep(tracker).execute(pipelineCache, data(RESPONSE_TOPIC, String.format("{\"correlationId\":\"%s\"}", correlationId)), listener);
+
+        assertEquals(1, tracker.getMatchedCount());
+        assertEquals(0, tracker.getOutstandingCount());
+    }
+}
@@ -0,0 +1,83 @@
+package it.unimore.dipi.iot.demo.mqtt.wldt;
+
+import it.unimore.dipi.iot.demo.mqtt.wldt.shadow.DeadbandConfiguration;
+import it.unimore.dipi.iot.demo.mqtt.wldt.shadow.ShadowState;
+import it.unimore.dipi.iot.demo.mqtt.wldt.shadow.ShadowStateCache;
+import it.unimore.dipi.iot.wldt.processing.cache.PipelineCache;
+import it.unimore.dipi.iot.wldt.worker.mqtt.MqttPipelineData;
+import org.junit.Test;
+
+import java.nio.charset.StandardCharsets;
+
+import static it.unimore.dipi.iot.demo.mqtt.wldt.TestPipelineData.data;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @created: 18/10/2026
+ * @project: WLDT - MQTT Example
+ */
+public class MqttDeadbandFilterStepTest {
+
+    private static final String TOPIC = "wldt/telemetry/device001/resource/temperature";
+
+    private final PipelineCache pipelineCache = new PipelineCache();
+
+    private final RecordingStepListener listener = new RecordingStepListener();
+
+    @Test
+    public void changesWithinTheDeadbandAreSuppressed() {
+
+        ShadowStateCache shadowStateCache = new ShadowStateCache();
+        MqttDeadbandFilterStep step = new MqttDeadbandFilterStep(shadowStateCache, DeadbandConfiguration.absolute(0.5));
+
+        step.execute(pipelineCache, data(TOPIC, "20.0"), listener);
+        step.execute(pipelineCache, data(TOPIC, "20.2"), listener);
+        step.execute(pipelineCache, data(TOPIC, "21.0"), listener);
+
+        assertEquals(3, listener.getResults().size());
+        assertTrue(listener.getResults().get(0).isPresent());
+        assertFalse(listener.getResults().get(1).isPresent());
+        assertTrue(listener.getResults().get(2).isPresent());
+        assertEquals(2, step.getForwardedCount());
+        assertEquals(1, step.getSuppressedCount());
+
+        //The shadow keeps the last received payload
+        ShadowState state = shadowStateCache.get(TOPIC);
+        assertEquals(3, state.getSequence());
+        assertEquals(21.0, state.getValue(), 0.0);
+        assertArrayEquals("21.0".getBytes(StandardCharsets.US_ASCII), state.getPayload());
+    }
+
+    @Test
+    public void topicsHaveIndependentStates() {
+
+        MqttDeadbandFilterStep step = new MqttDeadbandFilterStep(new ShadowStateCache());
+
+        step.execute(pipelineCache, data(TOPIC, "20.0"), listener);
+        step.execute(pipelineCache, data(TOPIC + "2", "20.0"), listener);
+
+        assertEquals(2, step.getForwardedCount());
+    }
+
+    @Test
+    public void messagesAreForwardedWhenTheShadowIsFull() {
+
+        ShadowStateCache shadowStateCache = new ShadowStateCache(1);
+        MqttDeadbandFilterStep step = new MqttDeadbandFilterStep(shadowStateCache);
+
+        step.execute(pipelineCache, data(TOPIC, "20.0"), listener);
+        step.execute(pipelineCache, data(TOPIC + "2", "20.0"), listener);
+        step.execute(pipelineCache, data(TOPIC + "2", "20.0"), listener);
+
+        assertEquals(3, step.getForwardedCount());
+        assertEquals(2, shadowStateCache.getRejectedCount());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void invalidDeadbandIsRejected() {
+        new MqttDeadbandFilterStep(new ShadowStateCache(), new DeadbandConfiguration(0.0, 0.0, -1));
+    }
+}
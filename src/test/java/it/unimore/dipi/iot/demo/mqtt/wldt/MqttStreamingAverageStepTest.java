@@ -0,0 +1,100 @@
+package it.unimore.dipi.iot.demo.mqtt.wldt;
+
+import it.unimore.dipi.iot.demo.mqtt.utils.AsciiDoubleParser;
+import it.unimore.dipi.iot.wldt.processing.cache.PipelineCache;
+import it.unimore.dipi.iot.wldt.worker.mqtt.MqttPipelineData;
+import org.junit.After;
+import org.junit.Test;
+
+import java.nio.charset.StandardCharsets;
+
+import static it.unimore.dipi.iot.demo.mqtt.wldt.TestPipelineData.data;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+
+/**
+ * @created: 18/10/2026
+ * @project: WLDT - MQTT Example
+ */
+public class MqttStreamingAverageStepTest {
+
+    private static final String TOPIC = "telemetry/device001/resource/temperature";
+
+    private final MqttStreamingAverageStep step = new MqttStreamingAverageStep(3);
+
+    private final PipelineCache pipelineCache = new PipelineCache();
+
+    private final RecordingStepListener listener = new RecordingStepListener();
+
+    @After
+    public void tearDown() {
+        step.close();
+    }
+
+    @Test
+    public void publishesTheAverageOfEachWindow() {
+
+        MqttPipelineData last = data(TOPIC, "30");
+
+        step.execute(pipelineCache, data(TOPIC, "10"), listener);
+        step.execute(pipelineCache, data(TOPIC, "20"), listener);
+
+        assertEquals(2, listener.getResults().size());
+        assertFalse(listener.getResults().get(0).isPresent());
+        assertFalse(listener.getResults().get(1).isPresent());
+
+        step.execute(pipelineCache, last, listener);
+
+        MqttPipelineData average = (MqttPipelineData) listener.getLastResult();
+        assertEquals(TOPIC + "/average", average.getTopic());
+        assertEquals(20.0, AsciiDoubleParser.parse(average.getPayload()), 0.0);
+
+        //Copy on write: the received data is not modified
+        assertEquals(TOPIC, last.getTopic());
+        assertEquals("30", new String(last.getPayload(), StandardCharsets.US_ASCII));
+
+        //The next window starts empty
+        listener.clear();
+        for(String value : new String[]{"1", "2", "6"})
+            step.execute(pipelineCache, data(TOPIC, value), listener);
+
+        assertEquals(3.0, AsciiDoubleParser.parse(((MqttPipelineData) listener.getLastResult()).getPayload()), 0.0);
+    }
+
+    @Test
+    public void keepsAWindowForEachTopic() {
+
+        String otherTopic = "telemetry/device002/resource/temperature";
+
+        step.execute(pipelineCache, data(TOPIC, "1"), listener);
+        step.execute(pipelineCache, data(otherTopic, "100"), listener);
+        step.execute(pipelineCache, data(TOPIC, "2"), listener);
+        step.execute(pipelineCache, data(otherTopic, "200"), listener);
+        step.execute(pipelineCache, data(TOPIC, "3"), listener);
+
+        MqttPipelineData average = (MqttPipelineData) listener.getLastResult();
+        assertEquals(TOPIC + "/average", average.getTopic());
+        assertEquals(2.0, AsciiDoubleParser.parse(average.getPayload()), 0.0);
+
+        step.execute(pipelineCache, data(otherTopic, "300"), listener);
+
+        average = (MqttPipelineData) listener.getLastResult();
+        assertEquals(otherTopic + "/average", average.getTopic());
+        assertEquals(200.0, AsciiDoubleParser.parse(average.getPayload()), 0.0);
+    }
+
+    @Test
+    public void reportsNonNumericPayloads() {
+
+        step.execute(pipelineCache, data(TOPIC, "hot"), listener);
+
+        assertEquals(1, listener.getErrors().size());
+        assertNull(listener.getLastResult());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsAnEmptyWindow() {
+        new MqttStreamingAverageStep(0);
+    }
+}
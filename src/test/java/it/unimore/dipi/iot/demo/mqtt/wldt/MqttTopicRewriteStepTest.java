@@ -0,0 +1,51 @@
+package it.unimore.dipi.iot.demo.mqtt.wldt;
+
+import it.unimore.dipi.iot.demo.mqtt.wldt.topic.TopicRewriteRule;
+import it.unimore.dipi.iot.wldt.processing.PipelineData;
+import it.unimore.dipi.iot.wldt.processing.cache.PipelineCache;
+import it.unimore.dipi.iot.wldt.worker.mqtt.MqttPipelineData;
+import org.junit.Test;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @created: 18/10/2026
+ * @project: WLDT - MQTT Example
+ */
+public class MqttTopicRewriteStepTest {
+
+    @Test
+    public void rewritesTheTopicKeepingThePayload() {
+
+        MqttTopicRewriteStep step = new MqttTopicRewriteStep(TopicRewriteRule.prefix("wldt"));
+        RecordingStepListener listener = new RecordingStepListener();
+        byte[] payload = "23.5".getBytes(StandardCharsets.US_ASCII);
+        MqttPipelineData data = new MqttPipelineData("telemetry/device01", null, payload, false);
+
+        step.execute(new PipelineCache(), data, listener);
+
+        MqttPipelineData result = (MqttPipelineData) listener.getLastResult();
+        assertEquals("wldt/telemetry/device01", result.getTopic());
+        assertArrayEquals(payload, result.getPayload());
+
+        //Copy on write: the received data is not modified
+        assertEquals("telemetry/device01", data.getTopic());
+    }
+
+    @Test
+    public void wrongDataIsReportedAsError() {
+
+        MqttTopicRewriteStep step = new MqttTopicRewriteStep(TopicRewriteRule.prefix("wldt"));
+        RecordingStepListener listener = new RecordingStepListener();
+
+        step.execute(new PipelineCache(), new PipelineData() {}, listener);
+
+        assertFalse(listener.getErrors().isEmpty());
+        assertTrue(listener.getResults().isEmpty());
+    }
+}
@@ -0,0 +1,77 @@
+package it.unimore.dipi.iot.demo.mqtt.wldt;
+
+import it.unimore.dipi.iot.demo.mqtt.wldt.pipeline.PipelineDataPool;
+import it.unimore.dipi.iot.demo.mqtt.wldt.window.WindowConfiguration;
+import it.unimore.dipi.iot.demo.mqtt.wldt.window.WindowStatistic;
+import it.unimore.dipi.iot.wldt.processing.cache.PipelineCache;
+import it.unimore.dipi.iot.wldt.worker.mqtt.MqttPipelineData;
+import org.junit.After;
+import org.junit.Test;
+
+import static it.unimore.dipi.iot.demo.mqtt.wldt.TestPipelineData.data;
+import static it.unimore.dipi.iot.demo.mqtt.wldt.TestPipelineData.payloadOf;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+/**
+ * @created: 18/10/2026
+ * @project: WLDT - MQTT Example
+ */
+public class MqttWindowAggregationStepTest {
+
+    private static final String TOPIC = "telemetry/device001/resource/temperature";
+
+    private static final long WINDOW_LENGTH_MS = 50;
+
+    private final MqttWindowAggregationStep step = new MqttWindowAggregationStep(WindowConfiguration.tumbling(WINDOW_LENGTH_MS)
+            .addStatistic(WindowStatistic.AVERAGE, "avg")
+            .addStatistic(WindowStatistic.MAX, "max"));
+
+    private final PipelineCache pipelineCache = new PipelineCache();
+
+    private final RecordingStepListener listener = new RecordingStepListener();
+
+    @After
+    public void tearDown() {
+        step.close();
+    }
+
+    @Test
+    public void forwardsTheFirstStatisticAndCountsTheDiscardedOnes() throws InterruptedException {
+
+        step.execute(pipelineCache, data(TOPIC, "15"), listener);
+
+        assertEquals(1, listener.getResults().size());
+        assertFalse(listener.getResults().get(0).isPresent());
+        assertEquals(0, step.getDiscardedResultCount());
+
+        Thread.sleep(3 * WINDOW_LENGTH_MS);
+
+        //The new sample closes the previous window
+        step.execute(pipelineCache, data(TOPIC, "100"), listener);
+
+        MqttPipelineData average = (MqttPipelineData) listener.getLastResult();
+        assertEquals(TOPIC + "/avg", average.getTopic());
+        assertEquals("15.0", payloadOf(average));
+
+        //Without a WindowResultListener the max statistic is discarded
+        assertEquals(1, step.getDiscardedResultCount());
+    }
+
+    @Test
+    public void releasesTheReceivedPooledData() throws InterruptedException {
+
+        PipelineDataPool pool = new PipelineDataPool(1, 16, 16, false);
+
+        //No window is closed
+        step.execute(pipelineCache, pool.borrow(data(TOPIC, "15")), listener);
+        assertEquals(1, pool.getReleasedCount());
+
+        Thread.sleep(3 * WINDOW_LENGTH_MS);
+
+        //A window is closed: the forwarded result is a new data
+        step.execute(pipelineCache, pool.borrow(data(TOPIC, "100")), listener);
+        assertEquals(2, pool.getReleasedCount());
+        assertEquals("15.0", payloadOf(listener.getLastResult()));
+    }
+}
@@ -0,0 +1,64 @@
+package it.unimore.dipi.iot.demo.mqtt.wldt;
+
+import it.unimore.dipi.iot.wldt.processing.PipelineData;
+import it.unimore.dipi.iot.wldt.processing.ProcessingStep;
+import it.unimore.dipi.iot.wldt.processing.ProcessingStepListener;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * ProcessingStepListener recording the results of a step, for the step tests
+ *
+ * @created: 18/10/2026
+ * @project: WLDT - MQTT Example
+ */
+public class RecordingStepListener implements ProcessingStepListener {
+
+    private final List<Optional<PipelineData>> results = new ArrayList<>();
+
+    private final List<String> errors = new ArrayList<>();
+
+    private int skipCount = 0;
+
+    @Override
+    public void onStepDone(ProcessingStep step, Optional<PipelineData> result) {
+        results.add(result);
+    }
+
+    @Override
+    public void onStepError(ProcessingStep step, PipelineData data, String errorMessage) {
+        errors.add(errorMessage);
+    }
+
+    @Override
+    public void onStepSkip(ProcessingStep step, PipelineData data) {
+        skipCount++;
+    }
+
+    public List<Optional<PipelineData>> getResults() {
+        return results;
+    }
+
+    /**
+     * @return the last result, null if no step completed
+     */
+    public PipelineData getLastResult() {
+        return results.isEmpty() ? null : results.get(results.size() - 1).orElse(null);
+    }
+
+    public List<String> getErrors() {
+        return errors;
+    }
+
+    public int getSkipCount() {
+        return skipCount;
+    }
+
+    public void clear() {
+        results.clear();
+        errors.clear();
+        skipCount = 0;
+    }
+}
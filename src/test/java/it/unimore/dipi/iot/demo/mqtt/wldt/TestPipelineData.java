@@ -0,0 +1,33 @@
+package it.unimore.dipi.iot.demo.mqtt.wldt;
+
+import it.unimore.dipi.iot.wldt.processing.PipelineData;
+import it.unimore.dipi.iot.wldt.worker.mqtt.MqttPipelineData;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Factory of the MqttPipelineData used by the step and pipeline tests: payloads are always UTF-8 encoded
+ *
+ * @created: 18/10/2026
+ * @project: WLDT - MQTT Example
+ */
+public final class TestPipelineData {
+
+    private TestPipelineData() {
+    }
+
+    public static MqttPipelineData data(String topic, String payload) {
+        return data(topic, payload, false);
+    }
+
+    public static MqttPipelineData data(String topic, String payload, boolean retained) {
+        return new MqttPipelineData(topic, null, payload.getBytes(StandardCharsets.UTF_8), retained);
+    }
+
+    /**
+     * @return the payload of the data decoded as UTF-8
+     */
+    public static String payloadOf(PipelineData data) {
+        return new String(((MqttPipelineData) data).getPayload(), StandardCharsets.UTF_8);
+    }
+}
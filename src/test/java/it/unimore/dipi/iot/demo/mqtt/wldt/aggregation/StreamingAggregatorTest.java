@@ -0,0 +1,93 @@
+package it.unimore.dipi.iot.demo.mqtt.wldt.aggregation;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @created: 18/10/2026
+ * @project: WLDT - MQTT Example
+ */
+public class StreamingAggregatorTest {
+
+    @Test
+    public void computesTheStatisticsOfTheSamples() {
+
+        StreamingAggregator aggregator = new StreamingAggregator();
+        for(double value : new double[]{2, 4, 4, 4, 5, 5, 7, 9})
+            aggregator.add(value);
+
+        assertEquals(8, aggregator.getCount());
+        assertEquals(40.0, aggregator.getSum(), 0.0);
+        assertEquals(5.0, aggregator.getAverage(), 0.0);
+        assertEquals(2.0, aggregator.getMin(), 0.0);
+        assertEquals(9.0, aggregator.getMax(), 0.0);
+        assertEquals(4.0, aggregator.getVariance(), 1e-12);
+        assertEquals(32.0 / 7.0, aggregator.getSampleVariance(), 1e-12);
+        assertEquals(2.0, aggregator.getStandardDeviation(), 1e-12);
+    }
+
+    @Test
+    public void emptyAggregatorHasNoStatistics() {
+
+        StreamingAggregator aggregator = new StreamingAggregator();
+
+        assertEquals(0, aggregator.getCount());
+        assertTrue(Double.isNaN(aggregator.getAverage()));
+        assertTrue(Double.isNaN(aggregator.getMin()));
+        assertTrue(Double.isNaN(aggregator.getMax()));
+        assertTrue(Double.isNaN(aggregator.getVariance()));
+    }
+
+    @Test
+    public void compensatedSumIsExact() {
+
+        StreamingAggregator aggregator = new StreamingAggregator();
+        for(int i = 0; i < 10; i++)
+            aggregator.add(0.1);
+
+        assertEquals(1.0, aggregator.getSum(), 0.0);
+        assertEquals(0.1, aggregator.getAverage(), 0.0);
+    }
+
+    @Test
+    public void mergeIsEquivalentToAddingAllTheSamples() {
+
+        Random random = new Random(1);
+        StreamingAggregator all = new StreamingAggregator();
+        StreamingAggregator first = new StreamingAggregator();
+        StreamingAggregator second = new StreamingAggregator();
+
+        for(int i = 0; i < 1000; i++){
+            double value = random.nextGaussian() * 10 + 20;
+            all.add(value);
+            (i % 3 == 0 ? first : second).add(value);
+        }
+
+        first.merge(second);
+        first.merge(new StreamingAggregator());
+
+        assertEquals(all.getCount(), first.getCount());
+        assertEquals(all.getSum(), first.getSum(), 1e-9);
+        assertEquals(all.getAverage(), first.getAverage(), 1e-12);
+        assertEquals(all.getMin(), first.getMin(), 0.0);
+        assertEquals(all.getMax(), first.getMax(), 0.0);
+        assertEquals(all.getVariance(), first.getVariance(), 1e-9);
+    }
+
+    @Test
+    public void resetStartsANewWindow() {
+
+        StreamingAggregator aggregator = new StreamingAggregator();
+        aggregator.add(100);
+        aggregator.reset();
+        aggregator.add(1);
+
+        assertEquals(1, aggregator.getCount());
+        assertEquals(1.0, aggregator.getMax(), 0.0);
+        assertEquals(0.0, aggregator.getVariance(), 0.0);
+    }
+}
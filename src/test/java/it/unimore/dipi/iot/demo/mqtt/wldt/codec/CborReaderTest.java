@@ -0,0 +1,102 @@
+package it.unimore.dipi.iot.demo.mqtt.wldt.codec;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @created: 18/10/2026
+ * @project: WLDT - MQTT Example
+ */
+public class CborReaderTest {
+
+    private static CborReader reader(int... values) {
+        byte[] buffer = new byte[values.length];
+        for(int i = 0; i < values.length; i++)
+            buffer[i] = (byte) values[i];
+        return new CborReader(buffer, 0, buffer.length);
+    }
+
+    @Test
+    public void integers() {
+        assertEquals(10.0, reader(0x0A).readNumber(), 0.0);
+        assertEquals(100.0, reader(0x18, 0x64).readNumber(), 0.0);
+        assertEquals(-100.0, reader(0x38, 0x63).readNumber(), 0.0);
+        assertEquals(1000000.0, reader(0x1A, 0x00, 0x0F, 0x42, 0x40).readNumber(), 0.0);
+        assertEquals(1.8446744073709552E19, reader(0x1B, 0xFF, 0xFF, 0xFF, 0xFF, 0xFF, 0xFF, 0xFF, 0xFF).readNumber(), 0.0);
+    }
+
+    @Test
+    public void floatingPointNumbers() {
+        assertEquals(1.0, reader(0xF9, 0x3C, 0x00).readNumber(), 0.0);
+        assertEquals(-2.0, reader(0xF9, 0xC0, 0x00).readNumber(), 0.0);
+        assertEquals(5.960464477539063E-8, reader(0xF9, 0x00, 0x01).readNumber(), 0.0);
+        assertEquals(Double.POSITIVE_INFINITY, reader(0xF9, 0x7C, 0x00).readNumber(), 0.0);
+        assertEquals(100000.0, reader(0xFA, 0x47, 0xC3, 0x50, 0x00).readNumber(), 0.0);
+        assertEquals(1.1, reader(0xFB, 0x3F, 0xF1, 0x99, 0x99, 0x99, 0x99, 0x99, 0x9A).readNumber(), 0.0);
+    }
+
+    @Test
+    public void skipNestedItems() {
+
+        //["a", {1: h'0102'}, [1, 2]] followed by 7
+        CborReader reader = reader(0x83, 0x61, 'a', 0xA1, 0x01, 0x42, 0x01, 0x02, 0x82, 0x01, 0x02, 0x07);
+
+        reader.skip();
+
+        assertTrue(reader.isValid());
+        assertEquals(7.0, reader.readNumber(), 0.0);
+        assertTrue(reader.isConsumed());
+    }
+
+    @Test
+    public void headers() {
+
+        CborReader reader = reader(0x98, 0x20);
+
+        assertEquals(-1, reader(0x81).readHeader(CborReader.MAJOR_TYPE_MAP));
+        assertEquals(32, reader.readHeader(CborReader.MAJOR_TYPE_ARRAY));
+
+        for(long argument : new long[]{ 0, 23, 24, 255, 256, 65535, 65536, 0xFFFFFFFFL, 0x100000000L }){
+            byte[] buffer = new byte[9];
+            int size = CborReader.writeHeader(CborReader.MAJOR_TYPE_MAP, argument, buffer, 0);
+            assertEquals(CborReader.headerSize(argument), size);
+            assertEquals(argument, new CborReader(buffer, 0, size).readHeader(CborReader.MAJOR_TYPE_MAP));
+        }
+    }
+
+    @Test
+    public void unsupportedOrTruncatedItemsAreNotValid() {
+
+        CborReader tag = reader(0xC1, 0x1A, 0x51, 0x4B, 0x67, 0xB0);
+        assertTrue(Double.isNaN(tag.readNumber()));
+        assertFalse(tag.isValid());
+
+        CborReader indefinite = reader(0x9F, 0x01, 0xFF);
+        indefinite.skip();
+        assertFalse(indefinite.isValid());
+
+        CborReader truncatedString = reader(0x65, 'a', 'b');
+        truncatedString.skip();
+        assertFalse(truncatedString.isValid());
+
+        CborReader truncatedNumber = reader(0x19, 0x01);
+        assertTrue(Double.isNaN(truncatedNumber.readNumber()));
+        assertFalse(truncatedNumber.isValid());
+    }
+
+    @Test
+    public void deeplyNestedItemsAreNotValid() {
+
+        int[] nested = new int[64];
+        for(int i = 0; i < nested.length; i++)
+            nested[i] = 0x81;
+
+        CborReader reader = reader(nested);
+        reader.skip();
+
+        assertFalse(reader.isValid());
+    }
+}
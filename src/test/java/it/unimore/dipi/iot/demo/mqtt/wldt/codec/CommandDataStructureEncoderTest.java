@@ -0,0 +1,119 @@
+package it.unimore.dipi.iot.demo.mqtt.wldt.codec;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import it.unimore.dipi.iot.demo.mqtt.wldt.CommandDataStructure;
+import org.junit.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertNull;
+
+/**
+ * The encoded documents are compared byte by byte with the ones written by the Jackson ObjectMapper
+ * configured as in MqttPayloadChangeStep.
+ *
+ * @created: 18/10/2026
+ * @project: WLDT - MQTT Example
+ */
+public class CommandDataStructureEncoderTest {
+
+    private final ObjectMapper mapper = new ObjectMapper().setSerializationInclusion(JsonInclude.Include.NON_NULL);
+
+    private final CommandDataStructureEncoder encoder = new CommandDataStructureEncoder();
+
+    private byte[] jackson(String type, long timestamp, String correlationId, String message) throws Exception {
+        CommandDataStructure command = new CommandDataStructure(type, timestamp, message);
+        command.setCorrelationId(correlationId);
+        return mapper.writeValueAsBytes(command);
+    }
+
+    private void assertSameAsJackson(long timestamp, String correlationId, String message) throws Exception {
+        assertArrayEquals(message,
+                jackson(CommandDataStructure.DEFAULT_TYPE, timestamp, correlationId, message),
+                encoder.encode(timestamp, correlationId, message.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    @Test
+    public void plainPayloads() throws Exception {
+        assertSameAsJackson(1634567890123L, null, "23.5");
+        assertSameAsJackson(0, null, "");
+        assertSameAsJackson(-42, null, "{\"value\":23.5}");
+        assertSameAsJackson(Long.MAX_VALUE, null, "on");
+        assertSameAsJackson(Long.MIN_VALUE, null, "off");
+    }
+
+    @Test
+    public void correlationIdIsWrittenBeforeTheMessage() throws Exception {
+        assertSameAsJackson(1634567890123L, "device001-42", "23.5");
+    }
+
+    @Test
+    public void escapedCharacters() throws Exception {
+        assertSameAsJackson(1, null, "quote \" backslash \\ slash /");
+        assertSameAsJackson(1, null, "new line\n tab\t return\r backspace\b form feed\f");
+        assertSameAsJackson(1, null, "\u0000\u0001\u001f\u007f");
+    }
+
+    @Test
+    public void multiByteCharacters() throws Exception {
+        assertSameAsJackson(1, null, "temperatura 23,5 °C € 中文");
+        //Characters outside the BMP are written by Jackson as escaped surrogate pairs
+        assertSameAsJackson(1, null, "emoji 😀 𐀀 􏿿");
+    }
+
+    @Test
+    public void customType() throws Exception {
+
+        CommandDataStructureEncoder typedEncoder = new CommandDataStructureEncoder("set \"point\"");
+
+        assertArrayEquals(jackson("set \"point\"", 7, null, "1"), typedEncoder.encode(7, "1".getBytes(StandardCharsets.UTF_8)));
+    }
+
+    @Test
+    public void randomPayloads() throws Exception {
+
+        Random random = new Random(42);
+
+        for(int i = 0; i < 2000; i++){
+
+            StringBuilder sb = new StringBuilder();
+            int length = random.nextInt(64);
+
+            while(sb.length() < length){
+                int codePoint;
+                switch (random.nextInt(4)) {
+                    case 0: codePoint = random.nextInt(0x80); break;
+                    case 1: codePoint = 0x80 + random.nextInt(0x800 - 0x80); break;
+                    case 2: codePoint = 0x800 + random.nextInt(0xD800 - 0x800); break;
+                    default: codePoint = 0x10000 + random.nextInt(0x110000 - 0x10000); break;
+                }
+                sb.appendCodePoint(codePoint);
+            }
+
+            assertSameAsJackson(random.nextLong(), random.nextBoolean() ? null : "device-" + i, sb.toString());
+        }
+    }
+
+    @Test
+    public void malformedPayloadsAreNotEncoded() {
+
+        //Truncated sequence, lone continuation byte, overlong encoding and encoded surrogate
+        assertNull(encoder.encode(1, new byte[]{ 'a', (byte) 0xE2, (byte) 0x82 }));
+        assertNull(encoder.encode(1, new byte[]{ (byte) 0x80 }));
+        assertNull(encoder.encode(1, new byte[]{ (byte) 0xC0, (byte) 0xAF }));
+        assertNull(encoder.encode(1, new byte[]{ (byte) 0xED, (byte) 0xA0, (byte) 0x80 }));
+    }
+
+    @Test
+    public void largePayloadsGrowTheBuffer() throws Exception {
+
+        StringBuilder sb = new StringBuilder();
+        for(int i = 0; i < 5000; i++)
+            sb.append("\"è\n");
+
+        assertSameAsJackson(1, null, sb.toString());
+    }
+}
@@ -0,0 +1,113 @@
+package it.unimore.dipi.iot.demo.mqtt.wldt.codec;
+
+import org.junit.Test;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @created: 18/10/2026
+ * @project: WLDT - MQTT Example
+ */
+public class TelemetryCodecTest {
+
+    private static byte[] bytes(int... values) {
+        byte[] result = new byte[values.length];
+        for(int i = 0; i < values.length; i++)
+            result[i] = (byte) values[i];
+        return result;
+    }
+
+    private static byte[] ascii(String value) {
+        return value.getBytes(StandardCharsets.US_ASCII);
+    }
+
+    @Test
+    public void everyCodecDecodesItsEncodedValues() {
+
+        double[] values = { 0.0, -0.0, 23.5, 23.41, -17.125, 1e-9, 123456789.123, Double.MAX_VALUE };
+
+        for(TelemetryCodec codec : TelemetryCodec.values())
+            for(double value : values)
+                assertEquals(codec + " " + value, value, codec.decode(codec.encode(value, "temperature")), 0.0);
+    }
+
+    @Test
+    public void textAndJsonEncodings() {
+        assertArrayEquals(ascii("23.5"), TelemetryCodec.TEXT.encode(23.5, null));
+        assertArrayEquals(ascii("{\"value\":23.5}"), TelemetryCodec.JSON.encode(23.5, null));
+    }
+
+    @Test
+    public void jsonDecodingAcceptsValueAndSenmlFields() {
+        assertEquals(23.5, TelemetryCodec.JSON.decode(ascii("{ \"unit\" : \"Cel\", \"value\" : 23.5 }")), 0.0);
+        assertEquals(-4.0, TelemetryCodec.JSON.decode(ascii("[{\"n\":\"temperature\",\"v\":-4}]")), 0.0);
+        assertTrue(Double.isNaN(TelemetryCodec.JSON.decode(ascii("{\"temperature\":23.5}"))));
+    }
+
+    @Test
+    public void binaryEncodingsUseSinglePrecisionWhenExact() {
+
+        assertArrayEquals(bytes(0xFA, 0x41, 0xBC, 0x00, 0x00), TelemetryCodec.CBOR.encode(23.5, null));
+        assertEquals(9, TelemetryCodec.CBOR.encode(23.41, null).length);
+
+        assertArrayEquals(bytes(0xCA, 0x41, 0xBC, 0x00, 0x00), TelemetryCodec.MESSAGEPACK.encode(23.5, null));
+        assertEquals(9, TelemetryCodec.MESSAGEPACK.encode(23.41, null).length);
+    }
+
+    @Test
+    public void senmlCborRecord() {
+
+        //[{0: "t", 2: 23.5}]
+        assertArrayEquals(bytes(0x81, 0xA2, 0x00, 0x61, 't', 0x02, 0xFA, 0x41, 0xBC, 0x00, 0x00), TelemetryCodec.SENML_CBOR.encode(23.5, "t"));
+
+        //[{-2: "device01:", 0: "temperature", 1: "Cel", 2: 21}] with the base name and the unit before the value
+        byte[] pack = bytes(0x81, 0xA4,
+                0x21, 0x69, 'd', 'e', 'v', 'i', 'c', 'e', '0', '1', ':',
+                0x00, 0x6B, 't', 'e', 'm', 'p', 'e', 'r', 'a', 't', 'u', 'r', 'e',
+                0x01, 0x63, 'C', 'e', 'l',
+                0x02, 0x15);
+
+        assertEquals(21.0, TelemetryCodec.SENML_CBOR.decode(pack), 0.0);
+    }
+
+    @Test
+    public void messagePackIntegers() {
+        assertEquals(7.0, TelemetryCodec.MESSAGEPACK.decode(bytes(0x07)), 0.0);
+        assertEquals(-3.0, TelemetryCodec.MESSAGEPACK.decode(bytes(0xFD)), 0.0);
+        assertEquals(-200.0, TelemetryCodec.MESSAGEPACK.decode(bytes(0xD1, 0xFF, 0x38)), 0.0);
+        assertEquals(65535.0, TelemetryCodec.MESSAGEPACK.decode(bytes(0xCD, 0xFF, 0xFF)), 0.0);
+        assertEquals(1.8446744073709552E19, TelemetryCodec.MESSAGEPACK.decode(bytes(0xCF, 0xFF, 0xFF, 0xFF, 0xFF, 0xFF, 0xFF, 0xFF, 0xFF)), 0.0);
+    }
+
+    @Test
+    public void invalidPayloadsAreDecodedAsNaN() {
+
+        for(TelemetryCodec codec : TelemetryCodec.values()){
+            assertTrue(codec.toString(), Double.isNaN(codec.decode(null)));
+            assertTrue(codec.toString(), Double.isNaN(codec.decode(new byte[0])));
+        }
+
+        //Truncated float, trailing bytes and string item
+        assertTrue(Double.isNaN(TelemetryCodec.CBOR.decode(bytes(0xFA, 0x41, 0xBC))));
+        assertTrue(Double.isNaN(TelemetryCodec.CBOR.decode(bytes(0x01, 0x02))));
+        assertTrue(Double.isNaN(TelemetryCodec.CBOR.decode(bytes(0x61, 'a'))));
+        assertTrue(Double.isNaN(TelemetryCodec.MESSAGEPACK.decode(bytes(0xCA, 0x41, 0xBC))));
+        assertTrue(Double.isNaN(TelemetryCodec.MESSAGEPACK.decode(bytes(0xC0))));
+        assertTrue(Double.isNaN(TelemetryCodec.SENML_CBOR.decode(bytes(0x81, 0xA1, 0x00, 0x61, 't'))));
+    }
+
+    @Test
+    public void encodeUsesTheProvidedAllocator() {
+
+        byte[][] allocated = new byte[1][];
+
+        byte[] payload = TelemetryCodec.TEXT.encode(23.5, null, length -> allocated[0] = new byte[length]);
+
+        assertTrue(payload == allocated[0]);
+        assertArrayEquals(ascii("23.5"), payload);
+    }
+}
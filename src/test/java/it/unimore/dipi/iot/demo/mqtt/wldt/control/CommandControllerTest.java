@@ -0,0 +1,303 @@
+package it.unimore.dipi.iot.demo.mqtt.wldt.control;
+
+import it.unimore.dipi.iot.demo.mqtt.wldt.TestPipelineData;
+import it.unimore.dipi.iot.demo.mqtt.wldt.pipeline.PipelineExecutor;
+import it.unimore.dipi.iot.wldt.processing.PipelineData;
+import it.unimore.dipi.iot.wldt.processing.ProcessingStep;
+import it.unimore.dipi.iot.wldt.processing.ProcessingStepListener;
+import it.unimore.dipi.iot.wldt.worker.mqtt.MqttPipelineData;
+import org.junit.After;
+import org.junit.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @created: 18/10/2026
+ * @project: WLDT - MQTT Example
+ */
+public class CommandControllerTest {
+
+    private static final String DEVICE_ID = "command/com:iot:dummy:dummyMqttDevice001";
+
+    private static final ProcessingStep STEP = (pipelineCache, data, listener) -> { };
+
+    private CommandController commandController;
+
+    private final List<CommandRejectionReason> rejections = new CopyOnWriteArrayList<>();
+
+    /**
+     * Listener completed also by the timer thread for the deferred commands
+     */
+    private static class QueueStepListener implements ProcessingStepListener {
+
+        private final BlockingQueue<Optional<PipelineData>> results = new LinkedBlockingQueue<>();
+
+        @Override
+        public void onStepDone(ProcessingStep step, Optional<PipelineData> result) {
+            results.add(result);
+        }
+
+        @Override
+        public void onStepError(ProcessingStep step, PipelineData data, String errorMessage) {
+        }
+
+        @Override
+        public void onStepSkip(ProcessingStep step, PipelineData data) {
+        }
+
+        Optional<PipelineData> next() throws InterruptedException {
+            return results.poll(2, TimeUnit.SECONDS);
+        }
+    }
+
+    /**
+     * Executor running the tasks on the calling thread, or discarding all of them when full
+     */
+    private static PipelineExecutor executor(boolean full) {
+        return new PipelineExecutor() {
+
+            @Override
+            public int partitionFor(String key) {
+                return 0;
+            }
+
+            @Override
+            public boolean execute(int partition, Runnable task) {
+
+                if(full)
+                    return false;
+
+                task.run();
+                return true;
+            }
+
+            @Override
+            public int getPartitionCount() {
+                return 1;
+            }
+
+            @Override
+            public int getQueueDepth() {
+                return 0;
+            }
+
+            @Override
+            public long getDroppedTaskCount() {
+                return 0;
+            }
+
+            @Override
+            public String getName() {
+                return "test";
+            }
+        };
+    }
+
+    private static CommandControlConfiguration configuration(long deduplicationWindowMs, double deviceRatePerSecond, int deviceBurst, boolean coalescingEnabled) {
+        CommandControlConfiguration configuration = new CommandControlConfiguration();
+        configuration.setDeduplicationWindowMs(deduplicationWindowMs);
+        configuration.setDeviceRatePerSecond(deviceRatePerSecond);
+        configuration.setDeviceBurst(deviceBurst);
+        configuration.setCoalescingEnabled(coalescingEnabled);
+        return configuration;
+    }
+
+    private CommandController createController(CommandControlConfiguration configuration, boolean fullExecutor) {
+        commandController = new CommandController(configuration, executor(fullExecutor));
+        commandController.setRejectionListener((command, appId, reason) -> rejections.add(reason));
+        return commandController;
+    }
+
+    private static MqttPipelineData command(String payload) {
+        return TestPipelineData.data(DEVICE_ID, payload);
+    }
+
+    private static String payloadOf(Optional<PipelineData> result) {
+        return TestPipelineData.payloadOf(result.get());
+    }
+
+    @After
+    public void tearDown() {
+        if(commandController != null)
+            commandController.close();
+    }
+
+    @Test
+    public void duplicatesWithinTheWindowAreRejected() throws InterruptedException {
+
+        CommandController controller = createController(configuration(5000, 100.0, 10, false), false);
+        QueueStepListener listener = new QueueStepListener();
+
+        controller.submit(DEVICE_ID, null, command("{\"on\":true}"), STEP, listener);
+        controller.submit(DEVICE_ID, null, command("{\"on\":true}"), STEP, listener);
+        controller.submit(DEVICE_ID, null, command("{\"on\":false}"), STEP, listener);
+
+        assertEquals("{\"on\":true}", payloadOf(listener.next()));
+        assertFalse(listener.next().isPresent());
+        assertEquals("{\"on\":false}", payloadOf(listener.next()));
+
+        assertEquals(2, controller.getForwardedCount());
+        assertEquals(1, controller.getRejectedCount(CommandRejectionReason.DUPLICATE));
+        assertEquals(1, rejections.size());
+        assertEquals(CommandRejectionReason.DUPLICATE, rejections.get(0));
+    }
+
+    @Test
+    public void deviceRateLimitRejectsWithoutCoalescing() throws InterruptedException {
+
+        CommandController controller = createController(configuration(0, 1.0, 2, false), false);
+        QueueStepListener listener = new QueueStepListener();
+
+        for(int i = 0; i < 3; i++)
+            controller.submit(DEVICE_ID, null, command("cmd" + i), STEP, listener);
+
+        assertTrue(listener.next().isPresent());
+        assertTrue(listener.next().isPresent());
+        assertFalse(listener.next().isPresent());
+
+        assertEquals(2, controller.getForwardedCount());
+        assertEquals(1, controller.getRejectedCount(CommandRejectionReason.DEVICE_RATE_LIMITED));
+        assertEquals(0, controller.getDeferredCount());
+    }
+
+    @Test
+    public void rejectedCommandsAreNotRecordedForTheDeduplication() throws InterruptedException {
+
+        CommandController controller = createController(configuration(5000, 1.0, 1, false), false);
+        QueueStepListener listener = new QueueStepListener();
+
+        controller.submit(DEVICE_ID, null, command("a"), STEP, listener);
+        controller.submit(DEVICE_ID, null, command("b"), STEP, listener);
+        controller.submit(DEVICE_ID, null, command("b"), STEP, listener);
+
+        assertTrue(listener.next().isPresent());
+        assertFalse(listener.next().isPresent());
+        assertFalse(listener.next().isPresent());
+
+        //The second "b" is not a duplicate since the first one has never been forwarded
+        assertEquals(2, controller.getRejectedCount(CommandRejectionReason.DEVICE_RATE_LIMITED));
+        assertEquals(0, controller.getRejectedCount(CommandRejectionReason.DUPLICATE));
+    }
+
+    @Test
+    public void eachApplicationHasItsOwnRateLimit() throws InterruptedException {
+
+        CommandControlConfiguration configuration = configuration(0, 100.0, 10, false);
+        configuration.setAppRatePerSecond(1.0);
+        configuration.setAppBurst(1);
+
+        CommandController controller = createController(configuration, false);
+        QueueStepListener listener = new QueueStepListener();
+
+        controller.submit(DEVICE_ID, "app1", command("a"), STEP, listener);
+        controller.submit(DEVICE_ID + "2", "app1", command("b"), STEP, listener);
+        controller.submit(DEVICE_ID, "app2", command("c"), STEP, listener);
+        controller.submit(DEVICE_ID, null, command("d"), STEP, listener);
+        controller.submit(DEVICE_ID, CommandController.ANONYMOUS_APP_ID, command("e"), STEP, listener);
+
+        assertTrue(listener.next().isPresent());
+        assertFalse(listener.next().isPresent());
+        assertTrue(listener.next().isPresent());
+        assertTrue(listener.next().isPresent());
+        assertFalse(listener.next().isPresent());
+
+        assertEquals(2, controller.getRejectedCount(CommandRejectionReason.APP_RATE_LIMITED));
+        assertEquals(3, controller.getAppCount());
+    }
+
+    @Test
+    public void coalescingForwardsOnlyTheLastWaitingCommand() throws InterruptedException {
+
+        CommandController controller = createController(configuration(0, 20.0, 1, true), false);
+        QueueStepListener listener = new QueueStepListener();
+
+        controller.submit(DEVICE_ID, null, command("a"), STEP, listener);
+        controller.submit(DEVICE_ID, null, command("b"), STEP, listener);
+        controller.submit(DEVICE_ID, null, command("c"), STEP, listener);
+
+        assertEquals("a", payloadOf(listener.next()));
+
+        //"b" is superseded by "c" while waiting for the device permit
+        assertFalse(listener.next().isPresent());
+
+        Optional<PipelineData> deferred = listener.next();
+        assertNotNull(deferred);
+        assertEquals("c", payloadOf(deferred));
+
+        assertEquals(2, controller.getForwardedCount());
+        assertEquals(2, controller.getDeferredCount());
+        assertEquals(1, controller.getRejectedCount(CommandRejectionReason.SUPERSEDED));
+        assertEquals(1, controller.getRejectedCount());
+        assertNull(listener.next());
+    }
+
+    @Test
+    public void deferredCommandIsRejectedWhenTheExecutorIsFull() throws InterruptedException {
+
+        CommandController controller = createController(configuration(0, 20.0, 1, true), true);
+        QueueStepListener listener = new QueueStepListener();
+
+        controller.submit(DEVICE_ID, null, command("a"), STEP, listener);
+        controller.submit(DEVICE_ID, null, command("b"), STEP, listener);
+
+        assertTrue(listener.next().isPresent());
+
+        Optional<PipelineData> deferred = listener.next();
+        assertNotNull(deferred);
+        assertFalse(deferred.isPresent());
+
+        assertEquals(1, controller.getRejectedCount(CommandRejectionReason.OVERFLOW));
+        assertEquals(CommandRejectionReason.OVERFLOW, rejections.get(0));
+    }
+
+    @Test
+    public void commandsBeyondMaxDevicesOverflow() throws InterruptedException {
+
+        CommandControlConfiguration configuration = configuration(0, 100.0, 10, false);
+        configuration.setMaxDevices(1);
+
+        CommandController controller = createController(configuration, false);
+        QueueStepListener listener = new QueueStepListener();
+
+        controller.submit(DEVICE_ID, null, command("a"), STEP, listener);
+        controller.submit(DEVICE_ID + "2", null, command("a"), STEP, listener);
+
+        assertTrue(listener.next().isPresent());
+        assertFalse(listener.next().isPresent());
+
+        assertEquals(1, controller.getDeviceCount());
+        assertEquals(1, controller.getRejectedCount(CommandRejectionReason.OVERFLOW));
+    }
+
+    @Test
+    public void forwardedCommandIsTheReceivedOne() throws InterruptedException {
+
+        CommandController controller = createController(new CommandControlConfiguration(), false);
+        QueueStepListener listener = new QueueStepListener();
+        MqttPipelineData data = command("{\"color\":\"red\"}");
+
+        controller.submit(DEVICE_ID, null, data, STEP, listener);
+
+        PipelineData result = listener.next().get();
+        assertTrue(result == data);
+        assertArrayEquals("{\"color\":\"red\"}".getBytes(StandardCharsets.UTF_8), ((MqttPipelineData) result).getPayload());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void invalidConfigurationIsRejected() {
+        createController(configuration(-1, 1.0, 1, true), false);
+    }
+}
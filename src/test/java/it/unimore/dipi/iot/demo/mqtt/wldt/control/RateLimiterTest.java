@@ -0,0 +1,112 @@
+package it.unimore.dipi.iot.demo.mqtt.wldt.control;
+
+import org.junit.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @created: 18/10/2026
+ * @project: WLDT - MQTT Example
+ */
+public class RateLimiterTest {
+
+    private static final long SECOND_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    @Test
+    public void theBucketStartsFullWithTheBurst() {
+
+        RateLimiter rateLimiter = new RateLimiter(1.0, 3);
+        long now = System.nanoTime();
+
+        assertEquals(0, rateLimiter.tryAcquire(now));
+        assertEquals(0, rateLimiter.tryAcquire(now));
+        assertEquals(0, rateLimiter.tryAcquire(now));
+
+        long waitNanos = rateLimiter.tryAcquire(now);
+        assertTrue(waitNanos > 0);
+        assertTrue(waitNanos <= SECOND_NANOS);
+    }
+
+    @Test
+    public void permitsAreRefilledAtTheRate() {
+
+        RateLimiter rateLimiter = new RateLimiter(10.0, 1);
+        long now = System.nanoTime();
+
+        assertEquals(SECOND_NANOS / 10, rateLimiter.getEmissionIntervalNanos());
+        assertEquals(0, rateLimiter.tryAcquire(now));
+        assertTrue(rateLimiter.tryAcquire(now) > 0);
+
+        //The wait returned by the limiter is enough for the next permit
+        long waitNanos = rateLimiter.tryAcquire(now + 1000);
+        assertTrue(rateLimiter.tryAcquire(now + 1000 + waitNanos - 1) > 0);
+        assertEquals(0, rateLimiter.tryAcquire(now + 1000 + waitNanos));
+    }
+
+    @Test
+    public void idleTimeDoesNotAccrueMoreThanTheBurst() {
+
+        RateLimiter rateLimiter = new RateLimiter(100.0, 5);
+        long later = System.nanoTime() + 10 * SECOND_NANOS;
+
+        int acquired = 0;
+
+        while(rateLimiter.tryAcquire(later) == 0)
+            acquired++;
+
+        assertEquals(5, acquired);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void zeroRateIsRejected() {
+        new RateLimiter(0.0, 1);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void zeroBurstIsRejected() {
+        new RateLimiter(1.0, 0);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void notANumberRateIsRejected() {
+        new RateLimiter(Double.NaN, 1);
+    }
+
+    @Test
+    public void concurrentAcquiresNeverExceedTheBurst() throws InterruptedException {
+
+        int threadCount = 8;
+        RateLimiter rateLimiter = new RateLimiter(1.0, 100);
+        long now = System.nanoTime();
+
+        AtomicInteger acquired = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        Thread[] threads = new Thread[threadCount];
+
+        for(int i = 0; i < threadCount; i++){
+            threads[i] = new Thread(() -> {
+                try{
+                    start.await();
+                    for(int j = 0; j < 1000; j++)
+                        if(rateLimiter.tryAcquire(now) == 0)
+                            acquired.incrementAndGet();
+                }catch (InterruptedException e){
+                    Thread.currentThread().interrupt();
+                }
+            });
+            threads[i].start();
+        }
+
+        start.countDown();
+
+        for(Thread thread : threads)
+            thread.join();
+
+        assertEquals(100, acquired.get());
+    }
+}
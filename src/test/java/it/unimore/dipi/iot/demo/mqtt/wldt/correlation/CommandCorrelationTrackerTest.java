@@ -0,0 +1,180 @@
+package it.unimore.dipi.iot.demo.mqtt.wldt.correlation;
+
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @created: 18/10/2026
+ * @project: WLDT - MQTT Example
+ */
+public class CommandCorrelationTrackerTest {
+
+    private static final String DEVICE_ID = "com:iot:dummy:dummyMqttDevice001";
+
+    private CommandCorrelationTracker tracker;
+
+    private CommandCorrelationTracker createTracker(long timeoutMs, int maxOutstanding) {
+        CommandCorrelationConfiguration configuration = new CommandCorrelationConfiguration();
+        configuration.setTimeoutMs(timeoutMs);
+        configuration.setMaxOutstanding(maxOutstanding);
+        tracker = new CommandCorrelationTracker(configuration);
+        return tracker;
+    }
+
+    @After
+    public void tearDown() {
+        if(tracker != null)
+            tracker.close();
+    }
+
+    @Test
+    public void responseIsMatchedWithItsCommand() {
+
+        CommandCorrelationTracker tracker = createTracker(10000, 100);
+
+        String correlationId = tracker.register(DEVICE_ID);
+        assertNotNull(correlationId);
+        assertEquals(1, tracker.getOutstandingCount());
+
+        assertTrue(tracker.onResponse(DEVICE_ID, correlationId));
+
+        assertEquals(0, tracker.getOutstandingCount());
+        assertEquals(1, tracker.getMatchedCount());
+        assertEquals(1, tracker.getRoundTripLatency().getCount());
+
+        //A second response to the same command is not matched
+        assertFalse(tracker.onResponse(DEVICE_ID, correlationId));
+        assertEquals(1, tracker.getUnmatchedCount());
+    }
+
+    @Test
+    public void responseFromAnotherDeviceIsNotMatched() {
+
+        CommandCorrelationTracker tracker = createTracker(10000, 100);
+
+        String correlationId = tracker.register(DEVICE_ID);
+
+        assertFalse(tracker.onResponse("com:iot:dummy:dummyMqttDevice002", correlationId));
+        assertFalse(tracker.onResponse(DEVICE_ID, "unknown"));
+        assertFalse(tracker.onResponse(DEVICE_ID, null));
+        assertEquals(3, tracker.getUnmatchedCount());
+        assertEquals(1, tracker.getOutstandingCount());
+
+        //The device is not checked when it is unknown
+        assertTrue(tracker.onResponse(null, correlationId));
+    }
+
+    @Test
+    public void correlationIdsAreUnique() {
+
+        CommandCorrelationTracker tracker = createTracker(10000, 10000);
+        Set<String> correlationIds = new HashSet<>();
+
+        for(int i = 0; i < 10000; i++)
+            assertTrue(correlationIds.add(tracker.register(DEVICE_ID)));
+
+        assertEquals(10000, tracker.getOutstandingCount());
+    }
+
+    @Test
+    public void commandsBeyondMaxOutstandingAreNotTracked() {
+
+        CommandCorrelationTracker tracker = createTracker(10000, 2);
+
+        String first = tracker.register(DEVICE_ID);
+        assertNotNull(first);
+        assertNotNull(tracker.register(DEVICE_ID));
+        assertNull(tracker.register(DEVICE_ID));
+        assertEquals(1, tracker.getUntrackedCount());
+
+        //A response frees a slot of the table
+        assertTrue(tracker.onResponse(DEVICE_ID, first));
+        assertNotNull(tracker.register(DEVICE_ID));
+        assertEquals(2, tracker.getOutstandingCount());
+    }
+
+    @Test
+    public void commandWithoutResponseTimesOut() throws InterruptedException {
+
+        CommandCorrelationTracker tracker = createTracker(50, 100);
+        BlockingQueue<String> timedOut = new LinkedBlockingQueue<>();
+
+        tracker.setTimeoutListener((deviceId, correlationId, timeoutMs) -> {
+            assertEquals(50, timeoutMs);
+            timedOut.add(deviceId + "/" + correlationId);
+        });
+
+        String correlationId = tracker.register(DEVICE_ID);
+        long start = System.nanoTime();
+
+        assertEquals(DEVICE_ID + "/" + correlationId, timedOut.poll(2, TimeUnit.SECONDS));
+        assertTrue(System.nanoTime() - start >= TimeUnit.MILLISECONDS.toNanos(40));
+
+        assertEquals(1, tracker.getTimedOutCount());
+        assertEquals(0, tracker.getOutstandingCount());
+
+        //Late response
+        assertFalse(tracker.onResponse(DEVICE_ID, correlationId));
+        assertEquals(1, tracker.getUnmatchedCount());
+        assertEquals(0, tracker.getRoundTripLatency().getCount());
+    }
+
+    @Test
+    public void answeredCommandDoesNotTimeOut() throws InterruptedException {
+
+        CommandCorrelationTracker tracker = createTracker(20, 100);
+        BlockingQueue<String> timedOut = new LinkedBlockingQueue<>();
+        tracker.setTimeoutListener((deviceId, correlationId, timeoutMs) -> timedOut.add(correlationId));
+
+        String answered = tracker.register(DEVICE_ID);
+        String unanswered = tracker.register(DEVICE_ID);
+        assertTrue(tracker.onResponse(DEVICE_ID, answered));
+
+        assertEquals(unanswered, timedOut.poll(2, TimeUnit.SECONDS));
+        assertNull(timedOut.poll(100, TimeUnit.MILLISECONDS));
+        assertEquals(1, tracker.getMatchedCount());
+        assertEquals(1, tracker.getTimedOutCount());
+    }
+
+    @Test
+    public void eachCommandIsEitherMatchedOrTimedOut() throws InterruptedException {
+
+        CommandCorrelationTracker tracker = createTracker(20, 10000);
+        int commandCount = 2000;
+
+        for(int i = 0; i < commandCount; i++){
+            String correlationId = tracker.register(DEVICE_ID);
+            if(i % 2 == 0)
+                tracker.onResponse(DEVICE_ID, correlationId);
+        }
+
+        long deadline = System.currentTimeMillis() + 5000;
+
+        while(tracker.getOutstandingCount() > 0 && System.currentTimeMillis() < deadline)
+            Thread.sleep(10);
+
+        assertEquals(0, tracker.getOutstandingCount());
+        assertEquals(commandCount, tracker.getMatchedCount() + tracker.getTimedOutCount());
+        assertTrue(tracker.getMatchedCount() >= 1);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void tickGreaterThanTheTimeoutIsRejected() {
+        CommandCorrelationConfiguration configuration = new CommandCorrelationConfiguration();
+        configuration.setTimeoutMs(5);
+        configuration.setTimerTickMs(10);
+        new CommandCorrelationTracker(configuration);
+    }
+}
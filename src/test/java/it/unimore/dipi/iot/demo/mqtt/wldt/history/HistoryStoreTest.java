@@ -0,0 +1,143 @@
+package it.unimore.dipi.iot.demo.mqtt.wldt.history;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @created: 18/10/2026
+ * @project: WLDT - MQTT Example
+ */
+public class HistoryStoreTest {
+
+    private static final String SERIES = "telemetry/device001/resource/temperature";
+
+    @Test
+    public void rangeReturnsThePointsInTheInterval() {
+
+        HistoryStore historyStore = new HistoryStore(new HistoryStoreConfiguration(256, 64, 16, 10));
+
+        for(int i = 0; i < 100; i++)
+            assertTrue(historyStore.record(SERIES, 1000L * i, 20.0 + i));
+
+        List<Double> values = new ArrayList<>();
+        assertTrue(historyStore.range(SERIES, 10000, 14000, (timestamp, value) -> values.add(value)));
+
+        assertEquals(5, values.size());
+        assertEquals(30.0, values.get(0), 0.0);
+        assertEquals(34.0, values.get(4), 0.0);
+
+        assertFalse(historyStore.range("unknown", 0, Long.MAX_VALUE, (timestamp, value) -> true));
+        assertEquals(100, historyStore.getPointCount(SERIES));
+        assertEquals(100, historyStore.getRecordedCount());
+    }
+
+    @Test
+    public void consumerCanStopTheQuery() {
+
+        HistoryStore historyStore = new HistoryStore(new HistoryStoreConfiguration(256, 64, 16, 10));
+
+        for(int i = 0; i < 100; i++)
+            historyStore.record(SERIES, i, i);
+
+        List<Long> timestamps = new ArrayList<>();
+        historyStore.range(SERIES, 0, Long.MAX_VALUE, (timestamp, value) -> {
+            timestamps.add(timestamp);
+            return timestamps.size() < 3;
+        });
+
+        assertEquals(3, timestamps.size());
+    }
+
+    @Test
+    public void downsampleAggregatesAlignedBuckets() {
+
+        HistoryStore historyStore = new HistoryStore(new HistoryStoreConfiguration(256, 64, 16, 10));
+
+        //Points every 15 s from 00:00:30, one minute without points
+        historyStore.record(SERIES, 30000, 1.0);
+        historyStore.record(SERIES, 45000, 3.0);
+        historyStore.record(SERIES, 60000, 10.0);
+        historyStore.record(SERIES, 75000, 20.0);
+        historyStore.record(SERIES, 180000, 5.0);
+
+        List<HistoryBucket> buckets = historyStore.downsample(SERIES, 0, Long.MAX_VALUE, 60000);
+
+        assertEquals(3, buckets.size());
+        assertEquals(0, buckets.get(0).getStart());
+        assertEquals(2, buckets.get(0).getCount());
+        assertEquals(2.0, buckets.get(0).getAverage(), 0.0);
+        assertEquals(60000, buckets.get(1).getStart());
+        assertEquals(10.0, buckets.get(1).getMin(), 0.0);
+        assertEquals(20.0, buckets.get(1).getMax(), 0.0);
+        assertEquals(180000, buckets.get(2).getStart());
+        assertEquals(5.0, buckets.get(2).getSum(), 0.0);
+
+        assertTrue(historyStore.downsample("unknown", 0, Long.MAX_VALUE, 60000).isEmpty());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void downsampleRequiresAPositiveBucket() {
+        new HistoryStore(new HistoryStoreConfiguration(256, 64, 16, 10)).downsample(SERIES, 0, 1, 0);
+    }
+
+    @Test
+    public void pointsBeyondTheLimitsAreDropped() {
+
+        HistoryStore historyStore = new HistoryStore(new HistoryStoreConfiguration(256, 64, 16, 2));
+
+        assertTrue(historyStore.record("a", 10, 1.0));
+        assertTrue(historyStore.record("b", 10, 1.0));
+        assertFalse(historyStore.record("c", 10, 1.0));
+        assertFalse(historyStore.record("a", 9, 1.0));
+
+        assertEquals(2, historyStore.getSeriesCount());
+        assertEquals(2, historyStore.getDroppedCount());
+        assertFalse(historyStore.containsSeries("c"));
+    }
+
+    @Test
+    public void fullArenaRecyclesTheOldestBlockOfTheSeries() {
+
+        //Two series sharing an arena of 4 blocks
+        HistoryStore historyStore = new HistoryStore(new HistoryStoreConfiguration(64, 4, 16, 10));
+
+        for(int i = 0; i < 1000; i++){
+            assertTrue(historyStore.record("a", i, i * 1.37));
+            assertTrue(historyStore.record("b", i, i * 2.71));
+        }
+
+        assertEquals(0, historyStore.getFreeBlockCount());
+        assertTrue(historyStore.getPointCount() < 2000);
+        assertTrue(historyStore.getUsedBytes() <= historyStore.getCapacityBytes());
+
+        List<Long> timestamps = new ArrayList<>();
+        historyStore.range("a", 0, Long.MAX_VALUE, (timestamp, value) -> timestamps.add(timestamp));
+        assertEquals(999L, (long) timestamps.get(timestamps.size() - 1));
+    }
+
+    @Test
+    public void removeReturnsTheBlocksToTheArena() {
+
+        HistoryStore historyStore = new HistoryStore(new HistoryStoreConfiguration(64, 8, 8, 10));
+
+        for(int i = 0; i < 100; i++)
+            historyStore.record(SERIES, i, i * 1.37);
+
+        assertTrue(historyStore.getFreeBlockCount() < 8);
+        assertTrue(historyStore.remove(SERIES));
+        assertFalse(historyStore.remove(SERIES));
+        assertEquals(8, historyStore.getFreeBlockCount());
+        assertEquals(0, historyStore.getSeriesCount());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void blocksMustHoldAtLeastAPoint() {
+        new HistoryStore(new HistoryStoreConfiguration(16, 64, 16, 10));
+    }
+}
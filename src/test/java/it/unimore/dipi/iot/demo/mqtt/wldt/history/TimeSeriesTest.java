@@ -0,0 +1,141 @@
+package it.unimore.dipi.iot.demo.mqtt.wldt.history;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @created: 18/10/2026
+ * @project: WLDT - MQTT Example
+ */
+public class TimeSeriesTest {
+
+    private static List<long[]> readAll(TimeSeries timeSeries, long from, long to) {
+        List<long[]> points = new ArrayList<>();
+        timeSeries.forEach(from, to, (timestamp, value) -> points.add(new long[]{ timestamp, Double.doubleToRawLongBits(value) }));
+        return points;
+    }
+
+    @Test
+    public void pointsAreDecodedWithoutLoss() {
+
+        TimeSeries timeSeries = new TimeSeries(new BlockArena(256, 1024), 1024);
+        Random random = new Random(42);
+
+        long[] deltas = { 0, 1000, 1000, 1001, 950, 1200, 3000, 100000, 1000, -1 };
+        double[] specialValues = { 0.0, -0.0, Double.NaN, Double.POSITIVE_INFINITY, Double.MIN_VALUE, Double.MAX_VALUE };
+
+        List<long[]> expected = new ArrayList<>();
+        long timestamp = 1634567890000L;
+
+        for(int i = 0; i < 5000; i++){
+
+            long delta = deltas[random.nextInt(deltas.length)];
+            timestamp += delta >= 0 ? delta : random.nextInt(Integer.MAX_VALUE);
+
+            double value;
+            switch (random.nextInt(4)) {
+                case 0: value = 23.5; break;
+                case 1: value = 20.0 + random.nextInt(100) / 10.0; break;
+                case 2: value = specialValues[random.nextInt(specialValues.length)]; break;
+                default: value = random.nextDouble() * 1e6 - 5e5; break;
+            }
+
+            assertTrue(timeSeries.append(timestamp, value));
+            expected.add(new long[]{ timestamp, Double.doubleToRawLongBits(value) });
+        }
+
+        List<long[]> points = readAll(timeSeries, Long.MIN_VALUE, Long.MAX_VALUE);
+
+        assertEquals(expected.size(), points.size());
+        for(int i = 0; i < expected.size(); i++){
+            assertEquals("timestamp " + i, expected.get(i)[0], points.get(i)[0]);
+            assertEquals("value " + i, expected.get(i)[1], points.get(i)[1]);
+        }
+
+        assertEquals(5000, timeSeries.getPointCount());
+        assertTrue(timeSeries.getBlockCount() > 1);
+    }
+
+    @Test
+    public void regularSamplesAreCompressed() {
+
+        TimeSeries timeSeries = new TimeSeries(new BlockArena(1024, 16), 16);
+
+        for(int i = 0; i < 1000; i++)
+            timeSeries.append(1634567890000L + i * 1000L, 23.5);
+
+        //128 bits for the first point, 17 bits for the first delta (12 bits delta of delta) and 2 bits for each following point
+        assertEquals((128 + 17 + 998 * 2 + 7) / 8, timeSeries.getUsedBytes());
+    }
+
+    @Test
+    public void olderPointsAreRejected() {
+
+        TimeSeries timeSeries = new TimeSeries(new BlockArena(64, 4), 4);
+
+        assertTrue(timeSeries.append(1000, 1.0));
+        assertTrue(timeSeries.append(1000, 2.0));
+        assertFalse(timeSeries.append(999, 3.0));
+        assertEquals(2, timeSeries.getPointCount());
+    }
+
+    @Test
+    public void oldestBlockIsRecycledWhenTheRingIsFull() {
+
+        BlockArena arena = new BlockArena(64, 8);
+        TimeSeries timeSeries = new TimeSeries(arena, 2);
+
+        //Random values do not fit the XOR window: a few points for each block
+        Random random = new Random(7);
+        for(int i = 0; i < 100; i++)
+            assertTrue(timeSeries.append(i, random.nextDouble()));
+
+        assertEquals(2, timeSeries.getBlockCount());
+        assertEquals(6, arena.getFreeBlockCount());
+
+        List<long[]> points = readAll(timeSeries, Long.MIN_VALUE, Long.MAX_VALUE);
+
+        //The most recent points are kept in order
+        assertEquals(timeSeries.getPointCount(), points.size());
+        assertEquals(99, points.get(points.size() - 1)[0]);
+        assertEquals(timeSeries.getFirstTimestamp(), points.get(0)[0]);
+        assertTrue(timeSeries.getFirstTimestamp() > 0);
+    }
+
+    @Test
+    public void rangeBoundsAreInclusive() {
+
+        TimeSeries timeSeries = new TimeSeries(new BlockArena(64, 64), 64);
+
+        for(int i = 0; i < 100; i++)
+            timeSeries.append(i * 10L, i);
+
+        List<long[]> points = readAll(timeSeries, 200, 300);
+
+        assertEquals(11, points.size());
+        assertEquals(200, points.get(0)[0]);
+        assertEquals(300, points.get(10)[0]);
+    }
+
+    @Test
+    public void releasedSeriesReturnsItsBlocks() {
+
+        BlockArena arena = new BlockArena(64, 8);
+        TimeSeries timeSeries = new TimeSeries(arena, 8);
+
+        for(int i = 0; i < 50; i++)
+            timeSeries.append(i, i * 1.1);
+
+        timeSeries.release();
+
+        assertEquals(8, arena.getFreeBlockCount());
+        assertFalse(timeSeries.append(100, 1.0));
+    }
+}
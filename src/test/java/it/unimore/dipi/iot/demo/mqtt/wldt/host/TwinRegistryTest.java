@@ -0,0 +1,102 @@
+package it.unimore.dipi.iot.demo.mqtt.wldt.host;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+/**
+ * @created: 18/10/2026
+ * @project: WLDT - MQTT Example
+ */
+public class TwinRegistryTest {
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private File write(File folder, String name, String content) throws Exception {
+        File file = new File(folder, name);
+        Files.write(file.toPath(), content.getBytes(StandardCharsets.UTF_8));
+        return file;
+    }
+
+    @Test
+    public void rangesGenerateTheDeviceIds() {
+
+        TwinRegistry registry = new TwinRegistry();
+        TwinRegistry.DeviceRange range = new TwinRegistry.DeviceRange();
+        range.setIdFormat("device%03d");
+        range.setStart(5);
+        range.setCount(3);
+        range.setProfile("temperature");
+
+        registry.addRange(range);
+
+        assertEquals(3, registry.size());
+        assertEquals("temperature", registry.get("device006").getProfile());
+        assertNull(registry.get("device008"));
+    }
+
+    @Test
+    public void lastDefinitionOfADeviceWins() {
+
+        TwinRegistry registry = new TwinRegistry();
+        registry.add(new TwinDeviceDescriptor("device001", "temperature"));
+        registry.add(new TwinDeviceDescriptor("device001", null));
+
+        assertEquals(1, registry.size());
+        assertEquals(TwinDeviceDescriptor.DEFAULT_PROFILE, registry.get("device001").getProfile());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void deviceIdsCanNotContainTopicSeparators() {
+        new TwinRegistry().add(new TwinDeviceDescriptor("building/device001", null));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void deviceIdsCanNotContainWildcards() {
+        new TwinRegistry().add(new TwinDeviceDescriptor("device+", null));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rangesCanNotHaveANegativeCount() {
+        TwinRegistry.DeviceRange range = new TwinRegistry.DeviceRange();
+        range.setIdFormat("device%03d");
+        range.setCount(-1);
+        new TwinRegistry().addRange(range);
+    }
+
+    @Test
+    public void loadDirectoryInAlphabeticalOrder() throws Exception {
+
+        File folder = temporaryFolder.newFolder("registry");
+
+        write(folder, "b.yml", "devices:\n  - id: device001\n    profile: humidity\n");
+        write(folder, "a.yaml", "devices:\n  - id: device001\n    profile: temperature\n  - id: device002\nranges:\n  - idFormat: \"gen%02d\"\n    count: 2\n");
+        write(folder, "ignored.txt", "devices:\n  - id: device003\n");
+
+        TwinRegistry registry = TwinRegistry.load(folder.getPath());
+
+        assertEquals(4, registry.size());
+        assertEquals("humidity", registry.get("device001").getProfile());
+        assertEquals(TwinDeviceDescriptor.DEFAULT_PROFILE, registry.get("device002").getProfile());
+        assertNotNull(registry.get("gen01"));
+        assertNull(registry.get("device003"));
+    }
+
+    @Test
+    public void loadTheExampleRegistry() throws Exception {
+
+        TwinRegistry registry = TwinRegistry.load(new File(getClass().getResource("/twin-registry.yaml").toURI()).getPath());
+
+        assertEquals(10001, registry.size());
+        assertEquals("temperature", registry.get("com:iot:dummy:loadGenDevice009999").getProfile());
+    }
+}
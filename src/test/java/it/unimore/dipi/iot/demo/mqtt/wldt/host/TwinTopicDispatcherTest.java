@@ -0,0 +1,91 @@
+package it.unimore.dipi.iot.demo.mqtt.wldt.host;
+
+import it.unimore.dipi.iot.wldt.worker.mqtt.MqttTopicDescriptor;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * @created: 18/10/2026
+ * @project: WLDT - MQTT Example
+ */
+public class TwinTopicDispatcherTest {
+
+    private static MqttTopicDescriptor descriptor(String id, String resourceId, String topic) {
+        return new MqttTopicDescriptor(id, resourceId, topic, MqttTopicDescriptor.MQTT_TOPIC_TYPE_DEVICE_OUTGOING);
+    }
+
+    private final TwinTopicDispatcher dispatcher = new TwinTopicDispatcher(Arrays.asList(
+            descriptor("temperature_topic", "temperature", "telemetry/{{device_id}}/resource/{{resource_id}}"),
+            descriptor("humidity_topic", "humidity", "telemetry/{{device_id}}/resource/{{resource_id}}"),
+            descriptor("status_topic", null, "{{device_id}}/status"),
+            descriptor("command_topic", null, "command/{{device_id}}")));
+
+    @Test
+    public void topicsAreMatchedToTheirDescriptor() {
+
+        int temperatureIndex = dispatcher.match("telemetry/device001/resource/temperature");
+
+        assertEquals("temperature_topic", dispatcher.getTopicDescriptor(temperatureIndex).getId());
+        assertEquals("device001", dispatcher.extractDeviceId("telemetry/device001/resource/temperature", temperatureIndex));
+        assertEquals("humidity_topic", dispatcher.getTopicDescriptor(dispatcher.match("telemetry/device002/resource/humidity")).getId());
+
+        int statusIndex = dispatcher.match("device003/status");
+        assertEquals("status_topic", dispatcher.getTopicDescriptor(statusIndex).getId());
+        assertEquals("device003", dispatcher.extractDeviceId("device003/status", statusIndex));
+
+        int commandIndex = dispatcher.match("command/device004");
+        assertEquals("device004", dispatcher.extractDeviceId("command/device004", commandIndex));
+    }
+
+    @Test
+    public void literalLevelsArePreferredToTheDeviceLevel() {
+
+        TwinTopicDispatcher literalDispatcher = new TwinTopicDispatcher(Arrays.asList(
+                descriptor("status_topic", null, "{{device_id}}/status"),
+                descriptor("gateway_topic", null, "gateway/{{device_id}}")));
+
+        assertEquals("gateway_topic", literalDispatcher.getTopicDescriptor(literalDispatcher.match("gateway/status")).getId());
+        assertEquals("status_topic", literalDispatcher.getTopicDescriptor(literalDispatcher.match("device001/status")).getId());
+    }
+
+    @Test
+    public void unknownTopicsDoNotMatch() {
+        assertEquals(TwinTopicDispatcher.NO_MATCH, dispatcher.match("telemetry/device001/resource/pressure"));
+        assertEquals(TwinTopicDispatcher.NO_MATCH, dispatcher.match("telemetry/device001"));
+        assertEquals(TwinTopicDispatcher.NO_MATCH, dispatcher.match("command/device001/extra"));
+    }
+
+    @Test
+    public void subscriptionFiltersReplaceTheDeviceLevel() {
+        assertEquals(4, dispatcher.getTopicCount());
+        assertEquals("telemetry/+/resource/temperature", dispatcher.getSubscriptionFilter(0));
+        assertEquals("+/status", dispatcher.getSubscriptionFilter(2));
+        assertEquals("command/+", dispatcher.getSubscriptionFilter(3));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void templatesMatchingTheSameTopicsAreRejected() {
+        new TwinTopicDispatcher(Arrays.asList(
+                descriptor("temperature_topic", "temperature", "telemetry/{{device_id}}/resource/{{resource_id}}"),
+                descriptor("temperature_copy_topic", null, "telemetry/{{device_id}}/resource/temperature")));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void templatesWithoutTheDeviceLevelAreRejected() {
+        new TwinTopicDispatcher(Collections.singletonList(descriptor("gateway_topic", null, "gateway/status")));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void templatesWithWildcardsAreRejected() {
+        new TwinTopicDispatcher(Collections.singletonList(descriptor("wildcard_topic", null, "telemetry/{{device_id}}/#")));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void templatesWithTwoDeviceLevelsAreRejected() {
+        new TwinTopicDispatcher(Collections.singletonList(descriptor("twice_topic", null, "{{device_id}}/{{device_id}}")));
+    }
+}
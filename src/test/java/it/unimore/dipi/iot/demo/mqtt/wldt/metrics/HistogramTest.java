@@ -0,0 +1,94 @@
+package it.unimore.dipi.iot.demo.mqtt.wldt.metrics;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @created: 18/10/2026
+ * @project: WLDT - MQTT Example
+ */
+public class HistogramTest {
+
+    @Test
+    public void valuesAreCountedInTheirPowerOfTwoBucket() {
+
+        Histogram histogram = new Histogram(2, 6, 1.0);
+
+        //Bounds: 4, 8, 16, 32, 64, +Inf
+        histogram.record(1);
+        histogram.record(4);
+        histogram.record(5);
+        histogram.record(8);
+        histogram.record(64);
+        histogram.record(65);
+
+        assertEquals(6, histogram.getCount());
+        assertEquals(147.0, histogram.getSum(), 0.0);
+        assertEquals(24.5, histogram.getMean(), 0.0);
+        assertEquals(4.0, histogram.getPercentileUpperBound(33.0), 0.0);
+        assertEquals(8.0, histogram.getPercentileUpperBound(50.0), 0.0);
+        assertEquals(64.0, histogram.getPercentileUpperBound(80.0), 0.0);
+        assertEquals(Double.POSITIVE_INFINITY, histogram.getPercentileUpperBound(100.0), 0.0);
+    }
+
+    @Test
+    public void emptyHistogram() {
+
+        Histogram histogram = Histogram.latency();
+
+        assertEquals(0, histogram.getCount());
+        assertEquals(0.0, histogram.getMean(), 0.0);
+        assertEquals(0.0, histogram.getPercentileUpperBound(99.0), 0.0);
+    }
+
+    @Test
+    public void boundsAndSumAreExportedWithTheScale() {
+
+        Histogram histogram = new Histogram(8, 10, 1e-9);
+        histogram.record(300);
+        histogram.record(2000);
+
+        StringBuilder sb = new StringBuilder();
+        histogram.writePrometheus(sb, "latency_seconds", "pipeline=\"p\"");
+
+        assertEquals("latency_seconds_bucket{pipeline=\"p\",le=\"2.56E-7\"} 0\n"
+                + "latency_seconds_bucket{pipeline=\"p\",le=\"5.12E-7\"} 1\n"
+                + "latency_seconds_bucket{pipeline=\"p\",le=\"1.024E-6\"} 1\n"
+                + "latency_seconds_bucket{pipeline=\"p\",le=\"+Inf\"} 2\n"
+                + "latency_seconds_sum{pipeline=\"p\"} " + (2300 * 1e-9) + "\n"
+                + "latency_seconds_count{pipeline=\"p\"} 2\n", sb.toString());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void invalidExponents() {
+        new Histogram(10, 10, 1.0);
+    }
+
+    @Test
+    public void concurrentRecording() throws InterruptedException {
+
+        Histogram histogram = Histogram.size();
+        List<Thread> threads = new ArrayList<>();
+
+        for(int t = 0; t < 4; t++){
+            Thread thread = new Thread(() -> {
+                for(int i = 1; i <= 10000; i++)
+                    histogram.record(i);
+            });
+            threads.add(thread);
+            thread.start();
+        }
+
+        for(Thread thread : threads)
+            thread.join();
+
+        assertEquals(40000, histogram.getCount());
+        assertEquals(4 * 50005000.0, histogram.getSum(), 0.0);
+        assertTrue(histogram.getPercentileUpperBound(50.0) <= 8192.0);
+    }
+}
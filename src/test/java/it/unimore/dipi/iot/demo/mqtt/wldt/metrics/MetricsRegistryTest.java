@@ -0,0 +1,133 @@
+package it.unimore.dipi.iot.demo.mqtt.wldt.metrics;
+
+import it.unimore.dipi.iot.wldt.processing.ProcessingStep;
+import org.junit.Test;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @created: 18/10/2026
+ * @project: WLDT - MQTT Example
+ */
+public class MetricsRegistryTest {
+
+    @Test
+    public void topicsAfterTheLimitAreAccountedAsOther() {
+
+        MetricsRegistry registry = new MetricsRegistry(2);
+
+        registry.recordTopic("telemetry/device01", 4);
+        registry.recordTopic("telemetry/device02", 4);
+        registry.recordTopic("telemetry/device01", 4);
+        registry.recordTopic("telemetry/device03", 10);
+        registry.recordTopic("telemetry/device04", 10);
+
+        StringBuilder sb = new StringBuilder();
+        registry.writePrometheus(sb);
+        String export = sb.toString();
+
+        assertTrue(export.contains("wldt_topic_messages_total{topic=\"telemetry/device01\"} 2\n"));
+        assertTrue(export.contains("wldt_topic_payload_bytes_total{topic=\"telemetry/device01\"} 8\n"));
+        assertTrue(export.contains("wldt_topic_messages_total{topic=\"__other__\"} 2\n"));
+        assertTrue(export.contains("wldt_topic_payload_bytes_total{topic=\"__other__\"} 20\n"));
+        assertFalse(export.contains("device03"));
+    }
+
+    @Test
+    public void countersGaugesAndHistograms() {
+
+        MetricsRegistry registry = new MetricsRegistry();
+        AtomicLong queueDepth = new AtomicLong(7);
+        Histogram roundTrip = Histogram.latency();
+
+        registry.counter("wldt_test_total", "Test counter").add(3);
+        registry.counter("wldt_test_total", "Test counter").increment();
+        registry.gauge("wldt_test_queue_depth", "Test gauge", "lane", "command", queueDepth::get);
+        registry.histogram("wldt_test_seconds", "Test histogram", null, null, roundTrip);
+        roundTrip.record(1000);
+
+        StringBuilder sb = new StringBuilder();
+        registry.writePrometheus(sb);
+        String export = sb.toString();
+
+        assertTrue(export.contains("# HELP wldt_test_total Test counter\n# TYPE wldt_test_total counter\nwldt_test_total 4\n"));
+        assertTrue(export.contains("# TYPE wldt_test_queue_depth gauge\nwldt_test_queue_depth{lane=\"command\"} 7\n"));
+        assertTrue(export.contains("# TYPE wldt_test_seconds histogram\n"));
+        assertTrue(export.contains("wldt_test_seconds_count 1\n"));
+    }
+
+    @Test
+    public void labelValuesAreEscaped() {
+
+        MetricsRegistry registry = new MetricsRegistry();
+        registry.recordTopic("quote\"back\\slash\nline", 1);
+
+        StringBuilder sb = new StringBuilder();
+        registry.writePrometheus(sb);
+
+        assertTrue(sb.toString().contains("wldt_topic_messages_total{topic=\"quote\\\"back\\\\slash\\nline\"} 1\n"));
+    }
+
+    @Test
+    public void pipelineAndStepMetrics() {
+
+        MetricsRegistry registry = new MetricsRegistry();
+        PipelineMetrics pipelineMetrics = registry.pipeline("metrics_test_pipeline");
+
+        assertSame(pipelineMetrics, registry.pipeline("metrics_test_pipeline"));
+
+        ProcessingStep step = (pipelineCache, data, listener) -> {};
+        StepMetrics[] stepMetrics = pipelineMetrics.getStepMetrics(new ProcessingStep[]{ step, step });
+
+        assertEquals(2, stepMetrics.length);
+        assertSame(stepMetrics[0], pipelineMetrics.getStepMetrics(new ProcessingStep[]{ step })[0]);
+
+        pipelineMetrics.onReceived(16);
+        pipelineMetrics.onReceived(16);
+        pipelineMetrics.onReceived(16);
+        pipelineMetrics.onCompleted(1000, true);
+        pipelineMetrics.onCompleted(-1, false);
+        pipelineMetrics.onError(2000);
+        pipelineMetrics.onRejected();
+        stepMetrics[0].onStepDone(500);
+        stepMetrics[0].onStepSkip(-1);
+        stepMetrics[1].onStepError(500);
+
+        assertEquals(3, pipelineMetrics.getReceivedCount());
+        assertEquals(2, pipelineMetrics.getCompletedCount());
+        assertEquals(1, pipelineMetrics.getResultCount());
+        assertEquals(1, pipelineMetrics.getErrorCount());
+        assertEquals(1, pipelineMetrics.getRejectedCount());
+        assertEquals(2, pipelineMetrics.getLatency().getCount());
+        assertEquals(1.5, pipelineMetrics.getMeanLatencyMicros(), 1e-9);
+        assertEquals(1, stepMetrics[0].getLatency().getCount());
+
+        StringBuilder sb = new StringBuilder();
+        registry.writePrometheus(sb);
+        String export = sb.toString();
+
+        assertTrue(export.contains("wldt_pipeline_received_total{pipeline=\"metrics_test_pipeline\"} 3\n"));
+        assertTrue(export.contains("wldt_pipeline_rejected_total{pipeline=\"metrics_test_pipeline\"} 1\n"));
+        assertTrue(export.contains("wldt_step_skipped_total{pipeline=\"metrics_test_pipeline\",step=\"0:"));
+        assertTrue(export.contains("wldt_step_errors_total{pipeline=\"metrics_test_pipeline\",step=\"1:"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void invalidLatencySampling() {
+        new PipelineMetrics("invalid", 0);
+    }
+
+    @Test
+    public void latencySamplingOfAllTheMessages() {
+
+        PipelineMetrics pipelineMetrics = new PipelineMetrics("all", 1);
+
+        for(int i = 0; i < 100; i++)
+            assertTrue(pipelineMetrics.sampleLatency());
+    }
+}
@@ -0,0 +1,176 @@
+package it.unimore.dipi.iot.demo.mqtt.wldt.pipeline;
+
+import it.unimore.dipi.iot.wldt.exception.ProcessingPipelineException;
+import it.unimore.dipi.iot.wldt.processing.PipelineData;
+import it.unimore.dipi.iot.wldt.processing.ProcessingPipelineListener;
+import it.unimore.dipi.iot.wldt.processing.ProcessingStep;
+import it.unimore.dipi.iot.wldt.worker.mqtt.MqttPipelineData;
+import org.junit.After;
+import org.junit.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static it.unimore.dipi.iot.demo.mqtt.wldt.TestPipelineData.data;
+import static it.unimore.dipi.iot.demo.mqtt.wldt.TestPipelineData.payloadOf;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @created: 18/10/2026
+ * @project: WLDT - MQTT Example
+ */
+public class ConcurrentProcessingPipelineTest {
+
+    private final PartitionedExecutor executor = new PartitionedExecutor("test", 4, 1000, PartitionedExecutor.OverflowPolicy.BLOCK, false);
+
+    @After
+    public void tearDown() throws InterruptedException {
+        executor.shutdown();
+        executor.awaitTermination(5, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Step appending a suffix to the payload
+     */
+    private static ProcessingStep append(String suffix) {
+        return (pipelineCache, data, listener) -> listener.onStepDone(null,
+                Optional.of(new MqttPipelineData(((MqttPipelineData) data).getTopic(), null, (payloadOf(data) + suffix).getBytes(StandardCharsets.UTF_8), false)));
+    }
+
+    private static class CountingListener implements ProcessingPipelineListener {
+
+        private final CountDownLatch latch;
+
+        private final List<PipelineData> results = Collections.synchronizedList(new ArrayList<>());
+
+        private final AtomicInteger errorCount = new AtomicInteger();
+
+        private CountingListener(int expectedCount) {
+            this.latch = new CountDownLatch(expectedCount);
+        }
+
+        @Override
+        public void onPipelineDone(Optional<PipelineData> result) {
+            result.ifPresent(results::add);
+            latch.countDown();
+        }
+
+        @Override
+        public void onPipelineError() {
+            errorCount.incrementAndGet();
+            latch.countDown();
+        }
+
+        private void await() throws InterruptedException {
+            assertTrue(latch.await(10, TimeUnit.SECONDS));
+        }
+    }
+
+    @Test
+    public void chainsTheStepResults() throws Exception {
+
+        ConcurrentProcessingPipeline pipeline = new ConcurrentProcessingPipeline(executor, append("a"), append("b"));
+        CountingListener listener = new CountingListener(1);
+
+        pipeline.start(data("telemetry/device001", "x"), listener);
+        listener.await();
+
+        assertEquals(1, listener.results.size());
+        assertEquals("xab", payloadOf(listener.results.get(0)));
+    }
+
+    @Test
+    public void keepsTheOrderOfEachTopic() throws Exception {
+
+        Map<String, List<Integer>> received = new ConcurrentHashMap<>();
+        ProcessingStep recordStep = (pipelineCache, data, listener) -> {
+            MqttPipelineData mqttData = (MqttPipelineData) data;
+            received.computeIfAbsent(mqttData.getTopic(), topic -> Collections.synchronizedList(new ArrayList<>())).add(Integer.parseInt(payloadOf(data)));
+            listener.onStepDone(null, Optional.empty());
+        };
+
+        ConcurrentProcessingPipeline pipeline = new ConcurrentProcessingPipeline(executor, recordStep);
+        CountingListener listener = new CountingListener(8 * 1000);
+
+        for(int i = 0; i < 1000; i++)
+            for(int device = 0; device < 8; device++)
+                pipeline.start(data("telemetry/device" + device, Integer.toString(i)), listener);
+
+        listener.await();
+
+        assertEquals(8, received.size());
+        for(List<Integer> values : received.values())
+            for(int i = 0; i < values.size(); i++)
+                assertEquals(i, (int) values.get(i));
+    }
+
+    @Test
+    public void reportsTheStepErrors() throws Exception {
+
+        ProcessingStep failingStep = (pipelineCache, data, listener) -> listener.onStepError(null, data, "failure");
+        ProcessingStep throwingStep = (pipelineCache, data, listener) -> {
+            throw new IllegalStateException("failure");
+        };
+
+        CountingListener listener = new CountingListener(2);
+
+        new ConcurrentProcessingPipeline(executor, failingStep, append("a")).start(data("telemetry/device001", "x"), listener);
+        new ConcurrentProcessingPipeline(executor, throwingStep).start(data("telemetry/device001", "x"), listener);
+        listener.await();
+
+        assertEquals(2, listener.errorCount.get());
+        assertTrue(listener.results.isEmpty());
+    }
+
+    @Test
+    public void usesTheReplacedStepsForTheNextMessages() throws Exception {
+
+        ConcurrentProcessingPipeline pipeline = new ConcurrentProcessingPipeline(executor, append("a"));
+        pipeline.replaceSteps(append("b"), append("c"));
+
+        CountingListener listener = new CountingListener(1);
+        pipeline.start(data("telemetry/device001", "x"), listener);
+        listener.await();
+
+        assertEquals(2, pipeline.getSize());
+        assertEquals("xbc", payloadOf(listener.results.get(0)));
+    }
+
+    @Test
+    public void pooledDataIsReleasedOnTheErrorPath() throws Exception {
+
+        PipelineDataPool pool = new PipelineDataPool(4, 16, 16, false);
+        ProcessingStep averageStep = (pipelineCache, data, listener) -> listener.onStepDone(null, LazyMqttPipelineData.of((MqttPipelineData) data).withNumericPayload(2.5).asOptional());
+        ProcessingStep failingStep = (pipelineCache, data, listener) -> listener.onStepError(null, data, "failure");
+
+        ConcurrentProcessingPipeline pipeline = new ConcurrentProcessingPipeline(executor, averageStep, failingStep);
+        pipeline.setDataPool(pool);
+
+        CountingListener listener = new CountingListener(10);
+
+        for(int i = 0; i < 10; i++)
+            pipeline.start(data("telemetry/device001", "x"), listener);
+
+        listener.await();
+
+        assertEquals(10, listener.errorCount.get());
+        assertEquals(10, pool.getBorrowedCount());
+        assertEquals(10, pool.getReleasedCount());
+        assertEquals(1, pool.getCreatedCount());
+        assertEquals(9, pool.getRecycledBufferCount());
+    }
+
+    @Test(expected = ProcessingPipelineException.class)
+    public void rejectsAnEmptyPipeline() throws Exception {
+        new ConcurrentProcessingPipeline(executor).start(data("telemetry/device001", "x"), null);
+    }
+}
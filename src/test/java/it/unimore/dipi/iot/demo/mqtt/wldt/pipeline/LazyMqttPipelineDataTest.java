@@ -0,0 +1,148 @@
+package it.unimore.dipi.iot.demo.mqtt.wldt.pipeline;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import it.unimore.dipi.iot.demo.mqtt.wldt.TestPipelineData;
+import it.unimore.dipi.iot.wldt.worker.mqtt.MqttPipelineData;
+import org.junit.Test;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * @created: 18/10/2026
+ * @project: WLDT - MQTT Example
+ */
+public class LazyMqttPipelineDataTest {
+
+    private static final String TOPIC = "wldt/telemetry/device001/resource/temperature";
+
+    private static MqttPipelineData data(String payload) {
+        return TestPipelineData.data(TOPIC, payload, true);
+    }
+
+    @Test
+    public void plainDataIsCopiedOnceAndNeverModified() {
+
+        MqttPipelineData original = data("21.5");
+
+        LazyMqttPipelineData lazyData = LazyMqttPipelineData.of(original);
+        assertNotSame(original, lazyData);
+        assertEquals(TOPIC, lazyData.getTopic());
+        assertTrue(lazyData.isRetained());
+
+        //The following steps receive the same instance
+        assertSame(lazyData, LazyMqttPipelineData.of(lazyData));
+
+        lazyData.withTopic("wldt/rewritten").withPayload("22.0".getBytes(StandardCharsets.UTF_8));
+
+        assertEquals(TOPIC, original.getTopic());
+        assertArrayEquals("21.5".getBytes(StandardCharsets.UTF_8), original.getPayload());
+        assertEquals("wldt/rewritten", lazyData.getTopic());
+        assertEquals(22.0, lazyData.getNumericValue(), 0.0);
+    }
+
+    @Test
+    public void viewsAreDecodedOnceAndClearedByANewPayload() {
+
+        LazyMqttPipelineData lazyData = LazyMqttPipelineData.of(data("{\"value\":21.5}"));
+
+        JsonNode jsonTree = lazyData.getJsonTree();
+        assertEquals(21.5, jsonTree.get("value").asDouble(), 0.0);
+        assertSame(jsonTree, lazyData.getJsonTree());
+
+        String utf8String = lazyData.getUtf8String();
+        assertEquals("{\"value\":21.5}", utf8String);
+        assertSame(utf8String, lazyData.getUtf8String());
+
+        assertTrue(Double.isNaN(lazyData.getNumericValue()));
+
+        //The topic override keeps the views
+        lazyData.withTopic("wldt/rewritten");
+        assertSame(jsonTree, lazyData.getJsonTree());
+
+        lazyData.withPayload("not json".getBytes(StandardCharsets.UTF_8));
+        assertNull(lazyData.getJsonTree());
+        assertEquals("not json", lazyData.getUtf8String());
+    }
+
+    @Test
+    public void numericPayloadSetsTheNumericView() {
+
+        LazyMqttPipelineData lazyData = LazyMqttPipelineData.of(data("1"));
+
+        lazyData.withNumericPayload(2.25);
+
+        assertEquals(2.25, lazyData.getNumericValue(), 0.0);
+        assertEquals(2.25, Double.parseDouble(lazyData.getUtf8String()), 0.0);
+    }
+
+    @Test
+    public void numericValueOfPlainAndLazyData() {
+
+        assertEquals(-3.5, LazyMqttPipelineData.numericValueOf(data("-3.5")), 0.0);
+        assertTrue(Double.isNaN(LazyMqttPipelineData.numericValueOf(data("abc"))));
+
+        LazyMqttPipelineData lazyData = LazyMqttPipelineData.of(data("42"));
+        assertEquals(42.0, LazyMqttPipelineData.numericValueOf(lazyData), 0.0);
+    }
+
+    @Test
+    public void sharedDataIsCopiedWithItsViews() {
+
+        LazyMqttPipelineData shared = LazyMqttPipelineData.of(data("{\"value\":1}"));
+        JsonNode jsonTree = shared.getJsonTree();
+        shared.share();
+
+        assertTrue(shared.isShared());
+
+        try{
+            shared.withTopic("wldt/rewritten");
+            fail("Shared data must not be modified");
+        }catch (IllegalStateException e){
+            assertEquals(TOPIC, shared.getTopic());
+        }
+
+        LazyMqttPipelineData first = LazyMqttPipelineData.of(shared);
+        LazyMqttPipelineData second = LazyMqttPipelineData.of(shared);
+
+        assertNotSame(shared, first);
+        assertNotSame(first, second);
+        assertFalse(first.isShared());
+        assertSame(jsonTree, first.getJsonTree());
+
+        first.withPayload("2".getBytes(StandardCharsets.UTF_8));
+
+        assertEquals(2.0, first.getNumericValue(), 0.0);
+        assertSame(jsonTree, second.getJsonTree());
+        assertSame(jsonTree, shared.getJsonTree());
+    }
+
+    @Test
+    public void optionalIsCreatedOnce() {
+
+        LazyMqttPipelineData lazyData = LazyMqttPipelineData.of(data("1"));
+
+        assertSame(lazyData.asOptional(), lazyData.asOptional());
+        assertSame(lazyData, lazyData.asOptional().get());
+    }
+
+    @Test
+    public void releaseOfUnpooledDataHasNoEffect() {
+
+        LazyMqttPipelineData lazyData = LazyMqttPipelineData.of(data("1"));
+
+        lazyData.release();
+        LazyMqttPipelineData.release(data("1"));
+
+        assertEquals(TOPIC, lazyData.getTopic());
+        assertEquals(1.0, lazyData.getNumericValue(), 0.0);
+    }
+}
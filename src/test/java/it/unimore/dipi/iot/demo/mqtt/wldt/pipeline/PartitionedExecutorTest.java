@@ -0,0 +1,163 @@
+package it.unimore.dipi.iot.demo.mqtt.wldt.pipeline;
+
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @created: 18/10/2026
+ * @project: WLDT - MQTT Example
+ */
+public class PartitionedExecutorTest {
+
+    private PartitionedExecutor executor;
+
+    @After
+    public void tearDown() throws InterruptedException {
+        if(executor != null){
+            executor.shutdown();
+            executor.awaitTermination(5, TimeUnit.SECONDS);
+        }
+    }
+
+    /**
+     * Occupy the partition thread until the returned latch is released
+     */
+    private static CountDownLatch blockPartition(PartitionedExecutor executor, int partition) throws InterruptedException {
+
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        executor.execute(partition, () -> {
+            started.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        return release;
+    }
+
+    @Test
+    public void keepsTheOrderOfTheTasksOfAPartition() throws InterruptedException {
+
+        executor = new PartitionedExecutor("test", 4, 100, PartitionedExecutor.OverflowPolicy.BLOCK, false);
+
+        int partition = executor.partitionFor("telemetry/device001");
+        List<Integer> executed = Collections.synchronizedList(new ArrayList<>());
+        CountDownLatch done = new CountDownLatch(10000);
+
+        for(int i = 0; i < 10000; i++){
+            int index = i;
+            executor.execute(partition, () -> {
+                executed.add(index);
+                done.countDown();
+            });
+        }
+
+        assertTrue(done.await(10, TimeUnit.SECONDS));
+        for(int i = 0; i < executed.size(); i++)
+            assertEquals(i, (int) executed.get(i));
+    }
+
+    @Test
+    public void mapsEachKeyToAStablePartition() {
+
+        executor = new PartitionedExecutor("test", 8, 10, PartitionedExecutor.OverflowPolicy.BLOCK, false);
+
+        for(int i = 0; i < 1000; i++){
+            String key = "telemetry/device" + i;
+            int partition = executor.partitionFor(key);
+            assertTrue(partition >= 0 && partition < 8);
+            assertEquals(partition, executor.partitionFor(key));
+        }
+
+        assertEquals(0, executor.partitionFor(null));
+    }
+
+    @Test
+    public void dropsTheTasksOfAFullPartition() throws InterruptedException {
+
+        executor = new PartitionedExecutor("test", 1, 1, PartitionedExecutor.OverflowPolicy.DROP, false);
+
+        CountDownLatch release = blockPartition(executor, 0);
+        CountDownLatch done = new CountDownLatch(1);
+
+        assertTrue(executor.execute(0, done::countDown));
+        assertFalse(executor.execute(0, () -> {}));
+        assertEquals(1, executor.getDroppedTaskCount());
+        assertEquals(1, executor.getQueueDepth());
+
+        release.countDown();
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+
+        //The space of the executed tasks is available again
+        CountDownLatch next = new CountDownLatch(1);
+        assertTrue(executor.execute(0, next::countDown));
+        assertTrue(next.await(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void blocksTheSubmitterOfAFullPartition() throws InterruptedException {
+
+        executor = new PartitionedExecutor("test", 1, 1, PartitionedExecutor.OverflowPolicy.BLOCK, false);
+
+        CountDownLatch release = blockPartition(executor, 0);
+        executor.execute(0, () -> {});
+
+        AtomicBoolean submitted = new AtomicBoolean(false);
+        CountDownLatch done = new CountDownLatch(1);
+
+        Thread submitter = new Thread(() -> {
+            executor.execute(0, done::countDown);
+            submitted.set(true);
+        });
+        submitter.start();
+
+        Thread.sleep(100);
+        assertFalse(submitted.get());
+
+        release.countDown();
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        submitter.join(5000);
+        assertTrue(submitted.get());
+        assertEquals(0, executor.getDroppedTaskCount());
+    }
+
+    @Test
+    public void executesTheQueuedTasksAndRejectsTheNewOnesAfterShutdown() throws InterruptedException {
+
+        executor = new PartitionedExecutor("test", 1, 10, PartitionedExecutor.OverflowPolicy.BLOCK, false);
+
+        CountDownLatch release = blockPartition(executor, 0);
+        CountDownLatch done = new CountDownLatch(1);
+        executor.execute(0, done::countDown);
+
+        executor.shutdown();
+
+        try{
+            executor.execute(0, () -> {});
+            throw new AssertionError("Task accepted after shutdown !");
+        }catch (RejectedExecutionException e){
+            //Expected
+        }
+
+        release.countDown();
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        assertTrue(executor.awaitTermination(5, TimeUnit.SECONDS));
+    }
+}
@@ -0,0 +1,183 @@
+package it.unimore.dipi.iot.demo.mqtt.wldt.pipeline;
+
+import it.unimore.dipi.iot.demo.mqtt.wldt.TestPipelineData;
+import it.unimore.dipi.iot.wldt.processing.PipelineData;
+import it.unimore.dipi.iot.wldt.worker.mqtt.MqttPipelineData;
+import org.junit.Test;
+
+import java.nio.charset.StandardCharsets;
+
+import static it.unimore.dipi.iot.demo.mqtt.wldt.TestPipelineData.payloadOf;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @created: 18/10/2026
+ * @project: WLDT - MQTT Example
+ */
+public class PipelineDataPoolTest {
+
+    private static final String TOPIC = "wldt/telemetry/device001/resource/temperature";
+
+    private static MqttPipelineData data(String payload) {
+        return TestPipelineData.data(TOPIC, payload);
+    }
+
+    @Test
+    public void releasedDataIsRecycled() {
+
+        PipelineDataPool pool = new PipelineDataPool(1, 16, 16, false);
+
+        LazyMqttPipelineData first = pool.borrow(data("21.5"));
+        assertEquals(TOPIC, first.getTopic());
+        assertEquals(21.5, first.getNumericValue(), 0.0);
+
+        first.release();
+        assertNull(first.getTopic());
+
+        LazyMqttPipelineData second = pool.borrow(data("22.5"));
+        assertSame(first, second);
+        assertEquals(22.5, second.getNumericValue(), 0.0);
+
+        assertEquals(2, pool.getBorrowedCount());
+        assertEquals(1, pool.getCreatedCount());
+        assertEquals(1, pool.getReleasedCount());
+    }
+
+    @Test
+    public void doubleReleaseIsDetectedAndIgnored() {
+
+        PipelineDataPool pool = new PipelineDataPool(1, 16, 16, false);
+
+        LazyMqttPipelineData data = pool.borrow(data("1"));
+        data.release();
+        data.release();
+
+        assertEquals(1, pool.getReleasedCount());
+        assertEquals(1, pool.getDoubleReleaseCount());
+
+        //The object has been returned to the pool once: it can not be borrowed twice
+        LazyMqttPipelineData first = pool.borrow(data("1"));
+        LazyMqttPipelineData second = pool.borrow(data("2"));
+        assertNotSame(first, second);
+        assertEquals("1", payloadOf(first));
+        assertEquals("2", payloadOf(second));
+    }
+
+    @Test
+    public void sharedDataIsNotRecycled() {
+
+        PipelineDataPool pool = new PipelineDataPool(1, 16, 16, false);
+
+        LazyMqttPipelineData data = pool.borrow(data("1")).share();
+        data.release();
+
+        assertEquals(0, pool.getReleasedCount());
+        assertEquals(TOPIC, data.getTopic());
+        assertNotSame(data, pool.borrow(data("2")));
+    }
+
+    @Test
+    public void payloadBuffersAreRecycledUnlessRetained() {
+
+        PipelineDataPool pool = new PipelineDataPool(1, 16, 16, false);
+
+        LazyMqttPipelineData data = pool.borrow(data("1"));
+        data.withNumericPayload(2.5);
+        byte[] buffer = data.getPayload();
+        data.release();
+
+        data = pool.borrow(data("1"));
+        data.withNumericPayload(3.5);
+        assertSame(buffer, data.getPayload());
+        assertEquals("3.5", payloadOf(data));
+        assertEquals(1, pool.getRecycledBufferCount());
+
+        //A retained payload is still referenced after the release
+        data.retainPayload().release();
+
+        data = pool.borrow(data("1"));
+        data.withNumericPayload(4.5);
+        assertNotSame(buffer, data.getPayload());
+        assertEquals("3.5", new String(buffer, StandardCharsets.US_ASCII));
+        assertEquals(1, pool.getRecycledBufferCount());
+    }
+
+    @Test
+    public void replacedPooledPayloadIsRecycled() {
+
+        PipelineDataPool pool = new PipelineDataPool(1, 16, 16, false);
+
+        LazyMqttPipelineData data = pool.borrow(data("1"));
+        data.withNumericPayload(2.5);
+        byte[] buffer = data.getPayload();
+
+        data.withPayload("replaced".getBytes(StandardCharsets.US_ASCII));
+        data.withNumericPayload(7.5);
+
+        assertSame(buffer, data.getPayload());
+        assertEquals(7.5, data.getNumericValue(), 0.0);
+    }
+
+    @Test
+    public void freeObjectsAreBoundedByStripe() {
+
+        PipelineDataPool pool = new PipelineDataPool(1, 1, 16, false);
+
+        LazyMqttPipelineData first = pool.borrow(data("1"));
+        LazyMqttPipelineData second = pool.borrow(data("2"));
+        first.release();
+        second.release();
+
+        pool.borrow(data("3"));
+        pool.borrow(data("4"));
+
+        assertEquals(3, pool.getCreatedCount());
+    }
+
+    @Test
+    public void wrapBorrowsOnlyPlainMqttData() {
+
+        PipelineDataPool pool = new PipelineDataPool(1, 16, 16, false);
+
+        PipelineData wrapped = pool.wrap(data("1"));
+        assertTrue(wrapped instanceof LazyMqttPipelineData);
+        assertSame(wrapped, pool.wrap(wrapped));
+
+        PipelineData other = new PipelineData() {};
+        assertSame(other, pool.wrap(other));
+        assertEquals(1, pool.getBorrowedCount());
+    }
+
+    @Test
+    public void dataCollectedWithoutReleaseIsReportedAsLeak() throws InterruptedException {
+
+        PipelineDataPool pool = new PipelineDataPool(1, 16, 16, true);
+        assertTrue(pool.isLeakDetectionEnabled());
+
+        pool.borrow(data("1")).release();
+        assertEquals(0, pool.getTrackedCount());
+
+        pool.borrow(data("2"));
+        assertEquals(1, pool.getTrackedCount());
+
+        long deadline = System.currentTimeMillis() + 10000;
+
+        while(pool.getLeakCount() == 0 && System.currentTimeMillis() < deadline){
+            System.gc();
+            Thread.sleep(10);
+            pool.reportLeaks();
+        }
+
+        assertEquals(1, pool.getLeakCount());
+        assertEquals(0, pool.getTrackedCount());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void invalidStripeCountIsRejected() {
+        new PipelineDataPool(0, 16, 16, false);
+    }
+}
@@ -0,0 +1,218 @@
+package it.unimore.dipi.iot.demo.mqtt.wldt.pipeline;
+
+import it.unimore.dipi.iot.wldt.worker.mqtt.MqttTopicDescriptor;
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * @created: 18/10/2026
+ * @project: WLDT - MQTT Example
+ */
+public class PriorityLaneSchedulerTest {
+
+    private PriorityLaneScheduler scheduler;
+
+    private final List<String> executed = new CopyOnWriteArrayList<>();
+
+    @After
+    public void tearDown() throws InterruptedException {
+        if(scheduler != null){
+            scheduler.shutdown();
+            scheduler.awaitTermination(5, TimeUnit.SECONDS);
+        }
+    }
+
+    private PriorityLaneScheduler createScheduler(PriorityLaneConfiguration.PriorityPolicy priorityPolicy, int commandWeight) {
+        PriorityLaneConfiguration configuration = new PriorityLaneConfiguration();
+        configuration.setPartitionCount(1);
+        configuration.setPriorityPolicy(priorityPolicy);
+        configuration.setCommandWeight(commandWeight);
+        configuration.setTelemetryQueueCapacity(16);
+        configuration.setTelemetryOverflowPolicy(PartitionedExecutor.OverflowPolicy.DROP);
+        scheduler = new PriorityLaneScheduler("test", configuration);
+        return scheduler;
+    }
+
+    /**
+     * Occupy the partition thread with a telemetry task until the returned latch is released
+     */
+    private static CountDownLatch blockPartition(PriorityLaneScheduler scheduler) throws InterruptedException {
+
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        scheduler.getTelemetryLane().execute(0, () -> {
+            started.countDown();
+            try{
+                release.await(10, TimeUnit.SECONDS);
+            }catch (InterruptedException e){
+                Thread.currentThread().interrupt();
+            }
+        });
+
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        return release;
+    }
+
+    private Runnable record(String name, CountDownLatch done) {
+        return () -> {
+            executed.add(name);
+            done.countDown();
+        };
+    }
+
+    private void queueTasks(PriorityLaneScheduler scheduler, int count, CountDownLatch done) {
+        for(int i = 1; i <= count; i++){
+            assertTrue(scheduler.getTelemetryLane().execute(0, record("T" + i, done)));
+            assertTrue(scheduler.getCommandLane().execute(0, record("C" + i, done)));
+        }
+    }
+
+    @Test
+    public void strictPolicyExecutesTheCommandsFirst() throws InterruptedException {
+
+        PriorityLaneScheduler scheduler = createScheduler(PriorityLaneConfiguration.PriorityPolicy.STRICT, 1);
+        CountDownLatch release = blockPartition(scheduler);
+        CountDownLatch done = new CountDownLatch(6);
+
+        queueTasks(scheduler, 3, done);
+        assertEquals(3, scheduler.getCommandLane().getQueueDepth());
+        assertEquals(3, scheduler.getTelemetryLane().getQueueDepth());
+
+        release.countDown();
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+
+        assertEquals(Arrays.asList("C1", "C2", "C3", "T1", "T2", "T3"), executed);
+    }
+
+    @Test
+    public void weightedPolicyDoesNotStarveTheTelemetry() throws InterruptedException {
+
+        PriorityLaneScheduler scheduler = createScheduler(PriorityLaneConfiguration.PriorityPolicy.WEIGHTED, 2);
+        CountDownLatch release = blockPartition(scheduler);
+        CountDownLatch done = new CountDownLatch(10);
+
+        queueTasks(scheduler, 5, done);
+
+        release.countDown();
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+
+        assertEquals(Arrays.asList("C1", "C2", "T1", "C3", "C4", "T2", "C5", "T3", "T4", "T5"), executed);
+    }
+
+    @Test
+    public void fullTelemetryLaneDoesNotAffectTheCommands() throws InterruptedException {
+
+        PriorityLaneScheduler scheduler = createScheduler(PriorityLaneConfiguration.PriorityPolicy.STRICT, 1);
+        CountDownLatch release = blockPartition(scheduler);
+        CountDownLatch done = new CountDownLatch(17);
+
+        for(int i = 0; i < 16; i++)
+            assertTrue(scheduler.getTelemetryLane().execute(0, record("T" + i, done)));
+
+        assertFalse(scheduler.getTelemetryLane().execute(0, record("dropped", done)));
+        assertEquals(1, scheduler.getTelemetryLane().getDroppedTaskCount());
+
+        assertTrue(scheduler.getCommandLane().execute(0, record("C", done)));
+        assertEquals(0, scheduler.getCommandLane().getDroppedTaskCount());
+
+        release.countDown();
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+
+        assertEquals("C", executed.get(0));
+        assertFalse(executed.contains("dropped"));
+    }
+
+    @Test
+    public void shutdownExecutesTheQueuedTasks() throws InterruptedException {
+
+        PriorityLaneScheduler scheduler = createScheduler(PriorityLaneConfiguration.PriorityPolicy.WEIGHTED, 4);
+        CountDownLatch release = blockPartition(scheduler);
+        CountDownLatch done = new CountDownLatch(10);
+
+        queueTasks(scheduler, 5, done);
+        scheduler.shutdown();
+
+        try{
+            scheduler.getCommandLane().execute(0, record("rejected", done));
+            fail("Task accepted after the shutdown");
+        }catch (RejectedExecutionException e){
+            assertTrue(e.getMessage().contains("test"));
+        }
+
+        release.countDown();
+
+        assertTrue(scheduler.awaitTermination(5, TimeUnit.SECONDS));
+        assertEquals(10, executed.size());
+        assertFalse(executed.contains("rejected"));
+    }
+
+    @Test
+    public void failingTaskDoesNotStopThePartition() throws InterruptedException {
+
+        PriorityLaneScheduler scheduler = createScheduler(PriorityLaneConfiguration.PriorityPolicy.STRICT, 1);
+        CountDownLatch done = new CountDownLatch(1);
+
+        scheduler.getCommandLane().execute(0, () -> {
+            throw new IllegalStateException("failure");
+        });
+        scheduler.getCommandLane().execute(0, record("C", done));
+
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        assertEquals(Collections.singletonList("C"), executed);
+    }
+
+    @Test
+    public void lanesAreSelectedByTopicType() {
+
+        PriorityLaneScheduler scheduler = createScheduler(PriorityLaneConfiguration.PriorityPolicy.STRICT, 1);
+
+        assertSame(scheduler.getCommandLane(), scheduler.laneFor(MqttTopicDescriptor.MQTT_TOPIC_TYPE_DEVICE_INCOMING));
+        assertSame(scheduler.getTelemetryLane(), scheduler.laneFor(MqttTopicDescriptor.MQTT_TOPIC_TYPE_DEVICE_OUTGOING));
+        assertEquals("test-command", scheduler.getCommandLane().getName());
+        assertEquals("test-telemetry", scheduler.getTelemetryLane().getName());
+    }
+
+    @Test
+    public void tasksOfTheSameKeyKeepTheirOrder() throws InterruptedException {
+
+        PriorityLaneConfiguration configuration = new PriorityLaneConfiguration();
+        configuration.setPartitionCount(4);
+        scheduler = new PriorityLaneScheduler("test", configuration);
+
+        PipelineExecutor lane = scheduler.getTelemetryLane();
+        int[] lastValues = new int[8];
+        AtomicInteger outOfOrderCount = new AtomicInteger();
+        CountDownLatch done = new CountDownLatch(8 * 1000);
+
+        for(int i = 0; i < 1000; i++)
+            for(int device = 0; device < 8; device++){
+                int deviceIndex = device;
+                int value = i;
+                lane.execute(lane.partitionFor("telemetry/device" + device), () -> {
+                    if(lastValues[deviceIndex] != value)
+                        outOfOrderCount.incrementAndGet();
+                    lastValues[deviceIndex] = value + 1;
+                    done.countDown();
+                });
+            }
+
+        assertTrue(done.await(10, TimeUnit.SECONDS));
+        assertEquals(0, outOfOrderCount.get());
+    }
+}
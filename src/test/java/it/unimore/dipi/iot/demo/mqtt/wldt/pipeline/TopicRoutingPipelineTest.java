@@ -0,0 +1,170 @@
+package it.unimore.dipi.iot.demo.mqtt.wldt.pipeline;
+
+import it.unimore.dipi.iot.demo.mqtt.wldt.TestPipelineData;
+import it.unimore.dipi.iot.wldt.exception.ProcessingPipelineException;
+import it.unimore.dipi.iot.wldt.processing.PipelineData;
+import it.unimore.dipi.iot.wldt.processing.ProcessingPipeline;
+import it.unimore.dipi.iot.wldt.processing.ProcessingPipelineListener;
+import it.unimore.dipi.iot.wldt.processing.ProcessingStep;
+import it.unimore.dipi.iot.wldt.worker.mqtt.MqttPipelineData;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @created: 18/10/2026
+ * @project: WLDT - MQTT Example
+ */
+public class TopicRoutingPipelineTest {
+
+    /**
+     * Pipeline recording the started data and the added steps
+     */
+    private static class RecordingPipeline extends ProcessingPipeline {
+
+        private final List<PipelineData> started = new ArrayList<>();
+
+        private final List<ProcessingStep> steps = new ArrayList<>();
+
+        @Override
+        public void start(PipelineData data, ProcessingPipelineListener listener) {
+            started.add(data);
+            listener.onPipelineDone(Optional.of(data));
+        }
+
+        @Override
+        public void addStep(ProcessingStep step) {
+            steps.add(step);
+        }
+
+        @Override
+        public void removeStep(ProcessingStep step) {
+            steps.remove(step);
+        }
+    }
+
+    private static class ResultListener implements ProcessingPipelineListener {
+
+        private final List<Optional<PipelineData>> results = new ArrayList<>();
+
+        @Override
+        public void onPipelineDone(Optional<PipelineData> result) {
+            results.add(result);
+        }
+
+        @Override
+        public void onPipelineError() {
+        }
+    }
+
+    private static MqttPipelineData data(String topic) {
+        return TestPipelineData.data(topic, "23.5");
+    }
+
+    @Test
+    public void messagesAreForwardedToTheMatchingRoutes() throws ProcessingPipelineException {
+
+        RecordingPipeline temperature = new RecordingPipeline();
+        RecordingPipeline all = new RecordingPipeline();
+        TopicRoutingPipeline routingPipeline = new TopicRoutingPipeline()
+                .addRoute("telemetry/{{device_id}}/resource/temperature", temperature)
+                .addRoute("telemetry/+/resource/#", all);
+
+        ResultListener listener = new ResultListener();
+
+        routingPipeline.start(data("telemetry/device01/resource/temperature"), listener);
+        routingPipeline.start(data("telemetry/device01/resource/humidity"), listener);
+
+        assertEquals(1, temperature.started.size());
+        assertEquals(2, all.started.size());
+        assertEquals(3, listener.results.size());
+        assertEquals(2, routingPipeline.getSize());
+    }
+
+    @Test
+    public void messagesWithoutRoutesCompleteWithAnEmptyResult() throws ProcessingPipelineException {
+
+        TopicRoutingPipeline routingPipeline = new TopicRoutingPipeline().addRoute("command/+", new RecordingPipeline());
+        ResultListener listener = new ResultListener();
+
+        routingPipeline.start(data("telemetry/device01"), listener);
+
+        assertEquals(1, listener.results.size());
+        assertFalse(listener.results.get(0).isPresent());
+    }
+
+    @Test
+    public void multipleRoutesShareTheLazyData() throws ProcessingPipelineException {
+
+        RecordingPipeline first = new RecordingPipeline();
+        RecordingPipeline second = new RecordingPipeline();
+        TopicRoutingPipeline routingPipeline = new TopicRoutingPipeline()
+                .addRoute("telemetry/#", first)
+                .addRoute("telemetry/+", second);
+
+        LazyMqttPipelineData data = LazyMqttPipelineData.of(data("telemetry/device01"));
+        routingPipeline.start(data, new ResultListener());
+
+        assertTrue(data.isShared());
+        assertEquals(1, first.started.size());
+        assertEquals(1, second.started.size());
+    }
+
+    @Test
+    public void pipelineWithOverlappingPatternsIsStartedOnce() throws ProcessingPipelineException {
+
+        RecordingPipeline pipeline = new RecordingPipeline();
+        RecordingPipeline other = new RecordingPipeline();
+        TopicRoutingPipeline routingPipeline = new TopicRoutingPipeline()
+                .addRoute("telemetry/+", pipeline)
+                .addRoute("telemetry/#", pipeline);
+
+        ResultListener listener = new ResultListener();
+        LazyMqttPipelineData data = LazyMqttPipelineData.of(data("telemetry/device01"));
+
+        routingPipeline.start(data, listener);
+
+        assertEquals(1, pipeline.started.size());
+        assertEquals(1, listener.results.size());
+        //A single pipeline does not need a copy of the data
+        assertFalse(data.isShared());
+
+        routingPipeline.addRoute("#", other);
+        routingPipeline.start(data("telemetry/device02"), listener);
+
+        assertEquals(2, pipeline.started.size());
+        assertEquals(1, other.started.size());
+        assertEquals(3, listener.results.size());
+    }
+
+    @Test
+    public void stepsAreAppliedOnceToEachRoutedPipeline() {
+
+        RecordingPipeline pipeline = new RecordingPipeline();
+        TopicRoutingPipeline routingPipeline = new TopicRoutingPipeline()
+                .addRoute("telemetry/+", pipeline)
+                .addRoute("command/+", pipeline);
+
+        ProcessingStep step = (pipelineCache, data, listener) -> {};
+
+        routingPipeline.addStep(step);
+        assertEquals(1, pipeline.steps.size());
+
+        routingPipeline.removeStep(step);
+        assertTrue(pipeline.steps.isEmpty());
+
+        assertTrue(routingPipeline.removeRoute("command/+", pipeline));
+        assertEquals(1, routingPipeline.getRoutedPipelines().size());
+    }
+
+    @Test(expected = ProcessingPipelineException.class)
+    public void wrongDataIsRejected() throws ProcessingPipelineException {
+        new TopicRoutingPipeline().start(new PipelineData() {}, new ResultListener());
+    }
+}
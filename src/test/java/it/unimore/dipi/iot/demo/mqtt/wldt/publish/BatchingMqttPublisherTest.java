@@ -0,0 +1,100 @@
+package it.unimore.dipi.iot.demo.mqtt.wldt.publish;
+
+import it.unimore.dipi.iot.wldt.worker.mqtt.MqttPipelineData;
+import org.junit.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Buffer and back-pressure of the publisher, without connecting to a broker (the flusher is not started)
+ *
+ * @created: 18/10/2026
+ * @project: WLDT - MQTT Example
+ */
+public class BatchingMqttPublisherTest {
+
+    private static MqttPipelineData data() {
+        return new MqttPipelineData("telemetry/device001/average", null, new byte[]{'1'}, false);
+    }
+
+    private static BatchingMqttPublisherConfiguration configuration(int bufferCapacity) {
+        BatchingMqttPublisherConfiguration configuration = new BatchingMqttPublisherConfiguration("127.0.0.1", 1884);
+        configuration.setBufferCapacity(bufferCapacity);
+        configuration.setHighWatermark(0.8);
+        configuration.setLowWatermark(0.5);
+        return configuration;
+    }
+
+    @Test
+    public void rejectsTheMessagesWhenTheBufferIsFull() {
+
+        BatchingMqttPublisher publisher = new BatchingMqttPublisher(configuration(10));
+
+        for(int i = 0; i < 10; i++)
+            assertTrue(publisher.publish(data()));
+
+        assertFalse(publisher.publish(data()));
+        assertEquals(10, publisher.getQueueDepth());
+        assertEquals(1, publisher.getRejectedCount());
+    }
+
+    @Test
+    public void notifiesTheBackPressureOnceAboveTheHighWatermark() {
+
+        BatchingMqttPublisher publisher = new BatchingMqttPublisher(configuration(10));
+        AtomicInteger onCount = new AtomicInteger();
+
+        publisher.setBackPressureListener(new BackPressureListener() {
+
+            @Override
+            public void onBackPressureOn(int queueDepth, int inFlightCount) {
+                onCount.incrementAndGet();
+            }
+
+            @Override
+            public void onBackPressureOff(int queueDepth, int inFlightCount) {
+            }
+        });
+
+        for(int i = 0; i < 7; i++)
+            publisher.publish(data());
+
+        assertFalse(publisher.isBackPressured());
+
+        for(int i = 0; i < 5; i++)
+            publisher.publish(data());
+
+        assertTrue(publisher.isBackPressured());
+        assertEquals(1, onCount.get());
+    }
+
+    @Test
+    public void ignoresIncompleteMessages() {
+
+        BatchingMqttPublisher publisher = new BatchingMqttPublisher(configuration(10));
+
+        assertFalse(publisher.publish(null));
+        assertFalse(publisher.publish(new MqttPipelineData(null, null, new byte[0], false)));
+        assertFalse(publisher.publish(new MqttPipelineData("telemetry/device001", null, null, false)));
+        assertEquals(0, publisher.getQueueDepth());
+        assertEquals(0, publisher.getRejectedCount());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsInvertedWatermarks() {
+        BatchingMqttPublisherConfiguration configuration = configuration(10);
+        configuration.setLowWatermark(0.9);
+        new BatchingMqttPublisher(configuration);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsAnInvalidQos() {
+        BatchingMqttPublisherConfiguration configuration = configuration(10);
+        configuration.setQos(3);
+        configuration.validate();
+    }
+}
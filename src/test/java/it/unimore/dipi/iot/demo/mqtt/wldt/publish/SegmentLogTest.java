@@ -0,0 +1,353 @@
+package it.unimore.dipi.iot.demo.mqtt.wldt.publish;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.RandomAccessFile;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Records of the tests have a 3 bytes topic and a 10 bytes payload: 24 bytes each (8 bytes header, 3 bytes body header),
+ * so a 100 bytes segment contains 4 records.
+ *
+ * @created: 18/10/2026
+ * @project: WLDT - MQTT Example
+ */
+public class SegmentLogTest {
+
+    private static final int RECORD_SIZE = 24;
+
+    private static final int SMALL_SEGMENT_SIZE = 100;
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private static byte[] topic(int index) {
+        return String.format("t/%d", index % 10).getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static byte[] payload(int index) {
+        return String.format("payload%03d", index).getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static void append(SegmentLog log, int from, int count) throws Exception {
+        for(int i = from; i < from + count; i++)
+            assertTrue(log.append(topic(i), payload(i), i % 2 == 0));
+    }
+
+    private static List<SegmentLog.StoredMessage> readAll(SegmentLog log, long position) {
+        List<SegmentLog.StoredMessage> messages = new ArrayList<>();
+        log.read(position, Integer.MAX_VALUE, messages);
+        return messages;
+    }
+
+    private static void assertMessage(int index, SegmentLog.StoredMessage message) {
+        assertEquals(new String(topic(index), StandardCharsets.UTF_8), message.getTopic());
+        assertArrayEquals(payload(index), message.getPayload());
+        assertEquals(index % 2 == 0, message.isRetained());
+    }
+
+    private static void corrupt(File file, long offset) throws Exception {
+        try(RandomAccessFile randomAccessFile = new RandomAccessFile(file, "rw")){
+            randomAccessFile.seek(offset);
+            int value = randomAccessFile.read();
+            randomAccessFile.seek(offset);
+            randomAccessFile.write(value ^ 0xFF);
+        }
+    }
+
+    private static File segmentFile(File directory, long index) {
+        return new File(directory, String.format("%020d.log", index));
+    }
+
+    @Test
+    public void appendedRecordsAreReadInOrder() throws Exception {
+
+        SegmentLog log = new SegmentLog(temporaryFolder.newFolder(), 1024, 4096, 0);
+        append(log, 0, 5);
+
+        List<SegmentLog.StoredMessage> messages = readAll(log, log.getCommittedPosition());
+
+        assertEquals(5, messages.size());
+        for(int i = 0; i < 5; i++)
+            assertMessage(i, messages.get(i));
+
+        assertEquals(SegmentLog.position(0, 5 * RECORD_SIZE), messages.get(4).getNextPosition());
+        assertEquals(log.getWritePosition(), messages.get(4).getNextPosition());
+        assertEquals(5, log.getBacklogCount());
+        assertEquals(5, log.getAppendedCount());
+
+        //The reader stops at maxRecords
+        List<SegmentLog.StoredMessage> firstTwo = new ArrayList<>();
+        assertEquals(messages.get(1).getNextPosition(), log.read(log.getCommittedPosition(), 2, firstTwo));
+        assertEquals(2, firstTwo.size());
+    }
+
+    @Test
+    public void recordsLargerThanASegmentAreRejected() throws Exception {
+
+        SegmentLog log = new SegmentLog(temporaryFolder.newFolder(), SMALL_SEGMENT_SIZE, 1024, 0);
+
+        assertFalse(log.append(topic(0), new byte[SMALL_SEGMENT_SIZE], false));
+        assertEquals(0, log.getAppendedCount());
+    }
+
+    @Test
+    public void recordsRollToANewSegment() throws Exception {
+
+        SegmentLog log = new SegmentLog(temporaryFolder.newFolder(), SMALL_SEGMENT_SIZE, 1024, 0);
+        append(log, 0, 10);
+
+        assertEquals(3, log.getSegmentCount());
+        assertEquals(SegmentLog.position(2, 2 * RECORD_SIZE), log.getWritePosition());
+
+        List<SegmentLog.StoredMessage> messages = readAll(log, log.getCommittedPosition());
+
+        assertEquals(10, messages.size());
+        for(int i = 0; i < 10; i++)
+            assertMessage(i, messages.get(i));
+    }
+
+    @Test
+    public void rollUsesThePreallocatedSegment() throws Exception {
+
+        File directory = temporaryFolder.newFolder();
+
+        SegmentLog log = new SegmentLog(directory, SMALL_SEGMENT_SIZE, 1024, 0);
+
+        assertTrue(log.preallocateNextSegment());
+        assertFalse(log.preallocateNextSegment());
+        assertTrue(segmentFile(directory, 1).isFile());
+        assertEquals(1, log.getSegmentCount());
+
+        append(log, 0, 5);
+
+        assertEquals(2, log.getSegmentCount());
+        assertEquals(SegmentLog.position(1, RECORD_SIZE), log.getWritePosition());
+
+        //The next roll is prepared again
+        assertTrue(log.preallocateNextSegment());
+        assertTrue(segmentFile(directory, 2).isFile());
+
+        log.force();
+        assertEquals(5, readAll(log, log.getCommittedPosition()).size());
+    }
+
+    @Test
+    public void unusedPreallocatedSegmentIsReusedAfterARestart() throws Exception {
+
+        File directory = temporaryFolder.newFolder();
+
+        SegmentLog log = new SegmentLog(directory, SMALL_SEGMENT_SIZE, 1024, 0);
+        append(log, 0, 2);
+        log.preallocateNextSegment();
+        log.close();
+
+        SegmentLog reopenedLog = new SegmentLog(directory, SMALL_SEGMENT_SIZE, 1024, 0);
+
+        //Appends continue in the segment of the recovered records
+        assertEquals(1, reopenedLog.getSegmentCount());
+        assertEquals(SegmentLog.position(0, 2 * RECORD_SIZE), reopenedLog.getWritePosition());
+        assertFalse(reopenedLog.preallocateNextSegment());
+
+        append(reopenedLog, 2, 3);
+
+        assertEquals(SegmentLog.position(1, RECORD_SIZE), reopenedLog.getWritePosition());
+
+        List<SegmentLog.StoredMessage> messages = readAll(reopenedLog, reopenedLog.getCommittedPosition());
+        assertEquals(5, messages.size());
+        for(int i = 0; i < 5; i++)
+            assertMessage(i, messages.get(i));
+    }
+
+    @Test
+    public void segmentWithATornFirstRecordIsKeptAfterARestart() throws Exception {
+
+        File directory = temporaryFolder.newFolder();
+
+        SegmentLog log = new SegmentLog(directory, SMALL_SEGMENT_SIZE, 1024, 0);
+        append(log, 0, 5);
+        log.close();
+
+        //Crash while writing the first record after the roll: the length is not written yet
+        try(RandomAccessFile randomAccessFile = new RandomAccessFile(segmentFile(directory, 1), "rw")){
+            randomAccessFile.writeInt(0);
+        }
+
+        SegmentLog reopenedLog = new SegmentLog(directory, SMALL_SEGMENT_SIZE, 1024, 0);
+
+        //The previous segment has been sealed by the roll: the empty segment is still the active one
+        assertEquals(2, reopenedLog.getSegmentCount());
+        assertEquals(SegmentLog.position(1, 0), reopenedLog.getWritePosition());
+        assertEquals(4, readAll(reopenedLog, reopenedLog.getCommittedPosition()).size());
+    }
+
+    @Test
+    public void checkpointIsRecoveredAfterARestart() throws Exception {
+
+        File directory = temporaryFolder.newFolder();
+
+        SegmentLog log = new SegmentLog(directory, SMALL_SEGMENT_SIZE, 1024, 0);
+        append(log, 0, 6);
+
+        List<SegmentLog.StoredMessage> delivered = new ArrayList<>();
+        long position = log.read(log.getCommittedPosition(), 5, delivered);
+        log.commit(position, delivered.size());
+        log.close();
+
+        SegmentLog reopenedLog = new SegmentLog(directory, SMALL_SEGMENT_SIZE, 1024, 0);
+
+        assertEquals(position, reopenedLog.getCommittedPosition());
+        assertEquals(1, reopenedLog.getBacklogCount());
+
+        List<SegmentLog.StoredMessage> replayed = readAll(reopenedLog, reopenedLog.getCommittedPosition());
+        assertEquals(1, replayed.size());
+        assertMessage(5, replayed.get(0));
+
+        //Appends continue after the recovered records
+        append(reopenedLog, 6, 1);
+        assertEquals(2, readAll(reopenedLog, reopenedLog.getCommittedPosition()).size());
+    }
+
+    @Test
+    public void tornCheckpointReplaysAllTheRecords() throws Exception {
+
+        File directory = temporaryFolder.newFolder();
+
+        SegmentLog log = new SegmentLog(directory, 1024, 4096, 0);
+        append(log, 0, 3);
+        log.commit(SegmentLog.position(0, 2 * RECORD_SIZE), 2);
+        log.close();
+
+        //The checkpoint check value does not match the committed position anymore
+        corrupt(new File(directory, "checkpoint"), 12);
+
+        SegmentLog reopenedLog = new SegmentLog(directory, 1024, 4096, 0);
+
+        assertEquals(SegmentLog.position(0, 0), reopenedLog.getCommittedPosition());
+        assertEquals(3, reopenedLog.getBacklogCount());
+    }
+
+    @Test
+    public void tornTailIsDiscardedWhenTheLogIsOpened() throws Exception {
+
+        File directory = temporaryFolder.newFolder();
+
+        SegmentLog log = new SegmentLog(directory, 1024, 4096, 0);
+        append(log, 0, 3);
+        log.close();
+
+        //Last record with a payload byte not written: the CRC does not match
+        corrupt(segmentFile(directory, 0), 2 * RECORD_SIZE + 8 + 6);
+
+        SegmentLog reopenedLog = new SegmentLog(directory, 1024, 4096, 0);
+
+        assertEquals(SegmentLog.position(0, 2 * RECORD_SIZE), reopenedLog.getWritePosition());
+        assertEquals(2, reopenedLog.getBacklogCount());
+
+        //The torn record is overwritten by the next append
+        append(reopenedLog, 3, 1);
+
+        List<SegmentLog.StoredMessage> messages = readAll(reopenedLog, reopenedLog.getCommittedPosition());
+        assertEquals(3, messages.size());
+        assertMessage(0, messages.get(0));
+        assertMessage(1, messages.get(1));
+        assertMessage(3, messages.get(2));
+        assertEquals(0, reopenedLog.getCorruptedCount());
+    }
+
+    @Test
+    public void recordWithALengthAndNoBodyIsDiscarded() throws Exception {
+
+        File directory = temporaryFolder.newFolder();
+
+        SegmentLog log = new SegmentLog(directory, 1024, 4096, 0);
+        append(log, 0, 1);
+        log.close();
+
+        //Crash after writing the length of the next record: the body and the CRC are still zero
+        try(RandomAccessFile randomAccessFile = new RandomAccessFile(segmentFile(directory, 0), "rw")){
+            randomAccessFile.seek(RECORD_SIZE);
+            randomAccessFile.writeInt(16);
+        }
+
+        SegmentLog reopenedLog = new SegmentLog(directory, 1024, 4096, 0);
+
+        assertEquals(SegmentLog.position(0, RECORD_SIZE), reopenedLog.getWritePosition());
+        assertEquals(1, readAll(reopenedLog, reopenedLog.getCommittedPosition()).size());
+    }
+
+    @Test
+    public void corruptedRecordsSkipTheRestOfTheirSegment() throws Exception {
+
+        File directory = temporaryFolder.newFolder();
+
+        SegmentLog log = new SegmentLog(directory, SMALL_SEGMENT_SIZE, 1024, 0);
+        append(log, 0, 8);
+        log.close();
+
+        //Second record of the first (not active) segment
+        corrupt(segmentFile(directory, 0), RECORD_SIZE + 8 + 6);
+
+        SegmentLog reopenedLog = new SegmentLog(directory, SMALL_SEGMENT_SIZE, 1024, 0);
+        List<SegmentLog.StoredMessage> messages = readAll(reopenedLog, reopenedLog.getCommittedPosition());
+
+        assertEquals(5, messages.size());
+        assertMessage(0, messages.get(0));
+        assertMessage(4, messages.get(1));
+        assertEquals(1, reopenedLog.getCorruptedCount());
+    }
+
+    @Test
+    public void retainedBytesLimitExpiresTheOldestSegment() throws Exception {
+
+        SegmentLog log = new SegmentLog(temporaryFolder.newFolder(), SMALL_SEGMENT_SIZE, 2 * SMALL_SEGMENT_SIZE, 0);
+        append(log, 0, 12);
+
+        //The retention is not enforced by the appends
+        assertEquals(3, log.getSegmentCount());
+        log.enforceRetention();
+
+        assertEquals(2, log.getSegmentCount());
+        assertEquals(4, log.getExpiredCount());
+        assertEquals(8, log.getBacklogCount());
+        assertEquals(SegmentLog.position(1, 0), log.getCommittedPosition());
+
+        //A reader positioned on a deleted segment moves to the oldest one
+        List<SegmentLog.StoredMessage> messages = readAll(log, SegmentLog.position(0, 0));
+        assertEquals(8, messages.size());
+        assertMessage(4, messages.get(0));
+    }
+
+    @Test
+    public void retentionTimeDeletesTheOldSegments() throws Exception {
+
+        SegmentLog log = new SegmentLog(temporaryFolder.newFolder(), SMALL_SEGMENT_SIZE, 1024, 1);
+        append(log, 0, 6);
+
+        List<SegmentLog.StoredMessage> delivered = readAll(log, log.getCommittedPosition());
+        log.commit(delivered.get(delivered.size() - 1).getNextPosition(), delivered.size());
+
+        Thread.sleep(20);
+        log.enforceRetention();
+
+        //Delivered records are not counted as expired and the active segment is kept
+        assertEquals(1, log.getSegmentCount());
+        assertEquals(0, log.getExpiredCount());
+        assertEquals(0, log.getBacklogCount());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void retainedBytesMustContainASegment() throws Exception {
+        new SegmentLog(temporaryFolder.newFolder(), 1024, 512, 0);
+    }
+}
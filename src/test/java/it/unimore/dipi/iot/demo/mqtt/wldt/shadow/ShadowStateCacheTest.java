@@ -0,0 +1,78 @@
+package it.unimore.dipi.iot.demo.mqtt.wldt.shadow;
+
+import it.unimore.dipi.iot.wldt.exception.WldtCacheException;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+/**
+ * @created: 18/10/2026
+ * @project: WLDT - MQTT Example
+ */
+public class ShadowStateCacheTest {
+
+    @Test
+    public void statesAreCreatedOnce() {
+
+        ShadowStateCache cache = new ShadowStateCache(10);
+        ShadowState state = cache.getOrCreate("device001/temperature");
+
+        assertSame(state, cache.getOrCreate("device001/temperature"));
+        assertSame(state, cache.get("device001/temperature"));
+        assertEquals("device001/temperature", state.getKey());
+        assertNull(cache.getOrCreate(null));
+        assertNull(cache.get("unknown"));
+        assertEquals(1, cache.size());
+    }
+
+    @Test
+    public void newKeysAreRejectedWhenTheCacheIsFull() throws WldtCacheException {
+
+        ShadowStateCache cache = new ShadowStateCache(2);
+
+        cache.getOrCreate("a");
+        cache.getOrCreate("b");
+
+        assertNull(cache.getOrCreate("c"));
+        assertNotNull(cache.getOrCreate("a"));
+
+        try{
+            cache.putData("d", new ShadowState("d"));
+            throw new AssertionError("State added to a full cache");
+        }catch (WldtCacheException e){
+            //Expected
+        }
+
+        //Replacing an existing key is allowed
+        ShadowState replacement = new ShadowState("a");
+        cache.putData("a", replacement);
+        assertSame(replacement, cache.getData("a").get());
+
+        assertEquals(2, cache.getRejectedCount());
+        assertEquals(2, cache.size());
+    }
+
+    @Test
+    public void removeAndDelete() throws WldtCacheException {
+
+        ShadowStateCache cache = new ShadowStateCache();
+        cache.getOrCreate("a");
+        cache.getOrCreate("b");
+
+        cache.removeData("a");
+        assertFalse(cache.getData("a").isPresent());
+        assertEquals(1, cache.getStates().size());
+
+        cache.delete();
+        assertEquals(0, cache.size());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void maxEntriesMustBePositive() {
+        new ShadowStateCache(0);
+    }
+}
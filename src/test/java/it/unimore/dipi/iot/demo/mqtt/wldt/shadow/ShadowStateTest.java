@@ -0,0 +1,108 @@
+package it.unimore.dipi.iot.demo.mqtt.wldt.shadow;
+
+import org.junit.Test;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @created: 18/10/2026
+ * @project: WLDT - MQTT Example
+ */
+public class ShadowStateTest {
+
+    private static final String TOPIC = "wldt/telemetry/device001/resource/temperature";
+
+    private static boolean update(ShadowState state, String payload, long timestamp, DeadbandConfiguration deadband) {
+        double value;
+        try{
+            value = Double.parseDouble(payload);
+        }catch (NumberFormatException e){
+            value = Double.NaN;
+        }
+        return state.update(TOPIC, payload.getBytes(StandardCharsets.UTF_8), value, false, timestamp, deadband);
+    }
+
+    @Test
+    public void defaultDeadbandSuppressesOnlyRepeatedValues() {
+
+        ShadowState state = new ShadowState(TOPIC);
+        DeadbandConfiguration deadband = new DeadbandConfiguration();
+
+        assertTrue(update(state, "23.5", 1000, deadband));
+        assertFalse(update(state, "23.5", 2000, deadband));
+        assertFalse(update(state, "23.50", 3000, deadband));
+        assertTrue(update(state, "23.6", 4000, deadband));
+
+        assertEquals(4, state.getSequence());
+        assertEquals(23.6, state.getPublishedValue(), 0.0);
+        assertEquals(4000, state.getPublishedTimestamp());
+    }
+
+    @Test
+    public void absoluteDeadbandIsMeasuredFromThePublishedValue() {
+
+        ShadowState state = new ShadowState(TOPIC);
+        DeadbandConfiguration deadband = DeadbandConfiguration.absolute(0.5);
+
+        assertTrue(update(state, "20.0", 1000, deadband));
+        assertFalse(update(state, "20.3", 2000, deadband));
+        assertFalse(update(state, "20.5", 3000, deadband));
+        //Slow drift: still compared with 20.0
+        assertTrue(update(state, "20.6", 4000, deadband));
+
+        //The last received value is stored even if not published
+        assertEquals(20.6, state.getValue(), 0.0);
+        assertEquals(20.6, state.getPublishedValue(), 0.0);
+    }
+
+    @Test
+    public void relativeDeadbandScalesWithTheValue() {
+
+        ShadowState state = new ShadowState(TOPIC);
+        DeadbandConfiguration deadband = DeadbandConfiguration.relative(0.01);
+
+        assertTrue(update(state, "1000", 1000, deadband));
+        assertFalse(update(state, "1009", 2000, deadband));
+        assertTrue(update(state, "1011", 3000, deadband));
+    }
+
+    @Test
+    public void valuesArePublishedAfterTheMaxSilence() {
+
+        ShadowState state = new ShadowState(TOPIC);
+        DeadbandConfiguration deadband = DeadbandConfiguration.absolute(1.0).withMaxSilenceMs(10000);
+
+        assertTrue(update(state, "20.0", 0, deadband));
+        assertFalse(update(state, "20.1", 9999, deadband));
+        assertTrue(update(state, "20.1", 10000, deadband));
+        assertFalse(update(state, "20.1", 15000, deadband));
+    }
+
+    @Test
+    public void nonNumericPayloadsArePublishedWhenTheyChange() {
+
+        ShadowState state = new ShadowState(TOPIC);
+        DeadbandConfiguration deadband = DeadbandConfiguration.absolute(100.0);
+
+        assertTrue(update(state, "on", 1000, deadband));
+        assertFalse(update(state, "on", 2000, deadband));
+        assertTrue(update(state, "off", 3000, deadband));
+        //From a non numeric payload to a number
+        assertTrue(update(state, "1", 4000, deadband));
+        assertTrue(Double.isNaN(new ShadowState(TOPIC).getValue()));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void negativeDeadbandsAreNotValid() {
+        DeadbandConfiguration.absolute(-1.0).validate();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void nanDeadbandsAreNotValid() {
+        DeadbandConfiguration.relative(Double.NaN).validate();
+    }
+}
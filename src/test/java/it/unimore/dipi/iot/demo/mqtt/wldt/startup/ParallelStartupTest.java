@@ -0,0 +1,102 @@
+package it.unimore.dipi.iot.demo.mqtt.wldt.startup;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * @created: 18/10/2026
+ * @project: WLDT - MQTT Example
+ */
+public class ParallelStartupTest {
+
+    private final StartupReport startupReport = new StartupReport(System.currentTimeMillis());
+
+    @Test
+    public void tasksRunInParallel() throws Exception {
+
+        ParallelStartup parallelStartup = new ParallelStartup("test", startupReport);
+        CountDownLatch allStarted = new CountDownLatch(3);
+
+        //Each task completes only when all of them are running
+        Future<?>[] futures = new Future<?>[3];
+        for(int i = 0; i < futures.length; i++){
+            int taskIndex = i;
+            futures[i] = parallelStartup.submit("task" + i, () -> {
+                allStarted.countDown();
+                assertTrue(allStarted.await(5, TimeUnit.SECONDS));
+                return taskIndex;
+            });
+        }
+
+        parallelStartup.awaitAll(10000);
+
+        for(int i = 0; i < futures.length; i++){
+            assertEquals(i, futures[i].get());
+            assertTrue(startupReport.getPhaseMs("test.task" + i) >= 0);
+        }
+    }
+
+    @Test
+    public void firstFailureIsReported() {
+
+        ParallelStartup parallelStartup = new ParallelStartup("test", startupReport);
+
+        parallelStartup.submit("connect", () -> {
+            throw new IOException("connection refused");
+        });
+
+        try{
+            parallelStartup.awaitAll(10000);
+            fail("Failed task not reported");
+        }catch (Exception e){
+            assertTrue(e.getMessage().contains("test.connect"));
+            assertTrue(e.getCause() instanceof IOException);
+        }
+
+        assertEquals(-1, startupReport.getPhaseMs("test.connect"));
+    }
+
+    @Test
+    public void slowTaskTimesOut() throws Exception {
+
+        ParallelStartup parallelStartup = new ParallelStartup("test", startupReport);
+        CountDownLatch interrupted = new CountDownLatch(1);
+
+        parallelStartup.submit("slow", () -> {
+            try{
+                Thread.sleep(10000);
+            }catch (InterruptedException e){
+                interrupted.countDown();
+            }
+            return null;
+        });
+
+        long start = System.nanoTime();
+
+        try{
+            parallelStartup.awaitAll(50);
+            fail("Slow task not reported");
+        }catch (TimeoutException e){
+            assertTrue(e.getMessage().contains("test.slow"));
+        }
+
+        assertTrue(System.nanoTime() - start < TimeUnit.SECONDS.toNanos(5));
+
+        //The startup threads are released
+        assertTrue(interrupted.await(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void awaitWithoutTasksReturnsImmediately() throws Exception {
+        new ParallelStartup("test", startupReport).awaitAll(0);
+    }
+}
@@ -0,0 +1,61 @@
+package it.unimore.dipi.iot.demo.mqtt.wldt.startup;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @created: 18/10/2026
+ * @project: WLDT - MQTT Example
+ */
+public class StartupReportTest {
+
+    @Test
+    public void phasesAreMeasuredFromTheLaunch() {
+
+        StartupReport startupReport = new StartupReport(System.currentTimeMillis() - 1000);
+
+        long elapsedMs = startupReport.mark("brokerConnected");
+
+        assertTrue(elapsedMs >= 1000);
+        assertEquals(elapsedMs, startupReport.getPhaseMs("brokerConnected"));
+        assertEquals(-1, startupReport.getPhaseMs("unknown"));
+        assertEquals(-1, startupReport.getReadyMs());
+
+        startupReport.markReady();
+
+        assertTrue(startupReport.getReadyMs() >= elapsedMs);
+        assertEquals(startupReport.getReadyMs(), startupReport.getPhaseMs("ready"));
+    }
+
+    @Test
+    public void onlyTheFirstForwardedMessageIsRecorded() throws InterruptedException {
+
+        StartupReport startupReport = new StartupReport(System.currentTimeMillis());
+        assertEquals(-1, startupReport.getFirstMessageForwardedMs());
+
+        startupReport.onMessageForwarded();
+        long firstMessageForwardedMs = startupReport.getFirstMessageForwardedMs();
+        assertTrue(firstMessageForwardedMs >= 0);
+
+        Thread.sleep(20);
+        startupReport.onMessageForwarded();
+
+        assertEquals(firstMessageForwardedMs, startupReport.getFirstMessageForwardedMs());
+        assertEquals(firstMessageForwardedMs, startupReport.getPhaseMs("firstMessageForwarded"));
+    }
+
+    @Test
+    public void reportListsThePhasesInCompletionOrder() {
+
+        StartupReport startupReport = new StartupReport(System.currentTimeMillis());
+
+        startupReport.mark("b");
+        startupReport.mark("a");
+
+        String report = startupReport.toString();
+        assertTrue(report.startsWith("StartupReport{b="));
+        assertTrue(report.indexOf("b=") < report.indexOf(", a="));
+    }
+}
@@ -0,0 +1,193 @@
+package it.unimore.dipi.iot.demo.mqtt.wldt.state;
+
+import it.unimore.dipi.iot.wldt.worker.mqtt.MqttPipelineData;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @created: 18/10/2026
+ * @project: WLDT - MQTT Example
+ */
+public class TopicStateStoreTest {
+
+    @Test
+    public void createsOneStateForEachKey() {
+
+        TopicStateStore<StringBuilder> store = new TopicStateStore<>(StringBuilder::new);
+
+        StringBuilder first = store.getOrCreate("telemetry/device001");
+
+        assertEquals("telemetry/device001", first.toString());
+        assertSame(first, store.getOrCreate("telemetry/device001"));
+        assertSame(first, store.get("telemetry/device001"));
+        assertNull(store.get("telemetry/device002"));
+        assertNull(store.getOrCreate(null));
+        assertEquals(1, store.size());
+
+        assertSame(first, store.remove("telemetry/device001"));
+        assertNull(store.remove("telemetry/device001"));
+        assertEquals(0, store.size());
+    }
+
+    @Test
+    public void rejectsNewKeysWhenFull() {
+
+        TopicStateStore<Object> store = new TopicStateStore<>(key -> new Object(), 2, 60000, 4);
+
+        assertNotNull(store.getOrCreate("a"));
+        assertNotNull(store.getOrCreate("b"));
+        assertNull(store.getOrCreate("c"));
+
+        //Existing states are still returned
+        assertNotNull(store.getOrCreate("a"));
+        assertEquals(2, store.size());
+    }
+
+    @Test
+    public void evictsIdleStatesAndNotifiesTheListener() throws InterruptedException {
+
+        TopicStateStore<Object> store = new TopicStateStore<>(key -> new Object(), 10, 1, 4);
+        List<String> evictedKeys = new ArrayList<>();
+        store.setEvictionListener((key, state) -> evictedKeys.add(key));
+
+        store.getOrCreate("a");
+        store.getOrCreate("b");
+        Thread.sleep(20);
+
+        assertEquals(2, store.evictIdle());
+        assertEquals(0, store.size());
+        assertEquals(2, evictedKeys.size());
+        assertTrue(evictedKeys.contains("a") && evictedKeys.contains("b"));
+    }
+
+    @Test
+    public void makesRoomEvictingIdleStates() throws InterruptedException {
+
+        TopicStateStore<Object> store = new TopicStateStore<>(key -> new Object(), 1, 1, 1);
+
+        store.getOrCreate("a");
+        Thread.sleep(20);
+
+        assertNotNull(store.getOrCreate("b"));
+        assertNull(store.get("a"));
+        assertEquals(1, store.size());
+    }
+
+    @Test
+    public void concurrentCallersShareTheSameState() throws Exception {
+
+        AtomicInteger createdCount = new AtomicInteger();
+        TopicStateStore<Object> store = new TopicStateStore<>(key -> {
+            createdCount.incrementAndGet();
+            return new Object();
+        });
+
+        int threadCount = 8;
+        ExecutorService executorService = Executors.newFixedThreadPool(threadCount);
+        CountDownLatch startLatch = new CountDownLatch(1);
+        List<Future<Object>> futures = new ArrayList<>();
+
+        try{
+            for(int i = 0; i < threadCount; i++)
+                futures.add(executorService.submit(() -> {
+                    startLatch.await();
+                    Object state = null;
+                    for(int key = 0; key < 1000; key++)
+                        state = store.getOrCreate("key" + key);
+                    return state;
+                }));
+
+            startLatch.countDown();
+
+            Object lastState = futures.get(0).get(10, TimeUnit.SECONDS);
+            for(Future<Object> future : futures)
+                assertSame(lastState, future.get(10, TimeUnit.SECONDS));
+
+        }finally {
+            executorService.shutdownNow();
+        }
+
+        assertEquals(1000, createdCount.get());
+        assertEquals(1000, store.size());
+    }
+
+    @Test
+    public void concurrentInsertionsDoNotExceedTheLimit() throws Exception {
+
+        TopicStateStore<Object> store = new TopicStateStore<>(key -> new Object(), 100, 60000, 4);
+
+        int threadCount = 8;
+        ExecutorService executorService = Executors.newFixedThreadPool(threadCount);
+        CountDownLatch startLatch = new CountDownLatch(1);
+        List<Future<Integer>> futures = new ArrayList<>();
+
+        try{
+            for(int i = 0; i < threadCount; i++){
+                int thread = i;
+                futures.add(executorService.submit(() -> {
+                    startLatch.await();
+                    int created = 0;
+                    for(int key = 0; key < 1000; key++)
+                        if(store.getOrCreate("thread" + thread + "/key" + key) != null)
+                            created++;
+                    return created;
+                }));
+            }
+
+            startLatch.countDown();
+
+            int createdCount = 0;
+            for(Future<Integer> future : futures)
+                createdCount += future.get(10, TimeUnit.SECONDS);
+
+            assertEquals(100, createdCount);
+
+        }finally {
+            executorService.shutdownNow();
+        }
+
+        assertEquals(100, store.size());
+    }
+
+    @Test
+    public void closeRemovesAllTheStates() {
+
+        TopicStateStore<Object> store = new TopicStateStore<>(key -> new Object());
+        store.startEviction(TopicStateStore.DEFAULT_EVICTION_PERIOD_MS);
+        store.getOrCreate("a");
+        store.close();
+
+        assertEquals(0, store.size());
+        assertNull(store.get("a"));
+    }
+
+    @Test
+    public void extractsTheKeyFromTheTopicSegments() {
+
+        MqttPipelineData data = new MqttPipelineData("telemetry/device001/resource/temperature", null, new byte[0], false);
+
+        assertEquals("telemetry/device001/resource/temperature", StateKeyExtractor.byTopic().extractKey(data));
+        assertEquals("device001/temperature", StateKeyExtractor.byTopicSegments(1, 3).extractKey(data));
+        assertEquals("device001", StateKeyExtractor.byTopicSegments(1).extractKey(data));
+        assertEquals("temperature", StateKeyExtractor.byTopicSegments(3).extractKey(data));
+        assertEquals("temperature/device001", StateKeyExtractor.byTopicSegments(3, 1).extractKey(data));
+        assertEquals("", StateKeyExtractor.byTopicSegments().extractKey(data));
+        assertNull(StateKeyExtractor.byTopicSegments(1, 4).extractKey(data));
+        assertNull(StateKeyExtractor.byTopicSegments(-1).extractKey(data));
+        assertNull(StateKeyExtractor.byResourceId().extractKey(data));
+    }
+}
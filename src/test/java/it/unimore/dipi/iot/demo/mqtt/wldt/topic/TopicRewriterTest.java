@@ -0,0 +1,80 @@
+package it.unimore.dipi.iot.demo.mqtt.wldt.topic;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+/**
+ * @created: 18/10/2026
+ * @project: WLDT - MQTT Example
+ */
+public class TopicRewriterTest {
+
+    @Test
+    public void prefixAndSuffixAddATopicLevel() {
+
+        assertEquals("pipeline/telemetry/device01", TopicRewriteRule.prefix("pipeline").apply("telemetry/device01"));
+        assertEquals("pipeline/telemetry/device01", TopicRewriteRule.prefix("pipeline/").apply("telemetry/device01"));
+        assertEquals("telemetry/device01/average", TopicRewriteRule.suffix("average").apply("telemetry/device01"));
+        assertEquals("telemetry/device01/average", TopicRewriteRule.suffix("/average").apply("telemetry/device01"));
+    }
+
+    @Test
+    public void segmentReplacesOnlyTheWholeAnchoredLevel() {
+
+        TopicRewriteRule rule = TopicRewriteRule.segment(0, "command", "cmd");
+
+        assertEquals("cmd/device01", rule.apply("command/device01"));
+        assertEquals("cmd", rule.apply("command"));
+        assertEquals("device01/command/x", rule.apply("device01/command/x"));
+        assertEquals("commands/device01", rule.apply("commands/device01"));
+
+        TopicRewriteRule secondLevel = TopicRewriteRule.segment(1, "resource", "r");
+
+        assertEquals("device01/r/temperature", secondLevel.apply("device01/resource/temperature"));
+        assertEquals("device01", secondLevel.apply("device01"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void segmentRejectsMultiLevelValues() {
+        TopicRewriteRule.segment(0, "command/device01", "cmd");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void prefixRejectsEmptyValues() {
+        TopicRewriteRule.prefix("");
+    }
+
+    @Test
+    public void rulesAreAppliedInOrderAndCached() {
+
+        TopicRewriter rewriter = new TopicRewriter(TopicRewriteRule.segment(0, "telemetry", "twin"), TopicRewriteRule.suffix("state"));
+
+        String rewritten = rewriter.rewrite("telemetry/device01");
+
+        assertEquals("twin/device01/state", rewritten);
+        assertEquals(1, rewriter.getCacheSize());
+        assertSame(rewritten, rewriter.rewrite("telemetry/device01"));
+        assertNull(rewriter.rewrite(null));
+    }
+
+    @Test
+    public void cacheIsClearedWhenFull() {
+
+        TopicRewriter rewriter = new TopicRewriter(2, TopicRewriteRule.suffix("state"));
+
+        rewriter.rewrite("device01");
+        rewriter.rewrite("device02");
+        assertEquals(2, rewriter.getCacheSize());
+
+        assertEquals("device03/state", rewriter.rewrite("device03"));
+        assertEquals(1, rewriter.getCacheSize());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rulesAreRequired() {
+        new TopicRewriter();
+    }
+}
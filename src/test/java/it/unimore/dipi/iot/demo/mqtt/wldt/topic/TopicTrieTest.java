@@ -0,0 +1,224 @@
+package it.unimore.dipi.iot.demo.mqtt.wldt.topic;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @created: 18/10/2026
+ * @project: WLDT - MQTT Example
+ */
+public class TopicTrieTest {
+
+    private final TopicTrie<String> trie = new TopicTrie<>();
+
+    private final TopicMatch<String> result = new TopicMatch<>();
+
+    private Set<String> match(String topic) {
+        Set<String> values = new HashSet<>();
+        trie.match(topic, result);
+        for(int i = 0; i < result.size(); i++)
+            values.add(result.getValue(i));
+        return values;
+    }
+
+    private static Set<String> setOf(String... values) {
+        Set<String> set = new HashSet<>();
+        for(String value : values)
+            set.add(value);
+        return set;
+    }
+
+    @Test
+    public void literalPatterns() {
+
+        trie.add("telemetry/device01/temperature", "literal");
+
+        assertEquals(setOf("literal"), match("telemetry/device01/temperature"));
+        assertEquals(setOf(), match("telemetry/device01"));
+        assertEquals(setOf(), match("telemetry/device01/temperature/extra"));
+        assertEquals(setOf(), match("telemetry/device02/temperature"));
+    }
+
+    @Test
+    public void singleLevelWildcard() {
+
+        trie.add("telemetry/+/temperature", "single");
+        trie.add("+", "root");
+
+        assertEquals(setOf("single"), match("telemetry/device01/temperature"));
+        assertEquals(setOf("single"), match("telemetry//temperature"));
+        assertEquals(setOf(), match("telemetry/a/b/temperature"));
+        assertEquals(setOf("root"), match("telemetry"));
+        assertEquals(setOf(), match("telemetry/device01"));
+    }
+
+    @Test
+    public void multiLevelWildcardAlsoMatchesTheParentLevel() {
+
+        trie.add("sensors/#", "sensors");
+        trie.add("#", "all");
+
+        assertEquals(setOf("sensors", "all"), match("sensors"));
+        assertEquals(setOf("sensors", "all"), match("sensors/a/b/c"));
+        assertEquals(setOf("all"), match("actuators/a"));
+    }
+
+    @Test
+    public void systemTopicsAreNotMatchedByFirstLevelWildcards() {
+
+        trie.add("#", "all");
+        trie.add("+/broker/clients", "single");
+        trie.add("$SYS/#", "system");
+        trie.add("$SYS/broker/+", "systemSingle");
+
+        assertEquals(setOf("system", "systemSingle"), match("$SYS/broker/clients"));
+        assertEquals(setOf("all", "single"), match("SYS/broker/clients"));
+    }
+
+    @Test
+    public void literalLevelsComeBeforeWildcards() {
+
+        trie.add("telemetry/#", "multi");
+        trie.add("telemetry/+/temperature", "single");
+        trie.add("telemetry/device01/temperature", "literal");
+
+        trie.match("telemetry/device01/temperature", result);
+
+        assertEquals(3, result.size());
+        assertEquals("literal", result.getValue(0));
+        assertEquals("single", result.getValue(1));
+        assertEquals("multi", result.getValue(2));
+    }
+
+    @Test
+    public void placeholdersCaptureTheirLevel() {
+
+        trie.add("telemetry/{{device_id}}/resource/{{resource_id}}", "template");
+
+        assertEquals(1, trie.match("telemetry/device01/resource/humidity", result));
+        assertEquals("device01", result.getVariable(0, "device_id"));
+        assertEquals("humidity", result.getVariable(0, "resource_id"));
+        assertNull(result.getVariable(0, "unknown"));
+        assertTrue(result.variableEquals(0, "device_id", "device01"));
+        assertFalse(result.variableEquals(0, "device_id", "device0"));
+        assertEquals(2, result.getEntry(0).getVariableNames().length);
+    }
+
+    @Test
+    public void sameValueIsRegisteredOncePerPattern() {
+
+        assertTrue(trie.add("a/+", "value"));
+        assertFalse(trie.add("a/+", "value"));
+        assertTrue(trie.add("a/+", "other"));
+        assertTrue(trie.add("a/#", "value"));
+
+        assertEquals(3, trie.size());
+        assertEquals(3, trie.entries().size());
+    }
+
+    @Test
+    public void removeDropsTheEmptyNodes() {
+
+        trie.add("a/b/c", "abc");
+        trie.add("a/+/d", "ad");
+        trie.add("x/#", "x");
+
+        assertTrue(trie.remove("a/b/c", "abc"));
+        assertFalse(trie.remove("a/b/c", "abc"));
+        assertFalse(trie.remove("a/+/d", "other"));
+        assertEquals(setOf(), match("a/b/c"));
+        assertEquals(setOf("ad"), match("a/b/d"));
+
+        assertTrue(trie.remove("a/+/d", "ad"));
+        assertTrue(trie.remove("x/#", "x"));
+
+        assertEquals(0, trie.size());
+        assertTrue(trie.isEmpty());
+    }
+
+    @Test
+    public void manyLiteralChildrenGrowAndShrinkTheTable() {
+
+        for(int i = 0; i < 1000; i++)
+            trie.add("devices/device" + i, "device" + i);
+
+        for(int i = 0; i < 1000; i++)
+            assertEquals(setOf("device" + i), match("devices/device" + i));
+
+        for(int i = 0; i < 1000; i += 2)
+            assertTrue(trie.remove("devices/device" + i, "device" + i));
+
+        for(int i = 0; i < 1000; i++)
+            assertEquals(i % 2 == 0 ? setOf() : setOf("device" + i), match("devices/device" + i));
+    }
+
+    @Test
+    public void invalidPatterns() {
+
+        String[] patterns = { "", "a/#/b", "a/b+", "a/#b", "a/{{x}}y", "a/{{x}}/{{x}}" };
+
+        for(String pattern : patterns){
+            try{
+                trie.add(pattern, "value");
+                throw new AssertionError("Pattern accepted: " + pattern);
+            }catch (IllegalArgumentException e){
+                //Expected
+            }
+        }
+
+        assertEquals(0, trie.size());
+    }
+
+    @Test
+    public void lookupsDuringConcurrentUpdates() throws InterruptedException {
+
+        trie.add("telemetry/+/temperature", "stable");
+
+        AtomicBoolean running = new AtomicBoolean(true);
+        AtomicReference<String> failure = new AtomicReference<>();
+        CountDownLatch started = new CountDownLatch(2);
+        List<Thread> readers = new ArrayList<>();
+
+        for(int r = 0; r < 2; r++){
+            Thread reader = new Thread(() -> {
+                TopicMatch<String> readerMatch = new TopicMatch<>();
+                started.countDown();
+                while(running.get()){
+                    int size = trie.match("telemetry/device01/temperature", readerMatch);
+                    //The stable route is always visible, the updated one may or may not be
+                    if(size < 1 || size > 2 || !readerMatch.getValue(size - 1).equals("stable"))
+                        failure.set(readerMatch.toString());
+                }
+            });
+            readers.add(reader);
+            reader.start();
+        }
+
+        started.await();
+
+        for(int i = 0; i < 20000; i++){
+            trie.add("telemetry/device01/temperature", "updated");
+            trie.add("telemetry/device" + (i % 500) + "/humidity", "filler");
+            trie.remove("telemetry/device01/temperature", "updated");
+        }
+
+        running.set(false);
+        for(Thread reader : readers)
+            reader.join();
+
+        assertNull(failure.get());
+        assertEquals(501, trie.size());
+    }
+}
@@ -0,0 +1,121 @@
+package it.unimore.dipi.iot.demo.mqtt.wldt.topology;
+
+import it.unimore.dipi.iot.wldt.worker.mqtt.MqttTopicDescriptor;
+import org.junit.Test;
+
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * @created: 18/10/2026
+ * @project: WLDT - MQTT Example
+ */
+public class TopologyConfigurationTest {
+
+    static TopicDefinition topic(String id, String topic, StepDefinition... steps) {
+        TopicDefinition topicDefinition = new TopicDefinition();
+        topicDefinition.setId(id);
+        topicDefinition.setResourceId(id);
+        topicDefinition.setTopic(topic);
+        topicDefinition.setSteps(new ArrayList<>(Arrays.asList(steps)));
+        return topicDefinition;
+    }
+
+    static TopologyConfiguration configuration(TopicDefinition... topics) {
+        TopologyConfiguration configuration = new TopologyConfiguration();
+        configuration.setDeviceId("com:iot:dummy:dummyMqttDevice001");
+        configuration.setTopics(new ArrayList<>(Arrays.asList(topics)));
+        return configuration;
+    }
+
+    @Test
+    public void bundledTopologyIsLoaded() throws Exception {
+
+        TopologyConfiguration configuration = TopologyConfiguration.fromYamlFile(Paths.get(getClass().getResource("/topology.yaml").toURI()).toString());
+        configuration.validate();
+
+        assertEquals("com:iot:dummy:dummyMqttDevice001", configuration.getDeviceId());
+        assertEquals(3, configuration.getTopics().size());
+
+        TopicDefinition temperature = configuration.getTopic("temperature_topic");
+        List<StepDefinition> steps = temperature.getSteps();
+
+        //A step without parameters can be written as its type only
+        assertEquals(new StepDefinition("history"), steps.get(0));
+        assertEquals("streamingAverage", steps.get(1).getType());
+        assertEquals(10, steps.get(1).getInt("windowSize", 0));
+        assertEquals(0.1, steps.get(3).getDouble("deadband", 0.0), 0.0);
+        assertEquals(60000, steps.get(3).getLong("maxSilenceMs", 0));
+
+        assertEquals(MqttTopicDescriptor.MQTT_TOPIC_TYPE_DEVICE_INCOMING, configuration.getTopic("command_topic").getType());
+        assertNull(configuration.getTopic("unknown"));
+
+        assertEquals(new BrokerDefinition("127.0.0.1", 1883, "physicalBrokerTestClientId"), configuration.getSourceBroker());
+        assertEquals(new BrokerDefinition("127.0.0.1", 1884, "digitalBrokerTestClientId"), configuration.getDestinationBroker());
+        assertEquals(0, configuration.getPublishingQos());
+    }
+
+    @Test
+    public void invalidConfigurationsAreRejected() {
+
+        TopologyConfiguration duplicatedTopic = configuration(topic("a", "telemetry/{{device_id}}"), topic("a", "events/{{device_id}}"));
+        TopologyConfiguration missingDevice = configuration(topic("a", "telemetry/{{device_id}}"));
+        missingDevice.setDeviceId(null);
+        TopologyConfiguration invalidQos = configuration(topic("a", "telemetry/{{device_id}}"));
+        invalidQos.setPublishingQos(3);
+        TopologyConfiguration noTopics = configuration();
+
+        for(TopologyConfiguration configuration : new TopologyConfiguration[]{ duplicatedTopic, missingDevice, invalidQos, noTopics }){
+            try{
+                configuration.validate();
+                fail("Invalid configuration accepted: " + configuration);
+            }catch (IllegalArgumentException e){
+                assertNotNull(e.getMessage());
+            }
+        }
+    }
+
+    @Test
+    public void stepsAreNotPartOfTheConnections() {
+
+        TopologyConfiguration current = configuration(topic("a", "telemetry/{{device_id}}", new StepDefinition("identity")));
+        TopologyConfiguration changedSteps = configuration(topic("a", "telemetry/{{device_id}}", new StepDefinition("topicChange")));
+        TopologyConfiguration changedTopic = configuration(topic("a", "events/{{device_id}}"));
+        TopologyConfiguration changedBroker = configuration(topic("a", "telemetry/{{device_id}}"));
+        changedBroker.setSourceBroker(new BrokerDefinition("127.0.0.1", 1885, "physicalBrokerTestClientId"));
+
+        assertTrue(current.sameConnections(changedSteps));
+        assertFalse(current.sameConnections(changedTopic));
+        assertFalse(current.sameConnections(changedBroker));
+        assertFalse(current.sameConnections(null));
+    }
+
+    @Test
+    public void stepParametersAreConverted() {
+
+        StepDefinition definition = new StepDefinition("streamingAverage", Collections.singletonMap("windowSize", "20"));
+
+        assertEquals(20, definition.getInt("windowSize", 10));
+        assertEquals(10, definition.getInt("missing", 10));
+        assertEquals(definition, new StepDefinition("streamingAverage", Collections.singletonMap("windowSize", "20")));
+        assertNotEquals(definition, new StepDefinition("streamingAverage", Collections.singletonMap("windowSize", "30")));
+
+        try{
+            new StepDefinition("streamingAverage", Collections.singletonMap("windowSize", "large")).getInt("windowSize", 10);
+            fail("Non numeric parameter accepted");
+        }catch (IllegalArgumentException e){
+            assertTrue(e.getMessage().contains("windowSize"));
+        }
+    }
+}
@@ -0,0 +1,250 @@
+package it.unimore.dipi.iot.demo.mqtt.wldt.topology;
+
+import it.unimore.dipi.iot.wldt.processing.PipelineData;
+import it.unimore.dipi.iot.wldt.processing.ProcessingStep;
+import it.unimore.dipi.iot.wldt.processing.ProcessingStepListener;
+import it.unimore.dipi.iot.wldt.processing.cache.PipelineCache;
+import it.unimore.dipi.iot.wldt.processing.step.IdentityProcessingStep;
+import org.junit.After;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import static it.unimore.dipi.iot.demo.mqtt.wldt.topology.TopologyConfigurationTest.configuration;
+import static it.unimore.dipi.iot.demo.mqtt.wldt.topology.TopologyConfigurationTest.topic;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * @created: 18/10/2026
+ * @project: WLDT - MQTT Example
+ */
+public class TopologyManagerTest {
+
+    private static final String TELEMETRY_TOPIC = "telemetry/{{device_id}}";
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private final List<String> disposedTags = new CopyOnWriteArrayList<>();
+
+    private final AtomicInteger sharedCreatedCount = new AtomicInteger();
+
+    private final StepFactoryRegistry registry = new StepFactoryRegistry()
+            .register("tag", definition -> new TagStep(definition.getString("tag", null)), step -> disposedTags.add(((TagStep) step).tag))
+            .registerShared("shared", definition -> {
+                sharedCreatedCount.incrementAndGet();
+                return new TagStep("shared");
+            });
+
+    private TopologyManager topologyManager;
+
+    /**
+     * Step forwarding the data, identified by its tag
+     */
+    private static class TagStep implements ProcessingStep {
+
+        private final String tag;
+
+        private TagStep(String tag) {
+            this.tag = tag;
+        }
+
+        @Override
+        public void execute(PipelineCache pipelineCache, PipelineData data, ProcessingStepListener listener) {
+            listener.onStepDone(this, Optional.of(data));
+        }
+    }
+
+    private static StepDefinition tag(String tag) {
+        return new StepDefinition("tag", Collections.singletonMap("tag", tag));
+    }
+
+    private static String tagOf(ProcessingStep step) {
+        return ((TagStep) step).tag;
+    }
+
+    private TopologyManager createManager(TopologyConfiguration configuration) throws Exception {
+        topologyManager = new TopologyManager(configuration, registry, 0);
+        return topologyManager;
+    }
+
+    private static void awaitCondition(BooleanSupplier condition) throws InterruptedException {
+
+        long deadline = System.currentTimeMillis() + 10000;
+
+        while(!condition.getAsBoolean() && System.currentTimeMillis() < deadline)
+            Thread.sleep(10);
+
+        assertTrue(condition.getAsBoolean());
+    }
+
+    @After
+    public void tearDown() {
+        if(topologyManager != null)
+            topologyManager.stopWatching();
+    }
+
+    @Test
+    public void eachTopicHasItsPipeline() throws Exception {
+
+        TopologyManager manager = createManager(configuration(
+                topic("temperature", TELEMETRY_TOPIC, tag("a"), tag("b")),
+                topic("humidity", "humidity/{{device_id}}")));
+
+        ProcessingStep[] steps = manager.getPipeline("temperature").getSteps();
+        assertEquals(2, steps.length);
+        assertEquals("a", tagOf(steps[0]));
+        assertEquals("b", tagOf(steps[1]));
+
+        //A topic without steps is forwarded unchanged
+        ProcessingStep[] identity = manager.getPipeline("humidity").getSteps();
+        assertEquals(1, identity.length);
+        assertTrue(identity[0] instanceof IdentityProcessingStep);
+
+        assertEquals(2, manager.getPipelines().size());
+    }
+
+    @Test
+    public void unchangedStepsKeepTheirInstance() throws Exception {
+
+        TopologyManager manager = createManager(configuration(topic("temperature", TELEMETRY_TOPIC, tag("a"), tag("b"))));
+        ProcessingStep[] previous = manager.getPipeline("temperature").getSteps();
+
+        manager.apply(configuration(topic("temperature", TELEMETRY_TOPIC, tag("c"), tag("a"))));
+
+        ProcessingStep[] steps = manager.getPipeline("temperature").getSteps();
+        assertEquals("c", tagOf(steps[0]));
+        assertSame(previous[0], steps[1]);
+        assertEquals(1, manager.getReloadCount());
+
+        //The replaced step is disposed after the retire delay
+        awaitCondition(() -> disposedTags.contains("b"));
+        assertEquals(Collections.singletonList("b"), disposedTags);
+    }
+
+    @Test
+    public void sharedStepsAreCreatedOnce() throws Exception {
+
+        TopologyManager manager = createManager(configuration(
+                topic("temperature", TELEMETRY_TOPIC, new StepDefinition("shared")),
+                topic("humidity", "humidity/{{device_id}}", tag("a"), new StepDefinition("shared"))));
+
+        assertSame(manager.getPipeline("temperature").getSteps()[0], manager.getPipeline("humidity").getSteps()[1]);
+        assertEquals(1, sharedCreatedCount.get());
+        assertTrue(registry.isShared("shared"));
+    }
+
+    @Test
+    public void invalidConfigurationKeepsTheCurrentTopology() throws Exception {
+
+        TopologyManager manager = createManager(configuration(topic("temperature", TELEMETRY_TOPIC, tag("a"))));
+        ProcessingStep[] previous = manager.getPipeline("temperature").getSteps();
+        TopologyConfiguration current = manager.getConfiguration();
+
+        try{
+            manager.apply(configuration(topic("temperature", TELEMETRY_TOPIC, tag("a"), tag("d"), new StepDefinition("unknown"))));
+            fail("Unknown step type applied");
+        }catch (IllegalArgumentException e){
+            assertTrue(e.getMessage().contains("unknown"));
+        }
+
+        assertSame(previous[0], manager.getPipeline("temperature").getSteps()[0]);
+        assertEquals(1, manager.getPipeline("temperature").getSize());
+        assertSame(current, manager.getConfiguration());
+        assertEquals(0, manager.getReloadCount());
+
+        //The steps created for the rejected configuration are disposed immediately
+        assertEquals(Collections.singletonList("d"), disposedTags);
+    }
+
+    @Test
+    public void addedAndRemovedTopicsWaitForARestart() throws Exception {
+
+        TopologyManager manager = createManager(configuration(
+                topic("temperature", TELEMETRY_TOPIC, tag("a")),
+                topic("humidity", "humidity/{{device_id}}", tag("b"))));
+
+        manager.apply(configuration(
+                topic("temperature", TELEMETRY_TOPIC, tag("c")),
+                topic("pressure", "pressure/{{device_id}}", tag("d"))));
+
+        assertEquals(2, manager.getPipelines().size());
+        assertEquals("c", tagOf(manager.getPipeline("temperature").getSteps()[0]));
+        assertEquals("b", tagOf(manager.getPipeline("humidity").getSteps()[0]));
+        assertNull(manager.getPipeline("pressure"));
+    }
+
+    @Test
+    public void topologyFileIsReloadedWhenModified() throws Exception {
+
+        File topologyFile = temporaryFolder.newFile("topology.yaml");
+        writeTopology(topologyFile, "a");
+
+        TopologyManager manager = createManager(TopologyConfiguration.fromYamlFile(topologyFile.getPath()));
+        ProcessingStep previous = manager.getPipeline("temperature").getSteps()[1];
+        manager.startWatching(topologyFile.getPath());
+
+        writeTopology(topologyFile, "b");
+        awaitCondition(() -> manager.getReloadCount() == 1);
+
+        ProcessingStep[] steps = manager.getPipeline("temperature").getSteps();
+        assertEquals("b", tagOf(steps[0]));
+        assertSame(previous, steps[1]);
+
+        //An invalid file is reported and the current topology is kept
+        Files.write(topologyFile.toPath(), "topics: [".getBytes(StandardCharsets.UTF_8));
+        awaitCondition(() -> manager.getReloadErrorCount() >= 1);
+
+        assertEquals(1, manager.getReloadCount());
+        assertSame(steps[0], manager.getPipeline("temperature").getSteps()[0]);
+        assertFalse(manager.reload(new File(temporaryFolder.getRoot(), "missing.yaml").getPath()));
+    }
+
+    @Test
+    public void topologyCanBeWatchedOnce() throws Exception {
+
+        File topologyFile = temporaryFolder.newFile("topology.yaml");
+        writeTopology(topologyFile, "a");
+
+        TopologyManager manager = createManager(TopologyConfiguration.fromYamlFile(topologyFile.getPath()));
+        manager.startWatching(topologyFile.getPath());
+
+        try{
+            manager.startWatching(topologyFile.getPath());
+            fail("Topology watched twice");
+        }catch (IllegalStateException e){
+            assertNotNull(e.getMessage());
+        }
+    }
+
+    private static void writeTopology(File topologyFile, String firstTag) throws Exception {
+
+        String yaml = "deviceId: com:iot:dummy:dummyMqttDevice001\n" +
+                "topics:\n" +
+                "  - id: temperature\n" +
+                "    resourceId: temperature\n" +
+                "    topic: telemetry/{{device_id}}\n" +
+                "    steps:\n" +
+                "      - type: tag\n" +
+                "        params: { tag: " + firstTag + " }\n" +
+                "      - shared\n";
+
+        Files.write(topologyFile.toPath(), yaml.getBytes(StandardCharsets.UTF_8));
+    }
+}
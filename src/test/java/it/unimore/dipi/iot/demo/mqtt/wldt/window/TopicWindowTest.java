@@ -0,0 +1,189 @@
+package it.unimore.dipi.iot.demo.mqtt.wldt.window;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @created: 18/10/2026
+ * @project: WLDT - MQTT Example
+ */
+public class TopicWindowTest {
+
+    private static final String TOPIC = "telemetry/device001/resource/temperature";
+
+    @Test
+    public void tumblingWindowClosesAtTheAlignedBoundary() {
+
+        TopicWindow window = new TopicWindow(TOPIC, WindowConfiguration.tumbling(1000).addStatistic(WindowStatistic.AVERAGE, "avg"), 500);
+
+        window.add(500, 1);
+        window.add(700, 2);
+        window.add(999, 3);
+
+        assertFalse(window.isExpired(999));
+        assertTrue(window.closeExpired(999).isEmpty());
+
+        List<WindowResult> results = window.closeExpired(1000);
+
+        assertEquals(1, results.size());
+        WindowResult result = results.get(0);
+        assertEquals(0, result.getWindowStart());
+        assertEquals(1000, result.getWindowEnd());
+        assertEquals(3, result.getCount());
+        assertEquals(2.0, result.getAverage(), 0.0);
+        assertEquals(1.0, result.getMin(), 0.0);
+        assertEquals(3.0, result.getMax(), 0.0);
+        assertFalse(window.hasOpenSamples());
+
+        //Windows without samples are not reported
+        assertTrue(window.closeExpired(5500).isEmpty());
+    }
+
+    @Test
+    public void closeExpiredAndAddKeepsTheSampleInTheNewWindow() {
+
+        TopicWindow window = new TopicWindow(TOPIC, WindowConfiguration.tumbling(1000).addStatistic(WindowStatistic.AVERAGE, "avg"), 0);
+
+        window.add(900, 1);
+        List<WindowResult> results = window.closeExpiredAndAdd(1100, 10);
+
+        assertEquals(1, results.size());
+        assertEquals(1.0, results.get(0).getAverage(), 0.0);
+        assertTrue(window.hasOpenSamples());
+
+        results = window.closeExpired(2000);
+
+        assertEquals(1, results.size());
+        assertEquals(1000, results.get(0).getWindowStart());
+        assertEquals(10.0, results.get(0).getAverage(), 0.0);
+    }
+
+    @Test
+    public void slidingWindowReportsEachSlide() {
+
+        TopicWindow window = new TopicWindow(TOPIC, WindowConfiguration.sliding(3000, 1000).addStatistic(WindowStatistic.AVERAGE, "avg"), 0);
+
+        List<WindowResult> results = new ArrayList<>();
+
+        window.add(500, 1);
+        results.addAll(window.closeExpired(1000));
+        window.add(1500, 2);
+        for(long now = 2000; now <= 6000; now += 1000)
+            results.addAll(window.closeExpired(now));
+
+        double[] expectedAverages = {1.0, 1.5, 1.5, 2.0};
+        long[] expectedEnds = {1000, 2000, 3000, 4000};
+
+        assertEquals(expectedAverages.length, results.size());
+
+        for(int i = 0; i < results.size(); i++){
+            assertEquals(expectedAverages[i], results.get(i).getAverage(), 0.0);
+            assertEquals(expectedEnds[i], results.get(i).getWindowEnd());
+            assertEquals(expectedEnds[i] - 3000, results.get(i).getWindowStart());
+        }
+    }
+
+    @Test
+    public void slidingWindowReportsAllTheSlidesElapsedBetweenTwoCalls() {
+
+        TopicWindow window = new TopicWindow(TOPIC, WindowConfiguration.sliding(3000, 1000).addStatistic(WindowStatistic.AVERAGE, "avg"), 0);
+
+        window.add(500, 1);
+
+        //The sample belongs to the windows ending at 1000, 2000 and 3000
+        assertEquals(3, window.closeExpired(10000).size());
+        assertFalse(window.hasOpenSamples());
+    }
+
+    @Test
+    public void sessionWindowClosesAfterTheGap() {
+
+        TopicWindow window = new TopicWindow(TOPIC, WindowConfiguration.session(1000).addStatistic(WindowStatistic.COUNT, "count"), 0);
+
+        window.add(100, 4);
+        window.add(600, 6);
+
+        assertFalse(window.isExpired(1600));
+
+        List<WindowResult> results = window.closeExpired(1601);
+
+        assertEquals(1, results.size());
+        assertEquals(100, results.get(0).getWindowStart());
+        assertEquals(600, results.get(0).getWindowEnd());
+        assertEquals(2, results.get(0).getCount());
+        assertEquals(5.0, results.get(0).getAverage(), 0.0);
+        assertFalse(window.isExpired(10000));
+    }
+
+    @Test
+    public void percentilesOfASmallWindowAreExact() {
+
+        WindowConfiguration configuration = WindowConfiguration.tumbling(1000).addPercentile(50.0, "p50").addPercentile(100.0, "p100");
+        TopicWindow window = new TopicWindow(TOPIC, configuration, 0);
+
+        for(int value = 10; value >= 1; value--)
+            window.add(100, value);
+
+        double[] percentiles = window.closeExpired(1000).get(0).getPercentiles();
+
+        assertEquals(5.0, percentiles[0], 0.0);
+        assertEquals(10.0, percentiles[1], 0.0);
+    }
+
+    @Test
+    public void percentilesAreWeightedByThePaneCount() {
+
+        WindowConfiguration configuration = WindowConfiguration.sliding(2000, 1000).addPercentile(90.0, "p90");
+        configuration.setPercentileSampleSize(4);
+        TopicWindow window = new TopicWindow(TOPIC, configuration, 0);
+
+        //The reservoir of the first pane keeps 4 of 100 samples, the second one all its 4 samples
+        for(int i = 0; i < 100; i++)
+            window.add(500, 1.0);
+        window.closeExpired(1000);
+        for(int i = 0; i < 4; i++)
+            window.add(1500, 100.0);
+
+        WindowResult result = window.closeExpired(2000).get(0);
+
+        //Unweighted the 90th percentile of the 8 samples would be 100
+        assertEquals(104, result.getCount());
+        assertEquals(1.0, result.getPercentiles()[0], 0.0);
+    }
+
+    @Test
+    public void panesWithoutPercentilesDoNotKeepSamples() {
+
+        WindowPane pane = new WindowPane(0, 1);
+        pane.add(1.0);
+        pane.add(2.0);
+
+        assertEquals(2, pane.getAggregator().getCount());
+        assertEquals(0, pane.getSampleCount());
+        assertNull(pane.getReservoir());
+    }
+
+    @Test
+    public void reservoirKeepsAtMostTheSampleSize() {
+
+        WindowPane pane = new WindowPane(8, 1);
+        for(int i = 0; i < 1000; i++)
+            pane.add(i);
+
+        assertEquals(8, pane.getSampleCount());
+        for(double sample : pane.getReservoir())
+            assertTrue(sample >= 0 && sample < 1000);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void slideMustDivideTheWindowLength() {
+        WindowConfiguration.sliding(3000, 2000).addStatistic(WindowStatistic.AVERAGE, "avg").validate();
+    }
+}